@@ -0,0 +1,48 @@
+#!/bin/bash
+
+#############################################
+# PastCare Spring - Load Test Runner
+#
+# Seeds N churches x M members (attendance, donations, events,
+# fellowships) and runs the load-test scenarios against the app.
+# Uses in-memory H2 by default; pass spring.datasource.* to use a local DB.
+#
+# Usage:
+#   ./run-load-tests.sh                       # 5 churches x 500 members, 16 clients
+#   ./run-load-tests.sh -Dloadtest.churches=20 -Dloadtest.members=2000 -Dloadtest.threads=64
+#   ./run-load-tests.sh -Dspring.datasource.url=jdbc:mysql://localhost:3306/pastcare_load \
+#       -Dspring.datasource.username=root -Dspring.datasource.password=secret \
+#       -Dspring.datasource.driverClassName=com.mysql.cj.jdbc.Driver \
+#       -Dspring.jpa.database-platform=org.hibernate.dialect.MySQLDialect
+#############################################
+
+set -e
+
+echo "╔═══════════════════════════════════════════════════════════╗"
+echo "║  Running Load Test Suite                                  ║"
+echo "╚═══════════════════════════════════════════════════════════╝"
+echo ""
+echo "Scenarios:"
+echo "  ✓ Dashboard load"
+echo "  ✓ Member search"
+echo "  ✓ Sunday check-in burst"
+echo "  ✓ Bulk SMS (scheduled, no gateway calls)"
+echo "  ✓ Report export (Excel)"
+echo ""
+
+START_TIME=$(date +%s)
+
+mvn test -P load-tests "$@"
+
+END_TIME=$(date +%s)
+DURATION=$((END_TIME - START_TIME))
+MINUTES=$((DURATION / 60))
+SECONDS=$((DURATION % 60))
+
+echo ""
+echo "✓ Load Tests Completed!"
+echo "Duration: ${MINUTES}m ${SECONDS}s"
+echo ""
+echo "Results Location:"
+echo "  - target/loadtest-results.json"
+echo ""
@@ -0,0 +1,63 @@
+package com.reuben.pastcare_spring.benchmarks;
+
+import com.reuben.pastcare_spring.services.GeofenceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Haversine distance from one check-in position to every session in a set,
+ * the loop behind nearby-session lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeofenceServiceBenchmark {
+
+    // Around Accra
+    private static final double USER_LAT = 5.6037;
+    private static final double USER_LON = -0.1870;
+
+    @Param({"1000", "10000", "100000"})
+    public int sessions;
+
+    private final GeofenceService service = new GeofenceService(null);
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        latitudes = new double[sessions];
+        longitudes = new double[sessions];
+        for (int i = 0; i < sessions; i++) {
+            latitudes[i] = USER_LAT + (random.nextDouble() - 0.5);
+            longitudes[i] = USER_LON + (random.nextDouble() - 0.5);
+        }
+    }
+
+    @Benchmark
+    public int countWithin500Meters() {
+        int within = 0;
+        for (int i = 0; i < sessions; i++) {
+            if (service.calculateDistance(USER_LAT, USER_LON, latitudes[i], longitudes[i]) <= 500) {
+                within++;
+            }
+        }
+        return within;
+    }
+}
@@ -0,0 +1,112 @@
+package com.reuben.pastcare_spring.benchmarks;
+
+import com.reuben.pastcare_spring.PastcareSpringApplication;
+import com.reuben.pastcare_spring.dtos.AdvancedSearchRequest;
+import com.reuben.pastcare_spring.dtos.AdvancedSearchRequest.FilterCriteria;
+import com.reuben.pastcare_spring.dtos.AdvancedSearchRequest.FilterGroup;
+import com.reuben.pastcare_spring.dtos.AdvancedSearchRequest.FilterOperator;
+import com.reuben.pastcare_spring.dtos.AdvancedSearchRequest.LogicalOperator;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.specifications.MemberSpecification;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Predicate construction for advanced member search, without executing the query.
+ *
+ * Needs Hibernate's CriteriaBuilder, so the trial boots the application once with
+ * the H2 test profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberSpecificationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CriteriaBuilder criteriaBuilder;
+    private Specification<Member> simpleSearch;
+    private Specification<Member> complexSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PastcareSpringApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .properties("logging.level.root=WARN", "logging.level.com.reuben.pastcare_spring=WARN",
+                "spring.jpa.show-sql=false")
+            .run();
+        criteriaBuilder = context.getBean(EntityManagerFactory.class).getCriteriaBuilder();
+
+        Church church = new Church();
+        church.setId(1L);
+
+        simpleSearch = MemberSpecification.fromAdvancedSearch(new AdvancedSearchRequest(
+            List.of(new FilterGroup(List.of(
+                new FilterCriteria("firstName", FilterOperator.CONTAINS, "kwa", null)
+            ), LogicalOperator.AND)),
+            LogicalOperator.AND), church);
+
+        complexSearch = MemberSpecification.fromAdvancedSearch(new AdvancedSearchRequest(
+            List.of(
+                new FilterGroup(List.of(
+                    new FilterCriteria("firstName", FilterOperator.STARTS_WITH, "Ama", null),
+                    new FilterCriteria("lastName", FilterOperator.EQUALS, "Mensah", null),
+                    new FilterCriteria("sex", FilterOperator.EQUALS, "Female", null)
+                ), LogicalOperator.OR),
+                new FilterGroup(List.of(
+                    new FilterCriteria("location.city", FilterOperator.EQUALS, "Accra", null),
+                    new FilterCriteria("dob", FilterOperator.BETWEEN, "1980-01-01", "2000-12-31"),
+                    new FilterCriteria("profileCompleteness", FilterOperator.GREATER_THAN, 50, null),
+                    new FilterCriteria("profileImageUrl", FilterOperator.IS_NOT_NULL, null, null)
+                ), LogicalOperator.AND)
+            ),
+            LogicalOperator.AND), church);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Predicate simpleSearch() {
+        return build(simpleSearch);
+    }
+
+    @Benchmark
+    public Predicate complexSearch() {
+        return build(complexSearch);
+    }
+
+    private Predicate build(Specification<Member> specification) {
+        CriteriaQuery<Member> query = criteriaBuilder.createQuery(Member.class);
+        Root<Member> root = query.from(Member.class);
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
@@ -0,0 +1,62 @@
+package com.reuben.pastcare_spring.benchmarks;
+
+import com.reuben.pastcare_spring.services.PhoneNumberService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phone number handling run for every recipient of a bulk SMS.
+ *
+ * Inputs mix local, international and already-normalized formats, so each
+ * invocation covers the same branches a real recipient list does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhoneNumberServiceBenchmark {
+
+    private static final String[] NUMBERS = {
+        "0241234567", "+233241234567", "233241234567", "024 123 4567",
+        "+2348012345678", "+447700900123", "+15551234567", "(024) 123-4567"
+    };
+
+    private static final String SHORT_MESSAGE = "Reminder: Sunday service starts at 9am. God bless!";
+    private static final String LONG_MESSAGE = SHORT_MESSAGE.repeat(8);
+    private static final String UNICODE_MESSAGE = "Akwaaba! ❤ " + SHORT_MESSAGE.repeat(3);
+
+    private final PhoneNumberService service = new PhoneNumberService();
+
+    @Benchmark
+    public void normalizePhoneNumber(Blackhole bh) {
+        for (String number : NUMBERS) {
+            bh.consume(service.normalizePhoneNumber(number));
+        }
+    }
+
+    @Benchmark
+    public void extractCountryCode(Blackhole bh) {
+        for (String number : NUMBERS) {
+            bh.consume(service.extractCountryCode(number));
+        }
+    }
+
+    @Benchmark
+    public void calculateMessageCount(Blackhole bh) {
+        bh.consume(service.calculateMessageCount(SHORT_MESSAGE));
+        bh.consume(service.calculateMessageCount(LONG_MESSAGE));
+        bh.consume(service.calculateMessageCount(UNICODE_MESSAGE));
+    }
+}
@@ -0,0 +1,81 @@
+package com.reuben.pastcare_spring.benchmarks;
+
+import com.reuben.pastcare_spring.models.Fellowship;
+import com.reuben.pastcare_spring.models.Location;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.services.ProfileCompletenessService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completeness scoring over a batch of members (member imports and bulk updates
+ * score every row).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfileCompletenessServiceBenchmark {
+
+    private static final int MEMBERS = 1000;
+
+    private final ProfileCompletenessService service = new ProfileCompletenessService();
+    private final List<Member> members = new ArrayList<>(MEMBERS);
+
+    @Setup
+    public void setUp() {
+        Location location = new Location();
+        location.setCity("Accra");
+        Fellowship fellowship = new Fellowship();
+
+        // Cycle through partially and fully completed profiles
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member();
+            member.setFirstName("Member" + i);
+            member.setLastName("Bench");
+            member.setPhoneNumber("+23324" + String.format("%07d", i));
+            member.setSex(i % 2 == 0 ? "Male" : "Female");
+            if (i % 2 == 0) {
+                member.setDob(LocalDate.of(1990, 1, 1).plusDays(i));
+                member.setLocation(location);
+            }
+            if (i % 3 == 0) {
+                member.setMaritalStatus(i % 6 == 0 ? "married" : "single");
+                member.setOccupation("Teacher");
+                member.setMemberSince(YearMonth.of(2015, 1 + i % 12));
+            }
+            if (i % 4 == 0) {
+                member.setProfileImageUrl("/uploads/profile/" + i + ".jpg");
+                member.setFellowships(List.of(fellowship));
+                member.setEmergencyContactName("Contact " + i);
+                member.setEmergencyContactNumber("+23320" + String.format("%07d", i));
+            }
+            members.add(member);
+        }
+    }
+
+    @Benchmark
+    public int calculateCompleteness() {
+        int total = 0;
+        for (Member member : members) {
+            total += service.calculateCompleteness(member);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,77 @@
+package com.reuben.pastcare_spring.benchmarks;
+
+import com.reuben.pastcare_spring.services.QRCodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QR payload encryption/decryption and PNG rendering.
+ *
+ * {@code renderUncached} uses a service with a zero-entry image cache, so every call
+ * renders; {@code renderCached} measures the memoized path ticket batches hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QRCodeServiceBenchmark {
+
+    private QRCodeService service;
+    private QRCodeService uncachedService;
+    private LocalDateTime expiry;
+    private String payload;
+    private long sessionId;
+
+    @Setup
+    public void setUp() {
+        service = createService(2000);
+        uncachedService = createService(0);
+        expiry = LocalDateTime.now().plusDays(1);
+        payload = service.generateQRCodeData(42L, expiry);
+    }
+
+    private static QRCodeService createService(int imageCacheEntries) {
+        QRCodeService qrCodeService = new QRCodeService();
+        ReflectionTestUtils.setField(qrCodeService, "secretKey", "PastCareQRCode16");
+        ReflectionTestUtils.setField(qrCodeService, "defaultExpiryHours", 24);
+        ReflectionTestUtils.setField(qrCodeService, "frontendUrl", "http://localhost:4200");
+        ReflectionTestUtils.setField(qrCodeService, "imageCacheMaxEntries", imageCacheEntries);
+        ReflectionTestUtils.invokeMethod(qrCodeService, "init");
+        return qrCodeService;
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return service.generateQRCodeData(++sessionId, expiry);
+    }
+
+    @Benchmark
+    public Map<String, Object> decrypt() {
+        return service.validateQRCode(payload);
+    }
+
+    @Benchmark
+    public byte[] renderUncached() {
+        return uncachedService.generateQRCodePng(payload, 300, 300);
+    }
+
+    @Benchmark
+    public byte[] renderCached() {
+        return service.generateQRCodePng(payload, 300, 300);
+    }
+}
@@ -0,0 +1,76 @@
+package com.reuben.pastcare_spring.benchmarks;
+
+import com.reuben.pastcare_spring.services.CsvReportService;
+import com.reuben.pastcare_spring.services.ExcelReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV and Excel export of a member-style report at 10k and 100k rows.
+ *
+ * Single-shot timing: each invocation is one full export, as a user triggers it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReportGenerationBenchmark {
+
+    private static final List<String> HEADERS = List.of(
+        "ID", "First Name", "Last Name", "Phone", "Date of Birth", "Member Since", "Verified", "Total Given", "Last Updated");
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private final CsvReportService csvReportService = new CsvReportService();
+    private final ExcelReportService excelReportService = new ExcelReportService();
+    private List<List<Object>> data;
+
+    @Setup
+    public void setUp() {
+        data = new ArrayList<>(rows);
+        LocalDateTime updated = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 0; i < rows; i++) {
+            List<Object> row = new ArrayList<>(HEADERS.size());
+            row.add((long) i);
+            row.add("Member" + i);
+            row.add(i % 3 == 0 ? "Mensah, Jr." : "Owusu");
+            row.add("+23324" + String.format("%07d", i));
+            row.add(LocalDate.of(1970, 1, 1).plusDays(i % 15000));
+            row.add(i % 5 == 0 ? null : "2015-06");
+            row.add(i % 2 == 0);
+            row.add(BigDecimal.valueOf(i % 1000, 2));
+            row.add(updated.plusMinutes(i));
+            data.add(row);
+        }
+    }
+
+    @Benchmark
+    public byte[] csv() throws IOException {
+        return csvReportService.generateCsvReport(HEADERS, data);
+    }
+
+    @Benchmark
+    public byte[] excel() throws IOException {
+        return excelReportService.generateExcelReport(HEADERS, data, "Members");
+    }
+}
@@ -0,0 +1,42 @@
+package com.reuben.pastcare_spring.benchmarks;
+
+import com.reuben.pastcare_spring.enums.Permission;
+import com.reuben.pastcare_spring.enums.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Role#hasAllPermissions} as evaluated by the permission aspect on every
+ * annotated request, for a role that passes and one that fails early.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RolePermissionBenchmark {
+
+    private final Permission[] required = {
+        Permission.MEMBER_VIEW_ALL, Permission.MEMBER_EDIT_ALL, Permission.MEMBER_CREATE, Permission.MEMBER_DELETE
+    };
+
+    @Benchmark
+    public boolean adminHasAll() {
+        return Role.ADMIN.hasAllPermissions(required);
+    }
+
+    @Benchmark
+    public boolean memberHasAll() {
+        return Role.MEMBER.hasAllPermissions(required);
+    }
+}
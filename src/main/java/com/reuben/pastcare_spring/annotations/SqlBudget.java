@@ -0,0 +1,28 @@
+package com.reuben.pastcare_spring.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the per-request SQL statement budget for a controller method or class.
+ *
+ * Requests that issue more statements than the budget are logged and counted
+ * as {@code http.server.requests.sql.budget.exceeded}. Without this annotation the
+ * default from {@code app.metrics.sql-budget.max-statements} applies.
+ *
+ * Usage:
+ * - Reporting endpoint with a known higher cost: @SqlBudget(200)
+ * - Disable the check: @SqlBudget(0)
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * Maximum SQL statements the request may issue; 0 disables the check.
+     * @return statement budget
+     */
+    int value();
+}
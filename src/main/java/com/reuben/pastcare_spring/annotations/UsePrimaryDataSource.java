@@ -0,0 +1,20 @@
+package com.reuben.pastcare_spring.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Run a read-only method (or every method of a class) against the primary database
+ * instead of the read replica.
+ *
+ * <p>For reads that must see writes committed moments earlier, where replica lag
+ * would show stale data. Has no effect when replica routing is disabled.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UsePrimaryDataSource {
+}
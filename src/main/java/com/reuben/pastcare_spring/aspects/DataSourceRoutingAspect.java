@@ -0,0 +1,31 @@
+package com.reuben.pastcare_spring.aspects;
+
+import com.reuben.pastcare_spring.datasource.DataSourceRoutingContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link com.reuben.pastcare_spring.annotations.UsePrimaryDataSource}.
+ * Runs before the transaction interceptor so the override is in place when the
+ * transaction acquires its connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataSourceRoutingAspect {
+
+    @Around("@annotation(com.reuben.pastcare_spring.annotations.UsePrimaryDataSource) || " +
+            "@within(com.reuben.pastcare_spring.annotations.UsePrimaryDataSource)")
+    public Object usePrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = DataSourceRoutingContext.forcePrimary();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRoutingContext.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.reuben.pastcare_spring.aspects;
+
+import com.reuben.pastcare_spring.services.SmsGatewayService;
+import com.reuben.pastcare_spring.services.SmsGatewayService.SmsGatewayResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times calls to external providers.
+ *
+ * <ul>
+ *   <li>{@code sms.gateway.requests} per gateway and operation</li>
+ *   <li>{@code paystack.requests} per operation</li>
+ * </ul>
+ *
+ * Both are tagged with an outcome (success, failure = provider rejected, error = exception),
+ * so error rates are the failure/error share of the timer count.
+ */
+@Aspect
+@Component
+public class OutboundCallMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public OutboundCallMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.reuben.pastcare_spring.services.SmsGatewayService+.sendSms(..)) || " +
+            "execution(* com.reuben.pastcare_spring.services.SmsGatewayService+.getDeliveryStatus(..))")
+    public Object timeSmsGateway(ProceedingJoinPoint joinPoint) throws Throwable {
+        String gateway = ((SmsGatewayService) joinPoint.getTarget()).getGatewayType().name();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = result instanceof SmsGatewayResponse response && !response.isSuccess() ? "failure" : "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("sms.gateway.requests")
+                    .description("Latency of SMS gateway calls")
+                    .tags("gateway", gateway, "operation", joinPoint.getSignature().getName(), "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("execution(* com.reuben.pastcare_spring.services.PaystackService.initializePayment(..)) || " +
+            "execution(* com.reuben.pastcare_spring.services.PaystackService.verifyPayment(..)) || " +
+            "execution(* com.reuben.pastcare_spring.services.PaystackService.chargeAuthorization(..))")
+    public Object timePaystack(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("paystack.requests")
+                    .description("Latency of Paystack API calls")
+                    .tags("operation", joinPoint.getSignature().getName(), "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
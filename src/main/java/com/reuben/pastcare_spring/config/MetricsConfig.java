@@ -0,0 +1,36 @@
+package com.reuben.pastcare_spring.config;
+
+import com.reuben.pastcare_spring.metrics.RequestMetricsFilter;
+import com.reuben.pastcare_spring.metrics.TenantTierResolver;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * Metrics configuration.
+ *
+ * <p>Exposed on the management port ({@code /actuator/prometheus}); see the
+ * {@code management.*} properties for histograms and the Hikari pool meters.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Adds the tenant pricing tier to the {@code http.server.requests} timers,
+     * so endpoint latency can be broken down by tier.
+     */
+    @Bean
+    public ServerRequestObservationConvention tenantTierServerRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object tier = context.getCarrier().getAttribute(RequestMetricsFilter.TENANT_TIER_ATTRIBUTE);
+                return super.getLowCardinalityKeyValues(context)
+                        .and("tenant.tier", tier != null ? tier.toString() : TenantTierResolver.NONE);
+            }
+        };
+    }
+}
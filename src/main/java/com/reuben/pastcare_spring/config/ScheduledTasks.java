@@ -6,8 +6,12 @@ import com.reuben.pastcare_spring.repositories.ChurchRepository;
 import com.reuben.pastcare_spring.repositories.ChurchSubscriptionRepository;
 import com.reuben.pastcare_spring.services.EventReminderService;
 import com.reuben.pastcare_spring.services.BillingService;
+import com.reuben.pastcare_spring.services.CampaignProgressLedger;
 import com.reuben.pastcare_spring.services.DataDeletionService;
 import com.reuben.pastcare_spring.services.JobMonitoringService;
+import com.reuben.pastcare_spring.services.MemberEngagementService;
+import com.reuben.pastcare_spring.services.MemberRiskService;
+import com.reuben.pastcare_spring.services.PlatformMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -33,6 +37,10 @@ public class ScheduledTasks {
     private final DataDeletionService dataDeletionService;
     private final ChurchSubscriptionRepository subscriptionRepository;
     private final JobMonitoringService jobMonitoringService;
+    private final MemberEngagementService memberEngagementService;
+    private final MemberRiskService memberRiskService;
+    private final PlatformMetricsService platformMetricsService;
+    private final CampaignProgressLedger campaignProgressLedger;
 
     /**
      * Send event reminders daily at 9:00 AM
@@ -70,6 +78,101 @@ public class ScheduledTasks {
         }
     }
 
+    /**
+     * Refresh member engagement daily at 0:30 AM
+     * Rolls the 30/90 day attendance windows forward and backfills members without a row
+     */
+    @Scheduled(cron = "0 30 0 * * *", zone = "UTC")
+    public void refreshMemberEngagement() {
+        var execution = jobMonitoringService.startJobExecution(
+            "refreshMemberEngagement",
+            "Roll member engagement windows forward"
+        );
+
+        try {
+            LocalDate today = LocalDate.now();
+            List<Church> churches = churchRepository.findAll();
+
+            int totalChurchesProcessed = 0;
+            int totalFailed = 0;
+
+            for (Church church : churches) {
+                try {
+                    memberEngagementService.refreshChurch(church.getId(), today);
+                    totalChurchesProcessed++;
+                } catch (Exception e) {
+                    log.error("Error refreshing engagement for church {}: {}", church.getId(), e.getMessage(), e);
+                    totalFailed++;
+                }
+            }
+
+            jobMonitoringService.markJobCompleted(execution.getId(), totalChurchesProcessed, totalFailed);
+
+        } catch (Exception e) {
+            jobMonitoringService.markJobFailed(execution.getId(), e);
+            log.error("Error in member engagement refresh job: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recompute member risk daily at 0:40 AM
+     * Runs after engagement windows roll forward so absence streaks are current
+     */
+    @Scheduled(cron = "0 40 0 * * *", zone = "UTC")
+    public void refreshMemberRisk() {
+        var execution = jobMonitoringService.startJobExecution(
+            "refreshMemberRisk",
+            "Recompute ranked pastoral-risk snapshot"
+        );
+
+        try {
+            LocalDate today = LocalDate.now();
+            List<Church> churches = churchRepository.findAll();
+
+            int totalChurchesProcessed = 0;
+            int totalFailed = 0;
+            int totalAtRisk = 0;
+
+            for (Church church : churches) {
+                try {
+                    totalAtRisk += memberRiskService.recompute(church.getId(), today);
+                    totalChurchesProcessed++;
+                } catch (Exception e) {
+                    log.error("Error computing member risk for church {}: {}", church.getId(), e.getMessage(), e);
+                    totalFailed++;
+                }
+            }
+
+            log.info("Member risk recomputed for {} churches: {} members at risk", totalChurchesProcessed, totalAtRisk);
+            jobMonitoringService.markJobCompleted(execution.getId(), totalChurchesProcessed, totalFailed);
+
+        } catch (Exception e) {
+            jobMonitoringService.markJobFailed(execution.getId(), e);
+            log.error("Error in member risk job: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Snapshot platform metrics daily at 0:45 AM
+     * Writes per-church and platform-wide rows used for SUPERADMIN trends and growth figures
+     */
+    @Scheduled(cron = "0 45 0 * * *", zone = "UTC")
+    public void snapshotPlatformMetrics() {
+        var execution = jobMonitoringService.startJobExecution(
+            "snapshotPlatformMetrics",
+            "Capture daily platform metrics snapshot"
+        );
+
+        try {
+            var snapshot = platformMetricsService.captureSnapshot(LocalDate.now());
+            jobMonitoringService.markJobCompleted(execution.getId(), snapshot.getTotalChurches(), 0);
+
+        } catch (Exception e) {
+            jobMonitoringService.markJobFailed(execution.getId(), e);
+            log.error("Error in platform metrics snapshot job: {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * Cleanup old data weekly on Sunday at 2:00 AM
      * Can be extended to clean up old logs, expired tokens, etc.
@@ -117,8 +220,8 @@ public class ScheduledTasks {
         );
 
         try {
-            billingService.processSubscriptionRenewals();
-            jobMonitoringService.markJobCompleted(execution.getId(), 0, 0);
+            var report = billingService.processSubscriptionRenewals();
+            jobMonitoringService.markJobCompleted(execution.getId(), report.renewed(), report.failed() + report.errors());
         } catch (Exception e) {
             jobMonitoringService.markJobFailed(execution.getId(), e);
             log.error("Error in subscription renewal job: {}", e.getMessage(), e);
@@ -145,6 +248,26 @@ public class ScheduledTasks {
         }
     }
 
+    /**
+     * Reconcile campaign progress counters daily at 3:30 AM
+     * Recounts each campaign from its donations and pledges and repairs counters that drifted
+     */
+    @Scheduled(cron = "0 30 3 * * *", zone = "UTC")
+    public void reconcileCampaignProgress() {
+        var execution = jobMonitoringService.startJobExecution(
+            "reconcileCampaignProgress",
+            "Recount campaign progress and repair drifted counters"
+        );
+
+        try {
+            var report = campaignProgressLedger.reconcileAll();
+            jobMonitoringService.markJobCompleted(execution.getId(), report.checked(), report.failed());
+        } catch (Exception e) {
+            jobMonitoringService.markJobFailed(execution.getId(), e);
+            log.error("Error in campaign progress reconciliation job: {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * Send deletion warning emails daily at 1:00 AM
      * Sends 7-day warning emails to churches whose data retention period is ending soon
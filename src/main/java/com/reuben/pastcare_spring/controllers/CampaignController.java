@@ -258,11 +258,12 @@ public class CampaignController {
   }
 
   /**
-   * Update campaign progress (manual trigger)
+   * Recount campaign progress (manual trigger; counters are otherwise kept current as donations
+   * and pledges change, and reconciled nightly)
    */
   @PostMapping("/{id}/update-progress")
   @RequirePermission(Permission.CAMPAIGN_MANAGE)
-  @Operation(summary = "Update campaign progress", description = "Manually triggers campaign progress update")
+  @Operation(summary = "Update campaign progress", description = "Recounts campaign progress from its donations and pledges and repairs drifted counters")
   public ResponseEntity<Void> updateCampaignProgress(@PathVariable Long id) {
     campaignService.updateCampaignProgress(id);
     return ResponseEntity.ok().build();
@@ -5,10 +5,12 @@ import com.reuben.pastcare_spring.dtos.AutoDetectedCareNeed;
 import com.reuben.pastcare_spring.dtos.CareNeedRequest;
 import com.reuben.pastcare_spring.dtos.CareNeedResponse;
 import com.reuben.pastcare_spring.dtos.CareNeedStatsResponse;
+import com.reuben.pastcare_spring.dtos.MemberRiskResponse;
 import com.reuben.pastcare_spring.enums.Permission;
 import com.reuben.pastcare_spring.models.CareNeedStatus;
 import com.reuben.pastcare_spring.models.CareNeedType;
 import com.reuben.pastcare_spring.services.CareNeedService;
+import com.reuben.pastcare_spring.services.MemberRiskService;
 import com.reuben.pastcare_spring.util.RequestContextUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +24,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -35,6 +38,7 @@ import java.util.Map;
 public class CareNeedController {
 
     private final CareNeedService careNeedService;
+    private final MemberRiskService memberRiskService;
     private final RequestContextUtil requestContextUtil;
 
     /**
@@ -315,4 +319,29 @@ public class CareNeedController {
         List<AutoDetectedCareNeed> suggestions = careNeedService.getAutoDetectedCareNeeds(churchId);
         return ResponseEntity.ok(suggestions);
     }
+
+    /**
+     * Get ranked member risk snapshot
+     */
+    @GetMapping("/risk")
+    @RequirePermission(Permission.CARE_NEED_VIEW_ALL)
+    @Operation(summary = "Member risk", description = "Returns members ranked by pastoral-risk score")
+    public ResponseEntity<List<MemberRiskResponse>> getMemberRisk(
+            @RequestParam(defaultValue = "25") int limit,
+            HttpServletRequest httpRequest) {
+        Long churchId = requestContextUtil.extractChurchId(httpRequest);
+        return ResponseEntity.ok(memberRiskService.getTopRisks(churchId, limit));
+    }
+
+    /**
+     * Recompute the member risk snapshot now
+     */
+    @PostMapping("/risk/refresh")
+    @RequirePermission(Permission.CARE_NEED_VIEW_ALL)
+    @Operation(summary = "Refresh member risk", description = "Recomputes pastoral-risk scores for the church immediately")
+    public ResponseEntity<Map<String, Integer>> refreshMemberRisk(HttpServletRequest httpRequest) {
+        Long churchId = requestContextUtil.extractChurchId(httpRequest);
+        int atRisk = memberRiskService.recompute(churchId, LocalDate.now());
+        return ResponseEntity.ok(Map.of("membersAtRisk", atRisk));
+    }
 }
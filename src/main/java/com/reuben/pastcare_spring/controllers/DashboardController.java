@@ -164,6 +164,19 @@ public class DashboardController {
     return ResponseEntity.ok(irregularAttenders);
   }
 
+  /**
+   * Get members most at risk of drifting away.
+   *
+   * @return Highest-ranked members from the pastoral-risk snapshot
+   */
+  @GetMapping("/at-risk-members")
+  @RequirePermission(Permission.MEMBER_VIEW_ALL)
+  @Operation(summary = "Get at-risk members", description = "Returns the members with the highest pastoral-risk scores")
+  public ResponseEntity<List<MemberRiskResponse>> getAtRiskMembers(HttpServletRequest request) {
+    Long userId = extractUserIdFromRequest(request);
+    return ResponseEntity.ok(dashboardService.getAtRiskMembers(userId));
+  }
+
   /**
    * Get member growth trend (last 6 months).
    *
@@ -4,6 +4,9 @@ import com.reuben.pastcare_spring.annotations.RequirePermission;
 import com.reuben.pastcare_spring.dtos.DonationRequest;
 import com.reuben.pastcare_spring.dtos.DonationResponse;
 import com.reuben.pastcare_spring.dtos.DonationSummaryResponse;
+import com.reuben.pastcare_spring.dtos.GivingTrendResponse;
+import com.reuben.pastcare_spring.dtos.GivingTypeTotal;
+import com.reuben.pastcare_spring.enums.GivingInterval;
 import com.reuben.pastcare_spring.enums.Permission;
 import com.reuben.pastcare_spring.models.DonationType;
 import com.reuben.pastcare_spring.services.DonationService;
@@ -186,6 +189,39 @@ public class DonationController {
     return ResponseEntity.ok(summary);
   }
 
+  /**
+   * Get giving totals per day, week or month, split by donation type
+   */
+  @GetMapping("/summary/trend")
+  @RequirePermission(Permission.DONATION_VIEW_ALL)
+  @Operation(summary = "Get giving trend", description = "Returns giving totals per day, week or month within a date range, each split by donation type")
+  public ResponseEntity<GivingTrendResponse> getGivingTrend(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      @RequestParam(defaultValue = "MONTH") GivingInterval interval,
+      HttpServletRequest request
+  ) {
+    Long churchId = requestContextUtil.extractChurchId(request);
+    GivingTrendResponse trend = donationService.getGivingTrend(churchId, startDate, endDate, interval);
+    return ResponseEntity.ok(trend);
+  }
+
+  /**
+   * Get giving totals by donation type
+   */
+  @GetMapping("/summary/by-type")
+  @RequirePermission(Permission.DONATION_VIEW_ALL)
+  @Operation(summary = "Get giving by type", description = "Returns giving totals per donation type within a date range")
+  public ResponseEntity<List<GivingTypeTotal>> getGivingByType(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      HttpServletRequest request
+  ) {
+    Long churchId = requestContextUtil.extractChurchId(request);
+    List<GivingTypeTotal> totals = donationService.getGivingByType(churchId, startDate, endDate);
+    return ResponseEntity.ok(totals);
+  }
+
   /**
    * Issue receipt for a donation
    */
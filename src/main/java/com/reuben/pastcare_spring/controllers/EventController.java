@@ -5,6 +5,7 @@ import com.reuben.pastcare_spring.enums.Permission;
 
 import com.reuben.pastcare_spring.dtos.*;
 import com.reuben.pastcare_spring.models.*;
+import com.reuben.pastcare_spring.security.TenantContext;
 import com.reuben.pastcare_spring.services.*;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,13 +13,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,9 +46,11 @@ public class EventController {
     private final ImageService imageService;
     private final EventImageService eventImageService;
     private final CalendarExportService calendarExportService;
+    private final CalendarFeedService calendarFeedService;
     private final EventReminderService reminderService;
     private final EventAnalyticsService analyticsService;
     private final RecurringEventService recurringEventService;
+    private final EventOccurrenceService occurrenceService;
     private final EventAttendanceService eventAttendanceService;
     private final com.reuben.pastcare_spring.repositories.UserRepository userRepository;
 
@@ -362,7 +371,7 @@ public class EventController {
             EventResponse event = eventService.getEvent(id);
 
             // Upload image
-            String imageUrl = imageService.uploadEventImage(image, event.getImageUrl());
+            String imageUrl = imageService.uploadEventImage(image);
 
             // Update event with image URL
             EventRequest updateRequest = EventRequest.builder()
@@ -427,24 +436,33 @@ public class EventController {
     }
 
     /**
-     * Export all church events to iCal format
+     * Export all church events to iCal format (subscribable feed).
+     *
+     * <p>Served from the per-church feed cache with ETag / If-None-Match support,
+     * so polling calendar clients usually get a 304. Optional {@code from}/{@code to}
+     * dates (inclusive) limit the feed to a window.
      */
     @GetMapping("/ical")
     @RequirePermission(Permission.EVENT_VIEW_ALL)
-    public ResponseEntity<String> exportAllEventsToICal(Authentication authentication) {
-        Long userId = getUserIdFromAuth(authentication);
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new IllegalStateException("User not found"));
-
-        List<Event> events = eventService.getAllEventsForExport();
-        String calendarName = user.getChurch().getName() + " Events";
+    public ResponseEntity<StreamingResponseBody> exportAllEventsToICal(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        WebRequest webRequest
+    ) {
+        CalendarFeedService.FeedKey key = new CalendarFeedService.FeedKey(
+            TenantContext.getCurrentChurchId(), false, from, to);
 
-        String icalContent = calendarExportService.generateICalForEvents(events, calendarName);
+        String etag = calendarFeedService.getEtag(key);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
         return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
             .header("Content-Type", "text/calendar; charset=utf-8")
             .header("Content-Disposition", "attachment; filename=\"church-events.ics\"")
-            .body(icalContent);
+            .body(out -> calendarFeedService.writeFeed(key, etag, out));
     }
 
     /**
@@ -600,7 +618,8 @@ public class EventController {
     // ==================== Recurring Events ====================
 
     /**
-     * Generate recurring event instances
+     * Upcoming occurrences of a recurring event.
+     * Occurrences are expanded from the rule; nothing is created until someone registers or checks in.
      */
     @PostMapping("/{id}/generate-instances")
     @RequirePermission(Permission.EVENT_CREATE)
@@ -608,10 +627,10 @@ public class EventController {
         @PathVariable Long id,
         @RequestParam(required = false) Integer maxInstances
     ) {
-        List<EventResponse> instances = recurringEventService.generateRecurringInstances(id, maxInstances);
+        List<EventOccurrenceResponse> instances = recurringEventService.generateRecurringInstances(id, maxInstances);
 
         Map<String, Object> response = new HashMap<>();
-        response.put("message", "Successfully generated " + instances.size() + " recurring instances");
+        response.put("message", "Recurring event has " + instances.size() + " upcoming occurrences");
         response.put("count", instances.size());
         response.put("instances", instances);
 
@@ -630,7 +649,7 @@ public class EventController {
         int updateCount = recurringEventService.updateFutureInstances(id, request);
 
         Map<String, Object> response = new HashMap<>();
-        response.put("message", "Successfully updated " + updateCount + " future instances");
+        response.put("message", "Updated recurring event and " + updateCount + " materialized future occurrences");
         response.put("count", updateCount);
 
         return ResponseEntity.ok(response);
@@ -645,14 +664,53 @@ public class EventController {
         int deleteCount = recurringEventService.deleteFutureInstances(id);
 
         Map<String, Object> response = new HashMap<>();
-        response.put("message", "Successfully deleted " + deleteCount + " future instances");
+        response.put("message", "Ended recurring event and deleted " + deleteCount + " materialized future occurrences");
         response.put("count", deleteCount);
 
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Get all instances of a recurring event
+     * Calendar and search: single events plus occurrences of recurring events in a window
+     */
+    @GetMapping("/occurrences")
+    @RequirePermission(Permission.EVENT_VIEW_ALL)
+    public ResponseEntity<List<EventOccurrenceResponse>> getOccurrences(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(required = false) String q
+    ) {
+        return ResponseEntity.ok(occurrenceService.findOccurrences(from, to, q));
+    }
+
+    /**
+     * Occurrences of one recurring event in a window
+     */
+    @GetMapping("/{id}/occurrences")
+    @RequirePermission(Permission.EVENT_VIEW_ALL)
+    public ResponseEntity<List<EventOccurrenceResponse>> getSeriesOccurrences(
+        @PathVariable Long id,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return ResponseEntity.ok(occurrenceService.findSeriesOccurrences(
+            id, from, to, EventOccurrenceService.MAX_OCCURRENCES_PER_SERIES));
+    }
+
+    /**
+     * Cancel or reschedule one occurrence of a recurring event
+     */
+    @PutMapping("/{id}/occurrences")
+    @RequirePermission(Permission.EVENT_EDIT)
+    public ResponseEntity<EventOccurrenceResponse> updateOccurrence(
+        @PathVariable Long id,
+        @Valid @RequestBody EventOccurrenceRequest request
+    ) {
+        return ResponseEntity.ok(occurrenceService.updateOccurrence(id, request));
+    }
+
+    /**
+     * Get all materialized instances of a recurring event
      */
     @GetMapping("/{id}/instances")
     @RequirePermission(Permission.EVENT_VIEW_ALL)
@@ -745,12 +803,17 @@ public class EventController {
     // ==================== Event-Attendance Integration ====================
 
     /**
-     * Create attendance session from an event
+     * Create attendance session from an event.
+     * For a recurring event, {@code occurrenceStart} picks the occurrence, which is materialized first.
      */
     @PostMapping("/{id}/create-attendance-session")
     @RequirePermission(Permission.EVENT_CREATE)
-    public ResponseEntity<AttendanceSessionResponse> createAttendanceSessionFromEvent(@PathVariable Long id) {
-        AttendanceSessionResponse response = eventAttendanceService.createAttendanceSessionFromEvent(id);
+    public ResponseEntity<AttendanceSessionResponse> createAttendanceSessionFromEvent(
+        @PathVariable Long id,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceStart
+    ) {
+        Long eventId = occurrenceStart != null ? occurrenceService.materialize(id, occurrenceStart) : id;
+        AttendanceSessionResponse response = eventAttendanceService.createAttendanceSessionFromEvent(eventId);
         return ResponseEntity.ok(response);
     }
 
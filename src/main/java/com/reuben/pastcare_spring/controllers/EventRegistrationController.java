@@ -12,10 +12,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -30,6 +33,7 @@ public class EventRegistrationController {
 
     private final EventRegistrationService registrationService;
     private final QRCodeService qrCodeService;
+    private final EventTicketService eventTicketService;
     private final com.reuben.pastcare_spring.repositories.UserRepository userRepository;
 
     /**
@@ -230,6 +234,37 @@ public class EventRegistrationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Generate QR tickets for all approved registrations of an event,
+     * streamed as a ZIP of PNGs or a multi-page PDF (one badge per page)
+     */
+    @GetMapping("/event/{eventId}/tickets")
+    @RequirePermission(Permission.EVENT_CREATE)
+    public ResponseEntity<StreamingResponseBody> generateEventTickets(
+        @PathVariable Long eventId,
+        @RequestParam(defaultValue = "pdf") String format
+    ) {
+        boolean zip = "zip".equalsIgnoreCase(format);
+        if (!zip && !"pdf".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported ticket format: " + format);
+        }
+
+        // Ticket codes are assigned here; rendering runs on the streaming thread without DB access
+        EventTicketService.TicketBatch batch = eventTicketService.prepareTickets(eventId);
+
+        String filename = "event-" + eventId + "-tickets." + (zip ? "zip" : "pdf");
+        return ResponseEntity.ok()
+            .contentType(zip ? MediaType.parseMediaType("application/zip") : MediaType.APPLICATION_PDF)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(out -> {
+                if (zip) {
+                    eventTicketService.writeZip(batch, out);
+                } else {
+                    eventTicketService.writePdf(batch, out);
+                }
+            });
+    }
+
     /**
      * Send confirmation email for registration
      */
@@ -8,10 +8,13 @@ import com.reuben.pastcare_spring.dtos.ChurchStorageSummaryResponse;
 import com.reuben.pastcare_spring.dtos.PlatformBillingStatsResponse;
 import com.reuben.pastcare_spring.dtos.RecentPaymentResponse;
 import com.reuben.pastcare_spring.dtos.OverdueSubscriptionResponse;
+import com.reuben.pastcare_spring.dtos.PlatformMetricsTrendPointResponse;
+import com.reuben.pastcare_spring.dtos.ChurchMetricsTrendPointResponse;
 import com.reuben.pastcare_spring.enums.Permission;
 import com.reuben.pastcare_spring.services.PlatformStatsService;
 import com.reuben.pastcare_spring.services.PlatformStorageService;
 import com.reuben.pastcare_spring.services.PlatformBillingService;
+import com.reuben.pastcare_spring.services.PlatformMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -34,6 +37,7 @@ public class PlatformStatsController {
     private final PlatformStatsService platformStatsService;
     private final PlatformStorageService platformStorageService;
     private final PlatformBillingService platformBillingService;
+    private final PlatformMetricsService platformMetricsService;
 
     /**
      * Get platform-wide statistics (SUPERADMIN only).
@@ -80,6 +84,33 @@ public class PlatformStatsController {
         return ResponseEntity.ok(church);
     }
 
+    /**
+     * Get daily metrics history for a church (SUPERADMIN only).
+     * Served from the nightly metrics snapshots.
+     */
+    @GetMapping("/churches/{id}/metrics/trend")
+    @RequirePermission(Permission.PLATFORM_VIEW_ALL_CHURCHES)
+    public ResponseEntity<List<ChurchMetricsTrendPointResponse>> getChurchMetricsTrend(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "90") int days) {
+        log.info("Fetching {} day metrics trend for church ID: {}", days, id);
+        List<ChurchMetricsTrendPointResponse> trend = platformMetricsService.getChurchTrend(id, days);
+        return ResponseEntity.ok(trend);
+    }
+
+    /**
+     * Get daily platform-wide metrics history (SUPERADMIN only).
+     * Served from the nightly metrics snapshots.
+     */
+    @GetMapping("/metrics/trend")
+    @RequirePermission(Permission.PLATFORM_VIEW_ALL_CHURCHES)
+    public ResponseEntity<List<PlatformMetricsTrendPointResponse>> getPlatformMetricsTrend(
+            @RequestParam(defaultValue = "90") int days) {
+        log.info("Fetching {} day platform metrics trend", days);
+        List<PlatformMetricsTrendPointResponse> trend = platformMetricsService.getPlatformTrend(days);
+        return ResponseEntity.ok(trend);
+    }
+
     /**
      * Activate a church (SUPERADMIN only).
      */
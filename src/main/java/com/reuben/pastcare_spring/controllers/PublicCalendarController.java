@@ -0,0 +1,84 @@
+package com.reuben.pastcare_spring.controllers;
+
+import com.reuben.pastcare_spring.services.CalendarFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Public (unauthenticated) calendar endpoints for a church's PUBLIC events:
+ * a subscribable iCal feed and the embeddable page referenced by
+ * {@code CalendarExportService.generateEmbedCode}.
+ */
+@RestController
+@RequestMapping("/api/public/calendar")
+@RequiredArgsConstructor
+@Tag(name = "Public Calendar", description = "Public iCal feed and calendar embed")
+public class PublicCalendarController {
+
+    private final CalendarFeedService calendarFeedService;
+
+    /**
+     * Public iCal feed. Supports If-None-Match (304) and an optional inclusive date window.
+     */
+    @GetMapping("/{churchId}/events.ics")
+    @Operation(summary = "Public iCal feed", description = "Subscribable feed of a church's public events")
+    public ResponseEntity<StreamingResponseBody> getPublicFeed(
+        @PathVariable Long churchId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        WebRequest webRequest
+    ) {
+        if (!calendarFeedService.churchExists(churchId)) {
+            return ResponseEntity.notFound().build();
+        }
+        CalendarFeedService.FeedKey key = new CalendarFeedService.FeedKey(churchId, true, from, to);
+
+        String etag = calendarFeedService.getEtag(key);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+            .header("Content-Type", "text/calendar; charset=utf-8")
+            .body(out -> calendarFeedService.writeFeed(key, etag, out));
+    }
+
+    /**
+     * Embeddable HTML list of upcoming public events (iframe target).
+     */
+    @GetMapping("/embed/{churchId}")
+    @Operation(summary = "Public calendar embed", description = "HTML page of upcoming public events for iframes")
+    public ResponseEntity<String> getEmbed(@PathVariable Long churchId, WebRequest webRequest) {
+        if (!calendarFeedService.churchExists(churchId)) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = calendarFeedService.getEtag(new CalendarFeedService.FeedKey(churchId, true, null, null));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+            .contentType(MediaType.TEXT_HTML)
+            .body(calendarFeedService.renderEmbed(churchId));
+    }
+}
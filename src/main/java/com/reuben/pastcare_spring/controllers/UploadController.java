@@ -0,0 +1,101 @@
+package com.reuben.pastcare_spring.controllers;
+
+import com.reuben.pastcare_spring.services.ImageDeliveryService;
+import com.reuben.pastcare_spring.services.ImageDeliveryService.ImageAsset;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Serves uploaded images (profile photos, fellowship, event and logo images).
+ *
+ * <p>Uploads are immutable (content-hashed filenames), so responses carry a long-lived
+ * {@code Cache-Control: immutable} header plus a strong ETag, and conditional requests
+ * are answered with 304. Bodies are handed to the container's sendfile support when
+ * available, falling back to a channel transfer otherwise.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+@Tag(name = "Uploads", description = "Cached delivery of uploaded images")
+public class UploadController {
+
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final ImageDeliveryService imageDeliveryService;
+
+    @Value("${app.upload.cache-max-age-days:365}")
+    private long cacheMaxAgeDays;
+
+    /**
+     * Get an uploaded image, optionally resized (e.g. {@code ?w=64} for avatars).
+     */
+    @GetMapping("/{*path}")
+    @Operation(summary = "Get uploaded image", description = "Serve an uploaded image with caching headers and optional width variant")
+    public void getUpload(
+            @PathVariable String path,
+            @RequestParam(name = "w", required = false) Integer width,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Optional<ImageAsset> resolved = imageDeliveryService.resolve(path, width);
+        if (resolved.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        ImageAsset asset = resolved.get();
+
+        // Private: uploads are tenant data behind authentication, so shared caches must not keep them
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(Duration.ofDays(cacheMaxAgeDays)).cachePrivate().immutable().getHeaderValue());
+
+        // Sets ETag/Last-Modified and answers 304 when the client copy is current
+        if (new ServletWebRequest(request, response).checkNotModified(asset.etag(), asset.lastModified())) {
+            return;
+        }
+
+        response.setContentType(asset.mediaType().toString());
+        response.setContentLengthLong(asset.contentLength());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            // Zero-copy: Tomcat writes the file straight from the page cache to the socket
+            request.setAttribute(SENDFILE_FILENAME_ATTR, asset.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, 0L);
+            request.setAttribute(SENDFILE_END_ATTR, asset.contentLength());
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(asset.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < asset.contentLength()) {
+                position += channel.transferTo(position, asset.contentLength() - position, out);
+            }
+        }
+    }
+}
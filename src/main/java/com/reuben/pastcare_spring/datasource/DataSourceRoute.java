@@ -0,0 +1,9 @@
+package com.reuben.pastcare_spring.datasource;
+
+/**
+ * Lookup keys for {@link ReadWriteRoutingDataSource}.
+ */
+public enum DataSourceRoute {
+    PRIMARY,   // Read-write pool, also the fallback for reads
+    REPLICA    // Read-only replica pool
+}
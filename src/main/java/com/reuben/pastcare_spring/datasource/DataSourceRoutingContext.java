@@ -0,0 +1,38 @@
+package com.reuben.pastcare_spring.datasource;
+
+/**
+ * Per-thread routing override, set by {@code @UsePrimaryDataSource}.
+ *
+ * <p>Only affects connections acquired while the override is active, so it must be
+ * in place before the transaction's first statement.
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private DataSourceRoutingContext() {
+    }
+
+    /**
+     * Force the primary for the current thread.
+     *
+     * @return The previous state, to pass back to {@link #restore}
+     */
+    public static boolean forcePrimary() {
+        boolean previous = isPrimaryForced();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public static void restore(boolean previous) {
+        if (previous) {
+            PRIMARY_FORCED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_FORCED.remove();
+        }
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+}
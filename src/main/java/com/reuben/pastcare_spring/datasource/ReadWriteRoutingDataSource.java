@@ -0,0 +1,83 @@
+package com.reuben.pastcare_spring.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * <ul>
+ *   <li>Reads use the primary when {@code @UsePrimaryDataSource} is active or the
+ *       replica is lagging / unreachable ({@link ReplicaLagMonitor})</li>
+ *   <li>A failed replica connection marks the replica unavailable and the request
+ *       falls back to the primary instead of failing</li>
+ * </ul>
+ *
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction's read-only
+ * flag is only set after the transaction manager first asks for a connection.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected DataSourceRoute determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || DataSourceRoutingContext.isPrimaryForced()) {
+            return DataSourceRoute.PRIMARY;
+        }
+        if (!lagMonitor.isAvailable()) {
+            fallbacks.incrementAndGet();
+            return DataSourceRoute.PRIMARY;
+        }
+        return DataSourceRoute.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != DataSourceRoute.REPLICA) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            lagMonitor.markUnavailable("connection failed: " + e.getMessage());
+            fallbacks.incrementAndGet();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineCurrentLookupKey() == DataSourceRoute.REPLICA
+                ? replica.getConnection(username, password)
+                : primary.getConnection(username, password);
+    }
+
+    /**
+     * Read-only connections served by the primary because the replica was unavailable.
+     */
+    public long getFallbackCount() {
+        return fallbacks.get();
+    }
+}
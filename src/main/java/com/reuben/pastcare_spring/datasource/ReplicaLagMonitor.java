@@ -0,0 +1,101 @@
+package com.reuben.pastcare_spring.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Tracks whether the read replica is reachable and close enough to the primary to serve reads.
+ *
+ * <p>Lag is polled on a fixed delay. By default it is read from {@code SHOW REPLICA STATUS}
+ * ({@code Seconds_Behind_Source}); a custom query returning lag in seconds can be configured
+ * instead (e.g. a heartbeat table, or {@code SELECT 0} for local embedded databases).
+ * The replica is unavailable until the first successful check, and whenever lag exceeds the
+ * limit, replication is stopped or a connection attempt fails.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    private volatile boolean available = false;
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        Long lag;
+        try {
+            lag = measureLag();
+        } catch (SQLException e) {
+            markUnavailable("lag check failed: " + e.getMessage());
+            return;
+        }
+
+        if (lag == null) {
+            markUnavailable("replication is not running");
+            return;
+        }
+        lagSeconds = lag;
+        if (lag > maxLagSeconds) {
+            markUnavailable("lag " + lag + "s exceeds " + maxLagSeconds + "s");
+            return;
+        }
+        if (!available) {
+            log.info("Read replica available (lag {}s), routing read-only transactions to it", lag);
+        }
+        available = true;
+    }
+
+    /**
+     * Stop routing reads to the replica until the next successful check.
+     */
+    public void markUnavailable(String reason) {
+        if (available) {
+            log.warn("Read replica unavailable, falling back to primary: {}", reason);
+        }
+        available = false;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Last measured lag in seconds, -1 before the first measurement.
+     */
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    private Long measureLag() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (lagQuery != null && !lagQuery.isBlank()) {
+                try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                    return rs.next() ? toLag(rs.getObject(1)) : null;
+                }
+            }
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                // No rows: the server isn't replicating (e.g. pointed at the primary in development)
+                return rs.next() ? toLag(rs.getObject("Seconds_Behind_Source")) : 0L;
+            }
+        }
+    }
+
+    private static Long toLag(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+}
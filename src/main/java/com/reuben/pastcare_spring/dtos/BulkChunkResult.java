@@ -0,0 +1,13 @@
+package com.reuben.pastcare_spring.dtos;
+
+/**
+ * Outcome of one chunk of a bulk operation.
+ * Each chunk runs in its own transaction, so earlier chunks stay applied if a later one fails.
+ */
+public record BulkChunkResult(
+    int chunk,          // 1-based chunk number
+    int memberCount,    // Members in the chunk
+    int successCount,   // Members applied
+    int failureCount,   // Members that failed (after retrying the chunk member by member)
+    long durationMs     // Time spent on the chunk
+) {}
@@ -0,0 +1,14 @@
+package com.reuben.pastcare_spring.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap fingerprint of a church's events, used to version cached calendar feeds.
+ * Any create, edit, cancel or soft delete changes at least one of these values.
+ */
+public record CalendarFeedVersion(
+  Long eventCount,
+  LocalDateTime lastUpdated,
+  LocalDateTime lastDeleted
+) {
+}
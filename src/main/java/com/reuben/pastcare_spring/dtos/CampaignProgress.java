@@ -0,0 +1,36 @@
+package com.reuben.pastcare_spring.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * A campaign's progress counters, or a change to them.
+ */
+public record CampaignProgress(
+    BigDecimal currentAmount,
+    Integer totalDonations,
+    BigDecimal totalPledges,
+    Integer totalPledgesCount
+) {
+  public static final CampaignProgress ZERO = new CampaignProgress(BigDecimal.ZERO, 0, BigDecimal.ZERO, 0);
+
+  public CampaignProgress minus(CampaignProgress other) {
+    return new CampaignProgress(
+        currentAmount.subtract(other.currentAmount),
+        totalDonations - other.totalDonations,
+        totalPledges.subtract(other.totalPledges),
+        totalPledgesCount - other.totalPledgesCount
+    );
+  }
+
+  public CampaignProgress negate() {
+    return ZERO.minus(this);
+  }
+
+  /**
+   * True when every counter is zero (amounts compared by value, ignoring scale)
+   */
+  public boolean isZero() {
+    return currentAmount.signum() == 0 && totalDonations == 0
+        && totalPledges.signum() == 0 && totalPledgesCount == 0;
+  }
+}
@@ -0,0 +1,20 @@
+package com.reuben.pastcare_spring.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * Sums of the progress counters over a church's campaigns. Sums are null when the church
+ * has no campaigns.
+ */
+public record CampaignTotals(
+    Long campaignCount,
+    Long activeCount,
+    Long completedCount,
+    BigDecimal goalAmount,
+    BigDecimal raisedAmount,
+    BigDecimal pledgedAmount,
+    Long donationCount,
+    Long pledgeCount,
+    Double averageProgress
+) {
+}
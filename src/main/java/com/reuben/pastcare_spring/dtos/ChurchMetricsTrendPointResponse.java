@@ -0,0 +1,26 @@
+package com.reuben.pastcare_spring.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One day of metrics for a single church (SUPERADMIN church detail charts).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChurchMetricsTrendPointResponse {
+    private LocalDate date;
+    private Boolean active;
+    private Integer userCount;
+    private Integer memberCount;
+    private Double storageMb;
+    private String subscriptionStatus;
+    private String planName;
+    private Double monthlyRecurringRevenue;
+}
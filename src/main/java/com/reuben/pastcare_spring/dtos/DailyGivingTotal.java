@@ -0,0 +1,17 @@
+package com.reuben.pastcare_spring.dtos;
+
+import com.reuben.pastcare_spring.models.DonationType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Total given on one day for one donation type.
+ */
+public record DailyGivingTotal(
+    LocalDate donationDate,
+    DonationType donationType,
+    BigDecimal totalAmount,
+    Long donationCount
+) {
+}
@@ -32,6 +32,7 @@ public record DonationRequest(
     String referenceNumber,
     String notes,
     String campaign,
+    Long campaignId, // Campaign this donation counts towards (optional)
     String currency // Optional, defaults to church currency
 ) {
   /**
@@ -24,6 +24,7 @@ public record DonationResponse(
     String referenceNumber,
     String notes,
     String campaign,
+    Long campaignId,
     Boolean receiptIssued,
     String receiptNumber,
     String currency,
@@ -47,6 +48,7 @@ public record DonationResponse(
         donation.getReferenceNumber(),
         donation.getNotes(),
         donation.getCampaign(),
+        donation.getCampaignEntity() != null ? donation.getCampaignEntity().getId() : null,
         donation.getReceiptIssued(),
         donation.getReceiptNumber(),
         donation.getCurrency(),
@@ -0,0 +1,17 @@
+package com.reuben.pastcare_spring.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregates behind a donation summary, computed in one query.
+ * Sums, minimum and maximum are null when there are no donations.
+ */
+public record DonationSummaryStats(
+    BigDecimal totalAmount,
+    Long donationCount,
+    BigDecimal largestDonation,
+    BigDecimal smallestDonation,
+    Long uniqueDonors,
+    Long anonymousDonations
+) {
+}
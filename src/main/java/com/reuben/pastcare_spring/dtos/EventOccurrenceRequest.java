@@ -0,0 +1,33 @@
+package com.reuben.pastcare_spring.dtos;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request DTO for cancelling or rescheduling one occurrence of a recurring event.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventOccurrenceRequest {
+
+    @NotNull(message = "Occurrence start is required")
+    private LocalDateTime occurrenceStart;
+
+    private Boolean cancelled;
+
+    // New times (leave null to keep the rule times)
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    @AssertTrue(message = "End date must be after start date")
+    private boolean isEndAfterStart() {
+        return startDate == null || endDate == null || endDate.isAfter(startDate);
+    }
+}
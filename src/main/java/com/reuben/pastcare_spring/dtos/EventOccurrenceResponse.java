@@ -0,0 +1,84 @@
+package com.reuben.pastcare_spring.dtos;
+
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.models.EventLocationType;
+import com.reuben.pastcare_spring.models.EventType;
+import com.reuben.pastcare_spring.models.EventVisibility;
+
+import java.time.LocalDateTime;
+
+/**
+ * One calendar entry: a single event, or one occurrence of a recurring event.
+ *
+ * Occurrences of a series are expanded from its rule and only have an {@code eventId}
+ * once materialized (someone registered or checked in); until then they are addressed
+ * by {@code seriesId} plus {@code occurrenceStart}.
+ */
+public record EventOccurrenceResponse(
+    Long eventId,                    // Event row, null for an occurrence that is not materialized
+    Long seriesId,                   // Recurring event this occurrence belongs to, null for single events
+    LocalDateTime occurrenceStart,   // Rule start time identifying the occurrence, null for single events
+    String name,
+    String description,
+    EventType eventType,
+    LocalDateTime startDate,
+    LocalDateTime endDate,
+    EventLocationType locationType,
+    String physicalLocation,
+    String virtualLink,
+    EventVisibility visibility,
+    Boolean requiresRegistration,
+    boolean cancelled,
+    boolean materialized
+) {
+
+    /**
+     * A single event, or a materialized occurrence (a child row of its series).
+     */
+    public static EventOccurrenceResponse fromEvent(Event event) {
+        Long seriesId = event.getParentEvent() != null ? event.getParentEvent().getId() : null;
+        return new EventOccurrenceResponse(
+            event.getId(),
+            seriesId,
+            event.getOccurrenceStart(),
+            event.getName(),
+            event.getDescription(),
+            event.getEventType(),
+            event.getStartDate(),
+            event.getEndDate(),
+            event.getLocationType(),
+            event.getPhysicalLocation(),
+            event.getVirtualLink(),
+            event.getVisibility(),
+            event.getRequiresRegistration(),
+            Boolean.TRUE.equals(event.getIsCancelled()),
+            true
+        );
+    }
+
+    /**
+     * An occurrence expanded from a series. The first occurrence is the series row itself.
+     */
+    public static EventOccurrenceResponse fromOccurrence(Event series, LocalDateTime occurrenceStart,
+                                                         LocalDateTime startDate, LocalDateTime endDate,
+                                                         boolean cancelled) {
+        boolean first = occurrenceStart.equals(series.getStartDate());
+        return new EventOccurrenceResponse(
+            first ? series.getId() : null,
+            series.getId(),
+            occurrenceStart,
+            series.getName(),
+            series.getDescription(),
+            series.getEventType(),
+            startDate,
+            endDate,
+            series.getLocationType(),
+            series.getPhysicalLocation(),
+            series.getVirtualLink(),
+            series.getVisibility(),
+            series.getRequiresRegistration(),
+            cancelled,
+            first
+        );
+    }
+}
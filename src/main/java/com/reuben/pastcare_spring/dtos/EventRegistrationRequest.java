@@ -3,6 +3,8 @@ package com.reuben.pastcare_spring.dtos;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 /**
  * Request DTO for creating or updating an event registration.
  */
@@ -16,6 +18,9 @@ public class EventRegistrationRequest {
     @NotNull(message = "Event ID is required")
     private Long eventId;
 
+    // For a recurring event: the occurrence to register for (its rule start time)
+    private LocalDateTime occurrenceStart;
+
     // Member registration
     private Long memberId;
 
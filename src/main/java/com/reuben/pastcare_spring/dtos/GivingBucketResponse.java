@@ -0,0 +1,18 @@
+package com.reuben.pastcare_spring.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Giving within one day, week or month of a trend, with the split by donation type
+ * (types with no giving in the bucket are left out).
+ */
+public record GivingBucketResponse(
+    LocalDate periodStart,
+    LocalDate periodEnd,
+    BigDecimal totalAmount,
+    Long donationCount,
+    List<GivingTypeTotal> byType
+) {
+}
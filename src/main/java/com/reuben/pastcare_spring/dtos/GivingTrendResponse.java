@@ -0,0 +1,22 @@
+package com.reuben.pastcare_spring.dtos;
+
+import com.reuben.pastcare_spring.enums.GivingInterval;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Giving over a date range in consecutive buckets. Every bucket in the range is present,
+ * including empty ones; the first and last may be partial.
+ */
+public record GivingTrendResponse(
+    GivingInterval interval,
+    LocalDate startDate,
+    LocalDate endDate,
+    BigDecimal totalAmount,
+    Long donationCount,
+    List<GivingTypeTotal> byType,
+    List<GivingBucketResponse> buckets
+) {
+}
@@ -0,0 +1,15 @@
+package com.reuben.pastcare_spring.dtos;
+
+import com.reuben.pastcare_spring.models.DonationType;
+
+import java.math.BigDecimal;
+
+/**
+ * Total given for one donation type.
+ */
+public record GivingTypeTotal(
+    DonationType donationType,
+    BigDecimal totalAmount,
+    Long donationCount
+) {
+}
@@ -14,7 +14,7 @@ import java.util.Set;
 public record MemberBulkUpdateRequest(
     @NotNull(message = "Member IDs are required")
     @NotEmpty(message = "At least one member ID is required")
-    @Size(max = 100, message = "Cannot update more than 100 members at once")
+    @Size(max = 10000, message = "Cannot update more than 10000 members at once")
     List<Long> memberIds,
 
     // Fields to update (all optional - only update if provided)
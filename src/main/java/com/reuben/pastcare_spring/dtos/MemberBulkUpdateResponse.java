@@ -4,14 +4,15 @@ import java.util.List;
 
 /**
  * Response DTO for bulk update operation
- * Contains counts and updated member details
+ * Contains counts, per-chunk results and updated member details
  */
 public record MemberBulkUpdateResponse(
     int totalMembers,      // Total members attempted to update
     int successCount,      // Successfully updated
     int failureCount,      // Failed to update
     List<UpdateError> errors,        // List of errors with member IDs
-    List<MemberResponse> updatedMembers  // Updated member details
+    List<MemberResponse> updatedMembers, // Updated member details (omitted for large updates)
+    List<BulkChunkResult> chunks         // Per-chunk results
 ) {
     /**
      * Error details for a specific member update failure
@@ -0,0 +1,48 @@
+package com.reuben.pastcare_spring.dtos;
+
+import com.reuben.pastcare_spring.enums.MemberRiskLevel;
+import com.reuben.pastcare_spring.models.MemberRisk;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Response DTO for a member's pastoral-risk snapshot row.
+ */
+public record MemberRiskResponse(
+    Long memberId,
+    String firstName,
+    String lastName,
+    String phoneNumber,
+    Integer riskScore,
+    MemberRiskLevel riskLevel,
+    Integer riskRank,
+    List<String> reasons,
+    Integer weeksAbsent,
+    LocalDate lastAttendedDate,
+    Boolean hasOpenCareNeed,
+    LocalDate lastVisitDate,
+    LocalDateTime lastContactDate,
+    LocalDate computedFor
+) {
+    public static MemberRiskResponse fromEntity(MemberRisk risk) {
+        return new MemberRiskResponse(
+            risk.getMember().getId(),
+            risk.getMember().getFirstName(),
+            risk.getMember().getLastName(),
+            risk.getMember().getPhoneNumber(),
+            risk.getRiskScore(),
+            risk.getRiskLevel(),
+            risk.getRiskRank(),
+            Arrays.asList(risk.getReasons().split(",")),
+            risk.getWeeksAbsent(),
+            risk.getLastAttendedDate(),
+            risk.getHasOpenCareNeed(),
+            risk.getLastVisitDate(),
+            risk.getLastContactDate(),
+            risk.getComputedFor()
+        );
+    }
+}
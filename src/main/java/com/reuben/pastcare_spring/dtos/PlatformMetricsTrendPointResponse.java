@@ -0,0 +1,27 @@
+package com.reuben.pastcare_spring.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One day of platform-wide metrics for SUPERADMIN trend charts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformMetricsTrendPointResponse {
+    private LocalDate date;
+    private Integer totalChurches;
+    private Integer activeChurches;
+    private Integer totalUsers;
+    private Integer totalMembers;
+    private Double totalStorageMb;
+    private Double monthlyRecurringRevenue;
+    private Integer activeSubscriptions;
+    private Integer pastDueSubscriptions;
+}
@@ -0,0 +1,26 @@
+package com.reuben.pastcare_spring.email;
+
+/**
+ * A message was not accepted by the provider.
+ *
+ * <p>Permanent failures (SMTP 5xx replies, unusable addresses) will fail again however often
+ * they are retried; anything else (4xx replies, I/O errors, timeouts) may succeed later.
+ */
+public class MailDeliveryException extends RuntimeException {
+
+    private final boolean permanent;
+
+    public MailDeliveryException(String message, boolean permanent) {
+        super(message);
+        this.permanent = permanent;
+    }
+
+    public MailDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+        this.permanent = false;
+    }
+
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
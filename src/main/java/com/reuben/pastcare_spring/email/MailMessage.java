@@ -0,0 +1,19 @@
+package com.reuben.pastcare_spring.email;
+
+/**
+ * One message to one recipient. At least one of the bodies is set; the attachment is optional.
+ *
+ * @param messageId Message-ID header without angle brackets, kept across retries so
+ *                  receivers can recognise a resend
+ */
+public record MailMessage(
+    String messageId,
+    String from,
+    String to,
+    String subject,
+    String textBody,
+    String htmlBody,
+    String attachmentName,
+    byte[] attachment
+) {
+}
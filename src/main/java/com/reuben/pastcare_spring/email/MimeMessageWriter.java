@@ -0,0 +1,176 @@
+package com.reuben.pastcare_spring.email;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Renders a {@link MailMessage} as an RFC 5322 / MIME document ready for the SMTP DATA command.
+ *
+ * <p>Bodies and attachments are base64 encoded, so every line is short 7-bit ASCII whatever
+ * the content; non-ASCII subjects become RFC 2047 encoded words. Layout:
+ * <ul>
+ *   <li>text or HTML only: a single part</li>
+ *   <li>text and HTML: multipart/alternative</li>
+ *   <li>with an attachment: multipart/mixed around the above</li>
+ * </ul>
+ */
+final class MimeMessageWriter {
+
+    private static final String CRLF = "\r\n";
+    private static final Base64.Encoder BODY_ENCODER = Base64.getMimeEncoder(76, CRLF.getBytes(StandardCharsets.US_ASCII));
+    // Keeps each encoded word within the 75 character limit
+    private static final int ENCODED_WORD_MAX_BYTES = 45;
+
+    private MimeMessageWriter() {
+    }
+
+    static byte[] write(MailMessage message) {
+        StringBuilder out = new StringBuilder(256);
+        header(out, "Date", ZonedDateTime.now().format(DateTimeFormatter.RFC_1123_DATE_TIME));
+        header(out, "From", address(message.from()));
+        header(out, "To", address(message.to()));
+        header(out, "Subject", encodeHeaderValue(message.subject() == null ? "" : message.subject()));
+        header(out, "Message-ID", "<" + singleLine(message.messageId()) + ">");
+        header(out, "MIME-Version", "1.0");
+
+        if (message.attachment() != null) {
+            String boundary = boundary();
+            header(out, "Content-Type", "multipart/mixed; boundary=\"" + boundary + "\"");
+            out.append(CRLF);
+            out.append("--").append(boundary).append(CRLF);
+            body(out, message);
+            out.append("--").append(boundary).append(CRLF);
+            attachment(out, message.attachmentName(), message.attachment());
+            out.append("--").append(boundary).append("--").append(CRLF);
+        } else {
+            body(out, message);
+        }
+        return out.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Ends the headers of the enclosing part and writes the message text.
+     */
+    private static void body(StringBuilder out, MailMessage message) {
+        if (message.htmlBody() != null && message.textBody() != null) {
+            String boundary = boundary();
+            header(out, "Content-Type", "multipart/alternative; boundary=\"" + boundary + "\"");
+            out.append(CRLF);
+            out.append("--").append(boundary).append(CRLF);
+            textPart(out, "text/plain", message.textBody());
+            out.append("--").append(boundary).append(CRLF);
+            textPart(out, "text/html", message.htmlBody());
+            out.append("--").append(boundary).append("--").append(CRLF);
+        } else if (message.htmlBody() != null) {
+            textPart(out, "text/html", message.htmlBody());
+        } else {
+            textPart(out, "text/plain", message.textBody() == null ? "" : message.textBody());
+        }
+    }
+
+    private static void textPart(StringBuilder out, String contentType, String text) {
+        header(out, "Content-Type", contentType + "; charset=UTF-8");
+        header(out, "Content-Transfer-Encoding", "base64");
+        out.append(CRLF);
+        base64(out, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void attachment(StringBuilder out, String name, byte[] content) {
+        String fileName = name == null || name.isBlank() ? "attachment" : singleLine(name).replace("\"", "'");
+        String contentType = URLConnection.guessContentTypeFromName(fileName);
+        // Unfolded: the name sits inside a quoted parameter
+        String encodedName = encodeHeaderValue(fileName, " ");
+        header(out, "Content-Type", (contentType != null ? contentType : "application/octet-stream")
+            + "; name=\"" + encodedName + "\"");
+        header(out, "Content-Disposition", "attachment; filename=\"" + encodedName + "\"");
+        header(out, "Content-Transfer-Encoding", "base64");
+        out.append(CRLF);
+        base64(out, content);
+    }
+
+    private static void base64(StringBuilder out, byte[] content) {
+        if (content.length > 0) {
+            out.append(BODY_ENCODER.encodeToString(content)).append(CRLF);
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String value) {
+        out.append(name).append(": ").append(value).append(CRLF);
+    }
+
+    private static String address(String address) {
+        return singleLine(address);
+    }
+
+    /**
+     * The value as is when it is printable ASCII, otherwise as UTF-8 encoded words.
+     */
+    static String encodeHeaderValue(String value) {
+        // Folded; whitespace between adjacent encoded words is not displayed
+        return encodeHeaderValue(value, CRLF + " ");
+    }
+
+    private static String encodeHeaderValue(String value, String wordSeparator) {
+        String line = singleLine(value);
+        if (line.chars().allMatch(c -> c >= 0x20 && c < 0x7f) && !line.contains("=?")) {
+            return line;
+        }
+        StringBuilder encoded = new StringBuilder();
+        int start = 0;
+        while (start < line.length()) {
+            int end = start;
+            int bytes = 0;
+            while (end < line.length()) {
+                int codePoint = line.codePointAt(end);
+                int size = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8).length;
+                if (bytes + size > ENCODED_WORD_MAX_BYTES && end > start) {
+                    break;
+                }
+                bytes += size;
+                end += Character.charCount(codePoint);
+            }
+            if (encoded.length() > 0) {
+                encoded.append(wordSeparator);
+            }
+            encoded.append("=?UTF-8?B?")
+                .append(Base64.getEncoder().encodeToString(line.substring(start, end).getBytes(StandardCharsets.UTF_8)))
+                .append("?=");
+            start = end;
+        }
+        return encoded.toString();
+    }
+
+    // Header values must not smuggle in extra header lines
+    private static String singleLine(String value) {
+        return value == null ? "" : value.replaceAll("[\\r\\n]+", " ").trim();
+    }
+
+    private static String boundary() {
+        return "=_pastcare_" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    /**
+     * Dot-stuffs the document (RFC 5321 section 4.5.2) and appends the end-of-data marker.
+     */
+    static byte[] dataSection(byte[] document) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(document.length + 16);
+        boolean lineStart = true;
+        for (byte b : document) {
+            if (lineStart && b == '.') {
+                out.write('.');
+            }
+            out.write(b);
+            lineStart = b == '\n';
+        }
+        if (!lineStart) {
+            out.writeBytes(CRLF.getBytes(StandardCharsets.US_ASCII));
+        }
+        out.writeBytes(".\r\n".getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+}
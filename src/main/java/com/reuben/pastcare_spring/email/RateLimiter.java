@@ -0,0 +1,51 @@
+package com.reuben.pastcare_spring.email;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Spaces permits evenly at a fixed rate, allowing a burst of up to one second's worth after
+ * an idle spell. Callers sleep for their slot outside the lock.
+ */
+class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private long nextFreeNanos;
+
+    RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = Math.max(0, (long) Math.floor(permitsPerSecond) - 1) * intervalNanos;
+        this.nanoClock = nanoClock;
+        this.nextFreeNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Take a permit, waiting for it if needed.
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Reserve the next permit and return how long until it may be used.
+     */
+    synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        // Unused time beyond the burst allowance is not banked
+        long slot = Math.max(nextFreeNanos, now - burstNanos);
+        nextFreeNanos = slot + intervalNanos;
+        return Math.max(0, slot - now);
+    }
+}
@@ -0,0 +1,293 @@
+package com.reuben.pastcare_spring.email;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One client session with an SMTP server (RFC 5321), reused for many messages.
+ *
+ * <p>Opening performs the greeting, EHLO, STARTTLS or implicit TLS and AUTH; each
+ * {@link #send} is then one MAIL / RCPT / DATA transaction. A rejected transaction leaves the
+ * session usable after {@link #reset()}; an I/O error does not, and the connection must be
+ * closed. Not thread safe: a connection is used by one worker at a time.
+ */
+@Slf4j
+final class SmtpConnection implements Closeable {
+
+    private static final int MAX_LINE = 8192;
+
+    private final SmtpProperties.Settings settings;
+    private Socket socket;
+    private InputStream in;
+    private OutputStream out;
+    private List<String> extensions = List.of();
+    private int messagesSent;
+    private long lastUsedNanos = System.nanoTime();
+
+    private SmtpConnection(SmtpProperties.Settings settings) {
+        this.settings = settings;
+    }
+
+    record Reply(int code, List<String> lines) {
+
+        boolean positive() {
+            return code >= 200 && code < 400;
+        }
+
+        String text() {
+            return code + " " + String.join(" / ", lines);
+        }
+    }
+
+    static SmtpConnection open(SmtpProperties.Settings settings) throws IOException {
+        SmtpConnection connection = new SmtpConnection(settings);
+        try {
+            connection.connect();
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            connection.abort();
+            throw e;
+        }
+    }
+
+    private void connect() throws IOException {
+        Socket plain = settings.getSecurity() == SmtpProperties.Security.SSL
+            ? SSLSocketFactory.getDefault().createSocket()
+            : new Socket();
+        socket = plain;
+        plain.setTcpNoDelay(true);
+        plain.connect(new InetSocketAddress(settings.getHost(), settings.getPort()), (int) settings.getConnectTimeout().toMillis());
+        plain.setSoTimeout((int) settings.getReadTimeout().toMillis());
+        if (plain instanceof SSLSocket ssl) {
+            verifyHostname(ssl);
+            ssl.startHandshake();
+        }
+        bindStreams();
+
+        expect(readReply(), 220);
+        ehlo();
+
+        if (settings.getSecurity() == SmtpProperties.Security.STARTTLS) {
+            if (!supports("STARTTLS")) {
+                throw new MailDeliveryException(settings.getHost() + " does not offer STARTTLS", false);
+            }
+            expect(command("STARTTLS"), 220);
+            SSLSocket ssl = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+                .createSocket(socket, settings.getHost(), settings.getPort(), true);
+            verifyHostname(ssl);
+            ssl.startHandshake();
+            socket = ssl;
+            bindStreams();
+            // Capabilities offered before TLS are discarded (RFC 3207 section 4.2)
+            ehlo();
+        }
+
+        if (settings.getUsername() != null && !settings.getUsername().isBlank()) {
+            authenticate();
+        }
+    }
+
+    private void verifyHostname(SSLSocket ssl) {
+        SSLParameters parameters = ssl.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        ssl.setSSLParameters(parameters);
+    }
+
+    private void bindStreams() throws IOException {
+        in = new BufferedInputStream(socket.getInputStream());
+        out = new BufferedOutputStream(socket.getOutputStream(), 16 * 1024);
+    }
+
+    private void ehlo() throws IOException {
+        Reply reply = command("EHLO " + LocalName.VALUE);
+        expect(reply, 250);
+        // First line is the server's greeting, the rest its extensions
+        extensions = reply.lines().subList(1, reply.lines().size()).stream()
+            .map(line -> line.toUpperCase(Locale.ROOT))
+            .toList();
+    }
+
+    private boolean supports(String keyword) {
+        return extensions.stream().anyMatch(line -> line.equals(keyword) || line.startsWith(keyword + " "));
+    }
+
+    private void authenticate() throws IOException {
+        String username = settings.getUsername();
+        String password = settings.getPassword() == null ? "" : settings.getPassword();
+        boolean plain = extensions.stream()
+            .filter(line -> line.startsWith("AUTH "))
+            .anyMatch(line -> List.of(line.split(" ")).contains("PLAIN"));
+
+        if (plain) {
+            String credentials = "\0" + username + "\0" + password;
+            expectAuthenticated(command("AUTH PLAIN " + base64(credentials)));
+        } else {
+            expect(command("AUTH LOGIN"), 334);
+            expect(command(base64(username)), 334);
+            expectAuthenticated(command(base64(password)));
+        }
+    }
+
+    private void expectAuthenticated(Reply reply) {
+        if (reply.code() != 235) {
+            // Bad credentials fail every message until the configuration is fixed; not permanent per message
+            throw new MailDeliveryException("Authentication with " + settings.getHost() + " failed: " + reply.text(), false);
+        }
+    }
+
+    /**
+     * Deliver one message. Throws {@link MailDeliveryException} when the server rejects it
+     * (the session stays usable after {@link #reset()}) and {@link IOException} when the session
+     * is broken.
+     */
+    void send(String envelopeFrom, String recipient, byte[] dataSection) throws IOException {
+        expect(command("MAIL FROM:<" + envelopeAddress(envelopeFrom) + ">"), 250);
+        Reply rcpt = command("RCPT TO:<" + envelopeAddress(recipient) + ">");
+        if (rcpt.code() != 250 && rcpt.code() != 251) {
+            throw rejected(rcpt);
+        }
+        expect(command("DATA"), 354);
+        out.write(dataSection);
+        out.flush();
+        expect(readReply(), 250);
+        messagesSent++;
+        lastUsedNanos = System.nanoTime();
+    }
+
+    /**
+     * Abandon a rejected transaction so the session can carry the next message.
+     */
+    void reset() throws IOException {
+        expect(command("RSET"), 250);
+        lastUsedNanos = System.nanoTime();
+    }
+
+    int messagesSent() {
+        return messagesSent;
+    }
+
+    long idleNanos() {
+        return System.nanoTime() - lastUsedNanos;
+    }
+
+    @Override
+    public void close() {
+        try {
+            command("QUIT");
+        } catch (IOException | RuntimeException e) {
+            log.debug("QUIT to {} failed: {}", settings.getHost(), e.getMessage());
+        }
+        abort();
+    }
+
+    /**
+     * Drop the socket without the QUIT handshake.
+     */
+    void abort() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Closing connection to {} failed: {}", settings.getHost(), e.getMessage());
+            }
+        }
+    }
+
+    private Reply command(String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return readReply();
+    }
+
+    private Reply readReply() throws IOException {
+        List<String> lines = new ArrayList<>(1);
+        while (true) {
+            String line = readLine();
+            if (line.length() < 3) {
+                throw new IOException("Malformed reply from " + settings.getHost() + ": " + line);
+            }
+            int code;
+            try {
+                code = Integer.parseInt(line.substring(0, 3));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed reply from " + settings.getHost() + ": " + line);
+            }
+            lines.add(line.length() > 4 ? line.substring(4) : "");
+            // "250-..." continues, "250 ..." (or bare "250") ends the reply
+            if (line.length() == 3 || line.charAt(3) != '-') {
+                return new Reply(code, lines);
+            }
+        }
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                return new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+            if (line.size() >= MAX_LINE) {
+                throw new IOException("Reply line from " + settings.getHost() + " exceeds " + MAX_LINE + " bytes");
+            }
+            line.write(b);
+        }
+        throw new EOFException("Connection closed by " + settings.getHost());
+    }
+
+    private void expect(Reply reply, int code) {
+        if (reply.code() != code) {
+            throw rejected(reply);
+        }
+    }
+
+    private MailDeliveryException rejected(Reply reply) {
+        return new MailDeliveryException(settings.getHost() + " replied " + reply.text(), reply.code() >= 500);
+    }
+
+    private static String envelopeAddress(String address) {
+        if (address == null || address.isBlank() || address.chars().anyMatch(c -> c <= ' ' || c == '<' || c == '>' || c >= 0x7f)) {
+            throw new MailDeliveryException("Unusable email address: " + address, true);
+        }
+        return address;
+    }
+
+    private static String base64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Resolved once, on first use; the lookup can be slow
+    private static final class LocalName {
+
+        static final String VALUE = resolve();
+
+        private static String resolve() {
+            try {
+                return InetAddress.getLocalHost().getCanonicalHostName();
+            } catch (IOException e) {
+                return "localhost";
+            }
+        }
+    }
+}
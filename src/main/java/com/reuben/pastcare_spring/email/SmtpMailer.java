@@ -0,0 +1,214 @@
+package com.reuben.pastcare_spring.email;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sends messages over pooled SMTP connections, one pool per provider.
+ *
+ * <p>Per provider:
+ * <ul>
+ *   <li>idle connections are kept and reused, so a batch pays the connect, TLS and AUTH
+ *   round trips once per connection instead of once per message</li>
+ *   <li>at most {@code max-connections} are open, which also caps concurrent sends</li>
+ *   <li>sends are spaced to {@code rate-per-second}, the provider's sending limit</li>
+ * </ul>
+ * A connection is retired after {@code max-messages-per-connection} messages or when it has
+ * been idle longer than {@code idle-timeout} (servers drop idle sessions). Settings come from
+ * {@link SmtpProperties}.
+ */
+@Component
+@Slf4j
+public class SmtpMailer {
+
+    private final SmtpProperties properties;
+    private final Map<String, Provider> providers = new ConcurrentHashMap<>();
+
+    public SmtpMailer(SmtpProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Deliver one message, blocking for a connection slot and the rate limit.
+     *
+     * @throws MailDeliveryException when the message was not accepted
+     */
+    public void send(String provider, MailMessage message) {
+        byte[] data = MimeMessageWriter.dataSection(MimeMessageWriter.write(message));
+        providers.computeIfAbsent(provider, this::create).send(message.from(), message.to(), data);
+    }
+
+    /**
+     * Connections currently open to the provider, idle or in use.
+     */
+    public int openConnections(String provider) {
+        Provider pool = providers.get(provider);
+        return pool == null ? 0 : pool.open();
+    }
+
+    @PreDestroy
+    public void close() {
+        providers.values().forEach(Provider::close);
+        providers.clear();
+    }
+
+    private Provider create(String provider) {
+        SmtpProperties.Settings settings = properties.settingsFor(provider);
+        log.info("SMTP provider {}: {}:{} ({}), max {} connections, {} per second",
+            provider, settings.getHost(), settings.getPort(), settings.getSecurity(), settings.getMaxConnections(),
+            settings.getRatePerSecond() > 0 ? settings.getRatePerSecond() : "unlimited");
+        return new Provider(provider, settings);
+    }
+
+    private static final class Provider {
+
+        private final String name;
+        private final SmtpProperties.Settings settings;
+        private final Semaphore slots;
+        private final RateLimiter rateLimiter;
+        // Most recently used first, so a quiet period retires the surplus connections
+        private final Deque<SmtpConnection> idle = new ArrayDeque<>();
+        private final long idleTimeoutNanos;
+        private int open;
+
+        Provider(String name, SmtpProperties.Settings settings) {
+            this.name = name;
+            this.settings = settings;
+            this.slots = new Semaphore(Math.max(1, settings.getMaxConnections()), true);
+            this.rateLimiter = settings.getRatePerSecond() > 0 ? new RateLimiter(settings.getRatePerSecond()) : null;
+            this.idleTimeoutNanos = settings.getIdleTimeout().toNanos();
+        }
+
+        void send(String from, String to, byte[] data) {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MailDeliveryException("Interrupted waiting for a connection to " + name, e);
+            }
+            try {
+                if (rateLimiter != null) {
+                    rateLimiter.acquire();
+                }
+                sendOnPooledConnection(from, to, data);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MailDeliveryException("Interrupted waiting for the rate limit of " + name, e);
+            } finally {
+                slots.release();
+            }
+        }
+
+        private void sendOnPooledConnection(String from, String to, byte[] data) {
+            SmtpConnection connection = takeIdle();
+            boolean reused = connection != null;
+            while (true) {
+                if (connection == null) {
+                    connection = openConnection();
+                }
+                try {
+                    connection.send(from, to, data);
+                    release(connection);
+                    return;
+                } catch (MailDeliveryException e) {
+                    resetOrDiscard(connection);
+                    throw e;
+                } catch (IOException e) {
+                    // Broken or timed out: no QUIT, it would only wait again
+                    opened(-1);
+                    connection.abort();
+                    if (!reused) {
+                        throw new MailDeliveryException("Sending to " + name + " failed: " + e.getMessage(), e);
+                    }
+                    // The server may have dropped the pooled session; try once on a fresh one
+                    log.debug("Pooled SMTP connection to {} failed ({}), reconnecting", name, e.getMessage());
+                    connection = null;
+                    reused = false;
+                }
+            }
+        }
+
+        private SmtpConnection openConnection() {
+            opened(1);
+            try {
+                return SmtpConnection.open(settings);
+            } catch (IOException e) {
+                opened(-1);
+                throw new MailDeliveryException("Connecting to " + name + " failed: " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                opened(-1);
+                throw e;
+            }
+        }
+
+        private SmtpConnection takeIdle() {
+            while (true) {
+                SmtpConnection connection;
+                synchronized (this) {
+                    connection = idle.pollFirst();
+                }
+                if (connection == null) {
+                    return null;
+                }
+                if (connection.idleNanos() < idleTimeoutNanos) {
+                    return connection;
+                }
+                discard(connection);
+            }
+        }
+
+        private void release(SmtpConnection connection) {
+            if (connection.messagesSent() >= settings.getMaxMessagesPerConnection()) {
+                discard(connection);
+                return;
+            }
+            synchronized (this) {
+                idle.offerFirst(connection);
+            }
+        }
+
+        private void resetOrDiscard(SmtpConnection connection) {
+            try {
+                connection.reset();
+                release(connection);
+            } catch (IOException | RuntimeException e) {
+                opened(-1);
+                connection.abort();
+            }
+        }
+
+        private void discard(SmtpConnection connection) {
+            opened(-1);
+            connection.close();
+        }
+
+        private synchronized void opened(int delta) {
+            open += delta;
+        }
+
+        synchronized int open() {
+            return open;
+        }
+
+        void close() {
+            SmtpConnection connection;
+            while (true) {
+                synchronized (this) {
+                    connection = idle.pollFirst();
+                }
+                if (connection == null) {
+                    return;
+                }
+                discard(connection);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.reuben.pastcare_spring.email;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SMTP providers the email outbox sends through ({@link SmtpMailer}).
+ *
+ * <pre>
+ * app.email.smtp.defaults.host=smtp.example.com
+ * app.email.smtp.defaults.rate-per-second=10
+ * app.email.smtp.providers.bulk.host=bulk.example.com
+ * </pre>
+ *
+ * A provider entry only needs the settings it overrides; the rest come from the defaults.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.email.smtp")
+@Data
+public class SmtpProperties {
+
+    private Settings defaults = Settings.builtIn();
+    private Map<String, Settings> providers = new HashMap<>();
+
+    /**
+     * The defaults with the provider's overrides applied.
+     */
+    public Settings settingsFor(String provider) {
+        Settings resolved = Settings.builtIn().overlay(defaults);
+        Settings overrides = providers.get(provider);
+        return overrides == null ? resolved : resolved.overlay(overrides);
+    }
+
+    public enum Security {
+        NONE,
+        STARTTLS,
+        SSL
+    }
+
+    @Data
+    public static class Settings {
+
+        private String host;
+        private Integer port;
+        private Security security;
+        // AUTH PLAIN / LOGIN when set
+        private String username;
+        private String password;
+
+        private Duration connectTimeout;
+        // Longest wait for any one server reply
+        private Duration readTimeout;
+
+        // Open connections to the provider at once; also bounds concurrent sends
+        private Integer maxConnections;
+        // A connection is closed after this many messages, or when idle longer than idleTimeout
+        private Integer maxMessagesPerConnection;
+        private Duration idleTimeout;
+
+        // Messages per second to the provider; 0 = unlimited
+        private Double ratePerSecond;
+
+        static Settings builtIn() {
+            Settings settings = new Settings();
+            settings.setHost("localhost");
+            settings.setPort(587);
+            settings.setSecurity(Security.STARTTLS);
+            settings.setConnectTimeout(Duration.ofSeconds(5));
+            settings.setReadTimeout(Duration.ofSeconds(30));
+            settings.setMaxConnections(4);
+            settings.setMaxMessagesPerConnection(100);
+            settings.setIdleTimeout(Duration.ofSeconds(30));
+            settings.setRatePerSecond(0.0);
+            return settings;
+        }
+
+        Settings overlay(Settings overrides) {
+            if (overrides.host != null) host = overrides.host;
+            if (overrides.port != null) port = overrides.port;
+            if (overrides.security != null) security = overrides.security;
+            if (overrides.username != null) username = overrides.username;
+            if (overrides.password != null) password = overrides.password;
+            if (overrides.connectTimeout != null) connectTimeout = overrides.connectTimeout;
+            if (overrides.readTimeout != null) readTimeout = overrides.readTimeout;
+            if (overrides.maxConnections != null) maxConnections = overrides.maxConnections;
+            if (overrides.maxMessagesPerConnection != null) maxMessagesPerConnection = overrides.maxMessagesPerConnection;
+            if (overrides.idleTimeout != null) idleTimeout = overrides.idleTimeout;
+            if (overrides.ratePerSecond != null) ratePerSecond = overrides.ratePerSecond;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.reuben.pastcare_spring.enums;
+
+/**
+ * Pastoral risk bands derived from a member's risk score (0-100).
+ */
+public enum MemberRiskLevel {
+    LOW,       // Score 1-39 - keep an eye on
+    MEDIUM,    // Score 40-69 - follow up soon
+    HIGH       // Score 70+ - reach out now
+}
@@ -0,0 +1,141 @@
+package com.reuben.pastcare_spring.http;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for one provider.
+ *
+ * <p>CLOSED: calls go through and their outcomes fill a sliding window; when the failure rate
+ * over the window reaches the threshold (after a minimum number of calls) the circuit opens.
+ * OPEN: calls are rejected without touching the network until the open duration has passed.
+ * HALF_OPEN: a few trial calls go through; if all succeed the circuit closes, and the first
+ * failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(OutboundHttpProperties.Settings settings) {
+        this(settings, System::nanoTime);
+    }
+
+    CircuitBreaker(OutboundHttpProperties.Settings settings, LongSupplier nanoClock) {
+        if (settings.getSlidingWindowSize() < 1 || settings.getHalfOpenCalls() < 1) {
+            throw new IllegalArgumentException("Circuit breaker window and half-open calls must be at least 1");
+        }
+        this.failureRateThreshold = settings.getFailureRateThreshold();
+        this.minimumCalls = Math.min(settings.getMinimumCalls(), settings.getSlidingWindowSize());
+        this.openDurationNanos = settings.getOpenDuration().toNanos();
+        this.halfOpenCalls = settings.getHalfOpenCalls();
+        this.nanoClock = nanoClock;
+        this.window = new boolean[settings.getSlidingWindowSize()];
+    }
+
+    /**
+     * Whether a call may go ahead. A call that is allowed must report its outcome with
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        record(true);
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Time left before an open circuit lets trial calls through; zero unless OPEN.
+     */
+    public synchronized Duration remainingOpenTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openDurationNanos - (nanoClock.getAsLong() - openedAt)));
+    }
+
+    private void record(boolean failure) {
+        switch (state) {
+            case OPEN -> {
+                // A call that started before the circuit opened; its outcome no longer matters
+            }
+            case HALF_OPEN -> {
+                if (failure) {
+                    open();
+                } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                    state = State.CLOSED;
+                    clearWindow();
+                }
+            }
+            case CLOSED -> {
+                if (windowCalls == window.length) {
+                    if (window[windowNext]) {
+                        windowFailures--;
+                    }
+                } else {
+                    windowCalls++;
+                }
+                window[windowNext] = failure;
+                if (failure) {
+                    windowFailures++;
+                }
+                windowNext = (windowNext + 1) % window.length;
+                if (windowCalls >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCalls) {
+                    open();
+                }
+            }
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        Arrays.fill(window, false);
+        windowNext = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+}
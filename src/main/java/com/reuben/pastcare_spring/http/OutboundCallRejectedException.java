@@ -0,0 +1,25 @@
+package com.reuben.pastcare_spring.http;
+
+import java.io.IOException;
+
+/**
+ * A call to a provider that was not sent: its circuit is open, or no concurrency slot freed up
+ * within the queue timeout.
+ *
+ * <p>An {@link IOException}, so RestTemplate surfaces it as a
+ * {@link org.springframework.web.client.ResourceAccessException} like any other failure to
+ * reach the provider, and callers that treat those as "outcome unknown" stay correct.
+ */
+public class OutboundCallRejectedException extends IOException {
+
+    private final String provider;
+
+    public OutboundCallRejectedException(String provider, String message) {
+        super(provider + ": " + message);
+        this.provider = provider;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+}
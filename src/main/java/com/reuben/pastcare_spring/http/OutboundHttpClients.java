@@ -0,0 +1,82 @@
+package com.reuben.pastcare_spring.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared outbound HTTP layer for payment and messaging providers.
+ *
+ * <p>Each provider gets one {@link RestTemplate} for the life of the application, backed by its
+ * own JDK {@link HttpClient}. The client keeps connections to the provider's host alive and
+ * reuses them, instead of a new connection per call. Calls go through a
+ * {@link ProviderCallInterceptor}, which adds:
+ * <ul>
+ *   <li>a concurrency limit per provider</li>
+ *   <li>a circuit breaker</li>
+ *   <li>latency and saturation metrics</li>
+ * </ul>
+ * A slow or failing provider therefore ties up at most its own slots, and once its circuit
+ * opens, calls to it fail fast.
+ *
+ * <pre>
+ * restTemplate = outboundHttpClients.restTemplate(OutboundHttpClients.PAYSTACK);
+ * </pre>
+ *
+ * Settings come from {@link OutboundHttpProperties}.
+ */
+@Component
+@Slf4j
+public class OutboundHttpClients {
+
+    public static final String PAYSTACK = "paystack";
+    public static final String AFRICAS_TALKING = "africastalking";
+    public static final String TWILIO = "twilio";
+
+    private final OutboundHttpProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Provider> providers = new ConcurrentHashMap<>();
+
+    private record Provider(RestTemplate restTemplate, CircuitBreaker circuitBreaker) {
+    }
+
+    public OutboundHttpClients(OutboundHttpProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The provider's RestTemplate. Calls that are not sent (circuit open, no free slot) throw
+     * a {@link org.springframework.web.client.ResourceAccessException} caused by
+     * {@link OutboundCallRejectedException}.
+     */
+    public RestTemplate restTemplate(String provider) {
+        return providers.computeIfAbsent(provider, this::create).restTemplate();
+    }
+
+    public CircuitBreaker.State circuitState(String provider) {
+        return providers.computeIfAbsent(provider, this::create).circuitBreaker().state();
+    }
+
+    private Provider create(String provider) {
+        OutboundHttpProperties.Settings settings = properties.settingsFor(provider);
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(settings.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(settings);
+        RestTemplate restTemplate = new RestTemplate(new JdkBufferingRequestFactory(httpClient, settings.getReadTimeout()));
+        restTemplate.getInterceptors().add(new ProviderCallInterceptor(provider, settings, circuitBreaker, meterRegistry));
+
+        log.info("Outbound HTTP client for {}: max {} concurrent, connect {} / read {} timeout",
+            provider, settings.getMaxConcurrent(), settings.getConnectTimeout(), settings.getReadTimeout());
+        return new Provider(restTemplate, circuitBreaker);
+    }
+}
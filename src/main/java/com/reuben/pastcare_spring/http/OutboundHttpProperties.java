@@ -0,0 +1,86 @@
+package com.reuben.pastcare_spring.http;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for outbound calls to payment and messaging providers ({@link OutboundHttpClients}).
+ *
+ * <pre>
+ * app.http.outbound.defaults.read-timeout=10s
+ * app.http.outbound.providers.paystack.read-timeout=20s
+ * </pre>
+ *
+ * A provider entry only needs the settings it overrides; the rest come from the defaults.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.http.outbound")
+@Data
+public class OutboundHttpProperties {
+
+    private Settings defaults = Settings.builtIn();
+    private Map<String, Settings> providers = new HashMap<>();
+
+    /**
+     * The defaults with the provider's overrides applied.
+     */
+    public Settings settingsFor(String provider) {
+        Settings resolved = Settings.builtIn().overlay(defaults);
+        Settings overrides = providers.get(provider);
+        return overrides == null ? resolved : resolved.overlay(overrides);
+    }
+
+    @Data
+    public static class Settings {
+
+        // Timeouts: TCP/TLS connect, then the whole response (headers and body) once sent,
+        // and how long a call may wait for one of the provider's concurrency slots
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Duration queueTimeout;
+
+        // Calls in flight to the provider at once; also bounds its pooled connections
+        private Integer maxConcurrent;
+
+        // Circuit breaker: opens when failureRateThreshold percent of the last slidingWindowSize
+        // calls failed (once minimumCalls were made), rejects calls for openDuration, then lets
+        // halfOpenCalls trial calls through and closes if they all succeed
+        private Integer failureRateThreshold;
+        private Integer slidingWindowSize;
+        private Integer minimumCalls;
+        private Duration openDuration;
+        private Integer halfOpenCalls;
+
+        static Settings builtIn() {
+            Settings settings = new Settings();
+            settings.setConnectTimeout(Duration.ofSeconds(2));
+            settings.setReadTimeout(Duration.ofSeconds(10));
+            settings.setQueueTimeout(Duration.ofSeconds(2));
+            settings.setMaxConcurrent(32);
+            settings.setFailureRateThreshold(50);
+            settings.setSlidingWindowSize(20);
+            settings.setMinimumCalls(10);
+            settings.setOpenDuration(Duration.ofSeconds(30));
+            settings.setHalfOpenCalls(3);
+            return settings;
+        }
+
+        Settings overlay(Settings overrides) {
+            if (overrides.connectTimeout != null) connectTimeout = overrides.connectTimeout;
+            if (overrides.readTimeout != null) readTimeout = overrides.readTimeout;
+            if (overrides.queueTimeout != null) queueTimeout = overrides.queueTimeout;
+            if (overrides.maxConcurrent != null) maxConcurrent = overrides.maxConcurrent;
+            if (overrides.failureRateThreshold != null) failureRateThreshold = overrides.failureRateThreshold;
+            if (overrides.slidingWindowSize != null) slidingWindowSize = overrides.slidingWindowSize;
+            if (overrides.minimumCalls != null) minimumCalls = overrides.minimumCalls;
+            if (overrides.openDuration != null) openDuration = overrides.openDuration;
+            if (overrides.halfOpenCalls != null) halfOpenCalls = overrides.halfOpenCalls;
+            return this;
+        }
+    }
+}
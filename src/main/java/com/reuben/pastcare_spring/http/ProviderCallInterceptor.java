@@ -0,0 +1,139 @@
+package com.reuben.pastcare_spring.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards every call to one provider: waits for a concurrency slot, asks the circuit breaker,
+ * times the call and reports its outcome.
+ *
+ * <p>Responses are buffered ({@link JdkBufferingRequestFactory}), so a call's connection is
+ * back in the pool when it gives up its slot; the slots also bound the provider's connections.
+ *
+ * <p>Meters (all tagged {@code provider}):
+ * <ul>
+ *   <li>{@code outbound.http.requests}: latency of the whole response, tagged outcome
+ *       (success, client_error, server_error, io_error), with p50/p95/p99</li>
+ *   <li>{@code outbound.http.in_flight} / {@code outbound.http.queued}: slots in use and calls
+ *       waiting for one; {@code outbound.http.saturation} is in-flight / max-concurrent</li>
+ *   <li>{@code outbound.http.rejected}: calls not sent, tagged reason (circuit_open, saturated)</li>
+ *   <li>{@code outbound.http.circuit.state}: 0 closed, 1 half open, 2 open</li>
+ * </ul>
+ *
+ * 5xx, 429 and I/O errors (including timeouts) count as failures for the breaker; other 4xx
+ * are the caller's problem, not the provider's.
+ */
+class ProviderCallInterceptor implements ClientHttpRequestInterceptor {
+
+    private final String provider;
+    private final OutboundHttpProperties.Settings settings;
+    private final Semaphore slots;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedOpen;
+    private final Counter rejectedSaturated;
+
+    ProviderCallInterceptor(String provider, OutboundHttpProperties.Settings settings,
+                            CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.settings = settings;
+        this.slots = new Semaphore(settings.getMaxConcurrent(), true);
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+
+        int maxConcurrent = settings.getMaxConcurrent();
+        Gauge.builder("outbound.http.in_flight", slots, s -> maxConcurrent - s.availablePermits())
+            .description("Calls to the provider in flight")
+            .tags("provider", provider)
+            .register(meterRegistry);
+        Gauge.builder("outbound.http.queued", slots, Semaphore::getQueueLength)
+            .description("Calls waiting for a free slot")
+            .tags("provider", provider)
+            .register(meterRegistry);
+        Gauge.builder("outbound.http.saturation", slots, s -> (maxConcurrent - s.availablePermits()) / (double) maxConcurrent)
+            .description("Share of the provider's concurrency slots in use")
+            .tags("provider", provider)
+            .register(meterRegistry);
+        Gauge.builder("outbound.http.circuit.state", circuitBreaker, breaker -> switch (breaker.state()) {
+                case CLOSED -> 0;
+                case HALF_OPEN -> 1;
+                case OPEN -> 2;
+            })
+            .description("Circuit breaker state (0 closed, 1 half open, 2 open)")
+            .tags("provider", provider)
+            .register(meterRegistry);
+        this.rejectedOpen = Counter.builder("outbound.http.rejected")
+            .description("Calls not sent to the provider")
+            .tags("provider", provider, "reason", "circuit_open")
+            .register(meterRegistry);
+        this.rejectedSaturated = Counter.builder("outbound.http.rejected")
+            .description("Calls not sent to the provider")
+            .tags("provider", provider, "reason", "saturated")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!circuitBreaker.remainingOpenTime().isZero()) {
+            // Fail fast without waiting for a slot
+            rejectedOpen.increment();
+            throw new OutboundCallRejectedException(provider, "circuit open");
+        }
+        acquireSlot();
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                rejectedOpen.increment();
+                throw new OutboundCallRejectedException(provider, "circuit open");
+            }
+            long start = System.nanoTime();
+            String outcome = "io_error";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                int status = response.getStatusCode().value();
+                outcome = status >= 500 ? "server_error" : status >= 400 ? "client_error" : "success";
+                if (status >= 500 || status == 429) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                circuitBreaker.onFailure();
+                throw e;
+            } finally {
+                Timer.builder("outbound.http.requests")
+                    .description("Latency of calls to payment and messaging providers")
+                    .tags("provider", provider, "outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            slots.release();
+        }
+    }
+
+    private void acquireSlot() throws IOException {
+        try {
+            if (!slots.tryAcquire(settings.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                rejectedSaturated.increment();
+                throw new OutboundCallRejectedException(provider,
+                    "all " + settings.getMaxConcurrent() + " slots busy for " + settings.getQueueTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutboundCallRejectedException(provider, "interrupted waiting for a slot");
+        }
+    }
+}
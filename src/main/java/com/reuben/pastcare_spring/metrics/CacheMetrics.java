@@ -0,0 +1,31 @@
+package com.reuben.pastcare_spring.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Hit/miss counters for one of the in-process caches, published as
+ * {@code cache.gets{cache=..., result=hit|miss}} (hit ratio = hit / total).
+ *
+ * <p>Counters live on Micrometer's global registry, which Spring Boot binds to the
+ * Prometheus registry, so caches built outside Spring (e.g. in unit tests) just
+ * record into a no-op registry.
+ */
+public final class CacheMetrics {
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public CacheMetrics(String cacheName) {
+        this.hits = Metrics.counter("cache.gets", "cache", cacheName, "result", "hit");
+        this.misses = Metrics.counter("cache.gets", "cache", cacheName, "result", "miss");
+    }
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+}
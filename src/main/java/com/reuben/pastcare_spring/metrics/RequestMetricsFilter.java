@@ -0,0 +1,128 @@
+package com.reuben.pastcare_spring.metrics;
+
+import com.reuben.pastcare_spring.annotations.SqlBudget;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request metrics for API calls.
+ *
+ * <ul>
+ *   <li>Stores the tenant tier as a request attribute; {@code MetricsConfig} adds it
+ *       as a tag on the standard {@code http.server.requests} timers</li>
+ *   <li>Records the number of SQL statements each request issued as
+ *       {@code http.server.requests.sql.statements}, and the time spent executing them
+ *       as {@code http.server.requests.sql.time}; both are also exposed as request
+ *       attributes</li>
+ *   <li>Flags requests that go over their SQL statement budget (an N+1 regression,
+ *       usually): logs a warning and increments
+ *       {@code http.server.requests.sql.budget.exceeded}. The budget is
+ *       {@code app.metrics.sql-budget.max-statements} unless the handler carries
+ *       {@link SqlBudget}</li>
+ * </ul>
+ *
+ * Order: HIGHEST_PRECEDENCE + 20 (runs after TenantContextFilter has set the tenant)
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_TIER_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".tenantTier";
+    public static final String SQL_STATEMENTS_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".sqlStatements";
+    public static final String SQL_TIME_MS_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".sqlTimeMs";
+
+    private final MeterRegistry meterRegistry;
+    private final TenantTierResolver tenantTierResolver;
+    private final int defaultSqlBudget;
+
+    public RequestMetricsFilter(
+            MeterRegistry meterRegistry,
+            TenantTierResolver tenantTierResolver,
+            @Value("${app.metrics.sql-budget.max-statements:100}") int defaultSqlBudget) {
+        this.meterRegistry = meterRegistry;
+        this.tenantTierResolver = tenantTierResolver;
+        this.defaultSqlBudget = defaultSqlBudget;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String tier = tenantTierResolver.resolveCurrentTier();
+        request.setAttribute(TENANT_TIER_ATTRIBUTE, tier);
+        SqlStatementCounter.reset();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = SqlStatementCounter.get();
+            long sqlNanos = SqlStatementCounter.getExecutionNanos();
+            request.setAttribute(SQL_STATEMENTS_ATTRIBUTE, statements);
+            request.setAttribute(SQL_TIME_MS_ATTRIBUTE, TimeUnit.NANOSECONDS.toMillis(sqlNanos));
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("SQL statements issued while handling a request")
+                    .tags("method", request.getMethod(), "uri", uri, "tenant.tier", tier)
+                    .register(meterRegistry)
+                    .record(statements);
+            Timer.builder("http.server.requests.sql.time")
+                    .description("Time spent executing SQL while handling a request")
+                    .tags("method", request.getMethod(), "uri", uri, "tenant.tier", tier)
+                    .register(meterRegistry)
+                    .record(sqlNanos, TimeUnit.NANOSECONDS);
+
+            int budget = resolveSqlBudget(request);
+            if (budget > 0 && statements > budget) {
+                log.warn("SQL budget exceeded: {} {} issued {} statements (budget {}, {} ms in SQL)",
+                        request.getMethod(), uri, statements, budget, TimeUnit.NANOSECONDS.toMillis(sqlNanos));
+                meterRegistry.counter("http.server.requests.sql.budget.exceeded",
+                        "method", request.getMethod(), "uri", uri).increment();
+            }
+        }
+    }
+
+    /**
+     * Budget for the handler that served the request: method annotation, then class
+     * annotation, then the configured default.
+     */
+    private int resolveSqlBudget(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            SqlBudget budget = handler.getMethodAnnotation(SqlBudget.class);
+            if (budget == null) {
+                budget = handler.getBeanType().getAnnotation(SqlBudget.class);
+            }
+            if (budget != null) {
+                return budget.value();
+            }
+        }
+        return defaultSqlBudget;
+    }
+}
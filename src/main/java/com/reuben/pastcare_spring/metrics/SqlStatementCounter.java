@@ -0,0 +1,67 @@
+package com.reuben.pastcare_spring.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, and the
+ * time spent executing them.
+ *
+ * <p>Registered through {@code hibernate.session_factory.statement_inspector}, so
+ * Hibernate instantiates it directly and every session reports to the same
+ * thread-local counter; {@link SqlTimingListener} adds execution time.
+ * {@link RequestMetricsFilter} resets it at the start of each request and reads
+ * the totals when the request completes. Tests can use it the same way around
+ * a block of code.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Stats> STATS = ThreadLocal.withInitial(Stats::new);
+
+    private static final class Stats {
+        private long statements;
+        private long executionNanos;
+        private long executionStartedAt;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        STATS.get().statements++;
+        return sql;
+    }
+
+    /**
+     * Start counting from zero on this thread.
+     */
+    public static void reset() {
+        Stats stats = STATS.get();
+        stats.statements = 0;
+        stats.executionNanos = 0;
+        stats.executionStartedAt = 0;
+    }
+
+    /**
+     * Statements prepared on this thread since the last reset.
+     */
+    public static long get() {
+        return STATS.get().statements;
+    }
+
+    /**
+     * Time spent executing statements on this thread since the last reset, in nanoseconds.
+     */
+    public static long getExecutionNanos() {
+        return STATS.get().executionNanos;
+    }
+
+    static void executionStarted() {
+        STATS.get().executionStartedAt = System.nanoTime();
+    }
+
+    static void executionEnded() {
+        Stats stats = STATS.get();
+        if (stats.executionStartedAt != 0) {
+            stats.executionNanos += System.nanoTime() - stats.executionStartedAt;
+            stats.executionStartedAt = 0;
+        }
+    }
+}
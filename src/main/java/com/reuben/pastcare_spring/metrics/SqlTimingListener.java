@@ -0,0 +1,32 @@
+package com.reuben.pastcare_spring.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time to {@link SqlStatementCounter}.
+ *
+ * <p>Registered through {@code hibernate.session.events.auto}; Hibernate creates
+ * one per session.
+ */
+public class SqlTimingListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        SqlStatementCounter.executionStarted();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementCounter.executionEnded();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        SqlStatementCounter.executionStarted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementCounter.executionEnded();
+    }
+}
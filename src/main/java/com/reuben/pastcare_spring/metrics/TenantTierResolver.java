@@ -0,0 +1,86 @@
+package com.reuben.pastcare_spring.metrics;
+
+import com.reuben.pastcare_spring.models.ChurchSubscription;
+import com.reuben.pastcare_spring.repositories.ChurchSubscriptionRepository;
+import com.reuben.pastcare_spring.security.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the current tenant's pricing tier for metric tags.
+ *
+ * <p>Tiers change rarely, so lookups are cached per church for a few minutes;
+ * the request path normally does a map lookup only.
+ */
+@Component
+@Slf4j
+public class TenantTierResolver {
+
+    public static final String NONE = "none";
+    public static final String PLATFORM = "platform";
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final ChurchSubscriptionRepository subscriptionRepository;
+    private final long ttlMillis;
+    private final Map<Long, CachedTier> tiers = new ConcurrentHashMap<>();
+
+    private record CachedTier(String tier, long expiresAt) {
+    }
+
+    public TenantTierResolver(
+            ChurchSubscriptionRepository subscriptionRepository,
+            @Value("${app.metrics.tenant-tier-cache-ttl-seconds:300}") long ttlSeconds) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Tier tag for the request's tenant: the pricing tier name, "platform" for
+     * SUPERADMIN requests and "none" when unauthenticated or unsubscribed.
+     */
+    public String resolveCurrentTier() {
+        Long churchId = TenantContext.getCurrentChurchId();
+        if (churchId == null) {
+            return TenantContext.isSuperadmin() ? PLATFORM : NONE;
+        }
+
+        long now = System.currentTimeMillis();
+        CachedTier cached = tiers.get(churchId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.tier();
+        }
+
+        String tier = lookupTier(churchId);
+        if (tiers.size() >= MAX_ENTRIES) {
+            tiers.clear();
+        }
+        tiers.put(churchId, new CachedTier(tier, now + ttlMillis));
+        return tier;
+    }
+
+    private String lookupTier(Long churchId) {
+        try {
+            return subscriptionRepository.findByChurchId(churchId)
+                    .map(TenantTierResolver::tierOf)
+                    .orElse(NONE);
+        } catch (Exception e) {
+            log.debug("Could not resolve pricing tier for church {}: {}", churchId, e.getMessage());
+            return NONE;
+        }
+    }
+
+    private static String tierOf(ChurchSubscription subscription) {
+        if (subscription.getPricingTier() != null && subscription.getPricingTier().getTierName() != null) {
+            return subscription.getPricingTier().getTierName();
+        }
+        if (subscription.getPlan() != null && subscription.getPlan().getName() != null) {
+            return subscription.getPlan().getName();
+        }
+        return NONE;
+    }
+}
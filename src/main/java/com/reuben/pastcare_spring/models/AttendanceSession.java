@@ -15,11 +15,15 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+    name = "uk_attendance_session_template_date", columnNames = {"template_session_id", "session_date"}))
 @Data
 public class AttendanceSession extends TenantBaseEntity {
 
@@ -73,6 +77,13 @@ public class AttendanceSession extends TenantBaseEntity {
   @Column(length = 100)
   private String recurrencePattern;
 
+  /**
+   * The recurring template this session was generated from (null for sessions created directly).
+   * Unique with sessionDate, so a template can't generate the same date twice.
+   */
+  @Column(name = "template_session_id")
+  private Long templateSessionId;
+
   private Integer maxCapacity;
 
   private LocalDateTime checkInOpensAt;
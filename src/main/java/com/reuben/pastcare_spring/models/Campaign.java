@@ -74,28 +74,34 @@ public class Campaign extends TenantBaseEntity {
   @Column(nullable = false)
   private Boolean isPublic = true;
 
+  /*
+   * Progress counters. They are maintained by CampaignProgressLedger with atomic
+   * increments, so entity updates never write them (a stale copy would undo
+   * concurrent increments).
+   */
+
   /**
-   * Current amount raised (updated via donations)
+   * Current amount raised: donations plus payments on non-cancelled pledges
    */
-  @Column(nullable = false, precision = 12, scale = 2)
+  @Column(nullable = false, updatable = false, precision = 12, scale = 2)
   private BigDecimal currentAmount = BigDecimal.ZERO;
 
   /**
-   * Total pledged amount
+   * Total pledged amount (non-cancelled pledges)
    */
-  @Column(nullable = false, precision = 12, scale = 2)
+  @Column(nullable = false, updatable = false, precision = 12, scale = 2)
   private BigDecimal totalPledges = BigDecimal.ZERO;
 
   /**
    * Total number of donations received
    */
-  @Column(nullable = false)
+  @Column(nullable = false, updatable = false)
   private Integer totalDonations = 0;
 
   /**
    * Total number of pledges made
    */
-  @Column(nullable = false)
+  @Column(nullable = false, updatable = false)
   private Integer totalPledgesCount = 0;
 
   /**
@@ -0,0 +1,73 @@
+package com.reuben.pastcare_spring.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Daily metrics for one church, written by the nightly platform snapshot job.
+ * Platform-level (SUPERADMIN) data, so not tenant filtered.
+ */
+@Entity
+@Table(name = "church_metrics_snapshot")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChurchMetricsSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "church_id", nullable = false)
+    private Long churchId;
+
+    @Column(name = "active", nullable = false)
+    private Boolean active;
+
+    @Column(name = "user_count", nullable = false)
+    @Builder.Default
+    private Integer userCount = 0;
+
+    @Column(name = "member_count", nullable = false)
+    @Builder.Default
+    private Integer memberCount = 0;
+
+    /**
+     * Latest calculated total storage (MB) on the snapshot date.
+     */
+    @Column(name = "storage_mb", nullable = false)
+    @Builder.Default
+    private Double storageMb = 0.0;
+
+    @Column(name = "subscription_status", length = 50)
+    private String subscriptionStatus;
+
+    @Column(name = "plan_name", length = 100)
+    private String planName;
+
+    /**
+     * Monthly recurring revenue, normalised from the billing period.
+     */
+    @Column(name = "mrr", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal mrr = BigDecimal.ZERO;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -274,6 +274,26 @@ public class ChurchSubscription {
     @Column(name = "promotional_granted_at")
     private LocalDateTime promotionalGrantedAt;
 
+    // ==================== RENEWAL LEASE ====================
+
+    /**
+     * Renewal run currently holding this subscription (null when not claimed)
+     */
+    @Column(name = "renewal_lease_owner", length = 64)
+    private String renewalLeaseOwner;
+
+    /**
+     * When the renewal lease expires; after that another run may reclaim the subscription
+     */
+    @Column(name = "renewal_lease_until")
+    private LocalDateTime renewalLeaseUntil;
+
+    /**
+     * Day the last renewal attempt finished (at most one attempt per day)
+     */
+    @Column(name = "renewal_attempt_date")
+    private LocalDate renewalAttemptDate;
+
     /**
      * When subscription was created
      */
@@ -20,7 +20,8 @@ import java.time.LocalDate;
     @Index(name = "idx_donation_date", columnList = "donationDate"),
     @Index(name = "idx_donation_type", columnList = "donationType"),
     @Index(name = "idx_donation_payment_method", columnList = "paymentMethod"),
-    @Index(name = "idx_donation_church_date", columnList = "church_id,donationDate")
+    @Index(name = "idx_donation_church_date", columnList = "church_id,donationDate"),
+    @Index(name = "idx_donation_church_date_totals", columnList = "church_id,donationDate,donationType,amount,member_id,isAnonymous")
   }
 )
 @Data
@@ -0,0 +1,97 @@
+package com.reuben.pastcare_spring.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outgoing email, waiting for or done with delivery.
+ *
+ * <p>{@code EmailService} writes the message in the caller's transaction;
+ * {@code EmailOutboxProcessor} sends it afterwards through the SMTP {@link #provider}.
+ */
+@Entity
+@Table(name = "email_outbox",
+    indexes = {
+        @Index(name = "idx_email_outbox_ready", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_outbox_sent", columnList = "status, sent_at")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * SMTP provider name from app.email.smtp.providers; unknown names use the defaults
+     */
+    @Column(name = "provider", nullable = false, length = 64)
+    private String provider;
+
+    /**
+     * Message-ID header without angle brackets, the same on every attempt
+     */
+    @Column(name = "message_id", nullable = false, length = 191)
+    private String messageId;
+
+    @Column(name = "from_address", nullable = false, length = 320)
+    private String fromAddress;
+
+    @Column(name = "to_address", nullable = false, length = 320)
+    private String toAddress;
+
+    @Column(name = "subject", nullable = false, length = 1000)
+    private String subject;
+
+    @Column(name = "text_body", columnDefinition = "TEXT")
+    private String textBody;
+
+    @Column(name = "html_body", columnDefinition = "TEXT")
+    private String htmlBody;
+
+    @Column(name = "attachment_name")
+    private String attachmentName;
+
+    @Lob
+    @Column(name = "attachment")
+    private byte[] attachment;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * When the message may next be picked up: on creation, after a failed attempt's backoff, or
+     * when a worker's claim lease runs out
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Worker currently holding the message
+     */
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,10 @@
+package com.reuben.pastcare_spring.models;
+
+/**
+ * Delivery state of an outgoing email in the outbox.
+ */
+public enum EmailOutboxStatus {
+    PENDING,  // Waiting to be sent, or between attempts
+    SENT,     // Accepted by the mail server
+    FAILED    // Rejected permanently, or gave up after the maximum number of attempts
+}
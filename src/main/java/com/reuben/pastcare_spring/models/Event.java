@@ -19,7 +19,8 @@ import java.util.List;
  * Includes support for recurring events, multi-location, registration management, and capacity control.
  */
 @Entity
-@Table(name = "events")
+@Table(name = "events", uniqueConstraints = @UniqueConstraint(
+    name = "uk_events_parent_occurrence", columnNames = {"parent_event_id", "occurrence_start"}))
 @SQLDelete(sql = "UPDATE events SET deleted_at = NOW() WHERE id = ?")
 @FilterDef(name = "deletedEventFilter", parameters = @ParamDef(name = "isDeleted", type = Boolean.class))
 @Filter(name = "deletedEventFilter", condition = "deleted_at IS NULL")
@@ -93,10 +94,23 @@ public class Event {
     @Column(name = "max_capacity")
     private Integer maxCapacity;
 
-    @Column(name = "current_registrations", nullable = false)
+    /**
+     * Seats taken. Maintained only by the atomic conditional updates in
+     * {@code EventRepository} (not updatable through the entity) so a stale
+     * entity save can never overwrite a concurrent registration.
+     */
+    @Column(name = "current_registrations", nullable = false, updatable = false)
     @Builder.Default
     private Integer currentRegistrations = 0;
 
+    /**
+     * Last waitlist position handed out. Positions come from this monotonically
+     * increasing sequence, so promotion never renumbers the remaining waitlist.
+     */
+    @Column(name = "waitlist_sequence", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer waitlistSequence = 0;
+
     @Column(name = "allow_waitlist")
     @Builder.Default
     private Boolean allowWaitlist = false;
@@ -128,6 +142,13 @@ public class Event {
     @JsonIgnore
     private Event parentEvent;
 
+    /**
+     * For a child of a recurring event: the rule start time of the occurrence it
+     * materializes (unique per series). Stays put if the occurrence is rescheduled.
+     */
+    @Column(name = "occurrence_start")
+    private LocalDateTime occurrenceStart;
+
     @OneToMany(mappedBy = "parentEvent", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     @Builder.Default
@@ -216,6 +237,9 @@ public class Event {
         if (currentRegistrations == null) {
             currentRegistrations = 0;
         }
+        if (waitlistSequence == null) {
+            waitlistSequence = 0;
+        }
         if (allowWaitlist == null) {
             allowWaitlist = false;
         }
@@ -306,25 +330,6 @@ public class Event {
         return locationType != null && locationType.requiresVirtualLink();
     }
 
-    /**
-     * Increment registration count
-     */
-    public void incrementRegistrations() {
-        if (currentRegistrations == null) {
-            currentRegistrations = 0;
-        }
-        currentRegistrations++;
-    }
-
-    /**
-     * Decrement registration count
-     */
-    public void decrementRegistrations() {
-        if (currentRegistrations != null && currentRegistrations > 0) {
-            currentRegistrations--;
-        }
-    }
-
     /**
      * Cancel the event
      */
@@ -0,0 +1,80 @@
+package com.reuben.pastcare_spring.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to one occurrence of a recurring event: cancelled, or moved to new times.
+ * The occurrence is identified by the start time the recurrence rule gives it.
+ */
+@Entity
+@Table(name = "event_occurrence_exceptions", uniqueConstraints = @UniqueConstraint(
+    name = "uk_occurrence_exception", columnNames = {"event_id", "occurrence_start"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventOccurrenceException {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Tenant isolation
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "church_id", nullable = false)
+    @JsonIgnore
+    private Church church;
+
+    // The recurring (series) event
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    @JsonIgnore
+    private Event event;
+
+    @Column(name = "occurrence_start", nullable = false)
+    private LocalDateTime occurrenceStart;
+
+    @Column(name = "cancelled", nullable = false)
+    @Builder.Default
+    private Boolean cancelled = false;
+
+    // Rescheduled times (null keeps the rule times)
+    @Column(name = "start_date")
+    private LocalDateTime startDate;
+
+    @Column(name = "end_date")
+    private LocalDateTime endDate;
+
+    // Audit fields
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (cancelled == null) {
+            cancelled = false;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Whether the occurrence keeps its place but runs at different times.
+     */
+    public boolean isRescheduled() {
+        return startDate != null || endDate != null;
+    }
+}
@@ -0,0 +1,81 @@
+package com.reuben.pastcare_spring.models;
+
+import com.reuben.pastcare_spring.enums.CheckInMethod;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Filter;
+
+import java.time.LocalDate;
+
+/**
+ * Precomputed attendance engagement for one member.
+ *
+ * Refreshed by MemberEngagementService whenever the member checks in or is
+ * marked, and rolled forward nightly so the 30/90 day windows stay current.
+ * Dashboard top-N and irregular-attender widgets read from here instead of
+ * aggregating raw attendance.
+ */
+@Entity
+@Table(name = "member_engagement")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true, exclude = "member")
+@ToString(exclude = "member")
+@Filter(name = "churchFilter", condition = "church_id = :churchId")
+public class MemberEngagement extends TenantBaseEntity {
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false, unique = true, updatable = false)
+    private Member member;
+
+    /**
+     * Sessions attended (PRESENT) in the 30 days up to windowsAsOf
+     */
+    @Column(name = "attended_30d", nullable = false)
+    @Builder.Default
+    private Integer attendedLast30Days = 0;
+
+    /**
+     * Sessions attended (PRESENT) in the 90 days up to windowsAsOf
+     */
+    @Column(name = "attended_90d", nullable = false)
+    @Builder.Default
+    private Integer attendedLast90Days = 0;
+
+    /**
+     * Late check-ins in the 90 days up to windowsAsOf
+     */
+    @Column(name = "late_90d", nullable = false)
+    @Builder.Default
+    private Integer lateLast90Days = 0;
+
+    @Column(name = "total_attended", nullable = false)
+    @Builder.Default
+    private Integer totalAttended = 0;
+
+    @Column(name = "last_attended_date")
+    private LocalDate lastAttendedDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "preferred_check_in_method", length = 30)
+    private CheckInMethod preferredCheckInMethod;
+
+    /**
+     * Consecutive most recent attendance records marked PRESENT
+     */
+    @Column(name = "current_streak", nullable = false)
+    @Builder.Default
+    private Integer currentStreak = 0;
+
+    @Column(name = "longest_streak", nullable = false)
+    @Builder.Default
+    private Integer longestStreak = 0;
+
+    /**
+     * Day the rolling window counters were computed for
+     */
+    @Column(name = "windows_as_of", nullable = false)
+    private LocalDate windowsAsOf;
+}
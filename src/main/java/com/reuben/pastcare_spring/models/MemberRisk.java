@@ -0,0 +1,84 @@
+package com.reuben.pastcare_spring.models;
+
+import com.reuben.pastcare_spring.enums.MemberRiskLevel;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Filter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ranked pastoral-risk snapshot for one member.
+ *
+ * Rebuilt per church by MemberRiskService (nightly and on demand) from absence,
+ * care need, visit and communication signals. Care-need suggestions, the
+ * dashboard at-risk widget and insights read from here. Members with no risk
+ * signal have no row.
+ */
+@Entity
+@Table(name = "member_risk")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true, exclude = "member")
+@ToString(exclude = "member")
+@Filter(name = "churchFilter", condition = "church_id = :churchId")
+public class MemberRisk extends TenantBaseEntity {
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false, unique = true, updatable = false)
+    private Member member;
+
+    /**
+     * 0-100, higher is more at risk
+     */
+    @Column(name = "risk_score", nullable = false)
+    private Integer riskScore;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "risk_level", nullable = false, length = 20)
+    private MemberRiskLevel riskLevel;
+
+    /**
+     * Position within the church, 1 = highest score
+     */
+    @Column(name = "risk_rank", nullable = false)
+    private Integer riskRank;
+
+    /**
+     * Comma-separated reason codes (see MemberRiskService)
+     */
+    @Column(name = "reasons", nullable = false)
+    private String reasons;
+
+    @Column(name = "never_attended", nullable = false)
+    @Builder.Default
+    private Boolean neverAttended = false;
+
+    /**
+     * Whole weeks since last attended; null if never attended
+     */
+    @Column(name = "weeks_absent")
+    private Integer weeksAbsent;
+
+    @Column(name = "last_attended_date")
+    private LocalDate lastAttendedDate;
+
+    @Column(name = "has_open_care_need", nullable = false)
+    @Builder.Default
+    private Boolean hasOpenCareNeed = false;
+
+    @Column(name = "last_visit_date")
+    private LocalDate lastVisitDate;
+
+    @Column(name = "last_contact_date")
+    private LocalDateTime lastContactDate;
+
+    /**
+     * Day the snapshot was computed for
+     */
+    @Column(name = "computed_for", nullable = false)
+    private LocalDate computedFor;
+}
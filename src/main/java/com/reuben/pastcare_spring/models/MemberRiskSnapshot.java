@@ -0,0 +1,41 @@
+package com.reuben.pastcare_spring.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * When a church's member_risk snapshot was last computed.
+ *
+ * Written by every MemberRiskService recompute, so a church with no members at
+ * risk (and so no member_risk rows) still counts as computed.
+ */
+@Entity
+@Table(name = "member_risk_snapshot")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberRiskSnapshot {
+
+    @Id
+    @Column(name = "church_id")
+    private Long churchId;
+
+    /**
+     * Day the snapshot was computed for
+     */
+    @Column(name = "computed_for", nullable = false)
+    private LocalDate computedFor;
+
+    @Column(name = "at_risk_count", nullable = false)
+    private Integer atRiskCount;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,96 @@
+package com.reuben.pastcare_spring.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Paystack webhook as received, waiting for or done with processing.
+ *
+ * <p>The webhook endpoint only records the event; {@code PaystackWebhookProcessor} handles it
+ * later. {@link #eventKey} identifies a delivery, so Paystack's retries of the same webhook
+ * are stored once. Events of one {@link #reference} are handled one at a time, oldest
+ * {@link #occurredAt} first.
+ */
+@Entity
+@Table(name = "paystack_webhook_events",
+    uniqueConstraints = @UniqueConstraint(name = "uk_webhook_event_key", columnNames = "event_key"),
+    indexes = {
+        @Index(name = "idx_webhook_pending", columnList = "status, reference, occurred_at"),
+        @Index(name = "idx_webhook_reference", columnList = "reference, event_type, status")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaystackWebhookEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Event type, Paystack transaction ID and reference, e.g. charge.success:302961:SUB-1-ab12
+     */
+    @Column(name = "event_key", nullable = false, length = 191)
+    private String eventKey;
+
+    /**
+     * Paystack event, e.g. charge.success
+     */
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    /**
+     * Paystack transaction reference; the event key for events that carry none
+     */
+    @Column(name = "reference", nullable = false, length = 191)
+    private String reference;
+
+    /**
+     * When Paystack says the event happened (paid_at / created_at), else when it was received
+     */
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private PaystackWebhookEventStatus status = PaystackWebhookEventStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * Why the event was ignored, or the last processing error
+     */
+    @Column(name = "outcome", length = 500)
+    private String outcome;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    /**
+     * When the event may next be picked up: on receipt, after a failed attempt's backoff, or
+     * when a worker's claim lease runs out
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Worker currently holding the event
+     */
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,11 @@
+package com.reuben.pastcare_spring.models;
+
+/**
+ * Processing state of a received Paystack webhook.
+ */
+public enum PaystackWebhookEventStatus {
+    PENDING,    // Recorded, waiting for (or between) processing attempts
+    PROCESSED,  // Handled
+    IGNORED,    // Nothing to do: duplicate, superseded or unhandled event
+    FAILED      // Gave up after the maximum number of attempts
+}
@@ -0,0 +1,79 @@
+package com.reuben.pastcare_spring.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Daily platform-wide totals, written by the nightly platform snapshot job.
+ * Source for SUPERADMIN trend charts and month-over-month growth figures.
+ */
+@Entity
+@Table(name = "platform_metrics_snapshot")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlatformMetricsSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false, unique = true)
+    private LocalDate snapshotDate;
+
+    @Column(name = "total_churches", nullable = false)
+    @Builder.Default
+    private Integer totalChurches = 0;
+
+    @Column(name = "active_churches", nullable = false)
+    @Builder.Default
+    private Integer activeChurches = 0;
+
+    @Column(name = "total_users", nullable = false)
+    @Builder.Default
+    private Integer totalUsers = 0;
+
+    @Column(name = "total_members", nullable = false)
+    @Builder.Default
+    private Integer totalMembers = 0;
+
+    @Column(name = "total_storage_mb", nullable = false)
+    @Builder.Default
+    private Double totalStorageMb = 0.0;
+
+    @Column(name = "mrr", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal mrr = BigDecimal.ZERO;
+
+    @Column(name = "active_subscriptions", nullable = false)
+    @Builder.Default
+    private Integer activeSubscriptions = 0;
+
+    @Column(name = "past_due_subscriptions", nullable = false)
+    @Builder.Default
+    private Integer pastDueSubscriptions = 0;
+
+    @Column(name = "canceled_subscriptions", nullable = false)
+    @Builder.Default
+    private Integer canceledSubscriptions = 0;
+
+    @Column(name = "suspended_subscriptions", nullable = false)
+    @Builder.Default
+    private Integer suspendedSubscriptions = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 @Table(name = "recurring_donations", indexes = {
     @Index(name = "idx_recurring_member", columnList = "member_id"),
     @Index(name = "idx_recurring_status", columnList = "status"),
-    @Index(name = "idx_recurring_next_charge", columnList = "next_charge_date")
+    @Index(name = "idx_recurring_next_charge", columnList = "next_charge_date"),
+    @Index(name = "idx_recurring_due", columnList = "status, next_attempt_at")
 })
 @Data
 public class RecurringDonation extends TenantBaseEntity {
@@ -56,6 +57,14 @@ public class RecurringDonation extends TenantBaseEntity {
     @Column
     private LocalDateTime lastChargeDate;
 
+    // When the next charge or retry is due (null when nothing is scheduled)
+    @Column
+    private LocalDateTime nextAttemptAt;
+
+    // Charge run currently holding this donation; nextAttemptAt is its lease expiry meanwhile
+    @Column(length = 64)
+    private String chargeClaimedBy;
+
     @Column(length = 3)
     private String currency = "GHS";
 
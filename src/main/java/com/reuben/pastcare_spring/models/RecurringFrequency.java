@@ -1,5 +1,7 @@
 package com.reuben.pastcare_spring.models;
 
+import java.time.LocalDate;
+
 /**
  * Frequency options for recurring donations
  */
@@ -8,5 +10,30 @@ public enum RecurringFrequency {
     BIWEEKLY,    // Every 2 weeks
     MONTHLY,     // Every month
     QUARTERLY,   // Every 3 months
-    YEARLY       // Every year
+    YEARLY;      // Every year
+
+    /**
+     * The charge date one period after the given one.
+     */
+    public LocalDate nextDate(LocalDate from) {
+        return switch (this) {
+            case WEEKLY -> from.plusWeeks(1);
+            case BIWEEKLY -> from.plusWeeks(2);
+            case MONTHLY -> from.plusMonths(1);
+            case QUARTERLY -> from.plusMonths(3);
+            case YEARLY -> from.plusYears(1);
+        };
+    }
+
+    /**
+     * The first charge date on this schedule from {@code from} (inclusive) that falls after
+     * {@code date}. Periods missed in between are skipped, not charged one by one.
+     */
+    public LocalDate firstDateAfter(LocalDate from, LocalDate date) {
+        LocalDate next = from;
+        while (!next.isAfter(date)) {
+            next = nextDate(next);
+        }
+        return next;
+    }
 }
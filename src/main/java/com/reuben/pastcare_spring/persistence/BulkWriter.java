@@ -0,0 +1,211 @@
+package com.reuben.pastcare_spring.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnitUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Chunked writes for bulk mutation paths.
+ *
+ * <ul>
+ *   <li>{@link #saveAll} persists/merges entities one chunk at a time, flushing after each
+ *       chunk so Hibernate sends them as JDBC batches ({@code hibernate.jdbc.batch_size}),
+ *       then detaching them so the persistence context stays small</li>
+ *   <li>{@link #updateAll} applies a change to loaded entities, flushing per chunk</li>
+ *   <li>{@link #inChunks} runs a set-based {@code UPDATE}/{@code DELETE ... WHERE id IN (:ids)}
+ *       per chunk of IDs, for changes that don't need the entities loaded</li>
+ *   <li>{@link #inChunkTransactions} commits each chunk separately, isolating failures</li>
+ * </ul>
+ *
+ * All but {@link #inChunkTransactions} must be called inside a transaction. Batched inserts
+ * need sequence (not IDENTITY) ids, which {@code BaseEntity} entities have.
+ */
+@Component
+@Slf4j
+public class BulkWriter {
+
+    /**
+     * Upper bound for IN lists in set-based statements.
+     */
+    public static final int MAX_IDS_PER_STATEMENT = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int chunkSize;
+    private final TransactionTemplate chunkTransaction;
+
+    public BulkWriter(
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int chunkSize,
+            PlatformTransactionManager transactionManager) {
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Persist new entities and merge existing ones, flushing every chunk.
+     *
+     * @return The written entities (merged copies for existing ones), detached on return
+     */
+    public <T> List<T> saveAll(Collection<T> entities) {
+        PersistenceUnitUtil unitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<T> saved = new ArrayList<>(entities.size());
+        List<T> chunk = new ArrayList<>(chunkSize);
+        for (T entity : entities) {
+            if (unitUtil.getIdentifier(entity) == null) {
+                entityManager.persist(entity);
+                chunk.add(entity);
+            } else {
+                chunk.add(entityManager.merge(entity));
+            }
+            if (chunk.size() == chunkSize) {
+                flushAndDetach(chunk);
+                saved.addAll(chunk);
+                chunk.clear();
+            }
+        }
+        flushAndDetach(chunk);
+        saved.addAll(chunk);
+        return saved;
+    }
+
+    /**
+     * Apply a change to managed entities one chunk at a time: change, flush, map, detach.
+     * Only one chunk of dirty entities is held and dirty-checked at a time.
+     *
+     * @param result Maps each entity after its chunk is flushed (e.g. to a response DTO)
+     */
+    public <T, R> List<R> updateAll(List<T> entities, Consumer<T> change, Function<T, R> result) {
+        List<R> results = new ArrayList<>(entities.size());
+        for (List<T> chunk : partition(entities, chunkSize)) {
+            chunk.forEach(change);
+            entityManager.flush();
+            chunk.forEach(entity -> results.add(result.apply(entity)));
+            chunk.forEach(entityManager::detach);
+        }
+        return results;
+    }
+
+    /**
+     * Outcome of {@link #inChunkTransactions}: one report per chunk, plus the failed items.
+     */
+    public record ChunkedResult<T>(List<ChunkReport> chunks, Map<T, String> failures) {
+    }
+
+    /**
+     * One chunk's outcome. Failed counts items that still failed after the item-by-item retry.
+     */
+    public record ChunkReport(int chunk, int size, int failed, long elapsedMs) {
+    }
+
+    /**
+     * Run work for each chunk of items in its own transaction. When a chunk fails (e.g. a
+     * foreign key blocks one delete) it is rolled back and retried one item at a time, so
+     * a bad item only fails itself.
+     *
+     * <p>Called outside a transaction; each chunk commits independently.
+     *
+     * @param size Items per chunk (and per transaction)
+     * @return Per-chunk reports and an error message per failed item, in item order
+     */
+    public <T> ChunkedResult<T> inChunkTransactions(List<T> items, int size, Consumer<List<T>> work) {
+        List<ChunkReport> reports = new ArrayList<>();
+        Map<T, String> failures = new LinkedHashMap<>();
+        List<List<T>> chunks = partition(items, size);
+        for (int i = 0; i < chunks.size(); i++) {
+            List<T> chunk = chunks.get(i);
+            long start = System.nanoTime();
+            int failed = 0;
+            try {
+                runInNewTransaction(work, chunk);
+            } catch (RuntimeException chunkFailure) {
+                log.debug("Chunk of {} failed, retrying items individually: {}", chunk.size(), chunkFailure.getMessage());
+                for (T item : chunk) {
+                    try {
+                        runInNewTransaction(work, List.of(item));
+                    } catch (RuntimeException e) {
+                        failures.put(item, e.getMessage());
+                        failed++;
+                    }
+                }
+            }
+            reports.add(new ChunkReport(i + 1, chunk.size(), failed, (System.nanoTime() - start) / 1_000_000));
+        }
+        return new ChunkedResult<>(reports, failures);
+    }
+
+    public <T> ChunkedResult<T> inChunkTransactions(List<T> items, Consumer<List<T>> work) {
+        return inChunkTransactions(items, chunkSize, work);
+    }
+
+    /**
+     * Run a set-based statement once per chunk of IDs.
+     *
+     * <p>Pending changes are flushed first so the statement sees them. The statement bypasses
+     * the persistence context, so entities already loaded for these rows are stale afterwards;
+     * declare the repository method {@code @Modifying(clearAutomatically = true)} if the caller
+     * reads them again.
+     *
+     * @return Total rows affected
+     */
+    public int inChunks(Collection<Long> ids, ToIntFunction<List<Long>> statement) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        int affected = 0;
+        for (List<Long> chunk : partition(new ArrayList<>(ids), MAX_IDS_PER_STATEMENT)) {
+            affected += statement.applyAsInt(chunk);
+        }
+        return affected;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Consecutive sublists of at most size elements (views over the original list).
+     */
+    public static <T> List<List<T>> partition(List<T> items, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        List<List<T>> chunks = new ArrayList<>((items.size() + size - 1) / size);
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return chunks;
+    }
+
+    private <T> void runInNewTransaction(Consumer<List<T>> work, List<T> chunk) {
+        chunkTransaction.executeWithoutResult(status -> {
+            work.accept(chunk);
+            entityManager.flush();
+        });
+    }
+
+    private void flushAndDetach(List<?> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        chunk.forEach(entityManager::detach);
+    }
+}
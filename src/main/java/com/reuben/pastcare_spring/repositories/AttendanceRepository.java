@@ -1,6 +1,7 @@
 package com.reuben.pastcare_spring.repositories;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,7 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
   List<Attendance> findByAttendanceSessionId(Long attendanceSessionId);
   List<Attendance> findByMemberId(Long memberId);
   Optional<Attendance> findByMemberIdAndAttendanceSessionId(Long memberId, Long attendanceSessionId);
+  List<Attendance> findByAttendanceSessionIdAndMemberIdIn(Long attendanceSessionId, Collection<Long> memberIds);
   boolean existsByAttendanceSessionIdAndMemberId(Long attendanceSessionId, Long memberId);
 
   // Phase 2: Analytics Queries
@@ -59,6 +61,38 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
                                    @Param("startDate") LocalDate startDate,
                                    @Param("endDate") LocalDate endDate);
 
+  /**
+   * Single-scan daily rollup feeding AttendanceRollup.
+   * One row per (date, status, check-in method, late flag):
+   * [sessionDate, status, checkInMethod, isLate, COUNT, SUM(minutesLate), COUNT(minutesLate), MAX(minutesLate)]
+   */
+  @Query("SELECT s.sessionDate, a.status, a.checkInMethod, a.isLate, COUNT(a), " +
+         "SUM(a.minutesLate), COUNT(a.minutesLate), MAX(a.minutesLate) " +
+         "FROM Attendance a " +
+         "JOIN a.attendanceSession s " +
+         "WHERE s.church.id = :churchId " +
+         "AND s.sessionDate BETWEEN :startDate AND :endDate " +
+         "GROUP BY s.sessionDate, a.status, a.checkInMethod, a.isLate")
+  List<Object[]> getDailyAttendanceRollup(@Param("churchId") Long churchId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
+  /**
+   * Count unique present members in a period and in the period before it, in one scan.
+   * Returns a single row: [current period count, previous period count]
+   */
+  @Query("SELECT COUNT(DISTINCT CASE WHEN s.sessionDate >= :startDate THEN a.member.id END), " +
+         "COUNT(DISTINCT CASE WHEN s.sessionDate < :startDate THEN a.member.id END) " +
+         "FROM Attendance a " +
+         "JOIN a.attendanceSession s " +
+         "WHERE s.church.id = :churchId " +
+         "AND s.sessionDate BETWEEN :prevStartDate AND :endDate " +
+         "AND a.status = 'PRESENT'")
+  List<Object[]> countUniqueMembersAttendedWithPrevious(@Param("churchId") Long churchId,
+                                                         @Param("prevStartDate") LocalDate prevStartDate,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+
   /**
    * Count attendance by check-in method
    */
@@ -147,6 +181,51 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
          "ORDER BY COUNT(a) DESC")
   List<Object[]> getMemberPreferredCheckInMethods(@Param("churchId") Long churchId);
 
+  // Member engagement refresh (a chunk of members, indexed by member_id)
+
+  /**
+   * Engagement counters for a set of members, one row per member with attendance:
+   * [memberId, total present, present since30, present since90, late since90, last present date]
+   */
+  @Query("SELECT a.member.id, " +
+         "COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END), " +
+         "COUNT(CASE WHEN a.status = 'PRESENT' AND s.sessionDate BETWEEN :since30 AND :asOf THEN 1 END), " +
+         "COUNT(CASE WHEN a.status = 'PRESENT' AND s.sessionDate BETWEEN :since90 AND :asOf THEN 1 END), " +
+         "COUNT(CASE WHEN a.isLate = true AND s.sessionDate BETWEEN :since90 AND :asOf THEN 1 END), " +
+         "MAX(CASE WHEN a.status = 'PRESENT' THEN s.sessionDate END) " +
+         "FROM Attendance a " +
+         "JOIN a.attendanceSession s " +
+         "WHERE a.member.id IN :memberIds " +
+         "GROUP BY a.member.id")
+  List<Object[]> getEngagementCounters(@Param("memberIds") Collection<Long> memberIds,
+                                       @Param("since30") LocalDate since30,
+                                       @Param("since90") LocalDate since90,
+                                       @Param("asOf") LocalDate asOf);
+
+  /**
+   * Check-in method usage for a set of members: [memberId, method, count],
+   * most used first within each member
+   */
+  @Query("SELECT a.member.id, a.checkInMethod, COUNT(a) FROM Attendance a " +
+         "WHERE a.member.id IN :memberIds " +
+         "AND a.checkInMethod IS NOT NULL " +
+         "GROUP BY a.member.id, a.checkInMethod " +
+         "ORDER BY a.member.id, COUNT(a) DESC")
+  List<Object[]> getCheckInMethodCounts(@Param("memberIds") Collection<Long> memberIds);
+
+  /**
+   * Attendance statuses for a set of members: [memberId, status],
+   * most recent session first within each member (for streaks)
+   */
+  @Query("SELECT a.member.id, a.status FROM Attendance a " +
+         "JOIN a.attendanceSession s " +
+         "WHERE a.member.id IN :memberIds " +
+         "ORDER BY a.member.id, s.sessionDate DESC, s.id DESC")
+  List<Object[]> findStatusHistories(@Param("memberIds") Collection<Long> memberIds);
+
+  @Query("SELECT DISTINCT a.member.id FROM Attendance a WHERE a.attendanceSession.id = :sessionId")
+  List<Long> findMemberIdsBySessionId(@Param("sessionId") Long sessionId);
+
   // Phase 4: Export and Integration Queries
 
   /**
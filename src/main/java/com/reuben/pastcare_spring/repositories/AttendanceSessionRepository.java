@@ -1,6 +1,7 @@
 package com.reuben.pastcare_spring.repositories;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -24,6 +25,19 @@ public interface AttendanceSessionRepository extends JpaRepository<AttendanceSes
   boolean existsByChurch_IdAndSessionDateAndSessionNameAndIsRecurringFalse(
       Long churchId, LocalDate sessionDate, String sessionName);
 
+  /**
+   * [sessionName, sessionDate] of the non-template sessions a church already has for
+   * the given names in a date window; the generator's duplicate check in one query.
+   */
+  @Query("SELECT s.sessionName, s.sessionDate FROM AttendanceSession s " +
+         "WHERE s.church.id = :churchId AND s.isRecurring = false " +
+         "AND s.sessionName IN :sessionNames " +
+         "AND s.sessionDate BETWEEN :startDate AND :endDate")
+  List<Object[]> findSessionKeys(@Param("churchId") Long churchId,
+                                 @Param("sessionNames") Collection<String> sessionNames,
+                                 @Param("startDate") LocalDate startDate,
+                                 @Param("endDate") LocalDate endDate);
+
   // Phase 2: Analytics Queries
 
   /**
@@ -1,13 +1,18 @@
 package com.reuben.pastcare_spring.repositories;
 
+import com.reuben.pastcare_spring.dtos.CampaignProgress;
+import com.reuben.pastcare_spring.dtos.CampaignTotals;
 import com.reuben.pastcare_spring.models.Campaign;
 import com.reuben.pastcare_spring.models.CampaignStatus;
 import com.reuben.pastcare_spring.models.Church;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -102,4 +107,77 @@ public interface CampaignRepository extends JpaRepository<Campaign, Long> {
    * Count campaigns by church ID
    */
   Long countByChurch_Id(Long churchId);
+
+  /**
+   * Campaign totals for the stats endpoint, read from the progress counters
+   */
+  @Query("SELECT new com.reuben.pastcare_spring.dtos.CampaignTotals(" +
+         "COUNT(c), " +
+         "SUM(CASE WHEN c.status = 'ACTIVE' THEN 1L ELSE 0L END), " +
+         "SUM(CASE WHEN c.status = 'COMPLETED' THEN 1L ELSE 0L END), " +
+         "SUM(c.goalAmount), SUM(c.currentAmount), SUM(c.totalPledges), " +
+         "SUM(c.totalDonations), SUM(c.totalPledgesCount), " +
+         "AVG(CASE WHEN c.goalAmount > 0 THEN c.currentAmount * 100.0 / c.goalAmount ELSE 0.0 END)) " +
+         "FROM Campaign c WHERE c.church = :church")
+  CampaignTotals getCampaignTotals(@Param("church") Church church);
+
+  /**
+   * Add to a campaign's progress counters in one statement (negative values subtract).
+   * Native so it touches nothing but the counters and is safe under concurrent updates.
+   */
+  @Modifying
+  @Query(value = "UPDATE campaign SET current_amount = current_amount + :raised, " +
+                 "total_donations = total_donations + :donations, " +
+                 "total_pledges = total_pledges + :pledged, " +
+                 "total_pledges_count = total_pledges_count + :pledges " +
+                 "WHERE id = :id", nativeQuery = true)
+  int addProgress(
+      @Param("id") Long id,
+      @Param("raised") BigDecimal raised,
+      @Param("donations") int donations,
+      @Param("pledged") BigDecimal pledged,
+      @Param("pledges") int pledges
+  );
+
+  /**
+   * Overwrite a campaign's progress counters (reconciliation)
+   */
+  @Modifying
+  @Query(value = "UPDATE campaign SET current_amount = :raised, total_donations = :donations, " +
+                 "total_pledges = :pledged, total_pledges_count = :pledges WHERE id = :id", nativeQuery = true)
+  int setProgress(
+      @Param("id") Long id,
+      @Param("raised") BigDecimal raised,
+      @Param("donations") int donations,
+      @Param("pledged") BigDecimal pledged,
+      @Param("pledges") int pledges
+  );
+
+  /**
+   * Mark an active campaign COMPLETED once its raised amount reaches the goal
+   */
+  @Modifying
+  @Query(value = "UPDATE campaign SET status = 'COMPLETED' " +
+                 "WHERE id = :id AND status = 'ACTIVE' AND current_amount >= goal_amount", nativeQuery = true)
+  int completeIfGoalReached(@Param("id") Long id);
+
+  /**
+   * Lock a campaign row so its counters can be recounted without racing increments
+   */
+  @Query(value = "SELECT id FROM campaign WHERE id = :id FOR UPDATE", nativeQuery = true)
+  Optional<Long> lockForUpdate(@Param("id") Long id);
+
+  /**
+   * Campaign ids after the given id, in id order (reconciliation paging)
+   */
+  @Query("SELECT c.id FROM Campaign c WHERE c.id > :afterId ORDER BY c.id")
+  List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+  /**
+   * Progress counters as stored (bypasses any copy already loaded in the persistence context)
+   */
+  @Query("SELECT new com.reuben.pastcare_spring.dtos.CampaignProgress(" +
+         "c.currentAmount, c.totalDonations, c.totalPledges, c.totalPledgesCount) " +
+         "FROM Campaign c WHERE c.id = :id")
+  Optional<CampaignProgress> findProgress(@Param("id") Long id);
 }
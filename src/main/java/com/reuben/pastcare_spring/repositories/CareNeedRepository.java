@@ -114,21 +114,4 @@ public interface CareNeedRepository extends JpaRepository<CareNeed, Long> {
 
     // Count by church and priority
     Long countByChurchAndPriority(Church church, CareNeedPriority priority);
-
-    // Find members with consecutive absences (for auto-detection)
-    // Only includes members who have been in the system for at least 3 weeks
-    // to avoid flagging newly added members
-    @Query(value = "SELECT DISTINCT m.id FROM member m " +
-        "LEFT JOIN attendance a ON m.id = a.member_id " +
-        "LEFT JOIN attendance_session asession ON a.attendance_session_id = asession.id " +
-        "WHERE m.church_id = :churchId " +
-        "AND m.created_at < :threeWeeksAgo " + // Member must have been added at least 3 weeks ago
-        "AND (asession.session_date IS NULL OR asession.session_date < :threeWeeksAgo) " +
-        "GROUP BY m.id " +
-        "HAVING COUNT(a.id) = 0 OR MAX(asession.session_date) < :threeWeeksAgo",
-        nativeQuery = true)
-    List<Long> findMembersWithConsecutiveAbsences(
-        @Param("churchId") Long churchId,
-        @Param("threeWeeksAgo") LocalDateTime threeWeeksAgo
-    );
 }
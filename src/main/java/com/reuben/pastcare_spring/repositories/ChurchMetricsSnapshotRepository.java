@@ -0,0 +1,36 @@
+package com.reuben.pastcare_spring.repositories;
+
+import com.reuben.pastcare_spring.models.ChurchMetricsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ChurchMetricsSnapshotRepository extends JpaRepository<ChurchMetricsSnapshot, Long> {
+
+    /**
+     * All church rows for one snapshot date.
+     */
+    List<ChurchMetricsSnapshot> findBySnapshotDate(LocalDate snapshotDate);
+
+    /**
+     * One church's history, oldest first.
+     */
+    List<ChurchMetricsSnapshot> findByChurchIdAndSnapshotDateBetweenOrderBySnapshotDateAsc(
+            Long churchId,
+            LocalDate startDate,
+            LocalDate endDate
+    );
+
+    /**
+     * Remove a day's rows before it is re-captured.
+     */
+    @Modifying
+    @Query("DELETE FROM ChurchMetricsSnapshot s WHERE s.snapshotDate = :snapshotDate")
+    int deleteBySnapshotDate(@Param("snapshotDate") LocalDate snapshotDate);
+}
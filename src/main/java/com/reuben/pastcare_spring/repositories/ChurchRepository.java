@@ -1,8 +1,10 @@
 package com.reuben.pastcare_spring.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.reuben.pastcare_spring.models.Church;
 
@@ -22,4 +24,12 @@ public interface ChurchRepository extends JpaRepository<Church, Long> {
    * Find a church by email.
    */
   Optional<Church> findByEmail(String email);
+
+  long countByActiveTrue();
+
+  /**
+   * Logo paths still in use (for the unreferenced image cleanup).
+   */
+  @Query("SELECT DISTINCT c.logoUrl FROM Church c WHERE c.logoUrl IS NOT NULL")
+  List<String> findAllLogoUrls();
 }
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +35,15 @@ public interface ChurchStorageAddonRepository extends JpaRepository<ChurchStorag
      */
     List<ChurchStorageAddon> findByChurchIdAndStatus(Long churchId, String status);
 
+    /**
+     * Find addons with a status for several churches at once
+     *
+     * @param churchIds Church IDs
+     * @param status Status (ACTIVE, CANCELED, SUSPENDED)
+     * @return List of addons with matching status
+     */
+    List<ChurchStorageAddon> findByChurchIdInAndStatus(Collection<Long> churchIds, String status);
+
     /**
      * Find all addons for a church (all statuses)
      *
@@ -1,11 +1,16 @@
 package com.reuben.pastcare_spring.repositories;
 
 import com.reuben.pastcare_spring.models.ChurchSubscription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +45,46 @@ public interface ChurchSubscriptionRepository extends JpaRepository<ChurchSubscr
      */
     List<ChurchSubscription> findByNextBillingDateBeforeAndAutoRenewTrue(LocalDate date);
 
+    /**
+     * IDs of subscriptions due for renewal that no run holds a live lease on and that
+     * have not been attempted today, oldest billing date first.
+     */
+    @Query("SELECT cs.id FROM ChurchSubscription cs WHERE cs.autoRenew = true " +
+           "AND cs.nextBillingDate < :dueBefore " +
+           "AND (cs.renewalLeaseUntil IS NULL OR cs.renewalLeaseUntil < :now) " +
+           "AND (cs.renewalAttemptDate IS NULL OR cs.renewalAttemptDate < :today) " +
+           "ORDER BY cs.nextBillingDate, cs.id")
+    List<Long> findRenewalCandidateIds(@Param("dueBefore") LocalDate dueBefore,
+                                       @Param("today") LocalDate today,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    /**
+     * Take the renewal lease on those candidates that are still due and whose lease is free or
+     * expired. The whole candidate condition is re-checked against the current row, so of two
+     * racing runs only one claims each subscription, and one that another run renewed since
+     * it was selected (billing date moved on, or attempted today) is not claimed again.
+     *
+     * @return Number of subscriptions claimed
+     */
+    @Modifying
+    @Query("UPDATE ChurchSubscription cs SET cs.renewalLeaseOwner = :owner, cs.renewalLeaseUntil = :leaseUntil " +
+           "WHERE cs.id IN :ids AND cs.autoRenew = true " +
+           "AND cs.nextBillingDate < :dueBefore " +
+           "AND (cs.renewalLeaseUntil IS NULL OR cs.renewalLeaseUntil < :now) " +
+           "AND (cs.renewalAttemptDate IS NULL OR cs.renewalAttemptDate < :today)")
+    int claimForRenewal(@Param("ids") Collection<Long> ids,
+                        @Param("owner") String owner,
+                        @Param("leaseUntil") LocalDateTime leaseUntil,
+                        @Param("dueBefore") LocalDate dueBefore,
+                        @Param("today") LocalDate today,
+                        @Param("now") LocalDateTime now);
+
+    /**
+     * Subscriptions among the given IDs whose renewal lease is held by owner.
+     */
+    List<ChurchSubscription> findByIdInAndRenewalLeaseOwner(Collection<Long> ids, String owner);
+
     /**
      * Find all past due subscriptions.
      */
@@ -4,6 +4,8 @@ import com.reuben.pastcare_spring.models.Crisis;
 import com.reuben.pastcare_spring.models.CrisisAffectedMember;
 import com.reuben.pastcare_spring.models.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -26,4 +28,8 @@ public interface CrisisAffectedMemberRepository extends JpaRepository<CrisisAffe
 
     // Count by crisis
     Long countByCrisis(Crisis crisis);
+
+    // IDs of members already linked to a crisis (skips orphaned rows)
+    @Query("SELECT cam.member.id FROM CrisisAffectedMember cam WHERE cam.crisis = :crisis AND cam.member IS NOT NULL")
+    List<Long> findMemberIdsByCrisis(@Param("crisis") Crisis crisis);
 }
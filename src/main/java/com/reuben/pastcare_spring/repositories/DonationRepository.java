@@ -1,5 +1,8 @@
 package com.reuben.pastcare_spring.repositories;
 
+import com.reuben.pastcare_spring.dtos.DailyGivingTotal;
+import com.reuben.pastcare_spring.dtos.DonationSummaryStats;
+import com.reuben.pastcare_spring.dtos.GivingTypeTotal;
 import com.reuben.pastcare_spring.models.Campaign;
 import com.reuben.pastcare_spring.models.Church;
 import com.reuben.pastcare_spring.models.Donation;
@@ -117,6 +120,55 @@ public interface DonationRepository extends JpaRepository<Donation, Long> {
       @Param("endDate") LocalDate endDate
   );
 
+  /**
+   * Summary aggregates for all of a church's donations, in one pass over the table
+   */
+  @Query("SELECT new com.reuben.pastcare_spring.dtos.DonationSummaryStats(" +
+         "SUM(d.amount), COUNT(d), MAX(d.amount), MIN(d.amount), COUNT(DISTINCT d.member.id), " +
+         "SUM(CASE WHEN d.isAnonymous = true THEN 1 ELSE 0 END)) " +
+         "FROM Donation d WHERE d.church.id = :churchId")
+  DonationSummaryStats getSummaryStats(@Param("churchId") Long churchId);
+
+  /**
+   * Summary aggregates for a church's donations in a date range (idx_donation_church_date)
+   */
+  @Query("SELECT new com.reuben.pastcare_spring.dtos.DonationSummaryStats(" +
+         "SUM(d.amount), COUNT(d), MAX(d.amount), MIN(d.amount), COUNT(DISTINCT d.member.id), " +
+         "SUM(CASE WHEN d.isAnonymous = true THEN 1 ELSE 0 END)) " +
+         "FROM Donation d WHERE d.church.id = :churchId AND d.donationDate BETWEEN :startDate AND :endDate")
+  DonationSummaryStats getSummaryStatsByDateRange(
+      @Param("churchId") Long churchId,
+      @Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate
+  );
+
+  /**
+   * Giving per day and donation type in a date range; one row per day and type with giving,
+   * however many donations there are
+   */
+  @Query("SELECT new com.reuben.pastcare_spring.dtos.DailyGivingTotal(" +
+         "d.donationDate, d.donationType, SUM(d.amount), COUNT(d)) " +
+         "FROM Donation d WHERE d.church.id = :churchId AND d.donationDate BETWEEN :startDate AND :endDate " +
+         "GROUP BY d.donationDate, d.donationType " +
+         "ORDER BY d.donationDate, d.donationType")
+  List<DailyGivingTotal> getDailyTotalsByType(
+      @Param("churchId") Long churchId,
+      @Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate
+  );
+
+  /**
+   * Giving per donation type in a date range, largest first
+   */
+  @Query("SELECT new com.reuben.pastcare_spring.dtos.GivingTypeTotal(d.donationType, SUM(d.amount), COUNT(d)) " +
+         "FROM Donation d WHERE d.church.id = :churchId AND d.donationDate BETWEEN :startDate AND :endDate " +
+         "GROUP BY d.donationType ORDER BY SUM(d.amount) DESC")
+  List<GivingTypeTotal> getTotalsByType(
+      @Param("churchId") Long churchId,
+      @Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate
+  );
+
   /**
    * Get top donors (members with highest total donations)
    */
@@ -130,7 +182,7 @@ public interface DonationRepository extends JpaRepository<Donation, Long> {
    */
   @Query("SELECT d.donationType, SUM(d.amount), COUNT(d) FROM Donation d " +
          "WHERE d.church = :church " +
-         "GROUP BY d.donationType ORDER BY SUM(d.amount) DESC")
+         "GROUP BY d.donationType ORDER BY SUM(d.amount) DESC, d.donationType")
   List<Object[]> getDonationsByTypeBreakdown(@Param("church") Church church);
 
   /**
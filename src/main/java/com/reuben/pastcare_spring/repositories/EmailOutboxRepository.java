@@ -0,0 +1,49 @@
+package com.reuben.pastcare_spring.repositories;
+
+import com.reuben.pastcare_spring.models.EmailOutboxMessage;
+import com.reuben.pastcare_spring.models.EmailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // IDs of pending messages that are due, oldest due first (idx_email_outbox_ready)
+    @Query("SELECT m.id FROM EmailOutboxMessage m " +
+           "WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now " +
+           "ORDER BY m.nextAttemptAt, m.id")
+    List<Long> findReadyIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claim ready messages for a worker: nextAttemptAt becomes the lease expiry. The due
+    // condition is re-checked against the current row, so of two racing workers only one wins each message.
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.claimedBy = :owner, m.nextAttemptAt = :leaseUntil " +
+           "WHERE m.id IN :ids AND m.status = 'PENDING' AND m.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("now") LocalDateTime now);
+
+    List<EmailOutboxMessage> findByIdInAndClaimedBy(Collection<Long> ids, String claimedBy);
+
+    // Record a page of deliveries in one statement; messages whose claim lapsed meanwhile are left alone
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = 'SENT', m.sentAt = :now, m.attempts = m.attempts + 1, " +
+           "m.claimedBy = NULL, m.lastError = NULL " +
+           "WHERE m.id IN :ids AND m.claimedBy = :owner")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = 'SENT' AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+
+    long countByStatus(EmailOutboxStatus status);
+}
@@ -52,4 +52,10 @@ public interface EventImageRepository extends JpaRepository<EventImage, Long> {
      */
     @Query("SELECT ei FROM EventImage ei WHERE ei.event.id IN :eventIds ORDER BY ei.event.id, ei.displayOrder")
     List<EventImage> findByEventIdIn(@Param("eventIds") List<Long> eventIds);
+
+    /**
+     * Image paths still in use (for the unreferenced image cleanup).
+     */
+    @Query("SELECT DISTINCT ei.imageUrl FROM EventImage ei WHERE ei.imageUrl IS NOT NULL")
+    List<String> findAllImageUrls();
 }
@@ -0,0 +1,20 @@
+package com.reuben.pastcare_spring.repositories;
+
+import com.reuben.pastcare_spring.models.EventOccurrenceException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for per-occurrence exceptions of recurring events.
+ */
+@Repository
+public interface EventOccurrenceExceptionRepository extends JpaRepository<EventOccurrenceException, Long> {
+
+    List<EventOccurrenceException> findByEventId(Long eventId);
+
+    Optional<EventOccurrenceException> findByEventIdAndOccurrenceStart(Long eventId, LocalDateTime occurrenceStart);
+}
@@ -6,11 +6,13 @@ import com.reuben.pastcare_spring.models.RegistrationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,6 +61,16 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
         @Param("status") RegistrationStatus status
     );
 
+    // Seat holders for ticket printing (member fetched to avoid a query per badge)
+    @Query("SELECT r FROM EventRegistration r LEFT JOIN FETCH r.member " +
+           "WHERE r.event.id = :eventId " +
+           "AND r.status = 'APPROVED' " +
+           "AND r.isOnWaitlist = false " +
+           "AND r.isCancelled = false " +
+           "AND r.deletedAt IS NULL " +
+           "ORDER BY r.registrationDate ASC")
+    List<EventRegistration> findTicketHolders(@Param("eventId") Long eventId);
+
     // Pending approvals
     @Query("SELECT r FROM EventRegistration r WHERE r.church.id = :churchId " +
            "AND r.status = 'PENDING' " +
@@ -93,6 +105,38 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
            "AND r.deletedAt IS NULL")
     long countWaitlist(@Param("eventId") Long eventId);
 
+    @Query("SELECT r.id FROM EventRegistration r WHERE r.event.id = :eventId " +
+           "AND r.isOnWaitlist = true " +
+           "AND r.isCancelled = false " +
+           "AND r.deletedAt IS NULL " +
+           "ORDER BY r.waitlistPosition ASC")
+    List<Long> findWaitlistHeadIds(@Param("eventId") Long eventId, Pageable pageable);
+
+    // Rank of a waitlist position (positions are a sequence with gaps, not 1..n)
+    @Query("SELECT COUNT(r) FROM EventRegistration r WHERE r.event.id = :eventId " +
+           "AND r.isOnWaitlist = true " +
+           "AND r.deletedAt IS NULL " +
+           "AND r.waitlistPosition < :position")
+    long countWaitlistAhead(@Param("eventId") Long eventId, @Param("position") Integer position);
+
+    /**
+     * Move a registration off the waitlist, only if it is still waiting.
+     *
+     * @return 1 if this caller promoted it, 0 if someone else got there first
+     */
+    @Modifying
+    @Query("UPDATE EventRegistration r SET r.isOnWaitlist = false, r.waitlistPosition = null, " +
+           "r.promotedFromWaitlistAt = :now, r.updatedAt = :now " +
+           "WHERE r.id = :id AND r.isOnWaitlist = true AND r.isCancelled = false")
+    int claimFromWaitlist(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Flag registrations as reminded in one statement.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EventRegistration r SET r.reminderSent = true, r.updatedAt = :now WHERE r.id IN :ids")
+    int markRemindersSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
     // Member's registrations
     @Query("SELECT r FROM EventRegistration r WHERE r.member.id = :memberId " +
            "AND r.deletedAt IS NULL " +
@@ -1,18 +1,26 @@
 package com.reuben.pastcare_spring.repositories;
 
+import com.reuben.pastcare_spring.dtos.CalendarFeedVersion;
 import com.reuben.pastcare_spring.models.Event;
 import com.reuben.pastcare_spring.models.EventType;
 import com.reuben.pastcare_spring.models.EventVisibility;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Event entity.
@@ -28,25 +36,17 @@ public interface EventRepository extends JpaRepository<Event, Long> {
 
     List<Event> findByChurchIdAndDeletedAtIsNull(Long churchId);
 
-    // Upcoming events
+    // Upcoming single events and materialized occurrences (series are expanded by EventOccurrenceService)
     @Query("SELECT e FROM Event e WHERE e.church.id = :churchId " +
            "AND e.deletedAt IS NULL " +
            "AND e.isCancelled = false " +
-           "AND e.startDate > :now " +
+           "AND (e.isRecurring = false OR e.recurrencePattern IS NULL) " +
+           "AND e.startDate > :now AND e.startDate < :to " +
            "ORDER BY e.startDate ASC")
-    List<Event> findUpcomingEvents(
-        @Param("churchId") Long churchId,
-        @Param("now") LocalDateTime now
-    );
-
-    @Query("SELECT e FROM Event e WHERE e.church.id = :churchId " +
-           "AND e.deletedAt IS NULL " +
-           "AND e.isCancelled = false " +
-           "AND e.startDate > :now " +
-           "ORDER BY e.startDate ASC")
-    Page<Event> findUpcomingEvents(
+    List<Event> findUpcomingSingleEvents(
         @Param("churchId") Long churchId,
         @Param("now") LocalDateTime now,
+        @Param("to") LocalDateTime to,
         Pageable pageable
     );
 
@@ -181,19 +181,6 @@ public interface EventRepository extends JpaRepository<Event, Long> {
         Pageable pageable
     );
 
-    // Events needing reminders
-    @Query("SELECT e FROM Event e WHERE e.church.id = :churchId " +
-           "AND e.deletedAt IS NULL " +
-           "AND e.isCancelled = false " +
-           "AND e.reminderSent = false " +
-           "AND e.startDate > :now " +
-           "AND e.startDate <= :reminderThreshold")
-    List<Event> findEventsNeedingReminders(
-        @Param("churchId") Long churchId,
-        @Param("now") LocalDateTime now,
-        @Param("reminderThreshold") LocalDateTime reminderThreshold
-    );
-
     // Statistics queries
     @Query("SELECT COUNT(e) FROM Event e WHERE e.church.id = :churchId " +
            "AND e.deletedAt IS NULL")
@@ -202,10 +189,12 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT COUNT(e) FROM Event e WHERE e.church.id = :churchId " +
            "AND e.deletedAt IS NULL " +
            "AND e.isCancelled = false " +
-           "AND e.startDate > :now")
-    long countUpcomingEvents(
+           "AND (e.isRecurring = false OR e.recurrencePattern IS NULL) " +
+           "AND e.startDate > :now AND e.startDate < :to")
+    long countUpcomingSingleEvents(
         @Param("churchId") Long churchId,
-        @Param("now") LocalDateTime now
+        @Param("now") LocalDateTime now,
+        @Param("to") LocalDateTime to
     );
 
     @Query("SELECT COUNT(e) FROM Event e WHERE e.church.id = :churchId " +
@@ -254,4 +243,133 @@ public interface EventRepository extends JpaRepository<Event, Long> {
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
+
+    // Capacity engine: conditional updates make the row itself the fence, so concurrent
+    // registrations (across threads and instances) can never push past max_capacity.
+
+    /**
+     * Take one seat if the event still has room.
+     *
+     * @return 1 if a seat was reserved, 0 if the event is full
+     */
+    @Modifying
+    @Query(value = "UPDATE events SET current_registrations = current_registrations + 1 " +
+                   "WHERE id = :eventId " +
+                   "AND (max_capacity IS NULL OR current_registrations < max_capacity)",
+           nativeQuery = true)
+    int tryReserveSeat(@Param("eventId") Long eventId);
+
+    /**
+     * Give back one seat (never drops below zero).
+     */
+    @Modifying
+    @Query(value = "UPDATE events SET current_registrations = current_registrations - 1 " +
+                   "WHERE id = :eventId AND current_registrations > 0",
+           nativeQuery = true)
+    int releaseSeat(@Param("eventId") Long eventId);
+
+    /**
+     * Advance the waitlist sequence. The row lock taken here is held until commit,
+     * so the value read back by {@link #getWaitlistSequence} is unique to the caller.
+     */
+    @Modifying
+    @Query(value = "UPDATE events SET waitlist_sequence = waitlist_sequence + 1 WHERE id = :eventId",
+           nativeQuery = true)
+    int advanceWaitlistSequence(@Param("eventId") Long eventId);
+
+    @Query(value = "SELECT waitlist_sequence FROM events WHERE id = :eventId", nativeQuery = true)
+    int getWaitlistSequence(@Param("eventId") Long eventId);
+
+    @Query(value = "SELECT current_registrations FROM events WHERE id = :eventId", nativeQuery = true)
+    int getCurrentRegistrations(@Param("eventId") Long eventId);
+
+    // Calendar feeds
+
+    @Query("SELECT new com.reuben.pastcare_spring.dtos.CalendarFeedVersion(" +
+           "COUNT(e), MAX(e.updatedAt), MAX(e.deletedAt)) " +
+           "FROM Event e WHERE e.church.id = :churchId")
+    CalendarFeedVersion getCalendarFeedVersion(@Param("churchId") Long churchId);
+
+    /**
+     * Events for an iCal feed, optionally limited to a date window and to public events.
+     * Streamed so large calendars are written out without materializing the full list.
+     * Recurring (series) events are excluded; their occurrences are expanded separately.
+     */
+    @Query("SELECT e FROM Event e JOIN FETCH e.church WHERE e.church.id = :churchId " +
+           "AND e.deletedAt IS NULL " +
+           "AND (e.isRecurring = false OR e.recurrencePattern IS NULL) " +
+           "AND (:from IS NULL OR e.endDate >= :from) " +
+           "AND (:to IS NULL OR e.startDate < :to) " +
+           "AND (:publicOnly = false OR e.visibility = com.reuben.pastcare_spring.models.EventVisibility.PUBLIC) " +
+           "ORDER BY e.startDate ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Event> streamForCalendarFeed(
+        @Param("churchId") Long churchId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("publicOnly") boolean publicOnly
+    );
+
+    // Recurring event occurrences
+
+    /**
+     * Recurring (series) events whose rule can produce an occurrence in a window.
+     */
+    @Query("SELECT e FROM Event e JOIN FETCH e.church WHERE e.church.id = :churchId " +
+           "AND e.deletedAt IS NULL " +
+           "AND e.isRecurring = true AND e.recurrencePattern IS NOT NULL " +
+           "AND e.startDate < :to " +
+           "AND (e.recurrenceEndDate IS NULL OR e.recurrenceEndDate >= :fromDate) " +
+           "AND (:publicOnly = false OR e.visibility = com.reuben.pastcare_spring.models.EventVisibility.PUBLIC) " +
+           "AND (:searchTerm IS NULL OR LOWER(e.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "OR LOWER(e.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    List<Event> findSeriesInWindow(
+        @Param("churchId") Long churchId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("to") LocalDateTime to,
+        @Param("publicOnly") boolean publicOnly,
+        @Param("searchTerm") String searchTerm
+    );
+
+    /**
+     * Single events and materialized occurrences overlapping a window.
+     */
+    @Query("SELECT e FROM Event e WHERE e.church.id = :churchId " +
+           "AND e.deletedAt IS NULL " +
+           "AND (e.isRecurring = false OR e.recurrencePattern IS NULL) " +
+           "AND e.endDate >= :from AND e.startDate < :to " +
+           "AND (:publicOnly = false OR e.visibility = com.reuben.pastcare_spring.models.EventVisibility.PUBLIC) " +
+           "AND (:searchTerm IS NULL OR LOWER(e.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "OR LOWER(e.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+           "ORDER BY e.startDate ASC")
+    List<Event> findSingleEventsInWindow(
+        @Param("churchId") Long churchId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("publicOnly") boolean publicOnly,
+        @Param("searchTerm") String searchTerm
+    );
+
+    /**
+     * Occurrences of the given series that have a child row, deleted ones included
+     * (a deleted child removes its occurrence from the series).
+     *
+     * @return [parentEventId, occurrenceStart]
+     */
+    @Query("SELECT e.parentEvent.id, e.occurrenceStart FROM Event e " +
+           "WHERE e.parentEvent.id IN :seriesIds " +
+           "AND e.occurrenceStart >= :from AND e.occurrenceStart <= :to")
+    List<Object[]> findMaterializedOccurrences(
+        @Param("seriesIds") Collection<Long> seriesIds,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    Optional<Event> findByParentEventIdAndOccurrenceStart(Long parentEventId, LocalDateTime occurrenceStart);
+
+    /**
+     * Image paths still in use (for the unreferenced image cleanup).
+     */
+    @Query("SELECT DISTINCT e.imageUrl FROM Event e WHERE e.imageUrl IS NOT NULL")
+    List<String> findAllImageUrls();
 }
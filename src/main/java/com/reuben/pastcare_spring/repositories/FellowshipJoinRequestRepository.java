@@ -3,8 +3,11 @@ package com.reuben.pastcare_spring.repositories;
 import com.reuben.pastcare_spring.models.FellowshipJoinRequest;
 import com.reuben.pastcare_spring.models.FellowshipJoinRequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +19,25 @@ public interface FellowshipJoinRequestRepository extends JpaRepository<Fellowshi
    */
   List<FellowshipJoinRequest> findByFellowshipId(Long fellowshipId);
 
+  /**
+   * Join request aggregates for every fellowship in a church, in one grouped scan.
+   * Rows: [fellowshipId, total, approved, pending, approvedSince30, approvedSince90, requestedSince30]
+   */
+  @Query("SELECT r.fellowship.id, COUNT(r), " +
+         "SUM(CASE WHEN r.status = com.reuben.pastcare_spring.models.FellowshipJoinRequestStatus.APPROVED THEN 1 ELSE 0 END), " +
+         "SUM(CASE WHEN r.status = com.reuben.pastcare_spring.models.FellowshipJoinRequestStatus.PENDING THEN 1 ELSE 0 END), " +
+         "SUM(CASE WHEN r.status = com.reuben.pastcare_spring.models.FellowshipJoinRequestStatus.APPROVED " +
+         "  AND r.reviewedAt > :since30 THEN 1 ELSE 0 END), " +
+         "SUM(CASE WHEN r.status = com.reuben.pastcare_spring.models.FellowshipJoinRequestStatus.APPROVED " +
+         "  AND r.reviewedAt > :since90 THEN 1 ELSE 0 END), " +
+         "SUM(CASE WHEN r.requestedAt > :since30 THEN 1 ELSE 0 END) " +
+         "FROM FellowshipJoinRequest r " +
+         "WHERE r.fellowship.church.id = :churchId " +
+         "GROUP BY r.fellowship.id")
+  List<Object[]> getJoinRequestStats(@Param("churchId") Long churchId,
+                                     @Param("since30") LocalDateTime since30,
+                                     @Param("since90") LocalDateTime since90);
+
   /**
    * Find all join requests by a specific member
    */
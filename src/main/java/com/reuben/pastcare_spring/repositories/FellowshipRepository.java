@@ -1,6 +1,13 @@
 package com.reuben.pastcare_spring.repositories;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.reuben.pastcare_spring.models.Church;
 import com.reuben.pastcare_spring.models.Fellowship;
@@ -9,4 +16,49 @@ public interface FellowshipRepository extends JpaRepository<Fellowship, Long> {
     java.util.List<Fellowship> findByChurch_Id(Long churchId);
 
     Long countByChurch(Church church);
+
+    /**
+     * Membership aggregates for every fellowship in a church, in one grouped scan.
+     * Rows: [id, name, fellowshipType, maxCapacity, memberCount, membersCreatedSince30, membersCreatedSince90]
+     */
+    @Query("SELECT f.id, f.name, f.fellowshipType, f.maxCapacity, COUNT(m), " +
+           "SUM(CASE WHEN m.createdAt > :since30 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.createdAt > :since90 THEN 1 ELSE 0 END) " +
+           "FROM Fellowship f LEFT JOIN f.members m " +
+           "WHERE f.church.id = :churchId " +
+           "GROUP BY f.id, f.name, f.fellowshipType, f.maxCapacity " +
+           "ORDER BY f.id")
+    List<Object[]> getMembershipStats(@Param("churchId") Long churchId,
+                                      @Param("since30") Instant since30,
+                                      @Param("since90") Instant since90);
+
+    /**
+     * Link members of the given church to a fellowship in one statement, skipping existing links.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO member_fellowships (member_id, fellowship_id) " +
+                   "SELECT m.id, :fellowshipId FROM member m " +
+                   "WHERE m.id IN (:memberIds) AND m.church_id = :churchId " +
+                   "AND NOT EXISTS (SELECT 1 FROM member_fellowships mf " +
+                   "  WHERE mf.member_id = m.id AND mf.fellowship_id = :fellowshipId)",
+           nativeQuery = true)
+    int addMembers(@Param("fellowshipId") Long fellowshipId,
+                   @Param("churchId") Long churchId,
+                   @Param("memberIds") Collection<Long> memberIds);
+
+    /**
+     * Unlink members from a fellowship in one statement.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM member_fellowships " +
+                   "WHERE fellowship_id = :fellowshipId AND member_id IN (:memberIds)",
+           nativeQuery = true)
+    int removeMembers(@Param("fellowshipId") Long fellowshipId,
+                      @Param("memberIds") Collection<Long> memberIds);
+
+    /**
+     * Image paths still in use (for the unreferenced image cleanup).
+     */
+    @Query("SELECT DISTINCT f.imageUrl FROM Fellowship f WHERE f.imageUrl IS NOT NULL")
+    List<String> findAllImageUrls();
 }
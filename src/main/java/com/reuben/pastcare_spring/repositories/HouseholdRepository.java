@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -78,4 +79,10 @@ public interface HouseholdRepository extends JpaRepository<Household, Long> {
      * Delete household by ID and church (for tenant isolation)
      */
     void deleteByIdAndChurch(Long id, Church church);
+
+    /**
+     * Image paths still in use (for the unreferenced image cleanup).
+     */
+    @Query("SELECT DISTINCT h.householdImageUrl FROM Household h WHERE h.householdImageUrl IS NOT NULL")
+    List<String> findAllImageUrls();
 }
@@ -0,0 +1,131 @@
+package com.reuben.pastcare_spring.repositories;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based statements behind MemberService bulk update/delete.
+ *
+ * Each statement takes a chunk of member IDs the caller has already checked belong to
+ * the church, and touches every row in one round trip. Native statements bypass the
+ * persistence context and the tenant filter.
+ */
+@org.springframework.stereotype.Repository
+public interface MemberBulkRepository extends Repository<Member, Long> {
+
+  /**
+   * [id, church_id, first_name, last_name] for the given IDs (unfiltered, to tell
+   * "not found" from "belongs to another church").
+   */
+  @Query(value = "SELECT m.id, m.church_id, m.first_name, m.last_name FROM member m WHERE m.id IN (:ids)",
+         nativeQuery = true)
+  List<Object[]> findBulkTargets(@Param("ids") Collection<Long> ids);
+
+  // Scalar fields
+
+  @Modifying
+  @Query("UPDATE Member m SET m.updatedAt = :now WHERE m.id IN :ids")
+  int touch(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+  @Modifying
+  @Query("UPDATE Member m SET m.status = :status WHERE m.id IN :ids")
+  int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") MemberStatus status);
+
+  @Modifying
+  @Query("UPDATE Member m SET m.isVerified = :verified WHERE m.id IN :ids")
+  int updateVerified(@Param("ids") Collection<Long> ids, @Param("verified") Boolean verified);
+
+  @Modifying
+  @Query("UPDATE Member m SET m.maritalStatus = :maritalStatus WHERE m.id IN :ids")
+  int updateMaritalStatus(@Param("ids") Collection<Long> ids, @Param("maritalStatus") String maritalStatus);
+
+  /**
+   * Recompute profile_completeness in SQL; mirrors MemberService.calculateProfileCompleteness
+   * (15 fields, percentage rounded half up).
+   */
+  @Modifying
+  @Query(value = "UPDATE member m SET profile_completeness = ROUND((" +
+                 "(CASE WHEN m.first_name IS NOT NULL AND m.first_name <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.last_name IS NOT NULL AND m.last_name <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.phone_number IS NOT NULL AND m.phone_number <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.sex IS NOT NULL AND m.sex <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.marital_status IS NOT NULL AND m.marital_status <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.other_name IS NOT NULL AND m.other_name <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.dob IS NOT NULL THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.location_id IS NOT NULL THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.profile_image_url IS NOT NULL AND m.profile_image_url <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.occupation IS NOT NULL AND m.occupation <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.whatsapp_number IS NOT NULL AND m.whatsapp_number <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.member_since IS NOT NULL THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.emergency_contact_name IS NOT NULL AND m.emergency_contact_name <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN m.emergency_contact_number IS NOT NULL AND m.emergency_contact_number <> '' THEN 1 ELSE 0 END) + " +
+                 "(CASE WHEN EXISTS (SELECT 1 FROM member_fellowships mf WHERE mf.member_id = m.id) THEN 1 ELSE 0 END)" +
+                 ") * 100.0 / 15) " +
+                 "WHERE m.id IN (:ids)",
+         nativeQuery = true)
+  int recalculateProfileCompleteness(@Param("ids") Collection<Long> ids);
+
+  // Tags (member_tags)
+
+  @Modifying
+  @Query(value = "INSERT INTO member_tags (member_id, tag) " +
+                 "SELECT m.id, :tag FROM member m " +
+                 "WHERE m.id IN (:ids) " +
+                 "AND NOT EXISTS (SELECT 1 FROM member_tags t WHERE t.member_id = m.id AND t.tag = :tag)",
+         nativeQuery = true)
+  int addTag(@Param("ids") Collection<Long> ids, @Param("tag") String tag);
+
+  @Modifying
+  @Query(value = "DELETE FROM member_tags WHERE member_id IN (:ids) AND tag IN (:tags)", nativeQuery = true)
+  int removeTags(@Param("ids") Collection<Long> ids, @Param("tags") Collection<String> tags);
+
+  @Modifying
+  @Query(value = "DELETE FROM member_tags WHERE member_id IN (:ids)", nativeQuery = true)
+  int clearTags(@Param("ids") Collection<Long> ids);
+
+  // Fellowships (member_fellowships); adding goes through FellowshipRepository.addMembers
+
+  @Modifying
+  @Query(value = "DELETE FROM member_fellowships WHERE member_id IN (:ids) AND fellowship_id IN (:fellowshipIds)",
+         nativeQuery = true)
+  int removeFellowships(@Param("ids") Collection<Long> ids, @Param("fellowshipIds") Collection<Long> fellowshipIds);
+
+  @Modifying
+  @Query(value = "DELETE FROM member_fellowships WHERE member_id IN (:ids)", nativeQuery = true)
+  int clearFellowships(@Param("ids") Collection<Long> ids);
+
+  // Delete: dependents first, then the members
+
+  @Modifying
+  @Query(value = "DELETE FROM member_parents WHERE child_id IN (:ids) OR parent_id IN (:ids)", nativeQuery = true)
+  int deleteParentLinks(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query(value = "UPDATE member SET spouse_id = NULL WHERE spouse_id IN (:ids)", nativeQuery = true)
+  int clearSpouseLinks(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query(value = "UPDATE households SET household_head_id = NULL WHERE household_head_id IN (:ids)", nativeQuery = true)
+  int clearHouseholdHeads(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query(value = "DELETE FROM member_engagement WHERE member_id IN (:ids)", nativeQuery = true)
+  int deleteEngagement(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query(value = "DELETE FROM member_risk WHERE member_id IN (:ids)", nativeQuery = true)
+  int deleteRisk(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query(value = "DELETE FROM member WHERE id IN (:ids)", nativeQuery = true)
+  int deleteMembers(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,90 @@
+package com.reuben.pastcare_spring.repositories;
+
+import com.reuben.pastcare_spring.dtos.IrregularAttenderResponse;
+import com.reuben.pastcare_spring.models.MemberEngagement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MemberEngagementRepository extends JpaRepository<MemberEngagement, Long> {
+
+    Optional<MemberEngagement> findByMemberId(Long memberId);
+
+    List<MemberEngagement> findByMemberIdIn(Collection<Long> memberIds);
+
+    /**
+     * Most active members over the last 90 days (idx_member_engagement_top)
+     */
+    @Query("SELECT e FROM MemberEngagement e JOIN FETCH e.member " +
+           "WHERE e.church.id = :churchId " +
+           "AND e.attendedLast90Days > 0 " +
+           "ORDER BY e.attendedLast90Days DESC, e.lastAttendedDate DESC")
+    List<MemberEngagement> findTopActive(@Param("churchId") Long churchId, Pageable pageable);
+
+    /**
+     * Members who haven't attended since the cutoff (or never), longest absent first.
+     * Members created after memberCreatedBefore are excluded as too new to judge.
+     */
+    @Query(value = "SELECT m.id as memberId, m.first_name as firstName, m.last_name as lastName, " +
+                   "m.phone_number as phoneNumber, " +
+                   "e.last_attended_date as lastAttendanceDate, " +
+                   "TIMESTAMPDIFF(WEEK, e.last_attended_date, CURDATE()) as weeksAbsent " +
+                   "FROM member m " +
+                   "LEFT JOIN member_engagement e ON e.member_id = m.id " +
+                   "WHERE m.church_id = :churchId " +
+                   "AND m.created_at <= :memberCreatedBefore " +
+                   "AND (e.last_attended_date IS NULL OR e.last_attended_date <= :cutoff) " +
+                   "ORDER BY CASE WHEN e.last_attended_date IS NULL THEN 1 ELSE 0 END, e.last_attended_date ASC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<IrregularAttenderResponse> findIrregularAttenders(
+        @Param("churchId") Long churchId,
+        @Param("cutoff") LocalDate cutoff,
+        @Param("memberCreatedBefore") Instant memberCreatedBefore,
+        @Param("limit") int limit);
+
+    /**
+     * Members with attendance in a church but no engagement row yet (backfill)
+     */
+    @Query("SELECT DISTINCT a.member.id FROM Attendance a " +
+           "WHERE a.attendanceSession.church.id = :churchId " +
+           "AND NOT EXISTS (SELECT 1 FROM MemberEngagement e WHERE e.member.id = a.member.id)")
+    List<Long> findMemberIdsMissingEngagement(@Param("churchId") Long churchId);
+
+    /**
+     * Roll the 30/90 day counters forward to a new day for a whole church in one statement.
+     * Only the windows move with time; totals, streaks and last date change on attendance writes.
+     */
+    @Modifying
+    @Query(value = "UPDATE member_engagement e SET " +
+                   "attended_30d = (SELECT COUNT(*) FROM attendance a " +
+                   "  JOIN attendance_session s ON s.id = a.attendance_session_id " +
+                   "  WHERE a.member_id = e.member_id AND a.status = 'PRESENT' " +
+                   "  AND s.session_date BETWEEN :since30 AND :asOf), " +
+                   "attended_90d = (SELECT COUNT(*) FROM attendance a " +
+                   "  JOIN attendance_session s ON s.id = a.attendance_session_id " +
+                   "  WHERE a.member_id = e.member_id AND a.status = 'PRESENT' " +
+                   "  AND s.session_date BETWEEN :since90 AND :asOf), " +
+                   "late_90d = (SELECT COUNT(*) FROM attendance a " +
+                   "  JOIN attendance_session s ON s.id = a.attendance_session_id " +
+                   "  WHERE a.member_id = e.member_id AND a.is_late = TRUE " +
+                   "  AND s.session_date BETWEEN :since90 AND :asOf), " +
+                   "windows_as_of = :asOf " +
+                   "WHERE e.church_id = :churchId " +
+                   "AND e.windows_as_of < :asOf",
+           nativeQuery = true)
+    int rollWindows(@Param("churchId") Long churchId,
+                    @Param("since30") LocalDate since30,
+                    @Param("since90") LocalDate since90,
+                    @Param("asOf") LocalDate asOf);
+}
@@ -13,6 +13,7 @@ import com.reuben.pastcare_spring.models.Member;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -64,6 +65,18 @@ public interface MemberRepository extends JpaRepository<Member, Long>, JpaSpecif
   @Query("SELECT COUNT(m) FROM Member m WHERE m.church.id = :churchId")
   long countByChurchId(@Param("churchId") Long churchId);
 
+  /**
+   * How many of the given IDs are members of the church.
+   */
+  long countByChurch_IdAndIdIn(Long churchId, Collection<Long> ids);
+
+  /**
+   * Member counts for every church in one grouped query (platform metrics).
+   * Rows: [churchId, count]
+   */
+  @Query("SELECT m.church.id, COUNT(m) FROM Member m GROUP BY m.church.id")
+  java.util.List<Object[]> countGroupedByChurch();
+
   long countByChurchAndIsVerified(Church church, Boolean isVerified);
 
   long countByChurchAndMemberSinceAfter(Church church, YearMonth startDate);
@@ -121,6 +134,13 @@ public interface MemberRepository extends JpaRepository<Member, Long>, JpaSpecif
   @Query("SELECT m FROM Member m WHERE m.church.id = :churchId")
   java.util.List<Member> findByChurchId(@Param("churchId") Long churchId);
 
+  /**
+   * Members by ID with their tags loaded, so they can be mapped to responses
+   * after the transaction that read them has ended.
+   */
+  @Query("SELECT DISTINCT m FROM Member m LEFT JOIN FETCH m.tags WHERE m.id IN :ids")
+  java.util.List<Member> findAllWithTagsByIdIn(@Param("ids") Collection<Long> ids);
+
   // Dashboard Phase 1: Enhanced Widgets
 
   /**
@@ -158,28 +178,6 @@ public interface MemberRepository extends JpaRepository<Member, Long>, JpaSpecif
          nativeQuery = true)
   java.util.List<com.reuben.pastcare_spring.dtos.AnniversaryResponse> findMembersWithAnniversariesThisMonth(@Param("church") Church church);
 
-  /**
-   * Find irregular attenders (members who haven't attended in N weeks).
-   * Uses attendance data to identify members absent for threshold weeks.
-   * Excludes members who were recently added (created within threshold period).
-   */
-  @Query(value = "SELECT m.id as memberId, m.first_name as firstName, m.last_name as lastName, " +
-                 "m.phone_number as phoneNumber, " +
-                 "MAX(a.created_at) as lastAttendanceDate, " +
-                 "TIMESTAMPDIFF(WEEK, MAX(a.created_at), CURDATE()) as weeksAbsent " +
-                 "FROM member m " +
-                 "LEFT JOIN attendance a ON m.id = a.member_id " +
-                 "WHERE m.church_id = :#{#church.id} " +
-                 "AND TIMESTAMPDIFF(WEEK, m.created_at, CURDATE()) >= :weeksThreshold " +
-                 "GROUP BY m.id " +
-                 "HAVING weeksAbsent >= :weeksThreshold OR lastAttendanceDate IS NULL " +
-                 "ORDER BY weeksAbsent DESC " +
-                 "LIMIT 10",
-         nativeQuery = true)
-  java.util.List<com.reuben.pastcare_spring.dtos.IrregularAttenderResponse> findIrregularAttenders(
-      @Param("church") Church church,
-      @Param("weeksThreshold") int weeksThreshold);
-
   /**
    * Get member growth trend for the last N months.
    * Returns monthly new member count and total member count.
@@ -229,4 +227,10 @@ public interface MemberRepository extends JpaRepository<Member, Long>, JpaSpecif
   @Query("SELECT COUNT(m) FROM Member m WHERE m.church.id = :churchId")
   Long countActiveMembersByChurch(@Param("churchId") Long churchId);
 
+  /**
+   * Profile image paths still in use (for the unreferenced image cleanup).
+   */
+  @Query("SELECT DISTINCT m.profileImageUrl FROM Member m WHERE m.profileImageUrl IS NOT NULL")
+  java.util.List<String> findAllProfileImageUrls();
+
 }
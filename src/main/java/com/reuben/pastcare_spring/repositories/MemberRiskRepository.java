@@ -0,0 +1,85 @@
+package com.reuben.pastcare_spring.repositories;
+
+import com.reuben.pastcare_spring.models.CareNeedStatus;
+import com.reuben.pastcare_spring.models.MemberRisk;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MemberRiskRepository extends JpaRepository<MemberRisk, Long> {
+
+    /**
+     * Every risk signal for a church's members in one pass:
+     * [memberId, lastAttendedDate, attended30d, attended90d, openCareNeeds, lastVisitDate, lastContactDate].
+     * Each side table is grouped once per church and joined by member, instead of
+     * one lookup per member. Members created after memberCreatedBefore are excluded
+     * as too new to judge.
+     */
+    @Query(value = "SELECT m.id, e.last_attended_date, " +
+                   "COALESCE(e.attended_30d, 0), COALESCE(e.attended_90d, 0), " +
+                   "COALESCE(cn.open_needs, 0), v.last_visit, c.last_contact " +
+                   "FROM member m " +
+                   "LEFT JOIN member_engagement e ON e.member_id = m.id " +
+                   "LEFT JOIN (SELECT member_id, COUNT(*) AS open_needs FROM care_needs " +
+                   "  WHERE church_id = :churchId AND status NOT IN ('RESOLVED', 'CLOSED') " +
+                   "  GROUP BY member_id) cn ON cn.member_id = m.id " +
+                   "LEFT JOIN (SELECT member_id, MAX(visit_date) AS last_visit FROM visits " +
+                   "  WHERE church_id = :churchId AND visit_date <= :asOf " +
+                   "  GROUP BY member_id) v ON v.member_id = m.id " +
+                   "LEFT JOIN (SELECT member_id, MAX(communication_date) AS last_contact FROM communication_logs " +
+                   "  WHERE church_id = :churchId AND member_id IS NOT NULL AND communication_date < :contactBefore " +
+                   "  GROUP BY member_id) c ON c.member_id = m.id " +
+                   "WHERE m.church_id = :churchId " +
+                   "AND m.created_at <= :memberCreatedBefore",
+           nativeQuery = true)
+    List<Object[]> findRiskSignals(
+        @Param("churchId") Long churchId,
+        @Param("asOf") LocalDate asOf,
+        @Param("contactBefore") LocalDateTime contactBefore,
+        @Param("memberCreatedBefore") Instant memberCreatedBefore);
+
+    @Modifying
+    @Query("DELETE FROM MemberRisk r WHERE r.church.id = :churchId")
+    int deleteByChurchId(@Param("churchId") Long churchId);
+
+    /**
+     * Highest-ranked members (idx_member_risk_rank)
+     */
+    @Query("SELECT r FROM MemberRisk r JOIN FETCH r.member " +
+           "WHERE r.church.id = :churchId " +
+           "ORDER BY r.riskRank ASC")
+    List<MemberRisk> findRanked(@Param("churchId") Long churchId, Pageable pageable);
+
+    /**
+     * Members absent for at least minWeeks (or never attended) with no open care need,
+     * highest risk first. Care needs are checked live so a need opened since the
+     * snapshot removes the suggestion straight away.
+     */
+    @Query("SELECT r FROM MemberRisk r JOIN FETCH r.member m " +
+           "WHERE r.church.id = :churchId " +
+           "AND (r.neverAttended = true OR r.weeksAbsent >= :minWeeks) " +
+           "AND NOT EXISTS (SELECT 1 FROM CareNeed cn WHERE cn.member = m AND cn.status NOT IN :closedStatuses) " +
+           "ORDER BY r.riskRank ASC")
+    List<MemberRisk> findCareSuggestions(
+        @Param("churchId") Long churchId,
+        @Param("minWeeks") int minWeeks,
+        @Param("closedStatuses") Collection<CareNeedStatus> closedStatuses);
+
+    /**
+     * [riskLevel, COUNT] for a church
+     */
+    @Query("SELECT r.riskLevel, COUNT(r) FROM MemberRisk r " +
+           "WHERE r.church.id = :churchId " +
+           "GROUP BY r.riskLevel")
+    List<Object[]> countByLevel(@Param("churchId") Long churchId);
+}
@@ -0,0 +1,9 @@
+package com.reuben.pastcare_spring.repositories;
+
+import com.reuben.pastcare_spring.models.MemberRiskSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MemberRiskSnapshotRepository extends JpaRepository<MemberRiskSnapshot, Long> {
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,11 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      */
     Optional<Payment> findByPaystackReference(String paystackReference);
 
+    /**
+     * Find payments by several Paystack references.
+     */
+    List<Payment> findByPaystackReferenceIn(Collection<String> paystackReferences);
+
     /**
      * Find payment by Paystack transaction ID.
      */
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +33,9 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
     // Find by payment reference
     Optional<PaymentTransaction> findByPaymentReference(String paymentReference);
 
+    // Find by several payment references
+    List<PaymentTransaction> findByPaymentReferenceIn(Collection<String> paymentReferences);
+
     // Find by Paystack reference
     Optional<PaymentTransaction> findByPaystackReference(String paystackReference);
 
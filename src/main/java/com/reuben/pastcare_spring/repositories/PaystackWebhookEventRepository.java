@@ -0,0 +1,50 @@
+package com.reuben.pastcare_spring.repositories;
+
+import com.reuben.pastcare_spring.models.PaystackWebhookEvent;
+import com.reuben.pastcare_spring.models.PaystackWebhookEventStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaystackWebhookEventRepository extends JpaRepository<PaystackWebhookEvent, Long> {
+
+    // IDs of events ready to process: the oldest pending event of each reference, if it is due
+    // (idx_webhook_pending). A reference whose oldest event is claimed or backing off yields
+    // nothing, so its later events wait and each reference is handled in order.
+    @Query(value = "SELECT head.id FROM (" +
+                   "  SELECT e.id, e.next_attempt_at, " +
+                   "         ROW_NUMBER() OVER (PARTITION BY e.reference ORDER BY e.occurred_at, e.id) AS position " +
+                   "  FROM paystack_webhook_events e " +
+                   "  WHERE e.status = 'PENDING'" +
+                   ") head " +
+                   "WHERE head.position = 1 AND head.next_attempt_at <= :now " +
+                   "ORDER BY head.next_attempt_at, head.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findReadyIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Claim ready events for a worker: nextAttemptAt becomes the lease expiry. The due
+    // condition is re-checked against the current row, so of two racing workers only one wins each event.
+    @Modifying
+    @Query("UPDATE PaystackWebhookEvent e SET e.claimedBy = :owner, e.nextAttemptAt = :leaseUntil " +
+           "WHERE e.id IN :ids AND e.status = 'PENDING' AND e.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("now") LocalDateTime now);
+
+    boolean existsByEventKey(String eventKey);
+
+    List<PaystackWebhookEvent> findByIdInAndClaimedBy(Collection<Long> ids, String claimedBy);
+
+    boolean existsByReferenceAndEventTypeAndStatus(String reference, String eventType, PaystackWebhookEventStatus status);
+
+    long countByStatus(PaystackWebhookEventStatus status);
+}
@@ -0,0 +1,25 @@
+package com.reuben.pastcare_spring.repositories;
+
+import com.reuben.pastcare_spring.models.PlatformMetricsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlatformMetricsSnapshotRepository extends JpaRepository<PlatformMetricsSnapshot, Long> {
+
+    Optional<PlatformMetricsSnapshot> findBySnapshotDate(LocalDate snapshotDate);
+
+    /**
+     * Most recent snapshot on or before a date (for "N days ago" comparisons).
+     */
+    Optional<PlatformMetricsSnapshot> findFirstBySnapshotDateLessThanEqualOrderBySnapshotDateDesc(LocalDate date);
+
+    /**
+     * Snapshots in a date range, oldest first.
+     */
+    List<PlatformMetricsSnapshot> findBySnapshotDateBetweenOrderBySnapshotDateAsc(LocalDate startDate, LocalDate endDate);
+}
@@ -7,11 +7,14 @@ import com.reuben.pastcare_spring.models.RecurringDonationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +42,35 @@ public interface RecurringDonationRepository extends JpaRepository<RecurringDona
            "AND r.nextChargeDate <= :date")
     List<RecurringDonation> findDueForCharging(@Param("churchId") Long churchId, @Param("date") LocalDate date);
 
+    // IDs of active donations whose next attempt is due, across all churches (idx_recurring_due).
+    // Ordered round-robin by church (each church's oldest first, then each church's second, ...)
+    // so one church with many donations cannot fill a page on its own.
+    @Query(value = "SELECT due.id FROM (" +
+                   "  SELECT r.id, r.next_attempt_at, " +
+                   "         ROW_NUMBER() OVER (PARTITION BY r.church_id ORDER BY r.next_attempt_at, r.id) AS church_rank " +
+                   "  FROM recurring_donations r " +
+                   "  WHERE r.status = 'ACTIVE' AND r.next_attempt_at <= :now" +
+                   ") due " +
+                   "ORDER BY due.church_rank, due.next_attempt_at, due.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findDueForChargeIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Claim due donations for a charge run: nextAttemptAt becomes the lease expiry. The due
+    // condition is re-checked against the current row, so of two racing runs only one wins each row.
+    @Modifying
+    @Query("UPDATE RecurringDonation r SET r.chargeClaimedBy = :owner, r.nextAttemptAt = :leaseUntil " +
+           "WHERE r.id IN :ids AND r.status = 'ACTIVE' AND r.nextAttemptAt <= :now")
+    int claimForCharge(@Param("ids") Collection<Long> ids,
+                       @Param("owner") String owner,
+                       @Param("leaseUntil") LocalDateTime leaseUntil,
+                       @Param("now") LocalDateTime now);
+
+    // Claimed donations with their member and church loaded
+    @Query("SELECT r FROM RecurringDonation r JOIN FETCH r.member JOIN FETCH r.church " +
+           "WHERE r.id IN :ids AND r.chargeClaimedBy = :owner")
+    List<RecurringDonation> findClaimed(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
     // Find recurring donations with consecutive failures
     @Query("SELECT r FROM RecurringDonation r WHERE r.church.id = :churchId " +
            "AND r.consecutiveFailures >= :threshold")
@@ -4,6 +4,7 @@ import com.reuben.pastcare_spring.models.Church;
 import com.reuben.pastcare_spring.models.StorageUsage;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -54,6 +55,13 @@ public interface StorageUsageRepository extends JpaRepository<StorageUsage, Long
            "(SELECT MAX(su2.id) FROM StorageUsage su2 GROUP BY su2.church.id)")
     List<StorageUsage> findLatestForAllChurches();
 
+    /**
+     * Get the first storage usage after a date for all churches.
+     */
+    @Query("SELECT su FROM StorageUsage su WHERE su.id IN " +
+           "(SELECT MIN(su2.id) FROM StorageUsage su2 WHERE su2.calculatedAt > :since GROUP BY su2.church.id)")
+    List<StorageUsage> findFirstAfterForAllChurches(@Param("since") LocalDateTime since);
+
     /**
      * Delete old storage usage records (keep only last 90 days).
      */
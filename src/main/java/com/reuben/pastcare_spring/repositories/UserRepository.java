@@ -1,8 +1,10 @@
 package com.reuben.pastcare_spring.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.reuben.pastcare_spring.models.Church;
 import com.reuben.pastcare_spring.models.User;
@@ -12,4 +14,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
 
   long countByChurch(Church church);
+
+  /**
+   * User counts for every church in one grouped query.
+   * Rows: [churchId, count]
+   */
+  @Query("SELECT u.church.id, COUNT(u) FROM User u WHERE u.church IS NOT NULL GROUP BY u.church.id")
+  List<Object[]> countGroupedByChurch();
 }
@@ -45,6 +45,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/portal/register", "/api/portal/register-with-photo", "/api/portal/login", "/api/portal/verify", "/api/portal/resend-verification", "/api/portal/forgot-password", "/api/portal/reset-password", "/api/portal/profile/picture", "/api/portal/profile").permitAll()
                 // Invitation code validation - public for registration
                 .requestMatchers("/api/invitation-codes/validate/**").permitAll()
+                // Public calendar feed and embed (PUBLIC events only)
+                .requestMatchers("/api/public/calendar/**").permitAll()
                 // Church logo - public for landing page and favicon
                 .requestMatchers("/api/churches/public/logo").permitAll()
                 // Public pricing and currency endpoints (for landing page pricing display)
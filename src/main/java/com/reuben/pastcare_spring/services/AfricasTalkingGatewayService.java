@@ -1,5 +1,6 @@
 package com.reuben.pastcare_spring.services;
 
+import com.reuben.pastcare_spring.http.OutboundHttpClients;
 import com.reuben.pastcare_spring.models.SmsGateway;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -59,8 +60,8 @@ public class AfricasTalkingGatewayService implements SmsGatewayService {
         "+269"  // Comoros
     );
 
-    public AfricasTalkingGatewayService(RestTemplate restTemplate, PhoneNumberService phoneNumberService) {
-        this.restTemplate = restTemplate;
+    public AfricasTalkingGatewayService(OutboundHttpClients outboundHttpClients, PhoneNumberService phoneNumberService) {
+        this.restTemplate = outboundHttpClients.restTemplate(OutboundHttpClients.AFRICAS_TALKING);
         this.phoneNumberService = phoneNumberService;
     }
 
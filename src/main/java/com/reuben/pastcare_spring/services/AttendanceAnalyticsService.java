@@ -48,25 +48,25 @@ public class AttendanceAnalyticsService {
     public AttendanceAnalyticsResponse getAttendanceAnalytics(Long churchId, LocalDate startDate, LocalDate endDate) {
         // Overall statistics
         Long totalSessions = sessionRepository.countSessionsByDateRange(churchId, startDate, endDate);
-        Long totalRecords = attendanceRepository.countByChurchAndDateRange(churchId, startDate, endDate);
+        AttendanceRollup rollup = AttendanceRollup.fromRows(
+            attendanceRepository.getDailyAttendanceRollup(churchId, startDate, endDate));
+        Long totalRecords = rollup.getTotalRecords(startDate, endDate);
         Long uniqueMembers = attendanceRepository.countUniqueMembersAttended(churchId, startDate, endDate);
 
         // Calculate overall attendance rate
-        Long presentCount = attendanceRepository.countByChurchDateRangeAndStatus(
-            churchId, startDate, endDate, AttendanceStatus.PRESENT);
-        Double overallRate = totalRecords > 0 ? (presentCount.doubleValue() / totalRecords) * 100 : 0.0;
+        Double overallRate = rollup.getAttendanceRate(startDate, endDate);
 
         // Trend data
-        List<AttendanceTrendPoint> trends = getAttendanceTrends(churchId, startDate, endDate);
+        List<AttendanceTrendPoint> trends = getAttendanceTrends(rollup, startDate, endDate);
 
         // Service type breakdown
         List<ServiceTypeStats> serviceTypeStats = getServiceTypeStats(churchId, startDate, endDate);
 
         // Check-in method distribution
-        List<CheckInMethodStats> checkInStats = getCheckInMethodStats(churchId, startDate, endDate);
+        List<CheckInMethodStats> checkInStats = getCheckInMethodStats(rollup, startDate, endDate);
 
         // Late arrival statistics
-        LateArrivalStats lateStats = getLateArrivalStats(churchId, startDate, endDate);
+        LateArrivalStats lateStats = getLateArrivalStats(churchId, rollup, startDate, endDate);
 
         // Visitor metrics
         VisitorMetrics visitorMetrics = getVisitorMetrics(startDate, endDate);
@@ -100,52 +100,47 @@ public class AttendanceAnalyticsService {
         Church church = churchRepository.findById(churchId)
             .orElseThrow(() -> new RuntimeException("Church not found"));
         Long totalMembers = memberRepository.countByChurch(church);
-        Long uniqueAttendees = attendanceRepository.countUniqueMembersAttended(churchId, startDate, endDate);
 
-        // Attendance records
-        Long totalRecords = attendanceRepository.countByChurchAndDateRange(churchId, startDate, endDate);
-        Long presentCount = attendanceRepository.countByChurchDateRangeAndStatus(
-            churchId, startDate, endDate, AttendanceStatus.PRESENT);
-        Long absentCount = attendanceRepository.countByChurchDateRangeAndStatus(
-            churchId, startDate, endDate, AttendanceStatus.ABSENT);
-        Long excusedCount = attendanceRepository.countByChurchDateRangeAndStatus(
-            churchId, startDate, endDate, AttendanceStatus.EXCUSED);
-
-        Double attendanceRate = totalRecords > 0 ? (presentCount.doubleValue() / totalRecords) * 100 : 0.0;
-
-        // Comparison with previous period
+        // Previous period for comparison
         long daysDiff = ChronoUnit.DAYS.between(startDate, endDate);
         LocalDate prevStartDate = startDate.minusDays(daysDiff);
         LocalDate prevEndDate = startDate.minusDays(1);
 
-        Long prevTotalRecords = attendanceRepository.countByChurchAndDateRange(churchId, prevStartDate, prevEndDate);
-        Long prevPresentCount = attendanceRepository.countByChurchDateRangeAndStatus(
-            churchId, prevStartDate, prevEndDate, AttendanceStatus.PRESENT);
-        Double prevRate = prevTotalRecords > 0 ? (prevPresentCount.doubleValue() / prevTotalRecords) * 100 : 0.0;
-        Double rateChange = attendanceRate - prevRate;
+        // One scan covers both periods; each metric sums the days it needs
+        AttendanceRollup rollup = AttendanceRollup.fromRows(
+            attendanceRepository.getDailyAttendanceRollup(churchId, prevStartDate, endDate));
+
+        List<Object[]> uniqueCounts = attendanceRepository.countUniqueMembersAttendedWithPrevious(
+            churchId, prevStartDate, startDate, endDate);
+        Object[] uniqueRow = uniqueCounts.isEmpty() ? new Object[2] : uniqueCounts.get(0);
+        Long uniqueAttendees = uniqueRow[0] != null ? ((Number) uniqueRow[0]).longValue() : 0L;
+        Long prevUniqueAttendees = uniqueRow[1] != null ? ((Number) uniqueRow[1]).longValue() : 0L;
 
-        Long prevUniqueAttendees = attendanceRepository.countUniqueMembersAttended(churchId, prevStartDate, prevEndDate);
+        // Attendance records
+        Long totalRecords = rollup.getTotalRecords(startDate, endDate);
+        Long presentCount = rollup.getStatusCount(AttendanceStatus.PRESENT, startDate, endDate);
+        Long absentCount = rollup.getStatusCount(AttendanceStatus.ABSENT, startDate, endDate);
+        Long excusedCount = rollup.getStatusCount(AttendanceStatus.EXCUSED, startDate, endDate);
+
+        Double attendanceRate = rollup.getAttendanceRate(startDate, endDate);
+        Double prevRate = rollup.getAttendanceRate(prevStartDate, prevEndDate);
+        Double rateChange = attendanceRate - prevRate;
         Long memberCountChange = uniqueAttendees - prevUniqueAttendees;
 
         // Check-in method counts
-        Map<CheckInMethod, Long> checkInCounts = getCheckInMethodCounts(churchId, startDate, endDate);
+        Map<CheckInMethod, Long> checkInCounts = rollup.getCheckInMethodCounts(startDate, endDate);
         Long qrCodeCheckIns = checkInCounts.getOrDefault(CheckInMethod.QR_CODE, 0L);
         Long geofenceCheckIns = checkInCounts.getOrDefault(CheckInMethod.GEOFENCE, 0L);
         Long manualCheckIns = checkInCounts.getOrDefault(CheckInMethod.MANUAL, 0L);
 
         // Late arrivals
-        List<Object[]> lateStatsList = attendanceRepository.getLateArrivalStats(churchId, startDate, endDate);
-        Long lateCheckIns = 0L;
-        if (lateStatsList != null && !lateStatsList.isEmpty()) {
-            Object[] lateStats = lateStatsList.get(0);
-            lateCheckIns = lateStats[0] != null ? ((Number) lateStats[0]).longValue() : 0L;
-        }
+        Long lateCheckIns = rollup.getLateCount(startDate, endDate);
         Double lateRate = presentCount > 0 ? (lateCheckIns.doubleValue() / presentCount) * 100 : 0.0;
 
         // Visitor statistics
         Long totalVisitors = visitorRepository.countVisitorsByDateRange(startDate, endDate);
-        Long newVisitors = totalVisitors - visitorRepository.countReturningVisitors(startDate, endDate);
         Long returningVisitors = visitorRepository.countReturningVisitors(startDate, endDate);
+        Long newVisitors = totalVisitors - returningVisitors;
 
         return new AttendanceSummaryResponse(
             startDate, endDate,
@@ -230,18 +225,19 @@ public class AttendanceAnalyticsService {
 
     // Helper methods
 
-    private List<AttendanceTrendPoint> getAttendanceTrends(Long churchId, LocalDate startDate, LocalDate endDate) {
-        List<Object[]> trendsData = attendanceRepository.getAttendanceTrendsByDay(churchId, startDate, endDate);
-
-        return trendsData.stream()
-            .map(data -> new AttendanceTrendPoint(
-                (LocalDate) data[0],
-                ((Number) data[1]).longValue(),
-                ((Number) data[2]).longValue(),
-                data[1] != null && ((Number) data[1]).longValue() > 0 ?
-                    (((Number) data[2]).doubleValue() / ((Number) data[1]).doubleValue()) * 100 : 0.0,
-                "ALL" // Service type - would need modification to track by type
-            ))
+    private List<AttendanceTrendPoint> getAttendanceTrends(AttendanceRollup rollup, LocalDate startDate, LocalDate endDate) {
+        return rollup.getDays(startDate, endDate).stream()
+            .map(day -> {
+                long total = day.getValue().getTotal();
+                long present = day.getValue().getCount(AttendanceStatus.PRESENT);
+                return new AttendanceTrendPoint(
+                    day.getKey(),
+                    total,
+                    present,
+                    total > 0 ? ((double) present / total) * 100 : 0.0,
+                    "ALL" // Service type - would need modification to track by type
+                );
+            })
             .collect(Collectors.toList());
     }
 
@@ -259,37 +255,25 @@ public class AttendanceAnalyticsService {
             .collect(Collectors.toList());
     }
 
-    private List<CheckInMethodStats> getCheckInMethodStats(Long churchId, LocalDate startDate, LocalDate endDate) {
-        List<Object[]> methodCounts = attendanceRepository.countByCheckInMethod(churchId, startDate, endDate);
-        Long total = methodCounts.stream()
-            .mapToLong(data -> ((Number) data[1]).longValue())
-            .sum();
-
-        return methodCounts.stream()
-            .map(data -> new CheckInMethodStats(
-                data[0] != null ? data[0].toString() : "UNKNOWN",
-                ((Number) data[1]).longValue(),
-                total > 0 ? (((Number) data[1]).doubleValue() / total) * 100 : 0.0
+    private List<CheckInMethodStats> getCheckInMethodStats(AttendanceRollup rollup, LocalDate startDate, LocalDate endDate) {
+        Map<CheckInMethod, Long> methodCounts = rollup.getCheckInMethodCounts(startDate, endDate);
+        long total = methodCounts.values().stream().mapToLong(Long::longValue).sum();
+
+        return methodCounts.entrySet().stream()
+            .map(entry -> new CheckInMethodStats(
+                entry.getKey().name(),
+                entry.getValue(),
+                total > 0 ? (entry.getValue().doubleValue() / total) * 100 : 0.0
             ))
             .collect(Collectors.toList());
     }
 
-    private LateArrivalStats getLateArrivalStats(Long churchId, LocalDate startDate, LocalDate endDate) {
-        List<Object[]> statsList = attendanceRepository.getLateArrivalStats(churchId, startDate, endDate);
-
-        Long totalLate = 0L;
-        Double avgMinutes = 0.0;
-        Long maxMinutes = 0L;
-
-        if (statsList != null && !statsList.isEmpty()) {
-            Object[] stats = statsList.get(0);
-            totalLate = stats[0] != null ? ((Number) stats[0]).longValue() : 0L;
-            avgMinutes = stats[1] != null ? ((Number) stats[1]).doubleValue() : 0.0;
-            maxMinutes = stats.length > 2 && stats[2] != null ? ((Number) stats[2]).longValue() : 0L;
-        }
+    private LateArrivalStats getLateArrivalStats(Long churchId, AttendanceRollup rollup, LocalDate startDate, LocalDate endDate) {
+        Long totalLate = rollup.getLateCount(startDate, endDate);
+        Double avgMinutes = rollup.getAverageMinutesLate(startDate, endDate);
+        Long maxMinutes = rollup.getMaxMinutesLate(startDate, endDate);
 
-        Long totalPresent = attendanceRepository.countByChurchDateRangeAndStatus(
-            churchId, startDate, endDate, AttendanceStatus.PRESENT);
+        Long totalPresent = rollup.getStatusCount(AttendanceStatus.PRESENT, startDate, endDate);
         Double lateRate = totalPresent > 0 ? (totalLate.doubleValue() / totalPresent) * 100 : 0.0;
 
         List<Object[]> frequentlyLate = attendanceRepository.findFrequentlyLateMembers(churchId, startDate, endDate);
@@ -323,19 +307,6 @@ public class AttendanceAnalyticsService {
         return result;
     }
 
-    private Map<CheckInMethod, Long> getCheckInMethodCounts(Long churchId, LocalDate startDate, LocalDate endDate) {
-        List<Object[]> methodCounts = attendanceRepository.countByCheckInMethod(churchId, startDate, endDate);
-        Map<CheckInMethod, Long> result = new HashMap<>();
-        for (Object[] data : methodCounts) {
-            if (data[0] != null) {
-                CheckInMethod method = (CheckInMethod) data[0];
-                Long count = ((Number) data[1]).longValue();
-                result.put(method, count);
-            }
-        }
-        return result;
-    }
-
     private Map<Long, CheckInMethod> getPreferredCheckInMethods(Long churchId) {
         List<Object[]> methods = attendanceRepository.getMemberPreferredCheckInMethods(churchId);
         Map<Long, CheckInMethod> result = new HashMap<>();
@@ -0,0 +1,140 @@
+package com.reuben.pastcare_spring.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.reuben.pastcare_spring.enums.AttendanceStatus;
+import com.reuben.pastcare_spring.enums.CheckInMethod;
+
+/**
+ * Daily attendance aggregates for one church, built from a single grouped scan
+ * ({@code AttendanceRepository.getDailyAttendanceRollup}).
+ *
+ * Every range metric (totals, status counts, check-in methods, late arrivals,
+ * trends) is computed by summing the days inside the range, so one scan over
+ * the widest range answers both the current and the comparison period.
+ */
+public class AttendanceRollup {
+
+  private final NavigableMap<LocalDate, Day> days = new TreeMap<>();
+
+  /**
+   * Aggregates for one session date.
+   */
+  public static class Day {
+    private long total;
+    private final Map<AttendanceStatus, Long> byStatus = new EnumMap<>(AttendanceStatus.class);
+    private final Map<CheckInMethod, Long> byMethod = new EnumMap<>(CheckInMethod.class);
+    private long late;
+    private long lateMinutesSum;
+    private long lateMinutesCount;
+    private long lateMinutesMax;
+
+    public long getTotal() {
+      return total;
+    }
+
+    public long getCount(AttendanceStatus status) {
+      return byStatus.getOrDefault(status, 0L);
+    }
+  }
+
+  /**
+   * Build from rollup rows:
+   * [sessionDate, status, checkInMethod, isLate, COUNT, SUM(minutesLate), COUNT(minutesLate), MAX(minutesLate)]
+   */
+  public static AttendanceRollup fromRows(Collection<Object[]> rows) {
+    AttendanceRollup rollup = new AttendanceRollup();
+    for (Object[] row : rows) {
+      Day day = rollup.days.computeIfAbsent((LocalDate) row[0], d -> new Day());
+      long count = toLong(row[4]);
+
+      day.total += count;
+      if (row[1] != null) {
+        day.byStatus.merge((AttendanceStatus) row[1], count, Long::sum);
+      }
+      if (row[2] != null) {
+        day.byMethod.merge((CheckInMethod) row[2], count, Long::sum);
+      }
+      if (Boolean.TRUE.equals(row[3])) {
+        day.late += count;
+        day.lateMinutesSum += toLong(row[5]);
+        day.lateMinutesCount += toLong(row[6]);
+        day.lateMinutesMax = Math.max(day.lateMinutesMax, toLong(row[7]));
+      }
+    }
+    return rollup;
+  }
+
+  public long getTotalRecords(LocalDate from, LocalDate to) {
+    return range(from, to).stream().mapToLong(d -> d.total).sum();
+  }
+
+  public long getStatusCount(AttendanceStatus status, LocalDate from, LocalDate to) {
+    return range(from, to).stream().mapToLong(d -> d.getCount(status)).sum();
+  }
+
+  /**
+   * Present records as a percentage of all records (0 when there are none).
+   */
+  public double getAttendanceRate(LocalDate from, LocalDate to) {
+    long total = getTotalRecords(from, to);
+    return total > 0 ? (getStatusCount(AttendanceStatus.PRESENT, from, to) * 100.0) / total : 0.0;
+  }
+
+  public Map<CheckInMethod, Long> getCheckInMethodCounts(LocalDate from, LocalDate to) {
+    Map<CheckInMethod, Long> counts = new EnumMap<>(CheckInMethod.class);
+    for (Day day : range(from, to)) {
+      day.byMethod.forEach((method, count) -> counts.merge(method, count, Long::sum));
+    }
+    return counts;
+  }
+
+  public long getLateCount(LocalDate from, LocalDate to) {
+    return range(from, to).stream().mapToLong(d -> d.late).sum();
+  }
+
+  /**
+   * Average minutes late over late records that recorded minutes (0 when none).
+   */
+  public double getAverageMinutesLate(LocalDate from, LocalDate to) {
+    long sum = 0;
+    long count = 0;
+    for (Day day : range(from, to)) {
+      sum += day.lateMinutesSum;
+      count += day.lateMinutesCount;
+    }
+    return count > 0 ? (double) sum / count : 0.0;
+  }
+
+  public long getMaxMinutesLate(LocalDate from, LocalDate to) {
+    return range(from, to).stream().mapToLong(d -> d.lateMinutesMax).max().orElse(0L);
+  }
+
+  /**
+   * Days with at least one record inside the range, in date order.
+   */
+  public List<Map.Entry<LocalDate, Day>> getDays(LocalDate from, LocalDate to) {
+    if (from.isAfter(to)) {
+      return List.of();
+    }
+    return new ArrayList<>(days.subMap(from, true, to, true).entrySet());
+  }
+
+  private Collection<Day> range(LocalDate from, LocalDate to) {
+    if (from.isAfter(to)) {
+      return List.of();
+    }
+    return days.subMap(from, true, to, true).values();
+  }
+
+  private static long toLong(Object value) {
+    return value != null ? ((Number) value).longValue() : 0L;
+  }
+}
@@ -2,7 +2,13 @@ package com.reuben.pastcare_spring.services;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
@@ -22,6 +28,7 @@ import com.reuben.pastcare_spring.models.Church;
 import com.reuben.pastcare_spring.models.Event;
 import com.reuben.pastcare_spring.models.Fellowship;
 import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.persistence.BulkWriter;
 import com.reuben.pastcare_spring.repositories.AttendanceRepository;
 import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
 import com.reuben.pastcare_spring.repositories.ChurchRepository;
@@ -40,6 +47,8 @@ public class AttendanceService {
   private final MemberRepository memberRepository;
   private final QRCodeService qrCodeService;
   private final TenantValidationService tenantValidationService;
+  private final MemberEngagementService memberEngagementService;
+  private final BulkWriter bulkWriter;
 
   public AttendanceService(
       AttendanceSessionRepository attendanceSessionRepository,
@@ -49,7 +58,9 @@ public class AttendanceService {
       FellowshipRepository fellowshipRepository,
       MemberRepository memberRepository,
       QRCodeService qrCodeService,
-      TenantValidationService tenantValidationService) {
+      TenantValidationService tenantValidationService,
+      MemberEngagementService memberEngagementService,
+      BulkWriter bulkWriter) {
     this.attendanceSessionRepository = attendanceSessionRepository;
     this.attendanceRepository = attendanceRepository;
     this.churchRepository = churchRepository;
@@ -58,6 +69,8 @@ public class AttendanceService {
     this.memberRepository = memberRepository;
     this.qrCodeService = qrCodeService;
     this.tenantValidationService = tenantValidationService;
+    this.memberEngagementService = memberEngagementService;
+    this.bulkWriter = bulkWriter;
   }
 
   @Transactional
@@ -168,7 +181,10 @@ public class AttendanceService {
     // CRITICAL SECURITY: Validate attendance session belongs to current church
     tenantValidationService.validateAttendanceSessionAccess(session);
 
+    // Attendance cascades with the session, so its members' engagement changes too
+    List<Long> memberIds = attendanceRepository.findMemberIdsBySessionId(id);
     attendanceSessionRepository.delete(session);
+    memberEngagementService.attendanceChanged(memberIds);
   }
 
   @Transactional
@@ -189,13 +205,64 @@ public class AttendanceService {
     attendance.setRemarks(request.remarks());
 
     Attendance savedAttendance = attendanceRepository.save(attendance);
+    memberEngagementService.attendanceChanged(member.getId());
     return AttendanceMapper.toAttendanceResponse(savedAttendance);
   }
 
+  /**
+   * Mark many attendance records at once.
+   *
+   * Members, sessions and existing records are loaded with one query each (per session),
+   * and new/changed records are written in JDBC batches.
+   */
   @Transactional
   public List<AttendanceResponse> markBulkAttendance(BulkAttendanceRequest request) {
-    return request.attendances().stream()
-        .map(this::markAttendance)
+    List<AttendanceRequest> entries = request.attendances();
+
+    Map<Long, Member> members = memberRepository.findAllById(
+            entries.stream().map(AttendanceRequest::memberId).collect(Collectors.toSet())).stream()
+        .collect(Collectors.toMap(Member::getId, member -> member));
+    Map<Long, AttendanceSession> sessions = attendanceSessionRepository.findAllById(
+            entries.stream().map(AttendanceRequest::attendanceSessionId).collect(Collectors.toSet())).stream()
+        .collect(Collectors.toMap(AttendanceSession::getId, session -> session));
+
+    // Existing records keyed by session then member, so re-marking updates instead of duplicating
+    Map<Long, Map<Long, Attendance>> existing = new HashMap<>();
+    for (Long sessionId : sessions.keySet()) {
+      Set<Long> sessionMemberIds = entries.stream()
+          .filter(entry -> sessionId.equals(entry.attendanceSessionId()))
+          .map(AttendanceRequest::memberId)
+          .collect(Collectors.toSet());
+      existing.put(sessionId, attendanceRepository.findByAttendanceSessionIdAndMemberIdIn(sessionId, sessionMemberIds)
+          .stream()
+          .collect(Collectors.toMap(a -> a.getMember().getId(), a -> a)));
+    }
+
+    List<Attendance> marked = new ArrayList<>(entries.size());
+    Set<Attendance> toWrite = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (AttendanceRequest entry : entries) {
+      Member member = members.get(entry.memberId());
+      if (member == null) {
+        throw new IllegalArgumentException("Member not found");
+      }
+      AttendanceSession session = sessions.get(entry.attendanceSessionId());
+      if (session == null) {
+        throw new IllegalArgumentException("Attendance session not found");
+      }
+
+      Attendance attendance = existing.get(session.getId()).computeIfAbsent(member.getId(), id -> new Attendance());
+      attendance.setMember(member);
+      attendance.setAttendanceSession(session);
+      attendance.setStatus(entry.status());
+      attendance.setRemarks(entry.remarks());
+      marked.add(attendance);
+      toWrite.add(attendance);
+    }
+
+    bulkWriter.saveAll(toWrite);
+    memberEngagementService.attendanceChanged(members.keySet());
+    return marked.stream()
+        .map(AttendanceMapper::toAttendanceResponse)
         .collect(Collectors.toList());
   }
 
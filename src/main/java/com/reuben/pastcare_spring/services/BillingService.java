@@ -49,6 +49,7 @@ public class BillingService {
     private final com.reuben.pastcare_spring.repositories.ChurchRepository churchRepository;
     private final ChurchStorageAddonRepository churchStorageAddonRepository;
     private final StorageAddonBillingService storageAddonBillingService;
+    private final SubscriptionRenewalService subscriptionRenewalService;
 
     /**
      * Get church subscription.
@@ -326,6 +327,12 @@ public class BillingService {
         Payment payment = paymentRepository.findByPaystackReference(reference)
             .orElseThrow(() -> new RuntimeException("Payment not found: " + reference));
 
+        // Webhook and callback can both report the same payment
+        if (payment.isSuccessful()) {
+            log.info("Payment already processed: reference={}", reference);
+            return payment;
+        }
+
         // Verify with Paystack
         JsonNode verification = paystackService.verifyPayment(reference);
 
@@ -603,119 +610,10 @@ public class BillingService {
 
     /**
      * Process subscription renewals (scheduled task).
+     * Not transactional: the renewal pipeline commits each chunk on its own.
      */
-    @Transactional
-    public void processSubscriptionRenewals() {
-        LocalDate today = LocalDate.now();
-        List<ChurchSubscription> dueForRenewal = subscriptionRepository
-            .findByNextBillingDateBeforeAndAutoRenewTrue(today.plusDays(1));
-
-        for (ChurchSubscription subscription : dueForRenewal) {
-            try {
-                // Check if church has promotional credits first
-                if (subscription.hasPromotionalCredits()) {
-                    processRenewalWithPromoCredits(subscription);
-                    continue;
-                }
-
-                // Get stored authorization code
-                String authCode = subscription.getPaystackAuthorizationCode();
-                if (authCode == null || authCode.isEmpty()) {
-                    log.error("No authorization code for church {}", subscription.getChurchId());
-                    subscription.setStatus("PAST_DUE");
-                    subscription.setFailedPaymentAttempts(subscription.getFailedPaymentAttempts() + 1);
-                    subscriptionRepository.save(subscription);
-                    continue;
-                }
-
-                // Get church email
-                String email = getChurchEmail(subscription.getChurchId());
-                if (email == null || email.isEmpty()) {
-                    log.error("No email found for church {}", subscription.getChurchId());
-                    subscription.setStatus("PAST_DUE");
-                    subscription.setFailedPaymentAttempts(subscription.getFailedPaymentAttempts() + 1);
-                    subscriptionRepository.save(subscription);
-                    continue;
-                }
-
-                // Calculate total renewal charge (base + active addons)
-                BigDecimal baseAmount = subscription.getPlan().getPrice();
-                List<ChurchStorageAddon> activeAddons = churchStorageAddonRepository
-                    .findByChurchIdAndStatus(subscription.getChurchId(), "ACTIVE");
-
-                BigDecimal addonTotal = activeAddons.stream()
-                    .map(addon -> addon.getPurchasePrice()) // Use locked price
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                BigDecimal totalAmount = baseAmount.add(addonTotal);
-
-                String description = activeAddons.isEmpty()
-                    ? "Monthly renewal - " + subscription.getPlan().getDisplayName()
-                    : String.format("Monthly renewal - %s + %d addon(s)",
-                        subscription.getPlan().getDisplayName(), activeAddons.size());
-
-                // Create payment record
-                Payment payment = Payment.builder()
-                    .churchId(subscription.getChurchId())
-                    .plan(subscription.getPlan())
-                    .amount(totalAmount) // Total: base + addons
-                    .currency("GHS")  // Ghana Cedis - Paystack does not support USD
-                    .status("PENDING")
-                    .paystackReference("RENEWAL-" + UUID.randomUUID())
-                    .paymentType("SUBSCRIPTION")
-                    .description(description)
-                    .build();
-                paymentRepository.save(payment);
-
-                // Charge using stored authorization code
-                JsonNode result = paystackService.chargeAuthorization(
-                    authCode,
-                    totalAmount, // Charge total amount
-                    email,
-                    payment.getPaystackReference()
-                );
-
-                // Check result
-                if (result.get("status").asBoolean()) {
-                    // Success: Update subscription
-                    payment.markAsSuccessful();
-                    payment.setPaystackTransactionId(result.get("data").get("reference").asText());
-                    paymentRepository.save(payment);
-
-                    LocalDate newPeriodStart = LocalDate.now();
-                    LocalDate newPeriodEnd = LocalDate.now().plusMonths(1);
-                    LocalDate newBillingDate = LocalDate.now().plusMonths(1);
-
-                    subscription.setNextBillingDate(newBillingDate);
-                    subscription.setCurrentPeriodStart(newPeriodStart);
-                    subscription.setCurrentPeriodEnd(newPeriodEnd);
-                    subscription.setFailedPaymentAttempts(0);
-                    subscriptionRepository.save(subscription);
-
-                    // CRITICAL: Update ALL active addons to keep renewal dates synchronized
-                    for (ChurchStorageAddon addon : activeAddons) {
-                        addon.updateRenewalDates(newPeriodStart, newPeriodEnd, newBillingDate);
-                        churchStorageAddonRepository.save(addon);
-                    }
-
-                    log.info("Subscription renewed successfully for church {} (base + {} addons)",
-                        subscription.getChurchId(), activeAddons.size());
-                } else {
-                    // Failure: Mark as PAST_DUE
-                    String errorMsg = result.has("message") ? result.get("message").asText() : "Charge failed";
-                    payment.markAsFailed(errorMsg);
-                    paymentRepository.save(payment);
-
-                    subscription.setStatus("PAST_DUE");
-                    subscription.setFailedPaymentAttempts(subscription.getFailedPaymentAttempts() + 1);
-                    subscriptionRepository.save(subscription);
-
-                    log.warn("Renewal failed for church {}: {}", subscription.getChurchId(), errorMsg);
-                }
-            } catch (Exception e) {
-                log.error("Error processing renewal for church {}", subscription.getChurchId(), e);
-            }
-        }
+    public SubscriptionRenewalService.RenewalReport processSubscriptionRenewals() {
+        return subscriptionRenewalService.processDueRenewals(LocalDate.now());
     }
 
     /**
@@ -771,39 +669,6 @@ public class BillingService {
         log.info("Granted {} free month(s) to church {}. Reason: {}", months, churchId, note);
     }
 
-    /**
-     * Process renewal with promotional credits consideration.
-     * If church has free months remaining, skip charging and use credit instead.
-     *
-     * @param subscription Subscription to renew
-     */
-    private void processRenewalWithPromoCredits(ChurchSubscription subscription) {
-        // Use promotional credit instead of charging
-        subscription.usePromotionalCredit();
-
-        LocalDate newPeriodStart = LocalDate.now();
-        LocalDate newPeriodEnd = LocalDate.now().plusMonths(1);
-        LocalDate newBillingDate = LocalDate.now().plusMonths(1);
-
-        subscription.setNextBillingDate(newBillingDate);
-        subscription.setCurrentPeriodStart(newPeriodStart);
-        subscription.setCurrentPeriodEnd(newPeriodEnd);
-        subscription.setFailedPaymentAttempts(0);
-        subscriptionRepository.save(subscription);
-
-        // FREE MONTH COVERS ADDONS TOO - update addon renewal dates
-        List<ChurchStorageAddon> activeAddons = churchStorageAddonRepository
-            .findByChurchIdAndStatus(subscription.getChurchId(), "ACTIVE");
-
-        for (ChurchStorageAddon addon : activeAddons) {
-            addon.updateRenewalDates(newPeriodStart, newPeriodEnd, newBillingDate);
-            churchStorageAddonRepository.save(addon);
-        }
-
-        log.info("Used promotional credit for church {}. {} free month(s) remaining. Free month includes {} addon(s)",
-            subscription.getChurchId(), subscription.getFreeMonthsRemaining(), activeAddons.size());
-    }
-
     /**
      * Revoke remaining promotional credits from a church.
      *
@@ -4,12 +4,18 @@ import com.reuben.pastcare_spring.models.Event;
 import com.reuben.pastcare_spring.models.EventLocationType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Service for exporting events to calendar formats (iCal, Google Calendar)
@@ -47,6 +53,26 @@ public class CalendarExportService {
      * Generate iCal format for multiple events
      */
     public String generateICalForEvents(List<Event> events, String calendarName) {
+        StringWriter writer = new StringWriter();
+        try {
+            writeICalForEvents(writer, events.iterator(), calendarName, event -> { });
+        } catch (IOException e) {
+            // StringWriter never throws
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Write iCal format for multiple events to a stream, one event at a time.
+     *
+     * <p>Used for calendar feeds so large calendars never need to be held in memory
+     * as a single string.
+     *
+     * @param afterEvent Called after each event is written (e.g. to detach it from the persistence context)
+     */
+    public void writeICalForEvents(Writer writer, Iterator<Event> events, String calendarName,
+                                   Consumer<Event> afterEvent) throws IOException {
         StringBuilder ical = new StringBuilder();
 
         // iCal header
@@ -57,16 +83,20 @@ public class CalendarExportService {
         ical.append("METHOD:PUBLISH\r\n");
         ical.append("X-WR-CALNAME:").append(escapeText(calendarName)).append("\r\n");
         ical.append("X-WR-TIMEZONE:").append(ZoneId.systemDefault().getId()).append("\r\n");
+        writer.write(ical.toString());
 
         // Add all events
-        for (Event event : events) {
+        while (events.hasNext()) {
+            Event event = events.next();
+            ical.setLength(0);
             appendEvent(ical, event);
+            writer.write(ical.toString());
+            afterEvent.accept(event);
         }
 
         // iCal footer
-        ical.append("END:VCALENDAR\r\n");
-
-        return ical.toString();
+        writer.write("END:VCALENDAR\r\n");
+        writer.flush();
     }
 
     /**
@@ -76,8 +106,7 @@ public class CalendarExportService {
         ical.append("BEGIN:VEVENT\r\n");
 
         // UID - unique identifier
-        String uid = event.getId() + "@pastcare.app";
-        ical.append("UID:").append(uid).append("\r\n");
+        ical.append("UID:").append(uidFor(event)).append("\r\n");
 
         // DTSTAMP - timestamp when event was created
         LocalDateTime now = LocalDateTime.now();
@@ -136,6 +165,17 @@ public class CalendarExportService {
         ical.append("END:VEVENT\r\n");
     }
 
+    /**
+     * Occurrences of a recurring event are identified by their series and rule start time,
+     * so an occurrence keeps its UID when it is materialized into its own row.
+     */
+    private String uidFor(Event event) {
+        if (event.getParentEvent() != null && event.getOccurrenceStart() != null) {
+            return event.getParentEvent().getId() + "-" + formatDateTime(event.getOccurrenceStart()) + "@pastcare.app";
+        }
+        return event.getId() + "@pastcare.app";
+    }
+
     /**
      * Get event location based on location type
      */
@@ -255,4 +295,40 @@ public class CalendarExportService {
 
         return html.toString();
     }
+
+    /**
+     * Render the public calendar embed page (target of {@link #generateEmbedCode}).
+     */
+    public String generateEmbedHtml(String churchName, List<Event> events) {
+        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("EEE, MMM d, yyyy 'at' h:mm a");
+
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\">");
+        html.append("<title>").append(HtmlUtils.htmlEscape(churchName)).append(" Events</title>");
+        html.append("<style>body{font-family:sans-serif;margin:0;padding:16px;color:#1f2937}");
+        html.append("h1{font-size:18px;margin:0 0 12px}ul{list-style:none;padding:0;margin:0}");
+        html.append("li{padding:10px 0;border-bottom:1px solid #e5e7eb}.date{color:#6b7280;font-size:13px}");
+        html.append(".cancelled{text-decoration:line-through;color:#9ca3af}</style></head><body>");
+        html.append("<h1>").append(HtmlUtils.htmlEscape(churchName)).append(" Events</h1>");
+
+        if (events.isEmpty()) {
+            html.append("<p>No upcoming events.</p>");
+        } else {
+            html.append("<ul>");
+            for (Event event : events) {
+                html.append(event.getIsCancelled() ? "<li class=\"cancelled\">" : "<li>");
+                html.append("<strong>").append(HtmlUtils.htmlEscape(event.getName())).append("</strong>");
+                html.append("<div class=\"date\">").append(event.getStartDate().format(dateFormat)).append("</div>");
+                String location = getEventLocation(event);
+                if (location != null && !location.isEmpty()) {
+                    html.append("<div class=\"date\">").append(HtmlUtils.htmlEscape(location)).append("</div>");
+                }
+                html.append("</li>");
+            }
+            html.append("</ul>");
+        }
+
+        html.append("</body></html>");
+        return html.toString();
+    }
 }
@@ -0,0 +1,279 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.dtos.CalendarFeedVersion;
+import com.reuben.pastcare_spring.metrics.CacheMetrics;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.repositories.ChurchRepository;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-church iCal feed cache.
+ *
+ * <p>Calendar clients poll feeds constantly, so each poll is answered from:
+ * <ol>
+ *   <li>A 304 when the client's ETag matches the current feed version (one aggregate query)</li>
+ *   <li>A cached rendering when the feed version hasn't changed since it was built</li>
+ *   <li>A fresh rendering streamed straight to the client (and cached if small enough)</li>
+ * </ol>
+ *
+ * <p>The feed version is derived from the church's event count and latest
+ * update/delete timestamps, so any event modification on any instance invalidates it
+ * without explicit eviction.
+ *
+ * <p>Recurring events appear as their occurrences in the feed window, expanded by
+ * {@link EventOccurrenceService}. Occurrence exceptions touch the series row and
+ * materializing an occurrence adds a row, so both change the version too.
+ */
+@Service
+@Slf4j
+public class CalendarFeedService {
+
+    private static final int EMBED_LIMIT = 50;
+
+    private final EventRepository eventRepository;
+    private final ChurchRepository churchRepository;
+    private final CalendarExportService calendarExportService;
+    private final EventOccurrenceService occurrenceService;
+    private final EntityManager entityManager;
+    private final int maxCachedBytes;
+    private final Map<FeedKey, CachedFeed> cache;
+    private final CacheMetrics cacheMetrics = new CacheMetrics("calendar-feeds");
+
+    public CalendarFeedService(
+            EventRepository eventRepository,
+            ChurchRepository churchRepository,
+            CalendarExportService calendarExportService,
+            EventOccurrenceService occurrenceService,
+            EntityManager entityManager,
+            @Value("${app.calendar.feed-cache.max-entries:500}") int maxEntries,
+            @Value("${app.calendar.feed-cache.max-bytes-per-feed:2097152}") int maxCachedBytes) {
+        this.eventRepository = eventRepository;
+        this.churchRepository = churchRepository;
+        this.calendarExportService = calendarExportService;
+        this.occurrenceService = occurrenceService;
+        this.entityManager = entityManager;
+        this.maxCachedBytes = maxCachedBytes;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FeedKey, CachedFeed> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Identifies one feed: a church, its audience and an optional date window.
+     */
+    public record FeedKey(Long churchId, boolean publicOnly, LocalDate from, LocalDate to) {
+    }
+
+    private record CachedFeed(String etag, byte[] content) {
+    }
+
+    /**
+     * Whether a church exists (checked before a public feed starts streaming).
+     */
+    public boolean churchExists(Long churchId) {
+        return churchRepository.existsById(churchId);
+    }
+
+    /**
+     * Current ETag for a feed. Weak, because DTSTAMP lines differ between renderings
+     * of the same version while the calendar content is equivalent.
+     */
+    @Transactional(readOnly = true)
+    public String getEtag(FeedKey key) {
+        CalendarFeedVersion version = eventRepository.getCalendarFeedVersion(key.churchId());
+        String fingerprint = key + "|" + version.eventCount() + "|" + version.lastUpdated() + "|" + version.lastDeleted();
+        if (key.from() == null || key.to() == null) {
+            // Open windows expand recurring events over a default window that moves daily
+            fingerprint += "|" + LocalDate.now();
+        }
+        return "W/\"" + sha256Hex(fingerprint) + "\"";
+    }
+
+    /**
+     * Write a feed to the client, from cache when the version matches.
+     *
+     * <p>Runs in its own read-only transaction because it is invoked from the
+     * async streaming thread, not the request thread.
+     *
+     * @param etag The ETag computed for this request, used as the cache version
+     */
+    @Transactional(readOnly = true)
+    public void writeFeed(FeedKey key, String etag, OutputStream out) throws IOException {
+        CachedFeed cached = cache.get(key);
+        if (cached != null && cached.etag().equals(etag)) {
+            cacheMetrics.hit();
+            out.write(cached.content());
+            out.flush();
+            return;
+        }
+        cacheMetrics.miss();
+
+        Church church = churchRepository.findById(key.churchId())
+            .orElseThrow(() -> new IllegalArgumentException("Church not found"));
+
+        List<Event> occurrences = virtualOccurrences(key);
+
+        CapturingOutputStream capture = new CapturingOutputStream(out, maxCachedBytes);
+        Writer writer = new OutputStreamWriter(capture, StandardCharsets.UTF_8);
+        try (Stream<Event> events = eventRepository.streamForCalendarFeed(
+                key.churchId(), startOf(key.from()), endOf(key.to()), key.publicOnly())) {
+            // Detach each stored event once written so the persistence context stays small
+            calendarExportService.writeICalForEvents(writer,
+                Stream.concat(events, occurrences.stream()).iterator(), church.getName() + " Events",
+                event -> {
+                    if (event.getId() != null) {
+                        entityManager.detach(event);
+                    }
+                });
+        }
+
+        byte[] content = capture.captured();
+        if (content != null) {
+            cache.put(key, new CachedFeed(etag, content));
+        } else {
+            log.debug("Calendar feed {} exceeds {} bytes; streamed without caching", key, maxCachedBytes);
+        }
+    }
+
+    /**
+     * Render the public embed page (upcoming public events).
+     */
+    @Transactional(readOnly = true)
+    public String renderEmbed(Long churchId) {
+        Church church = churchRepository.findById(churchId)
+            .orElseThrow(() -> new IllegalArgumentException("Church not found"));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> upcoming;
+        try (Stream<Event> events = eventRepository.streamForCalendarFeed(churchId, now, null, true)) {
+            upcoming = events.limit(EMBED_LIMIT).collect(Collectors.toList());
+        }
+
+        LocalDate today = now.toLocalDate();
+        occurrenceService.findVirtualOccurrences(churchId, today.atStartOfDay(),
+                EventOccurrenceService.defaultTo(today), true).stream()
+            .map(EventOccurrenceService::toTransientEvent)
+            .filter(event -> !event.getEndDate().isBefore(now))
+            .forEach(upcoming::add);
+        upcoming.sort(Comparator.comparing(Event::getStartDate));
+        if (upcoming.size() > EMBED_LIMIT) {
+            upcoming = upcoming.subList(0, EMBED_LIMIT);
+        }
+        return calendarExportService.generateEmbedHtml(church.getName(), upcoming);
+    }
+
+    /**
+     * Occurrences of recurring events in the feed window that have no row of their own,
+     * as transient events. Open ends fall back to the default expansion window.
+     */
+    private List<Event> virtualOccurrences(FeedKey key) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime from = key.from() != null ? startOf(key.from()) : EventOccurrenceService.defaultFrom(today);
+        LocalDateTime to = key.to() != null ? endOf(key.to()) : EventOccurrenceService.defaultTo(today);
+        // Series without an end date would expand forever, so cap the window
+        LocalDateTime limit = from.plus(EventOccurrenceService.MAX_WINDOW);
+        if (to.isAfter(limit)) {
+            to = limit;
+        }
+        if (!to.isAfter(from)) {
+            return List.of();
+        }
+        return occurrenceService.findVirtualOccurrences(key.churchId(), from, to, key.publicOnly()).stream()
+            .map(EventOccurrenceService::toTransientEvent)
+            .toList();
+    }
+
+    private static LocalDateTime startOf(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+
+    // The window's end date is inclusive
+    private static LocalDateTime endOf(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Passes bytes through to the client while keeping a copy for the cache,
+     * until the copy would exceed the cap (then the feed is simply not cached).
+     */
+    private static class CapturingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CapturingOutputStream(OutputStream delegate, int limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        byte[] captured() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.dtos.CampaignProgress;
+import com.reuben.pastcare_spring.models.Campaign;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Donation;
+import com.reuben.pastcare_spring.models.Pledge;
+import com.reuben.pastcare_spring.models.PledgeStatus;
+import com.reuben.pastcare_spring.repositories.CampaignRepository;
+import com.reuben.pastcare_spring.repositories.DonationRepository;
+import com.reuben.pastcare_spring.repositories.PledgeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Giving Module Phase 3: Pledge & Campaign Management
+ * Keeps campaign progress counters (raised, pledged, donation and pledge counts) in step with
+ * the campaign's donations and pledges.
+ *
+ * Callers take the {@link #share} a donation or pledge contributes before changing it and pass
+ * it, with the share afterwards, to {@link #recordChange}. The difference is added to the
+ * campaign row with one UPDATE in the caller's transaction, so concurrent changes to the same
+ * campaign each land exactly once and nothing is recounted. {@link #reconcile} recounts a
+ * campaign from its donations and pledges; {@link #reconcileAll} runs nightly to repair drift
+ * (rows changed outside the services, manual SQL fixes).
+ *
+ * Record a new donation or pledge before saving it. The counter UPDATE then locks the campaign
+ * row before the INSERT's foreign-key check takes a shared lock on it; the other way round, two
+ * concurrent inserts on MySQL each hold the shared lock the other's UPDATE waits for (deadlock).
+ */
+@Service
+@Slf4j
+public class CampaignProgressLedger {
+
+  private static final int RECONCILE_PAGE_SIZE = 200;
+
+  private final CampaignRepository campaignRepository;
+  private final DonationRepository donationRepository;
+  private final PledgeRepository pledgeRepository;
+  private final TransactionTemplate transaction;
+
+  /**
+   * What one donation or pledge adds to one campaign's counters
+   */
+  public record Share(Long campaignId, CampaignProgress progress) {
+    public static final Share NONE = new Share(null, CampaignProgress.ZERO);
+  }
+
+  public record ReconciliationReport(int checked, int repaired, int failed) {
+  }
+
+  public CampaignProgressLedger(
+      CampaignRepository campaignRepository,
+      DonationRepository donationRepository,
+      PledgeRepository pledgeRepository,
+      PlatformTransactionManager transactionManager) {
+    this.campaignRepository = campaignRepository;
+    this.donationRepository = donationRepository;
+    this.pledgeRepository = pledgeRepository;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Share of a donation: its amount and one donation, if it is linked to a campaign
+   */
+  public static Share share(Donation donation) {
+    if (donation == null || donation.getCampaignEntity() == null) {
+      return Share.NONE;
+    }
+    return new Share(donation.getCampaignEntity().getId(),
+        new CampaignProgress(donation.getAmount(), 1, BigDecimal.ZERO, 0));
+  }
+
+  /**
+   * Share of a pledge: one pledge, plus its pledged and paid amounts unless it is cancelled
+   */
+  public static Share share(Pledge pledge) {
+    if (pledge == null || pledge.getCampaign() == null) {
+      return Share.NONE;
+    }
+    boolean counted = pledge.getStatus() != PledgeStatus.CANCELLED;
+    return new Share(pledge.getCampaign().getId(), new CampaignProgress(
+        counted ? pledge.getAmountPaid() : BigDecimal.ZERO,
+        0,
+        counted ? pledge.getTotalAmount() : BigDecimal.ZERO,
+        1));
+  }
+
+  /**
+   * Apply a donation or pledge change to campaign counters: {@code before} is its share before
+   * the change ({@link Share#NONE} when created), {@code after} its share afterwards
+   * ({@link Share#NONE} when deleted). Handles moves between campaigns.
+   */
+  @Transactional
+  public void recordChange(Share before, Share after) {
+    if (Objects.equals(before.campaignId(), after.campaignId())) {
+      apply(after.campaignId(), after.progress().minus(before.progress()));
+      return;
+    }
+    // Lower id first, so two moves in opposite directions cannot deadlock on the campaign rows
+    if (before.campaignId() != null && (after.campaignId() == null || before.campaignId() < after.campaignId())) {
+      apply(before.campaignId(), before.progress().negate());
+      apply(after.campaignId(), after.progress());
+    } else {
+      apply(after.campaignId(), after.progress());
+      apply(before.campaignId(), before.progress().negate());
+    }
+  }
+
+  /**
+   * Recount a campaign's counters from its donations and pledges and store them if they
+   * drifted. The campaign row stays locked while counting, so changes recorded concurrently
+   * are either counted or applied on top afterwards, never both.
+   *
+   * @return true if the counters were wrong and have been repaired
+   */
+  @Transactional
+  public boolean reconcile(Long campaignId) {
+    if (campaignRepository.lockForUpdate(campaignId).isEmpty()) {
+      throw new IllegalArgumentException("Campaign not found with id: " + campaignId);
+    }
+    Campaign campaign = campaignRepository.getReferenceById(campaignId);
+    Church church = campaign.getChurch();
+
+    BigDecimal donated = donationRepository.getTotalDonationsByCampaign(campaign, church);
+    BigDecimal paid = pledgeRepository.calculateTotalPaidAmount(campaign, church);
+    CampaignProgress counted = new CampaignProgress(
+        donated.add(paid),
+        (int) donationRepository.countByCampaignEntityAndChurch(campaign, church),
+        pledgeRepository.calculateTotalPledgeAmount(campaign, church),
+        (int) pledgeRepository.countByCampaignAndChurch(campaign, church));
+    CampaignProgress stored = campaignRepository.findProgress(campaignId).orElseThrow();
+
+    if (counted.minus(stored).isZero()) {
+      return false;
+    }
+    log.warn("Campaign {} progress drifted: stored {}, counted {}", campaignId, stored, counted);
+    campaignRepository.setProgress(campaignId, counted.currentAmount(), counted.totalDonations(),
+        counted.totalPledges(), counted.totalPledgesCount());
+    campaignRepository.completeIfGoalReached(campaignId);
+    return true;
+  }
+
+  /**
+   * Reconcile every campaign, each in its own transaction
+   */
+  public ReconciliationReport reconcileAll() {
+    int checked = 0;
+    int repaired = 0;
+    int failed = 0;
+    long afterId = 0;
+    List<Long> ids;
+    do {
+      ids = campaignRepository.findIdsAfter(afterId, PageRequest.of(0, RECONCILE_PAGE_SIZE));
+      for (Long id : ids) {
+        checked++;
+        try {
+          if (Boolean.TRUE.equals(transaction.execute(status -> reconcile(id)))) {
+            repaired++;
+          }
+        } catch (RuntimeException e) {
+          failed++;
+          log.error("Failed to reconcile campaign {}: {}", id, e.getMessage(), e);
+        }
+        afterId = id;
+      }
+    } while (ids.size() == RECONCILE_PAGE_SIZE);
+
+    log.info("Campaign progress reconciliation: {} checked, {} repaired, {} failed", checked, repaired, failed);
+    return new ReconciliationReport(checked, repaired, failed);
+  }
+
+  private void apply(Long campaignId, CampaignProgress delta) {
+    if (campaignId == null || delta.isZero()) {
+      return;
+    }
+    campaignRepository.addProgress(campaignId, delta.currentAmount(), delta.totalDonations(),
+        delta.totalPledges(), delta.totalPledgesCount());
+    if (delta.currentAmount().signum() > 0) {
+      campaignRepository.completeIfGoalReached(campaignId);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.reuben.pastcare_spring.services;
 import com.reuben.pastcare_spring.dtos.CampaignRequest;
 import com.reuben.pastcare_spring.dtos.CampaignResponse;
 import com.reuben.pastcare_spring.dtos.CampaignStatsResponse;
+import com.reuben.pastcare_spring.dtos.CampaignTotals;
 import com.reuben.pastcare_spring.models.*;
 import com.reuben.pastcare_spring.repositories.*;
 import lombok.RequiredArgsConstructor;
@@ -26,7 +27,7 @@ public class CampaignService {
   private final ChurchRepository churchRepository;
   private final UserRepository userRepository;
   private final PledgeRepository pledgeRepository;
-  private final DonationRepository donationRepository;
+  private final CampaignProgressLedger campaignProgressLedger;
   private final TenantValidationService tenantValidationService;
 
   /**
@@ -170,7 +171,9 @@ public class CampaignService {
   }
 
   /**
-   * Update campaign progress (called when donations/pledges are made)
+   * Recount campaign progress from its donations and pledges, repairing the counters if they
+   * drifted. Donations and pledges keep the counters current as they change (see
+   * CampaignProgressLedger), so this is only needed after changes made outside the services.
    */
   @Transactional
   public void updateCampaignProgress(Long campaignId) {
@@ -180,31 +183,7 @@ public class CampaignService {
     // CRITICAL SECURITY: Validate campaign belongs to current church
     tenantValidationService.validateCampaignAccess(campaign);
 
-    Church church = campaign.getChurch();
-
-    // Calculate total donations for this campaign
-    BigDecimal totalDonations = donationRepository.getTotalDonationsByCampaign(campaign, church);
-
-    // Calculate total pledges for this campaign
-    BigDecimal totalPledges = pledgeRepository.calculateTotalPledgeAmount(campaign, church);
-    BigDecimal totalPledgesPaid = pledgeRepository.calculateTotalPaidAmount(campaign, church);
-
-    // Count donations and pledges
-    int donationCount = (int) donationRepository.countByCampaignEntityAndChurch(campaign, church);
-    int pledgeCount = (int) pledgeRepository.countByCampaignAndChurch(campaign, church);
-
-    // Update campaign
-    campaign.setCurrentAmount(totalDonations.add(totalPledgesPaid));
-    campaign.setTotalPledges(totalPledges);
-    campaign.setTotalDonations(donationCount);
-    campaign.setTotalPledgesCount(pledgeCount);
-
-    // Auto-complete if goal reached
-    if (campaign.isGoalReached() && campaign.getStatus() == CampaignStatus.ACTIVE) {
-      campaign.setStatus(CampaignStatus.COMPLETED);
-    }
-
-    campaignRepository.save(campaign);
+    campaignProgressLedger.reconcile(campaignId);
   }
 
   /**
@@ -240,52 +219,22 @@ public class CampaignService {
   }
 
   /**
-   * Get campaign statistics
+   * Get campaign statistics (one aggregate over the campaigns' progress counters)
    */
   public CampaignStatsResponse getCampaignStats(Long churchId) {
     Church church = getChurch(churchId);
-
-    List<Campaign> allCampaigns = campaignRepository.findByChurch(church);
-
-    long totalCampaigns = allCampaigns.size();
-    long activeCampaigns = campaignRepository.countActiveCampaigns(church);
-    long completedCampaigns = campaignRepository.countByChurchAndStatus(church, CampaignStatus.COMPLETED);
-
-    BigDecimal totalGoalAmount = allCampaigns.stream()
-        .map(Campaign::getGoalAmount)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    BigDecimal totalRaised = allCampaigns.stream()
-        .map(Campaign::getCurrentAmount)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    BigDecimal totalPledged = allCampaigns.stream()
-        .map(Campaign::getTotalPledges)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    int totalDonations = allCampaigns.stream()
-        .mapToInt(Campaign::getTotalDonations)
-        .sum();
-
-    int totalPledges = allCampaigns.stream()
-        .mapToInt(Campaign::getTotalPledgesCount)
-        .sum();
-
-    double averageProgress = allCampaigns.stream()
-        .mapToDouble(Campaign::getProgressPercentage)
-        .average()
-        .orElse(0.0);
+    CampaignTotals totals = campaignRepository.getCampaignTotals(church);
 
     return new CampaignStatsResponse(
-        totalCampaigns,
-        activeCampaigns,
-        completedCampaigns,
-        totalGoalAmount,
-        totalRaised,
-        totalPledged,
-        totalDonations,
-        totalPledges,
-        averageProgress
+        totals.campaignCount(),
+        orZero(totals.activeCount()),
+        orZero(totals.completedCount()),
+        orZero(totals.goalAmount()),
+        orZero(totals.raisedAmount()),
+        orZero(totals.pledgedAmount()),
+        (int) orZero(totals.donationCount()),
+        (int) orZero(totals.pledgeCount()),
+        totals.averageProgress() != null ? totals.averageProgress() : 0.0
     );
   }
 
@@ -318,6 +267,14 @@ public class CampaignService {
     return CampaignResponse.fromEntity(saved);
   }
 
+  private static long orZero(Long value) {
+    return value != null ? value : 0L;
+  }
+
+  private static BigDecimal orZero(BigDecimal value) {
+    return value != null ? value : BigDecimal.ZERO;
+  }
+
   private Church getChurch(Long churchId) {
     return churchRepository.findById(churchId)
         .orElseThrow(() -> new IllegalArgumentException("Church not found with id: " + churchId));
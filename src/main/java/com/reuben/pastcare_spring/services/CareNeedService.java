@@ -4,6 +4,7 @@ import com.reuben.pastcare_spring.dtos.AutoDetectedCareNeed;
 import com.reuben.pastcare_spring.dtos.CareNeedRequest;
 import com.reuben.pastcare_spring.dtos.CareNeedResponse;
 import com.reuben.pastcare_spring.dtos.CareNeedStatsResponse;
+import com.reuben.pastcare_spring.enums.MemberRiskLevel;
 import com.reuben.pastcare_spring.models.*;
 import com.reuben.pastcare_spring.repositories.*;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +30,7 @@ public class CareNeedService {
     private final UserRepository userRepository;
     private final ChurchRepository churchRepository;
     private final TenantValidationService tenantValidationService;
+    private final MemberRiskService memberRiskService;
 
     /**
      * Create a new care need
@@ -299,13 +301,14 @@ public class CareNeedService {
     }
 
     /**
-     * Auto-detect members needing care based on attendance patterns
-     * Returns list of member IDs with 3+ consecutive absences (no attendance in last 21 days)
-     * Only includes members who have been in the system for at least 3 weeks
+     * Auto-detect members needing care from the member risk snapshot
+     * Returns IDs of members with 3+ weeks of absence (or who never attended) and no open care need,
+     * highest risk first. Members added less than 3 weeks ago are not flagged.
      */
     public List<Long> detectMembersNeedingCare(Long churchId) {
-        LocalDateTime threeWeeksAgo = LocalDateTime.now().minusWeeks(3);
-        return careNeedRepository.findMembersWithConsecutiveAbsences(churchId, threeWeeksAgo);
+        return memberRiskService.getCareSuggestions(churchId).stream()
+            .map(risk -> risk.getMember().getId())
+            .collect(Collectors.toList());
     }
 
     /**
@@ -313,32 +316,33 @@ public class CareNeedService {
      * Returns members with 3+ weeks of absence who don't already have an active care need
      */
     public List<AutoDetectedCareNeed> getAutoDetectedCareNeeds(Long churchId) {
-        List<Long> memberIds = detectMembersNeedingCare(churchId);
-
-        return memberIds.stream()
-            .map(memberId -> memberRepository.findById(memberId).orElse(null))
-            .filter(member -> member != null)
-            .filter(member -> {
-                // Only suggest if member doesn't already have an active care need
-                List<CareNeed> existingNeeds = careNeedRepository.findByMember(member);
-                return existingNeeds.stream()
-                    .noneMatch(cn -> cn.getStatus() != CareNeedStatus.RESOLVED &&
-                                    cn.getStatus() != CareNeedStatus.CLOSED);
-            })
-            .map(member -> new AutoDetectedCareNeed(
-                member.getId(),
-                member.getFirstName() + " " + member.getLastName(),
-                "No attendance recorded in the last 3 weeks",
-                CareNeedType.SPIRITUAL_GUIDANCE,
-                CareNeedPriority.HIGH,
-                "Follow up with " + member.getFirstName() + " " + member.getLastName(),
-                "Member has not attended services for 3 or more consecutive weeks. " +
-                "Please reach out to check on their well-being and offer support.",
-                3 // Minimum consecutive absences
-            ))
+        return memberRiskService.getCareSuggestions(churchId).stream()
+            .map(this::toAutoDetectedCareNeed)
             .collect(Collectors.toList());
     }
 
+    private AutoDetectedCareNeed toAutoDetectedCareNeed(MemberRisk risk) {
+        Member member = risk.getMember();
+        String name = member.getFirstName() + " " + member.getLastName();
+        boolean neverAttended = Boolean.TRUE.equals(risk.getNeverAttended());
+
+        return new AutoDetectedCareNeed(
+            member.getId(),
+            name,
+            neverAttended
+                ? "No attendance recorded since joining"
+                : "No attendance recorded in the last " + risk.getWeeksAbsent() + " weeks",
+            CareNeedType.SPIRITUAL_GUIDANCE,
+            risk.getRiskLevel() == MemberRiskLevel.HIGH ? CareNeedPriority.HIGH : CareNeedPriority.MEDIUM,
+            "Follow up with " + name,
+            (neverAttended
+                ? "Member has not attended any services since joining. "
+                : "Member has not attended services for " + risk.getWeeksAbsent() + " consecutive weeks. ") +
+            "Please reach out to check on their well-being and offer support.",
+            neverAttended ? null : risk.getWeeksAbsent()
+        );
+    }
+
     /**
      * Helper method to update care need from request
      */
@@ -48,6 +48,7 @@ public class CheckInService {
   private final QRCodeService qrCodeService;
   private final GeofenceService geofenceService;
   private final ChurchSettingsService churchSettingsService;
+  private final MemberEngagementService memberEngagementService;
 
   public CheckInService(
       AttendanceSessionRepository attendanceSessionRepository,
@@ -56,7 +57,8 @@ public class CheckInService {
       VisitorRepository visitorRepository,
       QRCodeService qrCodeService,
       GeofenceService geofenceService,
-      ChurchSettingsService churchSettingsService) {
+      ChurchSettingsService churchSettingsService,
+      MemberEngagementService memberEngagementService) {
     this.attendanceSessionRepository = attendanceSessionRepository;
     this.attendanceRepository = attendanceRepository;
     this.memberRepository = memberRepository;
@@ -64,6 +66,7 @@ public class CheckInService {
     this.qrCodeService = qrCodeService;
     this.geofenceService = geofenceService;
     this.churchSettingsService = churchSettingsService;
+    this.memberEngagementService = memberEngagementService;
   }
 
   /**
@@ -131,6 +134,9 @@ public class CheckInService {
 
     // Save attendance
     Attendance savedAttendance = attendanceRepository.save(attendance);
+    if (request.memberId() != null) {
+      memberEngagementService.attendanceChanged(request.memberId());
+    }
 
     // Build response
     String message = buildCheckInMessage(savedAttendance, request.checkInMethod());
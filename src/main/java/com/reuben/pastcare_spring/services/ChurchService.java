@@ -79,7 +79,7 @@ public class ChurchService {
 
         try {
             // Upload and compress logo (allow 500KB for church logo)
-            String logoUrl = uploadChurchLogo(file, church.getLogoUrl());
+            String logoUrl = uploadChurchLogo(file);
 
             // Update church with new logo URL
             church.setLogoUrl(logoUrl);
@@ -101,10 +101,8 @@ public class ChurchService {
         Church church = getChurchById(id);
 
         if (church.getLogoUrl() != null && !church.getLogoUrl().isEmpty()) {
-            // Delete the logo file
-            imageService.deleteImage(church.getLogoUrl());
-
-            // Remove logo URL from church
+            // Remove logo URL from church; the file may be shared, so the
+            // unreferenced image cleanup removes it once nothing uses it
             church.setLogoUrl(null);
             churchRepository.save(church);
 
@@ -128,7 +126,7 @@ public class ChurchService {
      * Upload and compress a church logo
      * Similar to ImageService methods but specific for church logos
      */
-    private String uploadChurchLogo(MultipartFile file, String oldLogoPath) throws IOException {
+    private String uploadChurchLogo(MultipartFile file) throws IOException {
         // Validate file
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
@@ -141,6 +139,6 @@ public class ChurchService {
 
         // Use ImageService for fellowship images (500KB max, similar to logo needs)
         // This reuses the existing image compression logic
-        return imageService.uploadFellowshipImage(file, oldLogoPath);
+        return imageService.uploadFellowshipImage(file);
     }
 }
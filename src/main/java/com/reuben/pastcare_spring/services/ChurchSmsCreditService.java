@@ -102,6 +102,14 @@ public class ChurchSmsCreditService {
         BigDecimal amount,
         String paymentReference
     ) {
+        if (paymentReference != null) {
+            SmsTransaction existing = smsTransactionRepository.findByPaymentReference(paymentReference).orElse(null);
+            if (existing != null) {
+                log.warn("Credits for payment {} were already added", paymentReference);
+                return existing;
+            }
+        }
+
         ChurchSmsCredit wallet = getOrCreateWallet(churchId);
         Church church = wallet.getChurch();
 
@@ -3,15 +3,20 @@ package com.reuben.pastcare_spring.services;
 import com.reuben.pastcare_spring.security.TenantContext;
 import com.reuben.pastcare_spring.dtos.*;
 import com.reuben.pastcare_spring.models.*;
+import com.reuben.pastcare_spring.persistence.BulkWriter;
 import com.reuben.pastcare_spring.repositories.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -20,6 +25,7 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CrisisService {
 
     private final CrisisRepository crisisRepository;
@@ -28,6 +34,7 @@ public class CrisisService {
     private final MemberRepository memberRepository;
     private final UserRepository userRepository;
     private final ChurchRepository churchRepository;
+    private final BulkWriter bulkWriter;
 
     /**
      * Report a new crisis
@@ -163,29 +170,32 @@ public class CrisisService {
         Crisis crisis = crisisRepository.findById(crisisId)
             .orElseThrow(() -> new IllegalArgumentException("Crisis not found with id: " + crisisId));
 
-        List<CrisisAffectedMemberResponse> addedMembers = new java.util.ArrayList<>();
+        // One query for the members and one for existing links, then batched inserts
+        Map<Long, Member> members = memberRepository.findAllById(request.getMemberIds()).stream()
+            .collect(Collectors.toMap(Member::getId, member -> member));
+        Set<Long> affectedMemberIds = new HashSet<>(crisisAffectedMemberRepository.findMemberIdsByCrisis(crisis));
 
+        List<CrisisAffectedMember> toAdd = new ArrayList<>();
         for (Long memberId : request.getMemberIds()) {
-            try {
-                Member member = memberRepository.findById(memberId)
-                    .orElseThrow(() -> new IllegalArgumentException("Member not found with id: " + memberId));
-
-                // Check if member is already affected
-                if (crisisAffectedMemberRepository.findByCrisisAndMember(crisis, member).isEmpty()) {
-                    CrisisAffectedMember affectedMember = new CrisisAffectedMember(crisis, member);
-                    affectedMember.setNotes(request.getNotes());
-                    affectedMember.setIsPrimaryContact(request.getIsPrimaryContact() != null ? request.getIsPrimaryContact() : false);
-
-                    CrisisAffectedMember saved = crisisAffectedMemberRepository.save(affectedMember);
-                    addedMembers.add(CrisisAffectedMemberResponse.fromEntity(saved));
-                }
-                // Silently skip members already affected
-            } catch (Exception e) {
+            Member member = members.get(memberId);
+            if (member == null) {
                 // Log error but continue with other members
-                System.err.println("Failed to add member " + memberId + " to crisis " + crisisId + ": " + e.getMessage());
+                log.warn("Failed to add member {} to crisis {}: member not found", memberId, crisisId);
+                continue;
+            }
+            // Silently skip members already affected
+            if (affectedMemberIds.add(memberId)) {
+                CrisisAffectedMember affectedMember = new CrisisAffectedMember(crisis, member);
+                affectedMember.setNotes(request.getNotes());
+                affectedMember.setIsPrimaryContact(request.getIsPrimaryContact() != null ? request.getIsPrimaryContact() : false);
+                toAdd.add(affectedMember);
             }
         }
 
+        List<CrisisAffectedMemberResponse> addedMembers = bulkWriter.saveAll(toAdd).stream()
+            .map(CrisisAffectedMemberResponse::fromEntity)
+            .collect(Collectors.toList());
+
         // Update affected members count
         Long count = crisisAffectedMemberRepository.countByCrisis(crisis);
         crisis.setAffectedMembersCount(count.intValue());
@@ -502,18 +512,12 @@ public class CrisisService {
         }
 
         // Add them to the crisis (avoiding duplicates)
-        List<CrisisAffectedMember> existing = crisisAffectedMemberRepository.findByCrisis(crisis);
-        Set<Long> existingMemberIds = existing.stream()
-            .filter(cam -> cam.getMember() != null) // Filter out orphaned records
-            .map(cam -> cam.getMember().getId())
-            .collect(Collectors.toSet());
-
-        for (Member member : allAffectedMembers) {
-            if (!existingMemberIds.contains(member.getId())) {
-                CrisisAffectedMember affectedMember = new CrisisAffectedMember(crisis, member);
-                crisisAffectedMemberRepository.save(affectedMember);
-            }
-        }
+        Set<Long> existingMemberIds = new HashSet<>(crisisAffectedMemberRepository.findMemberIdsByCrisis(crisis));
+        List<CrisisAffectedMember> toAdd = allAffectedMembers.stream()
+            .filter(member -> !existingMemberIds.contains(member.getId()))
+            .map(member -> new CrisisAffectedMember(crisis, member))
+            .collect(Collectors.toList());
+        bulkWriter.saveAll(toAdd);
 
         // Update affected members count
         Long count = crisisAffectedMemberRepository.countByCrisis(crisis);
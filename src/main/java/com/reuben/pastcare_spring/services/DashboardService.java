@@ -20,13 +20,13 @@ import com.reuben.pastcare_spring.repositories.CareNeedRepository;
 import com.reuben.pastcare_spring.repositories.CounselingSessionRepository;
 import com.reuben.pastcare_spring.repositories.CrisisRepository;
 import com.reuben.pastcare_spring.repositories.DonationRepository;
-import com.reuben.pastcare_spring.repositories.EventRepository;
 import com.reuben.pastcare_spring.repositories.MemberRepository;
 import com.reuben.pastcare_spring.repositories.PrayerRequestRepository;
 import com.reuben.pastcare_spring.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -44,21 +44,25 @@ import java.util.stream.Stream;
 /**
  * Dashboard service providing aggregated data for church management dashboard.
  * All data is real, queried from the database.
+ * Read-only throughout, so it is served by the read replica when one is configured.
  */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class DashboardService {
 
   private final UserRepository userRepository;
   private final MemberRepository memberRepository;
   private final CareNeedRepository careNeedRepository;
-  private final EventRepository eventRepository;
+  private final EventOccurrenceService eventOccurrenceService;
   private final PrayerRequestRepository prayerRequestRepository;
   private final DonationRepository donationRepository;
   private final AttendanceSessionRepository attendanceSessionRepository;
   private final CrisisRepository crisisRepository;
   private final CounselingSessionRepository counselingSessionRepository;
   private final AttendanceAnalyticsService attendanceAnalyticsService;
+  private final MemberEngagementService memberEngagementService;
+  private final MemberRiskService memberRiskService;
   private final FellowshipService fellowshipService;
 
   /**
@@ -100,12 +104,7 @@ public class DashboardService {
     // Get events count for this week (from today to end of week)
     LocalDateTime now = LocalDateTime.now();
     LocalDateTime endOfWeek = now.toLocalDate().plusDays(7 - now.getDayOfWeek().getValue()).atTime(23, 59, 59);
-    List<Event> eventsThisWeekList = eventRepository.findEventsByDateRange(
-        user.getChurch().getId(),
-        now,
-        endOfWeek
-    );
-    int eventsThisWeek = eventsThisWeekList.size();
+    int eventsThisWeek = (int) eventOccurrenceService.countUpcoming(user.getChurch().getId(), now, endOfWeek);
 
     // Get prayer requests count (PENDING + ACTIVE statuses)
     List<PrayerRequestStatus> activeStatuses = Arrays.asList(
@@ -208,18 +207,19 @@ public class DashboardService {
       return new ArrayList<>();
     }
 
-    // Get upcoming events (not cancelled, future events only)
-    PageRequest pageRequest = PageRequest.of(0, 10);
-    List<Event> upcomingEvents = eventRepository.findUpcomingEvents(
+    // Get upcoming events (not cancelled, future events only, recurring occurrences expanded)
+    LocalDateTime now = LocalDateTime.now();
+    List<Event> upcomingEvents = eventOccurrenceService.findUpcoming(
         user.getChurch().getId(),
-        LocalDateTime.now(),
-        pageRequest
-    ).getContent();
+        now,
+        EventOccurrenceService.defaultTo(now.toLocalDate()),
+        10
+    );
 
-    // Map to response DTOs
+    // Map to response DTOs (an occurrence without its own row links to its series)
     return upcomingEvents.stream()
         .map(event -> new UpcomingEventResponse(
-            event.getId(),
+            event.getId() != null ? event.getId() : event.getParentEvent().getId(),
             event.getName(),
             event.getDescription(),
             event.getStartDate(),
@@ -484,7 +484,24 @@ public class DashboardService {
       return new ArrayList<>();
     }
 
-    return memberRepository.findIrregularAttenders(user.getChurch(), 3); // 3 weeks threshold
+    return memberEngagementService.getIrregularAttenders(user.getChurch().getId(), 3); // 3 weeks threshold
+  }
+
+  /**
+   * Get the highest-risk members from the nightly pastoral-risk snapshot.
+   *
+   * @param userId Current user ID from JWT
+   * @return Top 10 members by risk score
+   */
+  public List<MemberRiskResponse> getAtRiskMembers(Long userId) {
+    User user = userRepository.findById(userId)
+        .orElseThrow(() -> new RuntimeException("User not found"));
+
+    if (user.getChurch() == null) {
+      return new ArrayList<>();
+    }
+
+    return memberRiskService.getTopRisks(user.getChurch().getId(), 10);
   }
 
   /**
@@ -562,17 +579,8 @@ public class DashboardService {
       return new ArrayList<>();
     }
 
-    LocalDate start = LocalDate.now().minusDays(90); // Last 90 days
-    LocalDate end = LocalDate.now();
-
-    List<MemberEngagementResponse> allEngagement = attendanceAnalyticsService.getMemberEngagement(
-        user.getChurch().getId(), start, end);
-
-    // Return top 10 by sessions attended
-    return allEngagement.stream()
-        .sorted((a, b) -> Long.compare(b.sessionsAttended(), a.sessionsAttended()))
-        .limit(10)
-        .toList();
+    // Top 10 by sessions attended in the last 90 days, read from precomputed engagement
+    return memberEngagementService.getTopActiveMembers(user.getChurch().getId());
   }
 
   /**
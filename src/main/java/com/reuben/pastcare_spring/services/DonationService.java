@@ -2,7 +2,13 @@ package com.reuben.pastcare_spring.services;
 
 import com.reuben.pastcare_spring.dtos.DonationRequest;
 import com.reuben.pastcare_spring.dtos.DonationResponse;
+import com.reuben.pastcare_spring.dtos.DailyGivingTotal;
 import com.reuben.pastcare_spring.dtos.DonationSummaryResponse;
+import com.reuben.pastcare_spring.dtos.DonationSummaryStats;
+import com.reuben.pastcare_spring.dtos.GivingBucketResponse;
+import com.reuben.pastcare_spring.dtos.GivingTrendResponse;
+import com.reuben.pastcare_spring.dtos.GivingTypeTotal;
+import com.reuben.pastcare_spring.enums.GivingInterval;
 import com.reuben.pastcare_spring.models.*;
 import com.reuben.pastcare_spring.repositories.*;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +18,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -23,10 +34,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DonationService {
 
+  /**
+   * Most buckets a giving trend may have (about 3 years of days)
+   */
+  static final int MAX_TREND_BUCKETS = 1100;
+
   private final DonationRepository donationRepository;
   private final MemberRepository memberRepository;
   private final UserRepository userRepository;
   private final ChurchRepository churchRepository;
+  private final CampaignRepository campaignRepository;
+  private final CampaignProgressLedger campaignProgressLedger;
   private final TenantValidationService tenantValidationService;
 
   /**
@@ -70,6 +88,7 @@ public class DonationService {
     donation.setRecordedBy(user);
 
     updateDonationFromRequest(donation, request);
+    campaignProgressLedger.recordChange(CampaignProgressLedger.Share.NONE, CampaignProgressLedger.share(donation));
 
     Donation saved = donationRepository.save(donation);
     return DonationResponse.fromEntity(saved);
@@ -86,9 +105,11 @@ public class DonationService {
     // CRITICAL SECURITY: Validate donation belongs to current church
     tenantValidationService.validateDonationAccess(donation);
 
+    CampaignProgressLedger.Share before = CampaignProgressLedger.share(donation);
     updateDonationFromRequest(donation, request);
 
     Donation updated = donationRepository.save(donation);
+    campaignProgressLedger.recordChange(before, CampaignProgressLedger.share(updated));
     return DonationResponse.fromEntity(updated);
   }
 
@@ -103,7 +124,9 @@ public class DonationService {
     // CRITICAL SECURITY: Validate donation belongs to current church
     tenantValidationService.validateDonationAccess(donation);
 
+    CampaignProgressLedger.Share before = CampaignProgressLedger.share(donation);
     donationRepository.delete(donation);
+    campaignProgressLedger.recordChange(before, CampaignProgressLedger.Share.NONE);
   }
 
   /**
@@ -158,115 +181,128 @@ public class DonationService {
   }
 
   /**
-   * Get donation summary for a church
+   * Get donation summary
    */
+  @Transactional(readOnly = true)
   public DonationSummaryResponse getDonationSummary(Long churchId) {
-    Church church = churchRepository.findById(churchId)
-        .orElseThrow(() -> new IllegalArgumentException("Church not found with id: " + churchId));
+    requireChurch(churchId);
+    return toSummaryResponse(donationRepository.getSummaryStats(churchId));
+  }
 
-    List<Donation> allDonations = donationRepository.findByChurch(church);
+  /**
+   * Get donation summary by date range
+   */
+  @Transactional(readOnly = true)
+  public DonationSummaryResponse getDonationSummaryByDateRange(Long churchId, LocalDate startDate, LocalDate endDate) {
+    requireChurch(churchId);
+    return toSummaryResponse(donationRepository.getSummaryStatsByDateRange(churchId, startDate, endDate));
+  }
 
-    if (allDonations.isEmpty()) {
-      return new DonationSummaryResponse(
-          BigDecimal.ZERO, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0L, 0L
-      );
+  /**
+   * Giving totals per day, week or month in a date range, each split by donation type.
+   * One grouped query returns a row per day and type; the days are then rolled up into buckets,
+   * so the work in memory depends on the length of the range, not the number of donations.
+   */
+  @Transactional(readOnly = true)
+  public GivingTrendResponse getGivingTrend(Long churchId, LocalDate startDate, LocalDate endDate, GivingInterval interval) {
+    validateRange(startDate, endDate);
+
+    // Reject oversized ranges before querying
+    List<LocalDate> bucketStarts = new ArrayList<>();
+    for (LocalDate start = interval.bucketStart(startDate); !start.isAfter(endDate); start = interval.nextBucketStart(start)) {
+      bucketStarts.add(start);
+      if (bucketStarts.size() > MAX_TREND_BUCKETS) {
+        throw new IllegalArgumentException("Date range has more than " + MAX_TREND_BUCKETS + " "
+            + interval.name().toLowerCase() + " buckets; use a longer interval");
+      }
     }
 
-    BigDecimal totalAmount = allDonations.stream()
-        .map(Donation::getAmount)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    long donationCount = allDonations.size();
-
-    BigDecimal averageDonation = totalAmount.divide(
-        BigDecimal.valueOf(donationCount), 2, RoundingMode.HALF_UP
-    );
-
-    BigDecimal largestDonation = allDonations.stream()
-        .map(Donation::getAmount)
-        .max(BigDecimal::compareTo)
-        .orElse(BigDecimal.ZERO);
-
-    BigDecimal smallestDonation = allDonations.stream()
-        .map(Donation::getAmount)
-        .min(BigDecimal::compareTo)
-        .orElse(BigDecimal.ZERO);
+    requireChurch(churchId);
+    List<DailyGivingTotal> days = donationRepository.getDailyTotalsByType(churchId, startDate, endDate);
 
-    long uniqueDonors = allDonations.stream()
-        .filter(d -> d.getMember() != null)
-        .map(Donation::getMember)
-        .distinct()
-        .count();
+    Map<LocalDate, Map<DonationType, GivingTypeTotal>> byBucket = new HashMap<>();
+    Map<DonationType, GivingTypeTotal> overall = new EnumMap<>(DonationType.class);
+    for (DailyGivingTotal day : days) {
+      GivingTypeTotal total = new GivingTypeTotal(day.donationType(), day.totalAmount(), day.donationCount());
+      byBucket.computeIfAbsent(interval.bucketStart(day.donationDate()), start -> new EnumMap<>(DonationType.class))
+          .merge(day.donationType(), total, DonationService::addTotals);
+      overall.merge(day.donationType(), total, DonationService::addTotals);
+    }
 
-    long anonymousDonations = allDonations.stream()
-        .filter(Donation::getIsAnonymous)
-        .count();
+    List<GivingBucketResponse> buckets = new ArrayList<>(bucketStarts.size());
+    for (LocalDate start : bucketStarts) {
+      LocalDate periodStart = start.isBefore(startDate) ? startDate : start;
+      LocalDate next = interval.nextBucketStart(start).minusDays(1);
+      LocalDate periodEnd = next.isAfter(endDate) ? endDate : next;
+      List<GivingTypeTotal> types = sortedByAmount(byBucket.getOrDefault(start, Map.of()));
+      buckets.add(new GivingBucketResponse(periodStart, periodEnd, sumAmounts(types), sumCounts(types), types));
+    }
 
-    return new DonationSummaryResponse(
-        totalAmount,
-        donationCount,
-        averageDonation,
-        largestDonation,
-        smallestDonation,
-        uniqueDonors,
-        anonymousDonations
-    );
+    List<GivingTypeTotal> types = sortedByAmount(overall);
+    return new GivingTrendResponse(interval, startDate, endDate, sumAmounts(types), sumCounts(types), types, buckets);
   }
 
   /**
-   * Get donation summary by date range
+   * Giving totals per donation type in a date range, largest first
    */
-  public DonationSummaryResponse getDonationSummaryByDateRange(Long churchId, LocalDate startDate, LocalDate endDate) {
-    Church church = churchRepository.findById(churchId)
-        .orElseThrow(() -> new IllegalArgumentException("Church not found with id: " + churchId));
+  @Transactional(readOnly = true)
+  public List<GivingTypeTotal> getGivingByType(Long churchId, LocalDate startDate, LocalDate endDate) {
+    validateRange(startDate, endDate);
+    requireChurch(churchId);
+    return donationRepository.getTotalsByType(churchId, startDate, endDate);
+  }
 
-    List<Donation> donations = donationRepository.findByChurchAndDateRange(church, startDate, endDate);
+  private void requireChurch(Long churchId) {
+    if (!churchRepository.existsById(churchId)) {
+      throw new IllegalArgumentException("Church not found with id: " + churchId);
+    }
+  }
+
+  private static void validateRange(LocalDate startDate, LocalDate endDate) {
+    if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+      throw new IllegalArgumentException("startDate must be on or before endDate");
+    }
+  }
 
-    if (donations.isEmpty()) {
+  private static DonationSummaryResponse toSummaryResponse(DonationSummaryStats stats) {
+    if (stats == null || stats.donationCount() == null || stats.donationCount() == 0) {
       return new DonationSummaryResponse(
           BigDecimal.ZERO, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0L, 0L
       );
     }
 
-    BigDecimal totalAmount = donations.stream()
-        .map(Donation::getAmount)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    long donationCount = donations.size();
-
-    BigDecimal averageDonation = totalAmount.divide(
-        BigDecimal.valueOf(donationCount), 2, RoundingMode.HALF_UP
+    BigDecimal averageDonation = stats.totalAmount().divide(
+        BigDecimal.valueOf(stats.donationCount()), 2, RoundingMode.HALF_UP
     );
 
-    BigDecimal largestDonation = donations.stream()
-        .map(Donation::getAmount)
-        .max(BigDecimal::compareTo)
-        .orElse(BigDecimal.ZERO);
+    return new DonationSummaryResponse(
+        stats.totalAmount(),
+        stats.donationCount(),
+        averageDonation,
+        stats.largestDonation(),
+        stats.smallestDonation(),
+        stats.uniqueDonors(),
+        stats.anonymousDonations() != null ? stats.anonymousDonations() : 0L
+    );
+  }
 
-    BigDecimal smallestDonation = donations.stream()
-        .map(Donation::getAmount)
-        .min(BigDecimal::compareTo)
-        .orElse(BigDecimal.ZERO);
+  private static GivingTypeTotal addTotals(GivingTypeTotal a, GivingTypeTotal b) {
+    return new GivingTypeTotal(a.donationType(), a.totalAmount().add(b.totalAmount()), a.donationCount() + b.donationCount());
+  }
 
-    long uniqueDonors = donations.stream()
-        .filter(d -> d.getMember() != null)
-        .map(Donation::getMember)
-        .distinct()
-        .count();
+  private static List<GivingTypeTotal> sortedByAmount(Map<DonationType, GivingTypeTotal> totals) {
+    return totals.values().stream()
+        .sorted(Comparator.comparing(GivingTypeTotal::totalAmount).reversed()
+            .thenComparing(GivingTypeTotal::donationType))
+        .toList();
+  }
 
-    long anonymousDonations = donations.stream()
-        .filter(Donation::getIsAnonymous)
-        .count();
+  private static BigDecimal sumAmounts(List<GivingTypeTotal> totals) {
+    return totals.stream().map(GivingTypeTotal::totalAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
 
-    return new DonationSummaryResponse(
-        totalAmount,
-        donationCount,
-        averageDonation,
-        largestDonation,
-        smallestDonation,
-        uniqueDonors,
-        anonymousDonations
-    );
+  private static long sumCounts(List<GivingTypeTotal> totals) {
+    return totals.stream().mapToLong(GivingTypeTotal::donationCount).sum();
   }
 
   /**
@@ -308,6 +344,13 @@ public class DonationService {
     donation.setReferenceNumber(request.referenceNumber());
     donation.setNotes(request.notes());
     donation.setCampaign(request.campaign());
+    if (request.campaignId() != null) {
+      Campaign campaign = campaignRepository.findByIdAndChurch(request.campaignId(), donation.getChurch())
+          .orElseThrow(() -> new IllegalArgumentException("Campaign not found with id: " + request.campaignId()));
+      donation.setCampaignEntity(campaign);
+    } else {
+      donation.setCampaignEntity(null);
+    }
     donation.setCurrency(request.currency());
   }
 }
@@ -0,0 +1,244 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.email.MailDeliveryException;
+import com.reuben.pastcare_spring.email.MailMessage;
+import com.reuben.pastcare_spring.email.SmtpMailer;
+import com.reuben.pastcare_spring.models.EmailOutboxMessage;
+import com.reuben.pastcare_spring.models.EmailOutboxStatus;
+import com.reuben.pastcare_spring.repositories.EmailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Worker queue that sends the email outbox.
+ *
+ * <p>Due messages are claimed in pages by a {@link LeaseQueueDrainer} and sent on its worker pool
+ * through {@link SmtpMailer}, which reuses connections and holds each provider to its connection
+ * and rate limits:
+ * <ul>
+ *   <li>the page's deliveries are recorded in one statement</li>
+ *   <li>a temporary failure (4xx reply, connection error) is retried with exponential backoff,
+ *       up to {@code max-attempts}; a permanent rejection (5xx reply) fails the message at once</li>
+ * </ul>
+ *
+ * A drain starts when a message is committed ({@link #wakeUp}) and on a fixed poll, which
+ * picks up retries and lapsed claims. A message whose send outlives its lease may go out
+ * twice, so the lease must comfortably exceed the time to send a page at the provider's rate.
+ */
+@Service
+@Slf4j
+public class EmailOutboxProcessor {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final SmtpMailer mailer;
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final Duration retention;
+    private final LeaseQueueDrainer<EmailOutboxMessage, Attempt, EmailOutboxStatus> drainer;
+
+    public EmailOutboxProcessor(
+            EmailOutboxRepository outboxRepository,
+            SmtpMailer mailer,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.email.outbox.workers:8}") int workerCount,
+            @Value("${app.email.outbox.page-size:200}") int pageSize,
+            @Value("${app.email.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${app.email.outbox.lease-minutes:10}") int leaseMinutes,
+            @Value("${app.email.outbox.retry-delay-seconds:60}") int retryDelaySeconds,
+            @Value("${app.email.outbox.max-retry-delay-minutes:120}") int maxRetryDelayMinutes,
+            @Value("${app.email.outbox.retention-days:30}") int retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.mailer = mailer;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelay = Duration.ofSeconds(Math.max(1, retryDelaySeconds));
+        this.maxRetryDelay = Duration.ofMinutes(Math.max(1, maxRetryDelayMinutes));
+        this.retention = Duration.ofDays(Math.max(1, retentionDays));
+        this.drainer = new LeaseQueueDrainer<>("email-outbox", new OutboxQueue(), transaction,
+            workerCount, pageSize, Duration.ofMinutes(Math.max(1, leaseMinutes)));
+    }
+
+    /**
+     * Result of a drain. Retried messages failed this time and are pending again.
+     */
+    public record DrainReport(int claimed, int sent, int retried, int failed, long elapsedMs) {
+    }
+
+    private record Attempt(Long id, String error, boolean permanent) {
+
+        boolean delivered() {
+            return error == null;
+        }
+    }
+
+    private class OutboxQueue implements LeaseQueueDrainer.Queue<EmailOutboxMessage, Attempt, EmailOutboxStatus> {
+
+        @Override
+        public List<Long> findReady(LocalDateTime now, int limit) {
+            return outboxRepository.findReadyIds(now, PageRequest.of(0, limit));
+        }
+
+        @Override
+        public List<EmailOutboxMessage> claim(List<Long> ids, String owner, LocalDateTime leaseUntil, LocalDateTime now) {
+            outboxRepository.claim(ids, owner, leaseUntil, now);
+            return outboxRepository.findByIdInAndClaimedBy(ids, owner);
+        }
+
+        @Override
+        public Attempt handle(EmailOutboxMessage message, String owner) {
+            return send(message);
+        }
+
+        @Override
+        public List<EmailOutboxStatus> complete(List<Attempt> attempts, String owner) {
+            return recordAttempts(attempts, owner);
+        }
+    }
+
+    /**
+     * Start a drain in the background. Calls while a drain is queued are coalesced, and a
+     * message committed during a running drain queues one more.
+     */
+    public void wakeUp() {
+        drainer.wakeUp();
+    }
+
+    /**
+     * Retries and messages whose claim lapsed are not announced by a new message.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:30000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * Send every due message until none is left, on the calling thread and the worker pool.
+     */
+    public DrainReport drain() {
+        LeaseQueueDrainer.Result<EmailOutboxStatus> result = drainer.drain();
+        DrainReport report = new DrainReport(result.claimed(),
+            result.count(EmailOutboxStatus.SENT),
+            result.count(EmailOutboxStatus.PENDING),
+            result.count(EmailOutboxStatus.FAILED),
+            result.elapsedMs());
+        if (report.claimed() > 0) {
+            log.info("Email outbox: {} claimed, {} sent, {} retried, {} failed in {} ms",
+                report.claimed(), report.sent(), report.retried(), report.failed(), report.elapsedMs());
+        }
+        return report;
+    }
+
+    /**
+     * Delete sent messages older than the retention period.
+     */
+    @Scheduled(cron = "${app.email.outbox.purge-cron:0 15 4 * * *}", zone = "UTC")
+    public int purgeSent() {
+        int deleted = transaction.execute(status -> outboxRepository.deleteSentBefore(LocalDateTime.now().minus(retention)));
+        if (deleted > 0) {
+            log.info("Purged {} sent emails older than {} days", deleted, retention.toDays());
+        }
+        return deleted;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drainer.shutdown();
+    }
+
+    private Attempt send(EmailOutboxMessage message) {
+        try {
+            mailer.send(message.getProvider(), new MailMessage(
+                message.getMessageId(),
+                message.getFromAddress(),
+                message.getToAddress(),
+                message.getSubject(),
+                message.getTextBody(),
+                message.getHtmlBody(),
+                message.getAttachmentName(),
+                message.getAttachment()));
+            return new Attempt(message.getId(), null, false);
+        } catch (MailDeliveryException e) {
+            log.warn("Sending email {} to {} failed: {}", message.getId(), message.getToAddress(), e.getMessage());
+            return new Attempt(message.getId(), e.getMessage(), e.isPermanent());
+        } catch (RuntimeException e) {
+            log.error("Sending email {} to {} failed", message.getId(), message.getToAddress(), e);
+            return new Attempt(message.getId(), e.getClass().getSimpleName() + ": " + e.getMessage(), false);
+        }
+    }
+
+    /**
+     * Record a page's deliveries in one statement and each failure on its own.
+     */
+    private List<EmailOutboxStatus> recordAttempts(List<Attempt> attempts, String owner) {
+        List<Long> delivered = new ArrayList<>(attempts.size());
+        List<EmailOutboxStatus> outcomes = new ArrayList<>(attempts.size());
+        for (Attempt attempt : attempts) {
+            if (attempt.delivered()) {
+                delivered.add(attempt.id());
+            } else {
+                outcomes.add(recordFailure(attempt, owner));
+            }
+        }
+        if (!delivered.isEmpty()) {
+            int marked = transaction.execute(status -> outboxRepository.markSent(delivered, owner, LocalDateTime.now()));
+            if (marked < delivered.size()) {
+                log.warn("Claim on {} sent emails lapsed before they were recorded; they may be sent again",
+                    delivered.size() - marked);
+            }
+            outcomes.addAll(Collections.nCopies(marked, EmailOutboxStatus.SENT));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Write the error and release the claim. A failed attempt becomes due again after a backoff
+     * of retry-delay * 2^(attempts - 1), capped, until max-attempts.
+     */
+    private EmailOutboxStatus recordFailure(Attempt attempt, String owner) {
+        return transaction.execute(status -> {
+            EmailOutboxMessage message = outboxRepository.findById(attempt.id()).orElseThrow();
+            if (!owner.equals(message.getClaimedBy())) {
+                log.warn("Claim on email {} lapsed before its failure was recorded", message.getId());
+                return EmailOutboxStatus.PENDING;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setClaimedBy(null);
+            message.setLastError(truncate(attempt.error()));
+
+            if (attempt.permanent() || attempts >= maxAttempts) {
+                log.error("Giving up on email {} to {} after {} attempts: {}",
+                    message.getId(), message.getToAddress(), attempts, attempt.error());
+                message.setStatus(EmailOutboxStatus.FAILED);
+                message.setNextAttemptAt(now);
+            } else {
+                Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+                message.setNextAttemptAt(now.plus(delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay));
+            }
+            outboxRepository.save(message);
+            return message.getStatus();
+        });
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
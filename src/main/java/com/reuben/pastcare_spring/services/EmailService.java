@@ -1,32 +1,46 @@
 package com.reuben.pastcare_spring.services;
 
+import com.reuben.pastcare_spring.models.EmailOutboxMessage;
+import com.reuben.pastcare_spring.repositories.EmailOutboxRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Email service for sending emails
  *
- * IMPLEMENTATION OPTIONS:
- * 1. SMTP (JavaMail): For self-hosted or basic email
- * 2. SendGrid: Popular, reliable, good free tier
- * 3. AWS SES: Cost-effective for high volume
- * 4. Mailgun: Developer-friendly API
- * 5. Postmark: Great for transactional emails
+ * Messages are not sent inline: each one is written to the email outbox (joining the caller's
+ * transaction, so it is only sent if that commits) and {@link EmailOutboxProcessor} delivers it
+ * through the configured SMTP provider (app.email.smtp.*), retrying temporary failures.
  *
- * Current: Logging mode (for development)
- * Production: Configure spring.mail.* properties or integrate email provider SDK
+ * When app.email.enabled is false, messages are only logged (development).
  */
 @Service
 @Slf4j
 public class EmailService {
 
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailOutboxProcessor outboxProcessor;
+
     @Value("${app.email.enabled:false}")
     private boolean emailEnabled;
 
     @Value("${app.email.from:noreply@pastcare.com}")
     private String fromEmail;
 
+    @Value("${app.email.provider:default}")
+    private String provider;
+
+    public EmailService(EmailOutboxRepository outboxRepository, EmailOutboxProcessor outboxProcessor) {
+        this.outboxRepository = outboxRepository;
+        this.outboxProcessor = outboxProcessor;
+    }
+
     /**
      * Send plain text email to recipient
      *
@@ -42,21 +56,10 @@ public class EmailService {
             return;
         }
 
-        try {
-            // TODO: Implement actual email sending
-            // Example with Spring Boot Mail:
-            // SimpleMailMessage message = new SimpleMailMessage();
-            // message.setFrom(fromEmail);
-            // message.setTo(to);
-            // message.setSubject(subject);
-            // message.setText(body);
-            // mailSender.send(message);
-
-            log.info("✅ Email sent successfully to: {}", to);
-        } catch (Exception e) {
-            log.error("❌ Failed to send email to: {}", to, e);
-            throw new RuntimeException("Failed to send email", e);
-        }
+        enqueue(EmailOutboxMessage.builder()
+            .toAddress(to)
+            .subject(subject)
+            .textBody(body));
     }
 
     /**
@@ -86,22 +89,11 @@ public class EmailService {
             return;
         }
 
-        try {
-            // TODO: Implement HTML email sending
-            // Example with Spring Boot Mail:
-            // MimeMessage message = mailSender.createMimeMessage();
-            // MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            // helper.setFrom(fromEmail);
-            // helper.setTo(to);
-            // helper.setSubject(subject);
-            // helper.setText(textBody != null ? textBody : "", htmlBody);
-            // mailSender.send(message);
-
-            log.info("✅ HTML email sent successfully to: {}", to);
-        } catch (Exception e) {
-            log.error("❌ Failed to send HTML email to: {}", to, e);
-            throw new RuntimeException("Failed to send HTML email", e);
-        }
+        enqueue(EmailOutboxMessage.builder()
+            .toAddress(to)
+            .subject(subject)
+            .htmlBody(htmlBody)
+            .textBody(textBody));
     }
 
     /**
@@ -120,23 +112,12 @@ public class EmailService {
             return;
         }
 
-        try {
-            // TODO: Implement email with attachment
-            // Example with Spring Boot Mail:
-            // MimeMessage message = mailSender.createMimeMessage();
-            // MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            // helper.setFrom(fromEmail);
-            // helper.setTo(to);
-            // helper.setSubject(subject);
-            // helper.setText(body);
-            // helper.addAttachment(attachmentName, new ByteArrayResource(attachment));
-            // mailSender.send(message);
-
-            log.info("✅ Email with attachment sent successfully to: {}", to);
-        } catch (Exception e) {
-            log.error("❌ Failed to send email with attachment to: {}", to, e);
-            throw new RuntimeException("Failed to send email with attachment", e);
-        }
+        enqueue(EmailOutboxMessage.builder()
+            .toAddress(to)
+            .subject(subject)
+            .textBody(body)
+            .attachment(attachment)
+            .attachmentName(attachmentName));
     }
 
     /**
@@ -145,4 +126,36 @@ public class EmailService {
     public boolean isEmailEnabled() {
         return emailEnabled;
     }
+
+    /**
+     * Write the message to the outbox and wake the processor once it is committed. Inside a
+     * transaction the message is part of it: rolled back with it, and sent only after commit.
+     */
+    private void enqueue(EmailOutboxMessage.EmailOutboxMessageBuilder builder) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutboxMessage message = outboxRepository.save(builder
+            .provider(provider)
+            .messageId(UUID.randomUUID() + "@" + domainOf(fromEmail))
+            .fromAddress(fromEmail)
+            .createdAt(now)
+            .nextAttemptAt(now)
+            .build());
+        log.debug("Queued email {} to {}", message.getId(), message.getToAddress());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxProcessor.wakeUp();
+                }
+            });
+        } else {
+            outboxProcessor.wakeUp();
+        }
+    }
+
+    private static String domainOf(String address) {
+        int at = address.lastIndexOf('@');
+        return at >= 0 && at < address.length() - 1 ? address.substring(at + 1) : "localhost";
+    }
 }
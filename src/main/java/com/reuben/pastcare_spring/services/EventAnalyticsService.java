@@ -26,6 +26,7 @@ public class EventAnalyticsService {
 
     private final EventRepository eventRepository;
     private final EventRegistrationRepository registrationRepository;
+    private final EventOccurrenceService occurrenceService;
 
     /**
      * Get comprehensive event statistics for a church
@@ -42,7 +43,8 @@ public class EventAnalyticsService {
         stats.put("totalEvents", totalEvents);
 
         // Upcoming events
-        long upcomingEvents = eventRepository.countUpcomingEvents(churchId, now);
+        long upcomingEvents = occurrenceService.countUpcoming(churchId, now,
+            EventOccurrenceService.defaultTo(now.toLocalDate()));
         stats.put("upcomingEvents", upcomingEvents);
 
         // Past events
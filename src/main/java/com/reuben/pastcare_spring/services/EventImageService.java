@@ -59,7 +59,7 @@ public class EventImageService {
         }
 
         // Upload image
-        String imageUrl = imageService.uploadEventImage(file, null);
+        String imageUrl = imageService.uploadEventImage(file);
 
         // If this is set as cover image, clear existing cover image
         if (Boolean.TRUE.equals(isCoverImage)) {
@@ -142,10 +142,8 @@ public class EventImageService {
             throw new RuntimeException("Unauthorized access to event image");
         }
 
-        // Delete image file
-        imageService.deleteImage(eventImage.getImageUrl());
-
-        // Delete database record
+        // Delete database record; the file may be shared, so the
+        // unreferenced image cleanup removes it once nothing uses it
         eventImageRepository.delete(eventImage);
     }
 
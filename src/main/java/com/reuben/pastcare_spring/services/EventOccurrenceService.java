@@ -0,0 +1,540 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.dtos.EventOccurrenceRequest;
+import com.reuben.pastcare_spring.dtos.EventOccurrenceResponse;
+import com.reuben.pastcare_spring.metrics.CacheMetrics;
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.models.EventOccurrenceException;
+import com.reuben.pastcare_spring.repositories.EventOccurrenceExceptionRepository;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import com.reuben.pastcare_spring.security.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recurrence engine for recurring events.
+ *
+ * <ul>
+ *   <li>A recurring event is stored as its rule (the series row) plus per-occurrence
+ *       exceptions (cancelled or rescheduled occurrences)</li>
+ *   <li>Calendar, search and iCal reads expand occurrences inside the requested window;
+ *       expansions are kept in a bounded LRU cache keyed by the series version</li>
+ *   <li>An occurrence becomes a child event row only when it is needed as one, i.e.
+ *       someone registers or checks in ({@link #materialize})</li>
+ * </ul>
+ *
+ * The first occurrence of a series is the series row itself.
+ */
+@Service
+@Slf4j
+public class EventOccurrenceService {
+
+    /**
+     * Longest window a single read may expand (covers the default feed window).
+     */
+    public static final Duration MAX_WINDOW = Duration.ofDays(3 * 366);
+
+    /**
+     * Occurrences returned per series and window (a daily series over the longest window fits).
+     */
+    public static final int MAX_OCCURRENCES_PER_SERIES = 1200;
+
+    private final EventRepository eventRepository;
+    private final EventOccurrenceExceptionRepository exceptionRepository;
+    private final TransactionTemplate materializeTransaction;
+    private final Map<ExpansionKey, List<Occurrence>> cache;
+    private final CacheMetrics cacheMetrics = new CacheMetrics("event-occurrences");
+
+    public EventOccurrenceService(
+            EventRepository eventRepository,
+            EventOccurrenceExceptionRepository exceptionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.events.occurrence-cache.max-entries:2000}") int maxEntries) {
+        this.eventRepository = eventRepository;
+        this.exceptionRepository = exceptionRepository;
+        this.materializeTransaction = new TransactionTemplate(transactionManager);
+        this.materializeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ExpansionKey, List<Occurrence>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * One expanded occurrence, with exceptions applied.
+     *
+     * @param occurrenceStart Rule start time (identifies the occurrence)
+     */
+    public record Occurrence(LocalDateTime occurrenceStart, LocalDateTime startDate, LocalDateTime endDate,
+                             boolean cancelled) {
+    }
+
+    /**
+     * An expanded occurrence that has no child row, with its series.
+     */
+    public record VirtualOccurrence(Event series, Occurrence occurrence) {
+    }
+
+    // The series' updatedAt is part of the key, so an edit on any instance makes old entries unreachable
+    private record ExpansionKey(Long seriesId, LocalDateTime version, LocalDateTime from, LocalDateTime to) {
+    }
+
+    /**
+     * Calendar and search read: single events, materialized occurrences and expanded
+     * occurrences overlapping {@code [from, to)}, in start order.
+     *
+     * @param searchTerm Optional name/description filter
+     */
+    @Transactional(readOnly = true)
+    public List<EventOccurrenceResponse> findOccurrences(LocalDateTime from, LocalDateTime to, String searchTerm) {
+        validateWindow(from, to);
+        Long churchId = TenantContext.getCurrentChurchId();
+        String search = searchTerm != null && !searchTerm.isBlank() ? searchTerm.trim() : null;
+
+        List<EventOccurrenceResponse> result = new ArrayList<>();
+        for (Event event : eventRepository.findSingleEventsInWindow(churchId, from, to, false, search)) {
+            result.add(EventOccurrenceResponse.fromEvent(event));
+        }
+        for (VirtualOccurrence virtual : expandVirtual(
+                eventRepository.findSeriesInWindow(churchId, from.toLocalDate(), to, false, search), from, to)) {
+            Occurrence o = virtual.occurrence();
+            result.add(EventOccurrenceResponse.fromOccurrence(
+                virtual.series(), o.occurrenceStart(), o.startDate(), o.endDate(), o.cancelled()));
+        }
+        result.sort(Comparator.comparing(EventOccurrenceResponse::startDate));
+        return result;
+    }
+
+    /**
+     * Occurrences of a church's series overlapping a window that have no child row,
+     * for the iCal feed and embed (single events and children are streamed from the table).
+     */
+    @Transactional(readOnly = true)
+    public List<VirtualOccurrence> findVirtualOccurrences(Long churchId, LocalDateTime from, LocalDateTime to,
+                                                          boolean publicOnly) {
+        validateWindow(from, to);
+        return expandVirtual(eventRepository.findSeriesInWindow(churchId, from.toLocalDate(), to, publicOnly, null),
+            from, to);
+    }
+
+    /**
+     * Events starting in {@code (now, to)}, soonest first, at most {@code limit}: single events
+     * and materialized occurrences from the table, the rest expanded from their series.
+     * Cancelled occurrences are left out.
+     *
+     * <p>A series' first occurrence is the series row itself; other occurrences without a
+     * child row are returned as their child row would be built, unsaved and with no ID.
+     */
+    @Transactional(readOnly = true)
+    public List<Event> findUpcoming(Long churchId, LocalDateTime now, LocalDateTime to, int limit) {
+        List<Event> result = new ArrayList<>(
+            eventRepository.findUpcomingSingleEvents(churchId, now, to, PageRequest.of(0, limit)));
+        for (VirtualOccurrence virtual : findUpcomingVirtual(churchId, now, to)) {
+            Event series = virtual.series();
+            result.add(virtual.occurrence().occurrenceStart().equals(series.getStartDate())
+                ? series : buildOccurrence(series, virtual.occurrence()));
+        }
+        result.sort(Comparator.comparing(Event::getStartDate));
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Number of events {@link #findUpcoming} would return without a limit.
+     */
+    @Transactional(readOnly = true)
+    public long countUpcoming(Long churchId, LocalDateTime now, LocalDateTime to) {
+        return eventRepository.countUpcomingSingleEvents(churchId, now, to)
+            + findUpcomingVirtual(churchId, now, to).size();
+    }
+
+    // Expanded over whole days so repeated reads within a day share cache entries
+    private List<VirtualOccurrence> findUpcomingVirtual(Long churchId, LocalDateTime now, LocalDateTime to) {
+        LocalDateTime from = now.toLocalDate().atStartOfDay();
+        LocalDateTime until = to.toLocalDate().plusDays(1).atStartOfDay();
+        validateWindow(from, until);
+        return expandVirtual(eventRepository.findSeriesInWindow(churchId, from.toLocalDate(), until, false, null),
+            from, until).stream()
+            .filter(v -> !v.occurrence().cancelled()
+                && v.occurrence().startDate().isAfter(now) && v.occurrence().startDate().isBefore(to))
+            .toList();
+    }
+
+    /**
+     * Occurrences of one series overlapping a window, at most {@code limit}: materialized
+     * ones as their child rows, the rest expanded. Deleted occurrences are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<EventOccurrenceResponse> findSeriesOccurrences(Long seriesId, LocalDateTime from, LocalDateTime to,
+                                                               int limit) {
+        validateWindow(from, to);
+        Event series = findSeries(TenantContext.getCurrentChurchId(), seriesId);
+
+        Map<LocalDateTime, Event> children = new HashMap<>();
+        for (Event child : eventRepository.findByParentEventId(seriesId)) {
+            if (child.getOccurrenceStart() != null) {
+                children.put(child.getOccurrenceStart(), child);
+            }
+        }
+
+        List<EventOccurrenceResponse> result = new ArrayList<>();
+        for (Occurrence o : expand(series, from, to)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Event child = children.get(o.occurrenceStart());
+            if (child == null) {
+                result.add(EventOccurrenceResponse.fromOccurrence(
+                    series, o.occurrenceStart(), o.startDate(), o.endDate(), o.cancelled()));
+            } else if (child.getDeletedAt() == null) {
+                result.add(EventOccurrenceResponse.fromEvent(child));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Occurrences of one series overlapping a window, exceptions applied (cached).
+     */
+    public List<Occurrence> expand(Event series, LocalDateTime from, LocalDateTime to) {
+        ExpansionKey key = new ExpansionKey(series.getId(), series.getUpdatedAt(), from, to);
+        List<Occurrence> cached = cache.get(key);
+        if (cached != null) {
+            cacheMetrics.hit();
+            return cached;
+        }
+        cacheMetrics.miss();
+
+        List<Occurrence> occurrences = computeOccurrences(series, from, to);
+        cache.put(key, occurrences);
+        return occurrences;
+    }
+
+    private List<Occurrence> computeOccurrences(Event series, LocalDateTime from, LocalDateTime to) {
+        RecurrenceRule rule = RecurrenceRule.of(series);
+        Map<LocalDateTime, EventOccurrenceException> exceptions = new HashMap<>();
+        for (EventOccurrenceException exception : exceptionRepository.findByEventId(series.getId())) {
+            exceptions.put(exception.getOccurrenceStart(), exception);
+        }
+        boolean seriesCancelled = Boolean.TRUE.equals(series.getIsCancelled());
+
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (LocalDateTime start : rule.startsOverlapping(from, to, MAX_OCCURRENCES_PER_SERIES)) {
+            EventOccurrenceException exception = exceptions.get(start);
+            if (exception == null) {
+                occurrences.add(new Occurrence(start, start, start.plus(rule.duration()), seriesCancelled));
+            } else if (!exception.isRescheduled()) {
+                occurrences.add(new Occurrence(start, start, start.plus(rule.duration()),
+                    seriesCancelled || exception.getCancelled()));
+            }
+        }
+
+        // Rescheduled occurrences appear where they were moved to, wherever their rule time falls
+        for (EventOccurrenceException exception : exceptions.values()) {
+            if (!exception.isRescheduled() || !rule.isOccurrence(exception.getOccurrenceStart())) {
+                continue;
+            }
+            Occurrence moved = applyReschedule(rule, exception);
+            if (moved.endDate().isAfter(from) && moved.startDate().isBefore(to)) {
+                occurrences.add(new Occurrence(moved.occurrenceStart(), moved.startDate(), moved.endDate(),
+                    seriesCancelled || exception.getCancelled()));
+            }
+        }
+        occurrences.sort(Comparator.comparing(Occurrence::startDate));
+        return List.copyOf(occurrences);
+    }
+
+    private static Occurrence applyReschedule(RecurrenceRule rule, EventOccurrenceException exception) {
+        LocalDateTime start = exception.getStartDate() != null
+            ? exception.getStartDate() : exception.getOccurrenceStart();
+        LocalDateTime end = exception.getEndDate() != null ? exception.getEndDate() : start.plus(rule.duration());
+        return new Occurrence(exception.getOccurrenceStart(), start, end, false);
+    }
+
+    /**
+     * Expand each series and drop occurrences that have a child row (one query for all series).
+     */
+    private List<VirtualOccurrence> expandVirtual(List<Event> seriesList, LocalDateTime from, LocalDateTime to) {
+        Map<Event, List<Occurrence>> expanded = new LinkedHashMap<>();
+        LocalDateTime earliest = null;
+        LocalDateTime latest = null;
+        for (Event series : seriesList) {
+            List<Occurrence> occurrences = expand(series, from, to);
+            if (occurrences.isEmpty()) {
+                continue;
+            }
+            expanded.put(series, occurrences);
+            for (Occurrence o : occurrences) {
+                earliest = earliest == null || o.occurrenceStart().isBefore(earliest) ? o.occurrenceStart() : earliest;
+                latest = latest == null || o.occurrenceStart().isAfter(latest) ? o.occurrenceStart() : latest;
+            }
+        }
+        if (expanded.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> seriesIds = new HashSet<>();
+        expanded.keySet().forEach(series -> seriesIds.add(series.getId()));
+        Map<Long, Set<LocalDateTime>> materialized = new HashMap<>();
+        for (Object[] row : eventRepository.findMaterializedOccurrences(seriesIds, earliest, latest)) {
+            materialized.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((LocalDateTime) row[1]);
+        }
+
+        List<VirtualOccurrence> virtual = new ArrayList<>();
+        expanded.forEach((series, occurrences) -> {
+            Set<LocalDateTime> children = materialized.getOrDefault(series.getId(), Set.of());
+            for (Occurrence o : occurrences) {
+                if (!children.contains(o.occurrenceStart())) {
+                    virtual.add(new VirtualOccurrence(series, o));
+                }
+            }
+        });
+        return virtual;
+    }
+
+    /**
+     * Get the event row for one occurrence, creating the child row if the occurrence
+     * has none yet. Called when someone registers or checks in.
+     *
+     * <p>Runs in its own transaction so the unique (series, occurrence) index can settle a
+     * race between two first registrations; call it before the caller's transaction reads
+     * events, so the caller sees the committed row.
+     *
+     * @return ID of the event row standing for the occurrence
+     */
+    public Long materialize(Long seriesId, LocalDateTime occurrenceStart) {
+        Long churchId = TenantContext.getCurrentChurchId();
+        try {
+            return materializeTransaction.execute(status -> findOrCreateOccurrence(churchId, seriesId, occurrenceStart));
+        } catch (DataIntegrityViolationException e) {
+            // Another request materialized the same occurrence first
+            log.debug("Occurrence {} of event {} materialized concurrently", occurrenceStart, seriesId);
+            return materializeTransaction.execute(status -> eventRepository
+                .findByParentEventIdAndOccurrenceStart(seriesId, occurrenceStart)
+                .map(Event::getId)
+                .orElseThrow(() -> e));
+        }
+    }
+
+    private Long findOrCreateOccurrence(Long churchId, Long seriesId, LocalDateTime occurrenceStart) {
+        Event series = findSeries(churchId, seriesId);
+        RecurrenceRule rule = RecurrenceRule.of(series);
+        if (!rule.isOccurrence(occurrenceStart)) {
+            throw new IllegalArgumentException("Event " + seriesId + " has no occurrence starting at " + occurrenceStart);
+        }
+        if (occurrenceStart.equals(series.getStartDate())) {
+            return series.getId();
+        }
+
+        Event existing = eventRepository.findByParentEventIdAndOccurrenceStart(seriesId, occurrenceStart).orElse(null);
+        if (existing != null) {
+            if (existing.getDeletedAt() != null) {
+                throw new IllegalStateException("This occurrence has been deleted");
+            }
+            return existing.getId();
+        }
+
+        EventOccurrenceException exception = exceptionRepository
+            .findByEventIdAndOccurrenceStart(seriesId, occurrenceStart).orElse(null);
+        if (Boolean.TRUE.equals(series.getIsCancelled()) || (exception != null && exception.getCancelled())) {
+            throw new IllegalStateException("This occurrence has been cancelled");
+        }
+
+        Occurrence occurrence = exception != null && exception.isRescheduled()
+            ? applyReschedule(rule, exception)
+            : new Occurrence(occurrenceStart, occurrenceStart, occurrenceStart.plus(rule.duration()), false);
+        Event child = eventRepository.saveAndFlush(buildOccurrence(series, occurrence));
+        log.info("Materialized occurrence {} of event {} as event {}", occurrenceStart, seriesId, child.getId());
+        return child.getId();
+    }
+
+    /**
+     * Child row for an occurrence, copied from the series. The registration deadline keeps
+     * its offset from the start.
+     */
+    private Event buildOccurrence(Event series, Occurrence occurrence) {
+        Duration shift = Duration.between(series.getStartDate(), occurrence.startDate());
+        return Event.builder()
+            .church(series.getChurch())
+            .name(series.getName())
+            .description(series.getDescription())
+            .eventType(series.getEventType())
+            .startDate(occurrence.startDate())
+            .endDate(occurrence.endDate())
+            .timezone(series.getTimezone())
+            .locationType(series.getLocationType())
+            .location(series.getLocation())
+            .physicalLocation(series.getPhysicalLocation())
+            .virtualLink(series.getVirtualLink())
+            .virtualPlatform(series.getVirtualPlatform())
+            .requiresRegistration(series.getRequiresRegistration())
+            .registrationDeadline(series.getRegistrationDeadline() != null
+                ? series.getRegistrationDeadline().plus(shift) : null)
+            .maxCapacity(series.getMaxCapacity())
+            .allowWaitlist(series.getAllowWaitlist())
+            .autoApproveRegistrations(series.getAutoApproveRegistrations())
+            .visibility(series.getVisibility())
+            .isRecurring(false) // Occurrences are not themselves recurring
+            .parentEvent(series)
+            .occurrenceStart(occurrence.occurrenceStart())
+            .primaryOrganizer(series.getPrimaryOrganizer())
+            .notes(series.getNotes())
+            .imageUrl(series.getImageUrl())
+            .reminderDaysBefore(series.getReminderDaysBefore())
+            .createdBy(series.getCreatedBy())
+            .updatedBy(series.getUpdatedBy())
+            .build();
+    }
+
+    /**
+     * Transient (never persisted) event for an occurrence without a child row, as the iCal writer expects.
+     */
+    public static Event toTransientEvent(VirtualOccurrence virtual) {
+        Event series = virtual.series();
+        Occurrence o = virtual.occurrence();
+        return Event.builder()
+            .church(series.getChurch())
+            .name(series.getName())
+            .description(series.getDescription())
+            .eventType(series.getEventType())
+            .startDate(o.startDate())
+            .endDate(o.endDate())
+            .locationType(series.getLocationType())
+            .physicalLocation(series.getPhysicalLocation())
+            .virtualLink(series.getVirtualLink())
+            .virtualPlatform(series.getVirtualPlatform())
+            .visibility(series.getVisibility())
+            .parentEvent(series)
+            .occurrenceStart(o.occurrenceStart())
+            .isCancelled(o.cancelled())
+            .build();
+    }
+
+    /**
+     * Cancel or reschedule one occurrence. Applied to its child row too if it has one.
+     */
+    @Transactional
+    public EventOccurrenceResponse updateOccurrence(Long seriesId, EventOccurrenceRequest request) {
+        Long churchId = TenantContext.getCurrentChurchId();
+        Event series = findSeries(churchId, seriesId);
+        RecurrenceRule rule = RecurrenceRule.of(series);
+        LocalDateTime occurrenceStart = request.getOccurrenceStart();
+        if (!rule.isOccurrence(occurrenceStart)) {
+            throw new IllegalArgumentException("Event " + seriesId + " has no occurrence starting at " + occurrenceStart);
+        }
+
+        EventOccurrenceException exception = exceptionRepository
+            .findByEventIdAndOccurrenceStart(seriesId, occurrenceStart)
+            .orElseGet(() -> EventOccurrenceException.builder()
+                .church(series.getChurch())
+                .event(series)
+                .occurrenceStart(occurrenceStart)
+                .build());
+        exception.setCancelled(Boolean.TRUE.equals(request.getCancelled()));
+        exception.setStartDate(request.getStartDate());
+        exception.setEndDate(request.getEndDate());
+        if (exception.getCancelled() || exception.isRescheduled()) {
+            exceptionRepository.save(exception);
+        } else if (exception.getId() != null) {
+            // Back to the rule: nothing left to record
+            exceptionRepository.delete(exception);
+        }
+
+        Occurrence occurrence = applyReschedule(rule, exception);
+        boolean cancelled = exception.getCancelled();
+        eventRepository.findByParentEventIdAndOccurrenceStart(seriesId, occurrenceStart)
+            .filter(child -> child.getDeletedAt() == null)
+            .ifPresent(child -> {
+                child.setStartDate(occurrence.startDate());
+                child.setEndDate(occurrence.endDate());
+                child.setIsCancelled(cancelled);
+                child.setCancelledAt(cancelled ? LocalDateTime.now() : null);
+                eventRepository.save(child);
+            });
+
+        // A new series version invalidates cached expansions and calendar feeds everywhere
+        series.setUpdatedAt(LocalDateTime.now());
+        eventRepository.save(series);
+        invalidate(seriesId);
+
+        log.info("Occurrence {} of event {} {}", occurrenceStart, seriesId,
+            cancelled ? "cancelled" : "rescheduled to " + occurrence.startDate());
+        return EventOccurrenceResponse.fromOccurrence(series, occurrenceStart,
+            occurrence.startDate(), occurrence.endDate(), cancelled);
+    }
+
+    /**
+     * Drop cached expansions of a series. Also re-applied after the current transaction
+     * commits, so a read between this call and the commit can't re-cache old data.
+     */
+    public void invalidate(Long seriesId) {
+        evict(seriesId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(seriesId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long seriesId) {
+        synchronized (cache) {
+            cache.keySet().removeIf(key -> key.seriesId().equals(seriesId));
+        }
+    }
+
+    private Event findSeries(Long churchId, Long seriesId) {
+        Event series = eventRepository.findByIdAndChurchIdAndDeletedAtIsNull(seriesId, churchId)
+            .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+        if (!RecurrenceRule.isSeries(series)) {
+            throw new IllegalArgumentException("Event is not a recurring event");
+        }
+        return series;
+    }
+
+    private static void validateWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new IllegalArgumentException("A window with 'from' before 'to' is required");
+        }
+        if (Duration.between(from, to).compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("Window must not exceed " + MAX_WINDOW.toDays() + " days");
+        }
+    }
+
+    /**
+     * Default series window for reads without one (e.g. an unbounded iCal feed):
+     * a year back and two years ahead, by whole days so it caches for the day.
+     */
+    public static LocalDateTime defaultFrom(LocalDate today) {
+        return today.minusYears(1).atStartOfDay();
+    }
+
+    public static LocalDateTime defaultTo(LocalDate today) {
+        return today.plusYears(2).atStartOfDay();
+    }
+}
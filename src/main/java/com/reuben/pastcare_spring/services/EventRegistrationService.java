@@ -8,6 +8,7 @@ import com.reuben.pastcare_spring.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,17 +34,28 @@ public class EventRegistrationService {
     private final UserRepository userRepository;
     private final QRCodeService qrCodeService;
     private final EmailService emailService;
+    private final EventOccurrenceService occurrenceService;
 
     /**
-     * Register for an event
+     * Waitlist rows fetched per promotion attempt (extra rows absorb concurrent promoters).
+     */
+    private static final int WAITLIST_CLAIM_BATCH = 10;
+
+    /**
+     * Register for an event.
+     * For an occurrence of a recurring event ({@code occurrenceStart} set) the occurrence is
+     * materialized first, before this transaction reads anything, and the registration goes to it.
      */
     @Transactional
     public EventRegistrationResponse registerForEvent(EventRegistrationRequest request, Long userId) {
         Long churchId = TenantContext.getCurrentChurchId();
-        log.info("Registering for event {} in church {}", request.getEventId(), churchId);
+        Long eventId = request.getOccurrenceStart() != null
+            ? occurrenceService.materialize(request.getEventId(), request.getOccurrenceStart())
+            : request.getEventId();
+        log.info("Registering for event {} in church {}", eventId, churchId);
 
         // Get event
-        Event event = eventRepository.findByIdAndChurchIdAndDeletedAtIsNull(request.getEventId(), churchId)
+        Event event = eventRepository.findByIdAndChurchIdAndDeletedAtIsNull(eventId, churchId)
             .orElseThrow(() -> new IllegalArgumentException("Event not found"));
 
         // Validate event is open for registration
@@ -93,27 +105,20 @@ public class EventRegistrationService {
             registration.setStatus(RegistrationStatus.PENDING);
         }
 
-        // Check capacity and waitlist
-        if (event.isAtCapacity()) {
+        // Claim a seat atomically; the conditional update is the authoritative capacity check
+        if (eventRepository.tryReserveSeat(event.getId()) == 0) {
             if (event.getAllowWaitlist()) {
                 registration.setIsOnWaitlist(true);
-                Long currentWaitlistCount = registrationRepository.countWaitlist(event.getId());
-                registration.setWaitlistPosition((int) (currentWaitlistCount + 1));
+                registration.setWaitlistPosition(nextWaitlistPosition(event.getId()));
                 log.info("Added to waitlist at position {}", registration.getWaitlistPosition());
             } else {
                 throw new IllegalStateException("Event is at full capacity and waitlist is not allowed");
             }
         }
 
-        // Save registration
+        // Save registration (rolls the seat reservation back with it on failure)
         registration = registrationRepository.save(registration);
 
-        // Update event registration count if not on waitlist
-        if (!registration.getIsOnWaitlist()) {
-            event.incrementRegistrations();
-            eventRepository.save(event);
-        }
-
         log.info("Registration created with ID: {}", registration.getId());
         return EventRegistrationResponse.fromEntity(registration);
     }
@@ -161,13 +166,18 @@ public class EventRegistrationService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
+        boolean heldSeat = holdsSeat(registration);
         registration.reject(reason, user);
+        registration.setIsOnWaitlist(false);
+        registration.setWaitlistPosition(null);
         registration = registrationRepository.save(registration);
 
-        // Update event registration count
-        Event event = registration.getEvent();
-        event.decrementRegistrations();
-        eventRepository.save(event);
+        // Free the seat and hand it to the next person on the waitlist
+        if (heldSeat) {
+            Long eventId = registration.getEvent().getId();
+            eventRepository.releaseSeat(eventId);
+            promoteFromWaitlistIfNeeded(eventId);
+        }
 
         log.info("Registration {} rejected", registrationId);
         return EventRegistrationResponse.fromEntity(registration);
@@ -209,36 +219,60 @@ public class EventRegistrationService {
     }
 
     /**
-     * Promote from waitlist
+     * Promote from waitlist while seats are available.
+     *
+     * <p>Each promotion reserves a seat with the same conditional update used for
+     * registration, then claims the head of the waitlist with a conditional update
+     * on the registration. Remaining waitlist rows keep their sequence positions,
+     * so nothing is renumbered.
      */
     @Transactional
     public void promoteFromWaitlistIfNeeded(Long eventId) {
-        Event event = eventRepository.findById(eventId)
-            .orElseThrow(() -> new IllegalArgumentException("Event not found"));
-
-        // Check if there's available capacity
-        if (!event.isAtCapacity()) {
-            List<EventRegistration> waitlist = registrationRepository.findWaitlist(eventId);
-
-            if (!waitlist.isEmpty()) {
-                EventRegistration firstInWaitlist = waitlist.get(0);
-                firstInWaitlist.promoteFromWaitlist();
-                registrationRepository.save(firstInWaitlist);
-
-                // Update event count
-                event.incrementRegistrations();
-                eventRepository.save(event);
+        while (eventRepository.tryReserveSeat(eventId) == 1) {
+            Long promotedId = claimNextFromWaitlist(eventId);
+            if (promotedId == null) {
+                // Nobody waiting: give the seat back
+                eventRepository.releaseSeat(eventId);
+                return;
+            }
+            log.info("Promoted registration {} from waitlist for event {}", promotedId, eventId);
+        }
+    }
 
-                // Update positions for remaining waitlist
-                for (int i = 1; i < waitlist.size(); i++) {
-                    EventRegistration reg = waitlist.get(i);
-                    reg.setWaitlistPosition(i);
-                    registrationRepository.save(reg);
+    /**
+     * Claim the first waitlisted registration that no concurrent promoter has taken.
+     *
+     * @return The promoted registration ID, or null if the waitlist is empty
+     */
+    private Long claimNextFromWaitlist(Long eventId) {
+        List<Long> head = registrationRepository.findWaitlistHeadIds(eventId, PageRequest.of(0, WAITLIST_CLAIM_BATCH));
+        while (!head.isEmpty()) {
+            for (Long registrationId : head) {
+                if (registrationRepository.claimFromWaitlist(registrationId, LocalDateTime.now()) == 1) {
+                    return registrationId;
                 }
-
-                log.info("Promoted registration {} from waitlist for event {}", firstInWaitlist.getId(), eventId);
             }
+            head = registrationRepository.findWaitlistHeadIds(eventId, PageRequest.of(0, WAITLIST_CLAIM_BATCH));
         }
+        return null;
+    }
+
+    /**
+     * Draw the next waitlist position from the event's sequence.
+     */
+    private int nextWaitlistPosition(Long eventId) {
+        eventRepository.advanceWaitlistSequence(eventId);
+        return eventRepository.getWaitlistSequence(eventId);
+    }
+
+    /**
+     * Whether a registration currently counts against the event's capacity.
+     */
+    private boolean holdsSeat(EventRegistration registration) {
+        return !registration.getIsCancelled()
+            && !registration.getIsOnWaitlist()
+            && (registration.getStatus() == RegistrationStatus.PENDING
+                || registration.getStatus() == RegistrationStatus.APPROVED);
     }
 
     /**
@@ -419,7 +453,8 @@ public class EventRegistrationService {
 
         body.append("\nRegistration Status: ");
         if (registration.getIsOnWaitlist()) {
-            body.append("On Waitlist (Position #").append(registration.getWaitlistPosition()).append(")\n");
+            long rank = registrationRepository.countWaitlistAhead(event.getId(), registration.getWaitlistPosition()) + 1;
+            body.append("On Waitlist (Position #").append(rank).append(")\n");
             body.append("We'll notify you if a spot becomes available.\n");
         } else if (registration.getStatus() == RegistrationStatus.PENDING) {
             body.append("Pending Approval\n");
@@ -461,19 +496,23 @@ public class EventRegistrationService {
             throw new IllegalStateException("Registration is already cancelled");
         }
 
+        boolean heldSeat = holdsSeat(registration);
+
         // Cancel registration
         registration.setIsCancelled(true);
         registration.setCancellationReason(reason);
         registration.setCancelledAt(LocalDateTime.now());
-
-        // If approved, decrement event registration count
-        if (registration.getStatus() == RegistrationStatus.APPROVED) {
-            Event event = registration.getEvent();
-            event.decrementRegistrations();
-            eventRepository.save(event);
-        }
+        registration.setIsOnWaitlist(false);
+        registration.setWaitlistPosition(null);
 
         registration = registrationRepository.save(registration);
+
+        // Free the seat and hand it to the next person on the waitlist
+        if (heldSeat) {
+            Long eventId = registration.getEvent().getId();
+            eventRepository.releaseSeat(eventId);
+            promoteFromWaitlistIfNeeded(eventId);
+        }
         log.info("Registration {} cancelled successfully", registrationId);
 
         return EventRegistrationResponse.fromEntity(registration);
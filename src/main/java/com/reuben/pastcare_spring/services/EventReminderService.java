@@ -1,6 +1,7 @@
 package com.reuben.pastcare_spring.services;
 
 import com.reuben.pastcare_spring.models.*;
+import com.reuben.pastcare_spring.persistence.BulkWriter;
 import com.reuben.pastcare_spring.repositories.*;
 import com.reuben.pastcare_spring.security.TenantContext;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,38 +23,43 @@ import java.util.List;
 @Slf4j
 public class EventReminderService {
 
+    /**
+     * Largest reminderDaysBefore honoured by the scheduler.
+     */
+    static final int MAX_REMINDER_DAYS = 7;
+
     private final EventRepository eventRepository;
+    private final EventOccurrenceService occurrenceService;
     private final EventRegistrationRepository registrationRepository;
     private final MemberRepository memberRepository;
     private final EmailService emailService;
     private final SmsService smsService;
+    private final BulkWriter bulkWriter;
 
     /**
      * Send reminders for upcoming events
      * Called by scheduler to send reminders based on reminderDaysBefore
+     *
+     * Recurring events are expanded, so cancelled or rescheduled occurrences are
+     * honoured. Only occurrences with an event row can have registrations to remind.
      */
     @Transactional
     public void sendScheduledReminders(Long churchId) {
         log.info("Sending scheduled reminders for church {}", churchId);
 
         LocalDateTime now = LocalDateTime.now();
-
-        // Find events that need reminders (1-7 days before, based on reminderDaysBefore)
-        for (int days = 1; days <= 7; days++) {
-            LocalDateTime reminderThreshold = now.plusDays(days);
-            LocalDateTime startRange = reminderThreshold.minusHours(1);
-            LocalDateTime endRange = reminderThreshold.plusHours(1);
-
-            List<Event> events = eventRepository.findEventsNeedingReminders(
-                churchId, now, endRange
-            );
-
-            for (Event event : events) {
-                if (event.getReminderDaysBefore() != null &&
-                    event.getReminderDaysBefore() == days &&
-                    !event.getReminderSent()) {
-                    sendEventReminders(event);
-                }
+        List<Event> events = occurrenceService.findUpcoming(
+            churchId, now, now.plusDays(MAX_REMINDER_DAYS).plusHours(1), Integer.MAX_VALUE
+        );
+
+        // Due once the event is within its reminderDaysBefore (1-7 days, an hour's slack)
+        for (Event event : events) {
+            Integer days = event.getReminderDaysBefore();
+            if (event.getId() != null &&
+                days != null && days >= 1 && days <= MAX_REMINDER_DAYS &&
+                !event.getReminderSent() &&
+                !event.getStartDate().isAfter(now.plusDays(days).plusHours(1))) {
+                sendEventReminders(event);
             }
         }
     }
@@ -75,6 +82,7 @@ public class EventReminderService {
 
         int emailsSent = 0;
         int smsSent = 0;
+        List<Long> remindedIds = new ArrayList<>();
 
         for (EventRegistration registration : registrations) {
             try {
@@ -88,9 +96,7 @@ public class EventReminderService {
                     smsSent++;
                 }
 
-                // Mark reminder as sent for this registration
-                registration.setReminderSent(true);
-                registrationRepository.save(registration);
+                remindedIds.add(registration.getId());
 
             } catch (Exception e) {
                 log.error("Error sending reminder for registration {}: {}",
@@ -98,6 +104,10 @@ public class EventReminderService {
             }
         }
 
+        // Mark reminder as sent for the reminded registrations, one UPDATE per chunk of IDs
+        LocalDateTime now = LocalDateTime.now();
+        bulkWriter.inChunks(remindedIds, ids -> registrationRepository.markRemindersSent(ids, now));
+
         // Mark event reminders as sent
         event.setReminderSent(true);
         eventRepository.save(event);
@@ -7,6 +7,7 @@ import com.reuben.pastcare_spring.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,6 +34,7 @@ public class EventService {
     private final MemberRepository memberRepository;
     private final UserRepository userRepository;
     private final TenantValidationService tenantValidationService;
+    private final EventOccurrenceService occurrenceService;
 
     /**
      * Create a new event
@@ -219,14 +221,19 @@ public class EventService {
     }
 
     /**
-     * Get upcoming events
+     * Get upcoming events, with occurrences of recurring events expanded
      */
     @Transactional(readOnly = true)
     public Page<EventResponse> getUpcomingEvents(Pageable pageable) {
         Long churchId = TenantContext.getCurrentChurchId();
         LocalDateTime now = LocalDateTime.now();
-        return eventRepository.findUpcomingEvents(churchId, now, pageable)
-            .map(EventResponse::fromEntity);
+        LocalDateTime to = EventOccurrenceService.defaultTo(now.toLocalDate());
+        int end = (int) pageable.getOffset() + pageable.getPageSize();
+        List<EventResponse> content = occurrenceService.findUpcoming(churchId, now, to, end).stream()
+            .skip(pageable.getOffset())
+            .map(EventResponse::fromEntity)
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, occurrenceService.countUpcoming(churchId, now, to));
     }
 
     /**
@@ -333,7 +340,8 @@ public class EventService {
 
         EventStatsResponse stats = EventStatsResponse.builder()
             .totalEvents(eventRepository.countByChurchId(churchId))
-            .upcomingEvents(eventRepository.countUpcomingEvents(churchId, now))
+            .upcomingEvents(occurrenceService.countUpcoming(churchId, now,
+                EventOccurrenceService.defaultTo(now.toLocalDate())))
             .pastEvents(eventRepository.countPastEvents(churchId, now))
             .totalRegistrations(registrationRepository.countByChurchId(churchId))
             .build();
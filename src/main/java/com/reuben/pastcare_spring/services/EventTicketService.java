@@ -0,0 +1,229 @@
+package com.reuben.pastcare_spring.services;
+
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.properties.HorizontalAlignment;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.models.EventRegistration;
+import com.reuben.pastcare_spring.repositories.EventRegistrationRepository;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import com.reuben.pastcare_spring.security.TenantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Batch QR ticket generation for pre-printing event badges.
+ *
+ * <p>Work is split in two phases so the database is only touched on the request thread:
+ * <ol>
+ *   <li>{@link #prepareTickets} assigns ticket codes to every seat holder that lacks one</li>
+ *   <li>{@link #writeZip} / {@link #writePdf} render QR images in parallel and stream
+ *       the archive to the client in registration order</li>
+ * </ol>
+ */
+@Service
+@Slf4j
+public class EventTicketService {
+
+    /**
+     * Tickets rendered per parallel batch; bounds the PNGs held in memory while streaming.
+     */
+    static final int RENDER_CHUNK_SIZE = 256;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE, d MMM yyyy h:mm a");
+
+    private final EventRepository eventRepository;
+    private final EventRegistrationRepository registrationRepository;
+    private final QRCodeService qrCodeService;
+    private final int qrSize;
+    private final ExecutorService renderExecutor;
+
+    public EventTicketService(
+            EventRepository eventRepository,
+            EventRegistrationRepository registrationRepository,
+            QRCodeService qrCodeService,
+            @Value("${app.tickets.qr-size:300}") int qrSize,
+            @Value("${app.tickets.render-threads:0}") int renderThreads) {
+        this.eventRepository = eventRepository;
+        this.registrationRepository = registrationRepository;
+        this.qrCodeService = qrCodeService;
+        this.qrSize = qrSize;
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        this.renderExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ticket-render");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    /**
+     * One printable ticket.
+     */
+    public record Ticket(Long registrationId, String attendeeName, String ticketCode) {
+    }
+
+    /**
+     * All tickets for an event, detached from the persistence context.
+     */
+    public record TicketBatch(Long eventId, String eventName, LocalDateTime startDate, List<Ticket> tickets) {
+    }
+
+    /**
+     * Assign ticket codes to all approved, seated registrations of an event.
+     * Existing codes are kept so tickets already sent out stay valid.
+     */
+    @Transactional
+    public TicketBatch prepareTickets(Long eventId) {
+        Long churchId = TenantContext.getCurrentChurchId();
+        Event event = eventRepository.findByIdAndChurchIdAndDeletedAtIsNull(eventId, churchId)
+            .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+
+        List<EventRegistration> holders = registrationRepository.findTicketHolders(eventId);
+
+        List<EventRegistration> missing = holders.stream()
+            .filter(r -> r.getTicketCode() == null || r.getTicketCode().isEmpty())
+            .toList();
+        if (!missing.isEmpty()) {
+            // Encryption is CPU-bound and uses per-thread ciphers, so this parallelises cleanly
+            missing.parallelStream().forEach(r ->
+                r.setTicketCode(qrCodeService.generateQRCodeData(r.getId(), event.getEndDate())));
+            registrationRepository.saveAll(missing);
+        }
+
+        List<Ticket> tickets = holders.stream()
+            .map(r -> new Ticket(r.getId(), r.getRegistrantName(), r.getTicketCode()))
+            .toList();
+
+        log.info("Prepared {} tickets for event {} ({} newly issued)", tickets.size(), eventId, missing.size());
+        return new TicketBatch(event.getId(), event.getName(), event.getStartDate(), tickets);
+    }
+
+    /**
+     * Stream one PNG per ticket as a ZIP archive.
+     */
+    public void writeZip(TicketBatch batch, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // QR PNGs are already deflate-compressed
+        zip.setLevel(0);
+        renderInOrder(batch.tickets(), (ticket, png) -> {
+            zip.putNextEntry(new ZipEntry(ticketFilename(ticket)));
+            zip.write(png);
+            zip.closeEntry();
+        });
+        zip.finish();
+        zip.flush();
+    }
+
+    /**
+     * Stream a multi-page PDF with one badge-sized page per ticket.
+     */
+    public void writePdf(TicketBatch batch, OutputStream out) throws IOException {
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        String eventDate = batch.startDate() != null ? batch.startDate().format(DATE_FORMATTER) : "";
+
+        try (PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf, PageSize.A6)) {
+            document.setMargins(24, 24, 24, 24);
+            boolean[] first = {true};
+
+            renderInOrder(batch.tickets(), (ticket, png) -> {
+                if (!first[0]) {
+                    document.add(new AreaBreak());
+                }
+                first[0] = false;
+
+                document.add(new Paragraph(batch.eventName())
+                    .setBold()
+                    .setFontSize(14)
+                    .setTextAlignment(TextAlignment.CENTER));
+                document.add(new Paragraph(eventDate)
+                    .setFontSize(9)
+                    .setTextAlignment(TextAlignment.CENTER));
+                document.add(new Image(ImageDataFactory.create(png))
+                    .setWidth(200)
+                    .setHeight(200)
+                    .setHorizontalAlignment(HorizontalAlignment.CENTER));
+                document.add(new Paragraph(ticket.attendeeName() != null ? ticket.attendeeName() : "")
+                    .setBold()
+                    .setFontSize(16)
+                    .setTextAlignment(TextAlignment.CENTER));
+                document.add(new Paragraph("Ticket #" + ticket.registrationId())
+                    .setFontSize(8)
+                    .setTextAlignment(TextAlignment.CENTER));
+            });
+        }
+        out.flush();
+    }
+
+    /**
+     * Render QR images in parallel, chunk by chunk, handing them to the sink in ticket order.
+     */
+    private void renderInOrder(List<Ticket> tickets, TicketSink sink) throws IOException {
+        for (int start = 0; start < tickets.size(); start += RENDER_CHUNK_SIZE) {
+            List<Ticket> chunk = tickets.subList(start, Math.min(start + RENDER_CHUNK_SIZE, tickets.size()));
+
+            List<Future<byte[]>> images = new ArrayList<>(chunk.size());
+            for (Ticket ticket : chunk) {
+                images.add(renderExecutor.submit(() -> qrCodeService.generateQRCodePng(ticket.ticketCode(), qrSize, qrSize)));
+            }
+
+            try {
+                for (int i = 0; i < chunk.size(); i++) {
+                    sink.accept(chunk.get(i), images.get(i).get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                images.forEach(f -> f.cancel(true));
+                throw new IOException("Ticket rendering interrupted", e);
+            } catch (ExecutionException e) {
+                images.forEach(f -> f.cancel(true));
+                throw new IOException("Ticket rendering failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (IOException e) {
+                // Client went away; stop rendering the rest of the chunk
+                images.forEach(f -> f.cancel(true));
+                throw e;
+            }
+        }
+    }
+
+    static String ticketFilename(Ticket ticket) {
+        String name = ticket.attendeeName() != null
+            ? ticket.attendeeName().replaceAll("[^A-Za-z0-9]+", "-").replaceAll("(^-|-$)", "")
+            : "";
+        return ticket.registrationId() + (name.isEmpty() ? "" : "-" + name) + ".png";
+    }
+
+    @FunctionalInterface
+    private interface TicketSink {
+        void accept(Ticket ticket, byte[] png) throws IOException;
+    }
+}
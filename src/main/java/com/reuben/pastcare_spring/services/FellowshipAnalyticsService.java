@@ -0,0 +1,200 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.dtos.FellowshipAnalyticsResponse;
+import com.reuben.pastcare_spring.metrics.CacheMetrics;
+import com.reuben.pastcare_spring.models.FellowshipType;
+import com.reuben.pastcare_spring.repositories.FellowshipJoinRequestRepository;
+import com.reuben.pastcare_spring.repositories.FellowshipRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fellowship analytics computed with two grouped aggregates per church
+ * (membership and join requests) instead of loading every fellowship's
+ * members and requests.
+ *
+ * Results are cached per church for a short TTL (growth windows move with time)
+ * and invalidated by FellowshipService and MemberService whenever memberships or
+ * join requests change.
+ */
+@Service
+public class FellowshipAnalyticsService {
+
+  private final FellowshipRepository fellowshipRepository;
+  private final FellowshipJoinRequestRepository joinRequestRepository;
+  private final Duration cacheTtl;
+
+  private final Map<Long, CachedStats> cache = new ConcurrentHashMap<>();
+  private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+  private final CacheMetrics cacheMetrics = new CacheMetrics("fellowship-analytics");
+
+  public FellowshipAnalyticsService(
+      FellowshipRepository fellowshipRepository,
+      FellowshipJoinRequestRepository joinRequestRepository,
+      @Value("${app.fellowship.analytics-cache-ttl-seconds:300}") long cacheTtlSeconds) {
+    this.fellowshipRepository = fellowshipRepository;
+    this.joinRequestRepository = joinRequestRepository;
+    this.cacheTtl = Duration.ofSeconds(cacheTtlSeconds);
+  }
+
+  /**
+   * Aggregated figures for one fellowship.
+   */
+  public record FellowshipStats(
+      Long fellowshipId,
+      String name,
+      FellowshipType fellowshipType,
+      Integer maxCapacity,
+      int memberCount,
+      int membersCreatedLast30Days,
+      int membersCreatedLast90Days,
+      int totalRequests,
+      int approvedRequests,
+      int pendingRequests,
+      int approvedLast30Days,
+      int approvedLast90Days,
+      int requestsLast30Days
+  ) {
+    /**
+     * New members, taking the larger of approved requests and recently created members
+     * (members added directly have no join request).
+     */
+    public int growthLast30Days() {
+      return Math.max(approvedLast30Days, membersCreatedLast30Days);
+    }
+
+    public int growthLast90Days() {
+      return Math.max(approvedLast90Days, membersCreatedLast90Days);
+    }
+  }
+
+  private record CachedStats(long generation, Instant computedAt, Map<Long, FellowshipStats> stats) {
+  }
+
+  /**
+   * Stats for every fellowship in a church, keyed by fellowship ID in ID order.
+   */
+  @Transactional(readOnly = true)
+  public Map<Long, FellowshipStats> getStats(Long churchId) {
+    long generation = generations.getOrDefault(churchId, 0L);
+    CachedStats cached = cache.get(churchId);
+    if (cached != null && cached.generation() == generation
+        && cached.computedAt().plus(cacheTtl).isAfter(Instant.now())) {
+      cacheMetrics.hit();
+      return cached.stats();
+    }
+    cacheMetrics.miss();
+
+    Map<Long, FellowshipStats> stats = computeStats(churchId);
+    // Stored under the generation read before computing, so a concurrent invalidation wins
+    cache.put(churchId, new CachedStats(generation, Instant.now(), stats));
+    return stats;
+  }
+
+  /**
+   * Drop cached stats for a church. Also re-applied after the current transaction
+   * commits, so a read between this call and the commit can't re-cache old data.
+   */
+  public void invalidate(Long churchId) {
+    if (churchId == null) {
+      return;
+    }
+    bumpGeneration(churchId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          bumpGeneration(churchId);
+        }
+      });
+    }
+  }
+
+  private void bumpGeneration(Long churchId) {
+    generations.merge(churchId, 1L, Long::sum);
+    cache.remove(churchId);
+  }
+
+  private Map<Long, FellowshipStats> computeStats(Long churchId) {
+    Instant now = Instant.now();
+    LocalDateTime nowLdt = LocalDateTime.now();
+
+    Map<Long, Object[]> requestRows = new HashMap<>();
+    for (Object[] row : joinRequestRepository.getJoinRequestStats(
+        churchId, nowLdt.minusDays(30), nowLdt.minusDays(90))) {
+      requestRows.put((Long) row[0], row);
+    }
+
+    Map<Long, FellowshipStats> stats = new LinkedHashMap<>();
+    for (Object[] row : fellowshipRepository.getMembershipStats(
+        churchId, now.minus(30, ChronoUnit.DAYS), now.minus(90, ChronoUnit.DAYS))) {
+      Long fellowshipId = (Long) row[0];
+      Object[] requests = requestRows.getOrDefault(fellowshipId, new Object[7]);
+      stats.put(fellowshipId, new FellowshipStats(
+          fellowshipId,
+          (String) row[1],
+          (FellowshipType) row[2],
+          (Integer) row[3],
+          toInt(row[4]),
+          toInt(row[5]),
+          toInt(row[6]),
+          toInt(requests[1]),
+          toInt(requests[2]),
+          toInt(requests[3]),
+          toInt(requests[4]),
+          toInt(requests[5]),
+          toInt(requests[6])
+      ));
+    }
+    return Collections.unmodifiableMap(stats);
+  }
+
+  /**
+   * Build the analytics response for one fellowship from its stats.
+   */
+  public static FellowshipAnalyticsResponse toAnalytics(FellowshipStats stats) {
+    int currentMembers = stats.memberCount();
+    Integer maxCapacity = stats.maxCapacity() != null ? stats.maxCapacity() : 100;
+    double occupancyRate = maxCapacity > 0 ? (currentMembers * 100.0 / maxCapacity) : 0.0;
+
+    int growth30 = stats.growthLast30Days();
+    int growth90 = stats.growthLast90Days();
+    double growthRate = currentMembers > 0 ? (growth90 * 100.0 / currentMembers) : 0.0;
+
+    String healthStatus = FellowshipAnalyticsResponse.calculateHealthStatus(occupancyRate, growth30, currentMembers);
+    String growthTrend = FellowshipAnalyticsResponse.calculateGrowthTrend(growth30, growth90);
+    boolean isHealthy = "EXCELLENT".equals(healthStatus) || "GOOD".equals(healthStatus);
+
+    return new FellowshipAnalyticsResponse(
+        stats.fellowshipId(),
+        stats.name(),
+        currentMembers,
+        maxCapacity,
+        Math.round(occupancyRate * 100.0) / 100.0, // Round to 2 decimal places
+        growth30,
+        growth90,
+        Math.round(growthRate * 100.0) / 100.0,
+        stats.pendingRequests(),
+        isHealthy,
+        healthStatus,
+        growthTrend
+    );
+  }
+
+  private static int toInt(Object value) {
+    return value != null ? ((Number) value).intValue() : 0;
+  }
+}
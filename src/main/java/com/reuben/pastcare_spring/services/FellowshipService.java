@@ -2,15 +2,18 @@ package com.reuben.pastcare_spring.services;
 
 import com.reuben.pastcare_spring.dtos.*;
 import com.reuben.pastcare_spring.models.*;
+import com.reuben.pastcare_spring.persistence.BulkWriter;
 import com.reuben.pastcare_spring.repositories.*;
+import com.reuben.pastcare_spring.security.TenantContext;
+import com.reuben.pastcare_spring.services.FellowshipAnalyticsService.FellowshipStats;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +30,8 @@ public class FellowshipService {
   private final ChurchRepository churchRepository;
   private final ImageService imageService;
   private final TenantValidationService tenantValidationService;
+  private final FellowshipAnalyticsService fellowshipAnalyticsService;
+  private final BulkWriter bulkWriter;
 
   /**
    * Get all fellowships
@@ -64,6 +69,7 @@ public class FellowshipService {
 
     updateFellowshipFromRequest(fellowship, request);
     Fellowship saved = fellowshipRepository.save(fellowship);
+    fellowshipAnalyticsService.invalidate(churchId);
     return FellowshipResponse.fromEntity(saved);
   }
 
@@ -80,6 +86,7 @@ public class FellowshipService {
 
     updateFellowshipFromRequest(fellowship, request);
     Fellowship updated = fellowshipRepository.save(fellowship);
+    fellowshipAnalyticsService.invalidate(fellowship.getChurch().getId());
     return FellowshipResponse.fromEntity(updated);
   }
 
@@ -95,6 +102,7 @@ public class FellowshipService {
     tenantValidationService.validateFellowshipAccess(fellowship);
 
     fellowshipRepository.delete(fellowship);
+    fellowshipAnalyticsService.invalidate(fellowship.getChurch().getId());
   }
 
   /**
@@ -233,6 +241,7 @@ public class FellowshipService {
     joinRequest.setRequestedAt(LocalDateTime.now());
 
     FellowshipJoinRequest saved = joinRequestRepository.save(joinRequest);
+    fellowshipAnalyticsService.invalidate(fellowship.getChurch().getId());
     return FellowshipJoinRequestResponse.fromEntity(saved);
   }
 
@@ -274,13 +283,14 @@ public class FellowshipService {
     Fellowship fellowship = request.getFellowship();
     Member member = request.getMember();
 
-    if (fellowship.getMembers() == null) {
-      fellowship.setMembers(new ArrayList<>());
+    // Member owns the relationship, so add the fellowship to member.fellowships
+    if (member.getFellowships() == null) {
+      member.setFellowships(new ArrayList<>());
     }
 
-    if (!fellowship.getMembers().contains(member)) {
-      fellowship.getMembers().add(member);
-      fellowshipRepository.save(fellowship);
+    if (!member.getFellowships().contains(fellowship)) {
+      member.getFellowships().add(fellowship);
+      memberRepository.save(member);
     }
 
     // Update request status
@@ -290,6 +300,7 @@ public class FellowshipService {
     request.setReviewNotes(reviewNotes);
 
     FellowshipJoinRequest updated = joinRequestRepository.save(request);
+    fellowshipAnalyticsService.invalidate(fellowship.getChurch().getId());
     return FellowshipJoinRequestResponse.fromEntity(updated);
   }
 
@@ -314,6 +325,7 @@ public class FellowshipService {
     request.setReviewNotes(reviewNotes);
 
     FellowshipJoinRequest updated = joinRequestRepository.save(request);
+    fellowshipAnalyticsService.invalidate(request.getFellowship().getChurch().getId());
     return FellowshipJoinRequestResponse.fromEntity(updated);
   }
 
@@ -375,7 +387,7 @@ public class FellowshipService {
 
     try {
       // Upload image using ImageService with fellowship-specific directory
-      String imagePath = imageService.uploadFellowshipImage(image, fellowship.getImageUrl());
+      String imagePath = imageService.uploadFellowshipImage(image);
       fellowship.setImageUrl(imagePath);
       Fellowship updated = fellowshipRepository.save(fellowship);
       return FellowshipResponse.fromEntity(updated);
@@ -399,26 +411,14 @@ public class FellowshipService {
       throw new IllegalArgumentException("Member IDs list cannot be empty");
     }
 
-    // Get members and add them to fellowship
-    List<Member> membersToAdd = memberRepository.findAllById(memberIds);
-
-    if (membersToAdd.isEmpty()) {
+    Long churchId = fellowship.getChurch().getId();
+    if (memberRepository.countByChurch_IdAndIdIn(churchId, memberIds) == 0) {
       throw new IllegalArgumentException("No valid members found with provided IDs");
     }
 
-    // IMPORTANT: Member owns the relationship, so we must add fellowship to member.fellowships
-    // NOT add member to fellowship.members (which is mappedBy and won't persist)
-    for (Member member : membersToAdd) {
-      if (member.getFellowships() == null) {
-        member.setFellowships(new ArrayList<>());
-      }
-      if (!member.getFellowships().contains(fellowship)) {
-        member.getFellowships().add(fellowship);
-      }
-    }
-
-    // Save members (owning side) to persist the relationship
-    memberRepository.saveAll(membersToAdd);
+    // One INSERT ... SELECT per chunk into the join table instead of loading every member's fellowships
+    bulkWriter.inChunks(memberIds, chunk -> fellowshipRepository.addMembers(fellowshipId, churchId, chunk));
+    fellowshipAnalyticsService.invalidate(churchId);
 
     // Refresh fellowship to get updated members list
     Fellowship updated = fellowshipRepository.findById(fellowshipId)
@@ -441,19 +441,9 @@ public class FellowshipService {
       throw new IllegalArgumentException("Member IDs list cannot be empty");
     }
 
-    // Get members and remove them from fellowship
-    List<Member> membersToRemove = memberRepository.findAllById(memberIds);
-
-    // IMPORTANT: Member owns the relationship, so we must remove fellowship from member.fellowships
-    // NOT remove member from fellowship.members (which is mappedBy and won't persist)
-    for (Member member : membersToRemove) {
-      if (member.getFellowships() != null) {
-        member.getFellowships().remove(fellowship);
-      }
-    }
-
-    // Save members (owning side) to persist the relationship
-    memberRepository.saveAll(membersToRemove);
+    Long churchId = fellowship.getChurch().getId();
+    bulkWriter.inChunks(memberIds, chunk -> fellowshipRepository.removeMembers(fellowshipId, chunk));
+    fellowshipAnalyticsService.invalidate(churchId);
 
     // Refresh fellowship to get updated members list
     Fellowship updated = fellowshipRepository.findById(fellowshipId)
@@ -489,86 +479,21 @@ public class FellowshipService {
     // CRITICAL SECURITY: Validate fellowship belongs to current church
     tenantValidationService.validateFellowshipAccess(fellowship);
 
-    int currentMembers = fellowship.getMembers() != null ? fellowship.getMembers().size() : 0;
-    Integer maxCapacity = fellowship.getMaxCapacity() != null ? fellowship.getMaxCapacity() : 100;
-
-    double occupancyRate = maxCapacity > 0 ? (currentMembers * 100.0 / maxCapacity) : 0.0;
-
-    // Count growth in last 30 and 90 days
-    // This counts both approved join requests AND members who were created recently
+    // Growth counts both approved join requests AND members who were created recently
     // (as a proxy for when they joined the fellowship until we have proper join timestamps)
-    LocalDateTime thirtyDaysAgoLDT = LocalDateTime.now().minusDays(30);
-    LocalDateTime ninetyDaysAgoLDT = LocalDateTime.now().minusDays(90);
-    Instant thirtyDaysAgo = Instant.now().minus(30, java.time.temporal.ChronoUnit.DAYS);
-    Instant ninetyDaysAgo = Instant.now().minus(90, java.time.temporal.ChronoUnit.DAYS);
-
-    // Count from join requests (uses LocalDateTime)
-    List<FellowshipJoinRequest> allRequests = joinRequestRepository.findByFellowshipId(fellowshipId);
-    int joinRequestGrowth30Days = (int) allRequests.stream()
-      .filter(r -> r.getStatus() == FellowshipJoinRequestStatus.APPROVED)
-      .filter(r -> r.getReviewedAt() != null && r.getReviewedAt().isAfter(thirtyDaysAgoLDT))
-      .count();
-
-    int joinRequestGrowth90Days = (int) allRequests.stream()
-      .filter(r -> r.getStatus() == FellowshipJoinRequestStatus.APPROVED)
-      .filter(r -> r.getReviewedAt() != null && r.getReviewedAt().isAfter(ninetyDaysAgoLDT))
-      .count();
-
-    // Count members who were created recently (as proxy for fellowship join date)
-    // This helps track members added directly without join requests (uses Instant)
-    int recentMembersLast30Days = 0;
-    int recentMembersLast90Days = 0;
-    if (fellowship.getMembers() != null) {
-      recentMembersLast30Days = (int) fellowship.getMembers().stream()
-        .filter(m -> m.getCreatedAt() != null && m.getCreatedAt().isAfter(thirtyDaysAgo))
-        .count();
-
-      recentMembersLast90Days = (int) fellowship.getMembers().stream()
-        .filter(m -> m.getCreatedAt() != null && m.getCreatedAt().isAfter(ninetyDaysAgo))
-        .count();
+    FellowshipStats stats = fellowshipAnalyticsService.getStats(fellowship.getChurch().getId()).get(fellowshipId);
+    if (stats == null) {
+      throw new IllegalArgumentException("Fellowship not found with id: " + fellowshipId);
     }
-
-    // Combine both sources (max of the two, since join requests might overlap with member creation)
-    int memberGrowthLast30Days = Math.max(joinRequestGrowth30Days, recentMembersLast30Days);
-    int memberGrowthLast90Days = Math.max(joinRequestGrowth90Days, recentMembersLast90Days);
-
-    int pendingRequests = (int) allRequests.stream()
-      .filter(r -> r.getStatus() == FellowshipJoinRequestStatus.PENDING)
-      .count();
-
-    double growthRate = currentMembers > 0 ? (memberGrowthLast90Days * 100.0 / currentMembers) : 0.0;
-
-    String healthStatus = FellowshipAnalyticsResponse.calculateHealthStatus(
-      occupancyRate, memberGrowthLast30Days, currentMembers);
-
-    String growthTrend = FellowshipAnalyticsResponse.calculateGrowthTrend(
-      memberGrowthLast30Days, memberGrowthLast90Days);
-
-    boolean isHealthy = "EXCELLENT".equals(healthStatus) || "GOOD".equals(healthStatus);
-
-    return new FellowshipAnalyticsResponse(
-      fellowship.getId(),
-      fellowship.getName(),
-      currentMembers,
-      maxCapacity,
-      Math.round(occupancyRate * 100.0) / 100.0, // Round to 2 decimal places
-      memberGrowthLast30Days,
-      memberGrowthLast90Days,
-      Math.round(growthRate * 100.0) / 100.0,
-      pendingRequests,
-      isHealthy,
-      healthStatus,
-      growthTrend
-    );
+    return FellowshipAnalyticsService.toAnalytics(stats);
   }
 
   /**
    * Get analytics for all fellowships in the church
    */
   public List<FellowshipAnalyticsResponse> getAllFellowshipAnalytics() {
-    List<Fellowship> fellowships = fellowshipRepository.findAll();
-    return fellowships.stream()
-      .map(f -> getFellowshipAnalytics(f.getId()))
+    return currentChurchStats().values().stream()
+      .map(FellowshipAnalyticsService::toAnalytics)
       .collect(Collectors.toList());
   }
 
@@ -576,37 +501,20 @@ public class FellowshipService {
    * Get fellowship comparison data for dashboard
    */
   public List<FellowshipComparisonResponse> getFellowshipComparison() {
-    List<Fellowship> fellowships = fellowshipRepository.findAll();
-    LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-
-    List<FellowshipComparisonResponse> comparisons = fellowships.stream()
-      .map(fellowship -> {
-        int memberCount = fellowship.getMembers() != null ? fellowship.getMembers().size() : 0;
-
-        List<FellowshipJoinRequest> requests = joinRequestRepository.findByFellowshipId(fellowship.getId());
-
-        int joinRequestsLast30Days = (int) requests.stream()
-          .filter(r -> r.getRequestedAt().isAfter(thirtyDaysAgo))
-          .count();
-
-        int totalRequests = requests.size();
-        int approvedRequests = (int) requests.stream()
-          .filter(r -> r.getStatus() == FellowshipJoinRequestStatus.APPROVED)
-          .count();
-
-        int approvalRate = totalRequests > 0 ? (approvedRequests * 100 / totalRequests) : 0;
-
-        FellowshipAnalyticsResponse analytics = getFellowshipAnalytics(fellowship.getId());
+    List<FellowshipComparisonResponse> comparisons = currentChurchStats().values().stream()
+      .map(stats -> {
+        int totalRequests = stats.totalRequests();
+        int approvalRate = totalRequests > 0 ? (stats.approvedRequests() * 100 / totalRequests) : 0;
 
         return new FellowshipComparisonResponse(
-          fellowship.getId(),
-          fellowship.getName(),
-          fellowship.getFellowshipType() != null ? fellowship.getFellowshipType().name() : "UNKNOWN",
-          memberCount,
+          stats.fellowshipId(),
+          stats.name(),
+          stats.fellowshipType() != null ? stats.fellowshipType().name() : "UNKNOWN",
+          stats.memberCount(),
           0.0, // Average attendance rate - will be implemented when attendance tracking is added
-          joinRequestsLast30Days,
+          stats.requestsLast30Days(),
           approvalRate,
-          analytics.healthStatus(),
+          FellowshipAnalyticsService.toAnalytics(stats).healthStatus(),
           0 // Rank will be assigned after sorting
         );
       })
@@ -641,6 +549,17 @@ public class FellowshipService {
     return comparisons;
   }
 
+  /**
+   * Aggregated stats for every fellowship in the current church
+   */
+  private Map<Long, FellowshipStats> currentChurchStats() {
+    Long churchId = TenantContext.getCurrentChurchId();
+    if (churchId == null) {
+      throw new IllegalStateException("No church context available");
+    }
+    return fellowshipAnalyticsService.getStats(churchId);
+  }
+
   /**
    * Helper method to compare health status for sorting
    */
@@ -819,11 +738,11 @@ public class FellowshipService {
    * Get balance recommendations for all fellowships
    */
   public List<FellowshipBalanceRecommendationResponse> getBalanceRecommendations() {
-    List<Fellowship> fellowships = fellowshipRepository.findAll();
     List<FellowshipBalanceRecommendationResponse> recommendations = new ArrayList<>();
 
-    for (Fellowship fellowship : fellowships) {
-      FellowshipBalanceRecommendationResponse recommendation = analyzeBalance(fellowship);
+    for (FellowshipStats stats : currentChurchStats().values()) {
+      FellowshipBalanceRecommendationResponse recommendation = analyzeBalance(
+        stats.fellowshipId(), stats.name(), stats.memberCount(), stats.maxCapacity());
       if (recommendation != null) {
         recommendations.add(recommendation);
       }
@@ -842,13 +761,12 @@ public class FellowshipService {
     // CRITICAL SECURITY: Validate fellowship belongs to current church
     tenantValidationService.validateFellowshipAccess(fellowship);
 
-    return analyzeBalance(fellowship);
+    int currentSize = fellowship.getMembers() != null ? fellowship.getMembers().size() : 0;
+    return analyzeBalance(fellowship.getId(), fellowship.getName(), currentSize, fellowship.getMaxCapacity());
   }
 
-  private FellowshipBalanceRecommendationResponse analyzeBalance(Fellowship fellowship) {
-    int currentSize = fellowship.getMembers().size();
-    Integer maxCapacity = fellowship.getMaxCapacity();
-
+  private FellowshipBalanceRecommendationResponse analyzeBalance(Long fellowshipId, String fellowshipName,
+                                                                 int currentSize, Integer maxCapacity) {
     // Optimal fellowship size: 12-25 members for effective community
     int optimalMin = 12;
     int optimalMax = 25;
@@ -897,8 +815,8 @@ public class FellowshipService {
     }
 
     return new FellowshipBalanceRecommendationResponse(
-      fellowship.getId(),
-      fellowship.getName(),
+      fellowshipId,
+      fellowshipName,
       recommendationType,
       priority,
       reason,
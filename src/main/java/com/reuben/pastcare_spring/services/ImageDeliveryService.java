@@ -0,0 +1,200 @@
+package com.reuben.pastcare_spring.services;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves uploaded images for delivery over {@code /api/uploads/**}.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Safe resolution of request paths inside the upload root (no traversal)</li>
+ *   <li>Strong ETags derived from content-hashed filenames written by {@link ImageService}</li>
+ *   <li>On-demand resized variants ({@code ?w=64}), generated once and cached on disk</li>
+ * </ul>
+ *
+ * <p>Requested widths are snapped up to the nearest configured width so the
+ * variant cache stays bounded no matter what clients ask for.
+ */
+@Service
+@Slf4j
+public class ImageDeliveryService {
+
+    /**
+     * Directory (inside the upload root) holding resized variants, one sub-directory per width.
+     */
+    static final String VARIANTS_DIR = ".variants";
+
+    private static final Pattern CONTENT_HASHED_NAME = Pattern.compile("^[0-9a-f]{32}\\.[a-z0-9]+$");
+
+    private final Path uploadRoot;
+    private final int[] variantWidths;
+
+    public ImageDeliveryService(
+            @Value("${app.upload.dir:uploads/profile-images}") String uploadDir,
+            @Value("${app.upload.variant-widths:32,64,128,256,512}") int[] variantWidths) {
+        // Profile images live in <root>/profile-images; all upload folders share the same root
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize().getParent();
+        this.variantWidths = Arrays.stream(variantWidths).sorted().toArray();
+    }
+
+    /**
+     * An image file ready to be written to the response.
+     */
+    public record ImageAsset(Path file, String etag, long lastModified, long contentLength, MediaType mediaType) {
+    }
+
+    /**
+     * Resolve an uploaded image, optionally as a resized variant.
+     *
+     * @param relativePath Path below the upload root, e.g. {@code profile-images/ab12....jpg}
+     * @param width Requested width in pixels, or null for the original
+     * @return The asset, or empty if no such image exists
+     */
+    public Optional<ImageAsset> resolve(String relativePath, Integer width) throws IOException {
+        Path original = resolveInsideRoot(relativePath);
+        if (original == null || !Files.isRegularFile(original)) {
+            return Optional.empty();
+        }
+
+        Integer variantWidth = snapWidth(width);
+        Path file = original;
+        if (variantWidth != null) {
+            file = getOrCreateVariant(original, variantWidth);
+        }
+
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        long length = Files.size(file);
+        MediaType mediaType = MediaTypeFactory.getMediaType(original.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        return Optional.of(new ImageAsset(file, buildEtag(original, file, variantWidth), lastModified, length, mediaType));
+    }
+
+    /**
+     * Delete every cached variant of an image.
+     *
+     * @param imagePath Stored image path as returned by {@link ImageService} (e.g. {@code uploads/profile-images/x.jpg})
+     */
+    public void deleteVariants(String imagePath) {
+        Path original = Paths.get(imagePath).toAbsolutePath().normalize();
+        if (!original.startsWith(uploadRoot)) {
+            return;
+        }
+        Path relative = uploadRoot.relativize(original);
+        for (int w : variantWidths) {
+            try {
+                Files.deleteIfExists(variantPath(relative, w));
+            } catch (IOException e) {
+                log.warn("Failed to delete {}px variant of {}: {}", w, imagePath, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Snap a requested width up to the nearest configured variant width.
+     *
+     * @return The variant width, or null when the original should be served
+     */
+    Integer snapWidth(Integer width) {
+        if (width == null || width <= 0) {
+            return null;
+        }
+        for (int w : variantWidths) {
+            if (w >= width) {
+                return w;
+            }
+        }
+        return null;
+    }
+
+    private Path resolveInsideRoot(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return null;
+        }
+        String trimmed = relativePath.startsWith("/") ? relativePath.substring(1) : relativePath;
+        Path resolved = uploadRoot.resolve(trimmed).normalize();
+        if (!resolved.startsWith(uploadRoot) || resolved.startsWith(uploadRoot.resolve(VARIANTS_DIR))) {
+            return null;
+        }
+        return resolved;
+    }
+
+    private Path variantPath(Path relativeOriginal, int width) {
+        return uploadRoot.resolve(VARIANTS_DIR).resolve(String.valueOf(width)).resolve(relativeOriginal);
+    }
+
+    /**
+     * Return the cached variant, generating it on first request.
+     *
+     * <p>Variants are written to a temp file and atomically moved into place so
+     * concurrent first requests never observe a half-written image. Images already
+     * narrower than the requested width (or in formats ImageIO can't re-encode)
+     * are served as-is.
+     */
+    private Path getOrCreateVariant(Path original, int width) throws IOException {
+        Path variant = variantPath(uploadRoot.relativize(original), width);
+        if (Files.isRegularFile(variant)) {
+            return variant;
+        }
+
+        BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null || source.getWidth() <= width) {
+            return original;
+        }
+
+        String filename = original.getFileName().toString();
+        String format = filename.substring(filename.lastIndexOf('.') + 1);
+        if (!ImageIO.getImageWritersBySuffix(format).hasNext()) {
+            return original;
+        }
+
+        Files.createDirectories(variant.getParent());
+        Path temp = Files.createTempFile(variant.getParent(), ".variant-", "." + format);
+        try {
+            Thumbnails.of(source)
+                    .width(width)
+                    .outputFormat(format)
+                    .outputQuality(0.85)
+                    .toFile(temp.toFile());
+            Files.move(temp, variant, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Generated {}px variant of {}", width, original.getFileName());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return variant;
+    }
+
+    /**
+     * Strong ETag for an asset.
+     *
+     * <p>Content-hashed filenames already identify the bytes, so the hash is used
+     * directly. Legacy (UUID-named) uploads fall back to size and modification time,
+     * which is stable because uploads are never rewritten in place.
+     */
+    private String buildEtag(Path original, Path served, Integer width) throws IOException {
+        String name = original.getFileName().toString();
+        String tag = CONTENT_HASHED_NAME.matcher(name).matches()
+                ? name.substring(0, name.indexOf('.'))
+                : Long.toHexString(Files.getLastModifiedTime(original).toMillis()) + "-" + Long.toHexString(Files.size(original));
+        if (width != null && !served.equals(original)) {
+            tag += "-w" + width;
+        }
+        return "\"" + tag + "\"";
+    }
+}
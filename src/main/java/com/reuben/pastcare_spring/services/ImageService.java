@@ -1,5 +1,7 @@
 package com.reuben.pastcare_spring.services;
 
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import net.coobird.thumbnailator.Thumbnails;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -10,11 +12,27 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class ImageService {
 
+    /**
+     * Number of digest bytes kept in filenames (128 bits, 32 hex characters).
+     */
+    static final int CONTENT_HASH_BYTES = 16;
+
+    private final ImageDeliveryService imageDeliveryService;
+
     @Value("${app.upload.dir:uploads/profile-images}")
     private String uploadDir;
 
@@ -30,10 +48,9 @@ public class ImageService {
     /**
      * Upload and compress a profile image
      * @param file The image file to upload
-     * @param oldImagePath The path to the old image (to delete)
      * @return The relative path to the saved image
      */
-    public String uploadProfileImage(MultipartFile file, String oldImagePath) throws IOException {
+    public String uploadProfileImage(MultipartFile file) throws IOException {
         // Validate file
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
@@ -50,43 +67,94 @@ public class ImageService {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate unique filename
         String originalFilename = file.getOriginalFilename();
         String extension = originalFilename != null && originalFilename.contains(".")
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                ? originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase()
                 : ".jpg";
-        String filename = UUID.randomUUID().toString() + extension;
-        Path filePath = uploadPath.resolve(filename);
 
         // Compress image to target size
         byte[] compressedImage = compressImage(file.getBytes(), maxSizeKb);
 
-        // Save compressed image
-        Files.write(filePath, compressedImage);
+        // Content-hashed filename: identical bytes always map to the same immutable URL
+        String filename = contentHashedFilename(compressedImage, extension);
+        Path filePath = uploadPath.resolve(filename);
 
-        // Delete old image if exists
-        if (oldImagePath != null && !oldImagePath.isEmpty()) {
-            deleteImage(oldImagePath);
-        }
+        // Save compressed image (shared with any earlier upload of the same bytes)
+        storeContent(filePath, compressedImage);
 
         // Return relative path
         return uploadDir + "/" + filename;
     }
 
     /**
-     * Delete an image file
+     * Write content-addressed bytes, or mark an existing copy as freshly used.
+     *
+     * <p>Identical uploads share one file, so a file is never deleted when a record
+     * moves off it; {@link #deleteUnreferencedImages} removes it once no record
+     * references it. Touching the modified time keeps a just-reused file out of
+     * that sweep until the caller has saved its reference.
      */
-    public void deleteImage(String imagePath) {
-        if (imagePath == null || imagePath.isEmpty()) {
-            return;
+    private void storeContent(Path filePath, byte[] content) throws IOException {
+        if (Files.exists(filePath)) {
+            Files.setLastModifiedTime(filePath, FileTime.from(Instant.now()));
+        } else {
+            Files.write(filePath, content);
         }
+    }
 
+    /**
+     * Delete uploaded images that no record references any more.
+     *
+     * @param referencedPaths Image paths currently stored on records
+     * @param modifiedBefore Files modified after this are skipped (uploads not yet saved on a record)
+     * @return Number of images deleted
+     */
+    public int deleteUnreferencedImages(Set<String> referencedPaths, Instant modifiedBefore) {
+        int deleted = 0;
+        for (String dir : List.of(uploadDir, fellowshipUploadDir, eventUploadDir)) {
+            Path uploadPath = Paths.get(dir);
+            if (!Files.isDirectory(uploadPath)) {
+                continue;
+            }
+
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(uploadPath)) {
+                files = listing.filter(Files::isRegularFile).toList();
+            } catch (IOException e) {
+                log.warn("Failed to list images in {}: {}", dir, e.getMessage());
+                continue;
+            }
+
+            for (Path file : files) {
+                String imagePath = dir + "/" + file.getFileName();
+                try {
+                    if (referencedPaths.contains(imagePath)
+                            || !Files.getLastModifiedTime(file).toInstant().isBefore(modifiedBefore)) {
+                        continue;
+                    }
+                    Files.deleteIfExists(file);
+                    imageDeliveryService.deleteVariants(imagePath);
+                    deleted++;
+                } catch (IOException e) {
+                    log.warn("Failed to delete image {}: {}", imagePath, e.getMessage());
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Build an immutable filename from the SHA-256 of the stored bytes.
+     *
+     * <p>Because the name changes whenever the content changes, the served URL
+     * can be cached by clients indefinitely and the hash doubles as a strong ETag.
+     */
+    static String contentHashedFilename(byte[] content, String extension) {
         try {
-            Path path = Paths.get(imagePath);
-            Files.deleteIfExists(path);
-        } catch (IOException e) {
-            // Log error but don't throw exception
-            System.err.println("Failed to delete image: " + imagePath);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, CONTENT_HASH_BYTES) + extension;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
@@ -129,10 +197,9 @@ public class ImageService {
     /**
      * Upload and compress a fellowship image
      * @param file The image file to upload
-     * @param oldImagePath The path to the old image (to delete)
      * @return The relative path to the saved image
      */
-    public String uploadFellowshipImage(MultipartFile file, String oldImagePath) throws IOException {
+    public String uploadFellowshipImage(MultipartFile file) throws IOException {
         // Validate file
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
@@ -149,24 +216,20 @@ public class ImageService {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate unique filename
         String originalFilename = file.getOriginalFilename();
         String extension = originalFilename != null && originalFilename.contains(".")
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                ? originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase()
                 : ".jpg";
-        String filename = UUID.randomUUID().toString() + extension;
-        Path filePath = uploadPath.resolve(filename);
 
         // Compress image to target size (allow larger size for fellowship images - 500KB)
         byte[] compressedImage = compressImage(file.getBytes(), 500);
 
-        // Save compressed image
-        Files.write(filePath, compressedImage);
+        // Content-hashed filename: identical bytes always map to the same immutable URL
+        String filename = contentHashedFilename(compressedImage, extension);
+        Path filePath = uploadPath.resolve(filename);
 
-        // Delete old image if exists
-        if (oldImagePath != null && !oldImagePath.isEmpty()) {
-            deleteImage(oldImagePath);
-        }
+        // Save compressed image (shared with any earlier upload of the same bytes)
+        storeContent(filePath, compressedImage);
 
         // Return relative path
         return fellowshipUploadDir + "/" + filename;
@@ -175,10 +238,9 @@ public class ImageService {
     /**
      * Upload and compress an event image
      * @param file The image file to upload
-     * @param oldImagePath The path to the old image (to delete)
      * @return The relative path to the saved image
      */
-    public String uploadEventImage(MultipartFile file, String oldImagePath) throws IOException {
+    public String uploadEventImage(MultipartFile file) throws IOException {
         // Validate file
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
@@ -195,24 +257,20 @@ public class ImageService {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate unique filename
         String originalFilename = file.getOriginalFilename();
         String extension = originalFilename != null && originalFilename.contains(".")
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                ? originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase()
                 : ".jpg";
-        String filename = UUID.randomUUID().toString() + extension;
-        Path filePath = uploadPath.resolve(filename);
 
         // Compress image to target size (allow larger size for event images - 500KB)
         byte[] compressedImage = compressImage(file.getBytes(), 500);
 
-        // Save compressed image
-        Files.write(filePath, compressedImage);
+        // Content-hashed filename: identical bytes always map to the same immutable URL
+        String filename = contentHashedFilename(compressedImage, extension);
+        Path filePath = uploadPath.resolve(filename);
 
-        // Delete old image if exists
-        if (oldImagePath != null && !oldImagePath.isEmpty()) {
-            deleteImage(oldImagePath);
-        }
+        // Save compressed image (shared with any earlier upload of the same bytes)
+        storeContent(filePath, compressedImage);
 
         // Return relative path
         return eventUploadDir + "/" + filename;
@@ -16,6 +16,7 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -34,9 +35,10 @@ public class InsightService {
     private final AttendanceSessionRepository attendanceSessionRepository;
     private final DonationRepository donationRepository;
     private final MemberRepository memberRepository;
-    private final EventRepository eventRepository;
     private final PrayerRequestRepository prayerRequestRepository;
     private final UserRepository userRepository;
+    private final MemberRiskService memberRiskService;
+    private final EventOccurrenceService eventOccurrenceService;
 
     // Thresholds for anomaly detection
     private static final double ATTENDANCE_DROP_THRESHOLD = 0.20; // 20% drop
@@ -46,6 +48,7 @@ public class InsightService {
     /**
      * Get all active insights (not dismissed)
      */
+    @Transactional(readOnly = true)
     public List<InsightResponse> getActiveInsights() {
         return insightRepository.findByDismissedFalseOrderByCreatedAtDesc().stream()
             .map(InsightResponse::fromEntity)
@@ -55,6 +58,7 @@ public class InsightService {
     /**
      * Get high priority insights
      */
+    @Transactional(readOnly = true)
     public List<InsightResponse> getHighPriorityInsights() {
         return insightRepository.findHighPriorityInsights().stream()
             .map(InsightResponse::fromEntity)
@@ -64,6 +68,7 @@ public class InsightService {
     /**
      * Get insights by category
      */
+    @Transactional(readOnly = true)
     public List<InsightResponse> getInsightsByCategory(InsightCategory category) {
         return insightRepository.findByCategoryAndDismissedFalseOrderByCreatedAtDesc(category).stream()
             .map(InsightResponse::fromEntity)
@@ -73,6 +78,7 @@ public class InsightService {
     /**
      * Get actionable insights
      */
+    @Transactional(readOnly = true)
     public List<InsightResponse> getActionableInsights() {
         return insightRepository.findByActionableTrueAndDismissedFalseOrderByCreatedAtDesc().stream()
             .map(InsightResponse::fromEntity)
@@ -250,24 +256,29 @@ public class InsightService {
     }
 
     /**
-     * Identify at-risk members (churn risk)
+     * Identify at-risk members (churn risk) from the member risk snapshot
      */
     private List<Insight> identifyAtRiskMembers(Long churchId) {
         List<Insight> insights = new ArrayList<>();
 
-        // This would typically use more sophisticated analysis
-        // For now, we'll use a simple approach
+        Map<MemberRiskLevel, Long> counts = memberRiskService.countByLevel(churchId);
+        long high = counts.get(MemberRiskLevel.HIGH);
+        long medium = counts.get(MemberRiskLevel.MEDIUM);
 
-        insights.add(createInsight(
-            churchId,
-            InsightType.RECOMMENDATION,
-            InsightCategory.ENGAGEMENT,
-            "Review Irregular Attenders",
-            "Several members haven't attended in 3+ weeks. Consider reaching out for pastoral care.",
-            InsightSeverity.MEDIUM,
-            true,
-            "/dashboard/irregular-attenders"
-        ));
+        if (high + medium > 0) {
+            insights.add(createInsight(
+                churchId,
+                InsightType.RECOMMENDATION,
+                InsightCategory.ENGAGEMENT,
+                "Review At-Risk Members",
+                String.format("%d members are at high risk and %d at medium risk of drifting away " +
+                    "(extended absence with no recent contact). Consider reaching out for pastoral care.",
+                    high, medium),
+                high > 0 ? InsightSeverity.HIGH : InsightSeverity.MEDIUM,
+                true,
+                "/dashboard/at-risk-members"
+            ));
+        }
 
         return insights;
     }
@@ -304,7 +315,8 @@ public class InsightService {
         List<Insight> insights = new ArrayList<>();
 
         LocalDateTime now = LocalDateTime.now();
-        long upcomingEvents = eventRepository.countUpcomingEvents(churchId, now);
+        long upcomingEvents = eventOccurrenceService.countUpcoming(churchId, now,
+            EventOccurrenceService.defaultTo(now.toLocalDate()));
 
         if (upcomingEvents == 0) {
             insights.add(createInsight(
@@ -124,8 +124,8 @@ public class JobExecutionService {
         );
 
         try {
-            billingService.processSubscriptionRenewals();
-            jobMonitoringService.markJobCompleted(execution.getId(), 0, 0);
+            var report = billingService.processSubscriptionRenewals();
+            jobMonitoringService.markJobCompleted(execution.getId(), report.renewed(), report.failed() + report.errors());
 
         } catch (Exception e) {
             jobMonitoringService.markJobFailed(execution.getId(), e);
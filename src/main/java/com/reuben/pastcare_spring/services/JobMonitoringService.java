@@ -3,6 +3,8 @@ package com.reuben.pastcare_spring.services;
 import com.reuben.pastcare_spring.models.ScheduledJobExecution;
 import com.reuben.pastcare_spring.models.ScheduledJobExecution.JobStatus;
 import com.reuben.pastcare_spring.repositories.ScheduledJobExecutionRepository;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -10,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -60,6 +63,7 @@ public class JobMonitoringService {
         executionRepository.findById(executionId).ifPresent(execution -> {
             execution.markAsCompleted(itemsProcessed, itemsFailed);
             executionRepository.save(execution);
+            recordDuration(execution);
             log.info("Job {} completed successfully. Processed: {}, Failed: {}",
                 execution.getJobName(), itemsProcessed, itemsFailed);
         });
@@ -76,6 +80,7 @@ public class JobMonitoringService {
 
             execution.markAsFailed(errorMessage, stackTrace);
             executionRepository.save(execution);
+            recordDuration(execution);
             log.error("Job {} failed: {}", execution.getJobName(), errorMessage);
         });
     }
@@ -180,4 +185,18 @@ public class JobMonitoringService {
         LocalDateTime since = LocalDateTime.now().minusDays(daysBack);
         return executionRepository.getJobStatisticsSummary(since);
     }
+
+    /**
+     * Publish a finished execution's duration as {@code scheduled.jobs{job, status}}.
+     */
+    private void recordDuration(ScheduledJobExecution execution) {
+        if (execution.getDurationMs() == null) {
+            return;
+        }
+        Timer.builder("scheduled.jobs")
+            .description("Duration of tracked scheduled job executions")
+            .tags("job", execution.getJobName(), "status", execution.getStatus().name())
+            .register(Metrics.globalRegistry)
+            .record(Duration.ofMillis(execution.getDurationMs()));
+    }
 }
@@ -0,0 +1,183 @@
+package com.reuben.pastcare_spring.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains a table-backed work queue whose rows are claimed with leases.
+ *
+ * <p>A drain repeatedly claims a page of ready rows, handles them on a worker pool and completes
+ * the page on the draining thread, until no row is ready:
+ * <ul>
+ *   <li>claims are leases on the row's next attempt time, so several instances can drain the
+ *       same table and a crashed worker's rows come due again</li>
+ *   <li>each drain has its own owner id; completing a row whose lease lapsed (and was claimed
+ *       again) must be skipped by the queue</li>
+ * </ul>
+ *
+ * {@link #wakeUp} runs a drain in the background on a single dispatcher thread, so drains of
+ * one queue don't overlap within an instance.
+ *
+ * @param <T> a claimed row
+ * @param <R> the result of handling one row
+ * @param <S> the outcome of a completed row, as counted in {@link Result}
+ */
+@Slf4j
+final class LeaseQueueDrainer<T, R, S> {
+
+    /**
+     * The table a drainer works through.
+     */
+    interface Queue<T, R, S> {
+
+        /**
+         * Ids of at most {@code limit} rows ready at {@code now}.
+         */
+        List<Long> findReady(LocalDateTime now, int limit);
+
+        /**
+         * Lease the rows that are still ready to {@code owner} until {@code leaseUntil}, and return
+         * the ones it now holds. Runs in a new transaction.
+         */
+        List<T> claim(List<Long> ids, String owner, LocalDateTime leaseUntil, LocalDateTime now);
+
+        /**
+         * Handle one claimed row, on a worker thread. Handler errors belong in the result.
+         */
+        R handle(T row, String owner);
+
+        /**
+         * Record a page's results and release their claims, on the draining thread.
+         *
+         * @return the outcome of each row recorded
+         */
+        List<S> complete(List<R> results, String owner);
+    }
+
+    /**
+     * Result of a drain.
+     */
+    record Result<S>(int claimed, List<S> outcomes, long elapsedMs) {
+
+        int count(S outcome) {
+            return (int) outcomes.stream().filter(outcome::equals).count();
+        }
+    }
+
+    private final String name;
+    private final Queue<T, R, S> queue;
+    private final TransactionTemplate transaction;
+    private final int pageSize;
+    private final Duration leaseDuration;
+
+    private final ExecutorService dispatcher;
+    private final ExecutorService workers;
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+    /**
+     * @param name        names the threads ({@code name}, {@code name-dispatch}) and log lines
+     * @param transaction runs each claim; should require a new transaction
+     */
+    LeaseQueueDrainer(String name, Queue<T, R, S> queue, TransactionTemplate transaction,
+                      int workerCount, int pageSize, Duration leaseDuration) {
+        this.name = name;
+        this.queue = queue;
+        this.transaction = transaction;
+        this.pageSize = Math.max(1, pageSize);
+        this.leaseDuration = leaseDuration;
+        this.dispatcher = Executors.newSingleThreadExecutor(daemon(name + "-dispatch"));
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), daemon(name));
+    }
+
+    /**
+     * Start a drain in the background. Calls while a drain is queued are coalesced; a call
+     * during a running drain queues one more, so a row added meanwhile is not missed.
+     */
+    void wakeUp() {
+        if (!drainQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                drainQueued.set(false);
+                try {
+                    drain();
+                } catch (RuntimeException e) {
+                    log.error("Drain of {} failed", name, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            drainQueued.set(false); // shutting down; the rows stay pending
+        }
+    }
+
+    /**
+     * Handle every ready row until none is left, on the calling thread and the worker pool.
+     */
+    Result<S> drain() {
+        long start = System.nanoTime();
+        String owner = UUID.randomUUID().toString();
+        int claimedTotal = 0;
+        List<S> outcomes = new ArrayList<>();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> candidates = queue.findReady(now, pageSize);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            List<T> claimed = transaction.execute(status -> queue.claim(candidates, owner, now.plus(leaseDuration), now));
+            if (claimed.isEmpty()) {
+                continue; // another worker took this page
+            }
+            claimedTotal += claimed.size();
+
+            List<Future<R>> pending = new ArrayList<>(claimed.size());
+            for (T row : claimed) {
+                pending.add(workers.submit(() -> queue.handle(row, owner)));
+            }
+            List<R> results = new ArrayList<>(claimed.size());
+            for (Future<R> result : pending) {
+                results.add(await(result));
+            }
+            outcomes.addAll(queue.complete(results, owner));
+        }
+        return new Result<>(claimedTotal, outcomes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    void shutdown() {
+        dispatcher.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private R await(Future<R> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while draining " + name, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Worker of " + name + " failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,275 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.dtos.IrregularAttenderResponse;
+import com.reuben.pastcare_spring.dtos.MemberEngagementResponse;
+import com.reuben.pastcare_spring.enums.AttendanceStatus;
+import com.reuben.pastcare_spring.enums.CheckInMethod;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberEngagement;
+import com.reuben.pastcare_spring.persistence.BulkWriter;
+import com.reuben.pastcare_spring.repositories.AttendanceRepository;
+import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
+import com.reuben.pastcare_spring.repositories.MemberEngagementRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the precomputed member_engagement table.
+ *
+ * <ul>
+ *   <li>Attendance writes call {@link #attendanceChanged}; the affected members' rows are
+ *       rebuilt from their (member-indexed) history once the write commits, with a fixed
+ *       number of statements per chunk of members</li>
+ *   <li>The nightly job rolls the 30/90 day windows forward with one set-based UPDATE
+ *       per church and backfills members without a row</li>
+ *   <li>Dashboard top-N and irregular-attender widgets read indexed rows</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class MemberEngagementService {
+
+    static final int TOP_ACTIVE_LIMIT = 10;
+    static final int IRREGULAR_LIMIT = 10;
+
+    private final MemberEngagementRepository engagementRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceSessionRepository sessionRepository;
+    private final MemberRepository memberRepository;
+    private final BulkWriter bulkWriter;
+    private final TransactionTemplate refreshTransaction;
+
+    public MemberEngagementService(
+            MemberEngagementRepository engagementRepository,
+            AttendanceRepository attendanceRepository,
+            AttendanceSessionRepository sessionRepository,
+            MemberRepository memberRepository,
+            BulkWriter bulkWriter,
+            PlatformTransactionManager transactionManager) {
+        this.engagementRepository = engagementRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.sessionRepository = sessionRepository;
+        this.memberRepository = memberRepository;
+        this.bulkWriter = bulkWriter;
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Record that members' attendance changed.
+     *
+     * <p>Refreshes run after the surrounding transaction commits, one transaction per
+     * chunk of members, so a refresh failure never rolls back a check-in. Missed refreshes
+     * are repaired by the nightly job.
+     */
+    public void attendanceChanged(Collection<Long> memberIds) {
+        Set<Long> ids = new LinkedHashSet<>(memberIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshQuietly(ids);
+                }
+            });
+        } else {
+            refreshQuietly(ids);
+        }
+    }
+
+    public void attendanceChanged(Long memberId) {
+        attendanceChanged(List.of(memberId));
+    }
+
+    private void refreshQuietly(Collection<Long> memberIds) {
+        for (List<Long> chunk : BulkWriter.partition(List.copyOf(memberIds), BulkWriter.MAX_IDS_PER_STATEMENT)) {
+            try {
+                refreshTransaction.executeWithoutResult(status -> refreshMembers(chunk, LocalDate.now()));
+            } catch (Exception e) {
+                log.warn("Failed to refresh engagement for {} members: {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rebuild members' engagement rows from their attendance history.
+     *
+     * <p>Each chunk of members is read with one grouped query per signal and written
+     * in JDBC batches, so the statement count doesn't grow with the number of members.
+     */
+    @Transactional
+    public void refreshMembers(Collection<Long> memberIds, LocalDate asOf) {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(memberIds));
+        for (List<Long> chunk : BulkWriter.partition(ids, BulkWriter.MAX_IDS_PER_STATEMENT)) {
+            refreshChunk(chunk, asOf);
+        }
+    }
+
+    private void refreshChunk(List<Long> memberIds, LocalDate asOf) {
+        Map<Long, Object[]> counters = new HashMap<>();
+        for (Object[] row : attendanceRepository.getEngagementCounters(
+                memberIds, asOf.minusDays(29), asOf.minusDays(89), asOf)) {
+            counters.put(((Number) row[0]).longValue(), row);
+        }
+        Map<Long, CheckInMethod> preferredMethods = new HashMap<>();
+        for (Object[] row : attendanceRepository.getCheckInMethodCounts(memberIds)) {
+            preferredMethods.putIfAbsent(((Number) row[0]).longValue(), (CheckInMethod) row[1]);
+        }
+        Map<Long, List<AttendanceStatus>> histories = new HashMap<>();
+        for (Object[] row : attendanceRepository.findStatusHistories(memberIds)) {
+            histories.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>())
+                .add((AttendanceStatus) row[1]);
+        }
+        Map<Long, MemberEngagement> existing = new HashMap<>();
+        for (MemberEngagement engagement : engagementRepository.findByMemberIdIn(memberIds)) {
+            existing.put(engagement.getMember().getId(), engagement);
+        }
+
+        List<MemberEngagement> rows = new ArrayList<>(memberIds.size());
+        for (Member member : memberRepository.findAllById(memberIds)) {
+            MemberEngagement engagement = existing.get(member.getId());
+            if (engagement == null) {
+                engagement = MemberEngagement.builder().member(member).build();
+                engagement.setChurch(member.getChurch());
+            }
+
+            Object[] row = counters.getOrDefault(member.getId(), new Object[6]);
+            int[] streaks = computeStreaks(histories.getOrDefault(member.getId(), List.of()));
+            engagement.setTotalAttended(toInt(row[1]));
+            engagement.setAttendedLast30Days(toInt(row[2]));
+            engagement.setAttendedLast90Days(toInt(row[3]));
+            engagement.setLateLast90Days(toInt(row[4]));
+            engagement.setLastAttendedDate((LocalDate) row[5]);
+            engagement.setPreferredCheckInMethod(preferredMethods.get(member.getId()));
+            engagement.setCurrentStreak(streaks[0]);
+            engagement.setLongestStreak(streaks[1]);
+            engagement.setWindowsAsOf(asOf);
+            rows.add(engagement);
+        }
+        bulkWriter.saveAll(rows);
+    }
+
+    /**
+     * Nightly maintenance for one church: backfill missing rows, then roll the windows forward.
+     *
+     * @return Number of rows touched
+     */
+    @Transactional
+    public int refreshChurch(Long churchId, LocalDate asOf) {
+        int created = backfillMissing(churchId, asOf);
+        int rolled = engagementRepository.rollWindows(churchId, asOf.minusDays(29), asOf.minusDays(89), asOf);
+        return created + rolled;
+    }
+
+    /**
+     * Build rows for a church's members who have attendance but no engagement row yet.
+     *
+     * @return Number of rows created
+     */
+    @Transactional
+    public int backfillMissing(Long churchId, LocalDate asOf) {
+        List<Long> missing = engagementRepository.findMemberIdsMissingEngagement(churchId);
+        refreshMembers(missing, asOf);
+        return missing.size();
+    }
+
+    /**
+     * Top members by sessions attended over the last 90 days.
+     */
+    @Transactional(readOnly = true)
+    public List<MemberEngagementResponse> getTopActiveMembers(Long churchId) {
+        LocalDate today = LocalDate.now();
+        Long sessionsAvailable = sessionRepository.countSessionsByDateRange(churchId, today.minusDays(90), today);
+
+        return engagementRepository.findTopActive(churchId, PageRequest.of(0, TOP_ACTIVE_LIMIT)).stream()
+            .map(e -> toResponse(e, sessionsAvailable, today))
+            .toList();
+    }
+
+    /**
+     * Members absent for at least the given number of weeks, longest absent first.
+     */
+    @Transactional(readOnly = true)
+    public List<IrregularAttenderResponse> getIrregularAttenders(Long churchId, int weeksThreshold) {
+        LocalDate cutoff = LocalDate.now().minusWeeks(weeksThreshold);
+        Instant memberCreatedBefore = cutoff.atStartOfDay().toInstant(ZoneOffset.UTC);
+        return engagementRepository.findIrregularAttenders(churchId, cutoff, memberCreatedBefore, IRREGULAR_LIMIT);
+    }
+
+    /**
+     * Current and longest runs of PRESENT in a most-recent-first status history.
+     *
+     * @return {current streak, longest streak}
+     */
+    static int[] computeStreaks(List<AttendanceStatus> mostRecentFirst) {
+        int current = 0;
+        int longest = 0;
+        int run = 0;
+        boolean leading = true;
+        for (AttendanceStatus status : mostRecentFirst) {
+            if (status == AttendanceStatus.PRESENT) {
+                run++;
+                longest = Math.max(longest, run);
+                if (leading) {
+                    current = run;
+                }
+            } else {
+                run = 0;
+                leading = false;
+            }
+        }
+        return new int[]{current, longest};
+    }
+
+    private MemberEngagementResponse toResponse(MemberEngagement e, Long sessionsAvailable, LocalDate today) {
+        long attended = e.getAttendedLast90Days();
+        long late = e.getLateLast90Days();
+        double attendanceRate = sessionsAvailable > 0 ? (attended * 100.0) / sessionsAvailable : 0.0;
+        double lateRate = attended > 0 ? (late * 100.0) / attended : 0.0;
+        Long daysSince = e.getLastAttendedDate() != null
+            ? ChronoUnit.DAYS.between(e.getLastAttendedDate(), today) : null;
+
+        return new MemberEngagementResponse(
+            e.getMember().getId(),
+            e.getMember().getFirstName() + " " + e.getMember().getLastName(),
+            sessionsAvailable,
+            attended,
+            attendanceRate,
+            e.getCurrentStreak().longValue(),
+            late,
+            lateRate,
+            e.getLastAttendedDate(),
+            daysSince,
+            MemberEngagementResponse.calculateEngagementLevel(attendanceRate, daysSince),
+            e.getPreferredCheckInMethod() != null ? e.getPreferredCheckInMethod().name() : "MANUAL"
+        );
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+}
@@ -0,0 +1,274 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.dtos.MemberRiskResponse;
+import com.reuben.pastcare_spring.enums.MemberRiskLevel;
+import com.reuben.pastcare_spring.models.CareNeedStatus;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.MemberRisk;
+import com.reuben.pastcare_spring.models.MemberRiskSnapshot;
+import com.reuben.pastcare_spring.repositories.ChurchRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.repositories.MemberRiskRepository;
+import com.reuben.pastcare_spring.repositories.MemberRiskSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch pastoral-risk detection.
+ *
+ * <ul>
+ *   <li>{@link #recompute} gathers every member's absence, care need, visit and
+ *       communication signals for a church in one set-based query, scores them and
+ *       replaces the church's ranked member_risk rows, recording the day computed in
+ *       member_risk_snapshot. Members with attendance but no engagement row yet are
+ *       backfilled first, so they aren't scored as never attended</li>
+ *   <li>The nightly job recomputes every church after engagement windows roll forward;
+ *       staff can also trigger a recompute on demand</li>
+ *   <li>Care-need suggestions, the dashboard at-risk widget and insights read the snapshot</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MemberRiskService {
+
+    static final int MIN_WEEKS_ABSENT = 3;
+    static final int NO_CONTACT_DAYS = 30;
+    static final int RECENT_CONTACT_DAYS = 14;
+    static final int MAX_LIMIT = 100;
+
+    static final String REASON_NEVER_ATTENDED = "NEVER_ATTENDED";
+    static final String REASON_ABSENT = "ABSENT";
+    static final String REASON_DECLINING = "DECLINING_ATTENDANCE";
+    static final String REASON_NO_RECENT_CONTACT = "NO_RECENT_CONTACT";
+
+    private static final List<CareNeedStatus> CLOSED_STATUSES =
+        List.of(CareNeedStatus.RESOLVED, CareNeedStatus.CLOSED);
+
+    private final MemberRiskRepository memberRiskRepository;
+    private final MemberRiskSnapshotRepository memberRiskSnapshotRepository;
+    private final MemberRepository memberRepository;
+    private final ChurchRepository churchRepository;
+    private final MemberEngagementService memberEngagementService;
+
+    /**
+     * Score for one member's signals.
+     */
+    public record Assessment(int score, MemberRiskLevel level, List<String> reasons) {
+    }
+
+    /**
+     * Replace a church's risk snapshot with one computed for the given day.
+     *
+     * @return Number of members with a non-zero risk score
+     */
+    @Transactional
+    public int recompute(Long churchId, LocalDate asOf) {
+        Church church = churchRepository.getReferenceById(churchId);
+        memberEngagementService.backfillMissing(churchId, asOf);
+        List<Object[]> signals = memberRiskRepository.findRiskSignals(
+            churchId,
+            asOf,
+            asOf.plusDays(1).atStartOfDay(),
+            asOf.minusWeeks(MIN_WEEKS_ABSENT).atStartOfDay().toInstant(ZoneOffset.UTC));
+
+        List<MemberRisk> risks = new ArrayList<>();
+        for (Object[] row : signals) {
+            LocalDate lastAttended = toLocalDate(row[1]);
+            LocalDate lastVisit = toLocalDate(row[5]);
+            LocalDateTime lastCommunication = toLocalDateTime(row[6]);
+            LocalDate lastContact = latest(lastVisit,
+                lastCommunication != null ? lastCommunication.toLocalDate() : null);
+
+            Assessment assessment = assess(lastAttended, toInt(row[2]), toInt(row[3]), lastContact, asOf);
+            if (assessment.score() == 0) {
+                continue;
+            }
+
+            MemberRisk risk = MemberRisk.builder()
+                .member(memberRepository.getReferenceById(((Number) row[0]).longValue()))
+                .riskScore(assessment.score())
+                .riskLevel(assessment.level())
+                .reasons(String.join(",", assessment.reasons()))
+                .neverAttended(lastAttended == null)
+                .weeksAbsent(lastAttended != null ? (int) ChronoUnit.WEEKS.between(lastAttended, asOf) : null)
+                .lastAttendedDate(lastAttended)
+                .hasOpenCareNeed(toInt(row[4]) > 0)
+                .lastVisitDate(lastVisit)
+                .lastContactDate(lastCommunication)
+                .computedFor(asOf)
+                .build();
+            risk.setChurch(church);
+            risks.add(risk);
+        }
+
+        risks.sort(Comparator.comparing(MemberRisk::getRiskScore).reversed()
+            .thenComparing(r -> r.getMember().getId()));
+        for (int i = 0; i < risks.size(); i++) {
+            risks.get(i).setRiskRank(i + 1);
+        }
+
+        memberRiskRepository.deleteByChurchId(churchId);
+        memberRiskRepository.saveAll(risks);
+        memberRiskSnapshotRepository.save(MemberRiskSnapshot.builder()
+            .churchId(churchId)
+            .computedFor(asOf)
+            .atRiskCount(risks.size())
+            .computedAt(LocalDateTime.now())
+            .build());
+        log.debug("Computed member risk for church {}: {} of {} members at risk",
+            churchId, risks.size(), signals.size());
+        return risks.size();
+    }
+
+    /**
+     * Highest-risk members from the current snapshot.
+     */
+    @Transactional(readOnly = true)
+    public List<MemberRiskResponse> getTopRisks(Long churchId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return memberRiskRepository.findRanked(churchId, PageRequest.of(0, limit)).stream()
+            .map(MemberRiskResponse::fromEntity)
+            .toList();
+    }
+
+    /**
+     * Members absent for {@value #MIN_WEEKS_ABSENT}+ weeks (or never attended) with no
+     * open care need, highest risk first. Computes the snapshot first if the church
+     * has never had one or it was computed for an earlier day (e.g. the nightly job
+     * failed or hasn't run yet today).
+     */
+    @Transactional
+    public List<MemberRisk> getCareSuggestions(Long churchId) {
+        LocalDate today = LocalDate.now();
+        boolean current = memberRiskSnapshotRepository.findById(churchId)
+            .map(snapshot -> !snapshot.getComputedFor().isBefore(today))
+            .orElse(false);
+        if (!current) {
+            recompute(churchId, today);
+        }
+        return memberRiskRepository.findCareSuggestions(churchId, MIN_WEEKS_ABSENT, CLOSED_STATUSES);
+    }
+
+    /**
+     * Members at each risk level in the current snapshot (levels with none are 0).
+     */
+    @Transactional(readOnly = true)
+    public Map<MemberRiskLevel, Long> countByLevel(Long churchId) {
+        Map<MemberRiskLevel, Long> counts = new EnumMap<>(MemberRiskLevel.class);
+        for (MemberRiskLevel level : MemberRiskLevel.values()) {
+            counts.put(level, 0L);
+        }
+        for (Object[] row : memberRiskRepository.countByLevel(churchId)) {
+            counts.put((MemberRiskLevel) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Score a member's signals (0-100).
+     *
+     * <ul>
+     *   <li>Never attended: 40</li>
+     *   <li>Absent {@value #MIN_WEEKS_ABSENT}+ weeks: 30, plus 3 per further week (up to 10 weeks)</li>
+     *   <li>Attended in the last 90 days but not the last 30: +10</li>
+     *   <li>Absent (or never attended) with no visit or contact in {@value #NO_CONTACT_DAYS} days: +20</li>
+     *   <li>Visited or contacted in the last {@value #RECENT_CONTACT_DAYS} days: -15</li>
+     * </ul>
+     *
+     * @param lastAttended Last PRESENT session date, null if never attended
+     * @param lastContact  Latest visit or communication on or before asOf, null if none
+     */
+    public static Assessment assess(LocalDate lastAttended, int attended30, int attended90,
+                                    LocalDate lastContact, LocalDate asOf) {
+        List<String> reasons = new ArrayList<>();
+        int score = 0;
+        boolean absent = false;
+
+        if (lastAttended == null) {
+            score += 40;
+            absent = true;
+            reasons.add(REASON_NEVER_ATTENDED);
+        } else {
+            long weeksAbsent = ChronoUnit.WEEKS.between(lastAttended, asOf);
+            if (weeksAbsent >= MIN_WEEKS_ABSENT) {
+                score += 30 + (int) Math.min(weeksAbsent - MIN_WEEKS_ABSENT, 10) * 3;
+                absent = true;
+                reasons.add(REASON_ABSENT);
+            }
+        }
+
+        if (attended30 == 0 && attended90 > 0) {
+            score += 10;
+            reasons.add(REASON_DECLINING);
+        }
+
+        if (absent && (lastContact == null || lastContact.isBefore(asOf.minusDays(NO_CONTACT_DAYS)))) {
+            score += 20;
+            reasons.add(REASON_NO_RECENT_CONTACT);
+        }
+
+        if (score > 0 && lastContact != null && !lastContact.isBefore(asOf.minusDays(RECENT_CONTACT_DAYS))) {
+            score -= 15;
+        }
+
+        score = Math.max(0, Math.min(100, score));
+        return new Assessment(score, levelFor(score), score > 0 ? reasons : List.of());
+    }
+
+    static MemberRiskLevel levelFor(int score) {
+        if (score >= 70) {
+            return MemberRiskLevel.HIGH;
+        }
+        if (score >= 40) {
+            return MemberRiskLevel.MEDIUM;
+        }
+        return score > 0 ? MemberRiskLevel.LOW : null;
+    }
+
+    private static LocalDate latest(LocalDate a, LocalDate b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+}
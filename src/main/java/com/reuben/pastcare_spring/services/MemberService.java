@@ -1,10 +1,13 @@
 package com.reuben.pastcare_spring.services;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,6 +21,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.reuben.pastcare_spring.dtos.AdvancedSearchRequest;
 import com.reuben.pastcare_spring.dtos.AdvancedSearchResponse;
+import com.reuben.pastcare_spring.dtos.BulkChunkResult;
 import com.reuben.pastcare_spring.dtos.MemberBulkImportRequest;
 import com.reuben.pastcare_spring.dtos.MemberBulkImportResponse;
 import com.reuben.pastcare_spring.dtos.MemberBulkUpdateRequest;
@@ -35,9 +39,11 @@ import com.reuben.pastcare_spring.models.Household;
 import com.reuben.pastcare_spring.models.Location;
 import com.reuben.pastcare_spring.models.Member;
 import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.persistence.BulkWriter;
 import com.reuben.pastcare_spring.repositories.ChurchRepository;
 import com.reuben.pastcare_spring.repositories.FellowshipRepository;
 import com.reuben.pastcare_spring.repositories.HouseholdRepository;
+import com.reuben.pastcare_spring.repositories.MemberBulkRepository;
 import com.reuben.pastcare_spring.repositories.MemberRepository;
 import com.reuben.pastcare_spring.specifications.MemberSpecification;
 import com.reuben.pastcare_spring.exceptions.FileUploadException;
@@ -49,6 +55,11 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MemberService {
 
+  /**
+   * Bulk updates of up to this many members return the updated members.
+   */
+  static final int MAX_BULK_RESPONSE_MEMBERS = 100;
+
   @Autowired
   private MemberRepository memberRepository;
 
@@ -58,6 +69,9 @@ public class MemberService {
   @Autowired
   private FellowshipRepository fellowshipRepository;
 
+  @Autowired
+  private FellowshipAnalyticsService fellowshipAnalyticsService;
+
   @Autowired
   private LocationService locationService;
 
@@ -79,6 +93,12 @@ public class MemberService {
   @Autowired
   private HouseholdRepository householdRepository;
 
+  @Autowired
+  private MemberBulkRepository memberBulkRepository;
+
+  @Autowired
+  private BulkWriter bulkWriter;
+
 
   @Transactional(readOnly = true)
   public List<MemberResponse> getAllMembers(){
@@ -221,6 +241,8 @@ public class MemberService {
     // Handle family relations AFTER saving member (requires member ID)
     handleFamilyRelations(createdMember, memberRequest, church);
 
+    fellowshipAnalyticsService.invalidate(church.getId());
+
     // Recalculate MEMBERS type goals after adding a new member
     recalculateMemberGoals();
 
@@ -242,6 +264,7 @@ public class MemberService {
 
     Church church = churchRepository.findById(memberRequest.churchId())
         .orElseThrow(() -> new IllegalArgumentException("Invalid church ID provided"));
+    Long previousChurchId = member.getChurch() != null ? member.getChurch().getId() : null;
     member.setChurch(church);
     member.getFellowships().clear();
 
@@ -312,6 +335,12 @@ public class MemberService {
       handleFamilyRelations(member, memberRequest, church);
     }
 
+    // Fellowships are replaced on every update
+    fellowshipAnalyticsService.invalidate(church.getId());
+    if (!church.getId().equals(previousChurchId)) {
+      fellowshipAnalyticsService.invalidate(previousChurchId);
+    }
+
     return MemberMapper.toMemberResponse(member);
   }
 
@@ -319,10 +348,8 @@ public class MemberService {
     Member member = memberRepository.findById(id)
         .orElseThrow(() -> new IllegalArgumentException("Member not found"));
 
-    String oldImagePath = member.getProfileImageUrl();
-
     try {
-      String imagePath = imageService.uploadProfileImage(image, oldImagePath);
+      String imagePath = imageService.uploadProfileImage(image);
       member.setProfileImageUrl(imagePath);
       memberRepository.save(member);
       return new ProfileImageUploadResponse(imagePath);
@@ -338,6 +365,7 @@ public class MemberService {
     tenantValidationService.validateMemberAccess(member);
 
     memberRepository.delete(member);
+    fellowshipAnalyticsService.invalidate(member.getChurch().getId());
   }
 
   /**
@@ -396,6 +424,7 @@ public class MemberService {
 
     // Save member
     var savedMember = memberRepository.save(member);
+    fellowshipAnalyticsService.invalidate(churchId);
 
     // Recalculate MEMBERS type goals after adding a new member
     recalculateMemberGoals();
@@ -548,6 +577,7 @@ public class MemberService {
 
     // Recalculate MEMBERS type goals after bulk import (if any members were added)
     if (successCount > 0) {
+      fellowshipAnalyticsService.invalidate(churchId);
       recalculateMemberGoals();
     }
 
@@ -807,213 +837,257 @@ public class MemberService {
   /**
    * Bulk update multiple members with specified fields.
    * Supports updating fellowships, tags, status, and verification state.
+   *
+   * The request is validated once, then applied with set-based statements
+   * (UPDATE ... WHERE id IN, INSERT ... SELECT into member_tags/member_fellowships),
+   * one transaction per chunk of members. An invalid status or fellowship fails every
+   * member, since none of the update can be applied.
    */
   public MemberBulkUpdateResponse bulkUpdateMembers(MemberBulkUpdateRequest request, Long churchId) {
     Church church = churchRepository.findById(churchId)
         .orElseThrow(() -> new IllegalArgumentException("Invalid church ID"));
 
-    List<MemberResponse> updatedMembers = new ArrayList<>();
     List<MemberBulkUpdateResponse.UpdateError> errors = new ArrayList<>();
-    int successCount = 0;
-    int failureCount = 0;
 
-    for (Long memberId : request.memberIds()) {
-      try {
-        // Fetch member and verify it belongs to the church
-        Member member = memberRepository.findById(memberId)
-            .orElseThrow(() -> new IllegalArgumentException("Member not found: " + memberId));
+    // Validate the request once
+    String requestError = null;
+    List<Long> fellowshipIds = List.of();
+    MemberStatus status = null;
+    try {
+      if (request.fellowshipIds() != null && request.fellowshipIds().values() != null) {
+        fellowshipIds = request.fellowshipIds().action() == MemberBulkUpdateRequest.ActionType.REMOVE
+            ? List.copyOf(request.fellowshipIds().values())
+            : validateFellowships(request.fellowshipIds().values(), church);
+      }
+      if (request.status() != null && !request.status().isBlank()) {
+        status = parseStatus(request.status());
+      }
+    } catch (IllegalArgumentException e) {
+      requestError = e.getMessage();
+    }
+    boolean hasUpdates = request.fellowshipIds() != null
+        || request.tags() != null
+        || status != null
+        || request.isVerified() != null
+        || (request.maritalStatus() != null && !request.maritalStatus().isBlank());
+
+    BulkTargets targets = resolveBulkTargets(request.memberIds(), churchId);
+    targets.errors().forEach((memberId, error) -> errors.add(new MemberBulkUpdateResponse.UpdateError(
+        memberId, targets.names().getOrDefault(memberId, "Unknown"), error)));
+
+    if (requestError != null || !hasUpdates) {
+      String error = requestError != null ? requestError : "No updates specified";
+      for (Long memberId : targets.memberIds()) {
+        errors.add(new MemberBulkUpdateResponse.UpdateError(memberId, targets.names().get(memberId), error));
+      }
+      return new MemberBulkUpdateResponse(request.memberIds().size(), 0, errors.size(), errors, List.of(), List.of());
+    }
 
-        if (!member.getChurch().getId().equals(churchId)) {
-          throw new IllegalArgumentException("Member does not belong to your church");
-        }
+    // Apply chunk by chunk; small updates also return the updated members
+    boolean returnMembers = targets.memberIds().size() <= MAX_BULK_RESPONSE_MEMBERS;
+    Map<Long, MemberResponse> updated = new LinkedHashMap<>();
+    List<Long> resolvedFellowshipIds = fellowshipIds;
+    MemberStatus resolvedStatus = status;
+    Instant now = Instant.now();
 
-        // Apply updates
-        boolean updated = false;
+    BulkWriter.ChunkedResult<Long> result = bulkWriter.inChunkTransactions(
+        targets.memberIds(), BulkWriter.MAX_IDS_PER_STATEMENT, ids -> {
+          applyBulkUpdate(ids, request, churchId, resolvedFellowshipIds, resolvedStatus, now);
+          if (returnMembers) {
+            memberRepository.findAllWithTagsByIdIn(ids).forEach(m -> updated.put(m.getId(), MemberMapper.toMemberResponse(m)));
+          }
+        });
 
-        // Update fellowships
-        if (request.fellowshipIds() != null) {
-          updated = true;
-          updateMemberFellowships(member, request.fellowshipIds(), church);
-        }
+    result.failures().forEach((memberId, message) -> {
+      updated.remove(memberId);
+      errors.add(new MemberBulkUpdateResponse.UpdateError(memberId, targets.names().get(memberId), message));
+    });
 
-        // Update tags
-        if (request.tags() != null) {
-          updated = true;
-          updateMemberTags(member, request.tags());
-        }
+    return new MemberBulkUpdateResponse(
+        request.memberIds().size(),
+        targets.memberIds().size() - result.failures().size(),
+        errors.size(),
+        errors,
+        new ArrayList<>(updated.values()),
+        toChunkResults(result)
+    );
+  }
 
-        // Update status
-        if (request.status() != null && !request.status().isBlank()) {
-          updated = true;
-          try {
-            member.setStatus(MemberStatus.valueOf(request.status().toUpperCase()));
-          } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid status: " + request.status());
+  /**
+   * Set-based statements for one chunk of members (already checked to belong to the church).
+   */
+  private void applyBulkUpdate(List<Long> ids, MemberBulkUpdateRequest request, Long churchId,
+      List<Long> fellowshipIds, MemberStatus status, Instant now) {
+    if (request.fellowshipIds() != null) {
+      switch (request.fellowshipIds().action()) {
+        case ADD -> fellowshipIds.forEach(fellowshipId -> fellowshipRepository.addMembers(fellowshipId, churchId, ids));
+        case REMOVE -> {
+          if (!fellowshipIds.isEmpty()) {
+            memberBulkRepository.removeFellowships(ids, fellowshipIds);
           }
         }
-
-        // Update verification status
-        if (request.isVerified() != null) {
-          updated = true;
-          member.setIsVerified(request.isVerified());
+        case REPLACE -> {
+          memberBulkRepository.clearFellowships(ids);
+          fellowshipIds.forEach(fellowshipId -> fellowshipRepository.addMembers(fellowshipId, churchId, ids));
         }
+      }
+      fellowshipAnalyticsService.invalidate(churchId);
+    }
 
-        // Update marital status
-        if (request.maritalStatus() != null && !request.maritalStatus().isBlank()) {
-          updated = true;
-          member.setMaritalStatus(request.maritalStatus());
+    if (request.tags() != null) {
+      Set<String> tags = request.tags().values() != null ? request.tags().values() : Set.of();
+      switch (request.tags().action()) {
+        case ADD -> tags.forEach(tag -> memberBulkRepository.addTag(ids, tag));
+        case REMOVE -> {
+          if (!tags.isEmpty()) {
+            memberBulkRepository.removeTags(ids, tags);
+          }
         }
-
-        // Save if any updates were made
-        if (updated) {
-          // Recalculate profile completeness
-          member.setProfileCompleteness(calculateProfileCompleteness(member));
-          Member savedMember = memberRepository.save(member);
-          updatedMembers.add(MemberMapper.toMemberResponse(savedMember));
-          successCount++;
-        } else {
-          failureCount++;
-          errors.add(new MemberBulkUpdateResponse.UpdateError(
-              memberId,
-              member.getFirstName() + " " + member.getLastName(),
-              "No updates specified"
-          ));
+        case REPLACE -> {
+          memberBulkRepository.clearTags(ids);
+          tags.forEach(tag -> memberBulkRepository.addTag(ids, tag));
         }
-      } catch (Exception e) {
-        failureCount++;
-        // Try to get member name for error message
-        String memberName = "Unknown";
-        try {
-          var member = memberRepository.findById(memberId);
-          if (member.isPresent()) {
-            memberName = member.get().getFirstName() + " " + member.get().getLastName();
-          }
-        } catch (Exception ignored) {}
-
-        errors.add(new MemberBulkUpdateResponse.UpdateError(
-            memberId,
-            memberName,
-            e.getMessage()
-        ));
       }
     }
 
-    return new MemberBulkUpdateResponse(
-        request.memberIds().size(),
-        successCount,
-        failureCount,
-        errors,
-        updatedMembers
-    );
+    if (status != null) {
+      memberBulkRepository.updateStatus(ids, status);
+    }
+    if (request.isVerified() != null) {
+      memberBulkRepository.updateVerified(ids, request.isVerified());
+    }
+    boolean maritalStatusChanged = request.maritalStatus() != null && !request.maritalStatus().isBlank();
+    if (maritalStatusChanged) {
+      memberBulkRepository.updateMaritalStatus(ids, request.maritalStatus());
+    }
+
+    // Only marital status and fellowships feed into profile completeness
+    if (maritalStatusChanged || request.fellowshipIds() != null) {
+      memberBulkRepository.recalculateProfileCompleteness(ids);
+    }
+    memberBulkRepository.touch(ids, now);
   }
 
   /**
-   * Update member fellowships based on action type (ADD, REMOVE, REPLACE).
+   * Check fellowships exist and belong to the church, in one query.
    */
-  private void updateMemberFellowships(Member member, MemberBulkUpdateRequest.UpdateAction<List<Long>> action, Church church) {
-    List<Fellowship> currentFellowships = member.getFellowships();
-
-    switch (action.action()) {
-      case ADD -> {
-        // Add new fellowships to existing ones
-        for (Long fellowshipId : action.values()) {
-          Fellowship fellowship = fellowshipRepository.findById(fellowshipId)
-              .orElseThrow(() -> new IllegalArgumentException("Fellowship not found: " + fellowshipId));
-          if (!fellowship.getChurch().getId().equals(church.getId())) {
-            throw new IllegalArgumentException("Fellowship does not belong to your church");
-          }
-          currentFellowships.add(fellowship);
-        }
+  private List<Long> validateFellowships(List<Long> fellowshipIds, Church church) {
+    Map<Long, Fellowship> found = new HashMap<>();
+    fellowshipRepository.findAllById(fellowshipIds).forEach(f -> found.put(f.getId(), f));
+
+    for (Long fellowshipId : fellowshipIds) {
+      Fellowship fellowship = found.get(fellowshipId);
+      if (fellowship == null) {
+        throw new IllegalArgumentException("Fellowship not found: " + fellowshipId);
       }
-      case REMOVE -> {
-        // Remove specified fellowships
-        currentFellowships.removeIf(f -> action.values().contains(f.getId()));
-      }
-      case REPLACE -> {
-        // Replace all fellowships
-        currentFellowships.clear();
-        for (Long fellowshipId : action.values()) {
-          Fellowship fellowship = fellowshipRepository.findById(fellowshipId)
-              .orElseThrow(() -> new IllegalArgumentException("Fellowship not found: " + fellowshipId));
-          if (!fellowship.getChurch().getId().equals(church.getId())) {
-            throw new IllegalArgumentException("Fellowship does not belong to your church");
-          }
-          currentFellowships.add(fellowship);
-        }
+      if (!fellowship.getChurch().getId().equals(church.getId())) {
+        throw new IllegalArgumentException("Fellowship does not belong to your church");
       }
     }
+    return List.copyOf(new LinkedHashSet<>(fellowshipIds));
+  }
+
+  private MemberStatus parseStatus(String status) {
+    try {
+      return MemberStatus.valueOf(status.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid status: " + status);
+    }
   }
 
   /**
-   * Update member tags based on action type (ADD, REMOVE, REPLACE).
+   * Members targeted by a bulk operation: the (de-duplicated) IDs that belong to the church,
+   * display names, and an error for each ID that doesn't.
    */
-  private void updateMemberTags(Member member, MemberBulkUpdateRequest.UpdateAction<Set<String>> action) {
-    Set<String> currentTags = member.getTags();
+  private record BulkTargets(List<Long> memberIds, Map<Long, String> names, Map<Long, String> errors) {
+  }
 
-    switch (action.action()) {
-      case ADD -> {
-        // Add new tags to existing ones
-        currentTags.addAll(action.values());
+  private BulkTargets resolveBulkTargets(List<Long> requestedIds, Long churchId) {
+    List<Long> ids = List.copyOf(new LinkedHashSet<>(requestedIds));
+    Map<Long, Object[]> rows = new HashMap<>();
+    for (List<Long> chunk : BulkWriter.partition(ids, BulkWriter.MAX_IDS_PER_STATEMENT)) {
+      for (Object[] row : memberBulkRepository.findBulkTargets(chunk)) {
+        rows.put(((Number) row[0]).longValue(), row);
       }
-      case REMOVE -> {
-        // Remove specified tags
-        currentTags.removeAll(action.values());
+    }
+
+    List<Long> memberIds = new ArrayList<>();
+    Map<Long, String> names = new HashMap<>();
+    Map<Long, String> errors = new LinkedHashMap<>();
+    for (Long id : ids) {
+      Object[] row = rows.get(id);
+      if (row == null) {
+        errors.put(id, "Member not found: " + id);
+        continue;
       }
-      case REPLACE -> {
-        // Replace all tags
-        currentTags.clear();
-        currentTags.addAll(action.values());
+      names.put(id, row[2] + " " + row[3]);
+      if (row[1] == null || ((Number) row[1]).longValue() != churchId) {
+        errors.put(id, "Member does not belong to your church");
+      } else {
+        memberIds.add(id);
       }
     }
+    return new BulkTargets(memberIds, names, errors);
+  }
+
+  private static List<BulkChunkResult> toChunkResults(BulkWriter.ChunkedResult<?> result) {
+    return result.chunks().stream()
+        .map(c -> new BulkChunkResult(c.chunk(), c.size(), c.size() - c.failed(), c.failed(), c.elapsedMs()))
+        .toList();
   }
 
   /**
    * Bulk delete members
    * Deletes multiple members at once with church validation
    *
+   * Runs set-based statements per chunk of members, each chunk in its own transaction:
+   * tags, fellowship memberships, parent/child and spouse links, household heads and
+   * engagement/risk rows are removed or cleared first, then the members. Members still
+   * referenced by other records (attendance, donations, ...) fail individually.
+   *
    * @param memberIds List of member IDs to delete
    * @param churchId ID of the church making the request
-   * @return Map with success/failure counts and error details
+   * @return Map with success/failure counts, per-chunk results and error details
    */
   public Map<String, Object> bulkDeleteMembers(List<Long> memberIds, Long churchId) {
     // Validate church exists
     churchRepository.findById(churchId)
         .orElseThrow(() -> new IllegalArgumentException("Invalid church ID"));
 
-    int successCount = 0;
-    int failureCount = 0;
     List<Map<String, Object>> errors = new ArrayList<>();
 
-    for (Long memberId : memberIds) {
-      try {
-        // Fetch member and verify it belongs to the church
-        Member member = memberRepository.findById(memberId)
-            .orElseThrow(() -> new IllegalArgumentException("Member not found: " + memberId));
-
-        if (!member.getChurch().getId().equals(churchId)) {
-          throw new IllegalArgumentException("Member does not belong to your church");
-        }
-
-        // Delete the member
-        memberRepository.delete(member);
-        successCount++;
-
-      } catch (Exception e) {
-        failureCount++;
-        Map<String, Object> error = new HashMap<>();
-        error.put("memberId", memberId);
-        error.put("errorMessage", e.getMessage());
-        errors.add(error);
-      }
-    }
-
-    Map<String, Object> result = new HashMap<>();
-    result.put("totalMembers", memberIds.size());
-    result.put("successCount", successCount);
-    result.put("failureCount", failureCount);
-    result.put("errors", errors);
+    BulkTargets targets = resolveBulkTargets(memberIds, churchId);
+    targets.errors().forEach((memberId, message) -> errors.add(deleteError(memberId, message)));
+
+    BulkWriter.ChunkedResult<Long> result = bulkWriter.inChunkTransactions(
+        targets.memberIds(), BulkWriter.MAX_IDS_PER_STATEMENT, ids -> {
+          memberBulkRepository.clearTags(ids);
+          memberBulkRepository.clearFellowships(ids);
+          memberBulkRepository.deleteParentLinks(ids);
+          memberBulkRepository.clearSpouseLinks(ids);
+          memberBulkRepository.clearHouseholdHeads(ids);
+          memberBulkRepository.deleteEngagement(ids);
+          memberBulkRepository.deleteRisk(ids);
+          memberBulkRepository.deleteMembers(ids);
+          fellowshipAnalyticsService.invalidate(churchId);
+        });
+    result.failures().forEach((memberId, message) -> errors.add(deleteError(memberId, message)));
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("totalMembers", memberIds.size());
+    response.put("successCount", targets.memberIds().size() - result.failures().size());
+    response.put("failureCount", errors.size());
+    response.put("errors", errors);
+    response.put("chunks", toChunkResults(result));
+
+    return response;
+  }
 
-    return result;
+  private Map<String, Object> deleteError(Long memberId, String errorMessage) {
+    Map<String, Object> error = new HashMap<>();
+    error.put("memberId", memberId);
+    error.put("errorMessage", errorMessage);
+    return error;
   }
 
   /**
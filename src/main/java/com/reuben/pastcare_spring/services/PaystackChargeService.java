@@ -0,0 +1,86 @@
+package com.reuben.pastcare_spring.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.math.BigDecimal;
+
+/**
+ * Charges a saved card authorization at most once per reference, for the scheduled billing jobs.
+ *
+ * Kept apart from {@link PaystackService} so each gateway call still goes through its proxy
+ * (and is timed per operation).
+ */
+@Service
+@RequiredArgsConstructor
+public class PaystackChargeService {
+
+    private final PaystackService paystackService;
+
+    public enum ChargeStatus { SUCCESS, DECLINED, UNKNOWN }
+
+    /**
+     * Outcome of a charge. UNKNOWN means the card may or may not have been charged: keep the
+     * reference and verify it on the next attempt.
+     *
+     * @param data the gateway's {@code data} object, when it answered
+     */
+    public record ChargeOutcome(ChargeStatus status, JsonNode data, String message) {
+    }
+
+    /**
+     * Charge an authorization under a reference.
+     *
+     * @param verifyFirst the reference may already have been sent (an earlier attempt's outcome
+     *                    was lost); ask the gateway first and only charge if it has never seen it
+     */
+    public ChargeOutcome chargeOnce(String authorizationCode, BigDecimal amount, String email,
+                                    String reference, boolean verifyFirst) {
+        if (verifyFirst) {
+            try {
+                JsonNode verified = paystackService.verifyPayment(reference);
+                if (verified.path("status").asBoolean()) {
+                    // The gateway already has this reference: take its outcome rather than charge again
+                    JsonNode data = verified.path("data");
+                    return switch (data.path("status").asText().toLowerCase()) {
+                        case "success" -> new ChargeOutcome(ChargeStatus.SUCCESS, data, null);
+                        case "failed", "abandoned", "reversed" -> new ChargeOutcome(ChargeStatus.DECLINED, data, declineMessage(verified));
+                        default -> new ChargeOutcome(ChargeStatus.UNKNOWN, data, "Charge still in progress");
+                    };
+                }
+                return new ChargeOutcome(ChargeStatus.UNKNOWN, null, verified.path("message").asText("Verification failed"));
+            } catch (RuntimeException e) {
+                if (!(e.getCause() instanceof HttpClientErrorException.NotFound)) {
+                    // Timeout, server error, rate limit or rejected credentials: the gateway
+                    // couldn't say, so don't risk a second charge
+                    return new ChargeOutcome(ChargeStatus.UNKNOWN, null, e.getMessage());
+                }
+                // Only a 404 means the gateway has never seen the reference: safe to charge
+            }
+        }
+        try {
+            JsonNode response = paystackService.chargeAuthorization(authorizationCode, amount, email, reference);
+            if (isSuccessful(response)) {
+                return new ChargeOutcome(ChargeStatus.SUCCESS, response.path("data"), null);
+            }
+            return new ChargeOutcome(ChargeStatus.DECLINED, response.path("data"), declineMessage(response));
+        } catch (RuntimeException e) {
+            // Timeout, server error or duplicate reference: verified on the next attempt
+            return new ChargeOutcome(ChargeStatus.UNKNOWN, null, e.getMessage());
+        }
+    }
+
+    /**
+     * A charge can be accepted by the API ({@code status: true}) and still be declined by the bank.
+     */
+    private static boolean isSuccessful(JsonNode response) {
+        return response.path("status").asBoolean()
+            && "success".equalsIgnoreCase(response.path("data").path("status").asText("success"));
+    }
+
+    private static String declineMessage(JsonNode response) {
+        return response.path("data").path("gateway_response").asText(response.path("message").asText("Charge failed"));
+    }
+}
@@ -5,7 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reuben.pastcare_spring.config.PaystackConfig;
 import com.reuben.pastcare_spring.dtos.PaymentInitializationRequest;
 import com.reuben.pastcare_spring.dtos.PaymentInitializationResponse;
-import lombok.RequiredArgsConstructor;
+import com.reuben.pastcare_spring.http.OutboundHttpClients;
+import com.reuben.pastcare_spring.util.HmacSha512Signer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -20,13 +21,18 @@ import java.util.UUID;
  * Service for Paystack payment gateway integration
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PaystackService {
 
     private final PaystackConfig paystackConfig;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile HmacSha512Signer webhookSigner;
+
+    public PaystackService(PaystackConfig paystackConfig, OutboundHttpClients outboundHttpClients) {
+        this.paystackConfig = paystackConfig;
+        this.restTemplate = outboundHttpClients.restTemplate(OutboundHttpClients.PAYSTACK);
+    }
 
     /**
      * Initialize a payment transaction with Paystack
@@ -135,7 +141,7 @@ public class PaystackService {
 
         } catch (Exception e) {
             log.error("Error verifying payment: {}", reference, e);
-            throw new RuntimeException("Failed to verify payment: " + e.getMessage());
+            throw new RuntimeException("Failed to verify payment: " + e.getMessage(), e);
         }
     }
 
@@ -175,7 +181,7 @@ public class PaystackService {
 
         } catch (Exception e) {
             log.error("Error charging authorization: {}", authorizationCode, e);
-            throw new RuntimeException("Failed to charge authorization: " + e.getMessage());
+            throw new RuntimeException("Failed to charge authorization: " + e.getMessage(), e);
         }
     }
 
@@ -183,26 +189,17 @@ public class PaystackService {
      * Verify webhook signature
      */
     public boolean verifyWebhookSignature(String signature, String payload) {
-        try {
-            // Paystack uses HMAC SHA512
-            javax.crypto.Mac mac = javax.crypto.Mac.getInstance("HmacSHA512");
-            javax.crypto.spec.SecretKeySpec secretKeySpec = new javax.crypto.spec.SecretKeySpec(
-                paystackConfig.getWebhookSecret().getBytes(),
-                "HmacSHA512"
-            );
-            mac.init(secretKeySpec);
-
-            byte[] hash = mac.doFinal(payload.getBytes());
-            StringBuilder hashString = new StringBuilder();
-            for (byte b : hash) {
-                hashString.append(String.format("%02x", b));
-            }
-
-            return hashString.toString().equals(signature);
-
-        } catch (Exception e) {
-            log.error("Error verifying webhook signature", e);
+        String secret = paystackConfig.getWebhookSecret();
+        if (secret == null || secret.isEmpty()) {
+            log.error("Paystack webhook secret is not configured");
             return false;
         }
+        // Paystack uses HMAC SHA512; the signer keeps one Mac per thread
+        HmacSha512Signer signer = webhookSigner;
+        if (signer == null || !signer.usesSecret(secret)) {
+            signer = new HmacSha512Signer(secret);
+            webhookSigner = signer;
+        }
+        return signer.verify(payload, signature);
     }
 }
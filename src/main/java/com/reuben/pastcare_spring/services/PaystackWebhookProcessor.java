@@ -0,0 +1,318 @@
+package com.reuben.pastcare_spring.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reuben.pastcare_spring.models.PaystackWebhookEvent;
+import com.reuben.pastcare_spring.models.PaystackWebhookEventStatus;
+import com.reuben.pastcare_spring.models.SmsTransaction;
+import com.reuben.pastcare_spring.repositories.ChurchRepository;
+import com.reuben.pastcare_spring.repositories.PaystackWebhookEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Worker queue for recorded Paystack webhooks.
+ *
+ * <p>Events are claimed in pages and handled on a worker pool by a {@link LeaseQueueDrainer}:
+ * <ul>
+ *   <li>ready means the oldest pending event of its reference, so events of one reference are
+ *       handled one at a time in the order they occurred, while different references run in
+ *       parallel</li>
+ *   <li>a charge.success for a reference that already had one processed is ignored, as is a
+ *       charge.failed that arrives after the reference's charge.success, so a payment is
+ *       activated once however often and in whatever order Paystack delivers</li>
+ *   <li>a handler error is retried with exponential backoff, up to {@code max-attempts}</li>
+ * </ul>
+ *
+ * A drain starts when a webhook is recorded ({@link #wakeUp}) and on a fixed poll, which picks up
+ * retries and lapsed claims.
+ */
+@Service
+@Slf4j
+public class PaystackWebhookProcessor {
+
+    static final String CHARGE_SUCCESS = "charge.success";
+    static final String CHARGE_FAILED = "charge.failed";
+
+    private final PaystackWebhookEventRepository eventRepository;
+    private final BillingService billingService;
+    private final StorageAddonBillingService storageAddonBillingService;
+    private final TierUpgradeService tierUpgradeService;
+    private final ChurchSmsCreditService churchSmsCreditService;
+    private final ChurchRepository churchRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final LeaseQueueDrainer<PaystackWebhookEvent, PaystackWebhookEventStatus, PaystackWebhookEventStatus> drainer;
+
+    public PaystackWebhookProcessor(
+            PaystackWebhookEventRepository eventRepository,
+            BillingService billingService,
+            StorageAddonBillingService storageAddonBillingService,
+            TierUpgradeService tierUpgradeService,
+            ChurchSmsCreditService churchSmsCreditService,
+            ChurchRepository churchRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.webhooks.paystack.workers:4}") int workerCount,
+            @Value("${app.webhooks.paystack.page-size:100}") int pageSize,
+            @Value("${app.webhooks.paystack.max-attempts:8}") int maxAttempts,
+            @Value("${app.webhooks.paystack.lease-minutes:5}") int leaseMinutes,
+            @Value("${app.webhooks.paystack.retry-delay-seconds:30}") int retryDelaySeconds,
+            @Value("${app.webhooks.paystack.max-retry-delay-minutes:60}") int maxRetryDelayMinutes) {
+        this.eventRepository = eventRepository;
+        this.billingService = billingService;
+        this.storageAddonBillingService = storageAddonBillingService;
+        this.tierUpgradeService = tierUpgradeService;
+        this.churchSmsCreditService = churchSmsCreditService;
+        this.churchRepository = churchRepository;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelay = Duration.ofSeconds(Math.max(1, retryDelaySeconds));
+        this.maxRetryDelay = Duration.ofMinutes(Math.max(1, maxRetryDelayMinutes));
+        this.drainer = new LeaseQueueDrainer<>("paystack-webhook", new WebhookQueue(), transaction,
+            workerCount, pageSize, Duration.ofMinutes(Math.max(1, leaseMinutes)));
+    }
+
+    /**
+     * Result of a drain. Retried events failed this time and are pending again.
+     */
+    public record DrainReport(int claimed, int processed, int ignored, int retried, int failed, long elapsedMs) {
+    }
+
+    private record Outcome(PaystackWebhookEventStatus status, String message) {
+
+        static Outcome processed(String message) {
+            return new Outcome(PaystackWebhookEventStatus.PROCESSED, message);
+        }
+
+        static Outcome ignored(String message) {
+            return new Outcome(PaystackWebhookEventStatus.IGNORED, message);
+        }
+
+        static Outcome error(String message) {
+            return new Outcome(PaystackWebhookEventStatus.PENDING, message);
+        }
+    }
+
+    /**
+     * Events are completed on the worker as soon as they are handled, so the page has nothing left to record.
+     */
+    private class WebhookQueue implements LeaseQueueDrainer.Queue<PaystackWebhookEvent, PaystackWebhookEventStatus, PaystackWebhookEventStatus> {
+
+        @Override
+        public List<Long> findReady(LocalDateTime now, int limit) {
+            return eventRepository.findReadyIds(now, limit);
+        }
+
+        @Override
+        public List<PaystackWebhookEvent> claim(List<Long> ids, String owner, LocalDateTime leaseUntil, LocalDateTime now) {
+            eventRepository.claim(ids, owner, leaseUntil, now);
+            return eventRepository.findByIdInAndClaimedBy(ids, owner);
+        }
+
+        @Override
+        public PaystackWebhookEventStatus handle(PaystackWebhookEvent event, String owner) {
+            return process(event, owner);
+        }
+
+        @Override
+        public List<PaystackWebhookEventStatus> complete(List<PaystackWebhookEventStatus> results, String owner) {
+            return results;
+        }
+    }
+
+    /**
+     * Start a drain in the background. Calls while a drain is queued are coalesced, and a
+     * webhook recorded during a running drain queues one more.
+     */
+    public void wakeUp() {
+        drainer.wakeUp();
+    }
+
+    /**
+     * Retries and events whose claim lapsed are not announced by a new webhook.
+     */
+    @Scheduled(fixedDelayString = "${app.webhooks.paystack.poll-interval-ms:30000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * Handle every ready event until none is left, on the calling thread and the worker pool.
+     */
+    public DrainReport drain() {
+        LeaseQueueDrainer.Result<PaystackWebhookEventStatus> result = drainer.drain();
+        DrainReport report = new DrainReport(result.claimed(),
+            result.count(PaystackWebhookEventStatus.PROCESSED),
+            result.count(PaystackWebhookEventStatus.IGNORED),
+            result.count(PaystackWebhookEventStatus.PENDING),
+            result.count(PaystackWebhookEventStatus.FAILED),
+            result.elapsedMs());
+        if (report.claimed() > 0) {
+            log.info("Paystack webhooks: {} claimed, {} processed, {} ignored, {} retried, {} failed in {} ms",
+                report.claimed(), report.processed(), report.ignored(), report.retried(), report.failed(),
+                report.elapsedMs());
+        }
+        return report;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drainer.shutdown();
+    }
+
+    private PaystackWebhookEventStatus process(PaystackWebhookEvent event, String owner) {
+        Outcome outcome;
+        try {
+            outcome = handle(event);
+        } catch (Exception e) {
+            log.error("Error handling Paystack {} for {}: {}", event.getEventType(), event.getReference(), e.getMessage(), e);
+            outcome = Outcome.error(e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+        Outcome result = outcome;
+        try {
+            return transaction.execute(status -> complete(event.getId(), owner, result));
+        } catch (RuntimeException e) {
+            // The event is retried once its claim lapses
+            log.error("Could not record Paystack webhook outcome", e);
+            return PaystackWebhookEventStatus.PENDING;
+        }
+    }
+
+    /**
+     * Write the outcome and release the claim. A failed attempt becomes due again after a backoff
+     * of retry-delay * 2^(attempts - 1), capped, until max-attempts.
+     */
+    private PaystackWebhookEventStatus complete(Long eventId, String owner, Outcome outcome) {
+        PaystackWebhookEvent event = eventRepository.findById(eventId).orElseThrow();
+        if (!owner.equals(event.getClaimedBy())) {
+            log.warn("Claim on Paystack webhook {} lapsed before it was handled", event.getEventKey());
+            return PaystackWebhookEventStatus.PENDING;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setClaimedBy(null);
+        event.setOutcome(truncate(outcome.message()));
+
+        if (outcome.status() != PaystackWebhookEventStatus.PENDING) {
+            event.setStatus(outcome.status());
+            event.setProcessedAt(now);
+            event.setNextAttemptAt(now);
+        } else if (attempts >= maxAttempts) {
+            log.error("Giving up on Paystack webhook {} after {} attempts", event.getEventKey(), attempts);
+            event.setStatus(PaystackWebhookEventStatus.FAILED);
+            event.setProcessedAt(now);
+            event.setNextAttemptAt(now);
+        } else {
+            Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+            event.setNextAttemptAt(now.plus(delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay));
+        }
+        eventRepository.save(event);
+        return event.getStatus();
+    }
+
+    private Outcome handle(PaystackWebhookEvent event) throws Exception {
+        JsonNode data = objectMapper.readTree(event.getPayload()).path("data");
+        return switch (event.getEventType()) {
+            case CHARGE_SUCCESS -> handleChargeSuccess(event.getReference(), data);
+            case CHARGE_FAILED -> handleChargeFailed(event.getReference(), data);
+            default -> Outcome.ignored("Unhandled event type");
+        };
+    }
+
+    private Outcome handleChargeSuccess(String reference, JsonNode data) {
+        if (eventRepository.existsByReferenceAndEventTypeAndStatus(reference, CHARGE_SUCCESS, PaystackWebhookEventStatus.PROCESSED)) {
+            log.info("Paystack charge.success for {} was already processed", reference);
+            return Outcome.ignored("Duplicate: charge.success already processed for this reference");
+        }
+
+        String status = data.path("status").asText();
+        if (!"success".equals(status)) {
+            log.warn("Charge status is not success: {}", status);
+            return Outcome.ignored("Charge status " + status);
+        }
+
+        JsonNode metadata = data.get("metadata");
+        if (metadata == null || metadata.isNull()) {
+            log.warn("No metadata in Paystack webhook");
+            return Outcome.ignored("No metadata");
+        }
+
+        // Route based on reference prefix
+        if (reference.startsWith("SUB-")) {
+            billingService.verifyAndActivateSubscription(reference);
+            log.info("Subscription activated via webhook: {}", reference);
+            return Outcome.processed("Subscription activated");
+        }
+
+        if (reference.startsWith("ADDON-")) {
+            storageAddonBillingService.verifyAndActivateAddon(reference);
+            log.info("Storage addon activated via webhook: {}", reference);
+            return Outcome.processed("Addon activated");
+        }
+
+        if (reference.startsWith("RENEWAL-")) {
+            // Renewal payments are already processed by the renewal job
+            log.info("Renewal payment webhook received: {}", reference);
+            return Outcome.processed("Renewal acknowledged");
+        }
+
+        if (reference.startsWith("TIER_UPGRADE-")) {
+            tierUpgradeService.completeUpgrade(reference);
+            log.info("Tier upgrade completed via webhook: {}", reference);
+            return Outcome.processed("Tier upgrade completed");
+        }
+
+        // Otherwise, handle as SMS credits purchase
+        Long churchId = metadata.has("church_id") ? metadata.get("church_id").asLong() : null;
+        Long userId = metadata.has("user_id") ? metadata.get("user_id").asLong() : null;
+        String creditAmountStr = metadata.has("credit_amount") ? metadata.get("credit_amount").asText() : null;
+
+        if (churchId == null || creditAmountStr == null) {
+            log.warn("Missing required metadata fields for SMS purchase");
+            return Outcome.ignored("Incomplete metadata");
+        }
+        if (!churchRepository.existsById(churchId)) {
+            log.warn("Church not found: {}", churchId);
+            return Outcome.ignored("Church not found: " + churchId);
+        }
+
+        BigDecimal creditAmount = new BigDecimal(creditAmountStr);
+        SmsTransaction smsTransaction = churchSmsCreditService.purchaseCredits(churchId, userId, creditAmount, reference);
+        log.info("Added {} credits to church {} via Paystack. Transaction ID: {}",
+            creditAmount, churchId, smsTransaction.getId());
+        return Outcome.processed("Credits added");
+    }
+
+    private Outcome handleChargeFailed(String reference, JsonNode data) {
+        if (eventRepository.existsByReferenceAndEventTypeAndStatus(reference, CHARGE_SUCCESS, PaystackWebhookEventStatus.PROCESSED)) {
+            log.info("Ignoring Paystack charge.failed for {} delivered after its charge.success", reference);
+            return Outcome.ignored("Superseded by charge.success");
+        }
+        String message = data.has("gateway_response") ? data.get("gateway_response").asText() : "Unknown error";
+        log.warn("Paystack charge failed - Reference: {}, Message: {}", reference, message);
+        return Outcome.processed("Failure recorded: " + message);
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
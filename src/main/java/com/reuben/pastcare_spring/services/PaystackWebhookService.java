@@ -0,0 +1,156 @@
+package com.reuben.pastcare_spring.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reuben.pastcare_spring.models.PaystackWebhookEvent;
+import com.reuben.pastcare_spring.repositories.PaystackWebhookEventRepository;
+import com.reuben.pastcare_spring.util.HmacSha512Signer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.HexFormat;
+
+/**
+ * Receiving side of Paystack webhooks: signature check and durable recording.
+ *
+ * <p>A webhook is stored as a {@link PaystackWebhookEvent} and acknowledged; no payment is
+ * verified or activated while Paystack waits for the response. {@link PaystackWebhookProcessor}
+ * is woken up to handle it. A redelivery of a stored event (same event type, Paystack
+ * transaction ID and reference) is acknowledged without being stored again.
+ */
+@Service
+@Slf4j
+public class PaystackWebhookService {
+
+    public enum Receipt { ACCEPTED, DUPLICATE }
+
+    private final PaystackWebhookEventRepository eventRepository;
+    private final PaystackWebhookProcessor processor;
+    private final ObjectMapper objectMapper;
+    private final HmacSha512Signer signer;
+
+    public PaystackWebhookService(
+            PaystackWebhookEventRepository eventRepository,
+            PaystackWebhookProcessor processor,
+            ObjectMapper objectMapper,
+            @Value("${paystack.secret-key:}") String secretKey) {
+        this.eventRepository = eventRepository;
+        this.processor = processor;
+        this.objectMapper = objectMapper;
+        this.signer = secretKey == null || secretKey.isEmpty() ? null : new HmacSha512Signer(secretKey);
+    }
+
+    public boolean isSignatureConfigured() {
+        return signer != null;
+    }
+
+    /**
+     * Check the X-Paystack-Signature header (HMAC-SHA512 of the body with the secret key).
+     * Without a configured secret key every webhook is accepted.
+     */
+    public boolean verifySignature(String payload, String signature) {
+        if (signer == null) {
+            log.warn("Paystack secret key not configured - skipping signature verification");
+            return true;
+        }
+        if (signature == null || signature.isEmpty()) {
+            log.warn("No signature provided in Paystack webhook");
+            return false;
+        }
+        return signer.verify(payload, signature);
+    }
+
+    /**
+     * Record a verified webhook for processing.
+     *
+     * @throws IllegalArgumentException if the payload is not a Paystack event
+     */
+    public Receipt receive(String payload) {
+        LocalDateTime receivedAt = LocalDateTime.now();
+        PaystackWebhookEvent event = toEvent(payload, receivedAt);
+
+        if (eventRepository.existsByEventKey(event.getEventKey())) {
+            log.info("Duplicate Paystack webhook {}", event.getEventKey());
+            return Receipt.DUPLICATE;
+        }
+        try {
+            eventRepository.save(event);
+        } catch (DataIntegrityViolationException e) {
+            // The same webhook arrived concurrently and the other delivery stored it first
+            log.info("Duplicate Paystack webhook {}", event.getEventKey());
+            return Receipt.DUPLICATE;
+        }
+
+        log.info("Recorded Paystack webhook {}", event.getEventKey());
+        processor.wakeUp();
+        return Receipt.ACCEPTED;
+    }
+
+    private PaystackWebhookEvent toEvent(String payload, LocalDateTime receivedAt) {
+        JsonNode json;
+        try {
+            json = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Webhook payload is not valid JSON", e);
+        }
+        String eventType = json == null ? "" : json.path("event").asText("");
+        if (eventType.isEmpty()) {
+            throw new IllegalArgumentException("Webhook payload has no event type");
+        }
+
+        JsonNode data = json.path("data");
+        String transactionId = data.path("id").asText("");
+        String reference = data.path("reference").asText("");
+        String eventKey = eventType + ":" + (transactionId.isEmpty() ? "-" : transactionId) + ":"
+            + (reference.isEmpty() ? sha256(payload) : reference);
+        if (eventKey.length() > 191) {
+            eventKey = eventType + ":" + sha256(eventKey);
+        }
+
+        return PaystackWebhookEvent.builder()
+            .eventKey(eventKey)
+            .eventType(eventType)
+            .reference(reference.isEmpty() ? eventKey : reference)
+            .occurredAt(occurredAt(data, receivedAt))
+            .payload(payload)
+            .receivedAt(receivedAt)
+            .nextAttemptAt(receivedAt)
+            .build();
+    }
+
+    /**
+     * When Paystack says the event happened: paid_at for completed charges, else created_at.
+     */
+    private static LocalDateTime occurredAt(JsonNode data, LocalDateTime fallback) {
+        for (String field : new String[] {"paid_at", "paidAt", "created_at", "createdAt"}) {
+            String value = data.path(field).asText("");
+            if (!value.isEmpty()) {
+                try {
+                    return LocalDateTime.ofInstant(Instant.parse(value), ZoneId.systemDefault());
+                } catch (DateTimeParseException e) {
+                    log.debug("Unparseable {} in Paystack webhook: {}", field, value);
+                }
+            }
+        }
+        return fallback;
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
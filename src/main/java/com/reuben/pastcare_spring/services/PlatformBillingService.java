@@ -32,6 +32,7 @@ public class PlatformBillingService {
     private final ChurchSubscriptionRepository subscriptionRepository;
     private final ChurchRepository churchRepository;
     private final SubscriptionPlanRepository planRepository;
+    private final PlatformMetricsService platformMetricsService;
 
     private static final NumberFormat CURRENCY_FORMAT = NumberFormat.getCurrencyInstance(new Locale("en", "GH"));
 
@@ -47,9 +48,10 @@ public class PlatformBillingService {
         double mrr = calculateMRR(allSubscriptions);
         double arr = mrr * 12;
 
-        // Get previous month's MRR for growth calculation
-        // Note: This is simplified - in production, you'd store historical MRR
-        double previousMrr = mrr * 0.95; // Simplified: assume 5% growth
+        // Previous month's MRR from the nightly platform snapshot (0 until history exists)
+        double previousMrr = platformMetricsService.findSnapshotOnOrBefore(LocalDate.now().minusMonths(1))
+                .map(snapshot -> snapshot.getMrr().doubleValue())
+                .orElse(0.0);
         double mrrGrowth = previousMrr > 0 ? ((mrr - previousMrr) / previousMrr) * 100.0 : 0.0;
 
         // Count subscriptions by status
@@ -131,27 +133,7 @@ public class PlatformBillingService {
      */
     private double calculateMRR(List<ChurchSubscription> subscriptions) {
         return subscriptions.stream()
-                .filter(sub -> {
-                    // Only count ACTIVE subscriptions
-                    if (sub.isActive()) return true;
-
-                    // Exclude PAST_DUE subscriptions that are in grace period
-                    // (they haven't paid yet, so shouldn't count as revenue)
-                    if (sub.isPastDue() && sub.isInGracePeriod()) return false;
-
-                    // Include PAST_DUE subscriptions that are NOT in grace period
-                    // (they should have paid but haven't - still owed revenue)
-                    if (sub.isPastDue() && !sub.isInGracePeriod()) return true;
-
-                    return false;
-                })
-                .mapToDouble(sub -> {
-                    double planPrice = sub.getPlan().getPrice().doubleValue();
-                    int billingMonths = sub.getBillingPeriodMonths();
-
-                    // Normalize to monthly revenue
-                    return planPrice / billingMonths;
-                })
+                .mapToDouble(PlatformMetricsService::monthlyRecurringRevenue)
                 .sum();
     }
 
@@ -0,0 +1,245 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.dtos.ChurchMetricsTrendPointResponse;
+import com.reuben.pastcare_spring.dtos.PlatformMetricsTrendPointResponse;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.ChurchMetricsSnapshot;
+import com.reuben.pastcare_spring.models.ChurchSubscription;
+import com.reuben.pastcare_spring.models.PlatformMetricsSnapshot;
+import com.reuben.pastcare_spring.models.StorageUsage;
+import com.reuben.pastcare_spring.repositories.ChurchMetricsSnapshotRepository;
+import com.reuben.pastcare_spring.repositories.ChurchRepository;
+import com.reuben.pastcare_spring.repositories.ChurchSubscriptionRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.repositories.PlatformMetricsSnapshotRepository;
+import com.reuben.pastcare_spring.repositories.StorageUsageRepository;
+import com.reuben.pastcare_spring.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Platform metrics for the SUPERADMIN console.
+ *
+ * <ul>
+ *   <li>Live per-church values come from grouped {@code COUNT ... GROUP BY church_id}
+ *       queries, a fixed number of queries regardless of platform size</li>
+ *   <li>The nightly job captures those values into church and platform snapshot rows</li>
+ *   <li>Trends and period-over-period growth read the snapshots</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlatformMetricsService {
+
+    static final int MAX_TREND_DAYS = 730;
+
+    private final ChurchRepository churchRepository;
+    private final UserRepository userRepository;
+    private final MemberRepository memberRepository;
+    private final StorageUsageRepository storageUsageRepository;
+    private final ChurchSubscriptionRepository subscriptionRepository;
+    private final ChurchMetricsSnapshotRepository churchSnapshotRepository;
+    private final PlatformMetricsSnapshotRepository platformSnapshotRepository;
+
+    /**
+     * User count per church ID.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countUsersByChurch() {
+        return toCountMap(userRepository.countGroupedByChurch());
+    }
+
+    /**
+     * Member count per church ID.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countMembersByChurch() {
+        return toCountMap(memberRepository.countGroupedByChurch());
+    }
+
+    /**
+     * Latest storage calculation per church ID.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, StorageUsage> latestStorageByChurch() {
+        return toStorageMap(storageUsageRepository.findLatestForAllChurches());
+    }
+
+    /**
+     * First storage calculation after a point in time, per church ID.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, StorageUsage> firstStorageAfterByChurch(LocalDateTime since) {
+        return toStorageMap(storageUsageRepository.findFirstAfterForAllChurches(since));
+    }
+
+    /**
+     * Capture (or re-capture) the snapshot for a day.
+     *
+     * @return The platform-wide row for the day
+     */
+    @Transactional
+    public PlatformMetricsSnapshot captureSnapshot(LocalDate date) {
+        List<Church> churches = churchRepository.findAll();
+        Map<Long, Long> users = countUsersByChurch();
+        Map<Long, Long> members = countMembersByChurch();
+        Map<Long, StorageUsage> storage = latestStorageByChurch();
+
+        Map<Long, ChurchSubscription> subscriptions = new HashMap<>();
+        for (ChurchSubscription subscription : subscriptionRepository.findAll()) {
+            subscriptions.put(subscription.getChurchId(), subscription);
+        }
+
+        churchSnapshotRepository.deleteBySnapshotDate(date);
+
+        List<ChurchMetricsSnapshot> rows = new ArrayList<>(churches.size());
+        for (Church church : churches) {
+            ChurchSubscription subscription = subscriptions.get(church.getId());
+            StorageUsage usage = storage.get(church.getId());
+            rows.add(ChurchMetricsSnapshot.builder()
+                    .snapshotDate(date)
+                    .churchId(church.getId())
+                    .active(church.isActive())
+                    .userCount(users.getOrDefault(church.getId(), 0L).intValue())
+                    .memberCount(members.getOrDefault(church.getId(), 0L).intValue())
+                    .storageMb(usage != null ? usage.getTotalStorageMb() : 0.0)
+                    .subscriptionStatus(subscription != null ? subscription.getStatus() : null)
+                    .planName(subscription != null && subscription.getPlan() != null
+                            ? subscription.getPlan().getName() : null)
+                    .mrr(toMoney(subscription != null ? monthlyRecurringRevenue(subscription) : 0.0))
+                    .build());
+        }
+        churchSnapshotRepository.saveAll(rows);
+
+        PlatformMetricsSnapshot platform = platformSnapshotRepository.findBySnapshotDate(date)
+                .orElseGet(() -> PlatformMetricsSnapshot.builder().snapshotDate(date).build());
+        platform.setTotalChurches(churches.size());
+        platform.setActiveChurches((int) churches.stream().filter(Church::isActive).count());
+        platform.setTotalUsers((int) userRepository.count());
+        platform.setTotalMembers(rows.stream().mapToInt(ChurchMetricsSnapshot::getMemberCount).sum());
+        platform.setTotalStorageMb(rows.stream().mapToDouble(ChurchMetricsSnapshot::getStorageMb).sum());
+        platform.setMrr(rows.stream().map(ChurchMetricsSnapshot::getMrr).reduce(BigDecimal.ZERO, BigDecimal::add));
+        platform.setActiveSubscriptions(countSubscriptions(subscriptions, "ACTIVE"));
+        platform.setPastDueSubscriptions(countSubscriptions(subscriptions, "PAST_DUE"));
+        platform.setCanceledSubscriptions(countSubscriptions(subscriptions, "CANCELED"));
+        platform.setSuspendedSubscriptions(countSubscriptions(subscriptions, "SUSPENDED"));
+
+        log.info("Captured platform metrics snapshot for {}: {} churches", date, churches.size());
+        return platformSnapshotRepository.save(platform);
+    }
+
+    /**
+     * Most recent platform snapshot on or before a date.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PlatformMetricsSnapshot> findSnapshotOnOrBefore(LocalDate date) {
+        return platformSnapshotRepository.findFirstBySnapshotDateLessThanEqualOrderBySnapshotDateDesc(date);
+    }
+
+    /**
+     * Platform-wide daily snapshots for the last N days, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<PlatformMetricsTrendPointResponse> getPlatformTrend(int days) {
+        LocalDate today = LocalDate.now();
+        return platformSnapshotRepository
+                .findBySnapshotDateBetweenOrderBySnapshotDateAsc(trendStart(today, days), today).stream()
+                .map(s -> PlatformMetricsTrendPointResponse.builder()
+                        .date(s.getSnapshotDate())
+                        .totalChurches(s.getTotalChurches())
+                        .activeChurches(s.getActiveChurches())
+                        .totalUsers(s.getTotalUsers())
+                        .totalMembers(s.getTotalMembers())
+                        .totalStorageMb(s.getTotalStorageMb())
+                        .monthlyRecurringRevenue(s.getMrr().doubleValue())
+                        .activeSubscriptions(s.getActiveSubscriptions())
+                        .pastDueSubscriptions(s.getPastDueSubscriptions())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * One church's daily snapshots for the last N days, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<ChurchMetricsTrendPointResponse> getChurchTrend(Long churchId, int days) {
+        if (!churchRepository.existsById(churchId)) {
+            throw new IllegalArgumentException("Church not found with ID: " + churchId);
+        }
+        LocalDate today = LocalDate.now();
+        return churchSnapshotRepository
+                .findByChurchIdAndSnapshotDateBetweenOrderBySnapshotDateAsc(churchId, trendStart(today, days), today)
+                .stream()
+                .map(s -> ChurchMetricsTrendPointResponse.builder()
+                        .date(s.getSnapshotDate())
+                        .active(s.getActive())
+                        .userCount(s.getUserCount())
+                        .memberCount(s.getMemberCount())
+                        .storageMb(s.getStorageMb())
+                        .subscriptionStatus(s.getSubscriptionStatus())
+                        .planName(s.getPlanName())
+                        .monthlyRecurringRevenue(s.getMrr().doubleValue())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Monthly revenue contributed by a subscription.
+     * ACTIVE subscriptions count; PAST_DUE ones count only once out of their grace period
+     * (revenue still owed), everything else contributes nothing.
+     */
+    public static double monthlyRecurringRevenue(ChurchSubscription subscription) {
+        boolean billable = subscription.isActive()
+                || (subscription.isPastDue() && !subscription.isInGracePeriod());
+        if (!billable || subscription.getPlan() == null || subscription.getPlan().getPrice() == null) {
+            return 0.0;
+        }
+        int billingMonths = subscription.getBillingPeriodMonths() != null && subscription.getBillingPeriodMonths() > 0
+                ? subscription.getBillingPeriodMonths() : 1;
+        return subscription.getPlan().getPrice().doubleValue() / billingMonths;
+    }
+
+    private LocalDate trendStart(LocalDate today, int days) {
+        if (days < 1 || days > MAX_TREND_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_TREND_DAYS);
+        }
+        return today.minusDays(days - 1L);
+    }
+
+    private int countSubscriptions(Map<Long, ChurchSubscription> subscriptions, String status) {
+        return (int) subscriptions.values().stream().filter(s -> status.equals(s.getStatus())).count();
+    }
+
+    private static BigDecimal toMoney(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private static Map<Long, StorageUsage> toStorageMap(List<StorageUsage> usages) {
+        Map<Long, StorageUsage> byChurch = new HashMap<>();
+        for (StorageUsage usage : usages) {
+            byChurch.put(usage.getChurch().getId(), usage);
+        }
+        return byChurch;
+    }
+}
@@ -13,8 +13,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,19 +26,18 @@ public class PlatformStatsService {
     private final ChurchRepository churchRepository;
     private final UserRepository userRepository;
     private final MemberRepository memberRepository;
-    private final StorageUsageRepository storageUsageRepository;
+    private final PlatformMetricsService platformMetricsService;
 
     /**
      * Get platform-wide statistics (SUPERADMIN only).
      */
+    @Transactional(readOnly = true)
     public PlatformStatsResponse getPlatformStats() {
         log.info("Calculating platform-wide statistics");
 
         // Count churches
         long totalChurches = churchRepository.count();
-        long activeChurches = churchRepository.findAll().stream()
-                .filter(Church::isActive)
-                .count();
+        long activeChurches = churchRepository.countByActiveTrue();
 
         // Count users
         long totalUsers = userRepository.count();
@@ -48,18 +47,8 @@ public class PlatformStatsService {
         // Count members across all churches
         long totalMembers = memberRepository.count();
 
-        // Calculate total storage
-        List<StorageUsage> latestStorageUsages = storageUsageRepository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        su -> su.getChurch().getId(),
-                        Collectors.maxBy((su1, su2) -> su1.getCreatedAt().compareTo(su2.getCreatedAt()))
-                ))
-                .values().stream()
-                .filter(opt -> opt.isPresent())
-                .map(opt -> opt.get())
-                .collect(Collectors.toList());
-
-        double totalStorageMB = latestStorageUsages.stream()
+        // Calculate total storage from each church's latest calculation
+        double totalStorageMB = platformMetricsService.latestStorageByChurch().values().stream()
                 .mapToDouble(su -> su.getTotalStorageMb())
                 .sum();
 
@@ -80,13 +69,15 @@ public class PlatformStatsService {
     /**
      * Get church summaries with pagination (SUPERADMIN only).
      */
+    @Transactional(readOnly = true)
     public Page<ChurchSummaryResponse> getChurchSummaries(Pageable pageable) {
         log.info("Fetching church summaries with pagination");
 
         Page<Church> churches = churchRepository.findAll(pageable);
+        ChurchCounts counts = loadChurchCounts();
 
         List<ChurchSummaryResponse> summaries = churches.stream()
-                .map(this::convertToChurchSummary)
+                .map(church -> convertToChurchSummary(church, counts))
                 .collect(Collectors.toList());
 
         return new PageImpl<>(summaries, pageable, churches.getTotalElements());
@@ -95,26 +86,29 @@ public class PlatformStatsService {
     /**
      * Get all church summaries without pagination (SUPERADMIN only).
      */
+    @Transactional(readOnly = true)
     public List<ChurchSummaryResponse> getAllChurchSummaries() {
         log.info("Fetching all church summaries");
 
         List<Church> churches = churchRepository.findAll();
+        ChurchCounts counts = loadChurchCounts();
 
         return churches.stream()
-                .map(this::convertToChurchSummary)
+                .map(church -> convertToChurchSummary(church, counts))
                 .collect(Collectors.toList());
     }
 
     /**
      * Get church summary by ID (SUPERADMIN only).
      */
+    @Transactional(readOnly = true)
     public ChurchSummaryResponse getChurchSummary(Long churchId) {
         log.info("Fetching church summary for church ID: {}", churchId);
 
         Church church = churchRepository.findById(churchId)
                 .orElseThrow(() -> new IllegalArgumentException("Church not found with ID: " + churchId));
 
-        return convertToChurchSummary(church);
+        return convertToChurchSummary(church, loadChurchCounts());
     }
 
     /**
@@ -149,24 +143,26 @@ public class PlatformStatsService {
 
     // ========== HELPER METHODS ==========
 
-    private ChurchSummaryResponse convertToChurchSummary(Church church) {
-        // Count users for this church
-        int userCount = (int) userRepository.findAll().stream()
-                .filter(user -> user.getChurch() != null && user.getChurch().getId().equals(church.getId()))
-                .count();
-
-        // Count members for this church
-        int memberCount = (int) memberRepository.findAll().stream()
-                .filter(member -> member.getChurch() != null && member.getChurch().getId().equals(church.getId()))
-                .count();
-
-        // Get latest storage usage for this church
-        List<StorageUsage> storageUsages = storageUsageRepository.findAll().stream()
-                .filter(su -> su.getChurch() != null && su.getChurch().getId().equals(church.getId()))
-                .sorted((su1, su2) -> su2.getCreatedAt().compareTo(su1.getCreatedAt()))
-                .collect(Collectors.toList());
+    /**
+     * Per-church user, member and storage figures, loaded with one grouped query each.
+     */
+    private record ChurchCounts(Map<Long, Long> users, Map<Long, Long> members, Map<Long, StorageUsage> storage) {
+    }
+
+    private ChurchCounts loadChurchCounts() {
+        return new ChurchCounts(
+                platformMetricsService.countUsersByChurch(),
+                platformMetricsService.countMembersByChurch(),
+                platformMetricsService.latestStorageByChurch());
+    }
+
+    private ChurchSummaryResponse convertToChurchSummary(Church church, ChurchCounts counts) {
+        int userCount = counts.users().getOrDefault(church.getId(), 0L).intValue();
+        int memberCount = counts.members().getOrDefault(church.getId(), 0L).intValue();
 
-        double storageMB = storageUsages.isEmpty() ? 0.0 : storageUsages.get(0).getTotalStorageMb();
+        // Latest storage usage for this church
+        StorageUsage latestStorage = counts.storage().get(church.getId());
+        double storageMB = latestStorage != null ? latestStorage.getTotalStorageMb() : 0.0;
         String storageUsed = formatStorageSize(storageMB);
 
         // Calculate storage percentage (assuming 2 GB = 2048 MB limit)
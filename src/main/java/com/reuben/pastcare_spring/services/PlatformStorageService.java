@@ -3,13 +3,8 @@ package com.reuben.pastcare_spring.services;
 import com.reuben.pastcare_spring.dtos.ChurchStorageSummaryResponse;
 import com.reuben.pastcare_spring.dtos.PlatformStorageStatsResponse;
 import com.reuben.pastcare_spring.models.Church;
-import com.reuben.pastcare_spring.models.Member;
 import com.reuben.pastcare_spring.models.StorageUsage;
-import com.reuben.pastcare_spring.models.User;
 import com.reuben.pastcare_spring.repositories.ChurchRepository;
-import com.reuben.pastcare_spring.repositories.MemberRepository;
-import com.reuben.pastcare_spring.repositories.StorageUsageRepository;
-import com.reuben.pastcare_spring.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -30,9 +26,7 @@ import java.util.stream.Collectors;
 public class PlatformStorageService {
 
     private final ChurchRepository churchRepository;
-    private final StorageUsageRepository storageUsageRepository;
-    private final MemberRepository memberRepository;
-    private final UserRepository userRepository;
+    private final PlatformMetricsService platformMetricsService;
 
     private static final double DEFAULT_STORAGE_LIMIT_MB = 2048.0; // 2 GB
 
@@ -42,17 +36,10 @@ public class PlatformStorageService {
     public PlatformStorageStatsResponse getPlatformStorageStats() {
         log.info("Calculating platform-wide storage statistics");
 
-        List<Church> allChurches = churchRepository.findAll();
-        int totalChurches = allChurches.size();
+        int totalChurches = (int) churchRepository.count();
 
         // Get latest storage usage for all churches
-        List<StorageUsage> allStorageUsages = new ArrayList<>();
-        for (Church church : allChurches) {
-            StorageUsage latest = storageUsageRepository.findLatestByChurch(church).orElse(null);
-            if (latest != null) {
-                allStorageUsages.add(latest);
-            }
-        }
+        List<StorageUsage> allStorageUsages = new ArrayList<>(platformMetricsService.latestStorageByChurch().values());
 
         int churchesWithStorage = allStorageUsages.size();
 
@@ -78,16 +65,9 @@ public class PlatformStorageService {
 
         // Calculate 30-day growth
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        double storageThirtyDaysAgo = 0.0;
-
-        for (Church church : allChurches) {
-            StorageUsage oldestInRange = storageUsageRepository
-                    .findFirstByChurchAndCalculatedAtAfterOrderByCalculatedAtAsc(church, thirtyDaysAgo)
-                    .orElse(null);
-            if (oldestInRange != null) {
-                storageThirtyDaysAgo += oldestInRange.getTotalStorageMb();
-            }
-        }
+        double storageThirtyDaysAgo = platformMetricsService.firstStorageAfterByChurch(thirtyDaysAgo).values().stream()
+                .mapToDouble(StorageUsage::getTotalStorageMb)
+                .sum();
 
         double growthMb = totalStorageMb - storageThirtyDaysAgo;
         double growthPercent = storageThirtyDaysAgo > 0 ? (growthMb / storageThirtyDaysAgo) * 100.0 : 0.0;
@@ -119,12 +99,13 @@ public class PlatformStorageService {
         log.info("Fetching top {} storage consumers", limit);
 
         List<Church> allChurches = churchRepository.findAll();
+        ChurchCounts counts = loadChurchCounts();
         List<ChurchStorageSummaryResponse> summaries = new ArrayList<>();
 
         for (Church church : allChurches) {
-            StorageUsage latest = storageUsageRepository.findLatestByChurch(church).orElse(null);
+            StorageUsage latest = counts.storage().get(church.getId());
             if (latest != null) {
-                summaries.add(buildStorageSummary(church, latest));
+                summaries.add(buildStorageSummary(church, latest, counts));
             }
         }
 
@@ -142,15 +123,16 @@ public class PlatformStorageService {
         log.info("Fetching all church storage summaries");
 
         List<Church> allChurches = churchRepository.findAll();
+        ChurchCounts counts = loadChurchCounts();
         List<ChurchStorageSummaryResponse> summaries = new ArrayList<>();
 
         for (Church church : allChurches) {
-            StorageUsage latest = storageUsageRepository.findLatestByChurch(church).orElse(null);
+            StorageUsage latest = counts.storage().get(church.getId());
             if (latest != null) {
-                summaries.add(buildStorageSummary(church, latest));
+                summaries.add(buildStorageSummary(church, latest, counts));
             } else {
                 // Church with no storage usage yet
-                summaries.add(buildEmptyStorageSummary(church));
+                summaries.add(buildEmptyStorageSummary(church, counts));
             }
         }
 
@@ -160,15 +142,28 @@ public class PlatformStorageService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Per-church latest storage, member and user counts, loaded with one grouped query each.
+     */
+    private record ChurchCounts(Map<Long, StorageUsage> storage, Map<Long, Long> members, Map<Long, Long> users) {
+    }
+
+    private ChurchCounts loadChurchCounts() {
+        return new ChurchCounts(
+                platformMetricsService.latestStorageByChurch(),
+                platformMetricsService.countMembersByChurch(),
+                platformMetricsService.countUsersByChurch());
+    }
+
     /**
      * Build storage summary from church and storage usage.
      */
-    private ChurchStorageSummaryResponse buildStorageSummary(Church church, StorageUsage usage) {
+    private ChurchStorageSummaryResponse buildStorageSummary(Church church, StorageUsage usage, ChurchCounts counts) {
         double usagePercentage = (usage.getTotalStorageMb() / DEFAULT_STORAGE_LIMIT_MB) * 100.0;
         boolean isOverLimit = usage.getTotalStorageMb() > DEFAULT_STORAGE_LIMIT_MB;
 
-        int memberCount = (int) memberRepository.countByChurch(church);
-        int userCount = (int) userRepository.countByChurch(church);
+        int memberCount = counts.members().getOrDefault(church.getId(), 0L).intValue();
+        int userCount = counts.users().getOrDefault(church.getId(), 0L).intValue();
 
         return ChurchStorageSummaryResponse.builder()
                 .churchId(church.getId())
@@ -193,9 +188,9 @@ public class PlatformStorageService {
     /**
      * Build empty storage summary for churches with no usage data.
      */
-    private ChurchStorageSummaryResponse buildEmptyStorageSummary(Church church) {
-        int memberCount = (int) memberRepository.countByChurch(church);
-        int userCount = (int) userRepository.countByChurch(church);
+    private ChurchStorageSummaryResponse buildEmptyStorageSummary(Church church, ChurchCounts counts) {
+        int memberCount = counts.members().getOrDefault(church.getId(), 0L).intValue();
+        int userCount = counts.users().getOrDefault(church.getId(), 0L).intValue();
 
         return ChurchStorageSummaryResponse.builder()
                 .churchId(church.getId())
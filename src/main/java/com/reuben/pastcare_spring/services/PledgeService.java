@@ -29,7 +29,7 @@ public class PledgeService {
   private final CampaignRepository campaignRepository;
   private final ChurchRepository churchRepository;
   private final DonationRepository donationRepository;
-  private final CampaignService campaignService;
+  private final CampaignProgressLedger campaignProgressLedger;
 
   /**
    * Get all pledges for a church
@@ -104,12 +104,10 @@ public class PledgeService {
     // Initialize amount remaining
     pledge.setAmountRemaining(pledge.getTotalAmount());
 
-    Pledge saved = pledgeRepository.save(pledge);
-
     // Update campaign progress if pledged to a campaign
-    if (saved.getCampaign() != null) {
-      campaignService.updateCampaignProgress(saved.getCampaign().getId());
-    }
+    campaignProgressLedger.recordChange(CampaignProgressLedger.Share.NONE, CampaignProgressLedger.share(pledge));
+
+    Pledge saved = pledgeRepository.save(pledge);
 
     return PledgeResponse.fromEntity(saved);
   }
@@ -123,13 +121,12 @@ public class PledgeService {
     Pledge pledge = pledgeRepository.findByIdAndChurch(id, church)
         .orElseThrow(() -> new IllegalArgumentException("Pledge not found with id: " + id));
 
+    CampaignProgressLedger.Share before = CampaignProgressLedger.share(pledge);
     updatePledgeFromRequest(pledge, request);
     Pledge saved = pledgeRepository.save(pledge);
 
     // Update campaign progress
-    if (saved.getCampaign() != null) {
-      campaignService.updateCampaignProgress(saved.getCampaign().getId());
-    }
+    campaignProgressLedger.recordChange(before, CampaignProgressLedger.share(saved));
 
     return PledgeResponse.fromEntity(saved);
   }
@@ -143,14 +140,12 @@ public class PledgeService {
     Pledge pledge = pledgeRepository.findByIdAndChurch(id, church)
         .orElseThrow(() -> new IllegalArgumentException("Pledge not found with id: " + id));
 
-    Long campaignId = pledge.getCampaign() != null ? pledge.getCampaign().getId() : null;
+    CampaignProgressLedger.Share before = CampaignProgressLedger.share(pledge);
 
     pledgeRepository.delete(pledge);
 
     // Update campaign progress
-    if (campaignId != null) {
-      campaignService.updateCampaignProgress(campaignId);
-    }
+    campaignProgressLedger.recordChange(before, CampaignProgressLedger.Share.NONE);
   }
 
   /**
@@ -161,6 +156,7 @@ public class PledgeService {
     Church church = getChurch(churchId);
     Pledge pledge = pledgeRepository.findByIdAndChurch(request.getPledgeId(), church)
         .orElseThrow(() -> new IllegalArgumentException("Pledge not found with id: " + request.getPledgeId()));
+    CampaignProgressLedger.Share before = CampaignProgressLedger.share(pledge);
 
     // Update pledge amounts
     pledge.setAmountPaid(pledge.getAmountPaid().add(request.getAmount()));
@@ -201,9 +197,7 @@ public class PledgeService {
     Pledge saved = pledgeRepository.save(pledge);
 
     // Update campaign progress
-    if (saved.getCampaign() != null) {
-      campaignService.updateCampaignProgress(saved.getCampaign().getId());
-    }
+    campaignProgressLedger.recordChange(before, CampaignProgressLedger.share(saved));
 
     return PledgeResponse.fromEntity(saved);
   }
@@ -217,13 +211,12 @@ public class PledgeService {
     Pledge pledge = pledgeRepository.findByIdAndChurch(id, church)
         .orElseThrow(() -> new IllegalArgumentException("Pledge not found with id: " + id));
 
+    CampaignProgressLedger.Share before = CampaignProgressLedger.share(pledge);
     pledge.setStatus(PledgeStatus.CANCELLED);
     Pledge saved = pledgeRepository.save(pledge);
 
     // Update campaign progress
-    if (saved.getCampaign() != null) {
-      campaignService.updateCampaignProgress(saved.getCampaign().getId());
-    }
+    campaignProgressLedger.recordChange(before, CampaignProgressLedger.share(saved));
 
     return PledgeResponse.fromEntity(saved);
   }
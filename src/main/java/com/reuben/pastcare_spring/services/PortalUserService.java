@@ -84,7 +84,7 @@ public class PortalUserService {
         // Upload photo if provided
         if (photo != null && !photo.isEmpty()) {
             try {
-                String photoUrl = imageService.uploadProfileImage(photo, null);
+                String photoUrl = imageService.uploadProfileImage(photo);
                 member.setProfileImageUrl(photoUrl);
                 log.info("Uploaded profile photo for new member during registration");
             } catch (Exception e) {
@@ -389,8 +389,7 @@ public class PortalUserService {
 
         try {
             // Upload image using ImageService
-            String oldImageUrl = member.getProfileImageUrl();
-            String newImageUrl = imageService.uploadProfileImage(file, oldImageUrl);
+            String newImageUrl = imageService.uploadProfileImage(file);
 
             // Update member profile image URL
             member.setProfileImageUrl(newImageUrl);
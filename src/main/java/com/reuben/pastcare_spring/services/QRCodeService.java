@@ -4,15 +4,22 @@ import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 
+import jakarta.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.reuben.pastcare_spring.metrics.CacheMetrics;
+
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
@@ -30,6 +37,11 @@ import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
  * - Time-based expiry (default 24 hours)
  * - Session-specific codes (one code per session)
  * - Tamper detection via encryption
+ *
+ * Performance:
+ * - Ciphers are initialised once per thread and reused (batch ticket generation
+ *   encrypts thousands of payloads)
+ * - Rendered PNGs are memoized by payload and size in a bounded LRU cache
  */
 @Service
 public class QRCodeService {
@@ -43,8 +55,37 @@ public class QRCodeService {
     @Value("${app.frontend.url:http://localhost:4200}")
     private String frontendUrl;
 
+    @Value("${qrcode.image-cache.max-entries:2000}")
+    private int imageCacheMaxEntries;
+
     private static final String ALGORITHM = "AES";
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String PNG_DATA_URI_PREFIX = "data:image/png;base64,";
+
+    private static final Map<EncodeHintType, Object> QR_HINTS = createHints();
+
+    private SecretKeySpec keySpec;
+    private ThreadLocal<Cipher> encryptCipher;
+    private ThreadLocal<Cipher> decryptCipher;
+    private Map<ImageKey, byte[]> imageCache;
+    private final CacheMetrics imageCacheMetrics = new CacheMetrics("qr-images");
+
+    private record ImageKey(String data, int width, int height) {
+    }
+
+    @PostConstruct
+    void init() {
+        keySpec = new SecretKeySpec(secretKey.getBytes(), ALGORITHM);
+        encryptCipher = ThreadLocal.withInitial(() -> createCipher(Cipher.ENCRYPT_MODE));
+        decryptCipher = ThreadLocal.withInitial(() -> createCipher(Cipher.DECRYPT_MODE));
+        int maxEntries = imageCacheMaxEntries;
+        imageCache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ImageKey, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
 
     /**
      * Generate encrypted QR code data for an attendance session.
@@ -86,7 +127,7 @@ public class QRCodeService {
         try {
             // Decrypt the QR code data
             String decrypted = decrypt(qrCodeData);
-            String[] parts = decrypted.split(":");
+            String[] parts = decrypted.split(":", 2);
 
             if (parts.length != 2) {
                 result.put("valid", false);
@@ -129,33 +170,60 @@ public class QRCodeService {
      * @return Base64 encoded PNG image string
      */
     public String generateQRCodeImage(String qrCodeData, int width, int height) {
-        try {
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
+        return PNG_DATA_URI_PREFIX + Base64.getEncoder().encodeToString(generateQRCodePng(qrCodeData, width, height));
+    }
+
+    /**
+     * Generate QR code image as raw PNG bytes, memoized by payload and size.
+     * The returned array is shared with the cache and must not be modified.
+     *
+     * @param qrCodeData The data to encode in the QR code
+     * @param width QR code width in pixels
+     * @param height QR code height in pixels
+     * @return PNG image bytes
+     */
+    public byte[] generateQRCodePng(String qrCodeData, int width, int height) {
+        ImageKey key = new ImageKey(qrCodeData, width, height);
+        byte[] cached = imageCache.get(key);
+        if (cached != null) {
+            imageCacheMetrics.hit();
+            return cached;
+        }
+        imageCacheMetrics.miss();
 
-            Map<EncodeHintType, Object> hints = new HashMap<>();
-            hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
-            hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-            hints.put(EncodeHintType.MARGIN, 1);
+        // Rendered outside the lock; a concurrent miss for the same key just renders twice
+        byte[] png = renderPng(qrCodeData, width, height);
+        imageCache.put(key, png);
+        return png;
+    }
 
-            BitMatrix bitMatrix = qrCodeWriter.encode(
+    private byte[] renderPng(String qrCodeData, int width, int height) {
+        try {
+            BitMatrix bitMatrix = new QRCodeWriter().encode(
                 qrCodeData,
                 BarcodeFormat.QR_CODE,
                 width,
                 height,
-                hints
+                QR_HINTS
             );
 
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
-            byte[] imageBytes = outputStream.toByteArray();
-
-            return "data:image/png;base64," + Base64.getEncoder().encodeToString(imageBytes);
+            return outputStream.toByteArray();
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate QR code image: " + e.getMessage(), e);
         }
     }
 
+    private static Map<EncodeHintType, Object> createHints() {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        hints.put(EncodeHintType.MARGIN, 1);
+        return Collections.unmodifiableMap(hints);
+    }
+
     /**
      * Generate QR code image with default size (300x300).
      *
@@ -198,14 +266,12 @@ public class QRCodeService {
      */
     private String encrypt(String data) {
         try {
-            SecretKeySpec keySpec = new SecretKeySpec(secretKey.getBytes(), ALGORITHM);
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-
-            byte[] encrypted = cipher.doFinal(data.getBytes());
+            byte[] encrypted = encryptCipher.get().doFinal(data.getBytes());
             return Base64.getEncoder().encodeToString(encrypted);
 
         } catch (Exception e) {
+            // Don't keep a cipher in an unknown state
+            encryptCipher.remove();
             throw new RuntimeException("Encryption failed: " + e.getMessage(), e);
         }
     }
@@ -218,20 +284,32 @@ public class QRCodeService {
      */
     private String decrypt(String encryptedData) {
         try {
-            SecretKeySpec keySpec = new SecretKeySpec(secretKey.getBytes(), ALGORITHM);
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, keySpec);
-
             byte[] decoded = Base64.getDecoder().decode(encryptedData);
-            byte[] decrypted = cipher.doFinal(decoded);
+            byte[] decrypted = decryptCipher.get().doFinal(decoded);
 
             return new String(decrypted);
 
         } catch (Exception e) {
+            // Don't keep a cipher in an unknown state
+            decryptCipher.remove();
             throw new RuntimeException("Decryption failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Create and initialise a cipher for the current thread.
+     * Cipher instances are not thread-safe, but doFinal resets them for reuse.
+     */
+    private Cipher createCipher(int mode) {
+        try {
+            Cipher cipher = Cipher.getInstance(ALGORITHM);
+            cipher.init(mode, keySpec);
+            return cipher;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to initialise QR code cipher: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Check if a QR code is expired without full validation.
      *
@@ -241,7 +319,7 @@ public class QRCodeService {
     public boolean isExpired(String qrCodeData) {
         try {
             String decrypted = decrypt(qrCodeData);
-            String[] parts = decrypted.split(":");
+            String[] parts = decrypted.split(":", 2);
 
             if (parts.length != 2) {
                 return true;
@@ -264,7 +342,7 @@ public class QRCodeService {
     public Long extractSessionId(String qrCodeData) {
         try {
             String decrypted = decrypt(qrCodeData);
-            String[] parts = decrypted.split(":");
+            String[] parts = decrypted.split(":", 2);
 
             if (parts.length != 2) {
                 return null;
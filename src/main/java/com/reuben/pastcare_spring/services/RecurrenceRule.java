@@ -0,0 +1,156 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.models.RecurrencePattern;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The recurrence rule of a recurring event: first start, duration, pattern and
+ * optional last date (inclusive).
+ *
+ * Occurrence {@code n} is computed directly from the first start (n weeks, n months, ...),
+ * so monthly series keep their day of month instead of drifting after a short month,
+ * and a window far into a series is reached without walking every earlier occurrence.
+ */
+public record RecurrenceRule(
+    LocalDateTime firstStart,
+    Duration duration,
+    RecurrencePattern pattern,
+    LocalDate until
+) {
+
+    /**
+     * Whether an event carries a rule (rather than being a single event or a materialized occurrence).
+     */
+    public static boolean isSeries(Event event) {
+        return Boolean.TRUE.equals(event.getIsRecurring()) && event.getRecurrencePattern() != null;
+    }
+
+    public static RecurrenceRule of(Event series) {
+        if (!isSeries(series)) {
+            throw new IllegalArgumentException("Event is not a recurring event");
+        }
+        Duration duration = Duration.between(series.getStartDate(), series.getEndDate());
+        return new RecurrenceRule(series.getStartDate(), duration.isNegative() ? Duration.ZERO : duration,
+            series.getRecurrencePattern(), series.getRecurrenceEndDate());
+    }
+
+    /**
+     * Start of the n-th occurrence (0 is the first start). Ignores {@code until}.
+     */
+    public LocalDateTime occurrence(long n) {
+        return switch (pattern) {
+            case DAILY -> firstStart.plusDays(n);
+            case WEEKLY, CUSTOM -> firstStart.plusWeeks(n); // Custom has no rule of its own; weekly as before
+            case BI_WEEKLY -> firstStart.plusWeeks(2 * n);
+            case MONTHLY -> firstStart.plusMonths(n);
+            case QUARTERLY -> firstStart.plusMonths(3 * n);
+            case YEARLY -> firstStart.plusYears(n);
+        };
+    }
+
+    /**
+     * Starts of the occurrences overlapping {@code [from, to)}, in order, at most {@code limit}.
+     * A zero-length occurrence overlaps when it starts inside the window.
+     */
+    public List<LocalDateTime> startsOverlapping(LocalDateTime from, LocalDateTime to, int limit) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (long n = lowerIndex(from.minus(duration)); starts.size() < limit; n++) {
+            LocalDateTime start = occurrence(n);
+            if (!start.isBefore(to) || isPastUntil(start)) {
+                break;
+            }
+            if (start.plus(duration).isAfter(from) || !start.isBefore(from)) {
+                starts.add(start);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Whether the rule has an occurrence starting exactly at {@code start}.
+     */
+    public boolean isOccurrence(LocalDateTime start) {
+        return indexOf(start) >= 0;
+    }
+
+    /**
+     * Index of the occurrence starting exactly at {@code start}, or -1 if there is none.
+     */
+    public long indexOf(LocalDateTime start) {
+        if (start == null || start.isBefore(firstStart) || isPastUntil(start)) {
+            return -1;
+        }
+        for (long n = lowerIndex(start); ; n++) {
+            LocalDateTime candidate = occurrence(n);
+            if (!candidate.isBefore(start)) {
+                return candidate.equals(start) ? n : -1;
+            }
+        }
+    }
+
+    /**
+     * Start of the last occurrence starting at or before {@code time}; null if none has,
+     * or if the series had already ended by then.
+     */
+    public LocalDateTime lastStartAtOrBefore(LocalDateTime time) {
+        if (time.isBefore(firstStart)) {
+            return null;
+        }
+        long n = lowerIndex(time);
+        while (!occurrence(n + 1).isAfter(time)) {
+            n++;
+        }
+        LocalDateTime start = occurrence(n);
+        return isPastUntil(start) ? null : start;
+    }
+
+    /**
+     * Start of the occurrence closest to {@code time} (the earlier one on a tie). Ignores {@code until}.
+     * Used to match a moved occurrence back to the rule time it stands for.
+     */
+    public LocalDateTime nearestStart(LocalDateTime time) {
+        if (!time.isAfter(firstStart)) {
+            return firstStart;
+        }
+        long n = lowerIndex(time);
+        while (!occurrence(n + 1).isAfter(time)) {
+            n++;
+        }
+        LocalDateTime previous = occurrence(n);
+        LocalDateTime next = occurrence(n + 1);
+        return Duration.between(previous, time).compareTo(Duration.between(time, next)) <= 0 ? previous : next;
+    }
+
+    private boolean isPastUntil(LocalDateTime start) {
+        return until != null && start.toLocalDate().isAfter(until);
+    }
+
+    /**
+     * An index whose occurrence starts at or before {@code time} (0 when time is before the first start).
+     * Every step is at most {@link #maxStepDays()} long, so occurrence(days / maxStep) can't be past time.
+     */
+    private long lowerIndex(LocalDateTime time) {
+        if (!time.isAfter(firstStart)) {
+            return 0;
+        }
+        return ChronoUnit.DAYS.between(firstStart, time) / maxStepDays();
+    }
+
+    private int maxStepDays() {
+        return switch (pattern) {
+            case DAILY -> 1;
+            case WEEKLY, CUSTOM -> 7;
+            case BI_WEEKLY -> 14;
+            case MONTHLY -> 31;
+            case QUARTERLY -> 92;
+            case YEARLY -> 366;
+        };
+    }
+}
@@ -0,0 +1,524 @@
+package com.reuben.pastcare_spring.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.reuben.pastcare_spring.config.PaystackConfig;
+import com.reuben.pastcare_spring.models.Donation;
+import com.reuben.pastcare_spring.models.PaymentMethod;
+import com.reuben.pastcare_spring.models.PaymentTransaction;
+import com.reuben.pastcare_spring.models.PaymentTransactionStatus;
+import com.reuben.pastcare_spring.models.RecurringDonation;
+import com.reuben.pastcare_spring.models.RecurringDonationStatus;
+import com.reuben.pastcare_spring.models.RecurringFrequency;
+import com.reuben.pastcare_spring.repositories.DonationRepository;
+import com.reuben.pastcare_spring.repositories.PaymentTransactionRepository;
+import com.reuben.pastcare_spring.repositories.RecurringDonationRepository;
+import com.reuben.pastcare_spring.services.PaystackChargeService.ChargeOutcome;
+import com.reuben.pastcare_spring.services.PaystackChargeService.ChargeStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Charge scheduler for recurring donations.
+ *
+ * <p>Every recurring donation carries {@code nextAttemptAt}: its next charge date, or after a
+ * failure a retry time with exponential backoff. A pass works through due donations a page at
+ * a time:
+ * <ol>
+ *   <li>claim: read due IDs through {@code idx_recurring_due}, ordered round-robin across
+ *       churches, and lease them by moving {@code nextAttemptAt} out. A run that dies leaves the
+ *       rows to come due again when the lease passes</li>
+ *   <li>prepare: write a PROCESSING transaction for every charge and commit, so each charge is
+ *       on record before the gateway is called</li>
+ *   <li>charge: call Paystack from a bounded pool, with at most {@code max-in-flight-per-church}
+ *       charges of one church running at once, so a large church cannot starve the others</li>
+ *   <li>commit: write transactions, donations and schedules for the whole page in one
+ *       transaction and release the claims</li>
+ * </ol>
+ *
+ * The payment reference is derived from the donation, its charge date and the attempt
+ * ({@link #chargeReference}). A run that finds an unfinished transaction for the reference asks
+ * Paystack about it before charging, so a donation is never charged twice for one period.
+ */
+@Service
+@Slf4j
+public class RecurringDonationChargeService {
+
+    static final String REFERENCE_PREFIX = "REC-";
+
+    /**
+     * Consecutive failures after which a recurring donation is marked FAILED.
+     */
+    static final int MAX_CONSECUTIVE_FAILURES = 5;
+
+    private final RecurringDonationRepository recurringDonationRepository;
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final DonationRepository donationRepository;
+    private final PaystackChargeService paystackChargeService;
+    private final PaystackConfig paystackConfig;
+    private final TransactionTemplate transaction;
+    private final int workers;
+    private final int pageSize;
+    private final int maxInFlightPerChurch;
+    private final Duration leaseDuration;
+
+    public RecurringDonationChargeService(
+            RecurringDonationRepository recurringDonationRepository,
+            PaymentTransactionRepository paymentTransactionRepository,
+            DonationRepository donationRepository,
+            PaystackChargeService paystackChargeService,
+            PaystackConfig paystackConfig,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.giving.recurring-charges.workers:8}") int workers,
+            @Value("${app.giving.recurring-charges.page-size:500}") int pageSize,
+            @Value("${app.giving.recurring-charges.max-in-flight-per-church:2}") int maxInFlightPerChurch,
+            @Value("${app.giving.recurring-charges.lease-minutes:15}") int leaseMinutes) {
+        this.recurringDonationRepository = recurringDonationRepository;
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.donationRepository = donationRepository;
+        this.paystackChargeService = paystackChargeService;
+        this.paystackConfig = paystackConfig;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.workers = Math.max(1, workers);
+        this.pageSize = Math.max(1, pageSize);
+        this.maxInFlightPerChurch = Math.max(1, maxInFlightPerChurch);
+        this.leaseDuration = Duration.ofMinutes(Math.max(1, leaseMinutes));
+    }
+
+    /**
+     * Outcome of a charge pass. Deferred charges are those whose outcome is unknown (gateway
+     * timeout or error); they are verified on a later pass.
+     */
+    public record ChargeReport(int claimed, int charged, int failed, int deferred, int completed,
+                               int gatewayCalls, long elapsedMs) {
+    }
+
+    private enum Step { COMPLETE, FAIL, ALREADY_PAID, CHARGE, VERIFY_THEN_CHARGE }
+
+    /**
+     * One claimed donation's planned charge, detached from the persistence context.
+     */
+    private record ChargeTask(Long donationId, Long churchId, Step step, String reference,
+                              String authorizationCode, String email, BigDecimal amount, String reason) {
+
+        boolean callsGateway() {
+            return step == Step.CHARGE || step == Step.VERIFY_THEN_CHARGE;
+        }
+    }
+
+    private record ClaimResult(int candidates, List<Long> claimed) {
+    }
+
+    /**
+     * Deterministic reference for the current charge attempt: one per charge date and
+     * consecutive failure count, so a retry after a decline gets a new one and a rerun of the
+     * same attempt reuses it.
+     */
+    public static String chargeReference(RecurringDonation donation) {
+        int attempt = (donation.getConsecutiveFailures() == null ? 0 : donation.getConsecutiveFailures()) + 1;
+        return REFERENCE_PREFIX + donation.getId() + "-"
+            + donation.getNextChargeDate().format(DateTimeFormatter.BASIC_ISO_DATE) + "-" + attempt;
+    }
+
+    public ChargeReport chargeDue(LocalDateTime now) {
+        return chargeDue(now, workers);
+    }
+
+    /**
+     * Charge every active recurring donation whose next attempt is due at now, across all
+     * churches, with up to workerCount concurrent gateway calls.
+     */
+    public ChargeReport chargeDue(LocalDateTime now, int workerCount) {
+        long start = System.nanoTime();
+        String owner = UUID.randomUUID().toString();
+        int poolSize = Math.max(1, workerCount);
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "recurring-charge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int[] totals = new int[6]; // claimed, charged, failed, deferred, completed, gateway calls
+        try {
+            while (true) {
+                ClaimResult claim = transaction.execute(status -> claim(now, owner));
+                if (claim.candidates() == 0) {
+                    break;
+                }
+                if (claim.claimed().isEmpty()) {
+                    continue; // another run took this page
+                }
+                totals[0] += claim.claimed().size();
+                try {
+                    int[] page = chargePage(claim.claimed(), owner, now, pool, poolSize);
+                    for (int i = 0; i < page.length; i++) {
+                        totals[i + 1] += page[i];
+                    }
+                } catch (RuntimeException e) {
+                    // Claims lapse with their lease; unfinished transactions are verified next time
+                    log.error("Recurring charge page of {} donations failed", claim.claimed().size(), e);
+                    totals[3] += claim.claimed().size();
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ChargeReport report = new ChargeReport(totals[0], totals[1], totals[2], totals[3], totals[4], totals[5],
+            (System.nanoTime() - start) / 1_000_000);
+        log.info("Recurring donations: {} claimed, {} charged, {} failed, {} deferred, {} completed, {} gateway calls in {} ms",
+            report.claimed(), report.charged(), report.failed(), report.deferred(), report.completed(),
+            report.gatewayCalls(), report.elapsedMs());
+        return report;
+    }
+
+    private ClaimResult claim(LocalDateTime now, String owner) {
+        List<Long> candidates = recurringDonationRepository.findDueForChargeIds(now, pageSize);
+        if (candidates.isEmpty()) {
+            return new ClaimResult(0, List.of());
+        }
+        recurringDonationRepository.claimForCharge(candidates, owner, now.plus(leaseDuration), now);
+        List<Long> claimed = recurringDonationRepository.findClaimed(candidates, owner).stream()
+            .map(RecurringDonation::getId)
+            .toList();
+        return new ClaimResult(candidates.size(), claimed);
+    }
+
+    /**
+     * @return charged, failed, deferred, completed and gateway calls for the page
+     */
+    private int[] chargePage(List<Long> donationIds, String owner, LocalDateTime now, ExecutorService pool, int poolSize) {
+        List<ChargeTask> tasks = transaction.execute(status -> prepare(donationIds, owner, now.toLocalDate()));
+        List<ChargeTask> charges = tasks.stream().filter(ChargeTask::callsGateway).toList();
+        Map<String, ChargeOutcome> results = chargeFairly(charges, pool, poolSize);
+        int[] counts = transaction.execute(status -> commit(tasks, results, owner, now));
+        counts[4] = charges.size();
+        return counts;
+    }
+
+    /**
+     * Plan each claimed donation's charge and record a PROCESSING transaction for every new one.
+     */
+    private List<ChargeTask> prepare(List<Long> donationIds, String owner, LocalDate today) {
+        List<RecurringDonation> donations = recurringDonationRepository.findClaimed(donationIds, owner);
+        Map<String, PaymentTransaction> existing = paymentTransactionRepository.findByPaymentReferenceIn(
+                donations.stream().map(RecurringDonationChargeService::chargeReference).toList()).stream()
+            .collect(Collectors.toMap(PaymentTransaction::getPaymentReference, Function.identity()));
+
+        List<ChargeTask> tasks = new ArrayList<>(donations.size());
+        List<PaymentTransaction> newTransactions = new ArrayList<>();
+        for (RecurringDonation donation : donations) {
+            Long id = donation.getId();
+            Long churchId = donation.getChurch().getId();
+            String reference = chargeReference(donation);
+
+            if (donation.getEndDate() != null && today.isAfter(donation.getEndDate())) {
+                tasks.add(new ChargeTask(id, churchId, Step.COMPLETE, reference, null, null, null, null));
+                continue;
+            }
+            String authCode = donation.getPaystackAuthorizationCode();
+            if (authCode == null || authCode.isEmpty()) {
+                tasks.add(new ChargeTask(id, churchId, Step.FAIL, reference, null, null, null, "No authorization code"));
+                continue;
+            }
+            String email = donation.getMember().getEmail();
+            if (email == null || email.isEmpty()) {
+                tasks.add(new ChargeTask(id, churchId, Step.FAIL, reference, null, null, null, "Member has no email"));
+                continue;
+            }
+
+            PaymentTransaction previous = existing.get(reference);
+            if (previous != null && previous.getStatus() == PaymentTransactionStatus.SUCCESS) {
+                tasks.add(new ChargeTask(id, churchId, Step.ALREADY_PAID, reference, null, null, null, null));
+                continue;
+            }
+            if (previous != null) {
+                // An earlier run recorded this charge but never saw its outcome
+                tasks.add(new ChargeTask(id, churchId, Step.VERIFY_THEN_CHARGE, reference, authCode, email,
+                    previous.getAmount(), null));
+                continue;
+            }
+
+            PaymentTransaction pending = new PaymentTransaction();
+            pending.setChurch(donation.getChurch());
+            pending.setMember(donation.getMember());
+            pending.setRecurringDonation(donation);
+            pending.setAmount(donation.getAmount());
+            pending.setCurrency(donation.getCurrency());
+            pending.setDonationType(donation.getDonationType());
+            pending.setPaymentMethod(PaymentMethod.ONLINE);
+            pending.setStatus(PaymentTransactionStatus.PROCESSING);
+            pending.setPaymentReference(reference);
+            pending.setPaystackAuthorizationCode(authCode);
+            pending.setCustomerEmail(email);
+            pending.setCustomerPhone(donation.getMember().getPhoneNumber());
+            pending.setCampaign(donation.getCampaign());
+            newTransactions.add(pending);
+            tasks.add(new ChargeTask(id, churchId, Step.CHARGE, reference, authCode, email, donation.getAmount(), null));
+        }
+        paymentTransactionRepository.saveAll(newTransactions);
+        return tasks;
+    }
+
+    /**
+     * Run the charges on the pool with at most poolSize in flight overall and
+     * maxInFlightPerChurch per church, starting churches in round-robin order. Only as many
+     * charges are handed to the pool as it can run, so the next one is always picked fairly
+     * when a slot frees up.
+     */
+    private Map<String, ChargeOutcome> chargeFairly(List<ChargeTask> tasks, ExecutorService pool, int poolSize) {
+        Map<Long, Deque<ChargeTask>> queues = new LinkedHashMap<>();
+        for (ChargeTask task : tasks) {
+            queues.computeIfAbsent(task.churchId(), id -> new ArrayDeque<>()).add(task);
+        }
+        Deque<Long> rotation = new ArrayDeque<>(queues.keySet());
+        Map<Long, Integer> inFlight = new HashMap<>();
+        ExecutorCompletionService<Map.Entry<ChargeTask, ChargeOutcome>> completions = new ExecutorCompletionService<>(pool);
+        Map<String, ChargeOutcome> results = new HashMap<>(tasks.size() * 2);
+        int outstanding = 0;
+
+        while (!rotation.isEmpty() || outstanding > 0) {
+            ChargeTask next = outstanding < poolSize ? nextFairTask(rotation, queues, inFlight) : null;
+            if (next != null) {
+                completions.submit(() -> Map.entry(next, charge(next)));
+                inFlight.merge(next.churchId(), 1, Integer::sum);
+                outstanding++;
+                continue;
+            }
+            try {
+                Map.Entry<ChargeTask, ChargeOutcome> done = completions.take().get();
+                results.put(done.getKey().reference(), done.getValue());
+                inFlight.merge(done.getKey().churchId(), -1, Integer::sum);
+                outstanding--;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while charging recurring donations", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Recurring donation charge failed unexpectedly", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The next task from the first church in rotation that is under its in-flight cap; that
+     * church moves to the back of the rotation. Null if every waiting church is at its cap.
+     */
+    private ChargeTask nextFairTask(Deque<Long> rotation, Map<Long, Deque<ChargeTask>> queues, Map<Long, Integer> inFlight) {
+        for (int i = 0, churches = rotation.size(); i < churches; i++) {
+            Long churchId = rotation.pollFirst();
+            if (inFlight.getOrDefault(churchId, 0) >= maxInFlightPerChurch) {
+                rotation.addLast(churchId);
+                continue;
+            }
+            Deque<ChargeTask> queue = queues.get(churchId);
+            ChargeTask task = queue.pollFirst();
+            if (!queue.isEmpty()) {
+                rotation.addLast(churchId);
+            }
+            return task;
+        }
+        return null;
+    }
+
+    /**
+     * Runs on a worker thread; only talks to the gateway.
+     */
+    private ChargeOutcome charge(ChargeTask task) {
+        return paystackChargeService.chargeOnce(task.authorizationCode(), task.amount(), task.email(),
+            task.reference(), task.step() == Step.VERIFY_THEN_CHARGE);
+    }
+
+    /**
+     * Apply the page's outcomes and release its claims. Donations whose claim was lost to
+     * another run are left to it; their transaction outcome is still recorded.
+     *
+     * @return charged, failed, deferred and completed (gateway calls are filled in by the caller)
+     */
+    private int[] commit(List<ChargeTask> tasks, Map<String, ChargeOutcome> results, String owner, LocalDateTime now) {
+        Map<Long, RecurringDonation> donations = recurringDonationRepository.findClaimed(
+                tasks.stream().map(ChargeTask::donationId).toList(), owner).stream()
+            .collect(Collectors.toMap(RecurringDonation::getId, Function.identity()));
+        Map<String, PaymentTransaction> transactions = paymentTransactionRepository.findByPaymentReferenceIn(
+                tasks.stream().map(ChargeTask::reference).toList()).stream()
+            .collect(Collectors.toMap(PaymentTransaction::getPaymentReference, Function.identity()));
+
+        List<Donation> newDonations = new ArrayList<>();
+        int charged = 0;
+        int failed = 0;
+        int deferred = 0;
+        int completed = 0;
+        for (ChargeTask task : tasks) {
+            ChargeOutcome result = results.get(task.reference());
+            PaymentTransaction payment = transactions.get(task.reference());
+            RecurringDonation donation = donations.get(task.donationId());
+            if (donation == null) {
+                if (result != null && payment != null && result.status() == ChargeStatus.SUCCESS) {
+                    markSucceeded(payment, result.data(), now);
+                }
+                log.warn("Charge claim on recurring donation {} was lost; leaving it to the run that holds it", task.donationId());
+                deferred++;
+                continue;
+            }
+
+            switch (task.step()) {
+                case COMPLETE -> {
+                    donation.setStatus(RecurringDonationStatus.COMPLETED);
+                    donation.setNextAttemptAt(null);
+                    log.info("Recurring donation completed (end date reached): {}", donation.getId());
+                    completed++;
+                }
+                case FAIL -> {
+                    recordFailure(donation, null, task.reason(), now);
+                    failed++;
+                }
+                case ALREADY_PAID -> {
+                    if (payment.getDonation() == null) {
+                        newDonations.add(recordDonation(donation, payment, now));
+                    }
+                    recordSuccess(donation, now);
+                    charged++;
+                }
+                case CHARGE, VERIFY_THEN_CHARGE -> {
+                    switch (result.status()) {
+                        case SUCCESS -> {
+                            markSucceeded(payment, result.data(), now);
+                            newDonations.add(recordDonation(donation, payment, now));
+                            recordSuccess(donation, now);
+                            charged++;
+                        }
+                        case DECLINED -> {
+                            recordFailure(donation, payment, result.message(), now);
+                            failed++;
+                        }
+                        case UNKNOWN -> {
+                            // Leave the transaction PROCESSING and verify it after the first retry delay
+                            donation.setNextAttemptAt(now.plusMinutes(paystackConfig.getInitialRetryDelayMinutes()));
+                            log.warn("Recurring donation {} charge outcome unknown ({}); will verify {}",
+                                donation.getId(), result.message(), task.reference());
+                            deferred++;
+                        }
+                    }
+                }
+            }
+            donation.setChargeClaimedBy(null);
+        }
+        donationRepository.saveAll(newDonations);
+        return new int[] { charged, failed, deferred, completed, 0 };
+    }
+
+    private static void markSucceeded(PaymentTransaction payment, JsonNode data, LocalDateTime now) {
+        if (payment.getStatus() == PaymentTransactionStatus.SUCCESS) {
+            return;
+        }
+        payment.setStatus(PaymentTransactionStatus.SUCCESS);
+        payment.setPaidAt(now);
+        payment.setNextRetryAt(null);
+        if (data != null) {
+            payment.setPaystackReference(data.path("reference").asText(payment.getPaymentReference()));
+            if (data.has("id")) {
+                payment.setPaystackTransactionId(data.get("id").asText());
+            }
+            payment.setGatewayResponse(data.toString());
+        }
+    }
+
+    private static Donation recordDonation(RecurringDonation recurringDonation, PaymentTransaction payment, LocalDateTime now) {
+        Donation donation = new Donation();
+        donation.setChurch(recurringDonation.getChurch());
+        donation.setMember(recurringDonation.getMember());
+        donation.setAmount(recurringDonation.getAmount());
+        donation.setDonationType(recurringDonation.getDonationType());
+        donation.setPaymentMethod(PaymentMethod.ONLINE);
+        donation.setCurrency(recurringDonation.getCurrency());
+        donation.setCampaign(recurringDonation.getCampaign());
+        donation.setDonationDate(now.toLocalDate());
+        donation.setNotes("Auto-generated from recurring donation #" + recurringDonation.getId());
+        payment.setDonation(donation);
+        return donation;
+    }
+
+    /**
+     * Count the payment and schedule the next period's charge: the first period date after
+     * today, so a donation that fell behind is charged once, not once per missed period.
+     */
+    private static void recordSuccess(RecurringDonation donation, LocalDateTime now) {
+        donation.setTotalPayments(donation.getTotalPayments() + 1);
+        donation.setTotalAmountPaid(donation.getTotalAmountPaid().add(donation.getAmount()));
+        donation.setLastChargeDate(now);
+        donation.setConsecutiveFailures(0);
+        donation.setNextChargeDate(nextPeriodAfter(donation, now));
+        donation.setNextAttemptAt(donation.getNextChargeDate().atStartOfDay());
+    }
+
+    private static LocalDate nextPeriodAfter(RecurringDonation donation, LocalDateTime now) {
+        RecurringFrequency frequency = donation.getFrequency();
+        return frequency.firstDateAfter(frequency.nextDate(donation.getNextChargeDate()), now.toLocalDate());
+    }
+
+    /**
+     * Schedule a retry with exponential backoff. Once the retries for this period are used up
+     * the period is skipped, and after {@link #MAX_CONSECUTIVE_FAILURES} the donation is FAILED.
+     */
+    private void recordFailure(RecurringDonation donation, PaymentTransaction payment, String reason, LocalDateTime now) {
+        int failures = donation.getConsecutiveFailures() + 1;
+        donation.setConsecutiveFailures(failures);
+        donation.setLastFailureDate(now);
+        donation.setLastFailureReason(reason);
+
+        LocalDateTime nextAttempt;
+        if (failures >= MAX_CONSECUTIVE_FAILURES) {
+            donation.setStatus(RecurringDonationStatus.FAILED);
+            nextAttempt = null;
+            log.error("Recurring donation marked as FAILED after {} consecutive failures: {}", failures, donation.getId());
+        } else if (failures % paystackConfig.getMaxRetryAttempts() != 0) {
+            nextAttempt = now.plus(retryDelay(failures));
+            log.info("Recurring donation {} charge failed ({}), retry {} at {}", donation.getId(), reason, failures, nextAttempt);
+        } else {
+            donation.setNextChargeDate(nextPeriodAfter(donation, now));
+            nextAttempt = donation.getNextChargeDate().atStartOfDay();
+            log.warn("Recurring donation {} failed {} times; skipping to {}", donation.getId(), failures, donation.getNextChargeDate());
+        }
+        donation.setNextAttemptAt(nextAttempt);
+
+        if (payment != null) {
+            payment.setStatus(PaymentTransactionStatus.FAILED);
+            payment.setFailedAt(now);
+            payment.setFailureReason(reason);
+            payment.setGatewayMessage(reason);
+            payment.setRetryCount(failures);
+            payment.setNextRetryAt(nextAttempt);
+        }
+    }
+
+    /**
+     * initial-retry-delay x 2^(failures - 1), capped at max-retry-delay.
+     */
+    Duration retryDelay(int failures) {
+        long delayMinutes = paystackConfig.getInitialRetryDelayMinutes() * (1L << Math.min(failures - 1, 30));
+        return Duration.ofMinutes(Math.min(delayMinutes, paystackConfig.getMaxRetryDelayHours() * 60));
+    }
+}
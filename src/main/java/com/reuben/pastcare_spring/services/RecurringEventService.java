@@ -2,26 +2,29 @@ package com.reuben.pastcare_spring.services;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.reuben.pastcare_spring.dtos.AttendanceSessionResponse;
+import com.reuben.pastcare_spring.dtos.EventOccurrenceResponse;
 import com.reuben.pastcare_spring.dtos.EventRequest;
-import com.reuben.pastcare_spring.dtos.EventResponse;
 import com.reuben.pastcare_spring.models.Event;
-import com.reuben.pastcare_spring.models.RecurrencePattern;
+import com.reuben.pastcare_spring.models.EventOccurrenceException;
+import com.reuben.pastcare_spring.repositories.EventOccurrenceExceptionRepository;
 import com.reuben.pastcare_spring.repositories.EventRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Service for managing recurring events
- * Handles generation of event instances from recurrence patterns
+ * Service for managing recurring events.
+ *
+ * A recurring event is stored as its rule; occurrences are expanded on read by
+ * {@link EventOccurrenceService} and only get their own row (a child event) when
+ * someone registers or checks in. Series edits therefore touch the series row plus
+ * the few materialized occurrences, not one row per occurrence.
  */
 @Service
 @RequiredArgsConstructor
@@ -30,213 +33,209 @@ public class RecurringEventService {
 
     private final EventRepository eventRepository;
     private final EventService eventService;
-    private final EventAttendanceService eventAttendanceService;
+    private final EventOccurrenceService occurrenceService;
+    private final EventOccurrenceExceptionRepository exceptionRepository;
 
     /**
-     * Generate recurring event instances from a parent event
+     * Upcoming occurrences of a recurring event, expanded from its rule.
      *
-     * @param parentEventId The ID of the parent recurring event
-     * @param maxInstances Maximum number of instances to generate (default: 52 for weekly events, 365 days worth)
-     * @return List of created event instances
+     * <p>Nothing is written: occurrences are materialized on registration or check-in.
+     * Kept under the old name for the generate-instances endpoint.
+     *
+     * @param parentEventId The ID of the recurring event
+     * @param maxInstances Maximum number of occurrences to return (default: 52, at most two years ahead)
+     * @return Upcoming occurrences, materialized ones as their own event
      */
-    @Transactional
-    public List<EventResponse> generateRecurringInstances(Long parentEventId, Integer maxInstances) {
+    @Transactional(readOnly = true)
+    public List<EventOccurrenceResponse> generateRecurringInstances(Long parentEventId, Integer maxInstances) {
         Event parentEvent = eventRepository.findById(parentEventId)
             .orElseThrow(() -> new IllegalArgumentException("Parent event not found"));
 
-        if (!parentEvent.getIsRecurring() || parentEvent.getRecurrencePattern() == null) {
+        if (!RecurrenceRule.isSeries(parentEvent)) {
             throw new IllegalArgumentException("Event is not a recurring event");
         }
 
-        List<EventResponse> instances = new ArrayList<>();
-        LocalDateTime currentStart = parentEvent.getStartDate();
-        LocalDateTime currentEnd = parentEvent.getEndDate();
-        LocalDate recurrenceEndDate = parentEvent.getRecurrenceEndDate();
-        int instanceCount = 0;
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        LocalDateTime from = parentEvent.getStartDate().isAfter(today) ? parentEvent.getStartDate() : today;
         int maxCount = maxInstances != null ? maxInstances : 52;
+        return occurrenceService.findSeriesOccurrences(parentEventId, from, from.plusYears(2), maxCount);
+    }
 
-        // Generate instances until we hit the recurrence end date or max instances
-        while (instanceCount < maxCount) {
-            currentStart = calculateNextOccurrence(currentStart, parentEvent.getRecurrencePattern());
-            currentEnd = calculateNextOccurrence(currentEnd, parentEvent.getRecurrencePattern());
+    /**
+     * Update a recurring event and its future materialized occurrences.
+     *
+     * <p>The series row takes the updates (so every expanded occurrence follows). Materialized
+     * occurrences and exceptions keep their position in the series: the n-th occurrence under
+     * the old rule becomes the n-th under the new one, and future materialized occurrences get
+     * the updated details at their new times.
+     *
+     * @param parentEventId The recurring event ID
+     * @param updates The updates to apply (start/end are those of the first occurrence)
+     * @return Number of materialized future occurrences updated
+     */
+    @Transactional
+    public int updateFutureInstances(Long parentEventId, EventRequest updates) {
+        Event parentEvent = eventRepository.findById(parentEventId)
+            .orElseThrow(() -> new IllegalArgumentException("Parent event not found"));
+        if (!RecurrenceRule.isSeries(parentEvent)) {
+            throw new IllegalArgumentException("Event is not a recurring event");
+        }
+        RecurrenceRule oldRule = RecurrenceRule.of(parentEvent);
 
-            // Check if we've passed the recurrence end date
-            if (recurrenceEndDate != null && currentStart.toLocalDate().isAfter(recurrenceEndDate)) {
-                break;
-            }
+        // Keep the rule unless the update changes it
+        if (updates.getIsRecurring() == null) {
+            updates.setIsRecurring(true);
+        }
+        if (updates.getRecurrencePattern() == null) {
+            updates.setRecurrencePattern(parentEvent.getRecurrencePattern());
+        }
+        if (updates.getRecurrenceEndDate() == null) {
+            updates.setRecurrenceEndDate(parentEvent.getRecurrenceEndDate());
+        }
 
-            // Check if we're too far in the future (max 2 years)
-            if (currentStart.isAfter(LocalDateTime.now().plusYears(2))) {
-                break;
-            }
+        // Use the updated_by user ID from the parent event
+        Long userId = parentEvent.getUpdatedBy() != null ? parentEvent.getUpdatedBy().getId()
+            : parentEvent.getCreatedBy() != null ? parentEvent.getCreatedBy().getId() : null;
+        eventService.updateEvent(parentEventId, updates, userId);
+        occurrenceService.invalidate(parentEventId);
+        if (!RecurrenceRule.isSeries(parentEvent)) {
+            return 0;
+        }
+        RecurrenceRule newRule = RecurrenceRule.of(parentEvent);
 
-            // Create instance
-            EventRequest instanceRequest = buildInstanceRequest(parentEvent, currentStart, currentEnd);
+        int updateCount = rekeyOccurrences(parentEventId, oldRule, newRule, updates, userId);
+        rekeyExceptions(parentEventId, oldRule, newRule);
 
-            try {
-                // Use the created_by user ID from the parent event
-                Long userId = parentEvent.getCreatedBy() != null ? parentEvent.getCreatedBy().getId() : null;
-                EventResponse instance = eventService.createEvent(instanceRequest, userId);
-                instances.add(instance);
-                instanceCount++;
-                log.info("Created recurring instance {} for parent event {}", instance.getId(), parentEventId);
-            } catch (Exception e) {
-                log.error("Failed to create recurring instance: {}", e.getMessage());
-                break;
+        log.info("Updated recurring event {} and {} materialized future occurrences", parentEventId, updateCount);
+        return updateCount;
+    }
+
+    /**
+     * Move child rows to their occurrence's new rule time and update the future ones.
+     * Keys are cleared first so the (series, occurrence) unique index never sees two rows
+     * on one occurrence mid-update.
+     */
+    private int rekeyOccurrences(Long parentEventId, RecurrenceRule oldRule, RecurrenceRule newRule,
+                                 EventRequest updates, Long userId) {
+        List<Event> children = new ArrayList<>();
+        List<LocalDateTime> newStarts = new ArrayList<>();
+        for (Event child : eventRepository.findByParentEventId(parentEventId)) {
+            long n = oldRule.indexOf(child.getOccurrenceStart());
+            if (n >= 0) {
+                children.add(child);
+                newStarts.add(newRule.occurrence(n));
+                child.setOccurrenceStart(null);
             }
         }
+        eventRepository.saveAllAndFlush(children);
 
-        log.info("Generated {} recurring instances for event {}", instances.size(), parentEventId);
-
-        // Auto-generate attendance sessions if this is a service-type event
-        try {
-            if (eventAttendanceService.shouldEnableAttendanceTracking(parentEvent)) {
-                List<AttendanceSessionResponse> attendanceSessions =
-                    eventAttendanceService.generateAttendanceSessionsForRecurringEvent(parentEventId);
-                log.info("Auto-generated {} attendance sessions for recurring event {}",
-                    attendanceSessions.size(), parentEventId);
+        LocalDateTime now = LocalDateTime.now();
+        int updateCount = 0;
+        for (int i = 0; i < children.size(); i++) {
+            Event child = children.get(i);
+            LocalDateTime newStart = newStarts.get(i);
+            if (child.getDeletedAt() == null && child.getStartDate().isAfter(now)) {
+                try {
+                    eventService.updateEvent(child.getId(), buildOccurrenceUpdate(parentEventId, updates,
+                        newStart, newStart.plus(newRule.duration())), userId);
+                    updateCount++;
+                } catch (Exception e) {
+                    log.error("Failed to update occurrence {}: {}", child.getId(), e.getMessage());
+                }
             }
-        } catch (Exception e) {
-            log.error("Failed to auto-generate attendance sessions: {}", e.getMessage());
-            // Don't fail the whole operation if attendance generation fails
+            child.setOccurrenceStart(newStart);
         }
-
-        return instances;
+        eventRepository.saveAllAndFlush(children);
+        return updateCount;
     }
 
-    /**
-     * Calculate the next occurrence date based on recurrence pattern
-     */
-    private LocalDateTime calculateNextOccurrence(LocalDateTime current, RecurrencePattern pattern) {
-        return switch (pattern) {
-            case DAILY -> current.plusDays(1);
-            case WEEKLY -> current.plusWeeks(1);
-            case BI_WEEKLY -> current.plusWeeks(2);
-            case MONTHLY -> current.plusMonths(1);
-            case QUARTERLY -> current.plusMonths(3);
-            case YEARLY -> current.plusYears(1);
-            case CUSTOM -> current.plusWeeks(1); // Default for custom
-        };
+    private void rekeyExceptions(Long parentEventId, RecurrenceRule oldRule, RecurrenceRule newRule) {
+        List<EventOccurrenceException> exceptions = exceptionRepository.findByEventId(parentEventId);
+        if (exceptions.isEmpty()) {
+            return;
+        }
+        List<EventOccurrenceException> moved = new ArrayList<>();
+        for (EventOccurrenceException exception : exceptions) {
+            long n = oldRule.indexOf(exception.getOccurrenceStart());
+            if (n >= 0) {
+                moved.add(EventOccurrenceException.builder()
+                    .church(exception.getChurch())
+                    .event(exception.getEvent())
+                    .occurrenceStart(newRule.occurrence(n))
+                    .cancelled(exception.getCancelled())
+                    .startDate(exception.getStartDate())
+                    .endDate(exception.getEndDate())
+                    .build());
+            }
+        }
+        exceptionRepository.deleteAllInBatch(exceptions);
+        exceptionRepository.saveAll(moved);
     }
 
     /**
-     * Build an EventRequest for a recurring instance
+     * Build an EventRequest for one materialized occurrence
      */
-    private EventRequest buildInstanceRequest(Event parentEvent, LocalDateTime startDate, LocalDateTime endDate) {
+    private EventRequest buildOccurrenceUpdate(Long parentEventId, EventRequest updates,
+                                               LocalDateTime startDate, LocalDateTime endDate) {
         return EventRequest.builder()
-            .name(parentEvent.getName())
-            .description(parentEvent.getDescription())
-            .eventType(parentEvent.getEventType())
+            .name(updates.getName())
+            .description(updates.getDescription())
+            .eventType(updates.getEventType())
             .startDate(startDate)
             .endDate(endDate)
-            .timezone(parentEvent.getTimezone())
-            .locationType(parentEvent.getLocationType())
-            .locationId(parentEvent.getLocation() != null ? parentEvent.getLocation().getId() : null)
-            .physicalLocation(parentEvent.getPhysicalLocation())
-            .virtualLink(parentEvent.getVirtualLink())
-            .virtualPlatform(parentEvent.getVirtualPlatform())
-            .requiresRegistration(parentEvent.getRequiresRegistration())
-            .registrationDeadline(parentEvent.getRegistrationDeadline())
-            .maxCapacity(parentEvent.getMaxCapacity())
-            .allowWaitlist(parentEvent.getAllowWaitlist())
-            .autoApproveRegistrations(parentEvent.getAutoApproveRegistrations())
-            .visibility(parentEvent.getVisibility())
-            .isRecurring(false) // Instances are not themselves recurring
+            .timezone(updates.getTimezone())
+            .locationType(updates.getLocationType())
+            .locationId(updates.getLocationId())
+            .physicalLocation(updates.getPhysicalLocation())
+            .virtualLink(updates.getVirtualLink())
+            .virtualPlatform(updates.getVirtualPlatform())
+            .requiresRegistration(updates.getRequiresRegistration())
+            .registrationDeadline(updates.getRegistrationDeadline())
+            .maxCapacity(updates.getMaxCapacity())
+            .allowWaitlist(updates.getAllowWaitlist())
+            .autoApproveRegistrations(updates.getAutoApproveRegistrations())
+            .visibility(updates.getVisibility())
+            .isRecurring(false) // Occurrences are not themselves recurring
             .recurrencePattern(null)
             .recurrenceEndDate(null)
-            .parentEventId(parentEvent.getId())
-            .primaryOrganizerId(parentEvent.getPrimaryOrganizer() != null ? parentEvent.getPrimaryOrganizer().getId() : null)
-            .notes(parentEvent.getNotes())
-            .reminderDaysBefore(parentEvent.getReminderDaysBefore())
+            .parentEventId(parentEventId)
+            .primaryOrganizerId(updates.getPrimaryOrganizerId())
+            .notes(updates.getNotes())
+            .reminderDaysBefore(updates.getReminderDaysBefore())
             .build();
     }
 
     /**
-     * Update all future instances of a recurring event
+     * End a recurring event now: the series stops after its last occurrence that has
+     * already started, and future materialized occurrences are deleted.
      *
-     * @param parentEventId The parent event ID
-     * @param updates The updates to apply
-     * @return Number of instances updated
+     * @param parentEventId The recurring event ID
+     * @return Number of materialized occurrences deleted
      */
     @Transactional
-    public int updateFutureInstances(Long parentEventId, EventRequest updates) {
-        List<Event> futureInstances = eventRepository.findByParentEventIdAndStartDateAfter(
-            parentEventId,
-            LocalDateTime.now()
-        );
-
-        int updateCount = 0;
-        for (Event instance : futureInstances) {
-            try {
-                // Calculate the time offset between original start and current instance start
-                Event parentEvent = eventRepository.findById(parentEventId)
-                    .orElseThrow(() -> new IllegalArgumentException("Parent event not found"));
-
-                long daysBetween = ChronoUnit.DAYS.between(
-                    parentEvent.getStartDate().toLocalDate(),
-                    instance.getStartDate().toLocalDate()
-                );
-
-                // Apply updates while maintaining the date offset
-                LocalDateTime newStart = updates.getStartDate().plusDays(daysBetween);
-                long duration = ChronoUnit.MINUTES.between(updates.getStartDate(), updates.getEndDate());
-                LocalDateTime newEnd = newStart.plusMinutes(duration);
-
-                EventRequest instanceUpdate = EventRequest.builder()
-                    .name(updates.getName())
-                    .description(updates.getDescription())
-                    .eventType(updates.getEventType())
-                    .startDate(newStart)
-                    .endDate(newEnd)
-                    .timezone(updates.getTimezone())
-                    .locationType(updates.getLocationType())
-                    .locationId(updates.getLocationId())
-                    .physicalLocation(updates.getPhysicalLocation())
-                    .virtualLink(updates.getVirtualLink())
-                    .virtualPlatform(updates.getVirtualPlatform())
-                    .requiresRegistration(updates.getRequiresRegistration())
-                    .registrationDeadline(updates.getRegistrationDeadline())
-                    .maxCapacity(updates.getMaxCapacity())
-                    .allowWaitlist(updates.getAllowWaitlist())
-                    .autoApproveRegistrations(updates.getAutoApproveRegistrations())
-                    .visibility(updates.getVisibility())
-                    .isRecurring(false)
-                    .recurrencePattern(null)
-                    .recurrenceEndDate(null)
-                    .parentEventId(parentEventId)
-                    .primaryOrganizerId(updates.getPrimaryOrganizerId())
-                    .notes(updates.getNotes())
-                    .reminderDaysBefore(updates.getReminderDaysBefore())
-                    .build();
+    public int deleteFutureInstances(Long parentEventId) {
+        Event parentEvent = eventRepository.findById(parentEventId)
+            .orElseThrow(() -> new IllegalArgumentException("Parent event not found"));
+        LocalDateTime now = LocalDateTime.now();
 
-                // Use the updated_by user ID from the parent event
-                Long userId = parentEvent.getUpdatedBy() != null ? parentEvent.getUpdatedBy().getId() : null;
-                eventService.updateEvent(instance.getId(), instanceUpdate, userId);
-                updateCount++;
-            } catch (Exception e) {
-                log.error("Failed to update instance {}: {}", instance.getId(), e.getMessage());
+        if (RecurrenceRule.isSeries(parentEvent)) {
+            LocalDateTime lastStarted = RecurrenceRule.of(parentEvent).lastStartAtOrBefore(now);
+            if (lastStarted != null || parentEvent.getStartDate().isAfter(now)) {
+                // A series that hasn't started keeps only its first occurrence (the series row)
+                LocalDate until = lastStarted != null ? lastStarted.toLocalDate() : parentEvent.getStartDate().toLocalDate();
+                parentEvent.setRecurrenceEndDate(until);
+                eventRepository.save(parentEvent);
+                occurrenceService.invalidate(parentEventId);
             }
         }
 
-        log.info("Updated {} future instances for parent event {}", updateCount, parentEventId);
-        return updateCount;
-    }
-
-    /**
-     * Delete all future instances of a recurring event
-     *
-     * @param parentEventId The parent event ID
-     * @return Number of instances deleted
-     */
-    @Transactional
-    public int deleteFutureInstances(Long parentEventId) {
-        List<Event> futureInstances = eventRepository.findByParentEventIdAndStartDateAfter(
-            parentEventId,
-            LocalDateTime.now()
-        );
+        List<Event> futureInstances = eventRepository.findByParentEventIdAndStartDateAfter(parentEventId, now);
 
         int deleteCount = 0;
         for (Event instance : futureInstances) {
+            if (instance.getDeletedAt() != null) {
+                continue;
+            }
             try {
                 eventService.deleteEvent(instance.getId());
                 deleteCount++;
@@ -245,7 +244,7 @@ public class RecurringEventService {
             }
         }
 
-        log.info("Deleted {} future instances for parent event {}", deleteCount, parentEventId);
+        log.info("Ended recurring event {} and deleted {} future occurrences", parentEventId, deleteCount);
         return deleteCount;
     }
 
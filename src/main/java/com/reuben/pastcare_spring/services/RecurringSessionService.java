@@ -6,15 +6,19 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.reuben.pastcare_spring.models.AttendanceSession;
+import com.reuben.pastcare_spring.persistence.BulkWriter;
 import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
 
 /**
@@ -24,6 +28,11 @@ import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
  * Runs daily at midnight to check for sessions that need to be generated.
  * Supports DAILY, WEEKLY, MONTHLY, and custom recurrence patterns.
  *
+ * Generation is planned per church: every template's dates are computed in memory,
+ * the church's existing sessions for the whole window are read in one query, and only
+ * the missing sessions are batch-inserted. Generated sessions record their template,
+ * and (template, date) is unique, so overlapping runs can't insert a session twice.
+ *
  * @author Claude Sonnet 4.5
  * @version 1.0
  * @since 2025-12-24
@@ -34,9 +43,36 @@ public class RecurringSessionService {
   private static final Logger logger = LoggerFactory.getLogger(RecurringSessionService.class);
 
   private final AttendanceSessionRepository sessionRepository;
+  private final BulkWriter bulkWriter;
 
-  public RecurringSessionService(AttendanceSessionRepository sessionRepository) {
+  public RecurringSessionService(AttendanceSessionRepository sessionRepository, BulkWriter bulkWriter) {
     this.sessionRepository = sessionRepository;
+    this.bulkWriter = bulkWriter;
+  }
+
+  /**
+   * Counts for one generation run.
+   *
+   * @param planned Sessions the templates call for in the window
+   * @param existing Planned sessions that already existed (skipped)
+   * @param generated Sessions inserted
+   * @param failed Sessions that could not be inserted (e.g. generated concurrently)
+   */
+  public record GenerationReport(
+      int templates,
+      int churches,
+      int planned,
+      int existing,
+      int generated,
+      int failed,
+      long elapsedMs
+  ) {
+  }
+
+  private record PlannedSession(AttendanceSession template, LocalDate date) {
+  }
+
+  private record SessionKey(String sessionName, LocalDate sessionDate) {
   }
 
   /**
@@ -44,7 +80,6 @@ public class RecurringSessionService {
    * Generates sessions 7 days in advance.
    */
   @Scheduled(cron = "0 0 0 * * *") // Run at midnight every day
-  @Transactional
   public void generateRecurringSessions() {
     logger.info("Starting recurring session generation job...");
 
@@ -57,30 +92,75 @@ public class RecurringSessionService {
         return;
       }
 
-      logger.info("Found {} recurring session templates", recurringTemplates.size());
-
-      int totalGenerated = 0;
       LocalDate today = LocalDate.now();
       LocalDate endDate = today.plusDays(7); // Generate 7 days ahead
 
-      for (AttendanceSession template : recurringTemplates) {
-        try {
-          int generated = generateSessionsFromTemplate(template, today, endDate);
-          totalGenerated += generated;
-          logger.info("Generated {} sessions from template: {}", generated, template.getSessionName());
-        } catch (Exception e) {
-          logger.error("Error generating sessions from template {}: {}",
-              template.getId(), e.getMessage(), e);
-        }
-      }
+      GenerationReport report = generate(recurringTemplates, today, endDate);
 
-      logger.info("Recurring session generation completed. Total sessions generated: {}", totalGenerated);
+      logger.info("Recurring session generation completed: {} templates across {} churches, {} planned, "
+              + "{} already existed, {} generated, {} failed in {} ms",
+          report.templates(), report.churches(), report.planned(), report.existing(),
+          report.generated(), report.failed(), report.elapsedMs());
 
     } catch (Exception e) {
       logger.error("Error in recurring session generation job: {}", e.getMessage(), e);
     }
   }
 
+  /**
+   * Generate the missing sessions for a set of templates over a date range.
+   *
+   * Each church's inserts commit in their own transactions (one per chunk), so a failing
+   * church doesn't hold back the others. Must not be called inside a transaction that
+   * has uncommitted sessions, since the existing-session check runs separately.
+   *
+   * @param templates Recurring session templates
+   * @param startDate Start date for generation
+   * @param endDate End date for generation
+   * @return Counts and timing for the run
+   */
+  public GenerationReport generate(List<AttendanceSession> templates, LocalDate startDate, LocalDate endDate) {
+    long start = System.nanoTime();
+
+    Map<Long, List<AttendanceSession>> templatesByChurch = new LinkedHashMap<>();
+    for (AttendanceSession template : templates) {
+      templatesByChurch.computeIfAbsent(template.getChurch().getId(), id -> new ArrayList<>()).add(template);
+    }
+
+    int planned = 0;
+    int existing = 0;
+    int generated = 0;
+    int failed = 0;
+
+    for (Map.Entry<Long, List<AttendanceSession>> entry : templatesByChurch.entrySet()) {
+      Long churchId = entry.getKey();
+      try {
+        List<PlannedSession> candidates = planSessions(entry.getValue(), startDate, endDate);
+        List<PlannedSession> missing = withoutExisting(churchId, candidates, startDate, endDate);
+
+        // Inserted as JDBC batches, one transaction per chunk
+        BulkWriter.ChunkedResult<PlannedSession> result = bulkWriter.inChunkTransactions(missing,
+            chunk -> bulkWriter.saveAll(chunk.stream()
+                .map(p -> createSessionFromTemplate(p.template(), p.date()))
+                .toList()));
+        result.failures().forEach((p, message) -> logger.warn("Could not generate {} on {} for church {}: {}",
+            p.template().getSessionName(), p.date(), churchId, message));
+
+        planned += candidates.size();
+        existing += candidates.size() - missing.size();
+        generated += missing.size() - result.failures().size();
+        failed += result.failures().size();
+        logger.debug("Church {}: {} sessions planned, {} generated", churchId, candidates.size(),
+            missing.size() - result.failures().size());
+      } catch (Exception e) {
+        logger.error("Error generating sessions for church {}: {}", churchId, e.getMessage(), e);
+      }
+    }
+
+    return new GenerationReport(templates.size(), templatesByChurch.size(), planned, existing, generated, failed,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
   /**
    * Generate sessions from a recurring template for the specified date range.
    *
@@ -89,39 +169,58 @@ public class RecurringSessionService {
    * @param endDate End date for generation
    * @return Number of sessions generated
    */
-  @Transactional
   public int generateSessionsFromTemplate(AttendanceSession template, LocalDate startDate, LocalDate endDate) {
-    if (template.getRecurrencePattern() == null || template.getRecurrencePattern().isBlank()) {
-      logger.warn("Template {} has no recurrence pattern", template.getId());
-      return 0;
-    }
+    return generate(List.of(template), startDate, endDate).generated();
+  }
 
-    List<LocalDate> dates = calculateRecurrenceDates(
-        template.getRecurrencePattern(),
-        startDate,
-        endDate,
-        template.getSessionDate()
-    );
-
-    int generatedCount = 0;
-
-    for (LocalDate date : dates) {
-      // Check if session already exists for this date
-      boolean exists = sessionRepository.existsByChurch_IdAndSessionDateAndSessionNameAndIsRecurringFalse(
-          template.getChurch().getId(),
-          date,
-          template.getSessionName()
-      );
-
-      if (!exists) {
-        AttendanceSession newSession = createSessionFromTemplate(template, date);
-        sessionRepository.save(newSession);
-        generatedCount++;
-        logger.debug("Created session for {} on {}", template.getSessionName(), date);
+  /**
+   * Every (template, date) the templates call for, in template order.
+   * A template with a missing or invalid pattern is logged and skipped.
+   */
+  private List<PlannedSession> planSessions(List<AttendanceSession> templates, LocalDate startDate, LocalDate endDate) {
+    List<PlannedSession> planned = new ArrayList<>();
+    for (AttendanceSession template : templates) {
+      if (template.getRecurrencePattern() == null || template.getRecurrencePattern().isBlank()) {
+        logger.warn("Template {} has no recurrence pattern", template.getId());
+        continue;
+      }
+      try {
+        for (LocalDate date : calculateRecurrenceDates(
+            template.getRecurrencePattern(), startDate, endDate, template.getSessionDate())) {
+          planned.add(new PlannedSession(template, date));
+        }
+      } catch (Exception e) {
+        logger.error("Error generating sessions from template {}: {}", template.getId(), e.getMessage(), e);
       }
     }
+    return planned;
+  }
+
+  /**
+   * Drop planned sessions the church already has (same name and date), and repeats of the
+   * same name and date from several templates; the first template wins.
+   */
+  private List<PlannedSession> withoutExisting(
+      Long churchId, List<PlannedSession> candidates, LocalDate startDate, LocalDate endDate) {
+    if (candidates.isEmpty()) {
+      return List.of();
+    }
 
-    return generatedCount;
+    Set<String> sessionNames = new HashSet<>();
+    candidates.forEach(p -> sessionNames.add(p.template().getSessionName()));
+
+    Set<SessionKey> taken = new HashSet<>();
+    for (Object[] row : sessionRepository.findSessionKeys(churchId, sessionNames, startDate, endDate)) {
+      taken.add(new SessionKey((String) row[0], (LocalDate) row[1]));
+    }
+
+    List<PlannedSession> missing = new ArrayList<>();
+    for (PlannedSession candidate : candidates) {
+      if (taken.add(new SessionKey(candidate.template().getSessionName(), candidate.date()))) {
+        missing.add(candidate);
+      }
+    }
+    return missing;
   }
 
   /**
@@ -141,7 +240,7 @@ public class RecurringSessionService {
    * @param templateDate Original template date (for reference)
    * @return List of dates matching the pattern
    */
-  private List<LocalDate> calculateRecurrenceDates(
+  public static List<LocalDate> calculateRecurrenceDates(
       String pattern,
       LocalDate startDate,
       LocalDate endDate,
@@ -299,6 +398,7 @@ public class RecurringSessionService {
     // This is a generated session, not a recurring template
     newSession.setIsRecurring(false);
     newSession.setRecurrencePattern(null);
+    newSession.setTemplateSessionId(template.getId());
 
     // Not completed by default
     newSession.setIsCompleted(false);
@@ -314,7 +414,6 @@ public class RecurringSessionService {
    * @param daysAhead Number of days to generate ahead
    * @return Number of sessions generated
    */
-  @Transactional
   public int generateSessionsNow(Long templateId, int daysAhead) {
     AttendanceSession template = sessionRepository.findById(templateId)
         .orElseThrow(() -> new IllegalArgumentException("Template session not found: " + templateId));
@@ -6,6 +6,7 @@ import com.reuben.pastcare_spring.models.*;
 import com.reuben.pastcare_spring.repositories.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -19,9 +20,11 @@ import java.util.stream.Collectors;
 
 /**
  * Service for generating report data for all 13 pre-built report types.
+ * Read-only throughout, so it is served by the read replica when one is configured.
  */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ReportGeneratorService {
 
     private final MemberRepository memberRepository;
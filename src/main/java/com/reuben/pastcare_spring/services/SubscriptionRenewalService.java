@@ -0,0 +1,414 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.ChurchStorageAddon;
+import com.reuben.pastcare_spring.models.ChurchSubscription;
+import com.reuben.pastcare_spring.models.Payment;
+import com.reuben.pastcare_spring.repositories.ChurchRepository;
+import com.reuben.pastcare_spring.repositories.ChurchStorageAddonRepository;
+import com.reuben.pastcare_spring.repositories.ChurchSubscriptionRepository;
+import com.reuben.pastcare_spring.repositories.PaymentRepository;
+import com.reuben.pastcare_spring.services.PaystackChargeService.ChargeOutcome;
+import com.reuben.pastcare_spring.services.PaystackChargeService.ChargeStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Subscription renewal pipeline.
+ *
+ * <p>Due subscriptions are renewed one chunk at a time:
+ * <ol>
+ *   <li>claim: take a lease on up to {@code chunk-size} due subscriptions. A run that dies
+ *       leaves its leases to expire, after which another run picks the rows up</li>
+ *   <li>prepare: load the chunk's addons, church emails and existing payments in bulk and
+ *       write a PENDING payment for every charge, then commit, so each charge is on record
+ *       before the gateway is called</li>
+ *   <li>charge: call Paystack for the chunk from a bounded worker pool</li>
+ *   <li>commit: apply all outcomes (payments, subscriptions, addon dates) in one transaction
+ *       and release the leases</li>
+ * </ol>
+ *
+ * A renewal's payment reference is derived from the subscription, its billing date and the
+ * attempt number ({@link #renewalReference}). A rerun after a crash finds the PENDING payment
+ * and asks Paystack whether that reference was already charged before charging it, and
+ * Paystack itself refuses a second charge with the same reference.
+ */
+@Service
+@Slf4j
+public class SubscriptionRenewalService {
+
+    static final String REFERENCE_PREFIX = "RENEWAL-";
+
+    private final ChurchSubscriptionRepository subscriptionRepository;
+    private final PaymentRepository paymentRepository;
+    private final ChurchStorageAddonRepository addonRepository;
+    private final ChurchRepository churchRepository;
+    private final PaystackChargeService paystackChargeService;
+    private final TransactionTemplate transaction;
+    private final int workers;
+    private final int chunkSize;
+    private final Duration leaseDuration;
+
+    public SubscriptionRenewalService(
+            ChurchSubscriptionRepository subscriptionRepository,
+            PaymentRepository paymentRepository,
+            ChurchStorageAddonRepository addonRepository,
+            ChurchRepository churchRepository,
+            PaystackChargeService paystackChargeService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.billing.renewal.workers:8}") int workers,
+            @Value("${app.billing.renewal.chunk-size:100}") int chunkSize,
+            @Value("${app.billing.renewal.lease-minutes:15}") int leaseMinutes) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.paymentRepository = paymentRepository;
+        this.addonRepository = addonRepository;
+        this.churchRepository = churchRepository;
+        this.paystackChargeService = paystackChargeService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.workers = Math.max(1, workers);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.leaseDuration = Duration.ofMinutes(Math.max(1, leaseMinutes));
+    }
+
+    /**
+     * Outcome of a renewal run. Errors are renewals left for a later run, e.g. a gateway
+     * timeout where it is unknown whether the card was charged.
+     */
+    public record RenewalReport(int claimed, int renewed, int failed, int errors, int gatewayCalls, long elapsedMs) {
+    }
+
+    private enum Step { PROMO_CREDIT, PAST_DUE, ALREADY_PAID, CHARGE, VERIFY_THEN_CHARGE, SKIP }
+
+    /**
+     * One claimed subscription's planned renewal, detached from the persistence context.
+     */
+    private record RenewalTask(Long subscriptionId, Long churchId, Step step, String reference,
+                               String authorizationCode, String email, BigDecimal amount, String reason) {
+
+        boolean callsGateway() {
+            return step == Step.CHARGE || step == Step.VERIFY_THEN_CHARGE;
+        }
+    }
+
+    private record ChargeResult(ChargeStatus status, String transactionId, String message) {
+    }
+
+    private record ClaimResult(int candidates, List<Long> claimed) {
+    }
+
+    /**
+     * Deterministic reference for the current renewal attempt of a subscription: the same
+     * billing date and attempt always give the same reference, and a failed attempt moves to
+     * a new one.
+     */
+    public static String renewalReference(ChurchSubscription subscription) {
+        int attempt = (subscription.getFailedPaymentAttempts() == null ? 0 : subscription.getFailedPaymentAttempts()) + 1;
+        return REFERENCE_PREFIX + subscription.getId() + "-"
+            + subscription.getNextBillingDate().format(DateTimeFormatter.BASIC_ISO_DATE) + "-" + attempt;
+    }
+
+    public RenewalReport processDueRenewals(LocalDate today) {
+        return processDueRenewals(today, workers);
+    }
+
+    /**
+     * Renew every subscription due by today, charging with up to workerCount concurrent
+     * gateway calls. Safe to run concurrently with, or after a crash of, another run.
+     */
+    public RenewalReport processDueRenewals(LocalDate today, int workerCount) {
+        long start = System.nanoTime();
+        String owner = UUID.randomUUID().toString();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "renewal-charge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int[] totals = new int[5]; // claimed, renewed, failed, errors, gateway calls
+        try {
+            while (true) {
+                ClaimResult claim = transaction.execute(status -> claim(today, owner));
+                if (claim.candidates() == 0) {
+                    break;
+                }
+                if (claim.claimed().isEmpty()) {
+                    continue; // another run took this chunk
+                }
+                totals[0] += claim.claimed().size();
+                try {
+                    int[] chunk = renewChunk(claim.claimed(), owner, today, pool);
+                    for (int i = 0; i < chunk.length; i++) {
+                        totals[i + 1] += chunk[i];
+                    }
+                } catch (RuntimeException e) {
+                    // Leases stay until they expire; pending payments are verified on the next run
+                    log.error("Renewal chunk of {} subscriptions failed", claim.claimed().size(), e);
+                    totals[3] += claim.claimed().size();
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        RenewalReport report = new RenewalReport(totals[0], totals[1], totals[2], totals[3], totals[4],
+            (System.nanoTime() - start) / 1_000_000);
+        log.info("Subscription renewals: {} claimed, {} renewed, {} failed, {} left for retry, {} gateway calls in {} ms",
+            report.claimed(), report.renewed(), report.failed(), report.errors(), report.gatewayCalls(), report.elapsedMs());
+        return report;
+    }
+
+    private ClaimResult claim(LocalDate today, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = subscriptionRepository.findRenewalCandidateIds(
+            today.plusDays(1), today, now, PageRequest.of(0, chunkSize));
+        if (candidates.isEmpty()) {
+            return new ClaimResult(0, List.of());
+        }
+        subscriptionRepository.claimForRenewal(candidates, owner, now.plus(leaseDuration), today.plusDays(1), today, now);
+        List<Long> claimed = subscriptionRepository.findByIdInAndRenewalLeaseOwner(candidates, owner).stream()
+            .map(ChurchSubscription::getId)
+            .toList();
+        return new ClaimResult(candidates.size(), claimed);
+    }
+
+    /**
+     * @return renewed, failed, errors and gateway calls for the chunk
+     */
+    private int[] renewChunk(List<Long> subscriptionIds, String owner, LocalDate today, ExecutorService pool) {
+        List<RenewalTask> tasks = transaction.execute(status -> prepare(subscriptionIds, owner));
+
+        Map<String, CompletableFuture<ChargeResult>> charges = new HashMap<>();
+        for (RenewalTask task : tasks) {
+            if (task.callsGateway()) {
+                charges.put(task.reference(), CompletableFuture.supplyAsync(() -> charge(task), pool));
+            }
+        }
+        Map<String, ChargeResult> results = charges.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().join()));
+
+        int[] counts = transaction.execute(status -> commit(tasks, results, owner, today));
+        counts[3] = charges.size();
+        return counts;
+    }
+
+    /**
+     * Plan each claimed subscription's renewal and record a PENDING payment for every new charge.
+     */
+    private List<RenewalTask> prepare(List<Long> subscriptionIds, String owner) {
+        List<ChurchSubscription> subscriptions = subscriptionRepository.findByIdInAndRenewalLeaseOwner(subscriptionIds, owner);
+        List<Long> churchIds = subscriptions.stream().map(ChurchSubscription::getChurchId).toList();
+
+        Map<Long, String> emails = churchRepository.findAllById(churchIds).stream()
+            .filter(church -> church.getEmail() != null)
+            .collect(Collectors.toMap(Church::getId, Church::getEmail));
+        Map<Long, List<ChurchStorageAddon>> addons = addonRepository.findByChurchIdInAndStatus(churchIds, "ACTIVE").stream()
+            .collect(Collectors.groupingBy(ChurchStorageAddon::getChurchId));
+        Map<String, Payment> existing = paymentRepository.findByPaystackReferenceIn(
+                subscriptions.stream().map(SubscriptionRenewalService::renewalReference).toList()).stream()
+            .collect(Collectors.toMap(Payment::getPaystackReference, Function.identity()));
+
+        List<RenewalTask> tasks = new ArrayList<>(subscriptions.size());
+        List<Payment> newPayments = new ArrayList<>();
+        for (ChurchSubscription subscription : subscriptions) {
+            Long id = subscription.getId();
+            Long churchId = subscription.getChurchId();
+            String reference = renewalReference(subscription);
+
+            if (subscription.hasPromotionalCredits()) {
+                tasks.add(new RenewalTask(id, churchId, Step.PROMO_CREDIT, reference, null, null, null, null));
+                continue;
+            }
+            if (subscription.getPlan() == null) {
+                tasks.add(new RenewalTask(id, churchId, Step.SKIP, reference, null, null, null, "No plan"));
+                continue;
+            }
+            String authCode = subscription.getPaystackAuthorizationCode();
+            if (authCode == null || authCode.isEmpty()) {
+                tasks.add(new RenewalTask(id, churchId, Step.PAST_DUE, reference, null, null, null, "No authorization code"));
+                continue;
+            }
+            String email = emails.get(churchId);
+            if (email == null || email.isEmpty()) {
+                tasks.add(new RenewalTask(id, churchId, Step.PAST_DUE, reference, null, null, null, "No email"));
+                continue;
+            }
+
+            Payment payment = existing.get(reference);
+            if (payment != null && payment.isSuccessful()) {
+                tasks.add(new RenewalTask(id, churchId, Step.ALREADY_PAID, reference, null, null, null, null));
+                continue;
+            }
+            if (payment != null) {
+                // A previous run recorded this charge but never saw its outcome
+                tasks.add(new RenewalTask(id, churchId, Step.VERIFY_THEN_CHARGE, reference, authCode, email,
+                    payment.getAmount(), null));
+                continue;
+            }
+
+            // Calculate total renewal charge (base + active addons, at their locked prices)
+            List<ChurchStorageAddon> activeAddons = addons.getOrDefault(churchId, List.of());
+            BigDecimal amount = activeAddons.stream()
+                .map(ChurchStorageAddon::getPurchasePrice)
+                .reduce(subscription.getPlan().getPrice(), BigDecimal::add);
+            String description = activeAddons.isEmpty()
+                ? "Monthly renewal - " + subscription.getPlan().getDisplayName()
+                : String.format("Monthly renewal - %s + %d addon(s)",
+                    subscription.getPlan().getDisplayName(), activeAddons.size());
+
+            newPayments.add(Payment.builder()
+                .churchId(churchId)
+                .plan(subscription.getPlan())
+                .amount(amount)
+                .currency("GHS")  // Ghana Cedis - Paystack does not support USD
+                .status("PENDING")
+                .paystackReference(reference)
+                .paymentType("SUBSCRIPTION")
+                .description(description)
+                .build());
+            tasks.add(new RenewalTask(id, churchId, Step.CHARGE, reference, authCode, email, amount, null));
+        }
+        paymentRepository.saveAll(newPayments);
+        return tasks;
+    }
+
+    /**
+     * Runs on a worker thread; only talks to the gateway.
+     */
+    private ChargeResult charge(RenewalTask task) {
+        ChargeOutcome outcome = paystackChargeService.chargeOnce(task.authorizationCode(), task.amount(),
+            task.email(), task.reference(), task.step() == Step.VERIFY_THEN_CHARGE);
+        String transactionId = outcome.status() == ChargeStatus.SUCCESS
+            ? outcome.data().path("reference").asText(task.reference())
+            : null;
+        return new ChargeResult(outcome.status(), transactionId, outcome.message());
+    }
+
+    /**
+     * Apply the chunk's outcomes and release its leases. Subscriptions whose lease was lost
+     * to another run are left to that run; their payment outcome is still recorded.
+     *
+     * @return renewed, failed, errors (gateway calls are filled in by the caller)
+     */
+    private int[] commit(List<RenewalTask> tasks, Map<String, ChargeResult> results, String owner, LocalDate today) {
+        List<Long> ids = tasks.stream().map(RenewalTask::subscriptionId).toList();
+        Map<Long, ChurchSubscription> subscriptions = subscriptionRepository.findByIdInAndRenewalLeaseOwner(ids, owner).stream()
+            .collect(Collectors.toMap(ChurchSubscription::getId, Function.identity()));
+        Map<Long, List<ChurchStorageAddon>> addons = addonRepository.findByChurchIdInAndStatus(
+                tasks.stream().map(RenewalTask::churchId).toList(), "ACTIVE").stream()
+            .collect(Collectors.groupingBy(ChurchStorageAddon::getChurchId));
+        Map<String, Payment> payments = results.isEmpty() ? Map.of()
+            : paymentRepository.findByPaystackReferenceIn(results.keySet()).stream()
+                .collect(Collectors.toMap(Payment::getPaystackReference, Function.identity()));
+
+        int renewed = 0;
+        int failed = 0;
+        int errors = 0;
+        for (RenewalTask task : tasks) {
+            ChargeResult result = results.get(task.reference());
+            Payment payment = payments.get(task.reference());
+            if (result != null && payment != null) {
+                if (result.status() == ChargeStatus.SUCCESS && !payment.isSuccessful()) {
+                    payment.markAsSuccessful();
+                    payment.setPaystackTransactionId(result.transactionId());
+                } else if (result.status() == ChargeStatus.DECLINED) {
+                    payment.markAsFailed(result.message());
+                }
+            }
+
+            ChurchSubscription subscription = subscriptions.get(task.subscriptionId());
+            if (subscription == null) {
+                log.warn("Renewal lease on subscription {} was lost; leaving it to the run that holds it", task.subscriptionId());
+                errors++;
+                continue;
+            }
+            List<ChurchStorageAddon> activeAddons = addons.getOrDefault(task.churchId(), List.of());
+            switch (task.step()) {
+                case PROMO_CREDIT -> {
+                    // FREE MONTH COVERS ADDONS TOO
+                    subscription.usePromotionalCredit();
+                    advancePeriod(subscription, activeAddons, today);
+                    log.info("Used promotional credit for church {}. {} free month(s) remaining. Free month includes {} addon(s)",
+                        task.churchId(), subscription.getFreeMonthsRemaining(), activeAddons.size());
+                    renewed++;
+                }
+                case ALREADY_PAID -> {
+                    advancePeriod(subscription, activeAddons, today);
+                    renewed++;
+                }
+                case PAST_DUE -> {
+                    log.error("{} for church {}", task.reason(), task.churchId());
+                    markPastDue(subscription);
+                    failed++;
+                }
+                case SKIP -> {
+                    log.error("Cannot renew subscription for church {}: {}", task.churchId(), task.reason());
+                    errors++;
+                }
+                case CHARGE, VERIFY_THEN_CHARGE -> {
+                    switch (result.status()) {
+                        case SUCCESS -> {
+                            advancePeriod(subscription, activeAddons, today);
+                            log.info("Subscription renewed successfully for church {} (base + {} addons)",
+                                task.churchId(), activeAddons.size());
+                            renewed++;
+                        }
+                        case DECLINED -> {
+                            markPastDue(subscription);
+                            log.warn("Renewal failed for church {}: {}", task.churchId(), result.message());
+                            failed++;
+                        }
+                        case UNKNOWN -> {
+                            log.error("Renewal charge for church {} has unknown outcome ({}); will verify {} on the next run",
+                                task.churchId(), result.message(), task.reference());
+                            errors++;
+                        }
+                    }
+                }
+            }
+            subscription.setRenewalAttemptDate(today);
+            subscription.setRenewalLeaseOwner(null);
+            subscription.setRenewalLeaseUntil(null);
+        }
+        return new int[] { renewed, failed, errors, 0 };
+    }
+
+    /**
+     * Start a new one-month period today and keep all active addons on the same dates.
+     */
+    private static void advancePeriod(ChurchSubscription subscription, List<ChurchStorageAddon> activeAddons, LocalDate today) {
+        LocalDate newPeriodEnd = today.plusMonths(1);
+        subscription.setNextBillingDate(newPeriodEnd);
+        subscription.setCurrentPeriodStart(today);
+        subscription.setCurrentPeriodEnd(newPeriodEnd);
+        subscription.setFailedPaymentAttempts(0);
+        for (ChurchStorageAddon addon : activeAddons) {
+            addon.updateRenewalDates(today, newPeriodEnd, newPeriodEnd);
+        }
+    }
+
+    private static void markPastDue(ChurchSubscription subscription) {
+        subscription.setStatus("PAST_DUE");
+        subscription.setFailedPaymentAttempts(subscription.getFailedPaymentAttempts() + 1);
+    }
+}
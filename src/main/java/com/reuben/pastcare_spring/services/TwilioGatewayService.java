@@ -1,5 +1,6 @@
 package com.reuben.pastcare_spring.services;
 
+import com.reuben.pastcare_spring.http.OutboundHttpClients;
 import com.reuben.pastcare_spring.models.SmsGateway;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -51,8 +52,8 @@ public class TwilioGatewayService implements SmsGatewayService {
         // Twilio supports 180+ countries
     );
 
-    public TwilioGatewayService(RestTemplate restTemplate, PhoneNumberService phoneNumberService) {
-        this.restTemplate = restTemplate;
+    public TwilioGatewayService(OutboundHttpClients outboundHttpClients, PhoneNumberService phoneNumberService) {
+        this.restTemplate = outboundHttpClients.restTemplate(OutboundHttpClients.TWILIO);
         this.phoneNumberService = phoneNumberService;
     }
 
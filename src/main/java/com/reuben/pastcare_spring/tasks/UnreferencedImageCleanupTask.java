@@ -0,0 +1,67 @@
+package com.reuben.pastcare_spring.tasks;
+
+import com.reuben.pastcare_spring.repositories.ChurchRepository;
+import com.reuben.pastcare_spring.repositories.EventImageRepository;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import com.reuben.pastcare_spring.repositories.FellowshipRepository;
+import com.reuben.pastcare_spring.repositories.HouseholdRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.services.ImageService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Removes uploaded images that no record references any more.
+ *
+ * Uploads are content-addressed and shared between records, so replacing or
+ * removing one record's image never deletes the file directly.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnreferencedImageCleanupTask {
+
+  private static final Logger logger = LoggerFactory.getLogger(UnreferencedImageCleanupTask.class);
+
+  /**
+   * Files touched more recently than this may belong to an upload whose record isn't saved yet.
+   */
+  static final Duration GRACE_PERIOD = Duration.ofDays(1);
+
+  private final ImageService imageService;
+  private final MemberRepository memberRepository;
+  private final FellowshipRepository fellowshipRepository;
+  private final ChurchRepository churchRepository;
+  private final EventRepository eventRepository;
+  private final EventImageRepository eventImageRepository;
+  private final HouseholdRepository householdRepository;
+
+  /**
+   * Cleanup unreferenced images daily at 3:30 AM
+   */
+  @Scheduled(cron = "0 30 3 * * *")
+  public void cleanupUnreferencedImages() {
+    logger.info("Starting scheduled cleanup of unreferenced images...");
+    int deleted = imageService.deleteUnreferencedImages(referencedImagePaths(), Instant.now().minus(GRACE_PERIOD));
+    logger.info("Completed cleanup of unreferenced images: {} deleted.", deleted);
+  }
+
+  Set<String> referencedImagePaths() {
+    Set<String> paths = new HashSet<>();
+    paths.addAll(memberRepository.findAllProfileImageUrls());
+    paths.addAll(fellowshipRepository.findAllImageUrls());
+    paths.addAll(churchRepository.findAllLogoUrls());
+    paths.addAll(eventRepository.findAllImageUrls());
+    paths.addAll(eventImageRepository.findAllImageUrls());
+    // Households show an image uploaded for a member or fellowship
+    paths.addAll(householdRepository.findAllImageUrls());
+    return paths;
+  }
+}
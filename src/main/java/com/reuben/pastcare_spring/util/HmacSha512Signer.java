@@ -0,0 +1,66 @@
+package com.reuben.pastcare_spring.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * HMAC-SHA512 signatures over request payloads with one fixed key, as Paystack signs its webhooks.
+ *
+ * <p>{@link Mac#getInstance} looks the algorithm up through the security providers on every
+ * call. Each thread instead keeps one initialized {@link Mac} for the key and reuses it;
+ * {@link Mac#doFinal} resets it for the next payload.
+ */
+public final class HmacSha512Signer {
+
+    private static final String ALGORITHM = "HmacSHA512";
+
+    private final byte[] key;
+    private final ThreadLocal<Mac> mac;
+
+    public HmacSha512Signer(String secret) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("HMAC secret must not be empty");
+        }
+        this.key = secret.getBytes(StandardCharsets.UTF_8);
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(keySpec);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA512 is not available", e);
+            }
+        });
+    }
+
+    /**
+     * Whether this signer was created for the given secret.
+     */
+    public boolean usesSecret(String secret) {
+        return secret != null && MessageDigest.isEqual(key, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lowercase hex signature of the payload.
+     */
+    public String sign(String payload) {
+        return HexFormat.of().formatHex(mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Whether the hex signature matches the payload, compared in constant time.
+     */
+    public boolean verify(String payload, String signature) {
+        if (payload == null || signature == null || signature.isEmpty()) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+            sign(payload).getBytes(StandardCharsets.UTF_8),
+            signature.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,184 @@
+package db.migration;
+
+import com.reuben.pastcare_spring.models.RecurrencePattern;
+import com.reuben.pastcare_spring.services.RecurrenceRule;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data half of V101: backfills events.occurrence_start for child events left by the
+ * old generate-instances, then adds the unique (parent_event_id, occurrence_start) index.
+ *
+ * <ul>
+ *   <li>A child's start date is not always its rule time: update-future-instances moved
+ *       child start dates, and the old generator stepped month by month (drifting after
+ *       short months). Each child is matched to the nearest occurrence of its series' rule.</li>
+ *   <li>Running generate-instances twice created duplicate children. Children that stand
+ *       for the same occurrence are merged into the lowest id: their registrations and
+ *       attendance sessions move onto it, and the duplicate rows are deleted.</li>
+ * </ul>
+ */
+public class V101_1__Backfill_event_occurrence_start extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V101_1__Backfill_event_occurrence_start.class);
+
+    private record Child(long id, long parentId, LocalDateTime start) {
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        Map<Long, RecurrenceRule> rules = loadRules(connection);
+
+        int backfilled = 0;
+        int merged = 0;
+        for (List<Child> series : loadChildren(connection).values()) {
+            RecurrenceRule rule = rules.get(series.get(0).parentId());
+            Map<LocalDateTime, Long> kept = new HashMap<>();
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE events SET occurrence_start = ? WHERE id = ?")) {
+                for (Child child : series) {
+                    // No usable rule (the series was turned into a single event): keep the start date
+                    LocalDateTime occurrence = rule != null ? rule.nearestStart(child.start()) : child.start();
+                    Long keptId = kept.putIfAbsent(occurrence, child.id());
+                    if (keptId != null) {
+                        merge(connection, child.id(), keptId);
+                        merged++;
+                        continue;
+                    }
+                    update.setTimestamp(1, Timestamp.valueOf(occurrence));
+                    update.setLong(2, child.id());
+                    update.addBatch();
+                    backfilled++;
+                }
+                update.executeBatch();
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE UNIQUE INDEX uk_events_parent_occurrence ON events (parent_event_id, occurrence_start)");
+        }
+        logger.info("Backfilled occurrence_start for {} child events, merged {} duplicates", backfilled, merged);
+    }
+
+    /**
+     * Rules of the series that have child events; the rule's end date is ignored so
+     * children moved past it still match an occurrence.
+     */
+    private Map<Long, RecurrenceRule> loadRules(Connection connection) throws SQLException {
+        Map<Long, RecurrenceRule> rules = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT id, start_date, end_date, recurrence_pattern FROM events " +
+                 "WHERE is_recurring = TRUE AND recurrence_pattern IS NOT NULL " +
+                 "AND id IN (SELECT parent_event_id FROM events WHERE parent_event_id IS NOT NULL)")) {
+            while (rs.next()) {
+                LocalDateTime start = rs.getTimestamp("start_date").toLocalDateTime();
+                Duration duration = Duration.between(start, rs.getTimestamp("end_date").toLocalDateTime());
+                rules.put(rs.getLong("id"), new RecurrenceRule(start, duration.isNegative() ? Duration.ZERO : duration,
+                    RecurrencePattern.valueOf(rs.getString("recurrence_pattern")), null));
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Child events per series, lowest id first (the row kept when children are merged).
+     */
+    private Map<Long, List<Child>> loadChildren(Connection connection) throws SQLException {
+        Map<Long, List<Child>> children = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT id, parent_event_id, start_date FROM events " +
+                 "WHERE parent_event_id IS NOT NULL ORDER BY parent_event_id, id")) {
+            while (rs.next()) {
+                Child child = new Child(rs.getLong("id"), rs.getLong("parent_event_id"),
+                    rs.getTimestamp("start_date").toLocalDateTime());
+                children.computeIfAbsent(child.parentId(), id -> new ArrayList<>()).add(child);
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Move a duplicate child's registrations and attendance sessions onto the kept child,
+     * then delete it (organizers, tags and images are copies of the series' and cascade).
+     * A member already registered on the kept child keeps that registration; a moved
+     * waitlist entry goes to the back of the kept child's waitlist.
+     */
+    private void merge(Connection connection, long duplicateId, long keptId) throws SQLException {
+        Set<String> registered = new HashSet<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT member_id, is_cancelled FROM event_registrations WHERE event_id = ? AND member_id IS NOT NULL")) {
+            select.setLong(1, keptId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    registered.add(rs.getLong("member_id") + ":" + rs.getBoolean("is_cancelled"));
+                }
+            }
+        }
+
+        int waitlistSequence;
+        try (PreparedStatement select = connection.prepareStatement("SELECT waitlist_sequence FROM events WHERE id = ?")) {
+            select.setLong(1, keptId);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                waitlistSequence = rs.getInt(1);
+            }
+        }
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, member_id, is_cancelled, is_on_waitlist FROM event_registrations WHERE event_id = ? ORDER BY id");
+             PreparedStatement move = connection.prepareStatement(
+                 "UPDATE event_registrations SET event_id = ?, waitlist_position = " +
+                 "CASE WHEN is_on_waitlist = TRUE THEN ? ELSE waitlist_position END WHERE id = ?")) {
+            select.setLong(1, duplicateId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    long memberId = rs.getLong("member_id");
+                    boolean guest = rs.wasNull();
+                    if (!guest && !registered.add(memberId + ":" + rs.getBoolean("is_cancelled"))) {
+                        continue;
+                    }
+                    boolean waitlisted = rs.getBoolean("is_on_waitlist");
+                    move.setLong(1, keptId);
+                    move.setInt(2, waitlisted ? ++waitlistSequence : 0);
+                    move.setLong(3, rs.getLong("id"));
+                    move.addBatch();
+                }
+            }
+            move.executeBatch();
+        }
+
+        update(connection, "UPDATE events SET waitlist_sequence = ? WHERE id = ?", waitlistSequence, keptId);
+        update(connection, "UPDATE attendance_session SET event_id = ? WHERE event_id = ?", keptId, duplicateId);
+        update(connection, "DELETE FROM events WHERE id = ?", duplicateId);
+    }
+
+    private static void update(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+}
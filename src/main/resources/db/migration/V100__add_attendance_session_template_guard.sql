@@ -0,0 +1,18 @@
+-- ============================================================================
+-- Migration V100: Recurring session generation guard
+-- Description: Generated sessions record the recurring template they came from,
+--              and (template, date) is unique, so overlapping generator runs
+--              can't insert the same session twice. Sessions created directly
+--              leave template_session_id NULL and are unaffected. Also indexes
+--              the per-church existing-session lookup the generator runs.
+-- Date: 2026-01-05
+-- ============================================================================
+
+ALTER TABLE attendance_session ADD COLUMN template_session_id BIGINT NULL
+    COMMENT 'Recurring template this session was generated from';
+
+CREATE UNIQUE INDEX uk_attendance_session_template_date
+    ON attendance_session (template_session_id, session_date);
+
+CREATE INDEX idx_attendance_session_church_name_date
+    ON attendance_session (church_id, session_name, session_date);
@@ -0,0 +1,36 @@
+-- ============================================================================
+-- Migration V101: Lazily expanded recurring events
+-- Description: A recurring event is now stored as its rule only. Occurrences
+--              are expanded on read; per-occurrence cancellations and
+--              reschedules live in event_occurrence_exceptions, and an
+--              occurrence becomes a child event row only when someone
+--              registers or checks in. events.occurrence_start records which
+--              occurrence a child row stands for and is unique per series, so
+--              concurrent registrations materialize it once. Existing child
+--              rows (from the old generate-instances) are merged and
+--              backfilled from their series' rule, and the unique index is
+--              added, by the Java migration V101_1.
+-- Date: 2026-01-12
+-- ============================================================================
+
+ALTER TABLE events ADD COLUMN occurrence_start DATETIME(6) NULL
+    COMMENT 'Rule start time of the series occurrence this child event materializes';
+
+CREATE INDEX idx_events_church_recurring
+    ON events (church_id, is_recurring, start_date);
+
+CREATE TABLE event_occurrence_exceptions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    church_id BIGINT NOT NULL,
+    event_id BIGINT NOT NULL COMMENT 'Recurring (series) event',
+    occurrence_start DATETIME(6) NOT NULL COMMENT 'Rule start time of the affected occurrence',
+    cancelled BOOLEAN NOT NULL DEFAULT FALSE,
+    start_date DATETIME(6) NULL COMMENT 'Rescheduled start, NULL to keep the rule time',
+    end_date DATETIME(6) NULL COMMENT 'Rescheduled end, NULL to keep the rule time',
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+
+    CONSTRAINT fk_occurrence_exception_church FOREIGN KEY (church_id) REFERENCES church(id) ON DELETE CASCADE,
+    CONSTRAINT fk_occurrence_exception_event FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE,
+    CONSTRAINT uk_occurrence_exception UNIQUE (event_id, occurrence_start)
+);
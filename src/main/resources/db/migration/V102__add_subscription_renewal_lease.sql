@@ -0,0 +1,24 @@
+-- ============================================================================
+-- Migration V102: Leased, idempotent subscription renewals
+-- Description: The renewal job now claims due subscriptions in chunks by
+--              taking a short lease (owner + expiry) on each row, so
+--              concurrent or restarted runs never work on the same
+--              subscription at once. renewal_attempt_date records the day a
+--              subscription was last attempted so a run does not retry a
+--              declined card in a loop. A renewal payment's reference is
+--              derived from the subscription, billing date and attempt
+--              number, so a rerun after a crash reuses it instead of
+--              charging again.
+-- Date: 2026-01-13
+-- ============================================================================
+
+ALTER TABLE church_subscriptions
+    ADD COLUMN renewal_lease_owner VARCHAR(64) NULL
+        COMMENT 'Renewal run currently holding this subscription',
+    ADD COLUMN renewal_lease_until DATETIME(6) NULL
+        COMMENT 'When the renewal lease expires and the row may be reclaimed',
+    ADD COLUMN renewal_attempt_date DATE NULL
+        COMMENT 'Day the last renewal attempt finished';
+
+CREATE INDEX idx_church_subscriptions_renewal_due
+    ON church_subscriptions(auto_renew, next_billing_date);
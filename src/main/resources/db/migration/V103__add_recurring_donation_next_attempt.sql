@@ -0,0 +1,57 @@
+-- ============================================================================
+-- Migration V103: Recurring donation charge scheduling
+-- Description: Each recurring donation now carries the time of its next
+--              charge attempt. A successful charge sets it to the next charge
+--              date; a failed one pushes it out with exponential backoff. The
+--              charge pass reads only rows whose next_attempt_at has passed,
+--              through idx_recurring_due. While a run is charging a donation,
+--              next_attempt_at is moved out by the claim lease and
+--              charge_claimed_by records the run, so a crashed run's rows
+--              become due again once the lease passes.
+--              The old daily charge job never ran for scheduled threads, so
+--              active donations can carry next_charge_date values in the past.
+--              They are moved forward to the first period date on or after
+--              today before being copied, so missed periods are not charged
+--              one after another.
+-- Date: 2026-01-14
+-- ============================================================================
+
+ALTER TABLE recurring_donations
+    ADD COLUMN next_attempt_at DATETIME(6) NULL
+        COMMENT 'When the next charge (or retry) is due; NULL when nothing is scheduled',
+    ADD COLUMN charge_claimed_by VARCHAR(64) NULL
+        COMMENT 'Charge run currently holding this donation';
+
+UPDATE recurring_donations
+SET next_charge_date = DATE_ADD(next_charge_date, INTERVAL CEIL(DATEDIFF(CURDATE(), next_charge_date) / 7) WEEK)
+WHERE status = 'ACTIVE' AND frequency = 'WEEKLY' AND next_charge_date < CURDATE();
+
+UPDATE recurring_donations
+SET next_charge_date = DATE_ADD(next_charge_date, INTERVAL 2 * CEIL(DATEDIFF(CURDATE(), next_charge_date) / 14) WEEK)
+WHERE status = 'ACTIVE' AND frequency = 'BIWEEKLY' AND next_charge_date < CURDATE();
+
+-- Whole periods elapsed, plus one more if that still lands before today
+UPDATE recurring_donations
+SET next_charge_date = DATE_ADD(next_charge_date, INTERVAL
+        TIMESTAMPDIFF(MONTH, next_charge_date, CURDATE())
+        + (DATE_ADD(next_charge_date, INTERVAL TIMESTAMPDIFF(MONTH, next_charge_date, CURDATE()) MONTH) < CURDATE())
+    MONTH)
+WHERE status = 'ACTIVE' AND frequency = 'MONTHLY' AND next_charge_date < CURDATE();
+
+UPDATE recurring_donations
+SET next_charge_date = DATE_ADD(next_charge_date, INTERVAL
+        TIMESTAMPDIFF(QUARTER, next_charge_date, CURDATE())
+        + (DATE_ADD(next_charge_date, INTERVAL TIMESTAMPDIFF(QUARTER, next_charge_date, CURDATE()) QUARTER) < CURDATE())
+    QUARTER)
+WHERE status = 'ACTIVE' AND frequency = 'QUARTERLY' AND next_charge_date < CURDATE();
+
+UPDATE recurring_donations
+SET next_charge_date = DATE_ADD(next_charge_date, INTERVAL
+        TIMESTAMPDIFF(YEAR, next_charge_date, CURDATE())
+        + (DATE_ADD(next_charge_date, INTERVAL TIMESTAMPDIFF(YEAR, next_charge_date, CURDATE()) YEAR) < CURDATE())
+    YEAR)
+WHERE status = 'ACTIVE' AND frequency = 'YEARLY' AND next_charge_date < CURDATE();
+
+UPDATE recurring_donations SET next_attempt_at = next_charge_date WHERE status = 'ACTIVE';
+
+CREATE INDEX idx_recurring_due ON recurring_donations(status, next_attempt_at);
@@ -0,0 +1,35 @@
+-- ============================================================================
+-- Migration V104: Paystack webhook inbox
+-- Description: Paystack webhooks are recorded here and acknowledged at once;
+--              a worker queue processes them afterwards. event_key (event
+--              type, Paystack transaction id and reference) is unique, so a
+--              redelivered webhook is not stored twice. Events of one
+--              reference are processed one at a time in the order they
+--              occurred: only the oldest pending event of a reference is
+--              picked up (idx_webhook_pending). While a worker holds an event,
+--              next_attempt_at is moved out by the claim lease and claimed_by
+--              records the worker, so a crashed worker's events come due
+--              again once the lease passes.
+-- Date: 2026-01-15
+-- ============================================================================
+
+CREATE TABLE paystack_webhook_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_key VARCHAR(191) NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    reference VARCHAR(191) NOT NULL COMMENT 'Paystack reference, or the event key for events without one',
+    occurred_at DATETIME(6) NOT NULL COMMENT 'paid_at / created_at from the payload, else received_at',
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT 'PENDING, PROCESSED, IGNORED, FAILED',
+    attempts INT NOT NULL DEFAULT 0,
+    outcome VARCHAR(500) NULL COMMENT 'Why the event was ignored, or the last processing error',
+    received_at DATETIME(6) NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    claimed_by VARCHAR(64) NULL,
+    processed_at DATETIME(6) NULL,
+
+    CONSTRAINT uk_webhook_event_key UNIQUE (event_key),
+    INDEX idx_webhook_pending (status, reference, occurred_at),
+    INDEX idx_webhook_reference (reference, event_type, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='Received Paystack webhooks, processed asynchronously';
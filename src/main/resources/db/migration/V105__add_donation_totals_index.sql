@@ -0,0 +1,11 @@
+-- ============================================================================
+-- Migration V105: Covering index for donation summaries and giving trends
+-- Description: Donation summaries and giving trends are computed with
+--              aggregate queries over a church's donations in a date range.
+--              This index holds every column they read, so they are answered
+--              from the index without touching the table rows.
+-- Date: 2026-01-16
+-- ============================================================================
+
+CREATE INDEX idx_donation_church_date_totals
+    ON donation(church_id, donation_date, donation_type, amount, member_id, is_anonymous);
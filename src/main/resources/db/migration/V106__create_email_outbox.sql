@@ -0,0 +1,36 @@
+-- ============================================================================
+-- Migration V106: Email outbox
+-- Description: Outgoing email is written here, in the transaction of the
+--              change that triggers it, and sent afterwards by a worker pool
+--              over pooled SMTP connections. A slow mail server therefore no
+--              longer holds up requests, and a message survives a failed send
+--              or a restart. While a worker holds a message, next_attempt_at is
+--              moved out by the claim lease and claimed_by records the worker,
+--              so a crashed worker's messages come due again once the lease
+--              passes. message_id is kept across retries.
+-- Date: 2026-01-17
+-- ============================================================================
+
+CREATE TABLE email_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    provider VARCHAR(64) NOT NULL COMMENT 'SMTP provider from app.email.smtp.providers, or the defaults',
+    message_id VARCHAR(191) NOT NULL COMMENT 'Message-ID header, without angle brackets',
+    from_address VARCHAR(320) NOT NULL,
+    to_address VARCHAR(320) NOT NULL,
+    subject VARCHAR(1000) NOT NULL,
+    text_body TEXT NULL,
+    html_body TEXT NULL,
+    attachment_name VARCHAR(255) NULL,
+    attachment LONGBLOB NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT 'PENDING, SENT, FAILED',
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500) NULL,
+    created_at DATETIME(6) NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    claimed_by VARCHAR(64) NULL,
+    sent_at DATETIME(6) NULL,
+
+    INDEX idx_email_outbox_ready (status, next_attempt_at),
+    INDEX idx_email_outbox_sent (status, sent_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='Outgoing email, sent asynchronously';
@@ -0,0 +1,22 @@
+-- ============================================================================
+-- Migration V107: Member risk snapshot marker
+-- Description: One row per church recording the day its member_risk snapshot
+--              was last computed for. A church with no members at risk has no
+--              member_risk rows, so care-need suggestions read this marker to
+--              decide whether the snapshot is missing or stale instead of
+--              recomputing on every request.
+-- Date: 2026-01-18
+-- ============================================================================
+
+CREATE TABLE member_risk_snapshot (
+    church_id BIGINT PRIMARY KEY,
+    computed_for DATE NOT NULL COMMENT 'Day the snapshot was computed for',
+    at_risk_count INT NOT NULL COMMENT 'Members with a non-zero score',
+    computed_at DATETIME NOT NULL,
+
+    CONSTRAINT fk_member_risk_snapshot_church FOREIGN KEY (church_id) REFERENCES church(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================================================
+-- END OF MIGRATION V107
+-- ============================================================================
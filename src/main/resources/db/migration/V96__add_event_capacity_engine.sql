@@ -0,0 +1,27 @@
+-- ============================================================================
+-- Migration V96: Atomic event capacity and waitlist sequence
+-- Description: Waitlist positions are now drawn from a per-event sequence
+--              instead of COUNT(*) + 1, so concurrent registrations never share
+--              a position and promotion no longer renumbers the waitlist.
+-- Date: 2026-01-02
+-- ============================================================================
+
+ALTER TABLE events
+ADD COLUMN waitlist_sequence INT NOT NULL DEFAULT 0
+COMMENT 'Last waitlist position handed out for this event';
+
+-- Continue numbering after existing waitlist entries
+UPDATE events e
+SET e.waitlist_sequence = (
+    SELECT COALESCE(MAX(r.waitlist_position), 0)
+    FROM event_registrations r
+    WHERE r.event_id = e.id
+);
+
+-- Waitlist head lookups (ORDER BY waitlist_position) for promotion
+CREATE INDEX idx_event_registrations_waitlist
+    ON event_registrations(event_id, is_on_waitlist, waitlist_position);
+
+-- ============================================================================
+-- END OF MIGRATION V96
+-- ============================================================================
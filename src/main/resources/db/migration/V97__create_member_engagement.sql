@@ -0,0 +1,42 @@
+-- ============================================================================
+-- Migration V97: Precomputed member engagement
+-- Description: One row per member with rolling attendance counters, last
+--              attended date, preferred check-in method and attendance streaks.
+--              Rows are refreshed on each check-in / attendance mark and the
+--              rolling windows are rolled forward nightly, so dashboard top-N and
+--              irregular-attender widgets read indexes instead of re-aggregating
+--              the whole attendance history.
+-- Date: 2026-01-03
+-- ============================================================================
+
+CREATE TABLE member_engagement (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    church_id BIGINT NOT NULL,
+    member_id BIGINT NOT NULL,
+    attended_30d INT NOT NULL DEFAULT 0 COMMENT 'Sessions attended (PRESENT) in the last 30 days',
+    attended_90d INT NOT NULL DEFAULT 0 COMMENT 'Sessions attended (PRESENT) in the last 90 days',
+    late_90d INT NOT NULL DEFAULT 0 COMMENT 'Late check-ins in the last 90 days',
+    total_attended INT NOT NULL DEFAULT 0 COMMENT 'Sessions attended (PRESENT) overall',
+    last_attended_date DATE NULL COMMENT 'Most recent session date attended',
+    preferred_check_in_method VARCHAR(30) NULL,
+    current_streak INT NOT NULL DEFAULT 0 COMMENT 'Consecutive most recent records marked PRESENT',
+    longest_streak INT NOT NULL DEFAULT 0,
+    windows_as_of DATE NOT NULL COMMENT 'Day the rolling 30/90 day counters were computed for',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_member_engagement_member UNIQUE (member_id),
+    CONSTRAINT fk_member_engagement_church FOREIGN KEY (church_id) REFERENCES church(id) ON DELETE CASCADE,
+    CONSTRAINT fk_member_engagement_member FOREIGN KEY (member_id) REFERENCES member(id) ON DELETE CASCADE,
+
+    -- Top active members
+    INDEX idx_member_engagement_top (church_id, attended_90d, last_attended_date),
+    -- Irregular attenders
+    INDEX idx_member_engagement_last_attended (church_id, last_attended_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Rows are backfilled by the nightly refreshMemberEngagement job on first run.
+
+-- ============================================================================
+-- END OF MIGRATION V97
+-- ============================================================================
@@ -0,0 +1,51 @@
+-- ============================================================================
+-- Migration V98: Platform metrics snapshots
+-- Description: Daily per-church and platform-wide metric rows written by the
+--              nightly snapshot job. SUPERADMIN trend charts, MRR growth and
+--              storage growth read these rows instead of recomputing history
+--              (previous MRR used to be faked as 95% of the current value).
+-- Date: 2026-01-04
+-- ============================================================================
+
+CREATE TABLE church_metrics_snapshot (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    snapshot_date DATE NOT NULL,
+    church_id BIGINT NOT NULL,
+    active BOOLEAN NOT NULL,
+    user_count INT NOT NULL DEFAULT 0,
+    member_count INT NOT NULL DEFAULT 0,
+    storage_mb DOUBLE NOT NULL DEFAULT 0 COMMENT 'Latest calculated total storage on the snapshot date',
+    subscription_status VARCHAR(50) NULL,
+    plan_name VARCHAR(100) NULL,
+    mrr DECIMAL(12, 2) NOT NULL DEFAULT 0 COMMENT 'Monthly recurring revenue normalised from the billing period',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_church_metrics_snapshot UNIQUE (church_id, snapshot_date),
+    CONSTRAINT fk_church_metrics_snapshot_church FOREIGN KEY (church_id) REFERENCES church(id) ON DELETE CASCADE,
+
+    INDEX idx_church_metrics_snapshot_date (snapshot_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE platform_metrics_snapshot (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    snapshot_date DATE NOT NULL,
+    total_churches INT NOT NULL DEFAULT 0,
+    active_churches INT NOT NULL DEFAULT 0,
+    total_users INT NOT NULL DEFAULT 0,
+    total_members INT NOT NULL DEFAULT 0,
+    total_storage_mb DOUBLE NOT NULL DEFAULT 0,
+    mrr DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    active_subscriptions INT NOT NULL DEFAULT 0,
+    past_due_subscriptions INT NOT NULL DEFAULT 0,
+    canceled_subscriptions INT NOT NULL DEFAULT 0,
+    suspended_subscriptions INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_platform_metrics_snapshot_date UNIQUE (snapshot_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- The first snapshot is written by the nightly snapshotPlatformMetrics job.
+
+-- ============================================================================
+-- END OF MIGRATION V98
+-- ============================================================================
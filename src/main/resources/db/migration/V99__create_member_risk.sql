@@ -0,0 +1,48 @@
+-- ============================================================================
+-- Migration V99: Member risk snapshot
+-- Description: Ranked pastoral-risk scores per member, recomputed per church
+--              nightly (after member engagement is rolled forward) and on demand.
+--              Scores combine absence streaks (member_engagement), open care
+--              needs, recent visits and communication logs gathered in one
+--              set-based pass. Care-need suggestions, dashboard at-risk widget
+--              and insights read from here. Only members with a non-zero score
+--              are stored.
+-- Date: 2026-01-04
+-- ============================================================================
+
+CREATE TABLE member_risk (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    church_id BIGINT NOT NULL,
+    member_id BIGINT NOT NULL,
+    risk_score INT NOT NULL COMMENT '0-100, higher is more at risk',
+    risk_level VARCHAR(20) NOT NULL COMMENT 'LOW, MEDIUM, HIGH',
+    risk_rank INT NOT NULL COMMENT '1 = highest score in the church',
+    reasons VARCHAR(255) NOT NULL COMMENT 'Comma-separated reason codes',
+    never_attended BOOLEAN NOT NULL DEFAULT FALSE,
+    weeks_absent INT NULL COMMENT 'Whole weeks since last attended; NULL if never attended',
+    last_attended_date DATE NULL,
+    has_open_care_need BOOLEAN NOT NULL DEFAULT FALSE,
+    last_visit_date DATE NULL,
+    last_contact_date DATETIME NULL,
+    computed_for DATE NOT NULL COMMENT 'Day the snapshot was computed for',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_member_risk_member UNIQUE (member_id),
+    CONSTRAINT fk_member_risk_church FOREIGN KEY (church_id) REFERENCES church(id) ON DELETE CASCADE,
+    CONSTRAINT fk_member_risk_member FOREIGN KEY (member_id) REFERENCES member(id) ON DELETE CASCADE,
+
+    -- Ranked lists (dashboard, suggestions)
+    INDEX idx_member_risk_rank (church_id, risk_rank),
+    -- Counts by level (insights)
+    INDEX idx_member_risk_level (church_id, risk_level)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Signal lookups used by the recompute pass
+CREATE INDEX idx_care_needs_member_status ON care_needs(member_id, status);
+CREATE INDEX idx_visits_member_date ON visits(member_id, visit_date);
+CREATE INDEX idx_communication_logs_member_date ON communication_logs(member_id, communication_date);
+
+-- ============================================================================
+-- END OF MIGRATION V99
+-- ============================================================================
@@ -0,0 +1,132 @@
+package com.reuben.pastcare_spring.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes against two embedded H2 databases, each holding a marker row naming itself.
+ */
+@DisplayName("ReadWriteRoutingDataSource Tests")
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("routing_primary_" + System.nanoTime(), "primary");
+        replica = h2("routing_replica_" + System.nanoTime(), "replica");
+
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT lag_seconds FROM marker", 5);
+        routing = new ReadWriteRoutingDataSource(primary, replica, lagMonitor);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to the replica")
+    void testReadOnlyUsesReplica() {
+        lagMonitor.check();
+
+        assertThat(readOnlyDatabase()).isEqualTo("replica");
+        assertThat(routing.getFallbackCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should send read-write transactions and non-transactional calls to the primary")
+    void testWritesUsePrimary() {
+        lagMonitor.check();
+
+        assertThat(readWriteDatabase()).isEqualTo("primary");
+        assertThat(currentDatabase()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should use the primary before the first lag check")
+    void testPrimaryUntilFirstCheck() {
+        assertThat(readOnlyDatabase()).isEqualTo("primary");
+        assertThat(routing.getFallbackCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary while the replica lags")
+    void testLaggingReplica() {
+        new JdbcTemplate(replica).update("UPDATE marker SET lag_seconds = 30");
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isAvailable()).isFalse();
+        assertThat(lagMonitor.getLagSeconds()).isEqualTo(30);
+        assertThat(readOnlyDatabase()).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("UPDATE marker SET lag_seconds = 0");
+        lagMonitor.check();
+
+        assertThat(readOnlyDatabase()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the lag check fails")
+    void testUnreachableReplica() {
+        new JdbcTemplate(replica).execute("DROP TABLE marker");
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isAvailable()).isFalse();
+        assertThat(readOnlyDatabase()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should honour the primary override inside read-only transactions")
+    void testForcePrimary() {
+        lagMonitor.check();
+
+        boolean previous = DataSourceRoutingContext.forcePrimary();
+        try {
+            assertThat(readOnlyDatabase()).isEqualTo("primary");
+        } finally {
+            DataSourceRoutingContext.restore(previous);
+        }
+        assertThat(DataSourceRoutingContext.isPrimaryForced()).isFalse();
+        assertThat(readOnlyDatabase()).isEqualTo("replica");
+    }
+
+    private String readOnlyDatabase() {
+        return readOnly.execute(status -> currentDatabase());
+    }
+
+    private String readWriteDatabase() {
+        return readWrite.execute(status -> currentDatabase());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static JdbcDataSource h2(String database, String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20), lag_seconds INT)");
+        jdbc.update("INSERT INTO marker VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
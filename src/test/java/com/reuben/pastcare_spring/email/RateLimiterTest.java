@@ -0,0 +1,57 @@
+package com.reuben.pastcare_spring.email;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RateLimiter")
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Should space permits evenly once the burst is used up")
+    void spacesPermits() {
+        RateLimiter limiter = new RateLimiter(4, clock::get);
+
+        // A fresh limiter has no burst banked: permits come every 250 ms
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isEqualTo(Duration.ofMillis(250).toNanos());
+        assertThat(limiter.reserve()).isEqualTo(Duration.ofMillis(500).toNanos());
+    }
+
+    @Test
+    @DisplayName("Should allow up to one second's worth of permits at once after an idle spell")
+    void burstsAfterIdle() {
+        RateLimiter limiter = new RateLimiter(4, clock::get);
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.reserve()).isZero();
+        }
+        assertThat(limiter.reserve()).isEqualTo(Duration.ofMillis(250).toNanos());
+    }
+
+    @Test
+    @DisplayName("Should not bank idle time beyond the burst")
+    void doesNotBankIdleTime() {
+        RateLimiter limiter = new RateLimiter(2, clock::get);
+        clock.addAndGet(Duration.ofHours(1).toNanos());
+
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isZero();
+        assertThat(limiter.reserve()).isEqualTo(Duration.ofMillis(500).toNanos());
+    }
+
+    @Test
+    @DisplayName("Should reject a rate that is not positive")
+    void rejectsNonPositiveRate() {
+        assertThatThrownBy(() -> new RateLimiter(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
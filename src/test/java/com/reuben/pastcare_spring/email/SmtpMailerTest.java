@@ -0,0 +1,217 @@
+package com.reuben.pastcare_spring.email;
+
+import com.reuben.pastcare_spring.testutil.FakeSmtpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The SMTP client and its connection pool against a local fake SMTP server.
+ */
+@DisplayName("SmtpMailer")
+class SmtpMailerTest {
+
+    private static final String PROVIDER = "stub";
+
+    private FakeSmtpServer smtp;
+    private SmtpProperties properties;
+    private SmtpMailer mailer;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        smtp = FakeSmtpServer.start();
+        properties = new SmtpProperties();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (mailer != null) {
+            mailer.close();
+        }
+        smtp.close();
+    }
+
+    @Test
+    @DisplayName("Should send a burst over a bounded set of reused connections")
+    void reusesConnections() throws Exception {
+        mailer = mailer(settings -> {
+            settings.setMaxConnections(4);
+            settings.setMaxMessagesPerConnection(1_000);
+        });
+        smtp.setLatency(Duration.ofMillis(2));
+
+        int failures = load(16, 50);
+
+        assertThat(failures).isZero();
+        assertThat(smtp.messages()).isEqualTo(800);
+        assertThat(smtp.connections()).isLessThanOrEqualTo(4);
+        assertThat(smtp.peakOpenConnections()).isLessThanOrEqualTo(4);
+        assertThat(mailer.openConnections(PROVIDER)).isEqualTo(smtp.connections());
+    }
+
+    @Test
+    @DisplayName("Should retire a connection after its message limit and authenticate each new one")
+    void retiresConnectionsAfterMessageLimit() {
+        mailer = mailer(settings -> {
+            settings.setMaxConnections(1);
+            settings.setMaxMessagesPerConnection(10);
+            settings.setUsername("mailer");
+            settings.setPassword("secret");
+        });
+
+        for (int i = 0; i < 25; i++) {
+            mailer.send(PROVIDER, message("member" + i + "@example.com"));
+        }
+
+        assertThat(smtp.messages()).isEqualTo(25);
+        assertThat(smtp.connections()).isEqualTo(3);
+        assertThat(smtp.authentications()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should hold a provider to its send rate")
+    void throttlesToRate() throws Exception {
+        mailer = mailer(settings -> {
+            settings.setMaxConnections(4);
+            settings.setRatePerSecond(50.0);
+        });
+
+        long start = System.nanoTime();
+        int failures = load(8, 25);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // 200 messages at 50/s with a one second burst: at least 3 s
+        assertThat(failures).isZero();
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(2_900);
+        assertThat(smtp.messages()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should reconnect when the server has dropped a pooled session")
+    void reconnectsAfterDroppedSession() {
+        mailer = mailer(settings -> settings.setMaxConnections(1));
+        smtp.dropSessionsAfter(3);
+
+        for (int i = 0; i < 10; i++) {
+            mailer.send(PROVIDER, message("member" + i + "@example.com"));
+        }
+
+        assertThat(smtp.messages()).isEqualTo(10);
+        assertThat(smtp.connections()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should report 5xx rejections as permanent and 4xx as temporary, keeping the connection")
+    void classifiesFailures() {
+        mailer = mailer(settings -> settings.setMaxConnections(1));
+        smtp.rejectRecipient("gone@example.com", 550);
+
+        assertThatThrownBy(() -> mailer.send(PROVIDER, message("gone@example.com")))
+            .isInstanceOfSatisfying(MailDeliveryException.class, e -> assertThat(e.isPermanent()).isTrue());
+
+        smtp.failNextTransactions(1, 451);
+        assertThatThrownBy(() -> mailer.send(PROVIDER, message("busy@example.com")))
+            .isInstanceOfSatisfying(MailDeliveryException.class, e -> assertThat(e.isPermanent()).isFalse());
+
+        mailer.send(PROVIDER, message("busy@example.com"));
+        assertThat(smtp.messages()).isEqualTo(1);
+        assertThat(smtp.connections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report an unreachable server as a temporary failure")
+    void unreachableServerIsTemporary() {
+        int port = smtp.port();
+        smtp.close();
+        mailer = mailer(settings -> settings.setPort(port));
+
+        assertThatThrownBy(() -> mailer.send(PROVIDER, message("member@example.com")))
+            .isInstanceOfSatisfying(MailDeliveryException.class, e -> assertThat(e.isPermanent()).isFalse());
+        assertThat(mailer.openConnections(PROVIDER)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should render encoded subjects, alternative bodies and attachments")
+    void rendersMime() {
+        mailer = mailer(settings -> { });
+        byte[] attachment = "id,name\n1,Ama\n".getBytes(StandardCharsets.UTF_8);
+
+        mailer.send(PROVIDER, new MailMessage("render-1@pastcare.test", "noreply@pastcare.test", "ama@example.com",
+            "Akwaaba – welcome\r\nBcc: injected@example.com", "Plain text", "<p>HTML</p>", "members.csv", attachment));
+
+        FakeSmtpServer.Received received = smtp.received().get(0);
+        String data = received.data();
+        assertThat(received.messageId()).isEqualTo("render-1@pastcare.test");
+        assertThat(received.subject()).startsWith("=?UTF-8?B?");
+        assertThat(data).doesNotContain("\r\nBcc:");
+        assertThat(data).contains("multipart/mixed", "multipart/alternative", "text/plain; charset=UTF-8",
+            "text/html; charset=UTF-8", "filename=\"members.csv\"");
+        assertThat(data).contains(Base64.getEncoder().encodeToString(attachment));
+        assertThat(data).contains(Base64.getEncoder().encodeToString("<p>HTML</p>".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should dot-stuff lines that start with a period")
+    void dotStuffs() {
+        byte[] stuffed = MimeMessageWriter.dataSection(".hidden\r\nline\r\n..two".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(new String(stuffed, StandardCharsets.US_ASCII)).isEqualTo("..hidden\r\nline\r\n...two\r\n.\r\n");
+    }
+
+    private SmtpMailer mailer(Consumer<SmtpProperties.Settings> customizer) {
+        SmtpProperties.Settings settings = new SmtpProperties.Settings();
+        settings.setHost(smtp.host());
+        settings.setPort(smtp.port());
+        settings.setSecurity(SmtpProperties.Security.NONE);
+        customizer.accept(settings);
+        properties.getProviders().put(PROVIDER, settings);
+        return new SmtpMailer(properties);
+    }
+
+    private MailMessage message(String to) {
+        return new MailMessage("test-" + sequence.incrementAndGet() + "@pastcare.test", "noreply@pastcare.test", to,
+            "Service reminder", "See you on Sunday", null, null, null);
+    }
+
+    private int load(int threads, int messagesPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger failures = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < messagesPerThread; i++) {
+                        try {
+                            mailer.send(PROVIDER, message("member" + thread + "-" + i + "@example.com"));
+                        } catch (MailDeliveryException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return failures.get();
+    }
+}
@@ -0,0 +1,275 @@
+package com.reuben.pastcare_spring.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Load tests of the outbound HTTP layer against a local stub server.
+ */
+@DisplayName("OutboundHttpClients")
+@Slf4j
+class OutboundHttpClientsTest {
+
+    private static final String PROVIDER = "stub";
+
+    private StubServer stub;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundHttpProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new StubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new OutboundHttpProperties();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should serve a burst over a bounded set of reused connections")
+    void reusesConnectionsUnderLoad() throws Exception {
+        OutboundHttpClients clients = clients(settings -> {
+            settings.setMaxConcurrent(32);
+            settings.setQueueTimeout(Duration.ofSeconds(10));
+        });
+        RestTemplate plain = new RestTemplate();
+        RestTemplate pooled = clients.restTemplate(PROVIDER);
+        stub.latency = Duration.ofMillis(5);
+        load(plain, 8, 50);
+        load(pooled, 8, 50);
+
+        stub.resetConnections();
+        LoadResult unpooled = load(plain, 64, 50);
+        int unpooledConnections = stub.connections();
+        stub.resetConnections();
+        LoadResult result = load(pooled, 64, 50);
+        int pooledConnections = stub.connections();
+
+        log.info("3200 requests from 64 threads: plain RestTemplate {} req/s (p99 {} ms) over {} connections, "
+                + "pooled {} req/s (p99 {} ms) over {} connections",
+            Math.round(unpooled.requestsPerSecond()), unpooled.percentileMs(99), unpooledConnections,
+            Math.round(result.requestsPerSecond()), result.percentileMs(99), pooledConnections);
+
+        assertThat(result.failures()).isZero();
+        assertThat(pooledConnections).isLessThanOrEqualTo(32);
+        assertThat(unpooledConnections).isGreaterThan(pooledConnections);
+        assertThat(meterRegistry.get("outbound.http.requests").tags("provider", PROVIDER, "outcome", "success").timer().count())
+            .isEqualTo(3600);
+    }
+
+    @Test
+    @DisplayName("Should cap concurrent calls to a provider")
+    void capsConcurrency() throws Exception {
+        OutboundHttpClients clients = clients(settings -> {
+            settings.setMaxConcurrent(4);
+            settings.setQueueTimeout(Duration.ofSeconds(10));
+        });
+        stub.latency = Duration.ofMillis(20);
+
+        LoadResult result = load(clients.restTemplate(PROVIDER), 20, 5);
+
+        assertThat(result.failures()).isZero();
+        assertThat(stub.peakConcurrency.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should reject calls that wait longer than the queue timeout for a slot")
+    void rejectsWhenSaturated() throws Exception {
+        OutboundHttpClients clients = clients(settings -> {
+            settings.setMaxConcurrent(1);
+            settings.setQueueTimeout(Duration.ofMillis(20));
+        });
+        stub.latency = Duration.ofMillis(300);
+        RestTemplate restTemplate = clients.restTemplate(PROVIDER);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(() -> restTemplate.getForObject(stub.url(), String.class));
+            Thread.sleep(50);
+            assertThatThrownBy(() -> restTemplate.getForObject(stub.url(), String.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasCauseInstanceOf(OutboundCallRejectedException.class);
+            assertThat(first.get()).isEqualTo("ok");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(meterRegistry.get("outbound.http.rejected").tags("provider", PROVIDER, "reason", "saturated").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should bound tail latency and stop calling a provider that has slowed down")
+    void boundsTailLatencyWhenUpstreamSlows() throws Exception {
+        OutboundHttpClients clients = clients(settings -> {
+            settings.setReadTimeout(Duration.ofMillis(200));
+            settings.setSlidingWindowSize(10);
+            settings.setMinimumCalls(5);
+            settings.setOpenDuration(Duration.ofMinutes(1));
+        });
+        stub.latency = Duration.ofSeconds(3);
+
+        LoadResult result = load(clients.restTemplate(PROVIDER), 8, 10);
+
+        log.info("80 calls to a 3 s upstream with a 200 ms read timeout: p50 {} ms, p99 {} ms, max {} ms, {} reached the server",
+            result.percentileMs(50), result.percentileMs(99), result.maxMs(), stub.requests.get());
+
+        assertThat(result.failures()).isEqualTo(80);
+        assertThat(result.maxMs()).isLessThan(1500);
+        assertThat(result.percentileMs(50)).isLessThan(100);
+        assertThat(clients.circuitState(PROVIDER)).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(stub.requests.get()).isLessThan(20);
+    }
+
+    private OutboundHttpClients clients(Consumer<OutboundHttpProperties.Settings> customizer) {
+        OutboundHttpProperties.Settings settings = new OutboundHttpProperties.Settings();
+        customizer.accept(settings);
+        properties.getProviders().put(PROVIDER, settings);
+        return new OutboundHttpClients(properties, meterRegistry);
+    }
+
+    private record LoadResult(long elapsedNanos, List<Long> latenciesNanos, int failures) {
+
+        double requestsPerSecond() {
+            return latenciesNanos.size() / (elapsedNanos / 1e9);
+        }
+
+        long percentileMs(int percentile) {
+            List<Long> sorted = new ArrayList<>(latenciesNanos);
+            Collections.sort(sorted);
+            int index = Math.min(sorted.size() - 1, (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+            return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, index)));
+        }
+
+        long maxMs() {
+            return TimeUnit.NANOSECONDS.toMillis(Collections.max(latenciesNanos));
+        }
+    }
+
+    private LoadResult load(RestTemplate restTemplate, int threads, int requestsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        long callStart = System.nanoTime();
+                        try {
+                            restTemplate.getForObject(stub.url(), String.class);
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - callStart);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new LoadResult(System.nanoTime() - start, latencies, failures.get());
+    }
+
+    /**
+     * Answers every request with "ok" after the configured latency, counting requests,
+     * concurrent requests and the client connections (remote ports) they arrived on.
+     */
+    private static class StubServer implements AutoCloseable {
+
+        static {
+            // Without it the stub's small writes wait on delayed ACKs (~40 ms per request)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final Set<Integer> remotePorts = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakConcurrency = new AtomicInteger();
+        private volatile Duration latency = Duration.ZERO;
+
+        StubServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+            server.setExecutor(executor);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/ping";
+        }
+
+        int connections() {
+            return remotePorts.size();
+        }
+
+        void resetConnections() {
+            remotePorts.clear();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            remotePorts.add(exchange.getRemoteAddress().getPort());
+            peakConcurrency.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                if (!latency.isZero()) {
+                    Thread.sleep(latency.toMillis());
+                }
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.reuben.pastcare_spring.integration.attendance;
+
+import com.reuben.pastcare_spring.dtos.AttendanceSummaryResponse;
+import com.reuben.pastcare_spring.enums.AttendanceStatus;
+import com.reuben.pastcare_spring.enums.CheckInMethod;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.Attendance;
+import com.reuben.pastcare_spring.models.AttendanceSession;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.repositories.AttendanceRepository;
+import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.services.AttendanceAnalyticsService;
+import com.reuben.pastcare_spring.testutil.MaxSqlStatements;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Compares the single-scan attendance summary against the per-metric queries it replaced.
+ *
+ * Seeds a year of weekly sessions, checks both produce the same numbers, then
+ * times repeated runs of each and prints the result. The statement budget test
+ * guards against the summary growing back into per-metric queries.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:attendance")
+@DisplayName("Attendance Analytics Benchmark Integration Tests")
+@Slf4j
+class AttendanceAnalyticsBenchmarkIntegrationTest extends BaseIntegrationTest {
+
+    private static final int MEMBERS = 60;
+    private static final int WEEKS = 52;
+    private static final int ITERATIONS = 20;
+    private static final LocalDate FIRST_SUNDAY = LocalDate.of(2024, 1, 7);
+
+    @Autowired
+    private AttendanceAnalyticsService analyticsService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceSessionRepository sessionRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Long churchId;
+
+    @BeforeEach
+    void setUp() {
+        churchId = createTestChurch("Attendance Benchmark Church " + System.nanoTime());
+        Church church = churchRepository.findById(churchId).orElseThrow();
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member();
+            member.setFirstName("Member" + i);
+            member.setLastName("Bench");
+            member.setPhoneNumber("+23323" + String.format("%07d", churchId * 100 + i));
+            member.setSex(i % 2 == 0 ? "Male" : "Female");
+            member.setChurch(church);
+            member.setIsVerified(true);
+            member.setStatus(MemberStatus.MEMBER);
+            members.add(member);
+        }
+        members = memberRepository.saveAll(members);
+
+        CheckInMethod[] methods = CheckInMethod.values();
+        List<Attendance> records = new ArrayList<>();
+        for (int week = 0; week < WEEKS; week++) {
+            AttendanceSession session = new AttendanceSession();
+            session.setChurch(church);
+            session.setSessionName("Sunday Service " + week);
+            session.setSessionDate(FIRST_SUNDAY.plusWeeks(week));
+            session.setIsCompleted(true);
+            session = sessionRepository.save(session);
+
+            for (int m = 0; m < MEMBERS; m++) {
+                int seed = week * 31 + m * 7;
+                Attendance attendance = new Attendance();
+                attendance.setMember(members.get(m));
+                attendance.setAttendanceSession(session);
+                attendance.setStatus(seed % 5 == 0 ? AttendanceStatus.ABSENT
+                    : seed % 11 == 0 ? AttendanceStatus.EXCUSED : AttendanceStatus.PRESENT);
+                attendance.setCheckInMethod(methods[seed % methods.length]);
+                boolean late = attendance.getStatus() == AttendanceStatus.PRESENT && seed % 4 == 0;
+                attendance.setIsLate(late);
+                attendance.setMinutesLate(late ? 5 + seed % 25 : null);
+                records.add(attendance);
+            }
+        }
+        attendanceRepository.saveAll(records);
+    }
+
+    @Test
+    @DisplayName("Single-scan summary should match the per-metric queries and be faster")
+    void summaryMatchesLegacyQueries() {
+        LocalDate startDate = FIRST_SUNDAY.plusWeeks(26);
+        LocalDate endDate = FIRST_SUNDAY.plusWeeks(WEEKS);
+
+        LegacySummary legacy = legacySummary(startDate, endDate);
+        AttendanceSummaryResponse summary = analyticsService.getAttendanceSummary(churchId, startDate, endDate);
+
+        assertThat(summary.totalAttendanceRecords()).isEqualTo(legacy.totalRecords);
+        assertThat(summary.presentCount()).isEqualTo(legacy.presentCount);
+        assertThat(summary.absentCount()).isEqualTo(legacy.absentCount);
+        assertThat(summary.excusedCount()).isEqualTo(legacy.excusedCount);
+        assertThat(summary.uniqueAttendees()).isEqualTo(legacy.uniqueAttendees);
+        assertThat(summary.memberCountChange()).isEqualTo(legacy.memberCountChange);
+        assertThat(summary.overallAttendanceRate()).isCloseTo(legacy.attendanceRate, within(0.0001));
+        assertThat(summary.attendanceRateChange()).isCloseTo(legacy.rateChange, within(0.0001));
+        assertThat(summary.lateCheckIns()).isEqualTo(legacy.lateCheckIns);
+        assertThat(summary.qrCodeCheckIns()).isEqualTo(legacy.qrCodeCheckIns);
+
+        // Warm up both paths, then time them
+        for (int i = 0; i < 3; i++) {
+            legacySummary(startDate, endDate);
+            analyticsService.getAttendanceSummary(churchId, startDate, endDate);
+        }
+        long legacyNanos = time(() -> legacySummary(startDate, endDate));
+        long engineNanos = time(() -> analyticsService.getAttendanceSummary(churchId, startDate, endDate));
+
+        log.info("Attendance summary over {} records x {} runs: legacy {} us/run, single-scan {} us/run",
+            MEMBERS * WEEKS, ITERATIONS, legacyNanos / 1000 / ITERATIONS, engineNanos / 1000 / ITERATIONS);
+    }
+
+    @Test
+    @MaxSqlStatements(8)
+    @DisplayName("Summary should issue a fixed number of statements regardless of data volume")
+    void summaryStaysWithinSqlBudget() {
+        AttendanceSummaryResponse summary = analyticsService.getAttendanceSummary(
+            churchId, FIRST_SUNDAY, FIRST_SUNDAY.plusWeeks(WEEKS));
+
+        assertThat(summary.totalAttendanceRecords()).isPositive();
+    }
+
+    private long time(Runnable run) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            run.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * The attendance-table queries getAttendanceSummary used to issue, one per metric.
+     */
+    private LegacySummary legacySummary(LocalDate startDate, LocalDate endDate) {
+        LegacySummary legacy = new LegacySummary();
+        legacy.uniqueAttendees = attendanceRepository.countUniqueMembersAttended(churchId, startDate, endDate);
+        legacy.totalRecords = attendanceRepository.countByChurchAndDateRange(churchId, startDate, endDate);
+        legacy.presentCount = attendanceRepository.countByChurchDateRangeAndStatus(
+            churchId, startDate, endDate, AttendanceStatus.PRESENT);
+        legacy.absentCount = attendanceRepository.countByChurchDateRangeAndStatus(
+            churchId, startDate, endDate, AttendanceStatus.ABSENT);
+        legacy.excusedCount = attendanceRepository.countByChurchDateRangeAndStatus(
+            churchId, startDate, endDate, AttendanceStatus.EXCUSED);
+        legacy.attendanceRate = legacy.totalRecords > 0 ? (legacy.presentCount.doubleValue() / legacy.totalRecords) * 100 : 0.0;
+
+        long daysDiff = ChronoUnit.DAYS.between(startDate, endDate);
+        LocalDate prevStartDate = startDate.minusDays(daysDiff);
+        LocalDate prevEndDate = startDate.minusDays(1);
+        Long prevTotal = attendanceRepository.countByChurchAndDateRange(churchId, prevStartDate, prevEndDate);
+        Long prevPresent = attendanceRepository.countByChurchDateRangeAndStatus(
+            churchId, prevStartDate, prevEndDate, AttendanceStatus.PRESENT);
+        double prevRate = prevTotal > 0 ? (prevPresent.doubleValue() / prevTotal) * 100 : 0.0;
+        legacy.rateChange = legacy.attendanceRate - prevRate;
+        legacy.memberCountChange = legacy.uniqueAttendees
+            - attendanceRepository.countUniqueMembersAttended(churchId, prevStartDate, prevEndDate);
+
+        legacy.qrCodeCheckIns = attendanceRepository.countByCheckInMethod(churchId, startDate, endDate).stream()
+            .filter(row -> row[0] == CheckInMethod.QR_CODE)
+            .mapToLong(row -> ((Number) row[1]).longValue())
+            .sum();
+        Object[] late = attendanceRepository.getLateArrivalStats(churchId, startDate, endDate).get(0);
+        legacy.lateCheckIns = late[0] != null ? ((Number) late[0]).longValue() : 0L;
+        return legacy;
+    }
+
+    private static class LegacySummary {
+        Long totalRecords;
+        Long presentCount;
+        Long absentCount;
+        Long excusedCount;
+        Long uniqueAttendees;
+        Long memberCountChange;
+        Long qrCodeCheckIns;
+        Long lateCheckIns;
+        double attendanceRate;
+        double rateChange;
+    }
+}
@@ -0,0 +1,137 @@
+package com.reuben.pastcare_spring.integration.attendance;
+
+import com.reuben.pastcare_spring.dtos.AttendanceRequest;
+import com.reuben.pastcare_spring.dtos.BulkAttendanceRequest;
+import com.reuben.pastcare_spring.enums.AttendanceStatus;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.metrics.SqlStatementCounter;
+import com.reuben.pastcare_spring.models.AttendanceSession;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberEngagement;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
+import com.reuben.pastcare_spring.repositories.MemberEngagementRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.services.AttendanceService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Engagement rows refreshed from the attendance write path once the write commits.
+ *
+ * Not transactional: the refresh runs after the service's own transaction commits.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:attendance")
+@DisplayName("Member Engagement Refresh Integration Tests")
+@Slf4j
+class MemberEngagementRefreshIntegrationTest extends BaseIntegrationTest {
+
+    private static final int MEMBERS = 300;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private AttendanceSessionRepository sessionRepository;
+
+    @Autowired
+    private MemberEngagementRepository engagementRepository;
+
+    private Long churchId;
+    private Church church;
+    private List<Long> memberIds;
+
+    @BeforeEach
+    void setUp() {
+        churchId = createTestChurch("Engagement Refresh Church " + System.nanoTime());
+        church = churchRepository.findById(churchId).orElseThrow();
+
+        List<Member> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member();
+            member.setFirstName("Member" + i);
+            member.setLastName("Engagement");
+            member.setPhoneNumber("+23329" + String.format("%07d", churchId * 1000 + i));
+            member.setSex(i % 2 == 0 ? "Male" : "Female");
+            member.setChurch(church);
+            member.setIsVerified(true);
+            member.setStatus(MemberStatus.MEMBER);
+            members.add(member);
+        }
+        memberIds = memberRepository.saveAll(members).stream().map(Member::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Bulk marking should refresh every member's engagement with a fixed number of statements")
+    void bulkMarkRefreshesEngagement() {
+        LocalDate lastWeek = LocalDate.now().minusDays(9);
+        LocalDate sunday = LocalDate.now().minusDays(2);
+        Long firstSession = createSession("Sunday Service", lastWeek);
+        Long secondSession = createSession("Sunday Service", sunday);
+
+        attendanceService.markBulkAttendance(bulkRequest(firstSession, i -> AttendanceStatus.PRESENT));
+
+        SqlStatementCounter.reset();
+        attendanceService.markBulkAttendance(bulkRequest(secondSession,
+            i -> i % 2 == 0 ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT));
+        long statements = SqlStatementCounter.get();
+        log.info("Marked {} members and refreshed their engagement in {} statements", MEMBERS, statements);
+
+        Map<Long, MemberEngagement> rows = engagementRepository.findByMemberIdIn(memberIds).stream()
+            .collect(Collectors.toMap(e -> e.getMember().getId(), Function.identity()));
+        assertThat(rows).hasSize(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            MemberEngagement engagement = rows.get(memberIds.get(i));
+            if (i % 2 == 0) {
+                assertThat(engagement.getTotalAttended()).isEqualTo(2);
+                assertThat(engagement.getAttendedLast30Days()).isEqualTo(2);
+                assertThat(engagement.getLastAttendedDate()).isEqualTo(sunday);
+                assertThat(engagement.getCurrentStreak()).isEqualTo(2);
+            } else {
+                assertThat(engagement.getTotalAttended()).isEqualTo(1);
+                assertThat(engagement.getLastAttendedDate()).isEqualTo(lastWeek);
+                assertThat(engagement.getCurrentStreak()).isZero();
+                assertThat(engagement.getLongestStreak()).isEqualTo(1);
+            }
+        }
+        // Per-member refreshes took several statements for each member
+        assertThat(statements).isLessThan(MEMBERS / 5);
+    }
+
+    private Long createSession(String name, LocalDate date) {
+        AttendanceSession session = new AttendanceSession();
+        session.setChurch(church);
+        session.setSessionName(name);
+        session.setSessionDate(date);
+        session.setIsCompleted(true);
+        return sessionRepository.save(session).getId();
+    }
+
+    private BulkAttendanceRequest bulkRequest(Long sessionId, Function<Integer, AttendanceStatus> status) {
+        List<AttendanceRequest> entries = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            entries.add(new AttendanceRequest(memberIds.get(i), sessionId, status.apply(i), null));
+        }
+        return new BulkAttendanceRequest(sessionId, entries);
+    }
+}
@@ -0,0 +1,181 @@
+package com.reuben.pastcare_spring.integration.attendance;
+
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.metrics.SqlStatementCounter;
+import com.reuben.pastcare_spring.models.AttendanceSession;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
+import com.reuben.pastcare_spring.services.RecurringSessionService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the planned, set-based session generator against the per-date path it replaced
+ * (one exists query and one save per template date).
+ *
+ * Two identical groups of churches are seeded; the legacy path runs on one, the generator
+ * on the other, and both must end with the same sessions. Statement counts for both are
+ * printed and compared.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:attendance")
+@DisplayName("Recurring Session Generation Integration Tests")
+@Slf4j
+class RecurringSessionGenerationIntegrationTest extends BaseIntegrationTest {
+
+    private static final int CHURCHES = 10;
+    private static final LocalDate START = LocalDate.of(2026, 3, 1); // a Sunday
+    private static final LocalDate END = START.plusDays(7);
+
+    @Autowired
+    private RecurringSessionService recurringSessionService;
+
+    @Autowired
+    private AttendanceSessionRepository sessionRepository;
+
+    private record SessionKey(String name, LocalDate date, LocalTime time) {
+    }
+
+    @Test
+    @DisplayName("Generator should produce the same sessions as the per-date path with far fewer statements")
+    void generatorMatchesLegacyPath() {
+        List<Church> legacyChurches = new ArrayList<>();
+        List<Church> engineChurches = new ArrayList<>();
+        List<AttendanceSession> legacyTemplates = new ArrayList<>();
+        List<AttendanceSession> engineTemplates = new ArrayList<>();
+        for (int i = 0; i < CHURCHES; i++) {
+            Church legacy = createChurch("Legacy Recurring " + i);
+            Church engine = createChurch("Engine Recurring " + i);
+            legacyChurches.add(legacy);
+            engineChurches.add(engine);
+            legacyTemplates.addAll(seedChurch(legacy));
+            engineTemplates.addAll(seedChurch(engine));
+        }
+
+        SqlStatementCounter.reset();
+        int legacyGenerated = legacyGenerate(legacyTemplates);
+        long legacyStatements = SqlStatementCounter.get();
+
+        SqlStatementCounter.reset();
+        RecurringSessionService.GenerationReport report = recurringSessionService.generate(engineTemplates, START, END);
+        long engineStatements = SqlStatementCounter.get();
+
+        log.info("Generated {} sessions for {} churches: legacy {} statements, generator {} statements ({} ms)",
+            report.generated(), CHURCHES, legacyStatements, engineStatements, report.elapsedMs());
+
+        assertThat(report.generated()).isEqualTo(legacyGenerated);
+        assertThat(report.existing()).isEqualTo(CHURCHES); // the pre-existing Sunday session per church
+        assertThat(report.failed()).isZero();
+        for (int i = 0; i < CHURCHES; i++) {
+            assertThat(sessionKeys(engineChurches.get(i))).isEqualTo(sessionKeys(legacyChurches.get(i)));
+        }
+        assertThat(engineStatements).isLessThan(legacyStatements / 3);
+    }
+
+    @Test
+    @DisplayName("Re-running the generator should insert nothing")
+    void generatorIsIdempotent() {
+        Church church = createChurch("Idempotent Recurring");
+        List<AttendanceSession> templates = seedChurch(church);
+
+        RecurringSessionService.GenerationReport first = recurringSessionService.generate(templates, START, END);
+        RecurringSessionService.GenerationReport second = recurringSessionService.generate(templates, START, END);
+
+        assertThat(first.generated()).isPositive();
+        assertThat(second.generated()).isZero();
+        assertThat(second.existing()).isEqualTo(second.planned());
+    }
+
+    @Test
+    @DisplayName("Unique (template, date) guard should reject a session generated concurrently")
+    void guardRejectsConcurrentDuplicate() {
+        Church church = createChurch("Guarded Recurring");
+        AttendanceSession template = saveTemplate(church, "Evening Prayer", "DAILY");
+
+        // Another run already generated today's session (and it was renamed since)
+        AttendanceSession concurrent = newSession(church, "Renamed Prayer", START);
+        concurrent.setTemplateSessionId(template.getId());
+        sessionRepository.save(concurrent);
+
+        RecurringSessionService.GenerationReport report =
+            recurringSessionService.generate(List.of(template), START, END);
+
+        assertThat(report.planned()).isEqualTo(8);
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(report.generated()).isEqualTo(7);
+    }
+
+    /**
+     * The path generateSessionsFromTemplate used to take: an exists query and a save per date.
+     */
+    private int legacyGenerate(List<AttendanceSession> templates) {
+        int generated = 0;
+        for (AttendanceSession template : templates) {
+            for (LocalDate date : RecurringSessionService.calculateRecurrenceDates(
+                template.getRecurrencePattern(), START, END, template.getSessionDate())) {
+                boolean exists = sessionRepository.existsByChurch_IdAndSessionDateAndSessionNameAndIsRecurringFalse(
+                    template.getChurch().getId(), date, template.getSessionName());
+                if (!exists) {
+                    AttendanceSession session = newSession(template.getChurch(), template.getSessionName(), date);
+                    session.setSessionTime(template.getSessionTime());
+                    sessionRepository.save(session);
+                    generated++;
+                }
+            }
+        }
+        return generated;
+    }
+
+    private List<AttendanceSession> seedChurch(Church church) {
+        List<AttendanceSession> templates = List.of(
+            saveTemplate(church, "Sunday Service", "WEEKLY:SUNDAY"),
+            saveTemplate(church, "Morning Prayer", "DAILY"),
+            saveTemplate(church, "Midweek Service", "CUSTOM:WEDNESDAY,FRIDAY"));
+        // Created by hand before the job ran
+        sessionRepository.save(newSession(church, "Sunday Service", START));
+        return templates;
+    }
+
+    private AttendanceSession saveTemplate(Church church, String name, String pattern) {
+        AttendanceSession template = newSession(church, name, START.minusWeeks(1));
+        template.setSessionTime(LocalTime.of(9, 0));
+        template.setIsRecurring(true);
+        template.setRecurrencePattern(pattern);
+        return sessionRepository.save(template);
+    }
+
+    private AttendanceSession newSession(Church church, String name, LocalDate date) {
+        AttendanceSession session = new AttendanceSession();
+        session.setChurch(church);
+        session.setSessionName(name);
+        session.setSessionDate(date);
+        session.setIsRecurring(false);
+        session.setIsCompleted(false);
+        return session;
+    }
+
+    private Set<SessionKey> sessionKeys(Church church) {
+        return sessionRepository.findByChurch_Id(church.getId()).stream()
+            .filter(s -> !Boolean.TRUE.equals(s.getIsRecurring()))
+            .map(s -> new SessionKey(s.getSessionName(), s.getSessionDate(), s.getSessionTime()))
+            .collect(Collectors.toSet());
+    }
+
+    private Church createChurch(String name) {
+        return churchRepository.findById(createTestChurch(name + " " + System.nanoTime())).orElseThrow();
+    }
+}
@@ -0,0 +1,381 @@
+package com.reuben.pastcare_spring.integration.billing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reuben.pastcare_spring.config.PaystackConfig;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.ChurchSubscription;
+import com.reuben.pastcare_spring.models.Payment;
+import com.reuben.pastcare_spring.models.PaystackWebhookEvent;
+import com.reuben.pastcare_spring.models.PaystackWebhookEventStatus;
+import com.reuben.pastcare_spring.models.SubscriptionPlan;
+import com.reuben.pastcare_spring.repositories.PaymentRepository;
+import com.reuben.pastcare_spring.repositories.PaystackWebhookEventRepository;
+import com.reuben.pastcare_spring.services.PaystackWebhookProcessor;
+import com.reuben.pastcare_spring.testutil.FakePaystackServer;
+import com.reuben.pastcare_spring.util.HmacSha512Signer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Paystack webhook ingestion over real HTTP, with a fake Paystack server behind the
+ * verification calls the processor makes.
+ *
+ * Covers fast acknowledgement while verification is slow, exactly-once activation under
+ * bursts of duplicate and out-of-order deliveries, per-reference ordering and retries.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Tag("integration")
+@Tag("module:billing")
+@DisplayName("Paystack Webhook Ingestion Integration Tests")
+@Slf4j
+class PaystackWebhookIntegrationTest extends BaseIntegrationTest {
+
+    private static final Duration GATEWAY_LATENCY = Duration.ofMillis(500);
+
+    @Autowired
+    private PaystackConfig paystackConfig;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaystackWebhookEventRepository eventRepository;
+
+    @Autowired
+    private PaystackWebhookProcessor processor;
+
+    @Value("${paystack.secret-key}")
+    private String secretKey;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private FakePaystackServer paystack;
+    private String originalBaseUrl;
+    private HmacSha512Signer signer;
+    private SubscriptionPlan plan;
+    private static int churchCounter;
+    private long transactionIds = 1_000_000;
+
+    @BeforeEach
+    void startPaystack() {
+        paystack = FakePaystackServer.start();
+        paystack.setLatency(GATEWAY_LATENCY);
+        originalBaseUrl = paystackConfig.getBaseUrl();
+        paystackConfig.setBaseUrl(paystack.baseUrl());
+        signer = new HmacSha512Signer(secretKey);
+        plan = planRepository.findByName("WEBHOOK_TEST").orElseGet(() -> planRepository.save(SubscriptionPlan.builder()
+            .name("WEBHOOK_TEST")
+            .displayName("Webhook Test Plan")
+            .price(new BigDecimal("150.00"))
+            .billingInterval("MONTHLY")
+            .storageLimitMb(2048L)
+            .userLimit(-1)
+            .isFree(false)
+            .isActive(true)
+            .build()));
+    }
+
+    @AfterEach
+    void stopPaystack() {
+        paystackConfig.setBaseUrl(originalBaseUrl);
+        paystack.close();
+    }
+
+    @Test
+    @DisplayName("Should acknowledge a burst of duplicate, out-of-order webhooks quickly and activate each payment once")
+    void burstActivatesOnce() throws Exception {
+        List<Payment> payments = seedPendingSubscriptions(20);
+        Instant paidAt = Instant.now();
+        List<String> deliveries = new ArrayList<>();
+        for (Payment payment : payments) {
+            String reference = payment.getPaystackReference();
+            paystack.recordSuccessfulCharge(reference);
+            String success = chargeSuccess(nextTransactionId(), reference, payment.getChurchId(), paidAt);
+            for (int copy = 0; copy < 5; copy++) {
+                deliveries.add(success); // Paystack retries of one webhook
+            }
+            // A second success notification for the same reference and an earlier failed attempt
+            deliveries.add(chargeSuccess(nextTransactionId(), reference, payment.getChurchId(), paidAt.plusSeconds(1)));
+            deliveries.add(chargeFailed(nextTransactionId(), reference, paidAt.minusSeconds(60)));
+        }
+        Collections.shuffle(deliveries, new Random(47));
+        post(chargeFailed(nextTransactionId(), "WARMUP-" + System.nanoTime(), paidAt)); // JIT and connection warm-up
+
+        List<Long> ackNanos = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService senders = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (String delivery : deliveries) {
+                statuses.add(senders.submit(() -> {
+                    long start = System.nanoTime();
+                    int status = post(delivery).statusCode();
+                    ackNanos.add(System.nanoTime() - start);
+                    return status;
+                }));
+            }
+            for (Future<Integer> status : statuses) {
+                assertThat(status.get()).isEqualTo(200);
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+        awaitProcessed();
+
+        List<Long> sorted = new ArrayList<>(ackNanos);
+        Collections.sort(sorted);
+        long p50 = TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() / 2));
+        long p95 = TimeUnit.NANOSECONDS.toMillis(sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1));
+        log.info("{} webhooks for {} payments at {} ms verification latency: ack p50 {} ms, p95 {} ms, "
+                + "{} verification calls",
+            deliveries.size(), payments.size(), GATEWAY_LATENCY.toMillis(), p50, p95, paystack.verifyRequests());
+
+        assertThat(p95).isLessThan(GATEWAY_LATENCY.toMillis());
+        assertThat(paystack.verifyRequests()).isEqualTo(payments.size());
+        for (Payment payment : payments) {
+            String reference = payment.getPaystackReference();
+            assertThat(paymentRepository.findByPaystackReference(reference))
+                .get().extracting(Payment::getStatus).isEqualTo("SUCCESS");
+            assertThat(subscriptionRepository.findByChurchId(payment.getChurchId()))
+                .get().extracting(ChurchSubscription::getStatus).isEqualTo("ACTIVE");
+
+            List<PaystackWebhookEvent> events = eventsFor(reference);
+            assertThat(events).hasSize(3); // the five copies were stored once
+            assertThat(events).filteredOn(e -> e.getEventType().equals("charge.success")
+                    && e.getStatus() == PaystackWebhookEventStatus.PROCESSED)
+                .hasSize(1);
+            assertThat(events).allSatisfy(e -> assertThat(e.getStatus()).isNotEqualTo(PaystackWebhookEventStatus.PENDING));
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle a reference's stored events in the order they occurred")
+    void handlesReferenceInOrder() throws Exception {
+        Payment payment = seedPendingSubscriptions(1).get(0);
+        String reference = payment.getPaystackReference();
+        paystack.recordSuccessfulCharge(reference);
+        Instant paidAt = Instant.now();
+
+        // Stored while no processor was running, the later event first
+        PaystackWebhookEvent success = store("charge.success",
+            chargeSuccess(nextTransactionId(), reference, payment.getChurchId(), paidAt), reference, paidAt);
+        PaystackWebhookEvent failed = store("charge.failed",
+            chargeFailed(nextTransactionId(), reference, paidAt.minusSeconds(30)), reference, paidAt.minusSeconds(30));
+
+        processor.drain();
+        awaitProcessed();
+
+        PaystackWebhookEvent failedAfter = eventRepository.findById(failed.getId()).orElseThrow();
+        PaystackWebhookEvent successAfter = eventRepository.findById(success.getId()).orElseThrow();
+        assertThat(failedAfter.getStatus()).isEqualTo(PaystackWebhookEventStatus.PROCESSED);
+        assertThat(successAfter.getStatus()).isEqualTo(PaystackWebhookEventStatus.PROCESSED);
+        assertThat(failedAfter.getProcessedAt()).isBeforeOrEqualTo(successAfter.getProcessedAt());
+        assertThat(paymentRepository.findByPaystackReference(reference))
+            .get().extracting(Payment::getStatus).isEqualTo("SUCCESS");
+
+        // A failure notification arriving after the success no longer counts
+        PaystackWebhookEvent late = store("charge.failed",
+            chargeFailed(nextTransactionId(), reference, paidAt.minusSeconds(10)), reference, paidAt.minusSeconds(10));
+        processor.drain();
+        awaitProcessed();
+        PaystackWebhookEvent lateAfter = eventRepository.findById(late.getId()).orElseThrow();
+        assertThat(lateAfter.getStatus()).isEqualTo(PaystackWebhookEventStatus.IGNORED);
+        assertThat(lateAfter.getOutcome()).isEqualTo("Superseded by charge.success");
+        assertThat(paystack.verifyRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should retry a failing event with backoff and hold the reference's later events until it succeeds")
+    void retriesAndHoldsReference() throws Exception {
+        Long churchId = createTestChurchWithoutSubscription("Webhook Retry Church");
+        subscriptionRepository.save(pendingSubscription(churchId));
+        String reference = "SUB-retry-" + System.nanoTime();
+        paystack.recordSuccessfulCharge(reference);
+        Instant paidAt = Instant.now();
+
+        // The payment record is not there yet, so the first attempt fails
+        PaystackWebhookEvent success = store("charge.success",
+            chargeSuccess(nextTransactionId(), reference, churchId, paidAt), reference, paidAt);
+        PaystackWebhookEvent duplicate = store("charge.success",
+            chargeSuccess(nextTransactionId(), reference, churchId, paidAt.plusSeconds(5)), reference, paidAt.plusSeconds(5));
+
+        processor.drain();
+
+        PaystackWebhookEvent retrying = eventRepository.findById(success.getId()).orElseThrow();
+        assertThat(retrying.getStatus()).isEqualTo(PaystackWebhookEventStatus.PENDING);
+        assertThat(retrying.getAttempts()).isEqualTo(1);
+        assertThat(retrying.getOutcome()).contains("Payment not found");
+        assertThat(retrying.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(retrying.getClaimedBy()).isNull();
+        assertThat(eventRepository.findById(duplicate.getId()).orElseThrow().getAttempts()).isZero();
+
+        paymentRepository.save(pendingPayment(churchId, reference));
+        retrying.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)); // backoff elapsed
+        eventRepository.save(retrying);
+        processor.drain();
+        awaitProcessed();
+
+        assertThat(eventRepository.findById(success.getId()).orElseThrow().getStatus())
+            .isEqualTo(PaystackWebhookEventStatus.PROCESSED);
+        assertThat(eventRepository.findById(duplicate.getId()).orElseThrow().getStatus())
+            .isEqualTo(PaystackWebhookEventStatus.IGNORED);
+        assertThat(paymentRepository.findByPaystackReference(reference))
+            .get().extracting(Payment::getStatus).isEqualTo("SUCCESS");
+        assertThat(paystack.verifyRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject webhooks with a wrong signature without storing them")
+    void rejectsBadSignature() throws Exception {
+        String reference = "SUB-forged-" + System.nanoTime();
+        String payload = chargeSuccess(nextTransactionId(), reference, 1L, Instant.now());
+
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(eventsUri())
+                .header("Content-Type", "application/json")
+                .header("X-Paystack-Signature", signer.sign(payload + "tampered"))
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(401);
+        assertThat(eventsFor(reference)).isEmpty();
+    }
+
+    private List<Payment> seedPendingSubscriptions(int count) {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Long churchId = createTestChurchWithoutSubscription("Webhook Church " + (++churchCounter));
+            subscriptionRepository.save(pendingSubscription(churchId));
+            payments.add(paymentRepository.save(pendingPayment(churchId, "SUB-webhook-" + churchCounter + "-" + System.nanoTime())));
+        }
+        return payments;
+    }
+
+    private ChurchSubscription pendingSubscription(Long churchId) {
+        return ChurchSubscription.builder()
+            .churchId(churchId)
+            .plan(plan)
+            .status("PAST_DUE")
+            .autoRenew(false)
+            .failedPaymentAttempts(0)
+            .freeMonthsRemaining(0)
+            .currentPeriodStart(LocalDate.now().minusMonths(1))
+            .currentPeriodEnd(LocalDate.now())
+            .nextBillingDate(LocalDate.now())
+            .build();
+    }
+
+    private Payment pendingPayment(Long churchId, String reference) {
+        return Payment.builder()
+            .churchId(churchId)
+            .plan(plan)
+            .amount(plan.getPrice())
+            .currency("GHS")
+            .status("PENDING")
+            .paystackReference(reference)
+            .paymentType("SUBSCRIPTION")
+            .build();
+    }
+
+    private PaystackWebhookEvent store(String eventType, String payload, String reference, Instant occurredAt) {
+        LocalDateTime now = LocalDateTime.now();
+        return eventRepository.save(PaystackWebhookEvent.builder()
+            .eventKey(eventType + ":" + nextTransactionId() + ":" + reference)
+            .eventType(eventType)
+            .reference(reference)
+            .occurredAt(LocalDateTime.ofInstant(occurredAt, ZoneId.systemDefault()))
+            .payload(payload)
+            .receivedAt(now)
+            .nextAttemptAt(now)
+            .build());
+    }
+
+    private List<PaystackWebhookEvent> eventsFor(String reference) {
+        return eventRepository.findAll().stream().filter(e -> e.getReference().equals(reference)).toList();
+    }
+
+    private long nextTransactionId() {
+        return ++transactionIds;
+    }
+
+    private String chargeSuccess(long transactionId, String reference, Long churchId, Instant paidAt) {
+        return json(Map.of("event", "charge.success", "data", Map.of(
+            "id", transactionId,
+            "reference", reference,
+            "status", "success",
+            "amount", 15000,
+            "paid_at", paidAt.toString(),
+            "metadata", Map.of("church_id", churchId))));
+    }
+
+    private String chargeFailed(long transactionId, String reference, Instant createdAt) {
+        return json(Map.of("event", "charge.failed", "data", Map.of(
+            "id", transactionId,
+            "reference", reference,
+            "status", "failed",
+            "gateway_response", "Declined",
+            "created_at", createdAt.toString())));
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpResponse<String> post(String payload) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(eventsUri())
+                .header("Content-Type", "application/json")
+                .header("X-Paystack-Signature", signer.sign(payload))
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI eventsUri() {
+        return URI.create("http://localhost:" + port + "/api/webhooks/paystack/events");
+    }
+
+    private void awaitProcessed() throws InterruptedException {
+        await(() -> eventRepository.countByStatus(PaystackWebhookEventStatus.PENDING) == 0, Duration.ofSeconds(60));
+    }
+
+    private static void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", timeout).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
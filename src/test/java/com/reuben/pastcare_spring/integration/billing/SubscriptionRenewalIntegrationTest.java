@@ -0,0 +1,325 @@
+package com.reuben.pastcare_spring.integration.billing;
+
+import com.reuben.pastcare_spring.config.PaystackConfig;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.ChurchSubscription;
+import com.reuben.pastcare_spring.models.Payment;
+import com.reuben.pastcare_spring.models.SubscriptionPlan;
+import com.reuben.pastcare_spring.repositories.PaymentRepository;
+import com.reuben.pastcare_spring.services.SubscriptionRenewalService;
+import com.reuben.pastcare_spring.services.SubscriptionRenewalService.RenewalReport;
+import com.reuben.pastcare_spring.testutil.FakePaystackServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Renewal pipeline against a local fake Paystack server (real HTTP, injected latency and failures).
+ *
+ * Covers exactly-once charging across reruns, concurrent runs, crashed runs and runs that race
+ * on a stale candidate list, the handling of
+ * declines and gateway errors, and throughput with one worker versus a pool.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:billing")
+@DisplayName("Subscription Renewal Pipeline Integration Tests")
+@Slf4j
+class SubscriptionRenewalIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final String AUTH_OK = "AUTH_ok";
+    private static final String AUTH_DECLINED = "AUTH_declined";
+    private static final String AUTH_ERROR = "AUTH_error";
+
+    @Autowired
+    private SubscriptionRenewalService renewalService;
+
+    @Autowired
+    private PaystackConfig paystackConfig;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private FakePaystackServer paystack;
+    private String originalBaseUrl;
+    private SubscriptionPlan plan;
+    private static int churchCounter;
+
+    @BeforeEach
+    void startPaystack() {
+        paystack = FakePaystackServer.start();
+        transaction = new TransactionTemplate(transactionManager);
+        originalBaseUrl = paystackConfig.getBaseUrl();
+        paystackConfig.setBaseUrl(paystack.baseUrl());
+        plan = planRepository.findByName("RENEWAL_TEST").orElseGet(() -> planRepository.save(SubscriptionPlan.builder()
+            .name("RENEWAL_TEST")
+            .displayName("Renewal Test Plan")
+            .price(new BigDecimal("150.00"))
+            .billingInterval("MONTHLY")
+            .storageLimitMb(2048L)
+            .userLimit(-1)
+            .isFree(false)
+            .isActive(true)
+            .build()));
+    }
+
+    @AfterEach
+    void stopPaystack() {
+        paystackConfig.setBaseUrl(originalBaseUrl);
+        paystack.close();
+    }
+
+    @Test
+    @DisplayName("Should charge every due subscription once and not again on a rerun")
+    void shouldChargeOnceAcrossReruns() {
+        List<ChurchSubscription> due = seedDue(20, AUTH_OK);
+        List<String> references = due.stream().map(SubscriptionRenewalService::renewalReference).toList();
+
+        RenewalReport first = renewalService.processDueRenewals(TODAY, 4);
+        RenewalReport second = renewalService.processDueRenewals(TODAY, 4);
+
+        assertThat(first.renewed()).isEqualTo(20);
+        assertThat(first.gatewayCalls()).isEqualTo(20);
+        assertThat(second.claimed()).isZero();
+        assertThat(paystack.chargeRequests()).isEqualTo(20);
+        references.forEach(reference -> {
+            assertThat(paystack.chargesFor(reference)).isEqualTo(1);
+            assertThat(paymentRepository.findByPaystackReference(reference))
+                .get().extracting(Payment::getStatus).isEqualTo("SUCCESS");
+        });
+        due.forEach(subscription -> {
+            ChurchSubscription renewed = reload(subscription);
+            assertThat(renewed.getNextBillingDate()).isEqualTo(TODAY.plusMonths(1));
+            assertThat(renewed.getRenewalLeaseOwner()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Concurrent runs should split the due subscriptions without double-charging")
+    void concurrentRunsChargeOnce() {
+        List<ChurchSubscription> due = seedDue(30, AUTH_OK);
+        paystack.setLatency(Duration.ofMillis(20));
+
+        CompletableFuture<RenewalReport> a = CompletableFuture.supplyAsync(() -> renewalService.processDueRenewals(TODAY, 4));
+        CompletableFuture<RenewalReport> b = CompletableFuture.supplyAsync(() -> renewalService.processDueRenewals(TODAY, 4));
+        RenewalReport reportA = a.join();
+        RenewalReport reportB = b.join();
+
+        assertThat(reportA.claimed() + reportB.claimed()).isEqualTo(30);
+        assertThat(paystack.chargeRequests()).isEqualTo(30);
+        due.forEach(subscription -> {
+            assertThat(paystack.chargesFor(SubscriptionRenewalService.renewalReference(subscription))).isEqualTo(1);
+            assertThat(reload(subscription).getNextBillingDate()).isEqualTo(TODAY.plusMonths(1));
+        });
+    }
+
+    @Test
+    @DisplayName("A run should not claim a subscription another run renewed after it was selected")
+    void staleCandidateIsNotClaimed() {
+        ChurchSubscription subscription = seedDue(1, AUTH_OK).get(0);
+        LocalDateTime now = LocalDateTime.now();
+        // Run B selects its candidates, then run A renews the subscription before B claims it
+        List<Long> staleCandidates = subscriptionRepository.findRenewalCandidateIds(
+            TODAY.plusDays(1), TODAY, now, PageRequest.of(0, 100));
+        assertThat(staleCandidates).contains(subscription.getId());
+        assertThat(renewalService.processDueRenewals(TODAY, 2).renewed()).isEqualTo(1);
+
+        Integer claimed = transaction.execute(status -> subscriptionRepository.claimForRenewal(
+            List.of(subscription.getId()), "run-b", now.plusMinutes(15), TODAY.plusDays(1), TODAY, now));
+
+        assertThat(claimed).isZero();
+        assertThat(reload(subscription).getRenewalLeaseOwner()).isNull();
+        assertThat(paystack.chargeRequests()).isEqualTo(1);
+        assertThat(reload(subscription).getNextBillingDate()).isEqualTo(TODAY.plusMonths(1));
+    }
+
+    @Test
+    @DisplayName("A rerun after a crash should verify pending charges instead of charging again")
+    void rerunAfterCrashVerifiesFirst() {
+        List<ChurchSubscription> due = seedDue(3, AUTH_OK);
+        ChurchSubscription chargedBeforeCrash = due.get(0);
+        ChurchSubscription crashedBeforeCharge = due.get(1);
+        ChurchSubscription heldByLiveRun = due.get(2);
+
+        // The crashed run wrote its pending payments and held expired leases; one charge reached the gateway
+        for (ChurchSubscription subscription : List.of(chargedBeforeCrash, crashedBeforeCharge)) {
+            paymentRepository.save(pendingPayment(subscription));
+            lease(subscription, "crashed-run", LocalDateTime.now().minusMinutes(1));
+        }
+        paystack.recordSuccessfulCharge(SubscriptionRenewalService.renewalReference(chargedBeforeCrash));
+        lease(heldByLiveRun, "live-run", LocalDateTime.now().plusMinutes(10));
+
+        RenewalReport report = renewalService.processDueRenewals(TODAY, 4);
+
+        assertThat(report.claimed()).isEqualTo(2);
+        assertThat(report.renewed()).isEqualTo(2);
+        assertThat(paystack.chargeRequests()).isEqualTo(1); // only the charge that never reached the gateway
+        for (ChurchSubscription subscription : List.of(chargedBeforeCrash, crashedBeforeCharge)) {
+            String reference = SubscriptionRenewalService.renewalReference(subscription);
+            assertThat(paystack.chargesFor(reference)).isEqualTo(1);
+            assertThat(paymentRepository.findByPaystackReference(reference))
+                .get().extracting(Payment::getStatus).isEqualTo("SUCCESS");
+            assertThat(reload(subscription).getNextBillingDate()).isEqualTo(TODAY.plusMonths(1));
+        }
+        assertThat(reload(heldByLiveRun).getNextBillingDate()).isEqualTo(TODAY);
+        assertThat(reload(heldByLiveRun).getRenewalLeaseOwner()).isEqualTo("live-run");
+    }
+
+    @Test
+    @DisplayName("A verification rejected for any reason but not-found should leave the charge pending")
+    void rejectedVerificationDoesNotCharge() {
+        ChurchSubscription subscription = seedDue(1, AUTH_OK).get(0);
+        paymentRepository.save(pendingPayment(subscription));
+        lease(subscription, "crashed-run", LocalDateTime.now().minusMinutes(1));
+        paystack.recordSuccessfulCharge(SubscriptionRenewalService.renewalReference(subscription));
+        paystack.rejectVerification(401);
+
+        RenewalReport today = renewalService.processDueRenewals(TODAY, 4);
+
+        assertThat(today.errors()).isEqualTo(1);
+        assertThat(paystack.chargeRequests()).isZero();
+        assertThat(reload(subscription).getNextBillingDate()).isEqualTo(TODAY);
+
+        // Next day the gateway answers and reports the earlier charge
+        paystack.clearFailures();
+        RenewalReport tomorrow = renewalService.processDueRenewals(TODAY.plusDays(1), 4);
+
+        String reference = SubscriptionRenewalService.renewalReference(subscription);
+        assertThat(tomorrow.renewed()).isEqualTo(1);
+        assertThat(paystack.chargesFor(reference)).isEqualTo(1);
+        assertThat(paymentRepository.findByPaystackReference(reference))
+            .get().extracting(Payment::getStatus).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    @DisplayName("Declines should mark past due; gateway errors should stay pending and resolve on the next day")
+    void declinesAndGatewayErrors() {
+        ChurchSubscription declined = seedDue(1, AUTH_DECLINED).get(0);
+        ChurchSubscription erroring = seedDue(1, AUTH_ERROR).get(0);
+        paystack.declineAuthorization(AUTH_DECLINED);
+        paystack.failAuthorization(AUTH_ERROR);
+        String declinedReference = SubscriptionRenewalService.renewalReference(declined);
+        String erroringReference = SubscriptionRenewalService.renewalReference(erroring);
+
+        RenewalReport today = renewalService.processDueRenewals(TODAY, 4);
+
+        assertThat(today.failed()).isEqualTo(1);
+        assertThat(today.errors()).isEqualTo(1);
+        ChurchSubscription pastDue = reload(declined);
+        assertThat(pastDue.getStatus()).isEqualTo("PAST_DUE");
+        assertThat(pastDue.getFailedPaymentAttempts()).isEqualTo(1);
+        assertThat(paymentRepository.findByPaystackReference(declinedReference))
+            .get().extracting(Payment::getStatus).isEqualTo("FAILED");
+        ChurchSubscription unresolved = reload(erroring);
+        assertThat(unresolved.getStatus()).isEqualTo("ACTIVE");
+        assertThat(unresolved.getNextBillingDate()).isEqualTo(TODAY);
+        assertThat(unresolved.getRenewalAttemptDate()).isEqualTo(TODAY);
+        assertThat(paymentRepository.findByPaystackReference(erroringReference))
+            .get().extracting(Payment::getStatus).isEqualTo("PENDING");
+
+        // Nothing is retried again the same day
+        assertThat(renewalService.processDueRenewals(TODAY, 4).claimed()).isZero();
+
+        // Next day: the gateway has recovered and the card has been replaced
+        paystack.clearFailures();
+        RenewalReport tomorrow = renewalService.processDueRenewals(TODAY.plusDays(1), 4);
+
+        assertThat(tomorrow.renewed()).isEqualTo(2);
+        assertThat(paystack.chargesFor(erroringReference)).isEqualTo(1);
+        String retryReference = SubscriptionRenewalService.renewalReference(pastDue);
+        assertThat(retryReference).isNotEqualTo(declinedReference);
+        assertThat(paystack.chargesFor(retryReference)).isEqualTo(1);
+        assertThat(paystack.statusOf(retryReference)).isEqualTo("success");
+        assertThat(paymentRepository.findByPaystackReference(erroringReference))
+            .get().extracting(Payment::getStatus).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    @DisplayName("Throughput should scale with the worker pool when the gateway is slow")
+    void throughputScalesWithWorkers() {
+        int subscriptions = 40;
+        paystack.setLatency(Duration.ofMillis(100));
+
+        seedDue(subscriptions, AUTH_OK);
+        RenewalReport serial = renewalService.processDueRenewals(TODAY, 1);
+        int serialPeak = paystack.peakConcurrency();
+
+        seedDue(subscriptions, AUTH_OK);
+        RenewalReport pooled = renewalService.processDueRenewals(TODAY, 8);
+
+        log.info("{} renewals at 100 ms gateway latency: 1 worker {} ms, 8 workers {} ms (peak {} concurrent charges)",
+            subscriptions, serial.elapsedMs(), pooled.elapsedMs(), paystack.peakConcurrency());
+
+        assertThat(serial.renewed()).isEqualTo(subscriptions);
+        assertThat(pooled.renewed()).isEqualTo(subscriptions);
+        assertThat(serialPeak).isEqualTo(1);
+        assertThat(paystack.peakConcurrency()).isBetween(2, 8);
+        assertThat(pooled.elapsedMs() * 3).isLessThan(serial.elapsedMs());
+    }
+
+    private List<ChurchSubscription> seedDue(int count, String authorizationCode) {
+        List<ChurchSubscription> seeded = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Long churchId = createTestChurchWithoutSubscription("Renewal Church " + (++churchCounter));
+            seeded.add(subscriptionRepository.save(ChurchSubscription.builder()
+                .churchId(churchId)
+                .plan(plan)
+                .status("ACTIVE")
+                .autoRenew(true)
+                .failedPaymentAttempts(0)
+                .freeMonthsRemaining(0)
+                .currentPeriodStart(TODAY.minusMonths(1))
+                .currentPeriodEnd(TODAY)
+                .nextBillingDate(TODAY)
+                .paystackAuthorizationCode(authorizationCode)
+                .build()));
+        }
+        return seeded;
+    }
+
+    private Payment pendingPayment(ChurchSubscription subscription) {
+        return Payment.builder()
+            .churchId(subscription.getChurchId())
+            .plan(plan)
+            .amount(plan.getPrice())
+            .currency("GHS")
+            .status("PENDING")
+            .paystackReference(SubscriptionRenewalService.renewalReference(subscription))
+            .paymentType("SUBSCRIPTION")
+            .build();
+    }
+
+    private void lease(ChurchSubscription subscription, String owner, LocalDateTime until) {
+        ChurchSubscription current = reload(subscription);
+        current.setRenewalLeaseOwner(owner);
+        current.setRenewalLeaseUntil(until);
+        subscriptionRepository.save(current);
+    }
+
+    private ChurchSubscription reload(ChurchSubscription subscription) {
+        return subscriptionRepository.findById(subscription.getId()).orElseThrow();
+    }
+}
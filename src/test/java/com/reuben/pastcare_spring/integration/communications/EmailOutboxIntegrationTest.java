@@ -0,0 +1,301 @@
+package com.reuben.pastcare_spring.integration.communications;
+
+import com.reuben.pastcare_spring.email.SmtpMailer;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.EmailOutboxMessage;
+import com.reuben.pastcare_spring.models.EmailOutboxStatus;
+import com.reuben.pastcare_spring.repositories.EmailOutboxRepository;
+import com.reuben.pastcare_spring.services.EmailOutboxProcessor;
+import com.reuben.pastcare_spring.services.EmailService;
+import com.reuben.pastcare_spring.testutil.FakeSmtpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The email outbox end to end: EmailService queues, EmailOutboxProcessor sends over real
+ * sockets to a local fake SMTP server.
+ *
+ * Covers a 10k reminder batch over pooled connections, callers not waiting on a slow server,
+ * retries and permanent failures, recovery of messages held by a crashed worker, dropped
+ * sessions and per-provider throttling.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "app.email.enabled=true",
+        "app.email.from=noreply@pastcare.test",
+        "app.email.provider=fake",
+        "app.email.smtp.providers.fake.host=127.0.0.1",
+        "app.email.smtp.providers.fake.security=NONE",
+        "app.email.smtp.providers.fake.max-connections=8",
+        "app.email.smtp.providers.fake.max-messages-per-connection=100000",
+        "app.email.smtp.providers.fake.rate-per-second=0",
+        "app.email.smtp.providers.throttled.host=127.0.0.1",
+        "app.email.smtp.providers.throttled.security=NONE",
+        "app.email.smtp.providers.throttled.max-connections=2",
+        "app.email.smtp.providers.throttled.rate-per-second=100",
+        "app.email.outbox.workers=16",
+        "app.email.outbox.page-size=500",
+        "app.email.outbox.max-attempts=3",
+        "app.email.outbox.retry-delay-seconds=60",
+        "app.email.outbox.poll-interval-ms=3600000",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.reuben.pastcare_spring=INFO",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+    })
+@Tag("integration")
+@Tag("module:communications")
+@DisplayName("Email Outbox Integration Tests")
+@Slf4j
+class EmailOutboxIntegrationTest extends BaseIntegrationTest {
+
+    private static final FakeSmtpServer smtp = FakeSmtpServer.start();
+
+    @DynamicPropertySource
+    static void smtpPort(DynamicPropertyRegistry registry) {
+        registry.add("app.email.smtp.providers.fake.port", smtp::port);
+        registry.add("app.email.smtp.providers.throttled.port", smtp::port);
+    }
+
+    @AfterAll
+    static void stopSmtp() {
+        smtp.close();
+    }
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxProcessor processor;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private SmtpMailer mailer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void resetOutbox() {
+        transaction = new TransactionTemplate(transactionManager);
+        outboxRepository.deleteAllInBatch();
+        smtp.reset();
+    }
+
+    @Test
+    @DisplayName("Should send a 10k reminder batch once each over a few reused connections")
+    void sendsReminderBatch() throws Exception {
+        int count = 10_000;
+        long start = System.nanoTime();
+        for (int batch = 0; batch < count / 1_000; batch++) {
+            int first = batch * 1_000;
+            transaction.executeWithoutResult(status -> {
+                for (int i = first; i < first + 1_000; i++) {
+                    emailService.sendEmail("member" + i + "@example.com", "Reminder: Sunday Service",
+                        "Dear member " + i + ",\n\nService starts at 9:00.\n\nSee you there.");
+                }
+            });
+        }
+        long queuedMs = (System.nanoTime() - start) / 1_000_000;
+
+        await(() -> outboxRepository.countByStatus(EmailOutboxStatus.SENT) == count, Duration.ofMinutes(3));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("{} reminder emails: queued in {} ms, all sent after {} ms ({}/s) over {} SMTP connections",
+            count, queuedMs, elapsedMs, count * 1000L / elapsedMs, smtp.connections());
+
+        assertThat(smtp.messages()).isEqualTo(count);
+        assertThat(smtp.received().stream().map(FakeSmtpServer.Received::messageId).distinct()).hasSize(count);
+        assertThat(smtp.connections()).isLessThanOrEqualTo(8);
+        assertThat(outboxRepository.countByStatus(EmailOutboxStatus.PENDING)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return to the caller at once while the mail server is slow")
+    void callerDoesNotWaitForServer() throws Exception {
+        smtp.setLatency(Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        emailService.sendHtmlEmail("pastor@example.com", "Weekly report", "<p>Attendance is up</p>", "Attendance is up");
+        long callMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(callMs).isLessThan(500);
+        await(() -> smtp.messages() == 1, Duration.ofSeconds(30));
+        await(() -> outboxRepository.countByStatus(EmailOutboxStatus.SENT) == 1, Duration.ofSeconds(30));
+        assertThat(smtp.received().get(0).data()).contains("multipart/alternative");
+    }
+
+    @Test
+    @DisplayName("Should not send a message whose transaction rolled back")
+    void rollbackDiscardsMessage() throws Exception {
+        transaction.executeWithoutResult(status -> {
+            emailService.sendEmail("member@example.com", "Welcome", "Welcome to the church");
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(processor.drain().claimed()).isZero();
+        assertThat(smtp.messages()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should retry temporary failures with backoff and fail permanent rejections at once")
+    void retriesAndFails() {
+        smtp.rejectRecipient("gone@example.com", 550);
+        EmailOutboxMessage rejected = store("fake", "gone@example.com");
+
+        assertThat(processor.drain().failed()).isEqualTo(1);
+        EmailOutboxMessage failed = outboxRepository.findById(rejected.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("550");
+
+        smtp.failNextTransactions(1, 451);
+        EmailOutboxMessage deferred = store("fake", "busy@example.com");
+
+        assertThat(processor.drain().retried()).isEqualTo(1);
+        EmailOutboxMessage retrying = outboxRepository.findById(deferred.getId()).orElseThrow();
+        assertThat(retrying.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(retrying.getAttempts()).isEqualTo(1);
+        assertThat(retrying.getLastError()).contains("451");
+        assertThat(retrying.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(50));
+        assertThat(retrying.getClaimedBy()).isNull();
+        assertThat(processor.drain().claimed()).isZero(); // still backing off
+
+        makeDue(retrying.getId());
+        assertThat(processor.drain().sent()).isEqualTo(1);
+        EmailOutboxMessage sent = outboxRepository.findById(deferred.getId()).orElseThrow();
+        assertThat(sent.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(2);
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(smtp.deliveriesOf(sent.getMessageId())).isEqualTo(1);
+
+        smtp.failNextTransactions(3, 421);
+        EmailOutboxMessage exhausted = store("fake", "flaky@example.com");
+        for (int attempt = 0; attempt < 3; attempt++) {
+            makeDue(exhausted.getId());
+            processor.drain();
+        }
+        assertThat(outboxRepository.findById(exhausted.getId()).orElseThrow().getStatus())
+            .isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(smtp.deliveriesOf(exhausted.getMessageId())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should send messages held by a crashed worker once its lease lapses, each once")
+    void recoversCrashedWorkerClaims() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ids.add(store("fake", "member" + i + "@example.com").getId());
+        }
+        // A worker claimed the page and died before sending or recording anything
+        LocalDateTime now = LocalDateTime.now();
+        transaction.executeWithoutResult(status ->
+            assertThat(outboxRepository.claim(ids, "crashed-worker", now.plusMinutes(10), now)).isEqualTo(300));
+
+        assertThat(processor.drain().claimed()).isZero();
+        assertThat(smtp.messages()).isZero();
+
+        ids.forEach(this::makeDue); // lease lapsed
+        EmailOutboxProcessor.DrainReport report = processor.drain();
+
+        assertThat(report.claimed()).isEqualTo(300);
+        assertThat(report.sent()).isEqualTo(300);
+        assertThat(smtp.messages()).isEqualTo(300);
+        List<EmailOutboxMessage> messages = outboxRepository.findAllById(ids);
+        assertThat(messages).allSatisfy(message -> {
+            assertThat(message.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+            assertThat(message.getClaimedBy()).isNull();
+            assertThat(smtp.deliveriesOf(message.getMessageId())).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Should deliver every message once when the server keeps dropping sessions")
+    void survivesDroppedSessions() {
+        smtp.dropSessionsAfter(7);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(store("fake", "member" + i + "@example.com").getId());
+        }
+
+        EmailOutboxProcessor.DrainReport report = processor.drain();
+
+        assertThat(report.sent()).isEqualTo(500);
+        assertThat(smtp.messages()).isEqualTo(500);
+        assertThat(smtp.connections()).isGreaterThanOrEqualTo(500 / 7);
+        assertThat(outboxRepository.findAllById(ids))
+            .allSatisfy(message -> assertThat(smtp.deliveriesOf(message.getMessageId())).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("Should hold each provider to its own connection and rate limits")
+    void throttlesPerProvider() {
+        for (int i = 0; i < 300; i++) {
+            store("throttled", "member" + i + "@example.com");
+        }
+        for (int i = 0; i < 300; i++) {
+            store("fake", "member" + i + "@example.org");
+        }
+
+        EmailOutboxProcessor.DrainReport report = processor.drain();
+
+        // 300 messages at 100/s take about 3 s
+        assertThat(report.sent()).isEqualTo(600);
+        assertThat(report.elapsedMs()).isGreaterThanOrEqualTo(1_900);
+        assertThat(mailer.openConnections("throttled")).isLessThanOrEqualTo(2);
+        assertThat(smtp.messages()).isEqualTo(600);
+    }
+
+    private EmailOutboxMessage store(String provider, String to) {
+        LocalDateTime now = LocalDateTime.now();
+        return outboxRepository.save(EmailOutboxMessage.builder()
+            .provider(provider)
+            .messageId(UUID.randomUUID() + "@pastcare.test")
+            .fromAddress("noreply@pastcare.test")
+            .toAddress(to)
+            .subject("Reminder: Sunday Service")
+            .textBody("Service starts at 9:00.")
+            .createdAt(now)
+            .nextAttemptAt(now)
+            .build());
+    }
+
+    private void makeDue(Long id) {
+        EmailOutboxMessage message = outboxRepository.findById(id).orElseThrow();
+        message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(message);
+    }
+
+    private static void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", timeout).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.reuben.pastcare_spring.integration.events;
+
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.models.EventLocationType;
+import com.reuben.pastcare_spring.models.EventType;
+import com.reuben.pastcare_spring.models.EventVisibility;
+import com.reuben.pastcare_spring.models.User;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import com.reuben.pastcare_spring.services.CalendarExportService;
+import com.reuben.pastcare_spring.services.CalendarFeedService;
+import com.reuben.pastcare_spring.services.EventOccurrenceService;
+import io.restassured.response.Response;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Public iCal feed over real HTTP: version ETags and 304s, what a public feed contains,
+ * and when a rendering is served from the feed cache.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Tag("integration")
+@Tag("module:events")
+@DisplayName("Calendar Feed Integration Tests")
+class CalendarFeedIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CalendarExportService calendarExportService;
+
+    @Autowired
+    private EventOccurrenceService occurrenceService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long churchId;
+    private Church church;
+    private User admin;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        churchId = createTestChurch("Calendar Feed Church " + System.nanoTime());
+        church = churchRepository.findById(churchId).orElseThrow();
+        admin = createAdminUser(churchId);
+        start = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(3).withHour(10);
+    }
+
+    @Test
+    @DisplayName("Should answer 304 while the ETag matches and a new ETag after an edit or delete")
+    void etagFollowsEventChanges() {
+        Event event = eventRepository.save(newEvent(church, "Harvest Service", EventVisibility.PUBLIC));
+
+        Response first = getFeed(null);
+        assertThat(first.statusCode()).isEqualTo(200);
+        String etag = first.header("ETag");
+        assertThat(etag).startsWith("W/\"");
+        assertThat(first.asString()).contains("SUMMARY:Harvest Service");
+
+        Response unchanged = getFeed(etag);
+        assertThat(unchanged.statusCode()).isEqualTo(304);
+        assertThat(unchanged.header("ETag")).isEqualTo(etag);
+
+        event = eventRepository.findById(event.getId()).orElseThrow();
+        event.setName("Harvest Thanksgiving");
+        eventRepository.save(event);
+
+        Response edited = getFeed(etag);
+        assertThat(edited.statusCode()).isEqualTo(200);
+        String editedEtag = edited.header("ETag");
+        assertThat(editedEtag).isNotEqualTo(etag);
+        assertThat(edited.asString()).contains("SUMMARY:Harvest Thanksgiving").doesNotContain("SUMMARY:Harvest Service");
+
+        eventRepository.deleteById(event.getId());
+
+        Response deleted = getFeed(editedEtag);
+        assertThat(deleted.statusCode()).isEqualTo(200);
+        assertThat(deleted.header("ETag")).isNotEqualTo(editedEtag).isNotEqualTo(etag);
+        assertThat(deleted.asString()).doesNotContain("Harvest");
+    }
+
+    @Test
+    @DisplayName("Should list only the church's public events in its public feed")
+    void publicFeedExcludesPrivateAndOtherChurchEvents() {
+        eventRepository.save(newEvent(church, "Open Day", EventVisibility.PUBLIC));
+        eventRepository.save(newEvent(church, "Members Dinner", EventVisibility.MEMBERS_ONLY));
+        eventRepository.save(newEvent(church, "Elders Retreat", EventVisibility.LEADERSHIP_ONLY));
+        eventRepository.save(newEvent(church, "Counselling Session", EventVisibility.PRIVATE));
+
+        Long otherChurchId = createTestChurch("Other Calendar Church " + System.nanoTime());
+        Church otherChurch = churchRepository.findById(otherChurchId).orElseThrow();
+        eventRepository.save(newEvent(otherChurch, "Neighbour Picnic", EventVisibility.PUBLIC));
+
+        Response response = getFeed(null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.asString())
+            .contains("SUMMARY:Open Day")
+            .doesNotContain("Members Dinner", "Elders Retreat", "Counselling Session", "Neighbour Picnic");
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an unknown church")
+    void unknownChurchIsNotFound() {
+        given()
+        .when()
+            .get("/api/public/calendar/" + Long.MAX_VALUE + "/events.ics")
+        .then()
+            .statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should serve an unchanged feed version from the cache")
+    void unchangedVersionIsServedFromCache() {
+        Event event = eventRepository.save(newEvent(church, "Prayer Night", EventVisibility.PUBLIC));
+        Response first = getFeed(null);
+        assertThat(first.asString()).contains("SUMMARY:Prayer Night");
+
+        // Rename behind the version's back: updated_at is untouched, so the ETag stays the same
+        renameWithoutTouchingVersion(event.getId(), "Renamed Prayer Night");
+
+        Response second = getFeed(null);
+        assertThat(second.header("ETag")).isEqualTo(first.header("ETag"));
+        assertThat(second.asString()).contains("SUMMARY:Prayer Night").doesNotContain("Renamed");
+    }
+
+    @Test
+    @DisplayName("Should stream a feed larger than the cache limit in full without caching it")
+    void oversizedFeedIsStreamedButNotCached() {
+        Event event = eventRepository.save(newEvent(church, "Youth Camp", EventVisibility.PUBLIC));
+        for (int i = 0; i < 10; i++) {
+            eventRepository.save(newEvent(church, "Choir Rehearsal " + i, EventVisibility.PUBLIC));
+        }
+        CalendarFeedService smallCache = new CalendarFeedService(eventRepository, churchRepository,
+            calendarExportService, occurrenceService, entityManager, 10, 512);
+        CalendarFeedService.FeedKey key = new CalendarFeedService.FeedKey(churchId, true, null, null);
+        String etag = transaction().execute(status -> smallCache.getEtag(key));
+
+        String first = render(smallCache, key, etag);
+        assertThat(first.getBytes(StandardCharsets.UTF_8).length).isGreaterThan(512);
+        assertThat(first).contains("SUMMARY:Youth Camp", "SUMMARY:Choir Rehearsal 9").endsWith("END:VCALENDAR\r\n");
+
+        renameWithoutTouchingVersion(event.getId(), "Renamed Youth Camp");
+
+        // Same version, but nothing was cached: rendered again from the database
+        String second = render(smallCache, key, etag);
+        assertThat(second).contains("SUMMARY:Renamed Youth Camp");
+    }
+
+    private Response getFeed(String ifNoneMatch) {
+        var request = given();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return request.when().get("/api/public/calendar/" + churchId + "/events.ics");
+    }
+
+    private String render(CalendarFeedService service, CalendarFeedService.FeedKey key, String etag) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transaction().executeWithoutResult(status -> {
+            try {
+                service.writeFeed(key, etag, out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void renameWithoutTouchingVersion(Long eventId, String name) {
+        jdbcTemplate.update("UPDATE events SET name = ? WHERE id = ?", name, eventId);
+    }
+
+    private TransactionTemplate transaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private Event newEvent(Church owner, String name, EventVisibility visibility) {
+        return Event.builder()
+            .church(owner)
+            .name(name)
+            .eventType(EventType.SERVICE)
+            .locationType(EventLocationType.PHYSICAL)
+            .physicalLocation("Main Hall")
+            .startDate(start)
+            .endDate(start.plusHours(2))
+            .visibility(visibility)
+            .createdBy(admin)
+            .build();
+    }
+}
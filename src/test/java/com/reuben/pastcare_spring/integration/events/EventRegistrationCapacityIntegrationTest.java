@@ -0,0 +1,202 @@
+package com.reuben.pastcare_spring.integration.events;
+
+import com.reuben.pastcare_spring.dtos.EventRegistrationRequest;
+import com.reuben.pastcare_spring.dtos.EventRegistrationResponse;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.models.EventLocationType;
+import com.reuben.pastcare_spring.models.EventRegistration;
+import com.reuben.pastcare_spring.models.EventType;
+import com.reuben.pastcare_spring.models.User;
+import com.reuben.pastcare_spring.repositories.EventRegistrationRepository;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import com.reuben.pastcare_spring.security.TenantContext;
+import com.reuben.pastcare_spring.services.EventRegistrationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency stress tests for the event capacity engine.
+ *
+ * Fires thousands of simultaneous registrations at a small event and checks
+ * that seats are never oversubscribed and waitlist positions are never shared.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:events")
+@DisplayName("Event Registration Capacity Integration Tests")
+class EventRegistrationCapacityIntegrationTest extends BaseIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int REGISTRATIONS = 2000;
+    private static final int CAPACITY = 100;
+
+    @Autowired
+    private EventRegistrationService registrationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository registrationRepository;
+
+    private Long churchId;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        churchId = createTestChurch("Capacity Church " + System.nanoTime());
+        admin = createAdminUser(churchId);
+    }
+
+    @Test
+    @DisplayName("Should never oversubscribe and should hand out unique waitlist positions")
+    void shouldNotOversubscribeWithWaitlist() throws Exception {
+        Long eventId = createEvent(CAPACITY, true);
+
+        List<EventRegistrationResponse> results = registerConcurrently(eventId, REGISTRATIONS, new AtomicInteger());
+
+        List<EventRegistrationResponse> seated = results.stream().filter(r -> !r.getIsOnWaitlist()).toList();
+        List<Integer> positions = results.stream()
+            .filter(EventRegistrationResponse::getIsOnWaitlist)
+            .map(EventRegistrationResponse::getWaitlistPosition)
+            .toList();
+
+        assertThat(results).hasSize(REGISTRATIONS);
+        assertThat(seated).hasSize(CAPACITY);
+        assertThat(eventRepository.getCurrentRegistrations(eventId)).isEqualTo(CAPACITY);
+        assertThat(positions).hasSize(REGISTRATIONS - CAPACITY);
+        assertThat(Set.copyOf(positions)).hasSize(REGISTRATIONS - CAPACITY);
+    }
+
+    @Test
+    @DisplayName("Should reject overflow when waitlist is disabled")
+    void shouldRejectOverflowWithoutWaitlist() throws Exception {
+        Long eventId = createEvent(CAPACITY, false);
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<EventRegistrationResponse> results = registerConcurrently(eventId, REGISTRATIONS, rejected);
+
+        assertThat(results).hasSize(CAPACITY);
+        assertThat(rejected.get()).isEqualTo(REGISTRATIONS - CAPACITY);
+        assertThat(eventRepository.getCurrentRegistrations(eventId)).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    @DisplayName("Should promote exactly one waitlisted registration per freed seat under concurrent cancellations")
+    void shouldPromoteOncePerFreedSeat() throws Exception {
+        Long eventId = createEvent(CAPACITY, true);
+        List<EventRegistrationResponse> results = registerConcurrently(eventId, CAPACITY * 3, new AtomicInteger());
+        List<Long> seatedIds = results.stream()
+            .filter(r -> !r.getIsOnWaitlist())
+            .map(EventRegistrationResponse::getId)
+            .collect(Collectors.toList());
+
+        // Cancel half of the seated registrations concurrently
+        List<Callable<Void>> cancellations = new ArrayList<>();
+        for (Long id : seatedIds.subList(0, CAPACITY / 2)) {
+            cancellations.add(() -> {
+                TenantContext.setCurrentChurchId(churchId);
+                try {
+                    registrationService.cancelRegistration(id, "Stress test");
+                } finally {
+                    TenantContext.clear();
+                }
+                return null;
+            });
+        }
+        runAll(cancellations);
+
+        List<EventRegistration> all = registrationRepository.findByEventId(eventId);
+        long holdingSeats = all.stream().filter(r -> !r.getIsCancelled() && !r.getIsOnWaitlist()).count();
+        long promoted = all.stream().filter(r -> r.getPromotedFromWaitlistAt() != null).count();
+
+        assertThat(eventRepository.getCurrentRegistrations(eventId)).isEqualTo(CAPACITY);
+        assertThat(holdingSeats).isEqualTo(CAPACITY);
+        assertThat(promoted).isEqualTo(CAPACITY / 2);
+        assertThat(registrationRepository.countWaitlist(eventId)).isEqualTo(CAPACITY * 2 - CAPACITY / 2);
+    }
+
+    private Long createEvent(int capacity, boolean allowWaitlist) {
+        Event event = Event.builder()
+            .church(churchRepository.findById(churchId).orElseThrow())
+            .name("Conference " + System.nanoTime())
+            .eventType(EventType.CONFERENCE)
+            .locationType(EventLocationType.VIRTUAL)
+            .startDate(LocalDateTime.now().plusDays(30))
+            .endDate(LocalDateTime.now().plusDays(31))
+            .requiresRegistration(true)
+            .maxCapacity(capacity)
+            .allowWaitlist(allowWaitlist)
+            .autoApproveRegistrations(true)
+            .createdBy(admin)
+            .build();
+        return eventRepository.save(event).getId();
+    }
+
+    private List<EventRegistrationResponse> registerConcurrently(Long eventId, int count, AtomicInteger rejected)
+            throws Exception {
+        List<Callable<EventRegistrationResponse>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            EventRegistrationRequest request = EventRegistrationRequest.builder()
+                .eventId(eventId)
+                .isGuest(true)
+                .guestName("Guest " + i)
+                .build();
+            tasks.add(() -> {
+                TenantContext.setCurrentChurchId(churchId);
+                try {
+                    return registrationService.registerForEvent(request, admin.getId());
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                    return null;
+                } finally {
+                    TenantContext.clear();
+                }
+            });
+        }
+        return runAll(tasks).stream().filter(r -> r != null).collect(Collectors.toList());
+    }
+
+    private <T> List<T> runAll(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    return task.call();
+                }));
+            }
+            startGate.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(2, TimeUnit.MINUTES));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.reuben.pastcare_spring.integration.events;
+
+import com.reuben.pastcare_spring.dtos.EventOccurrenceRequest;
+import com.reuben.pastcare_spring.dtos.EventOccurrenceResponse;
+import com.reuben.pastcare_spring.dtos.EventRegistrationRequest;
+import com.reuben.pastcare_spring.dtos.EventRegistrationResponse;
+import com.reuben.pastcare_spring.dtos.EventRequest;
+import com.reuben.pastcare_spring.dtos.EventResponse;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.metrics.SqlStatementCounter;
+import com.reuben.pastcare_spring.models.AttendanceSession;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.models.EventLocationType;
+import com.reuben.pastcare_spring.models.EventType;
+import com.reuben.pastcare_spring.models.RecurrencePattern;
+import com.reuben.pastcare_spring.models.User;
+import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import com.reuben.pastcare_spring.security.TenantContext;
+import com.reuben.pastcare_spring.services.EventOccurrenceService;
+import com.reuben.pastcare_spring.services.EventRegistrationService;
+import com.reuben.pastcare_spring.services.EventReminderService;
+import com.reuben.pastcare_spring.services.EventService;
+import com.reuben.pastcare_spring.services.RecurringEventService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Recurring events stored as a rule and expanded on read, against the materialized
+ * model they replaced (one child event plus one attendance session per occurrence).
+ *
+ * The benchmark seeds the same weekly series in two churches, one per model, and
+ * times and counts statements for series create, series edit and a calendar range
+ * query. The remaining tests cover materialization on registration,
+ * per-occurrence exceptions, and the upcoming-event and reminder reads.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:events")
+@DisplayName("Recurring Event Occurrence Integration Tests")
+@Slf4j
+class RecurringEventOccurrenceIntegrationTest extends BaseIntegrationTest {
+
+    private static final int SERIES = 20;
+    private static final int OCCURRENCES = 52;
+
+    @Autowired
+    private EventOccurrenceService occurrenceService;
+
+    @Autowired
+    private RecurringEventService recurringEventService;
+
+    @Autowired
+    private EventRegistrationService registrationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventReminderService eventReminderService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private AttendanceSessionRepository sessionRepository;
+
+    private Long churchId;
+    private User admin;
+    private LocalDateTime firstStart;
+
+    @BeforeEach
+    void setUp() {
+        churchId = createTestChurch("Recurring Events Church " + System.nanoTime());
+        admin = createAdminUser(churchId);
+        // Next Sunday-ish at 9am, so every occurrence is in the future
+        firstStart = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(7).withHour(9);
+        TenantContext.setCurrentChurchId(churchId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Rule model should match the materialized model with far fewer rows and statements")
+    void ruleModelMatchesMaterializedModel() {
+        Long legacyChurchId = createTestChurch("Materialized Events Church " + System.nanoTime());
+        User legacyAdmin = createAdminUser(legacyChurchId);
+        Church legacyChurch = churchRepository.findById(legacyChurchId).orElseThrow();
+        Church church = churchRepository.findById(churchId).orElseThrow();
+
+        // Create
+        List<Long> legacySeries = new ArrayList<>();
+        Measured<Void> legacyCreate = measure(() -> {
+            for (int i = 0; i < SERIES; i++) {
+                legacySeries.add(legacyCreateSeries(legacyChurch, legacyAdmin, i));
+            }
+            return null;
+        });
+        List<Long> series = new ArrayList<>();
+        Measured<Void> engineCreate = measure(() -> {
+            for (int i = 0; i < SERIES; i++) {
+                series.add(eventRepository.save(newSeries(church, admin, i)).getId());
+            }
+            return null;
+        });
+
+        // Edit every series (rename)
+        TenantContext.setCurrentChurchId(legacyChurchId);
+        Measured<Void> legacyEdit = measure(() -> {
+            legacySeries.forEach(this::legacyRenameSeries);
+            return null;
+        });
+        TenantContext.setCurrentChurchId(churchId);
+        Measured<Void> engineEdit = measure(() -> {
+            series.forEach(id -> recurringEventService.updateFutureInstances(id, renameRequest(id)));
+            return null;
+        });
+
+        // Calendar range query: twelve weeks, starting after the first occurrence
+        LocalDateTime from = firstStart.plusWeeks(4).minusHours(1);
+        LocalDateTime to = firstStart.plusWeeks(16).minusHours(1);
+        Measured<List<Event>> legacyQuery = measure(() -> eventRepository
+            .findEventsByDateRange(legacyChurchId, from, to, PageRequest.of(0, 10_000)).getContent());
+        Measured<List<EventOccurrenceResponse>> engineQuery = measure(
+            () -> occurrenceService.findOccurrences(from, to, null));
+        Measured<List<EventOccurrenceResponse>> cachedQuery = measure(
+            () -> occurrenceService.findOccurrences(from, to, null));
+
+        log.info("{} weekly series x {} occurrences", SERIES, OCCURRENCES);
+        log.info("create: materialized {} ms / {} statements, rule {} ms / {} statements",
+            legacyCreate.ms(), legacyCreate.statements(), engineCreate.ms(), engineCreate.statements());
+        log.info("edit: materialized {} ms / {} statements, rule {} ms / {} statements",
+            legacyEdit.ms(), legacyEdit.statements(), engineEdit.ms(), engineEdit.statements());
+        log.info("query: materialized {} ms / {} statements, rule {} ms / {} statements (cached {} ms / {})",
+            legacyQuery.ms(), legacyQuery.statements(), engineQuery.ms(), engineQuery.statements(),
+            cachedQuery.ms(), cachedQuery.statements());
+
+        // Same calendar either way
+        assertThat(engineQuery.result()).hasSize(legacyQuery.result().size()).hasSize(SERIES * 12);
+        assertThat(engineQuery.result()).extracting(EventOccurrenceResponse::startDate)
+            .containsExactlyInAnyOrderElementsOf(legacyQuery.result().stream().map(Event::getStartDate).toList());
+        assertThat(engineQuery.result()).allMatch(o -> o.name().startsWith("Renamed"));
+
+        // One row per series instead of one per occurrence (plus its attendance session)
+        assertThat(eventRepository.findByChurchIdAndDeletedAtIsNull(churchId)).hasSize(SERIES);
+        assertThat(eventRepository.findByChurchIdAndDeletedAtIsNull(legacyChurchId)).hasSize(SERIES * OCCURRENCES);
+        assertThat(engineCreate.statements()).isLessThan(legacyCreate.statements() / 10);
+        assertThat(engineEdit.statements()).isLessThan(legacyEdit.statements() / 5);
+        assertThat(cachedQuery.statements()).isLessThanOrEqualTo(engineQuery.statements());
+    }
+
+    @Test
+    @DisplayName("Registering for an occurrence should materialize it once")
+    void registrationMaterializesOccurrence() {
+        Long seriesId = eventRepository.save(newSeries(churchRepository.findById(churchId).orElseThrow(), admin, 0))
+            .getId();
+        LocalDateTime third = firstStart.plusWeeks(2);
+
+        EventRegistrationResponse first = registrationService.registerForEvent(guestRegistration(seriesId, third, "A"),
+            admin.getId());
+        EventRegistrationResponse second = registrationService.registerForEvent(guestRegistration(seriesId, third, "B"),
+            admin.getId());
+
+        assertThat(first.getEventId()).isEqualTo(second.getEventId()).isNotEqualTo(seriesId);
+        Event child = eventRepository.findById(first.getEventId()).orElseThrow();
+        assertThat(child.getOccurrenceStart()).isEqualTo(third);
+        assertThat(child.getStartDate()).isEqualTo(third);
+        assertThat(eventRepository.getCurrentRegistrations(child.getId())).isEqualTo(2);
+
+        List<EventOccurrenceResponse> occurrences = occurrenceService.findOccurrences(
+            firstStart.minusDays(1), firstStart.plusWeeks(4).minusDays(1), null);
+        assertThat(occurrences).hasSize(4);
+        assertThat(occurrences).filteredOn(EventOccurrenceResponse::materialized)
+            .extracting(EventOccurrenceResponse::eventId)
+            .containsExactly(seriesId, child.getId());
+    }
+
+    @Test
+    @DisplayName("Exceptions should cancel and move single occurrences")
+    void exceptionsCancelAndReschedule() {
+        Long seriesId = eventRepository.save(newSeries(churchRepository.findById(churchId).orElseThrow(), admin, 0))
+            .getId();
+        LocalDateTime second = firstStart.plusWeeks(1);
+        LocalDateTime third = firstStart.plusWeeks(2);
+        LocalDateTime movedTo = third.plusDays(1).withHour(18);
+
+        occurrenceService.updateOccurrence(seriesId, EventOccurrenceRequest.builder()
+            .occurrenceStart(second).cancelled(true).build());
+        occurrenceService.updateOccurrence(seriesId, EventOccurrenceRequest.builder()
+            .occurrenceStart(third).startDate(movedTo).build());
+
+        List<EventOccurrenceResponse> occurrences = occurrenceService.findOccurrences(
+            firstStart.minusDays(1), firstStart.plusWeeks(4).minusDays(1), null);
+
+        assertThat(occurrences).hasSize(4);
+        assertThat(occurrences.get(1).occurrenceStart()).isEqualTo(second);
+        assertThat(occurrences.get(1).cancelled()).isTrue();
+        assertThat(occurrences.get(2).occurrenceStart()).isEqualTo(third);
+        assertThat(occurrences.get(2).startDate()).isEqualTo(movedTo);
+        assertThat(occurrences.get(2).endDate()).isEqualTo(movedTo.plusHours(2));
+
+        // A moved occurrence is materialized at its new time; a cancelled one can't be
+        Long childId = occurrenceService.materialize(seriesId, third);
+        assertThat(eventRepository.findById(childId).orElseThrow().getStartDate()).isEqualTo(movedTo);
+        assertThatThrownBy(() -> occurrenceService.materialize(seriesId, second))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Upcoming events should include occurrences of series that started in the past")
+    void upcomingEventsExpandSeries() {
+        Church church = churchRepository.findById(churchId).orElseThrow();
+        // Three occurrences already past, ten still to come
+        LocalDateTime seriesStart = firstStart.minusWeeks(3).minusDays(1);
+        Event series = newSeries(church, admin, 0);
+        series.setStartDate(seriesStart);
+        series.setEndDate(seriesStart.plusHours(2));
+        series.setRecurrenceEndDate(firstStart.plusWeeks(9).toLocalDate());
+        Long seriesId = eventRepository.save(series).getId();
+        Event single = eventRepository.save(newSingle(church,
+            LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(2)));
+        occurrenceService.updateOccurrence(seriesId, EventOccurrenceRequest.builder()
+            .occurrenceStart(seriesStart.plusWeeks(5)).cancelled(true).build());
+
+        Page<EventResponse> page = eventService.getUpcomingEvents(PageRequest.of(0, 5));
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).extracting(EventResponse::getId)
+            .containsExactly(single.getId(), null, null, null, null);
+        assertThat(page.getContent()).extracting(EventResponse::getStartDate).containsExactly(
+            single.getStartDate(), seriesStart.plusWeeks(3), seriesStart.plusWeeks(4),
+            seriesStart.plusWeeks(6), seriesStart.plusWeeks(7));
+        assertThat(page.getContent().subList(1, 5)).extracting(EventResponse::getParentEventId).containsOnly(seriesId);
+        assertThat(eventService.getUpcomingEvents(PageRequest.of(1, 5)).getContent()).hasSize(5);
+        assertThat(eventService.getEventStats().getUpcomingEvents()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Reminders should follow expanded occurrences")
+    void remindersFollowOccurrences() {
+        Church church = churchRepository.findById(churchId).orElseThrow();
+        LocalDateTime soon = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(2);
+
+        // The series row is the first occurrence, which has been cancelled
+        Event cancelled = newSeries(church, admin, 0);
+        cancelled.setStartDate(soon);
+        cancelled.setEndDate(soon.plusHours(2));
+        cancelled.setReminderDaysBefore(3);
+        Long cancelledId = eventRepository.save(cancelled).getId();
+        occurrenceService.updateOccurrence(cancelledId, EventOccurrenceRequest.builder()
+            .occurrenceStart(soon).cancelled(true).build());
+
+        // A series that started last week; its next occurrence has a row
+        Event running = newSeries(church, admin, 1);
+        running.setStartDate(soon.minusWeeks(1));
+        running.setEndDate(soon.minusWeeks(1).plusHours(2));
+        running.setReminderDaysBefore(3);
+        Long runningId = eventRepository.save(running).getId();
+        Long childId = occurrenceService.materialize(runningId, soon);
+
+        eventReminderService.sendScheduledReminders(churchId);
+
+        assertThat(eventRepository.findById(cancelledId).orElseThrow().getReminderSent()).isFalse();
+        assertThat(eventRepository.findById(childId).orElseThrow().getReminderSent()).isTrue();
+        assertThat(eventRepository.findById(runningId).orElseThrow().getReminderSent()).isFalse();
+    }
+
+    // ---- Materialized model, as generate-instances and update-future-instances used to work ----
+
+    private Long legacyCreateSeries(Church church, User createdBy, int index) {
+        Event series = eventRepository.save(newSeries(church, createdBy, index));
+        for (int n = 1; n < OCCURRENCES; n++) {
+            Event child = newSeries(church, createdBy, index);
+            child.setIsRecurring(false);
+            child.setRecurrencePattern(null);
+            child.setParentEvent(series);
+            child.setStartDate(firstStart.plusWeeks(n));
+            child.setEndDate(firstStart.plusWeeks(n).plusHours(2));
+            child = eventRepository.save(child);
+
+            AttendanceSession session = new AttendanceSession();
+            session.setEvent(child);
+            session.setChurch(church);
+            session.setSessionName(child.getName());
+            session.setSessionDate(child.getStartDate().toLocalDate());
+            session.setSessionTime(child.getStartDate().toLocalTime());
+            session.setIsCompleted(false);
+            sessionRepository.save(session);
+        }
+        return series.getId();
+    }
+
+    private void legacyRenameSeries(Long seriesId) {
+        Event series = eventRepository.findById(seriesId).orElseThrow();
+        series.setName("Renamed " + series.getName());
+        eventRepository.save(series);
+        for (Event child : eventRepository.findByParentEventIdAndStartDateAfter(seriesId, LocalDateTime.now())) {
+            // The old path re-read the parent and ran a full update per instance
+            eventRepository.findById(seriesId).orElseThrow();
+            child.setName(series.getName());
+            eventRepository.save(child);
+        }
+    }
+
+    // ---- Helpers ----
+
+    private Event newSeries(Church church, User createdBy, int index) {
+        return Event.builder()
+            .church(church)
+            .name("Weekly Service " + index)
+            .eventType(EventType.SERVICE)
+            .locationType(EventLocationType.PHYSICAL)
+            .physicalLocation("Main Hall")
+            .startDate(firstStart)
+            .endDate(firstStart.plusHours(2))
+            .isRecurring(true)
+            .recurrencePattern(RecurrencePattern.WEEKLY)
+            .recurrenceEndDate(firstStart.plusWeeks(OCCURRENCES - 1).toLocalDate())
+            .requiresRegistration(true)
+            .maxCapacity(100)
+            .createdBy(createdBy)
+            .build();
+    }
+
+    private Event newSingle(Church church, LocalDateTime start) {
+        return Event.builder()
+            .church(church)
+            .name("Youth Rally")
+            .eventType(EventType.SERVICE)
+            .locationType(EventLocationType.PHYSICAL)
+            .physicalLocation("Main Hall")
+            .startDate(start)
+            .endDate(start.plusHours(2))
+            .createdBy(admin)
+            .build();
+    }
+
+    private EventRequest renameRequest(Long seriesId) {
+        Event series = eventRepository.findById(seriesId).orElseThrow();
+        return EventRequest.builder()
+            .name("Renamed " + series.getName())
+            .eventType(series.getEventType())
+            .startDate(series.getStartDate())
+            .endDate(series.getEndDate())
+            .locationType(series.getLocationType())
+            .physicalLocation(series.getPhysicalLocation())
+            .requiresRegistration(series.getRequiresRegistration())
+            .maxCapacity(series.getMaxCapacity())
+            .allowWaitlist(series.getAllowWaitlist())
+            .autoApproveRegistrations(series.getAutoApproveRegistrations())
+            .visibility(series.getVisibility())
+            .reminderDaysBefore(series.getReminderDaysBefore())
+            .build();
+    }
+
+    private EventRegistrationRequest guestRegistration(Long seriesId, LocalDateTime occurrenceStart, String name) {
+        return EventRegistrationRequest.builder()
+            .eventId(seriesId)
+            .occurrenceStart(occurrenceStart)
+            .isGuest(true)
+            .guestName("Guest " + name)
+            .build();
+    }
+
+    private record Measured<T>(T result, long ms, long statements) {
+    }
+
+    private <T> Measured<T> measure(Supplier<T> work) {
+        SqlStatementCounter.reset();
+        long start = System.nanoTime();
+        T result = work.get();
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        return new Measured<>(result, ms, SqlStatementCounter.get());
+    }
+}
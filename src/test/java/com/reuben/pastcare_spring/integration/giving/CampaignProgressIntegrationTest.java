@@ -0,0 +1,355 @@
+package com.reuben.pastcare_spring.integration.giving;
+
+import com.reuben.pastcare_spring.dtos.CampaignRequest;
+import com.reuben.pastcare_spring.dtos.CampaignResponse;
+import com.reuben.pastcare_spring.dtos.CampaignStatsResponse;
+import com.reuben.pastcare_spring.dtos.DonationRequest;
+import com.reuben.pastcare_spring.dtos.DonationResponse;
+import com.reuben.pastcare_spring.dtos.PledgePaymentRequest;
+import com.reuben.pastcare_spring.dtos.PledgeRequest;
+import com.reuben.pastcare_spring.dtos.PledgeResponse;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.Campaign;
+import com.reuben.pastcare_spring.models.CampaignStatus;
+import com.reuben.pastcare_spring.models.DonationType;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.models.PaymentMethod;
+import com.reuben.pastcare_spring.models.PledgeFrequency;
+import com.reuben.pastcare_spring.models.User;
+import com.reuben.pastcare_spring.repositories.CampaignRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.security.TenantContext;
+import com.reuben.pastcare_spring.services.CampaignProgressLedger;
+import com.reuben.pastcare_spring.services.CampaignService;
+import com.reuben.pastcare_spring.services.DonationService;
+import com.reuben.pastcare_spring.services.PledgeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Campaign progress counters maintained incrementally by donations and pledges.
+ *
+ * Hammers one campaign with concurrent donations, pledges and payments and checks the
+ * counters equal a full recount afterwards; also covers moves between campaigns,
+ * cancellations, drift repair and the stats endpoint reading the counters.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:giving")
+@DisplayName("Campaign Progress Integration Tests")
+class CampaignProgressIntegrationTest extends BaseIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int DONATIONS = 400;
+    private static final int PLEDGES = 40;
+
+    @Autowired
+    private CampaignService campaignService;
+
+    @Autowired
+    private DonationService donationService;
+
+    @Autowired
+    private PledgeService pledgeService;
+
+    @Autowired
+    private CampaignProgressLedger campaignProgressLedger;
+
+    @Autowired
+    private CampaignRepository campaignRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long churchId;
+    private User treasurer;
+    private List<Long> memberIds;
+
+    @BeforeEach
+    void setUp() {
+        churchId = createTestChurch("Campaign Church " + System.nanoTime());
+        treasurer = createTreasurerUser(churchId);
+        memberIds = createMembers(10);
+        TenantContext.setCurrentChurchId(churchId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Concurrent donations, pledges and payments should leave the counters exact")
+    void concurrentChangesKeepCountersExact() throws Exception {
+        Long campaignId = createCampaign("Building Fund", new BigDecimal("10000000.00"));
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < DONATIONS; i++) {
+            BigDecimal amount = BigDecimal.valueOf(1000 + i, 2);
+            Long memberId = memberIds.get(i % memberIds.size());
+            tasks.add(inChurch(() -> donationService.createDonation(churchId, treasurer.getId(), donation(memberId, amount, campaignId))));
+        }
+        for (int i = 0; i < PLEDGES; i++) {
+            Long memberId = memberIds.get(i % memberIds.size());
+            tasks.add(inChurch(() -> {
+                PledgeResponse pledge = pledgeService.createPledge(churchId, pledge(memberId, new BigDecimal("500.00"), campaignId));
+                pledgeService.recordPayment(churchId, payment(pledge.getId(), new BigDecimal("125.50")));
+                return pledge;
+            }));
+        }
+        // Editing the campaign itself must not write back a stale copy of the counters
+        for (int i = 0; i < 10; i++) {
+            String name = "Building Fund " + i;
+            tasks.add(inChurch(() -> campaignService.updateCampaign(churchId, campaignId, campaignRequest(name, new BigDecimal("10000000.00")))));
+        }
+        runAll(tasks);
+
+        BigDecimal donated = BigDecimal.ZERO;
+        for (int i = 0; i < DONATIONS; i++) {
+            donated = donated.add(BigDecimal.valueOf(1000 + i, 2));
+        }
+        Campaign campaign = campaignRepository.findById(campaignId).orElseThrow();
+        assertThat(campaign.getTotalDonations()).isEqualTo(DONATIONS);
+        assertThat(campaign.getTotalPledgesCount()).isEqualTo(PLEDGES);
+        assertThat(campaign.getTotalPledges()).isEqualByComparingTo(new BigDecimal("500.00").multiply(BigDecimal.valueOf(PLEDGES)));
+        assertThat(campaign.getCurrentAmount())
+            .isEqualByComparingTo(donated.add(new BigDecimal("125.50").multiply(BigDecimal.valueOf(PLEDGES))));
+        assertThat(campaignProgressLedger.reconcile(campaignId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Concurrent edits and deletes should leave the counters equal to a recount")
+    void concurrentEditsAndDeletesMatchRecount() throws Exception {
+        Long campaignId = createCampaign("Missions", new BigDecimal("10000000.00"));
+        List<Callable<DonationResponse>> creates = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            BigDecimal amount = BigDecimal.valueOf(5000 + i, 2);
+            creates.add(inChurch(() -> donationService.createDonation(churchId, treasurer.getId(), donation(null, amount, campaignId))));
+        }
+        List<DonationResponse> donations = runAll(creates);
+
+        List<Callable<Object>> changes = new ArrayList<>();
+        for (int i = 0; i < donations.size(); i++) {
+            Long id = donations.get(i).id();
+            if (i % 3 == 0) {
+                changes.add(inChurch(() -> {
+                    donationService.deleteDonation(id);
+                    return null;
+                }));
+            } else if (i % 3 == 1) {
+                changes.add(inChurch(() -> donationService.updateDonation(id, donation(null, new BigDecimal("1.00"), campaignId))));
+            }
+        }
+        runAll(changes);
+
+        Campaign campaign = campaignRepository.findById(campaignId).orElseThrow();
+        assertThat(campaign.getTotalDonations()).isEqualTo(200 - 67);
+        assertThat(campaignProgressLedger.reconcile(campaignId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Moving a donation and cancelling or deleting a pledge should adjust the right campaigns")
+    void movesAndCancellations() {
+        Long building = createCampaign("Building", new BigDecimal("50000.00"));
+        Long missions = createCampaign("Missions", new BigDecimal("50000.00"));
+
+        DonationResponse gift = donationService.createDonation(churchId, treasurer.getId(), donation(null, new BigDecimal("300.00"), building));
+        donationService.updateDonation(gift.id(), donation(null, new BigDecimal("250.00"), missions));
+
+        PledgeResponse pledge = pledgeService.createPledge(churchId, pledge(memberIds.get(0), new BigDecimal("1000.00"), building));
+        pledgeService.recordPayment(churchId, payment(pledge.getId(), new BigDecimal("200.00")));
+        pledgeService.cancelPledge(churchId, pledge.getId());
+        PledgeResponse other = pledgeService.createPledge(churchId, pledge(memberIds.get(1), new BigDecimal("400.00"), missions));
+        pledgeService.deletePledge(churchId, other.getId());
+
+        assertProgress(building, "0.00", 0, "0.00", 1);
+        assertProgress(missions, "250.00", 1, "0.00", 0);
+        assertThat(campaignProgressLedger.reconcile(building)).isFalse();
+        assertThat(campaignProgressLedger.reconcile(missions)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Reconciliation should repair drifted counters and leave correct ones alone")
+    void reconciliationRepairsDrift() {
+        Long drifted = createCampaign("Drifted", new BigDecimal("1000.00"));
+        Long correct = createCampaign("Correct", new BigDecimal("1000.00"));
+        donationService.createDonation(churchId, treasurer.getId(), donation(null, new BigDecimal("1200.00"), drifted));
+        donationService.createDonation(churchId, treasurer.getId(), donation(null, new BigDecimal("40.00"), correct));
+        // Simulate a change made behind the services' back, after the goal was reached
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            campaignRepository.setProgress(drifted, new BigDecimal("7.00"), 9, BigDecimal.ZERO, 3);
+            campaign(drifted).setStatus(CampaignStatus.ACTIVE);
+        });
+
+        CampaignProgressLedger.ReconciliationReport report = campaignProgressLedger.reconcileAll();
+
+        assertThat(report.repaired()).isEqualTo(1);
+        assertThat(report.failed()).isZero();
+        assertProgress(drifted, "1200.00", 1, "0.00", 0);
+        assertProgress(correct, "40.00", 1, "0.00", 0);
+        assertThat(campaign(drifted).getStatus()).isEqualTo(CampaignStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Reaching the goal should complete the campaign")
+    void completesAtGoal() {
+        Long campaignId = createCampaign("Roof", new BigDecimal("500.00"));
+
+        donationService.createDonation(churchId, treasurer.getId(), donation(null, new BigDecimal("499.99"), campaignId));
+        assertThat(campaign(campaignId).getStatus()).isEqualTo(CampaignStatus.ACTIVE);
+
+        donationService.createDonation(churchId, treasurer.getId(), donation(null, new BigDecimal("0.01"), campaignId));
+        assertThat(campaign(campaignId).getStatus()).isEqualTo(CampaignStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Stats should sum the campaigns' counters")
+    void statsReadCounters() {
+        Long building = createCampaign("Building", new BigDecimal("1000.00"));
+        Long missions = createCampaign("Missions", new BigDecimal("4000.00"));
+        donationService.createDonation(churchId, treasurer.getId(), donation(null, new BigDecimal("250.00"), building));
+        donationService.createDonation(churchId, treasurer.getId(), donation(null, new BigDecimal("1000.00"), missions));
+        pledgeService.createPledge(churchId, pledge(memberIds.get(0), new BigDecimal("600.00"), missions));
+
+        CampaignStatsResponse stats = campaignService.getCampaignStats(churchId);
+
+        assertThat(stats.getTotalCampaigns()).isEqualTo(2);
+        assertThat(stats.getActiveCampaigns()).isEqualTo(2);
+        assertThat(stats.getCompletedCampaigns()).isZero();
+        assertThat(stats.getTotalGoalAmount()).isEqualByComparingTo("5000.00");
+        assertThat(stats.getTotalRaised()).isEqualByComparingTo("1250.00");
+        assertThat(stats.getTotalPledged()).isEqualByComparingTo("600.00");
+        assertThat(stats.getTotalDonations()).isEqualTo(2);
+        assertThat(stats.getTotalPledges()).isEqualTo(1);
+        assertThat(stats.getAverageProgress()).isCloseTo(25.0, within(0.001));
+
+        Long emptyChurch = createTestChurch("No Campaigns " + System.nanoTime());
+        CampaignStatsResponse empty = campaignService.getCampaignStats(emptyChurch);
+        assertThat(empty.getTotalCampaigns()).isZero();
+        assertThat(empty.getTotalRaised()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(empty.getAverageProgress()).isZero();
+    }
+
+    private void assertProgress(Long campaignId, String raised, int donations, String pledged, int pledges) {
+        Campaign campaign = campaign(campaignId);
+        assertThat(campaign.getCurrentAmount()).isEqualByComparingTo(raised);
+        assertThat(campaign.getTotalDonations()).isEqualTo(donations);
+        assertThat(campaign.getTotalPledges()).isEqualByComparingTo(pledged);
+        assertThat(campaign.getTotalPledgesCount()).isEqualTo(pledges);
+    }
+
+    private Campaign campaign(Long id) {
+        return campaignRepository.findById(id).orElseThrow();
+    }
+
+    private Long createCampaign(String name, BigDecimal goal) {
+        CampaignResponse campaign = campaignService.createCampaign(churchId, treasurer.getId(), campaignRequest(name, goal));
+        return campaign.getId();
+    }
+
+    private static CampaignRequest campaignRequest(String name, BigDecimal goal) {
+        CampaignRequest request = new CampaignRequest();
+        request.setName(name);
+        request.setGoalAmount(goal);
+        request.setStartDate(LocalDate.now().minusDays(1));
+        return request;
+    }
+
+    private static DonationRequest donation(Long memberId, BigDecimal amount, Long campaignId) {
+        return new DonationRequest(memberId, amount, LocalDate.now(), DonationType.BUILDING_FUND, PaymentMethod.CASH,
+            memberId == null, null, null, null, campaignId, "GHS");
+    }
+
+    private static PledgeRequest pledge(Long memberId, BigDecimal amount, Long campaignId) {
+        PledgeRequest request = new PledgeRequest();
+        request.setMemberId(memberId);
+        request.setCampaignId(campaignId);
+        request.setTotalAmount(amount);
+        request.setFrequency(PledgeFrequency.MONTHLY);
+        request.setPledgeDate(LocalDate.now());
+        request.setStartDate(LocalDate.now());
+        return request;
+    }
+
+    private static PledgePaymentRequest payment(Long pledgeId, BigDecimal amount) {
+        PledgePaymentRequest request = new PledgePaymentRequest();
+        request.setPledgeId(pledgeId);
+        request.setAmount(amount);
+        request.setPaymentDate(LocalDate.now());
+        return request;
+    }
+
+    private List<Long> createMembers(int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Member member = new Member();
+            member.setFirstName("Pledger" + i);
+            member.setLastName("Campaign");
+            member.setPhoneNumber("+23326" + String.format("%07d", Math.floorMod(churchId * 100 + i, 10_000_000L)));
+            member.setSex(i % 2 == 0 ? "Male" : "Female");
+            member.setChurch(churchRepository.findById(churchId).orElseThrow());
+            member.setIsVerified(true);
+            member.setStatus(MemberStatus.MEMBER);
+            members.add(member);
+        }
+        return memberRepository.saveAll(members).stream().map(Member::getId).toList();
+    }
+
+    private <T> Callable<T> inChurch(Callable<T> task) {
+        return () -> {
+            TenantContext.setCurrentChurchId(churchId);
+            try {
+                return task.call();
+            } finally {
+                TenantContext.clear();
+            }
+        };
+    }
+
+    private <T> List<T> runAll(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    return task.call();
+                }));
+            }
+            startGate.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(2, TimeUnit.MINUTES));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
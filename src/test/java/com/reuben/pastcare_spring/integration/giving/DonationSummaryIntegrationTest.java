@@ -0,0 +1,261 @@
+package com.reuben.pastcare_spring.integration.giving;
+
+import com.reuben.pastcare_spring.dtos.DonationSummaryResponse;
+import com.reuben.pastcare_spring.dtos.GivingBucketResponse;
+import com.reuben.pastcare_spring.dtos.GivingTrendResponse;
+import com.reuben.pastcare_spring.dtos.GivingTypeTotal;
+import com.reuben.pastcare_spring.enums.GivingInterval;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.metrics.SqlStatementCounter;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Donation;
+import com.reuben.pastcare_spring.models.DonationType;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.models.PaymentMethod;
+import com.reuben.pastcare_spring.repositories.DonationRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.services.DonationService;
+import com.reuben.pastcare_spring.testutil.MaxSqlStatements;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Donation summaries and giving trends computed by aggregate queries, checked against the
+ * in-memory computation they replaced.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:giving")
+@DisplayName("Donation Summary Integration Tests")
+class DonationSummaryIntegrationTest extends BaseIntegrationTest {
+
+    private static final int MEMBERS = 40;
+    private static final int DONATIONS = 3000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 400;
+
+    @Autowired
+    private DonationService donationService;
+
+    @Autowired
+    private DonationRepository donationRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Long churchId;
+    private Church church;
+
+    @BeforeEach
+    void setUp() {
+        churchId = createTestChurch("Giving Summary Church " + System.nanoTime());
+        church = churchRepository.findById(churchId).orElseThrow();
+        seed(church, DONATIONS);
+
+        // Another church's giving must not show up
+        Long otherChurchId = createTestChurch("Other Giving Church " + System.nanoTime());
+        seed(churchRepository.findById(otherChurchId).orElseThrow(), 200);
+    }
+
+    @Test
+    @DisplayName("Summary should match the in-memory computation over all donations")
+    void summaryMatchesInMemory() {
+        DonationSummaryResponse summary = donationService.getDonationSummary(churchId);
+
+        assertThat(summary).isEqualTo(legacySummary(donationRepository.findByChurch(church)));
+        assertThat(summary.donationCount()).isEqualTo(DONATIONS);
+    }
+
+    @Test
+    @DisplayName("Date range summary should match the in-memory computation over the range")
+    void dateRangeSummaryMatchesInMemory() {
+        LocalDate start = FIRST_DAY.plusDays(50);
+        LocalDate end = FIRST_DAY.plusDays(120);
+
+        DonationSummaryResponse summary = donationService.getDonationSummaryByDateRange(churchId, start, end);
+
+        assertThat(summary).isEqualTo(legacySummary(donationRepository.findByChurchAndDateRange(church, start, end)));
+        assertThat(donationService.getDonationSummaryByDateRange(churchId, FIRST_DAY.minusYears(5), FIRST_DAY.minusYears(4)))
+            .isEqualTo(new DonationSummaryResponse(BigDecimal.ZERO, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0L, 0L));
+    }
+
+    @Test
+    @DisplayName("Monthly trend should cover every month, including partial and empty ones, with totals by type")
+    void monthlyTrend() {
+        LocalDate start = FIRST_DAY.plusDays(10);
+        LocalDate end = FIRST_DAY.plusDays(DAYS + 40); // past the last donation
+        List<Donation> donations = donationRepository.findByChurchAndDateRange(church, start, end);
+
+        GivingTrendResponse trend = donationService.getGivingTrend(churchId, start, end, GivingInterval.MONTH);
+
+        assertThat(trend.buckets()).hasSize(15);
+        GivingBucketResponse first = trend.buckets().get(0);
+        assertThat(first.periodStart()).isEqualTo(start);
+        assertThat(first.periodEnd()).isEqualTo(LocalDate.of(2024, 1, 31));
+        assertThat(trend.buckets().get(trend.buckets().size() - 1).periodEnd()).isEqualTo(end);
+        assertThat(trend.buckets().get(trend.buckets().size() - 1).donationCount()).isZero();
+
+        for (GivingBucketResponse bucket : trend.buckets()) {
+            assertBucketMatches(bucket, donations, d -> !d.getDonationDate().isBefore(bucket.periodStart())
+                && !d.getDonationDate().isAfter(bucket.periodEnd()));
+        }
+        assertThat(trend.donationCount()).isEqualTo(donations.size());
+        assertThat(trend.totalAmount()).isEqualByComparingTo(sum(donations));
+        assertThat(trend.byType()).isEqualTo(byType(donations));
+    }
+
+    @Test
+    @DisplayName("Weekly and daily trends should bucket by Monday-start weeks and by day")
+    void weeklyAndDailyTrends() {
+        LocalDate start = LocalDate.of(2024, 3, 6); // a Wednesday
+        LocalDate end = LocalDate.of(2024, 5, 1);
+        List<Donation> donations = donationRepository.findByChurchAndDateRange(church, start, end);
+
+        GivingTrendResponse weekly = donationService.getGivingTrend(churchId, start, end, GivingInterval.WEEK);
+        GivingTrendResponse daily = donationService.getGivingTrend(churchId, start, end, GivingInterval.DAY);
+
+        assertThat(weekly.buckets()).hasSize(9);
+        assertThat(weekly.buckets().get(0).periodStart()).isEqualTo(start);
+        assertThat(weekly.buckets().get(0).periodEnd()).isEqualTo(LocalDate.of(2024, 3, 10));
+        assertThat(weekly.buckets().get(1).periodStart().getDayOfWeek()).isEqualTo(DayOfWeek.MONDAY);
+        assertThat(daily.buckets()).hasSize(57);
+        for (GivingBucketResponse bucket : weekly.buckets()) {
+            assertBucketMatches(bucket, donations, d -> !d.getDonationDate().isBefore(bucket.periodStart())
+                && !d.getDonationDate().isAfter(bucket.periodEnd()));
+        }
+        for (GivingBucketResponse bucket : daily.buckets()) {
+            assertThat(bucket.periodStart()).isEqualTo(bucket.periodEnd());
+            assertBucketMatches(bucket, donations, d -> d.getDonationDate().equals(bucket.periodStart()));
+        }
+        assertThat(weekly.totalAmount()).isEqualByComparingTo(daily.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Totals by type should match the in-memory grouping")
+    void totalsByType() {
+        LocalDate start = FIRST_DAY;
+        LocalDate end = FIRST_DAY.plusDays(DAYS);
+
+        List<GivingTypeTotal> totals = donationService.getGivingByType(churchId, start, end);
+
+        assertThat(totals).isEqualTo(byType(donationRepository.findByChurchAndDateRange(church, start, end)));
+    }
+
+    @Test
+    @DisplayName("Should reject reversed ranges and ranges with too many buckets")
+    void rejectsBadRanges() {
+        assertThatThrownBy(() -> donationService.getGivingTrend(churchId, FIRST_DAY, FIRST_DAY.minusDays(1), GivingInterval.DAY))
+            .isInstanceOf(IllegalArgumentException.class);
+        SqlStatementCounter.reset();
+        assertThatThrownBy(() -> donationService.getGivingTrend(churchId, FIRST_DAY, FIRST_DAY.plusYears(10), GivingInterval.DAY))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(SqlStatementCounter.get()).isZero();
+        assertThat(donationService.getGivingTrend(churchId, FIRST_DAY, FIRST_DAY.plusYears(10), GivingInterval.MONTH).buckets())
+            .hasSize(121);
+    }
+
+    @Test
+    @MaxSqlStatements(6)
+    @DisplayName("Summaries and trends should issue a fixed number of statements regardless of data volume")
+    void staysWithinSqlBudget() {
+        LocalDate end = FIRST_DAY.plusDays(DAYS);
+
+        donationService.getDonationSummary(churchId);
+        donationService.getGivingTrend(churchId, FIRST_DAY, end, GivingInterval.WEEK);
+        donationService.getGivingByType(churchId, FIRST_DAY, end);
+    }
+
+    private void assertBucketMatches(GivingBucketResponse bucket, List<Donation> donations, Predicate<Donation> inBucket) {
+        List<Donation> expected = donations.stream().filter(inBucket).toList();
+        assertThat(bucket.donationCount()).as("count for %s", bucket.periodStart()).isEqualTo(expected.size());
+        assertThat(bucket.totalAmount()).as("total for %s", bucket.periodStart()).isEqualByComparingTo(sum(expected));
+        assertThat(bucket.byType()).as("types for %s", bucket.periodStart()).isEqualTo(byType(expected));
+    }
+
+    private static BigDecimal sum(List<Donation> donations) {
+        return donations.stream().map(Donation::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static List<GivingTypeTotal> byType(List<Donation> donations) {
+        Map<DonationType, List<Donation>> grouped = donations.stream().collect(Collectors.groupingBy(Donation::getDonationType));
+        return grouped.entrySet().stream()
+            .map(e -> new GivingTypeTotal(e.getKey(), sum(e.getValue()), (long) e.getValue().size()))
+            .sorted((a, b) -> {
+                int byAmount = b.totalAmount().compareTo(a.totalAmount());
+                return byAmount != 0 ? byAmount : a.donationType().compareTo(b.donationType());
+            })
+            .toList();
+    }
+
+    /**
+     * What getDonationSummary computed before it moved to SQL.
+     */
+    private static DonationSummaryResponse legacySummary(List<Donation> donations) {
+        if (donations.isEmpty()) {
+            return new DonationSummaryResponse(BigDecimal.ZERO, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0L, 0L);
+        }
+        BigDecimal total = sum(donations);
+        long count = donations.size();
+        return new DonationSummaryResponse(
+            total,
+            count,
+            total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP),
+            donations.stream().map(Donation::getAmount).max(BigDecimal::compareTo).orElse(BigDecimal.ZERO),
+            donations.stream().map(Donation::getAmount).min(BigDecimal::compareTo).orElse(BigDecimal.ZERO),
+            donations.stream().map(Donation::getMember).filter(Objects::nonNull).map(Member::getId).distinct().count(),
+            donations.stream().filter(Donation::getIsAnonymous).count());
+    }
+
+    private void seed(Church target, int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member();
+            member.setFirstName("Giver" + i);
+            member.setLastName("Summary");
+            member.setPhoneNumber("+23324" + String.format("%07d", target.getId() * 100 + i));
+            member.setSex(i % 2 == 0 ? "Male" : "Female");
+            member.setChurch(target);
+            member.setIsVerified(true);
+            member.setStatus(MemberStatus.MEMBER);
+            members.add(member);
+        }
+        members = memberRepository.saveAll(members);
+
+        DonationType[] types = DonationType.values();
+        PaymentMethod[] methods = PaymentMethod.values();
+        List<Donation> donations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int seed = i * 7919;
+            Donation donation = new Donation();
+            donation.setChurch(target);
+            boolean anonymous = i % 9 == 0;
+            donation.setIsAnonymous(anonymous);
+            donation.setMember(anonymous || i % 13 == 0 ? null : members.get(seed % MEMBERS));
+            donation.setAmount(BigDecimal.valueOf(500 + seed % 99_500, 2));
+            donation.setDonationDate(FIRST_DAY.plusDays(seed % DAYS));
+            donation.setDonationType(types[(i / 3) % types.length]);
+            donation.setPaymentMethod(methods[i % methods.length]);
+            donations.add(donation);
+        }
+        donationRepository.saveAll(donations);
+    }
+}
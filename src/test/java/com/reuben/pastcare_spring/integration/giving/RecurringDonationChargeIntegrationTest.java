@@ -0,0 +1,309 @@
+package com.reuben.pastcare_spring.integration.giving;
+
+import com.reuben.pastcare_spring.config.PaystackConfig;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.DonationType;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.models.PaymentTransaction;
+import com.reuben.pastcare_spring.models.PaymentTransactionStatus;
+import com.reuben.pastcare_spring.models.RecurringDonation;
+import com.reuben.pastcare_spring.models.RecurringDonationStatus;
+import com.reuben.pastcare_spring.models.RecurringFrequency;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.repositories.PaymentTransactionRepository;
+import com.reuben.pastcare_spring.repositories.RecurringDonationRepository;
+import com.reuben.pastcare_spring.services.RecurringDonationChargeService;
+import com.reuben.pastcare_spring.services.RecurringDonationChargeService.ChargeReport;
+import com.reuben.pastcare_spring.testutil.FakePaystackServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recurring donation charging against a local fake Paystack server (real HTTP, injected latency
+ * and failures).
+ *
+ * Covers a large multi-church run, exactly-once charging across concurrent runs, fairness between
+ * a large church and small ones, retry scheduling after declines and gateway errors, and
+ * donations that fell behind schedule.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:giving")
+@DisplayName("Recurring Donation Charge Integration Tests")
+@Slf4j
+class RecurringDonationChargeIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDateTime NOW = TODAY.atTime(9, 0);
+    private static final String AUTH_OK = "AUTH_ok";
+    private static final String AUTH_DECLINED = "AUTH_declined";
+    private static final String AUTH_ERROR = "AUTH_error";
+
+    @Autowired
+    private RecurringDonationChargeService chargeService;
+
+    @Autowired
+    private RecurringDonationRepository recurringDonationRepository;
+
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PaystackConfig paystackConfig;
+
+    private FakePaystackServer paystack;
+    private String originalBaseUrl;
+    private static int churchCounter;
+    private static int memberCounter;
+
+    @BeforeEach
+    void startPaystack() {
+        paystack = FakePaystackServer.start();
+        originalBaseUrl = paystackConfig.getBaseUrl();
+        paystackConfig.setBaseUrl(paystack.baseUrl());
+
+        // Donations left due by other tests would be picked up by these runs
+        List<RecurringDonation> leftovers = recurringDonationRepository.findAll().stream()
+            .filter(donation -> donation.getStatus() == RecurringDonationStatus.ACTIVE)
+            .toList();
+        leftovers.forEach(donation -> donation.setStatus(RecurringDonationStatus.CANCELLED));
+        recurringDonationRepository.saveAll(leftovers);
+    }
+
+    @AfterEach
+    void stopPaystack() {
+        paystackConfig.setBaseUrl(originalBaseUrl);
+        paystack.close();
+    }
+
+    @Test
+    @DisplayName("Should charge thousands of due donations across churches exactly once")
+    void shouldChargeManyDonationsOnce() {
+        int churches = 30;
+        int perChurch = 100;
+        List<RecurringDonation> due = new ArrayList<>();
+        for (int i = 0; i < churches; i++) {
+            due.addAll(seedDue(newChurch(), perChurch, AUTH_OK));
+        }
+        paystack.setLatency(Duration.ofMillis(10));
+
+        ChargeReport report = chargeService.chargeDue(NOW, 8);
+
+        log.info("{} recurring charges across {} churches at 10 ms gateway latency: {} ms (peak {} concurrent charges)",
+            churches * perChurch, churches, report.elapsedMs(), paystack.peakConcurrency());
+
+        assertThat(report.claimed()).isEqualTo(churches * perChurch);
+        assertThat(report.charged()).isEqualTo(churches * perChurch);
+        assertThat(report.gatewayCalls()).isEqualTo(churches * perChurch);
+        assertThat(paystack.chargeRequests()).isEqualTo(churches * perChurch);
+        assertThat(new HashSet<>(paystack.chargeOrder())).hasSize(churches * perChurch);
+        assertThat(paystack.peakConcurrency()).isBetween(2, 8);
+        assertThat(chargeService.chargeDue(NOW, 8).claimed()).isZero();
+
+        RecurringDonation sample = reload(due.get(0));
+        assertThat(sample.getTotalPayments()).isEqualTo(1);
+        assertThat(sample.getNextChargeDate()).isEqualTo(TODAY.plusMonths(1));
+        assertThat(sample.getNextAttemptAt()).isEqualTo(TODAY.plusMonths(1).atStartOfDay());
+        assertThat(sample.getChargeClaimedBy()).isNull();
+    }
+
+    @Test
+    @DisplayName("Concurrent runs should split the due donations without double-charging")
+    void concurrentRunsChargeOnce() {
+        List<RecurringDonation> due = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            due.addAll(seedDue(newChurch(), 30, AUTH_OK));
+        }
+        paystack.setLatency(Duration.ofMillis(10));
+
+        CompletableFuture<ChargeReport> a = CompletableFuture.supplyAsync(() -> chargeService.chargeDue(NOW, 4));
+        CompletableFuture<ChargeReport> b = CompletableFuture.supplyAsync(() -> chargeService.chargeDue(NOW, 4));
+        ChargeReport reportA = a.join();
+        ChargeReport reportB = b.join();
+
+        assertThat(reportA.claimed() + reportB.claimed()).isEqualTo(due.size());
+        assertThat(reportA.charged() + reportB.charged()).isEqualTo(due.size());
+        assertThat(paystack.chargeRequests()).isEqualTo(due.size());
+        due.forEach(donation -> assertThat(paystack.chargesFor(RecurringDonationChargeService.chargeReference(donation))).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("A large church should not delay the charges of small churches")
+    void smallChurchesAreNotStarved() {
+        seedDue(newChurch(), 200, AUTH_OK);
+        List<String> smallChurchReferences = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            seedDue(newChurch(), 3, AUTH_OK).forEach(donation ->
+                smallChurchReferences.add(RecurringDonationChargeService.chargeReference(donation)));
+        }
+        paystack.setLatency(Duration.ofMillis(20));
+
+        ChargeReport report = chargeService.chargeDue(NOW, 4);
+
+        assertThat(report.charged()).isEqualTo(215);
+        // Every small church is done while most of the large church's charges are still waiting
+        assertThat(paystack.chargeOrder().subList(0, 30)).containsAll(smallChurchReferences);
+    }
+
+    @Test
+    @DisplayName("A donation that fell behind should be charged once and move to the next future period")
+    void behindScheduleChargesOnce() {
+        RecurringDonation donation = seedDue(newChurch(), 1, AUTH_OK).get(0);
+        donation.setNextChargeDate(TODAY.minusMonths(4));
+        donation.setNextAttemptAt(TODAY.minusMonths(4).atStartOfDay());
+        recurringDonationRepository.save(donation);
+
+        ChargeReport report = chargeService.chargeDue(NOW, 2);
+
+        assertThat(report.charged()).isEqualTo(1);
+        RecurringDonation charged = reload(donation);
+        assertThat(charged.getTotalPayments()).isEqualTo(1);
+        assertThat(charged.getNextChargeDate()).isAfter(TODAY);
+        assertThat(charged.getNextChargeDate()).isEqualTo(RecurringFrequency.MONTHLY.firstDateAfter(TODAY.minusMonths(4), TODAY));
+        // The hourly pass finds nothing more to charge until then
+        assertThat(chargeService.chargeDue(NOW.plusHours(1), 2).claimed()).isZero();
+        assertThat(chargeService.chargeDue(NOW.plusDays(1), 2).claimed()).isZero();
+        assertThat(paystack.chargeRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A decline should schedule a backed-off retry with a new reference")
+    void declineSchedulesBackedOffRetry() {
+        RecurringDonation donation = seedDue(newChurch(), 1, AUTH_DECLINED).get(0);
+        paystack.declineAuthorization(AUTH_DECLINED);
+        String firstReference = RecurringDonationChargeService.chargeReference(donation);
+
+        ChargeReport first = chargeService.chargeDue(NOW, 2);
+
+        assertThat(first.failed()).isEqualTo(1);
+        RecurringDonation declined = reload(donation);
+        assertThat(declined.getStatus()).isEqualTo(RecurringDonationStatus.ACTIVE);
+        assertThat(declined.getConsecutiveFailures()).isEqualTo(1);
+        assertThat(declined.getNextChargeDate()).isEqualTo(TODAY);
+        assertThat(declined.getNextAttemptAt()).isEqualTo(NOW.plusMinutes(paystackConfig.getInitialRetryDelayMinutes()));
+        PaymentTransaction failed = paymentTransactionRepository.findByPaymentReference(firstReference).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(PaymentTransactionStatus.FAILED);
+        assertThat(failed.getRetryCount()).isEqualTo(1);
+
+        // Not due again until the backoff has passed
+        assertThat(chargeService.chargeDue(NOW.plusMinutes(1), 2).claimed()).isZero();
+
+        paystack.clearFailures();
+        ChargeReport retry = chargeService.chargeDue(declined.getNextAttemptAt(), 2);
+
+        assertThat(retry.charged()).isEqualTo(1);
+        String retryReference = RecurringDonationChargeService.chargeReference(declined);
+        assertThat(retryReference).isNotEqualTo(firstReference);
+        assertThat(paystack.chargesFor(retryReference)).isEqualTo(1);
+        RecurringDonation charged = reload(donation);
+        assertThat(charged.getConsecutiveFailures()).isZero();
+        assertThat(charged.getNextChargeDate()).isEqualTo(TODAY.plusMonths(1));
+    }
+
+    @Test
+    @DisplayName("A gateway error should leave the charge pending and verify it before charging again")
+    void gatewayErrorIsVerifiedBeforeRetry() {
+        RecurringDonation donation = seedDue(newChurch(), 1, AUTH_ERROR).get(0);
+        paystack.failAuthorization(AUTH_ERROR);
+        String reference = RecurringDonationChargeService.chargeReference(donation);
+
+        ChargeReport first = chargeService.chargeDue(NOW, 2);
+
+        assertThat(first.deferred()).isEqualTo(1);
+        assertThat(paymentTransactionRepository.findByPaymentReference(reference))
+            .get().extracting(PaymentTransaction::getStatus).isEqualTo(PaymentTransactionStatus.PROCESSING);
+        RecurringDonation pending = reload(donation);
+        assertThat(pending.getConsecutiveFailures()).isZero();
+        assertThat(pending.getNextAttemptAt()).isAfter(NOW);
+
+        paystack.clearFailures();
+        ChargeReport retry = chargeService.chargeDue(pending.getNextAttemptAt(), 2);
+
+        assertThat(retry.charged()).isEqualTo(1);
+        assertThat(paystack.verifyRequests()).isEqualTo(1);
+        assertThat(paystack.chargesFor(reference)).isEqualTo(1);
+        assertThat(paymentTransactionRepository.findByPaymentReference(reference))
+            .get().extracting(PaymentTransaction::getStatus).isEqualTo(PaymentTransactionStatus.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("A rate-limited verification should defer the charge instead of charging again")
+    void rejectedVerificationDefersCharge() {
+        RecurringDonation donation = seedDue(newChurch(), 1, AUTH_ERROR).get(0);
+        paystack.failAuthorization(AUTH_ERROR);
+        String reference = RecurringDonationChargeService.chargeReference(donation);
+        chargeService.chargeDue(NOW, 2);
+        LocalDateTime retryAt = reload(donation).getNextAttemptAt();
+
+        paystack.clearFailures();
+        paystack.rejectVerification(429);
+        ChargeReport rejected = chargeService.chargeDue(retryAt, 2);
+
+        assertThat(rejected.deferred()).isEqualTo(1);
+        assertThat(paystack.chargeRequests()).isEqualTo(1); // only the first, failed attempt
+        assertThat(paymentTransactionRepository.findByPaymentReference(reference))
+            .get().extracting(PaymentTransaction::getStatus).isEqualTo(PaymentTransactionStatus.PROCESSING);
+        assertThat(reload(donation).getConsecutiveFailures()).isZero();
+    }
+
+    private Church newChurch() {
+        Long churchId = createTestChurchWithoutSubscription("Recurring Giving Church " + (++churchCounter));
+        return churchRepository.findById(churchId).orElseThrow();
+    }
+
+    private List<RecurringDonation> seedDue(Church church, int count, String authorizationCode) {
+        Member member = new Member();
+        member.setFirstName("Giver" + (++memberCounter));
+        member.setLastName("Recurring");
+        member.setPhoneNumber("+2339" + String.format("%08d", memberCounter));
+        member.setEmail("giver" + memberCounter + "@example.com");
+        member.setSex("Female");
+        member.setChurch(church);
+        member.setIsVerified(false);
+        member.setStatus(MemberStatus.MEMBER);
+        Member savedMember = memberRepository.save(member);
+
+        List<RecurringDonation> donations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RecurringDonation donation = new RecurringDonation();
+            donation.setChurch(church);
+            donation.setMember(savedMember);
+            donation.setAmount(new BigDecimal("50.00"));
+            donation.setDonationType(DonationType.TITHE);
+            donation.setFrequency(RecurringFrequency.MONTHLY);
+            donation.setStatus(RecurringDonationStatus.ACTIVE);
+            donation.setStartDate(TODAY.minusMonths(1));
+            donation.setNextChargeDate(TODAY);
+            donation.setNextAttemptAt(TODAY.atStartOfDay());
+            donation.setPaystackAuthorizationCode(authorizationCode);
+            donations.add(donation);
+        }
+        return recurringDonationRepository.saveAll(donations);
+    }
+
+    private RecurringDonation reload(RecurringDonation donation) {
+        return recurringDonationRepository.findById(donation.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,268 @@
+package com.reuben.pastcare_spring.integration.members;
+
+import com.reuben.pastcare_spring.dtos.MemberBulkUpdateRequest;
+import com.reuben.pastcare_spring.dtos.MemberBulkUpdateResponse;
+import com.reuben.pastcare_spring.dtos.MemberRequest;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.metrics.SqlStatementCounter;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Fellowship;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.repositories.FellowshipRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.security.TenantContext;
+import com.reuben.pastcare_spring.services.FellowshipAnalyticsService;
+import com.reuben.pastcare_spring.services.MemberService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Set-based bulk member update/delete.
+ *
+ * Not transactional: each chunk commits in its own transaction.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:members")
+@DisplayName("Member Bulk Operations Integration Tests")
+@Slf4j
+class MemberBulkOperationsIntegrationTest extends BaseIntegrationTest {
+
+    private static final int LARGE_BATCH = 10_000;
+
+    // Phone numbers are unique across churches, and tests here share one database
+    private static final AtomicInteger PHONE_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private FellowshipRepository fellowshipRepository;
+
+    @Autowired
+    private FellowshipAnalyticsService fellowshipAnalyticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long churchId;
+    private Church church;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        churchId = createTestChurch("Bulk Members Church " + System.nanoTime());
+        church = churchRepository.findById(churchId).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should tag 10k members with a fixed number of statements per chunk")
+    void shouldTagLargeBatch() {
+        List<Long> memberIds = createMembers(LARGE_BATCH);
+
+        // Count only the bulk update, not seeding the members
+        SqlStatementCounter.reset();
+        long start = System.nanoTime();
+        MemberBulkUpdateResponse response = memberService.bulkUpdateMembers(
+            tagRequest(memberIds, MemberBulkUpdateRequest.ActionType.ADD, Set.of("choir")), churchId);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long statements = SqlStatementCounter.get();
+        log.info("Tagged {} members in {} ms ({} chunks, {} statements)",
+            LARGE_BATCH, elapsedMs, response.chunks().size(), statements);
+
+        assertThat(statements).isLessThanOrEqualTo(40);
+
+        assertThat(response.successCount()).isEqualTo(LARGE_BATCH);
+        assertThat(response.failureCount()).isZero();
+        assertThat(response.chunks()).hasSize(10);
+        assertThat(response.updatedMembers()).isEmpty();
+        assertThat(countTagged("choir")).isEqualTo(LARGE_BATCH);
+    }
+
+    @Test
+    @DisplayName("Should not duplicate existing tags and should report foreign and missing members")
+    void shouldAddTagsIdempotently() {
+        List<Long> memberIds = createMembers(3);
+        Long otherChurchId = createTestChurch("Other Bulk Church " + System.nanoTime());
+        Member foreign = newMember(churchRepository.findById(otherChurchId).orElseThrow(), 0);
+        Long foreignId = memberRepository.save(foreign).getId();
+
+        memberService.bulkUpdateMembers(tagRequest(memberIds, MemberBulkUpdateRequest.ActionType.ADD, Set.of("youth")), churchId);
+
+        List<Long> requested = new ArrayList<>(memberIds);
+        requested.add(foreignId);
+        requested.add(-1L);
+        MemberBulkUpdateResponse response = memberService.bulkUpdateMembers(
+            tagRequest(requested, MemberBulkUpdateRequest.ActionType.ADD, Set.of("youth")), churchId);
+
+        assertThat(response.successCount()).isEqualTo(3);
+        assertThat(response.failureCount()).isEqualTo(2);
+        assertThat(response.errors()).extracting(MemberBulkUpdateResponse.UpdateError::errorMessage)
+            .containsExactly("Member does not belong to your church", "Member not found: -1");
+        assertThat(response.updatedMembers()).hasSize(3)
+            .allSatisfy(m -> assertThat(m.tags()).containsExactly("youth"));
+        assertThat(countTagged("youth")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should update scalar fields and recalculate profile completeness")
+    void shouldUpdateFieldsAndCompleteness() {
+        List<Long> memberIds = createMembers(2);
+
+        MemberBulkUpdateResponse response = memberService.bulkUpdateMembers(new MemberBulkUpdateRequest(
+            memberIds, null, null, "leader", true, "Married"), churchId);
+
+        assertThat(response.successCount()).isEqualTo(2);
+        for (Member member : memberRepository.findAllById(memberIds)) {
+            assertThat(member.getStatus()).isEqualTo(MemberStatus.LEADER);
+            assertThat(member.getIsVerified()).isTrue();
+            assertThat(member.getMaritalStatus()).isEqualTo("Married");
+            // first name, last name, phone, sex, marital status: 5 of 15 fields
+            assertThat(member.getProfileCompleteness()).isEqualTo(33);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail every member when the status is invalid")
+    void shouldRejectInvalidStatus() {
+        List<Long> memberIds = createMembers(2);
+
+        MemberBulkUpdateResponse response = memberService.bulkUpdateMembers(new MemberBulkUpdateRequest(
+            memberIds, null, null, "bogus", null, null), churchId);
+
+        assertThat(response.successCount()).isZero();
+        assertThat(response.errors()).extracting(MemberBulkUpdateResponse.UpdateError::errorMessage)
+            .containsOnly("Invalid status: bogus");
+    }
+
+    @Test
+    @DisplayName("Should delete members together with their tags and spouse links")
+    @SuppressWarnings("unchecked")
+    void shouldDeleteMembersAndDependents() {
+        List<Long> memberIds = createMembers(4);
+        memberService.bulkUpdateMembers(tagRequest(memberIds, MemberBulkUpdateRequest.ActionType.ADD, Set.of("bulk")), churchId);
+        Member survivor = newMember(church, 99);
+        survivor.setSpouse(memberRepository.findById(memberIds.get(0)).orElseThrow());
+        Long survivorId = memberRepository.save(survivor).getId();
+
+        Map<String, Object> result = memberService.bulkDeleteMembers(memberIds, churchId);
+
+        assertThat(result.get("successCount")).isEqualTo(4);
+        assertThat((List<Map<String, Object>>) result.get("errors")).isEmpty();
+        assertThat((List<?>) result.get("chunks")).hasSize(1);
+        assertThat(memberRepository.findAllById(memberIds)).isEmpty();
+        assertThat(countTagged("bulk")).isZero();
+        assertThat(memberRepository.findById(survivorId).orElseThrow().getSpouse()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should drop cached fellowship stats when bulk operations change memberships")
+    void shouldInvalidateFellowshipStats() {
+        Fellowship fellowship = new Fellowship();
+        fellowship.setName("Bulk Choir");
+        fellowship.setChurch(church);
+        Long fellowshipId = fellowshipRepository.save(fellowship).getId();
+        List<Long> memberIds = createMembers(3);
+        assertThat(fellowshipAnalyticsService.getStats(churchId).get(fellowshipId).memberCount()).isZero();
+
+        memberService.bulkUpdateMembers(new MemberBulkUpdateRequest(memberIds,
+            new MemberBulkUpdateRequest.UpdateAction<>(MemberBulkUpdateRequest.ActionType.ADD, List.of(fellowshipId)),
+            null, null, null, null), churchId);
+        assertThat(fellowshipAnalyticsService.getStats(churchId).get(fellowshipId).memberCount()).isEqualTo(3);
+
+        memberService.bulkDeleteMembers(memberIds.subList(0, 2), churchId);
+        assertThat(fellowshipAnalyticsService.getStats(churchId).get(fellowshipId).memberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop cached fellowship stats when a single member's fellowships change")
+    void shouldInvalidateFellowshipStatsOnMemberEdits() {
+        Fellowship fellowship = new Fellowship();
+        fellowship.setName("Single Choir");
+        fellowship.setChurch(church);
+        Long fellowshipId = fellowshipRepository.save(fellowship).getId();
+        assertThat(fellowshipAnalyticsService.getStats(churchId).get(fellowshipId).memberCount()).isZero();
+
+        String phone = "+23327" + String.format("%07d", PHONE_SEQUENCE.incrementAndGet());
+        TenantContext.setCurrentChurchId(churchId);
+        try {
+            Long memberId = memberService.createMember(memberRequest(phone, List.of(fellowshipId))).id();
+            assertThat(fellowshipAnalyticsService.getStats(churchId).get(fellowshipId).memberCount()).isEqualTo(1);
+
+            // Requests edit members inside an open session; tests need a transaction for the lazy collection
+            transaction.executeWithoutResult(status -> memberService.updateMember(memberId, memberRequest(phone, List.of())));
+            assertThat(fellowshipAnalyticsService.getStats(churchId).get(fellowshipId).memberCount()).isZero();
+
+            transaction.executeWithoutResult(status -> memberService.updateMember(memberId, memberRequest(phone, List.of(fellowshipId))));
+            assertThat(fellowshipAnalyticsService.getStats(churchId).get(fellowshipId).memberCount()).isEqualTo(1);
+
+            transaction.executeWithoutResult(status -> memberService.deleteMember(memberId));
+            assertThat(fellowshipAnalyticsService.getStats(churchId).get(fellowshipId).memberCount()).isZero();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private MemberRequest memberRequest(String phone, List<Long> fellowshipIds) {
+        return new MemberRequest(null, "Single", null, "Member", null, "Female", churchId, fellowshipIds,
+            null, "GH", "Africa/Accra", phone,
+            null, null, null, null, null, null, "single", null, null, null, null, null, null,
+            null, null, null, null, null, null, null, null);
+    }
+
+    private MemberBulkUpdateRequest tagRequest(List<Long> memberIds, MemberBulkUpdateRequest.ActionType action,
+                                               Set<String> tags) {
+        return new MemberBulkUpdateRequest(memberIds, null,
+            new MemberBulkUpdateRequest.UpdateAction<>(action, tags), null, null, null);
+    }
+
+    private List<Long> createMembers(int count) {
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(newMember(church, i));
+        }
+        return memberRepository.saveAll(members).stream().map(Member::getId).toList();
+    }
+
+    private Member newMember(Church church, int i) {
+        Member member = new Member();
+        member.setFirstName("Member" + i);
+        member.setLastName("Bulk");
+        member.setPhoneNumber("+23327" + String.format("%07d", PHONE_SEQUENCE.incrementAndGet()));
+        member.setSex(i % 2 == 0 ? "Male" : "Female");
+        member.setChurch(church);
+        member.setIsVerified(false);
+        member.setStatus(MemberStatus.MEMBER);
+        return member;
+    }
+
+    private long countTagged(String tag) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM member_tags t JOIN member m ON m.id = t.member_id WHERE m.church_id = ? AND t.tag = ?",
+            Long.class, churchId, tag);
+    }
+}
@@ -0,0 +1,143 @@
+package com.reuben.pastcare_spring.integration.pastoral;
+
+import com.reuben.pastcare_spring.enums.AttendanceStatus;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.Attendance;
+import com.reuben.pastcare_spring.models.AttendanceSession;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberRisk;
+import com.reuben.pastcare_spring.models.MemberRiskSnapshot;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.repositories.AttendanceRepository;
+import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
+import com.reuben.pastcare_spring.repositories.MemberEngagementRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.repositories.MemberRiskSnapshotRepository;
+import com.reuben.pastcare_spring.services.MemberRiskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Member risk snapshot over attendance that has no engagement rows yet,
+ * as right after the engagement table was introduced.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:pastoral")
+@DisplayName("Member Risk Integration Tests")
+class MemberRiskIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MemberRiskService memberRiskService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private AttendanceSessionRepository sessionRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MemberEngagementRepository engagementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberRiskSnapshotRepository snapshotRepository;
+
+    private Long churchId;
+    private Member regular;
+    private Member absentee;
+    private AttendanceSession session;
+
+    @BeforeEach
+    void setUp() {
+        churchId = createTestChurch("Member Risk Church " + System.nanoTime());
+        Church church = churchRepository.findById(churchId).orElseThrow();
+        regular = memberRepository.save(newMember(church, "Regular", 1));
+        absentee = memberRepository.save(newMember(church, "Absentee", 2));
+        // Brand-new members are too new to judge
+        jdbcTemplate.update("UPDATE member SET created_at = ? WHERE church_id = ?",
+            Timestamp.from(Instant.now().minus(60, ChronoUnit.DAYS)), churchId);
+
+        // Recorded straight to the table, so no engagement row is built
+        session = new AttendanceSession();
+        session.setChurch(church);
+        session.setSessionName("Sunday Service");
+        session.setSessionDate(LocalDate.now().minusDays(3));
+        session.setIsCompleted(true);
+        session = sessionRepository.save(session);
+
+        markPresent(regular);
+    }
+
+    @Test
+    @DisplayName("Should backfill engagement before scoring so recent attenders aren't suggested for care")
+    void backfillsEngagementBeforeFirstSnapshot() {
+        assertThat(engagementRepository.findByMemberId(regular.getId())).isEmpty();
+
+        List<MemberRisk> suggestions = memberRiskService.getCareSuggestions(churchId);
+
+        assertThat(suggestions).extracting(r -> r.getMember().getId()).containsExactly(absentee.getId());
+        assertThat(engagementRepository.findByMemberId(regular.getId())).hasValueSatisfying(e ->
+            assertThat(e.getLastAttendedDate()).isEqualTo(LocalDate.now().minusDays(3)));
+    }
+
+    @Test
+    @DisplayName("Should not recompute a current snapshot that has no members at risk")
+    void reusesEmptySnapshotUntilStale() {
+        markPresent(absentee);
+
+        assertThat(memberRiskService.getCareSuggestions(churchId)).isEmpty();
+        MemberRiskSnapshot computed = snapshotRepository.findById(churchId).orElseThrow();
+        assertThat(computed.getComputedFor()).isEqualTo(LocalDate.now());
+        assertThat(computed.getAtRiskCount()).isZero();
+
+        assertThat(memberRiskService.getCareSuggestions(churchId)).isEmpty();
+        assertThat(snapshotRepository.findById(churchId).orElseThrow().getComputedAt())
+            .isEqualTo(computed.getComputedAt());
+
+        // Yesterday's snapshot (the nightly job hasn't run) is recomputed
+        jdbcTemplate.update("UPDATE member_risk_snapshot SET computed_for = ? WHERE church_id = ?",
+            LocalDate.now().minusDays(1), churchId);
+        memberRiskService.getCareSuggestions(churchId);
+        assertThat(snapshotRepository.findById(churchId).orElseThrow().getComputedFor()).isEqualTo(LocalDate.now());
+    }
+
+    private void markPresent(Member member) {
+        Attendance attendance = new Attendance();
+        attendance.setMember(member);
+        attendance.setAttendanceSession(session);
+        attendance.setStatus(AttendanceStatus.PRESENT);
+        attendanceRepository.save(attendance);
+    }
+
+    private Member newMember(Church church, String firstName, int index) {
+        Member member = new Member();
+        member.setFirstName(firstName);
+        member.setLastName("Risk");
+        member.setPhoneNumber("+23328" + String.format("%07d", churchId * 10 + index));
+        member.setSex("Female");
+        member.setChurch(church);
+        member.setIsVerified(true);
+        member.setStatus(MemberStatus.MEMBER);
+        return member;
+    }
+}
@@ -0,0 +1,324 @@
+package com.reuben.pastcare_spring.integration.persistence;
+
+import com.reuben.pastcare_spring.dtos.AttendanceRequest;
+import com.reuben.pastcare_spring.dtos.BulkAttendanceRequest;
+import com.reuben.pastcare_spring.dtos.BulkCrisisAffectedMembersRequest;
+import com.reuben.pastcare_spring.dtos.CrisisAffectedMemberResponse;
+import com.reuben.pastcare_spring.enums.AttendanceStatus;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.Attendance;
+import com.reuben.pastcare_spring.models.AttendanceSession;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Crisis;
+import com.reuben.pastcare_spring.models.CrisisSeverity;
+import com.reuben.pastcare_spring.models.CrisisType;
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.models.EventLocationType;
+import com.reuben.pastcare_spring.models.EventRegistration;
+import com.reuben.pastcare_spring.models.EventType;
+import com.reuben.pastcare_spring.models.Fellowship;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.models.RegistrationStatus;
+import com.reuben.pastcare_spring.models.User;
+import com.reuben.pastcare_spring.persistence.BulkWriter;
+import com.reuben.pastcare_spring.repositories.AttendanceRepository;
+import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
+import com.reuben.pastcare_spring.repositories.CrisisRepository;
+import com.reuben.pastcare_spring.repositories.EventRegistrationRepository;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import com.reuben.pastcare_spring.repositories.FellowshipRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.security.TenantContext;
+import com.reuben.pastcare_spring.services.AttendanceService;
+import com.reuben.pastcare_spring.services.CrisisService;
+import com.reuben.pastcare_spring.services.EventReminderService;
+import com.reuben.pastcare_spring.services.FellowshipService;
+import com.reuben.pastcare_spring.services.MemberService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bulk mutation paths built on {@link BulkWriter}: rows written, duplicates skipped,
+ * and how far a bad row's failure reaches.
+ *
+ * Not transactional: the services commit as they would for a request.
+ */
+@SpringBootTest
+@Tag("integration")
+@Tag("module:persistence")
+@DisplayName("BulkWriter Integration Tests")
+class BulkWriterIntegrationTest extends BaseIntegrationTest {
+
+    // Phone numbers are unique across churches, and tests here share one database
+    private static final AtomicInteger PHONE_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private BulkWriter bulkWriter;
+
+    @Autowired
+    private FellowshipService fellowshipService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private CrisisService crisisService;
+
+    @Autowired
+    private EventReminderService eventReminderService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private FellowshipRepository fellowshipRepository;
+
+    @Autowired
+    private AttendanceSessionRepository sessionRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private CrisisRepository crisisRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository registrationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long churchId;
+    private Church church;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        churchId = createTestChurch("Bulk Writer Church " + System.nanoTime());
+        church = churchRepository.findById(churchId).orElseThrow();
+        admin = createAdminUser(churchId);
+        TenantContext.setCurrentChurchId(churchId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should add fellowship members with one INSERT ... SELECT, skipping existing, foreign and missing members")
+    void shouldAddFellowshipMembersInBulk() {
+        List<Long> memberIds = createMembers(church, 3);
+        Long otherChurchId = createTestChurch("Other Bulk Writer Church " + System.nanoTime());
+        Long foreignMemberId = createMembers(churchRepository.findById(otherChurchId).orElseThrow(), 1).get(0);
+        Fellowship fellowship = new Fellowship();
+        fellowship.setName("Bulk Writer Choir");
+        fellowship.setChurch(church);
+        Long fellowshipId = fellowshipRepository.save(fellowship).getId();
+        fellowshipService.addMembersBulk(fellowshipId, List.of(memberIds.get(0)));
+
+        fellowshipService.addMembersBulk(fellowshipId,
+            List.of(memberIds.get(0), memberIds.get(1), memberIds.get(2), memberIds.get(2), foreignMemberId, Long.MAX_VALUE));
+
+        assertThat(fellowshipMemberIds(fellowshipId)).containsExactlyInAnyOrderElementsOf(memberIds);
+    }
+
+    @Test
+    @DisplayName("Should upsert bulk attendance and write nothing when an entry is invalid")
+    void shouldUpsertBulkAttendance() {
+        List<Long> memberIds = createMembers(church, 3);
+        Long sessionId = createSession();
+        attendanceService.markBulkAttendance(bulkAttendance(sessionId, memberIds.subList(0, 1), AttendanceStatus.ABSENT));
+
+        attendanceService.markBulkAttendance(bulkAttendance(sessionId, memberIds, AttendanceStatus.PRESENT));
+
+        List<Attendance> marked = attendanceRepository.findByAttendanceSessionId(sessionId);
+        assertThat(marked).hasSize(3);
+        assertThat(marked).allSatisfy(attendance -> assertThat(attendance.getStatus()).isEqualTo(AttendanceStatus.PRESENT));
+
+        // Validated up front: a missing member rejects the whole request
+        List<Long> withMissing = List.of(memberIds.get(0), Long.MAX_VALUE);
+        assertThatThrownBy(() -> attendanceService.markBulkAttendance(bulkAttendance(sessionId, withMissing, AttendanceStatus.EXCUSED)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Member not found");
+        assertThat(attendanceRepository.findByAttendanceSessionId(sessionId))
+            .allSatisfy(attendance -> assertThat(attendance.getStatus()).isEqualTo(AttendanceStatus.PRESENT));
+    }
+
+    @Test
+    @DisplayName("Should add crisis members in batches, skipping already affected and missing members")
+    void shouldBulkAddCrisisMembers() {
+        List<Long> memberIds = createMembers(church, 3);
+        Crisis crisis = createCrisis();
+        crisisService.bulkAddAffectedMembers(crisis.getId(),
+            new BulkCrisisAffectedMembersRequest(List.of(memberIds.get(0)), "First report", false));
+
+        List<CrisisAffectedMemberResponse> added = crisisService.bulkAddAffectedMembers(crisis.getId(),
+            new BulkCrisisAffectedMembersRequest(
+                List.of(memberIds.get(0), memberIds.get(1), Long.MAX_VALUE, memberIds.get(2), memberIds.get(1)),
+                "Flooded", true));
+
+        assertThat(added).hasSize(2);
+        assertThat(affectedMemberIds(crisis)).containsExactlyInAnyOrderElementsOf(memberIds);
+        assertThat(crisisRepository.findById(crisis.getId()).orElseThrow().getAffectedMembersCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should flag reminded registrations in one UPDATE, leaving a failed one unflagged")
+    void shouldFlagRemindedRegistrations() {
+        Event event = createEvent();
+        List<Long> guests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            guests.add(saveRegistration(event, RegistrationStatus.APPROVED, true).getId());
+        }
+        // Not a guest but no member: sending its reminder throws
+        Long broken = saveRegistration(event, RegistrationStatus.APPROVED, false).getId();
+        Long pending = saveRegistration(event, RegistrationStatus.PENDING, true).getId();
+
+        eventReminderService.sendEventReminders(eventRepository.findById(event.getId()).orElseThrow());
+
+        assertThat(remindedRegistrationIds(event.getId())).containsExactlyInAnyOrderElementsOf(guests)
+            .doesNotContain(broken, pending);
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getReminderSent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should retry a failed chunk item by item so only the bad row fails")
+    @SuppressWarnings("unchecked")
+    void shouldIsolateFailedRowInChunk() {
+        List<Long> memberIds = createMembers(church, 3);
+        // An attendance record keeps its member from being deleted
+        Long blocked = memberIds.get(1);
+        attendanceService.markBulkAttendance(bulkAttendance(createSession(), List.of(blocked), AttendanceStatus.PRESENT));
+
+        Map<String, Object> result = memberService.bulkDeleteMembers(memberIds, churchId);
+
+        assertThat(result.get("successCount")).isEqualTo(2);
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) result.get("errors");
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).get("memberId")).isEqualTo(blocked);
+        assertThat(memberRepository.findAllById(memberIds)).extracting(Member::getId).containsExactly(blocked);
+    }
+
+    @Test
+    @DisplayName("Should commit every other item of a chunk whose retry finds a bad item")
+    void shouldCommitGoodItemsOfFailedChunk() {
+        List<Long> memberIds = createMembers(church, 5);
+        String taken = memberRepository.findById(memberIds.get(0)).orElseThrow().getPhoneNumber();
+
+        // Renaming member 3 to member 0's phone number violates the unique constraint
+        BulkWriter.ChunkedResult<Long> result = bulkWriter.inChunkTransactions(memberIds.subList(1, 5), 2, ids ->
+            ids.forEach(id -> jdbcTemplate.update("UPDATE member SET last_name = 'Chunked', phone_number = " +
+                "CASE WHEN id = ? THEN ? ELSE phone_number END WHERE id = ?", memberIds.get(3), taken, id)));
+
+        assertThat(result.chunks()).extracting(BulkWriter.ChunkReport::failed).containsExactly(0, 1);
+        assertThat(result.failures()).containsOnlyKeys(memberIds.get(3));
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM member WHERE last_name = 'Chunked'", Long.class))
+            .containsExactlyInAnyOrder(memberIds.get(1), memberIds.get(2), memberIds.get(4));
+    }
+
+    private List<Long> createMembers(Church owner, int count) {
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Member member = new Member();
+            member.setFirstName("Member" + i);
+            member.setLastName("Writer");
+            member.setPhoneNumber("+23322" + String.format("%07d", PHONE_SEQUENCE.incrementAndGet()));
+            member.setSex(i % 2 == 0 ? "Male" : "Female");
+            member.setChurch(owner);
+            member.setIsVerified(false);
+            member.setStatus(MemberStatus.MEMBER);
+            members.add(member);
+        }
+        return memberRepository.saveAll(members).stream().map(Member::getId).toList();
+    }
+
+    private Long createSession() {
+        AttendanceSession session = new AttendanceSession();
+        session.setChurch(church);
+        session.setSessionName("Bulk Writer Service");
+        session.setSessionDate(LocalDate.now());
+        session.setIsCompleted(true);
+        return sessionRepository.save(session).getId();
+    }
+
+    private BulkAttendanceRequest bulkAttendance(Long sessionId, List<Long> memberIds, AttendanceStatus status) {
+        return new BulkAttendanceRequest(sessionId, memberIds.stream()
+            .map(memberId -> new AttendanceRequest(memberId, sessionId, status, null))
+            .toList());
+    }
+
+    private Crisis createCrisis() {
+        Crisis crisis = new Crisis();
+        crisis.setChurch(church);
+        crisis.setTitle("Flooding");
+        crisis.setCrisisType(CrisisType.NATURAL_DISASTER);
+        crisis.setSeverity(CrisisSeverity.HIGH);
+        crisis.setReportedBy(admin);
+        crisis.setReportedDate(LocalDateTime.now());
+        return crisisRepository.save(crisis);
+    }
+
+    private Event createEvent() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return eventRepository.save(Event.builder()
+            .church(church)
+            .name("Bulk Writer Conference")
+            .eventType(EventType.SERVICE)
+            .locationType(EventLocationType.PHYSICAL)
+            .physicalLocation("Main Hall")
+            .startDate(start)
+            .endDate(start.plusHours(2))
+            .createdBy(admin)
+            .build());
+    }
+
+    private EventRegistration saveRegistration(Event event, RegistrationStatus status, boolean guest) {
+        return registrationRepository.save(EventRegistration.builder()
+            .church(church)
+            .event(event)
+            .isGuest(guest)
+            .guestName(guest ? "Guest" : null)
+            .status(status)
+            .registrationDate(LocalDateTime.now())
+            .build());
+    }
+
+    private List<Long> fellowshipMemberIds(Long fellowshipId) {
+        return jdbcTemplate.queryForList(
+            "SELECT member_id FROM member_fellowships WHERE fellowship_id = ?", Long.class, fellowshipId);
+    }
+
+    private List<Long> affectedMemberIds(Crisis crisis) {
+        return jdbcTemplate.queryForList(
+            "SELECT member_id FROM crisis_affected_member WHERE crisis_id = ?", Long.class, crisis.getId());
+    }
+
+    private List<Long> remindedRegistrationIds(Long eventId) {
+        return jdbcTemplate.queryForList(
+            "SELECT id FROM event_registrations WHERE event_id = ? AND reminder_sent = TRUE", Long.class, eventId);
+    }
+}
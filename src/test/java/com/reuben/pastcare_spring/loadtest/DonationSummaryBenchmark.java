@@ -0,0 +1,225 @@
+package com.reuben.pastcare_spring.loadtest;
+
+import com.reuben.pastcare_spring.dtos.DonationSummaryResponse;
+import com.reuben.pastcare_spring.dtos.GivingTrendResponse;
+import com.reuben.pastcare_spring.enums.GivingInterval;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Donation;
+import com.reuben.pastcare_spring.models.DonationType;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.models.PaymentMethod;
+import com.reuben.pastcare_spring.repositories.DonationRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.services.DonationService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Donation summary over a large seeded church: aggregate queries versus the in-memory
+ * computation they replaced.
+ *
+ * Seeds {@code benchmark.donations} donations (default one million, ten years of giving from
+ * {@code benchmark.members} members) with plain JDBC batches, then runs each implementation
+ * {@code benchmark.iterations} times and prints latency and the heap allocated per run
+ * (bytes allocated by the calling thread). The in-memory path loads every donation as an
+ * entity; if it runs out of heap that is reported instead of its numbers.
+ *
+ * Not picked up by the normal test runs; run with
+ * {@code mvn test -P load-tests -Dtest=DonationSummaryBenchmark -Dbenchmark.donations=1000000}.
+ * Uses the H2 test profile unless spring.datasource.* is overridden with -D options.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.reuben.pastcare_spring=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+    })
+@Tag("loadtest")
+@DisplayName("Donation Summary Benchmark")
+@Slf4j
+class DonationSummaryBenchmark extends BaseIntegrationTest {
+
+    private static final int DONATIONS = Integer.getInteger("benchmark.donations", 1_000_000);
+    private static final int MEMBERS = Integer.getInteger("benchmark.members", 2_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 5);
+    private static final int BATCH_SIZE = 5_000;
+    private static final int DAYS = 3_650;
+    private static final LocalDate FIRST_DAY = LocalDate.now().minusDays(DAYS);
+    // Far above the ids the donation sequence hands out in a test run
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Autowired
+    private DonationService donationService;
+
+    @Autowired
+    private DonationRepository donationRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private record Measurement(long avgMillis, long avgAllocatedBytes) {
+    }
+
+    @Test
+    @DisplayName("Aggregate queries should match the in-memory summary with far less heap and time")
+    void compareSummaries() {
+        Long churchId = createTestChurch("Donation Benchmark Church " + System.nanoTime());
+        long seedStart = System.nanoTime();
+        seed(churchId);
+        log.info("Seeded {} donations from {} members in {} ms",
+            DONATIONS, MEMBERS, (System.nanoTime() - seedStart) / 1_000_000);
+
+        LocalDate rangeStart = FIRST_DAY.plusDays(DAYS - 365);
+        LocalDate rangeEnd = FIRST_DAY.plusDays(DAYS);
+        DonationSummaryResponse summary = donationService.getDonationSummary(churchId);
+        assertThat(summary.donationCount()).isEqualTo(DONATIONS);
+
+        Measurement sqlSummary = measure(() -> donationService.getDonationSummary(churchId));
+        Measurement sqlRange = measure(() -> donationService.getDonationSummaryByDateRange(churchId, rangeStart, rangeEnd));
+        Measurement sqlTrend = measure(() -> donationService.getGivingTrend(
+            churchId, FIRST_DAY, rangeEnd, GivingInterval.MONTH));
+        GivingTrendResponse trend = donationService.getGivingTrend(churchId, FIRST_DAY, rangeEnd, GivingInterval.MONTH);
+        assertThat(trend.donationCount()).isEqualTo(DONATIONS);
+        assertThat(trend.totalAmount()).isEqualByComparingTo(summary.totalAmount());
+
+        log.info("Aggregate queries over {} donations: summary {} ms / {}, last-year summary {} ms / {}, "
+                + "10-year monthly trend {} ms / {} allocated per run",
+            DONATIONS, sqlSummary.avgMillis(), megabytes(sqlSummary.avgAllocatedBytes()),
+            sqlRange.avgMillis(), megabytes(sqlRange.avgAllocatedBytes()),
+            sqlTrend.avgMillis(), megabytes(sqlTrend.avgAllocatedBytes()));
+
+        Church church = churchRepository.findById(churchId).orElseThrow();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            DonationSummaryResponse legacy = readOnly.execute(status -> legacySummary(donationRepository.findByChurch(church)));
+            assertThat(summary).isEqualTo(legacy);
+
+            Measurement legacySummary = measure(() ->
+                readOnly.execute(status -> legacySummary(donationRepository.findByChurch(church))));
+            Measurement legacyRange = measure(() ->
+                readOnly.execute(status -> legacySummary(donationRepository.findByChurchAndDateRange(church, rangeStart, rangeEnd))));
+
+            log.info("In-memory computation over {} donations: summary {} ms / {}, last-year summary {} ms / {} allocated per run",
+                DONATIONS, legacySummary.avgMillis(), megabytes(legacySummary.avgAllocatedBytes()),
+                legacyRange.avgMillis(), megabytes(legacyRange.avgAllocatedBytes()));
+
+            assertThat(sqlSummary.avgAllocatedBytes() * 100).isLessThan(legacySummary.avgAllocatedBytes());
+            assertThat(sqlSummary.avgMillis()).isLessThan(legacySummary.avgMillis());
+        } catch (OutOfMemoryError e) {
+            log.warn("In-memory computation over {} donations ran out of heap (max {})",
+                DONATIONS, megabytes(Runtime.getRuntime().maxMemory()));
+        }
+    }
+
+    private Measurement measure(Supplier<?> run) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        run.get(); // warm-up
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            run.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Measurement(elapsed / 1_000_000 / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * What getDonationSummary computed before it moved to SQL.
+     */
+    private static DonationSummaryResponse legacySummary(List<Donation> donations) {
+        if (donations.isEmpty()) {
+            return new DonationSummaryResponse(BigDecimal.ZERO, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0L, 0L);
+        }
+        BigDecimal totalAmount = donations.stream().map(Donation::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        long donationCount = donations.size();
+        return new DonationSummaryResponse(
+            totalAmount,
+            donationCount,
+            totalAmount.divide(BigDecimal.valueOf(donationCount), 2, RoundingMode.HALF_UP),
+            donations.stream().map(Donation::getAmount).max(BigDecimal::compareTo).orElse(BigDecimal.ZERO),
+            donations.stream().map(Donation::getAmount).min(BigDecimal::compareTo).orElse(BigDecimal.ZERO),
+            donations.stream().filter(d -> d.getMember() != null).map(Donation::getMember).distinct().count(),
+            donations.stream().filter(Donation::getIsAnonymous).count());
+    }
+
+    private void seed(Long churchId) {
+        Church church = churchRepository.findById(churchId).orElseThrow();
+        List<Member> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member();
+            member.setFirstName("Giver" + i);
+            member.setLastName("Benchmark");
+            member.setPhoneNumber("+23325" + String.format("%07d", i));
+            member.setSex(i % 2 == 0 ? "Male" : "Female");
+            member.setChurch(church);
+            member.setIsVerified(true);
+            member.setStatus(MemberStatus.MEMBER);
+            members.add(member);
+        }
+        List<Long> memberIds = memberRepository.saveAll(members).stream().map(Member::getId).toList();
+
+        DonationType[] types = DonationType.values();
+        PaymentMethod[] methods = PaymentMethod.values();
+        Random random = new Random(48);
+        Timestamp now = Timestamp.from(Instant.now());
+        String sql = "INSERT INTO donation (id, church_id, member_id, amount, donation_date, donation_type, payment_method, "
+            + "is_anonymous, receipt_issued, currency, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, false, 'GHS', ?, ?)";
+        for (int from = 0; from < DONATIONS; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(DONATIONS, from + BATCH_SIZE); i++) {
+                boolean anonymous = random.nextInt(10) == 0;
+                batch.add(new Object[] {
+                    FIRST_ID + i,
+                    churchId,
+                    anonymous ? null : memberIds.get(random.nextInt(memberIds.size())),
+                    BigDecimal.valueOf(500 + random.nextInt(200_000), 2),
+                    Date.valueOf(FIRST_DAY.plusDays(random.nextInt(DAYS + 1))),
+                    types[random.nextInt(types.length)].name(),
+                    methods[random.nextInt(methods.length)].name(),
+                    anonymous,
+                    now,
+                    now
+                });
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}
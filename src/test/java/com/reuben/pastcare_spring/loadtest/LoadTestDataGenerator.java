@@ -0,0 +1,250 @@
+package com.reuben.pastcare_spring.loadtest;
+
+import com.github.javafaker.Faker;
+import com.reuben.pastcare_spring.enums.AttendanceStatus;
+import com.reuben.pastcare_spring.enums.CheckInMethod;
+import com.reuben.pastcare_spring.models.Attendance;
+import com.reuben.pastcare_spring.models.AttendanceSession;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.Donation;
+import com.reuben.pastcare_spring.models.DonationType;
+import com.reuben.pastcare_spring.models.Event;
+import com.reuben.pastcare_spring.models.EventLocationType;
+import com.reuben.pastcare_spring.models.EventType;
+import com.reuben.pastcare_spring.models.Fellowship;
+import com.reuben.pastcare_spring.models.Member;
+import com.reuben.pastcare_spring.models.MemberStatus;
+import com.reuben.pastcare_spring.models.PaymentMethod;
+import com.reuben.pastcare_spring.models.User;
+import com.reuben.pastcare_spring.repositories.AttendanceRepository;
+import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
+import com.reuben.pastcare_spring.repositories.DonationRepository;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import com.reuben.pastcare_spring.repositories.FellowshipRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.services.ChurchSmsCreditService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Seeds one church's worth of realistic data for the load-test suite.
+ *
+ * Data is generated with javafaker from a fixed seed, so the same parameters
+ * always produce the same dataset:
+ * - Members with names, phone numbers and demographics
+ * - Fellowships with roughly 25 members each
+ * - 12 weeks of completed Sunday services with ~70% attendance
+ * - Up to 4 donations per member over the last 6 months
+ * - Upcoming events
+ * - An open session for today (the check-in burst target) and SMS credits
+ */
+public class LoadTestDataGenerator {
+
+    private static final int WEEKS_OF_HISTORY = 12;
+    private static final int MEMBERS_PER_FELLOWSHIP = 25;
+    private static final int EVENTS = 10;
+    private static final int BATCH_SIZE = 500;
+
+    private final MemberRepository memberRepository;
+    private final FellowshipRepository fellowshipRepository;
+    private final AttendanceSessionRepository sessionRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final DonationRepository donationRepository;
+    private final EventRepository eventRepository;
+    private final ChurchSmsCreditService smsCreditService;
+
+    public LoadTestDataGenerator(
+            MemberRepository memberRepository,
+            FellowshipRepository fellowshipRepository,
+            AttendanceSessionRepository sessionRepository,
+            AttendanceRepository attendanceRepository,
+            DonationRepository donationRepository,
+            EventRepository eventRepository,
+            ChurchSmsCreditService smsCreditService) {
+        this.memberRepository = memberRepository;
+        this.fellowshipRepository = fellowshipRepository;
+        this.sessionRepository = sessionRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.donationRepository = donationRepository;
+        this.eventRepository = eventRepository;
+        this.smsCreditService = smsCreditService;
+    }
+
+    /**
+     * Seeded data the scenarios need to build requests for one tenant.
+     */
+    public record TenantFixture(
+        Long churchId,
+        String token,
+        List<Long> memberIds,
+        List<String> lastNames,
+        List<String> phoneNumbers,
+        Long checkInSessionId
+    ) {
+    }
+
+    /**
+     * Seed a church that already exists with an admin user.
+     *
+     * @param churchIndex Position of the church in the run; keeps phone numbers unique and seeds the faker
+     */
+    public TenantFixture seedChurch(Church church, User admin, String token, int churchIndex, int memberCount) {
+        Random random = new Random(churchIndex);
+        Faker faker = new Faker(Locale.ENGLISH, random);
+
+        List<Member> members = seedMembers(church, churchIndex, memberCount, faker, random);
+        seedFellowships(church, members, faker);
+        seedAttendance(church, members, random);
+        seedDonations(church, members, admin, random);
+        seedEvents(church, admin, faker);
+
+        AttendanceSession openSession = new AttendanceSession();
+        openSession.setChurch(church);
+        openSession.setSessionName("Load Test Sunday Service");
+        openSession.setSessionDate(LocalDate.now());
+        openSession.setIsCompleted(false);
+        openSession = sessionRepository.save(openSession);
+
+        smsCreditService.purchaseCredits(church.getId(), admin.getId(), new BigDecimal("1000000"), "LOADTEST-" + churchIndex);
+
+        return new TenantFixture(
+            church.getId(),
+            token,
+            members.stream().map(Member::getId).toList(),
+            members.stream().map(Member::getLastName).distinct().toList(),
+            members.stream().map(Member::getPhoneNumber).toList(),
+            openSession.getId()
+        );
+    }
+
+    private List<Member> seedMembers(Church church, int churchIndex, int count, Faker faker, Random random) {
+        String[] maritalStatuses = {"single", "married", "widowed"};
+        List<Member> saved = new ArrayList<>(count);
+        List<Member> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            Member member = new Member();
+            member.setFirstName(faker.name().firstName());
+            member.setLastName(faker.name().lastName());
+            member.setPhoneNumber(String.format("+23324%03d%04d", churchIndex % 1000, i));
+            member.setSex(random.nextBoolean() ? "Male" : "Female");
+            member.setDob(LocalDate.now().minusYears(16 + random.nextInt(60)).minusDays(random.nextInt(365)));
+            member.setMaritalStatus(maritalStatuses[random.nextInt(maritalStatuses.length)]);
+            member.setOccupation(faker.job().title());
+            member.setMemberSince(YearMonth.now().minusMonths(random.nextInt(120)));
+            member.setChurch(church);
+            member.setIsVerified(true);
+            member.setStatus(MemberStatus.MEMBER);
+            batch.add(member);
+            if (batch.size() == BATCH_SIZE) {
+                saved.addAll(memberRepository.saveAll(batch));
+                batch.clear();
+            }
+        }
+        saved.addAll(memberRepository.saveAll(batch));
+        return saved;
+    }
+
+    private void seedFellowships(Church church, List<Member> members, Faker faker) {
+        int fellowshipCount = Math.max(1, members.size() / MEMBERS_PER_FELLOWSHIP);
+        List<Fellowship> fellowships = new ArrayList<>(fellowshipCount);
+        for (int i = 0; i < fellowshipCount; i++) {
+            Fellowship fellowship = new Fellowship();
+            fellowship.setName(faker.address().cityName() + " Fellowship " + i);
+            fellowship.setChurch(church);
+            fellowships.add(fellowship);
+        }
+        fellowships = fellowshipRepository.saveAll(fellowships);
+
+        // Member owns the membership join table
+        for (int i = 0; i < members.size(); i++) {
+            members.get(i).setFellowships(new ArrayList<>(List.of(fellowships.get(i % fellowshipCount))));
+        }
+        memberRepository.saveAll(members);
+    }
+
+    private void seedAttendance(Church church, List<Member> members, Random random) {
+        CheckInMethod[] methods = CheckInMethod.values();
+        LocalDate lastSunday = LocalDate.now().minusDays(LocalDate.now().getDayOfWeek().getValue() % 7);
+        List<Attendance> batch = new ArrayList<>(BATCH_SIZE);
+        for (int week = WEEKS_OF_HISTORY; week >= 1; week--) {
+            AttendanceSession session = new AttendanceSession();
+            session.setChurch(church);
+            session.setSessionName("Sunday Service");
+            session.setSessionDate(lastSunday.minusWeeks(week - 1L));
+            session.setIsCompleted(true);
+            session = sessionRepository.save(session);
+
+            for (Member member : members) {
+                int roll = random.nextInt(100);
+                Attendance attendance = new Attendance();
+                attendance.setAttendanceSession(session);
+                attendance.setMember(member);
+                attendance.setStatus(roll < 70 ? AttendanceStatus.PRESENT
+                    : roll < 80 ? AttendanceStatus.EXCUSED : AttendanceStatus.ABSENT);
+                attendance.setCheckInMethod(methods[random.nextInt(methods.length)]);
+                boolean late = attendance.getStatus() == AttendanceStatus.PRESENT && roll % 6 == 0;
+                attendance.setIsLate(late);
+                attendance.setMinutesLate(late ? 1 + random.nextInt(30) : null);
+                batch.add(attendance);
+                if (batch.size() == BATCH_SIZE) {
+                    attendanceRepository.saveAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+        attendanceRepository.saveAll(batch);
+    }
+
+    private void seedDonations(Church church, List<Member> members, User recordedBy, Random random) {
+        DonationType[] types = DonationType.values();
+        PaymentMethod[] paymentMethods = PaymentMethod.values();
+        List<Donation> batch = new ArrayList<>(BATCH_SIZE);
+        for (Member member : members) {
+            int donations = random.nextInt(5);
+            for (int d = 0; d < donations; d++) {
+                Donation donation = new Donation();
+                donation.setChurch(church);
+                donation.setMember(member);
+                donation.setAmount(BigDecimal.valueOf(5 + random.nextInt(500)));
+                donation.setDonationDate(LocalDate.now().minusDays(random.nextInt(180)));
+                donation.setDonationType(types[random.nextInt(types.length)]);
+                donation.setPaymentMethod(paymentMethods[random.nextInt(paymentMethods.length)]);
+                donation.setRecordedBy(recordedBy);
+                batch.add(donation);
+                if (batch.size() == BATCH_SIZE) {
+                    donationRepository.saveAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+        donationRepository.saveAll(batch);
+    }
+
+    private void seedEvents(Church church, User createdBy, Faker faker) {
+        EventType[] types = EventType.values();
+        List<Event> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            LocalDateTime start = LocalDateTime.now().plusDays(3L + i * 7L).withHour(18).withMinute(0);
+            Event event = new Event();
+            event.setChurch(church);
+            event.setName(faker.book().title());
+            event.setEventType(types[i % types.length]);
+            event.setStartDate(start);
+            event.setEndDate(start.plusHours(2));
+            event.setLocationType(EventLocationType.PHYSICAL);
+            event.setPhysicalLocation(faker.address().streetAddress());
+            event.setCreatedBy(createdBy);
+            event.setCreatedAt(LocalDateTime.now());
+            event.setUpdatedAt(LocalDateTime.now());
+            events.add(event);
+        }
+        eventRepository.saveAll(events);
+    }
+}
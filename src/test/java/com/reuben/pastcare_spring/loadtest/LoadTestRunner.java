@@ -0,0 +1,128 @@
+package com.reuben.pastcare_spring.loadtest;
+
+import com.reuben.pastcare_spring.loadtest.LoadTestDataGenerator.TenantFixture;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives HTTP scenarios against a running server with a fixed number of
+ * concurrent clients and reports latency percentiles and throughput.
+ *
+ * Requests are spread round-robin across tenants, so request {@code i} goes to
+ * tenant {@code i % tenants} as that tenant's request {@code i / tenants}.
+ */
+public class LoadTestRunner {
+
+    private final HttpClient client;
+    private final int threads;
+
+    public LoadTestRunner(int threads) {
+        this.threads = threads;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(threads))
+            .build();
+    }
+
+    /**
+     * Builds the request for one tenant's n-th call in a scenario.
+     */
+    @FunctionalInterface
+    public interface Scenario {
+        HttpRequest request(TenantFixture tenant, int tenantRequestIndex);
+    }
+
+    /**
+     * Outcome of one scenario run. Latencies are in milliseconds.
+     */
+    public record ScenarioResult(
+        String name,
+        int requests,
+        int errors,
+        double p50,
+        double p95,
+        double p99,
+        double max,
+        double throughputPerSecond
+    ) {
+    }
+
+    /**
+     * Run {@code requests} calls of a scenario after {@code warmup} unrecorded calls.
+     */
+    public ScenarioResult run(String name, List<TenantFixture> tenants, int warmup, int requests, Scenario scenario)
+            throws InterruptedException {
+        if (warmup > 0) {
+            execute(tenants, 0, warmup, scenario, new long[warmup], new AtomicInteger());
+        }
+
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        execute(tenants, warmup, requests, scenario, latencies, errors);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        return new ScenarioResult(
+            name,
+            requests,
+            errors.get(),
+            percentile(latencies, 50),
+            percentile(latencies, 95),
+            percentile(latencies, 99),
+            requests > 0 ? latencies[requests - 1] / 1e6 : 0.0,
+            requests / elapsedSeconds
+        );
+    }
+
+    private void execute(List<TenantFixture> tenants, int offset, int count, Scenario scenario,
+                         long[] latencies, AtomicInteger errors) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        AtomicInteger next = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            workers.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < count) {
+                    int global = offset + i;
+                    TenantFixture tenant = tenants.get(global % tenants.size());
+                    HttpRequest request = scenario.request(tenant, global / tenants.size());
+                    long started = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - started;
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+            throw new IllegalStateException("Load test scenario did not finish within 30 minutes");
+        }
+    }
+
+    /**
+     * Nearest-rank percentile of sorted nanosecond latencies, in milliseconds.
+     */
+    static double percentile(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+        return sortedNanos[Math.max(0, rank - 1)] / 1e6;
+    }
+}
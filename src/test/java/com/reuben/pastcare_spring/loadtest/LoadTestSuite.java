@@ -0,0 +1,216 @@
+package com.reuben.pastcare_spring.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reuben.pastcare_spring.integration.BaseIntegrationTest;
+import com.reuben.pastcare_spring.loadtest.LoadTestDataGenerator.TenantFixture;
+import com.reuben.pastcare_spring.loadtest.LoadTestRunner.ScenarioResult;
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.User;
+import com.reuben.pastcare_spring.repositories.AttendanceRepository;
+import com.reuben.pastcare_spring.repositories.AttendanceSessionRepository;
+import com.reuben.pastcare_spring.repositories.DonationRepository;
+import com.reuben.pastcare_spring.repositories.EventRepository;
+import com.reuben.pastcare_spring.repositories.FellowshipRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.services.ChurchSmsCreditService;
+import com.reuben.pastcare_spring.testutil.TestJwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repeatable load test over a seeded multi-tenant dataset.
+ *
+ * Seeds {@code loadtest.churches} churches with {@code loadtest.members} members each
+ * (see {@link LoadTestDataGenerator}), then runs each scenario with
+ * {@code loadtest.threads} concurrent clients:
+ * - dashboard: full dashboard load
+ * - member-search: paged member search by surname
+ * - check-in-burst: Sunday check-in, every member once into an open session
+ * - bulk-sms: 50-recipient bulk SMS, scheduled for tomorrow so nothing reaches a gateway
+ * - report-export: member directory Excel export
+ *
+ * Prints p50/p95/p99/max latency and throughput per scenario and writes them to
+ * {@code target/loadtest-results.json}.
+ *
+ * Not picked up by the normal test runs (the class name doesn't end in Test);
+ * run with {@code ./run-load-tests.sh} or {@code mvn test -P load-tests}. Uses the
+ * H2 test profile unless spring.datasource.* is overridden with -D options.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.reuben.pastcare_spring=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+    })
+@Tag("loadtest")
+@DisplayName("Load Test Suite")
+@Slf4j
+class LoadTestSuite extends BaseIntegrationTest {
+
+    private static final int CHURCHES = Integer.getInteger("loadtest.churches", 5);
+    private static final int MEMBERS = Integer.getInteger("loadtest.members", 500);
+    private static final int THREADS = Integer.getInteger("loadtest.threads", 16);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 500);
+    private static final int WARMUP = Integer.getInteger("loadtest.warmup", 50);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    private static final int SMS_RECIPIENTS = 50;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private FellowshipRepository fellowshipRepository;
+
+    @Autowired
+    private AttendanceSessionRepository sessionRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private DonationRepository donationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ChurchSmsCreditService smsCreditService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    @DisplayName("Scenarios should stay within the error budget and report latency percentiles")
+    void runScenarios() throws Exception {
+        List<TenantFixture> tenants = seed();
+        LoadTestRunner runner = new LoadTestRunner(THREADS);
+        String baseUrl = "http://localhost:" + port;
+
+        List<ScenarioResult> results = new ArrayList<>();
+        results.add(runner.run("dashboard", tenants, WARMUP, REQUESTS,
+            (tenant, i) -> get(baseUrl + "/api/dashboard", tenant)));
+
+        results.add(runner.run("member-search", tenants, WARMUP, REQUESTS,
+            (tenant, i) -> get(baseUrl + "/api/members?page=0&size=20&search="
+                + tenant.lastNames().get(i % tenant.lastNames().size()), tenant)));
+
+        // Warmup and measured calls take distinct members, so every check-in is a first check-in
+        int checkIns = Math.min(REQUESTS, CHURCHES * MEMBERS - WARMUP);
+        results.add(runner.run("check-in-burst", tenants, WARMUP, checkIns,
+            (tenant, i) -> post(baseUrl + "/api/check-in", tenant, Map.of(
+                "sessionId", tenant.checkInSessionId(),
+                "memberId", tenant.memberIds().get(i),
+                "checkInMethod", "MANUAL"))));
+
+        results.add(runner.run("bulk-sms", tenants, WARMUP / 10, Math.max(1, REQUESTS / 10),
+            (tenant, i) -> post(baseUrl + "/api/sms/send-bulk", tenant, Map.of(
+                "recipientPhones", recipients(tenant, i),
+                "message", "Reminder: Sunday service starts at 9am. God bless!",
+                "scheduledTime", LocalDateTime.now().plusDays(1)))));
+
+        results.add(runner.run("report-export", tenants, WARMUP / 10, Math.max(1, REQUESTS / 10),
+            (tenant, i) -> post(baseUrl + "/api/reports/generate", tenant, Map.of(
+                "reportType", "MEMBER_DIRECTORY",
+                "format", "EXCEL"))));
+
+        report(results);
+
+        for (ScenarioResult result : results) {
+            assertThat((double) result.errors() / result.requests())
+                .as("Error rate for %s", result.name())
+                .isLessThanOrEqualTo(MAX_ERROR_RATE);
+        }
+    }
+
+    private List<TenantFixture> seed() {
+        LoadTestDataGenerator generator = new LoadTestDataGenerator(memberRepository, fellowshipRepository,
+            sessionRepository, attendanceRepository, donationRepository, eventRepository, smsCreditService);
+
+        long start = System.nanoTime();
+        List<TenantFixture> tenants = new ArrayList<>(CHURCHES);
+        for (int c = 0; c < CHURCHES; c++) {
+            Long churchId = createTestChurch("Load Test Church " + c);
+            Church church = churchRepository.findById(churchId).orElseThrow();
+            User admin = createAdminUser(churchId);
+            String token = TestJwtUtil.generateAdminToken(admin.getId(), admin.getEmail(), churchId);
+            tenants.add(generator.seedChurch(church, admin, token, c, MEMBERS));
+        }
+        log.info("Seeded {} churches x {} members in {} ms",
+            CHURCHES, MEMBERS, (System.nanoTime() - start) / 1_000_000);
+        return tenants;
+    }
+
+    private List<String> recipients(TenantFixture tenant, int i) {
+        List<String> phones = tenant.phoneNumbers();
+        List<String> recipients = new ArrayList<>(SMS_RECIPIENTS);
+        for (int r = 0; r < SMS_RECIPIENTS; r++) {
+            recipients.add(phones.get((i * SMS_RECIPIENTS + r) % phones.size()));
+        }
+        return recipients;
+    }
+
+    private HttpRequest get(String url, TenantFixture tenant) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(60))
+            .header("Authorization", "Bearer " + tenant.token())
+            .GET()
+            .build();
+    }
+
+    private HttpRequest post(String url, TenantFixture tenant, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + tenant.token())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize load test request", e);
+        }
+    }
+
+    private void report(List<ScenarioResult> results) throws IOException {
+        StringBuilder table = new StringBuilder(String.format("%n%-16s %8s %7s %9s %9s %9s %9s %10s",
+            "Scenario", "Requests", "Errors", "p50 ms", "p95 ms", "p99 ms", "max ms", "req/s"));
+        for (ScenarioResult r : results) {
+            table.append(String.format("%n%-16s %8d %7d %9.1f %9.1f %9.1f %9.1f %10.1f",
+                r.name(), r.requests(), r.errors(), r.p50(), r.p95(), r.p99(), r.max(), r.throughputPerSecond()));
+        }
+        log.info("Load test results:{}", table);
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("timestamp", LocalDateTime.now());
+        output.put("churches", CHURCHES);
+        output.put("membersPerChurch", MEMBERS);
+        output.put("threads", THREADS);
+        output.put("scenarios", results);
+        File file = new File("target/loadtest-results.json");
+        file.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, output);
+        log.info("Results written to {}", file.getAbsolutePath());
+    }
+}
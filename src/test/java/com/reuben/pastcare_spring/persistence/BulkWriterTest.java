@@ -0,0 +1,40 @@
+package com.reuben.pastcare_spring.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("BulkWriter Tests")
+class BulkWriterTest {
+
+    @Test
+    @DisplayName("Should split a list into consecutive chunks with a short last chunk")
+    void testPartition() {
+        List<List<Integer>> chunks = BulkWriter.partition(List.of(1, 2, 3, 4, 5, 6, 7), 3);
+
+        assertEquals(List.of(List.of(1, 2, 3), List.of(4, 5, 6), List.of(7)), chunks);
+    }
+
+    @Test
+    @DisplayName("Should return one chunk when the list fits")
+    void testPartitionSingleChunk() {
+        assertEquals(List.of(List.of(1, 2)), BulkWriter.partition(List.of(1, 2), 50));
+    }
+
+    @Test
+    @DisplayName("Should return no chunks for an empty list")
+    void testPartitionEmpty() {
+        assertTrue(BulkWriter.partition(List.of(), 50).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive chunk size")
+    void testPartitionInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> BulkWriter.partition(List.of(1), 0));
+    }
+}
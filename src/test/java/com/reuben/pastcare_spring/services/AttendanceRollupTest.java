@@ -0,0 +1,84 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.enums.AttendanceStatus;
+import com.reuben.pastcare_spring.enums.CheckInMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AttendanceRollup Tests")
+class AttendanceRollupTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 1, 5);
+    private static final LocalDate DAY_2 = LocalDate.of(2025, 1, 12);
+    private static final LocalDate DAY_3 = LocalDate.of(2025, 1, 19);
+
+    private AttendanceRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        // [sessionDate, status, checkInMethod, isLate, COUNT, SUM(minutesLate), COUNT(minutesLate), MAX(minutesLate)]
+        rollup = AttendanceRollup.fromRows(List.of(
+            new Object[]{DAY_1, AttendanceStatus.PRESENT, CheckInMethod.QR_CODE, false, 10L, null, 0L, null},
+            new Object[]{DAY_1, AttendanceStatus.PRESENT, CheckInMethod.QR_CODE, true, 2L, 20L, 2L, 15},
+            new Object[]{DAY_1, AttendanceStatus.ABSENT, CheckInMethod.MANUAL, false, 3L, null, 0L, null},
+            new Object[]{DAY_2, AttendanceStatus.PRESENT, CheckInMethod.MANUAL, true, 1L, 40L, 1L, 40},
+            new Object[]{DAY_2, AttendanceStatus.EXCUSED, CheckInMethod.MANUAL, false, 4L, null, 0L, null},
+            new Object[]{DAY_3, AttendanceStatus.PRESENT, CheckInMethod.GEOFENCE, false, 5L, null, 0L, null}
+        ));
+    }
+
+    @Test
+    @DisplayName("Should sum totals and statuses over a range")
+    void testTotalsAndStatuses() {
+        assertEquals(25, rollup.getTotalRecords(DAY_1, DAY_3));
+        assertEquals(18, rollup.getStatusCount(AttendanceStatus.PRESENT, DAY_1, DAY_3));
+        assertEquals(15, rollup.getTotalRecords(DAY_1, DAY_1));
+        assertEquals(4, rollup.getStatusCount(AttendanceStatus.EXCUSED, DAY_2, DAY_3));
+        assertEquals(72.0, rollup.getAttendanceRate(DAY_1, DAY_3), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Should combine check-in methods across days")
+    void testCheckInMethods() {
+        Map<CheckInMethod, Long> counts = rollup.getCheckInMethodCounts(DAY_1, DAY_2);
+
+        assertEquals(12L, counts.get(CheckInMethod.QR_CODE));
+        assertEquals(8L, counts.get(CheckInMethod.MANUAL));
+        assertNull(counts.get(CheckInMethod.GEOFENCE));
+    }
+
+    @Test
+    @DisplayName("Should compute late count, weighted average and max")
+    void testLateStats() {
+        assertEquals(3, rollup.getLateCount(DAY_1, DAY_3));
+        assertEquals(20.0, rollup.getAverageMinutesLate(DAY_1, DAY_3), 0.0001);
+        assertEquals(40, rollup.getMaxMinutesLate(DAY_1, DAY_3));
+        assertEquals(15, rollup.getMaxMinutesLate(DAY_1, DAY_1));
+    }
+
+    @Test
+    @DisplayName("Should return empty results for ranges without data or inverted ranges")
+    void testEmptyRanges() {
+        assertEquals(0, rollup.getTotalRecords(DAY_3.plusDays(1), DAY_3.plusDays(30)));
+        assertEquals(0.0, rollup.getAttendanceRate(DAY_3.plusDays(1), DAY_3.plusDays(30)));
+        assertEquals(0, rollup.getTotalRecords(DAY_2, DAY_1));
+        assertTrue(rollup.getDays(DAY_2, DAY_1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should list trend days in date order")
+    void testDays() {
+        List<Map.Entry<LocalDate, AttendanceRollup.Day>> days = rollup.getDays(DAY_1, DAY_3);
+
+        assertEquals(List.of(DAY_1, DAY_2, DAY_3), days.stream().map(Map.Entry::getKey).toList());
+        assertEquals(5, days.get(1).getValue().getTotal());
+        assertEquals(1, days.get(1).getValue().getCount(AttendanceStatus.PRESENT));
+    }
+}
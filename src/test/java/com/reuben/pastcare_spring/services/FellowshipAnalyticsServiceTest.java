@@ -0,0 +1,106 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.dtos.FellowshipAnalyticsResponse;
+import com.reuben.pastcare_spring.models.FellowshipType;
+import com.reuben.pastcare_spring.repositories.FellowshipJoinRequestRepository;
+import com.reuben.pastcare_spring.repositories.FellowshipRepository;
+import com.reuben.pastcare_spring.services.FellowshipAnalyticsService.FellowshipStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FellowshipAnalyticsService Tests")
+class FellowshipAnalyticsServiceTest {
+
+    private static final Long CHURCH_ID = 1L;
+
+    @Mock
+    private FellowshipRepository fellowshipRepository;
+
+    @Mock
+    private FellowshipJoinRequestRepository joinRequestRepository;
+
+    private FellowshipAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FellowshipAnalyticsService(fellowshipRepository, joinRequestRepository, 300);
+    }
+
+    private void stubRows() {
+        when(fellowshipRepository.getMembershipStats(eq(CHURCH_ID), any(), any())).thenReturn(List.of(
+            new Object[]{10L, "Youth", FellowshipType.AGE_BASED, 20, 14L, 1L, 3L},
+            new Object[]{11L, "Empty", FellowshipType.AGE_BASED, null, 0L, null, null}
+        ));
+        when(joinRequestRepository.getJoinRequestStats(eq(CHURCH_ID), any(), any())).thenReturn(List.<Object[]>of(
+            new Object[]{10L, 8L, 6L, 1L, 2L, 5L, 4L}
+        ));
+    }
+
+    @Test
+    @DisplayName("Should merge membership and join request aggregates per fellowship")
+    void testGetStatsMergesAggregates() {
+        stubRows();
+
+        Map<Long, FellowshipStats> stats = service.getStats(CHURCH_ID);
+
+        assertThat(stats).containsOnlyKeys(10L, 11L);
+        FellowshipStats youth = stats.get(10L);
+        assertThat(youth.memberCount()).isEqualTo(14);
+        assertThat(youth.totalRequests()).isEqualTo(8);
+        assertThat(youth.approvedRequests()).isEqualTo(6);
+        assertThat(youth.pendingRequests()).isEqualTo(1);
+        assertThat(youth.requestsLast30Days()).isEqualTo(4);
+        assertThat(youth.growthLast30Days()).isEqualTo(2);
+        assertThat(youth.growthLast90Days()).isEqualTo(5);
+
+        FellowshipStats empty = stats.get(11L);
+        assertThat(empty.memberCount()).isZero();
+        assertThat(empty.totalRequests()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should serve cached stats until invalidated")
+    void testCacheAndInvalidate() {
+        stubRows();
+
+        service.getStats(CHURCH_ID);
+        service.getStats(CHURCH_ID);
+        verify(fellowshipRepository, times(1)).getMembershipStats(eq(CHURCH_ID), any(), any());
+
+        service.invalidate(CHURCH_ID);
+        service.getStats(CHURCH_ID);
+        verify(fellowshipRepository, times(2)).getMembershipStats(eq(CHURCH_ID), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should compute occupancy, growth and health from stats")
+    void testToAnalytics() {
+        FellowshipStats stats = new FellowshipStats(10L, "Youth", FellowshipType.AGE_BASED, 20,
+            14, 1, 3, 8, 6, 1, 2, 5, 4);
+
+        FellowshipAnalyticsResponse analytics = FellowshipAnalyticsService.toAnalytics(stats);
+
+        assertThat(analytics.occupancyRate()).isEqualTo(70.0);
+        assertThat(analytics.memberGrowthLast30Days()).isEqualTo(2);
+        assertThat(analytics.memberGrowthLast90Days()).isEqualTo(5);
+        assertThat(analytics.growthRate()).isEqualTo(35.71);
+        assertThat(analytics.healthStatus()).isEqualTo("EXCELLENT");
+        assertThat(analytics.growthTrend()).isEqualTo("GROWING");
+        assertThat(analytics.isHealthy()).isTrue();
+    }
+}
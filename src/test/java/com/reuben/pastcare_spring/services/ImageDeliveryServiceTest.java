@@ -0,0 +1,100 @@
+package com.reuben.pastcare_spring.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImageDeliveryService Tests")
+class ImageDeliveryServiceTest {
+
+    @TempDir
+    Path uploadRoot;
+
+    private ImageDeliveryService service;
+    private String imageName;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ImageDeliveryService(uploadRoot.resolve("profile-images").toString(), new int[]{64, 32, 128});
+
+        Path dir = Files.createDirectories(uploadRoot.resolve("profile-images"));
+        BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        Path tmp = Files.createTempFile(uploadRoot, "src", ".png");
+        ImageIO.write(image, "png", tmp.toFile());
+        byte[] bytes = Files.readAllBytes(tmp);
+        imageName = ImageService.contentHashedFilename(bytes, ".png");
+        Files.write(dir.resolve(imageName), bytes);
+    }
+
+    @Test
+    @DisplayName("Should produce the same filename for identical content")
+    void testContentHashedFilenameIsDeterministic() {
+        String first = ImageService.contentHashedFilename(new byte[]{1, 2, 3}, ".jpg");
+        String second = ImageService.contentHashedFilename(new byte[]{1, 2, 3}, ".jpg");
+        String other = ImageService.contentHashedFilename(new byte[]{3, 2, 1}, ".jpg");
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertTrue(first.matches("^[0-9a-f]{32}\\.jpg$"));
+    }
+
+    @Test
+    @DisplayName("Should snap requested widths up to configured variant widths")
+    void testSnapWidth() {
+        assertEquals(32, service.snapWidth(10));
+        assertEquals(64, service.snapWidth(64));
+        assertEquals(128, service.snapWidth(100));
+        assertNull(service.snapWidth(1000));
+        assertNull(service.snapWidth(null));
+    }
+
+    @Test
+    @DisplayName("Should serve original with content-hash ETag")
+    void testResolveOriginal() throws Exception {
+        Optional<ImageDeliveryService.ImageAsset> asset = service.resolve("/profile-images/" + imageName, null);
+
+        assertTrue(asset.isPresent());
+        assertEquals("\"" + imageName.substring(0, 32) + "\"", asset.get().etag());
+        assertEquals("image/png", asset.get().mediaType().toString());
+    }
+
+    @Test
+    @DisplayName("Should generate variant once and cache it on disk")
+    void testResolveVariant() throws Exception {
+        ImageDeliveryService.ImageAsset first = service.resolve("profile-images/" + imageName, 64).orElseThrow();
+        ImageDeliveryService.ImageAsset second = service.resolve("profile-images/" + imageName, 64).orElseThrow();
+
+        assertTrue(first.file().startsWith(uploadRoot.resolve(ImageDeliveryService.VARIANTS_DIR)));
+        assertEquals(first.file(), second.file());
+        assertEquals(first.lastModified(), second.lastModified());
+        assertEquals(64, ImageIO.read(first.file().toFile()).getWidth());
+        assertTrue(first.etag().endsWith("-w64\""));
+    }
+
+    @Test
+    @DisplayName("Should remove cached variants with the original")
+    void testDeleteVariants() throws Exception {
+        Path variant = service.resolve("profile-images/" + imageName, 32).orElseThrow().file();
+        assertTrue(Files.exists(variant));
+
+        service.deleteVariants(uploadRoot.resolve("profile-images").resolve(imageName).toString());
+
+        assertFalse(Files.exists(variant));
+    }
+
+    @Test
+    @DisplayName("Should reject paths outside the upload root")
+    void testRejectsTraversal() throws Exception {
+        assertTrue(service.resolve("../../etc/passwd", null).isEmpty());
+        assertTrue(service.resolve("profile-images/missing.png", null).isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+package com.reuben.pastcare_spring.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImageService Tests")
+class ImageServiceTest {
+
+    @TempDir
+    Path uploadRoot;
+
+    private ImageService service;
+
+    @BeforeEach
+    void setUp() {
+        String profileDir = uploadRoot.resolve("profile-images").toString();
+        service = new ImageService(new ImageDeliveryService(profileDir, new int[]{64}));
+        ReflectionTestUtils.setField(service, "uploadDir", profileDir);
+        ReflectionTestUtils.setField(service, "fellowshipUploadDir", uploadRoot.resolve("fellowship-images").toString());
+        ReflectionTestUtils.setField(service, "eventUploadDir", uploadRoot.resolve("event-images").toString());
+        ReflectionTestUtils.setField(service, "maxSizeKb", 100);
+    }
+
+    @Test
+    @DisplayName("Should keep a shared image when one record replaces it")
+    void testReplacingKeepsSharedImage() throws Exception {
+        String shared = service.uploadProfileImage(png(Color.RED));
+        assertEquals(shared, service.uploadProfileImage(png(Color.RED)));
+
+        // One of the two records moves to a new image
+        String replacement = service.uploadProfileImage(png(Color.BLUE));
+
+        assertNotEquals(shared, replacement);
+        assertTrue(Files.exists(Paths.get(shared)));
+    }
+
+    @Test
+    @DisplayName("Should delete only old images that no record references")
+    void testDeleteUnreferencedImages() throws Exception {
+        String referenced = service.uploadProfileImage(png(Color.RED));
+        String orphaned = service.uploadProfileImage(png(Color.BLUE));
+        String recent = service.uploadProfileImage(png(Color.GREEN));
+        Instant old = Instant.now().minus(Duration.ofDays(2));
+        Files.setLastModifiedTime(Paths.get(referenced), FileTime.from(old));
+        Files.setLastModifiedTime(Paths.get(orphaned), FileTime.from(old));
+
+        int deleted = service.deleteUnreferencedImages(Set.of(referenced), Instant.now().minus(Duration.ofDays(1)));
+
+        assertEquals(1, deleted);
+        assertTrue(Files.exists(Paths.get(referenced)));
+        assertFalse(Files.exists(Paths.get(orphaned)));
+        assertTrue(Files.exists(Paths.get(recent)));
+    }
+
+    @Test
+    @DisplayName("Should protect a reused image from the cleanup until its record is saved")
+    void testReuploadRefreshesModifiedTime() throws Exception {
+        String path = service.uploadProfileImage(png(Color.RED));
+        Files.setLastModifiedTime(Paths.get(path), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        service.uploadProfileImage(png(Color.RED));
+
+        assertEquals(0, service.deleteUnreferencedImages(Set.of(), Instant.now().minus(Duration.ofDays(1))));
+        assertTrue(Files.exists(Paths.get(path)));
+    }
+
+    private MockMultipartFile png(Color color) throws Exception {
+        BufferedImage image = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+        var graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, 40, 30);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return new MockMultipartFile("image", "photo.png", "image/png", out.toByteArray());
+    }
+}
@@ -0,0 +1,38 @@
+package com.reuben.pastcare_spring.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.reuben.pastcare_spring.enums.AttendanceStatus.ABSENT;
+import static com.reuben.pastcare_spring.enums.AttendanceStatus.EXCUSED;
+import static com.reuben.pastcare_spring.enums.AttendanceStatus.PRESENT;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+@DisplayName("MemberEngagementService Tests")
+class MemberEngagementServiceTest {
+
+    @Test
+    @DisplayName("Should count leading PRESENT records as the current streak")
+    void testCurrentStreak() {
+        int[] streaks = MemberEngagementService.computeStreaks(List.of(PRESENT, PRESENT, ABSENT, PRESENT));
+
+        assertArrayEquals(new int[]{2, 2}, streaks);
+    }
+
+    @Test
+    @DisplayName("Should find the longest streak anywhere in history")
+    void testLongestStreak() {
+        int[] streaks = MemberEngagementService.computeStreaks(
+            List.of(ABSENT, PRESENT, EXCUSED, PRESENT, PRESENT, PRESENT, ABSENT));
+
+        assertArrayEquals(new int[]{0, 3}, streaks);
+    }
+
+    @Test
+    @DisplayName("Should return zero streaks for empty history")
+    void testEmptyHistory() {
+        assertArrayEquals(new int[]{0, 0}, MemberEngagementService.computeStreaks(List.of()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.enums.MemberRiskLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("MemberRiskService Tests")
+class MemberRiskServiceTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2026, 3, 1);
+
+    @Test
+    @DisplayName("Should not flag a regular attender")
+    void testRegularAttender() {
+        MemberRiskService.Assessment assessment = MemberRiskService.assess(AS_OF.minusDays(7), 4, 12, null, AS_OF);
+
+        assertEquals(0, assessment.score());
+        assertNull(assessment.level());
+        assertTrue(assessment.reasons().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should score a three-week absence with no contact as medium risk")
+    void testThreeWeekAbsence() {
+        MemberRiskService.Assessment assessment = MemberRiskService.assess(AS_OF.minusWeeks(3), 1, 5, null, AS_OF);
+
+        assertEquals(50, assessment.score());
+        assertEquals(MemberRiskLevel.MEDIUM, assessment.level());
+        assertEquals(List.of("ABSENT", "NO_RECENT_CONTACT"), assessment.reasons());
+    }
+
+    @Test
+    @DisplayName("Should score a long absence with declining attendance as high risk")
+    void testLongAbsence() {
+        MemberRiskService.Assessment assessment = MemberRiskService.assess(AS_OF.minusWeeks(10), 0, 2, null, AS_OF);
+
+        // 30 + 7 weeks * 3 + 10 declining + 20 no contact
+        assertEquals(81, assessment.score());
+        assertEquals(MemberRiskLevel.HIGH, assessment.level());
+        assertEquals(List.of("ABSENT", "DECLINING_ATTENDANCE", "NO_RECENT_CONTACT"), assessment.reasons());
+    }
+
+    @Test
+    @DisplayName("Should cap the absence penalty and the total score")
+    void testScoreCapped() {
+        MemberRiskService.Assessment assessment = MemberRiskService.assess(AS_OF.minusWeeks(60), 0, 0, null, AS_OF);
+
+        assertEquals(80, assessment.score());
+    }
+
+    @Test
+    @DisplayName("Should lower the score when the member was recently contacted")
+    void testRecentContact() {
+        MemberRiskService.Assessment assessment =
+            MemberRiskService.assess(AS_OF.minusWeeks(3), 1, 5, AS_OF.minusDays(5), AS_OF);
+
+        assertEquals(15, assessment.score());
+        assertEquals(MemberRiskLevel.LOW, assessment.level());
+        assertEquals(List.of("ABSENT"), assessment.reasons());
+    }
+
+    @Test
+    @DisplayName("Should flag members who never attended")
+    void testNeverAttended() {
+        MemberRiskService.Assessment assessment = MemberRiskService.assess(null, 0, 0, null, AS_OF);
+
+        assertEquals(60, assessment.score());
+        assertEquals(List.of("NEVER_ATTENDED", "NO_RECENT_CONTACT"), assessment.reasons());
+    }
+
+    @Test
+    @DisplayName("Should map score boundaries to risk levels")
+    void testLevels() {
+        assertNull(MemberRiskService.levelFor(0));
+        assertEquals(MemberRiskLevel.LOW, MemberRiskService.levelFor(39));
+        assertEquals(MemberRiskLevel.MEDIUM, MemberRiskService.levelFor(40));
+        assertEquals(MemberRiskLevel.HIGH, MemberRiskService.levelFor(70));
+    }
+}
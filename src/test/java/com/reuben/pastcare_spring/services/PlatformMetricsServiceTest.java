@@ -0,0 +1,144 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.models.Church;
+import com.reuben.pastcare_spring.models.ChurchMetricsSnapshot;
+import com.reuben.pastcare_spring.models.ChurchSubscription;
+import com.reuben.pastcare_spring.models.PlatformMetricsSnapshot;
+import com.reuben.pastcare_spring.models.StorageUsage;
+import com.reuben.pastcare_spring.models.SubscriptionPlan;
+import com.reuben.pastcare_spring.repositories.ChurchMetricsSnapshotRepository;
+import com.reuben.pastcare_spring.repositories.ChurchRepository;
+import com.reuben.pastcare_spring.repositories.ChurchSubscriptionRepository;
+import com.reuben.pastcare_spring.repositories.MemberRepository;
+import com.reuben.pastcare_spring.repositories.PlatformMetricsSnapshotRepository;
+import com.reuben.pastcare_spring.repositories.StorageUsageRepository;
+import com.reuben.pastcare_spring.repositories.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlatformMetricsService Tests")
+class PlatformMetricsServiceTest {
+
+    @Mock
+    private ChurchRepository churchRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private StorageUsageRepository storageUsageRepository;
+
+    @Mock
+    private ChurchSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private ChurchMetricsSnapshotRepository churchSnapshotRepository;
+
+    @Mock
+    private PlatformMetricsSnapshotRepository platformSnapshotRepository;
+
+    @InjectMocks
+    private PlatformMetricsService service;
+
+    private static ChurchSubscription subscription(Long churchId, String status, String price, int months) {
+        SubscriptionPlan plan = new SubscriptionPlan();
+        plan.setName("STANDARD");
+        plan.setPrice(new BigDecimal(price));
+        return ChurchSubscription.builder()
+                .churchId(churchId)
+                .status(status)
+                .plan(plan)
+                .billingPeriodMonths(months)
+                .build();
+    }
+
+    private static Church church(Long id, boolean active) {
+        Church church = new Church();
+        church.setId(id);
+        church.setActive(active);
+        return church;
+    }
+
+    @Test
+    @DisplayName("Should normalise billable subscriptions to monthly revenue")
+    void testMonthlyRecurringRevenue() {
+        assertThat(PlatformMetricsService.monthlyRecurringRevenue(subscription(1L, "ACTIVE", "120.00", 12)))
+                .isEqualTo(10.0);
+        assertThat(PlatformMetricsService.monthlyRecurringRevenue(subscription(1L, "CANCELED", "120.00", 1)))
+                .isZero();
+
+        ChurchSubscription inGrace = subscription(1L, "PAST_DUE", "50.00", 1);
+        inGrace.setNextBillingDate(LocalDate.now());
+        inGrace.setGracePeriodDays(7);
+        assertThat(PlatformMetricsService.monthlyRecurringRevenue(inGrace)).isZero();
+
+        ChurchSubscription overdue = subscription(1L, "PAST_DUE", "50.00", 1);
+        overdue.setNextBillingDate(LocalDate.now().minusDays(30));
+        assertThat(PlatformMetricsService.monthlyRecurringRevenue(overdue)).isEqualTo(50.0);
+    }
+
+    @Test
+    @DisplayName("Should capture per-church and platform rows from grouped counts")
+    @SuppressWarnings("unchecked")
+    void testCaptureSnapshot() {
+        LocalDate date = LocalDate.of(2026, 1, 4);
+        Church first = church(1L, true);
+        Church second = church(2L, false);
+        StorageUsage usage = StorageUsage.builder().church(first).totalStorageMb(300.0).build();
+
+        when(churchRepository.findAll()).thenReturn(List.of(first, second));
+        when(userRepository.countGroupedByChurch()).thenReturn(List.<Object[]>of(new Object[]{1L, 3L}));
+        when(userRepository.count()).thenReturn(4L);
+        when(memberRepository.countGroupedByChurch()).thenReturn(List.of(
+                new Object[]{1L, 120L}, new Object[]{2L, 15L}));
+        when(storageUsageRepository.findLatestForAllChurches()).thenReturn(List.of(usage));
+        when(subscriptionRepository.findAll()).thenReturn(List.of(subscription(1L, "ACTIVE", "99.99", 1)));
+        when(platformSnapshotRepository.findBySnapshotDate(date)).thenReturn(Optional.empty());
+        when(platformSnapshotRepository.save(any(PlatformMetricsSnapshot.class))).thenAnswer(i -> i.getArgument(0));
+
+        PlatformMetricsSnapshot platform = service.captureSnapshot(date);
+
+        ArgumentCaptor<List<ChurchMetricsSnapshot>> rows = ArgumentCaptor.forClass(List.class);
+        verify(churchSnapshotRepository).deleteBySnapshotDate(date);
+        verify(churchSnapshotRepository).saveAll(rows.capture());
+        assertThat(rows.getValue()).extracting(ChurchMetricsSnapshot::getMemberCount).containsExactly(120, 15);
+        assertThat(rows.getValue()).extracting(ChurchMetricsSnapshot::getUserCount).containsExactly(3, 0);
+        assertThat(rows.getValue().get(1).getSubscriptionStatus()).isNull();
+
+        assertThat(platform.getTotalChurches()).isEqualTo(2);
+        assertThat(platform.getActiveChurches()).isEqualTo(1);
+        assertThat(platform.getTotalUsers()).isEqualTo(4);
+        assertThat(platform.getTotalMembers()).isEqualTo(135);
+        assertThat(platform.getTotalStorageMb()).isEqualTo(300.0);
+        assertThat(platform.getMrr()).isEqualByComparingTo("99.99");
+        assertThat(platform.getActiveSubscriptions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject trend ranges outside the allowed window")
+    void testTrendRangeValidation() {
+        assertThatThrownBy(() -> service.getPlatformTrend(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getPlatformTrend(PlatformMetricsService.MAX_TREND_DAYS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.reuben.pastcare_spring.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("QRCodeService Tests")
+class QRCodeServiceTest {
+
+    private QRCodeService qrCodeService;
+
+    @BeforeEach
+    void setUp() {
+        qrCodeService = new QRCodeService();
+        ReflectionTestUtils.setField(qrCodeService, "secretKey", "PastCareQRCode16");
+        ReflectionTestUtils.setField(qrCodeService, "defaultExpiryHours", 24);
+        ReflectionTestUtils.setField(qrCodeService, "imageCacheMaxEntries", 2);
+        qrCodeService.init();
+    }
+
+    @Test
+    @DisplayName("Should round-trip payloads through reused ciphers across threads")
+    void testEncryptDecryptAcrossThreads() {
+        LocalDateTime expiry = LocalDateTime.now().plusDays(1).withNano(0);
+
+        List<Long> decoded = IntStream.range(0, 500).parallel()
+            .mapToObj(i -> qrCodeService.generateQRCodeData((long) i, expiry))
+            .map(qrCodeService::extractSessionId)
+            .toList();
+
+        assertThat(decoded).containsExactlyElementsOf(IntStream.range(0, 500).mapToObj(i -> (long) i).toList());
+    }
+
+    @Test
+    @DisplayName("Should keep validating after a tampered code")
+    void testRecoversAfterFailedDecrypt() {
+        String code = qrCodeService.generateQRCodeData(42L);
+
+        Map<String, Object> tampered = qrCodeService.validateQRCode("AAAA" + code.substring(4));
+        Map<String, Object> valid = qrCodeService.validateQRCode(code);
+
+        assertThat(tampered.get("valid")).isEqualTo(false);
+        assertThat(valid.get("valid")).isEqualTo(true);
+        assertThat(valid.get("sessionId")).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Should memoize rendered images by payload and size")
+    void testImageMemoization() {
+        byte[] first = qrCodeService.generateQRCodePng("ticket-1", 200, 200);
+        byte[] second = qrCodeService.generateQRCodePng("ticket-1", 200, 200);
+        byte[] otherSize = qrCodeService.generateQRCodePng("ticket-1", 100, 100);
+
+        assertThat(second).isSameAs(first);
+        assertThat(otherSize).isNotSameAs(first);
+        assertThat(qrCodeService.generateQRCodeImage("ticket-1", 200, 200)).startsWith("data:image/png;base64,");
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used images beyond the cache size")
+    void testImageCacheIsBounded() {
+        byte[] first = qrCodeService.generateQRCodePng("a", 100, 100);
+        qrCodeService.generateQRCodePng("b", 100, 100);
+        qrCodeService.generateQRCodePng("c", 100, 100);
+
+        assertThat(qrCodeService.generateQRCodePng("a", 100, 100)).isNotSameAs(first);
+    }
+}
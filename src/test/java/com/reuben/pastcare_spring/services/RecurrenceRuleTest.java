@@ -0,0 +1,122 @@
+package com.reuben.pastcare_spring.services;
+
+import com.reuben.pastcare_spring.models.RecurrencePattern;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecurrenceRule Tests")
+class RecurrenceRuleTest {
+
+    private static final LocalDateTime SUNDAY_9AM = LocalDateTime.of(2025, 1, 5, 9, 0);
+    private static final Duration TWO_HOURS = Duration.ofHours(2);
+
+    @Test
+    @DisplayName("Should expand weekly occurrences overlapping a window")
+    void testWeeklyWindow() {
+        RecurrenceRule rule = new RecurrenceRule(SUNDAY_9AM, TWO_HOURS, RecurrencePattern.WEEKLY, null);
+
+        List<LocalDateTime> starts = rule.startsOverlapping(
+            LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0), 100);
+
+        assertEquals(List.of(
+            LocalDateTime.of(2025, 3, 2, 9, 0),
+            LocalDateTime.of(2025, 3, 9, 9, 0),
+            LocalDateTime.of(2025, 3, 16, 9, 0),
+            LocalDateTime.of(2025, 3, 23, 9, 0),
+            LocalDateTime.of(2025, 3, 30, 9, 0)
+        ), starts);
+    }
+
+    @Test
+    @DisplayName("Should include an occurrence that is still running at the window start")
+    void testOverlapAtWindowStart() {
+        RecurrenceRule rule = new RecurrenceRule(SUNDAY_9AM, TWO_HOURS, RecurrencePattern.WEEKLY, null);
+
+        List<LocalDateTime> starts = rule.startsOverlapping(
+            LocalDateTime.of(2025, 1, 12, 10, 0), LocalDateTime.of(2025, 1, 13, 0, 0), 100);
+
+        assertEquals(List.of(LocalDateTime.of(2025, 1, 12, 9, 0)), starts);
+    }
+
+    @Test
+    @DisplayName("Should stop at the recurrence end date (inclusive) and the limit")
+    void testUntilAndLimit() {
+        RecurrenceRule rule = new RecurrenceRule(SUNDAY_9AM, TWO_HOURS, RecurrencePattern.DAILY, LocalDate.of(2025, 1, 9));
+
+        assertEquals(5, rule.startsOverlapping(SUNDAY_9AM, SUNDAY_9AM.plusYears(1), 100).size());
+        assertEquals(3, rule.startsOverlapping(SUNDAY_9AM, SUNDAY_9AM.plusYears(1), 3).size());
+        assertFalse(rule.isOccurrence(LocalDateTime.of(2025, 1, 10, 9, 0)));
+    }
+
+    @Test
+    @DisplayName("Should keep the day of month instead of drifting after short months")
+    void testMonthlyDoesNotDrift() {
+        RecurrenceRule rule = new RecurrenceRule(
+            LocalDateTime.of(2025, 1, 31, 18, 0), TWO_HOURS, RecurrencePattern.MONTHLY, null);
+
+        assertEquals(LocalDateTime.of(2025, 2, 28, 18, 0), rule.occurrence(1));
+        assertEquals(LocalDateTime.of(2025, 3, 31, 18, 0), rule.occurrence(2));
+        assertTrue(rule.isOccurrence(LocalDateTime.of(2025, 3, 31, 18, 0)));
+        assertFalse(rule.isOccurrence(LocalDateTime.of(2025, 3, 28, 18, 0)));
+    }
+
+    @Test
+    @DisplayName("Windows far into a series should match a walk from the first occurrence")
+    void testSkipMatchesWalk() {
+        for (RecurrencePattern pattern : RecurrencePattern.values()) {
+            RecurrenceRule rule = new RecurrenceRule(
+                LocalDateTime.of(2020, 2, 29, 19, 30), TWO_HOURS, pattern, null);
+            LocalDateTime from = LocalDateTime.of(2029, 6, 1, 0, 0);
+            LocalDateTime to = LocalDateTime.of(2031, 6, 1, 0, 0);
+
+            List<LocalDateTime> walked = new ArrayList<>();
+            for (long n = 0; rule.occurrence(n).isBefore(to); n++) {
+                LocalDateTime start = rule.occurrence(n);
+                if (start.plus(TWO_HOURS).isAfter(from)) {
+                    walked.add(start);
+                }
+            }
+
+            assertEquals(walked, rule.startsOverlapping(from, to, 10_000), pattern.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should find occurrence indexes and the last started occurrence")
+    void testIndexOfAndLastStarted() {
+        RecurrenceRule rule = new RecurrenceRule(SUNDAY_9AM, TWO_HOURS, RecurrencePattern.BI_WEEKLY, null);
+
+        assertEquals(0, rule.indexOf(SUNDAY_9AM));
+        assertEquals(3, rule.indexOf(SUNDAY_9AM.plusWeeks(6)));
+        assertEquals(-1, rule.indexOf(SUNDAY_9AM.plusWeeks(1)));
+        assertEquals(-1, rule.indexOf(SUNDAY_9AM.minusWeeks(2)));
+
+        assertEquals(SUNDAY_9AM.plusWeeks(4), rule.lastStartAtOrBefore(SUNDAY_9AM.plusWeeks(5)));
+        assertEquals(SUNDAY_9AM.plusWeeks(4), rule.lastStartAtOrBefore(SUNDAY_9AM.plusWeeks(4)));
+        assertNull(rule.lastStartAtOrBefore(SUNDAY_9AM.minusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Should match a moved occurrence to the nearest rule start")
+    void testNearestStart() {
+        RecurrenceRule weekly = new RecurrenceRule(SUNDAY_9AM, TWO_HOURS, RecurrencePattern.WEEKLY, LocalDate.of(2025, 1, 12));
+
+        // Moved to the evening, or to the day before; past the end date too
+        assertEquals(SUNDAY_9AM.plusWeeks(3), weekly.nearestStart(SUNDAY_9AM.plusWeeks(3).withHour(18)));
+        assertEquals(SUNDAY_9AM.plusWeeks(3), weekly.nearestStart(SUNDAY_9AM.plusWeeks(3).minusDays(1)));
+        assertEquals(SUNDAY_9AM, weekly.nearestStart(SUNDAY_9AM.minusDays(2)));
+
+        // Stepped month by month from Jan 31, the old instances drifted to the 28th
+        RecurrenceRule monthly = new RecurrenceRule(LocalDateTime.of(2025, 1, 31, 9, 0), TWO_HOURS,
+            RecurrencePattern.MONTHLY, null);
+        assertEquals(LocalDateTime.of(2025, 3, 31, 9, 0), monthly.nearestStart(LocalDateTime.of(2025, 3, 28, 9, 0)));
+    }
+}
@@ -0,0 +1,247 @@
+package com.reuben.pastcare_spring.testutil;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for the Paystack API, for tests that exercise real HTTP calls.
+ *
+ * Supports {@code POST /transaction/charge_authorization} and {@code GET /transaction/verify/{reference}}.
+ * Like Paystack, it accepts each reference once and rejects a second charge with the same reference.
+ * Latency, declined cards, server errors and rejected verifications can be injected per test.
+ *
+ * Usage:
+ * <pre>
+ * {@code
+ * try (FakePaystackServer paystack = FakePaystackServer.start()) {
+ *     paystackConfig.setBaseUrl(paystack.baseUrl());
+ *     paystack.setLatency(Duration.ofMillis(100));
+ *     paystack.declineAuthorization("AUTH_DECLINED");
+ *     ...
+ *     assertThat(paystack.chargesFor(reference)).isEqualTo(1);
+ * }
+ * }
+ * </pre>
+ */
+public class FakePaystackServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final Map<String, String> transactions = new ConcurrentHashMap<>(); // reference -> success/failed
+    private final Map<String, AtomicInteger> acceptedCharges = new ConcurrentHashMap<>();
+    private final Set<String> declinedAuthorizations = ConcurrentHashMap.newKeySet();
+    private final Set<String> failingAuthorizations = ConcurrentHashMap.newKeySet();
+    private final Queue<String> chargeOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger chargeRequests = new AtomicInteger();
+    private final AtomicInteger verifyRequests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int verifyRejectionStatus;
+
+    private FakePaystackServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/transaction/charge_authorization", this::handleCharge);
+        server.createContext("/transaction/verify/", this::handleVerify);
+    }
+
+    public static FakePaystackServer start() {
+        try {
+            FakePaystackServer fake = new FakePaystackServer();
+            fake.server.start();
+            return fake;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start fake Paystack server", e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Delay added to every request.
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Charges with this authorization code are attempted but declined by the "bank".
+     */
+    public void declineAuthorization(String authorizationCode) {
+        declinedAuthorizations.add(authorizationCode);
+    }
+
+    /**
+     * Requests charging this authorization code fail with HTTP 500 (the charge is not made).
+     */
+    public void failAuthorization(String authorizationCode) {
+        failingAuthorizations.add(authorizationCode);
+    }
+
+    /**
+     * Verify requests fail with this HTTP status (e.g. 401 or 429) whether or not the reference exists.
+     */
+    public void rejectVerification(int status) {
+        verifyRejectionStatus = status;
+    }
+
+    public void clearFailures() {
+        declinedAuthorizations.clear();
+        failingAuthorizations.clear();
+        verifyRejectionStatus = 0;
+    }
+
+    /**
+     * Record a successful charge as if a client had made it and then lost the response.
+     */
+    public void recordSuccessfulCharge(String reference) {
+        transactions.put(reference, "success");
+        acceptedCharges.computeIfAbsent(reference, r -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Charges the gateway accepted (success or declined) for a reference.
+     */
+    public int chargesFor(String reference) {
+        AtomicInteger count = acceptedCharges.get(reference);
+        return count == null ? 0 : count.get();
+    }
+
+    public String statusOf(String reference) {
+        return transactions.get(reference);
+    }
+
+    public int chargeRequests() {
+        return chargeRequests.get();
+    }
+
+    /**
+     * References of all charge requests, in the order they arrived.
+     */
+    public List<String> chargeOrder() {
+        return List.copyOf(chargeOrder);
+    }
+
+    public int verifyRequests() {
+        return verifyRequests.get();
+    }
+
+    /**
+     * Most requests that were being handled at the same time.
+     */
+    public int peakConcurrency() {
+        return peakInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleCharge(HttpExchange exchange) throws IOException {
+        chargeRequests.incrementAndGet();
+        enter();
+        try {
+            JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+            String reference = body.path("reference").asText();
+            String authorizationCode = body.path("authorization_code").asText();
+            chargeOrder.add(reference);
+            pause();
+
+            if (failingAuthorizations.contains(authorizationCode)) {
+                respond(exchange, 500, Map.of("status", false, "message", "Internal server error"));
+                return;
+            }
+            String status = declinedAuthorizations.contains(authorizationCode) ? "failed" : "success";
+            if (transactions.putIfAbsent(reference, status) != null) {
+                respond(exchange, 400, Map.of("status", false, "message", "Duplicate Transaction Reference"));
+                return;
+            }
+            acceptedCharges.computeIfAbsent(reference, r -> new AtomicInteger()).incrementAndGet();
+            respond(exchange, 200, Map.of(
+                "status", true,
+                "message", "Charge attempted",
+                "data", Map.of(
+                    "status", status,
+                    "reference", reference,
+                    "amount", body.path("amount").asLong(),
+                    "gateway_response", "success".equals(status) ? "Approved" : "Declined")));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void handleVerify(HttpExchange exchange) throws IOException {
+        verifyRequests.incrementAndGet();
+        enter();
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String reference = path.substring(path.lastIndexOf('/') + 1);
+            pause();
+
+            if (verifyRejectionStatus != 0) {
+                respond(exchange, verifyRejectionStatus, Map.of("status", false, "message", "Request rejected"));
+                return;
+            }
+            String status = transactions.get(reference);
+            if (status == null) {
+                respond(exchange, 404, Map.of("status", false, "message", "Transaction reference not found"));
+                return;
+            }
+            respond(exchange, 200, Map.of(
+                "status", true,
+                "message", "Verification successful",
+                "data", Map.of("status", status, "reference", reference)));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void enter() {
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+    }
+
+    private void pause() {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
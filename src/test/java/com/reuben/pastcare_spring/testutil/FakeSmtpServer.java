@@ -0,0 +1,339 @@
+package com.reuben.pastcare_spring.testutil;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A local stand-in for an SMTP server, for tests that send real mail over sockets.
+ *
+ * Speaks plain (no TLS) ESMTP: EHLO/HELO, AUTH PLAIN (any credentials), MAIL, RCPT, DATA,
+ * RSET, NOOP and QUIT, and keeps every accepted message. Latency, rejected recipients,
+ * temporary failures and servers that drop sessions can be injected per test.
+ *
+ * Usage:
+ * <pre>
+ * {@code
+ * try (FakeSmtpServer smtp = FakeSmtpServer.start()) {
+ *     settings.setPort(smtp.port());
+ *     smtp.rejectRecipient("bounce@example.com", 550);
+ *     smtp.failNextTransactions(3, 451);
+ *     ...
+ *     assertThat(smtp.deliveriesOf(messageId)).isEqualTo(1);
+ * }
+ * }
+ * </pre>
+ */
+public class FakeSmtpServer implements AutoCloseable {
+
+    private static final Pattern MESSAGE_ID = Pattern.compile("(?im)^Message-ID: <([^>]+)>");
+    private static final Pattern SUBJECT = Pattern.compile("(?im)^Subject: (.*)$");
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fake-smtp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+    private final Queue<Received> received = new ConcurrentLinkedQueue<>();
+    private final Map<String, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+    private final Map<String, Integer> rejectedRecipients = new ConcurrentHashMap<>();
+    private final AtomicInteger transientFailures = new AtomicInteger();
+    private volatile int transientFailureCode = 451;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger peakOpenConnections = new AtomicInteger();
+    private final AtomicInteger authentications = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int dropSessionsAfter;
+    private volatile boolean closed;
+
+    /**
+     * An accepted message: envelope, the raw DATA (dot-stuffing removed) and the session it arrived on.
+     */
+    public record Received(String from, String to, String data, int connection) {
+
+        public String messageId() {
+            Matcher matcher = MESSAGE_ID.matcher(data);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+
+        public String subject() {
+            Matcher matcher = SUBJECT.matcher(data);
+            return matcher.find() ? matcher.group(1).trim() : null;
+        }
+    }
+
+    private FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 256, InetAddress.getLoopbackAddress());
+    }
+
+    public static FakeSmtpServer start() {
+        try {
+            FakeSmtpServer fake = new FakeSmtpServer();
+            fake.executor.execute(fake::acceptLoop);
+            return fake;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start fake SMTP server", e);
+        }
+    }
+
+    public String host() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Delay before each DATA is acknowledged.
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Reply with the given code to RCPT TO for this address.
+     */
+    public void rejectRecipient(String address, int code) {
+        rejectedRecipients.put(address.toLowerCase(), code);
+    }
+
+    /**
+     * Reply with a temporary failure to the next {@code count} MAIL FROM commands.
+     */
+    public void failNextTransactions(int count, int code) {
+        transientFailureCode = code;
+        transientFailures.set(count);
+    }
+
+    /**
+     * Close each session, without a reply, when its next command arrives after it has carried
+     * {@code messages} messages (0 = never), like a server with a per-session message limit
+     * that does not say so.
+     */
+    public void dropSessionsAfter(int messages) {
+        dropSessionsAfter = messages;
+    }
+
+    public List<Received> received() {
+        return List.copyOf(received);
+    }
+
+    public int messages() {
+        return received.size();
+    }
+
+    public int deliveriesOf(String messageId) {
+        AtomicInteger count = deliveries.get(messageId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Sessions opened since the server started.
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    public int peakOpenConnections() {
+        return peakOpenConnections.get();
+    }
+
+    public int authentications() {
+        return authentications.get();
+    }
+
+    public void reset() {
+        received.clear();
+        deliveries.clear();
+        rejectedRecipients.clear();
+        transientFailures.set(0);
+        connections.set(0);
+        peakOpenConnections.set(openConnections.get());
+        authentications.set(0);
+        latency = Duration.ZERO;
+        dropSessionsAfter = 0;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // shutting down
+        }
+        sockets.forEach(FakeSmtpServer::closeQuietly);
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                int connection = connections.incrementAndGet();
+                executor.execute(() -> session(socket, connection));
+            } catch (IOException e) {
+                if (!closed) {
+                    throw new IllegalStateException("Fake SMTP server stopped accepting", e);
+                }
+            }
+        }
+    }
+
+    private void session(Socket socket, int connection) {
+        peakOpenConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            reply(out, "220 fake-smtp ESMTP ready");
+
+            String from = null;
+            String to = null;
+            int sessionMessages = 0;
+            String line;
+            while ((line = readLine(in)) != null) {
+                if (dropSessionsAfter > 0 && sessionMessages >= dropSessionsAfter) {
+                    return;
+                }
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-fake-smtp\r\n250-PIPELINING\r\n250-8BITMIME\r\n250 AUTH PLAIN LOGIN");
+                    case "HELO" -> reply(out, "250 fake-smtp");
+                    case "AUTH" -> {
+                        authentications.incrementAndGet();
+                        reply(out, "235 2.7.0 Authentication successful");
+                    }
+                    case "MAIL" -> {
+                        if (transientFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                            reply(out, transientFailureCode + " 4.3.0 Try again later");
+                        } else {
+                            from = address(line);
+                            to = null;
+                            reply(out, "250 2.1.0 OK");
+                        }
+                    }
+                    case "RCPT" -> {
+                        String recipient = address(line);
+                        Integer rejection = rejectedRecipients.get(recipient.toLowerCase());
+                        if (from == null) {
+                            reply(out, "503 5.5.1 MAIL first");
+                        } else if (rejection != null) {
+                            reply(out, rejection + " Recipient rejected");
+                        } else {
+                            to = recipient;
+                            reply(out, "250 2.1.5 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        if (to == null) {
+                            reply(out, "503 5.5.1 RCPT first");
+                            continue;
+                        }
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String data = readData(in);
+                        if (!latency.isZero()) {
+                            Thread.sleep(latency.toMillis());
+                        }
+                        Received message = new Received(from, to, data, connection);
+                        received.add(message);
+                        if (message.messageId() != null) {
+                            deliveries.computeIfAbsent(message.messageId(), id -> new AtomicInteger()).incrementAndGet();
+                        }
+                        sessionMessages++;
+                        from = null;
+                        to = null;
+                        reply(out, "250 2.0.0 Queued");
+                    }
+                    case "RSET" -> {
+                        from = null;
+                        to = null;
+                        reply(out, "250 2.0.0 OK");
+                    }
+                    case "NOOP" -> reply(out, "250 2.0.0 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 2.0.0 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 5.5.2 Command not recognized");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            openConnections.decrementAndGet();
+            sockets.remove(socket);
+        }
+    }
+
+    private static String address(String line) {
+        int open = line.indexOf('<');
+        int close = line.indexOf('>', open + 1);
+        return open >= 0 && close > open ? line.substring(open + 1, close) : "";
+    }
+
+    private static String readData(InputStream in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = readLine(in)) != null) {
+            if (line.equals(".")) {
+                return data.toString();
+            }
+            data.append(line.startsWith(".") ? line.substring(1) : line).append("\r\n");
+        }
+        throw new IOException("Session closed during DATA");
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                return new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+            line.write(b);
+        }
+        return null;
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // shutting down
+        }
+    }
+}
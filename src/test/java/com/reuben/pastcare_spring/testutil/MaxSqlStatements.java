@@ -0,0 +1,37 @@
+package com.reuben.pastcare_spring.testutil;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test if it issues more SQL statements than allowed.
+ *
+ * Only statements run on the test thread are counted (see {@link SqlBudgetExtension}),
+ * so call services directly rather than through HTTP. {@code @BeforeEach} setup is
+ * not counted.
+ *
+ * Usage:
+ * <pre>
+ * {@code
+ * @Test
+ * @MaxSqlStatements(8)
+ * void summaryUsesFixedNumberOfQueries() {
+ *     analyticsService.getAttendanceSummary(churchId, start, end);
+ * }
+ * }
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface MaxSqlStatements {
+
+    /**
+     * Maximum statements the test body may issue.
+     */
+    int value();
+}
@@ -0,0 +1,35 @@
+package com.reuben.pastcare_spring.testutil;
+
+import com.reuben.pastcare_spring.metrics.SqlStatementCounter;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enforces {@link MaxSqlStatements} using the same thread-local counter that
+ * backs the per-request SQL metrics, so a query-count fix stays fixed.
+ *
+ * The counter is reset just before the test body runs and checked right after it.
+ */
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        SqlStatementCounter.reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        long statements = SqlStatementCounter.get();
+        long sqlMillis = SqlStatementCounter.getExecutionNanos() / 1_000_000;
+        MaxSqlStatements budget = context.getRequiredTestMethod().getAnnotation(MaxSqlStatements.class);
+        if (budget == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+        assertThat(statements)
+            .as("SQL statements issued by %s (%d ms in SQL)", context.getDisplayName(), sqlMillis)
+            .isLessThanOrEqualTo(budget.value());
+    }
+}
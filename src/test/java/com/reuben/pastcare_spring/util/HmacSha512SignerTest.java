@@ -0,0 +1,80 @@
+package com.reuben.pastcare_spring.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("HmacSha512Signer")
+class HmacSha512SignerTest {
+
+    private static final String SECRET = "sk_test_secret";
+
+    private final HmacSha512Signer signer = new HmacSha512Signer(SECRET);
+
+    @Test
+    @DisplayName("Should produce the same signature as a freshly created Mac")
+    void matchesPlainMac() throws Exception {
+        String payload = "{\"event\":\"charge.success\",\"data\":{\"reference\":\"SUB-1\"}}";
+
+        assertThat(signer.sign(payload)).isEqualTo(reference(payload));
+        assertThat(signer.sign(payload)).isEqualTo(reference(payload)); // reused Mac was reset
+    }
+
+    @Test
+    @DisplayName("Should accept the matching signature and reject others")
+    void verifies() {
+        String payload = "{\"event\":\"charge.success\"}";
+        String signature = signer.sign(payload);
+
+        assertThat(signer.verify(payload, signature)).isTrue();
+        assertThat(signer.verify(payload + " ", signature)).isFalse();
+        assertThat(signer.verify(payload, signature.substring(1))).isFalse();
+        assertThat(signer.verify(payload, null)).isFalse();
+        assertThat(new HmacSha512Signer("other").verify(payload, signature)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should sign correctly from many threads at once")
+    void threadSafe() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                String payload = "{\"id\":" + i + "}";
+                results.add(executor.submit(() -> signer.sign(payload).equals(reference(payload))));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should know which secret it was created for")
+    void usesSecret() {
+        assertThat(signer.usesSecret(SECRET)).isTrue();
+        assertThat(signer.usesSecret("other")).isFalse();
+        assertThat(signer.usesSecret(null)).isFalse();
+        assertThatThrownBy(() -> new HmacSha512Signer("")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String reference(String payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA512");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+        return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}